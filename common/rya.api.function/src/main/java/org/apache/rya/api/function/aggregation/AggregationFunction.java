@@ -38,4 +38,16 @@ public interface AggregationFunction {
      * @param childBindingSet - The Binding Set whose values will be used to update the state.
      */
     public void update(AggregationElement aggregation, AggregationState state, VisibilityBindingSet childBindingSet);
+
+    /**
+     * Merges a partial {@link AggregationState} into another state. Each state must have been built by this
+     * function from a different subset of the child Binding Sets. Merging them produces the same result as
+     * updating a single state with every child Binding Set.
+     *
+     * @param aggregation - Defines which function needs to be performed as well as any details required
+     *   to do the aggregation work. (not null)
+     * @param state - The state that will be updated. (not null)
+     * @param partial - The partial state whose result will be merged into {@code state}. (not null)
+     */
+    public void merge(AggregationElement aggregation, AggregationState state, AggregationState partial);
 }
\ No newline at end of file
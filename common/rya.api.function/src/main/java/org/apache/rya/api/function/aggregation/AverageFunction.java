@@ -96,4 +96,28 @@ public final class AverageFunction implements AggregationFunction {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState partial) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.AVERAGE, "The AverageFunction only accepts AVERAGE AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(partial);
+
+        final String resultName = aggregation.getResultBindingName();
+        final AverageState partialState = partial.getAverageStates().get(resultName);
+        if(partialState != null) {
+            final Map<String, AverageState> averageStates = state.getAverageStates();
+            final AverageState oldState = averageStates.containsKey(resultName) ? averageStates.get(resultName) : new AverageState();
+            final BigDecimal sum = oldState.getSum().add( partialState.getSum() );
+            final BigInteger count = oldState.getCount().add( partialState.getCount() );
+
+            try {
+                final Literal average = MathUtil.compute(new DecimalLiteralImpl(sum), new IntegerLiteralImpl(count), MathOp.DIVIDE);
+                state.getBindingSet().addBinding(resultName, average);
+                averageStates.put(resultName, new AverageState(sum, count));
+            } catch (final ValueExprEvaluationException e) {
+                log.error("A problem was encountered while merging an Average Aggregation. This partial average will be ignored: " + partialState);
+            }
+        }
+    }
+}
@@ -61,4 +61,21 @@ public final class CountFunction implements AggregationFunction {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState partial) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.COUNT, "The CountFunction only accepts COUNT AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(partial);
+
+        final String resultName = aggregation.getResultBindingName();
+        if(partial.getBindingSet().hasBinding(resultName)) {
+            final MapBindingSet result = state.getBindingSet();
+            BigInteger count = ((Literal) partial.getBindingSet().getValue(resultName)).integerValue();
+            if(result.hasBinding(resultName)) {
+                count = count.add( ((Literal) result.getValue(resultName)).integerValue() );
+            }
+            result.addBinding(resultName, new IntegerLiteralImpl(count));
+        }
+    }
+}
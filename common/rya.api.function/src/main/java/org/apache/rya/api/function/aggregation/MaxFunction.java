@@ -63,4 +63,20 @@ public final class MaxFunction implements AggregationFunction {
             result.addBinding(resultName, max);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState partial) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.MAX, "The MaxFunction only accepts MAX AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(partial);
+
+        final String resultName = aggregation.getResultBindingName();
+        if(partial.getBindingSet().hasBinding(resultName)) {
+            final MapBindingSet result = state.getBindingSet();
+            final Value partialValue = partial.getBindingSet().getValue(resultName);
+            if(!result.hasBinding(resultName) || compare.compare(partialValue, result.getValue(resultName)) > 0) {
+                result.addBinding(resultName, partialValue);
+            }
+        }
+    }
+}
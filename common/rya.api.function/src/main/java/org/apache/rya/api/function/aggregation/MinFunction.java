@@ -63,4 +63,20 @@ public final class MinFunction implements AggregationFunction {
             result.addBinding(resultName, min);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState partial) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.MIN, "The MinFunction only accepts MIN AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(partial);
+
+        final String resultName = aggregation.getResultBindingName();
+        if(partial.getBindingSet().hasBinding(resultName)) {
+            final MapBindingSet result = state.getBindingSet();
+            final Value partialValue = partial.getBindingSet().getValue(resultName);
+            if(!result.hasBinding(resultName) || compare.compare(partialValue, result.getValue(resultName)) < 0) {
+                result.addBinding(resultName, partialValue);
+            }
+        }
+    }
+}
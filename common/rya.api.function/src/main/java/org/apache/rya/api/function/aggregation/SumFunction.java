@@ -85,4 +85,26 @@ public final class SumFunction implements AggregationFunction {
             result.addBinding(resultName, sum);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState partial) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.SUM, "The SumFunction only accepts SUM AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(partial);
+
+        final String resultName = aggregation.getResultBindingName();
+        if(partial.getBindingSet().hasBinding(resultName)) {
+            final MapBindingSet result = state.getBindingSet();
+            Literal sum = (Literal) partial.getBindingSet().getValue(resultName);
+            if(result.hasBinding(resultName)) {
+                try {
+                    sum = MathUtil.compute((Literal) result.getValue(resultName), sum, MathOp.PLUS);
+                } catch (final ValueExprEvaluationException e) {
+                    log.error("A problem was encountered while merging a Sum Aggregation. This partial sum will be ignored: " + sum);
+                    return;
+                }
+            }
+            result.addBinding(resultName, sum);
+        }
+    }
+}
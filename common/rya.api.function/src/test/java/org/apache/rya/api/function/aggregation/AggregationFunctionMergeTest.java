@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.function.aggregation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.junit.Test;
+import org.openrdf.model.Literal;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.impl.MapBindingSet;
+
+/**
+ * Unit tests the {@link AggregationFunction#merge(AggregationElement, AggregationState, AggregationState)}
+ * method of each {@link AggregationFunction}.
+ */
+public class AggregationFunctionMergeTest {
+    private static final ValueFactory VF = new ValueFactoryImpl();
+
+    @Test
+    public void count() {
+        final AggregationElement element = new AggregationElement(AggregationType.COUNT, "price", "result");
+        final AggregationState expected = update(new CountFunction(), element, makeChildren(1, 10));
+        final AggregationState merged = mergeHalves(new CountFunction(), element, makeChildren(1, 10));
+        assertEquals(expected.getBindingSet(), merged.getBindingSet());
+    }
+
+    @Test
+    public void sum() {
+        final AggregationElement element = new AggregationElement(AggregationType.SUM, "price", "result");
+        final AggregationState expected = update(new SumFunction(), element, makeChildren(1, 10));
+        final AggregationState merged = mergeHalves(new SumFunction(), element, makeChildren(1, 10));
+        assertEquals(expected.getBindingSet(), merged.getBindingSet());
+    }
+
+    @Test
+    public void average() {
+        final AggregationElement element = new AggregationElement(AggregationType.AVERAGE, "price", "result");
+        final AggregationState expected = update(new AverageFunction(), element, makeChildren(1, 10));
+        final AggregationState merged = mergeHalves(new AverageFunction(), element, makeChildren(1, 10));
+
+        final Literal expectedAverage = (Literal) expected.getBindingSet().getValue("result");
+        final Literal mergedAverage = (Literal) merged.getBindingSet().getValue("result");
+        assertEquals(0, expectedAverage.decimalValue().compareTo(mergedAverage.decimalValue()));
+        assertEquals(expected.getAverageStates().get("result").getCount(), merged.getAverageStates().get("result").getCount());
+    }
+
+    @Test
+    public void min() {
+        final AggregationElement element = new AggregationElement(AggregationType.MIN, "price", "result");
+        final AggregationState expected = update(new MinFunction(), element, makeChildren(3, 12));
+        final AggregationState merged = mergeHalves(new MinFunction(), element, makeChildren(3, 12));
+        assertEquals(expected.getBindingSet(), merged.getBindingSet());
+    }
+
+    @Test
+    public void max() {
+        final AggregationElement element = new AggregationElement(AggregationType.MAX, "price", "result");
+        final AggregationState expected = update(new MaxFunction(), element, makeChildren(3, 12));
+        final AggregationState merged = mergeHalves(new MaxFunction(), element, makeChildren(3, 12));
+        assertEquals(expected.getBindingSet(), merged.getBindingSet());
+    }
+
+    @Test
+    public void mergeEmptyPartial() {
+        final AggregationElement element = new AggregationElement(AggregationType.COUNT, "price", "result");
+        final AggregationState expected = update(new CountFunction(), element, makeChildren(1, 5));
+        final AggregationState merged = update(new CountFunction(), element, makeChildren(1, 5));
+        new CountFunction().merge(element, merged, new AggregationState());
+        assertEquals(expected.getBindingSet(), merged.getBindingSet());
+    }
+
+    private static List<VisibilityBindingSet> makeChildren(final int from, final int to) {
+        final List<VisibilityBindingSet> children = new ArrayList<>();
+        for(int i = from; i <= to; i++) {
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("item", VF.createURI("urn:apple"));
+            bs.addBinding("price", VF.createLiteral(i));
+            children.add(new VisibilityBindingSet(bs));
+        }
+        return children;
+    }
+
+    private static AggregationState update(final AggregationFunction function, final AggregationElement element, final List<VisibilityBindingSet> children) {
+        final AggregationState state = new AggregationState();
+        for(final VisibilityBindingSet child : children) {
+            function.update(element, state, child);
+        }
+        return state;
+    }
+
+    private static AggregationState mergeHalves(final AggregationFunction function, final AggregationElement element, final List<VisibilityBindingSet> children) {
+        final int half = children.size() / 2;
+        final AggregationState first = update(function, element, children.subList(0, half));
+        final AggregationState second = update(function, element, children.subList(half, children.size()));
+
+        final AggregationState merged = new AggregationState();
+        function.merge(element, merged, first);
+        function.merge(element, merged, second);
+        return merged;
+    }
+}
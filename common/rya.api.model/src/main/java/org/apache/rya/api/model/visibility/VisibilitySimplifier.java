@@ -21,6 +21,8 @@ package org.apache.rya.api.model.visibility;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -41,10 +43,28 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  *     <artifactId>accumulo.rya</artifactId>
  *     <version>3.2.12-incubating-SNAPSHOT</version>
  *   </dependancy>
+ *
+ * Join and aggregation results tend to combine the same few visibilities over and
+ * over, so the simplified forms are memoized in bounded caches that are shared by
+ * every thread. A simplified expression is its own simplified form, so results are
+ * also remembered as keys.
  */
 @DefaultAnnotation(NonNull.class)
 public class VisibilitySimplifier {
 
+    /**
+     * The maximum number of expressions each of the memo caches holds.
+     */
+    public static final int MAX_CACHED_EXPRESSIONS = 10000;
+
+    private static final Cache<String, String> SIMPLIFIED = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_EXPRESSIONS)
+            .build();
+
+    private static final Cache<VisibilityPair, String> UNIONS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_EXPRESSIONS)
+            .build();
+
     /**
      * Unions two visibility equations and then simplifies the result.
      *
@@ -64,7 +84,18 @@ public class VisibilitySimplifier {
             return vis1;
         }
 
-        return simplify("(" + vis1 + ")&(" + vis2 + ")");
+        if(vis1.equals(vis2)) {
+            return simplify(vis1);
+        }
+
+        // Simplification sorts the terms of the expression, so the order of the operands does not matter.
+        final VisibilityPair key = vis1.compareTo(vis2) < 0 ? new VisibilityPair(vis1, vis2) : new VisibilityPair(vis2, vis1);
+        String union = UNIONS.getIfPresent(key);
+        if(union == null) {
+            union = simplify("(" + key.first + ")&(" + key.second + ")");
+            UNIONS.put(key, union);
+        }
+        return union;
     }
 
     /**
@@ -76,6 +107,16 @@ public class VisibilitySimplifier {
     public static String simplify(final String visibility) {
         requireNonNull(visibility);
 
+        String simplified = SIMPLIFIED.getIfPresent(visibility);
+        if(simplified == null) {
+            simplified = flattenUntilFixpoint(visibility);
+            SIMPLIFIED.put(visibility, simplified);
+            SIMPLIFIED.put(simplified, simplified);
+        }
+        return simplified;
+    }
+
+    private static String flattenUntilFixpoint(final String visibility) {
         String last = visibility;
         String simplified = new String(new ColumnVisibility(visibility).flatten(), Charsets.UTF_8);
 
@@ -86,4 +127,36 @@ public class VisibilitySimplifier {
 
         return simplified;
     }
-}
\ No newline at end of file
+
+    /**
+     * An unordered pair of visibility expressions that are unioned.
+     */
+    private static final class VisibilityPair {
+        private final String first;
+        private final String second;
+        private final int hashCode;
+
+        public VisibilityPair(final String first, final String second) {
+            this.first = first;
+            this.second = second;
+            hashCode = 31 * first.hashCode() + second.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o instanceof VisibilityPair) {
+                final VisibilityPair other = (VisibilityPair) o;
+                return hashCode == other.hashCode && first.equals(other.first) && second.equals(other.second);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -94,6 +94,23 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
     public static final String REGEX_SUBJECT = "query.regex.subject";
     public static final String REGEX_PREDICATE = "query.regex.predicate";
     public static final String REGEX_OBJECT = "query.regex.object";
+
+    public static final String CONF_QUERY_CACHE_ENABLED = "query.cache.enabled";
+    public static final String CONF_QUERY_CACHE_MAX_ENTRIES = "query.cache.maxentries";
+    public static final String CONF_QUERY_CACHE_TTL_SECONDS = "query.cache.ttl.seconds";
+    public static final String CONF_QUERY_CACHE_MAX_MEMORY_RESULTS = "query.cache.maxmemoryresults";
+    public static final String CONF_QUERY_CACHE_MAX_RESULTS = "query.cache.maxresults";
+    public static final String CONF_QUERY_CACHE_SPILL_DIR = "query.cache.spilldir";
+
+    public static final String CONF_WRITE_BUFFER_ENABLED = "sail.writebuffer.enabled";
+    public static final String CONF_WRITE_BUFFER_MAX_STATEMENTS = "sail.writebuffer.maxstatements";
+    public static final String CONF_WRITE_BUFFER_MAX_BYTES = "sail.writebuffer.maxbytes";
+
+    public static final String CONF_FILTER_PUSHDOWN_ENABLED = "query.filter.pushdown.enabled";
+    public static final String CONF_FILTER_PUSHDOWN_RANGES = "query.filter.pushdown.ranges";
+    public static final String CONF_STATEMENT_FILTER = "query.statementfilter";
+    public static final String CONF_STATEMENT_METADATA_FILTER_PUSHDOWN = "statement.metadata.filter.pushdown";
+    public static final String CONF_STATEMENT_METADATA_FILTER = "query.statementmetadatafilter";
     private static final String[] EMPTY_STR_ARR = new String[0];
 
     private TableLayoutStrategy tableLayoutStrategy = new TablePrefixLayoutStrategy();
@@ -750,4 +767,214 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
         Preconditions.checkNotNull(regex);
         set(REGEX_OBJECT, regex);
     }
+
+    /**
+     * @return {@code true} if the results of read-only queries are cached by the sail.
+     * Defaults to {@code false} if nothing is specified.
+     */
+    public boolean isQueryCacheEnabled() {
+        return getBoolean(CONF_QUERY_CACHE_ENABLED, false);
+    }
+
+    /**
+     * Sets whether the results of read-only queries are cached by the sail. Cached results are
+     * invalidated when statements are written through the sail connection. Writes that bypass
+     * the sail are only picked up once the cached entry expires.
+     * @param enabled {@code true} to cache query results.
+     */
+    public void setQueryCacheEnabled(final boolean enabled) {
+        setBoolean(CONF_QUERY_CACHE_ENABLED, enabled);
+    }
+
+    /**
+     * @return The maximum number of query results held by the query cache. Defaults to 1000.
+     */
+    public long getQueryCacheMaxEntries() {
+        return getLong(CONF_QUERY_CACHE_MAX_ENTRIES, 1000L);
+    }
+
+    public void setQueryCacheMaxEntries(final long maxEntries) {
+        Preconditions.checkArgument(maxEntries > 0, "maxEntries must be greater than 0");
+        setLong(CONF_QUERY_CACHE_MAX_ENTRIES, maxEntries);
+    }
+
+    /**
+     * @return How long, in seconds, a query result stays in the query cache. A value of 0 means
+     * results only leave the cache through eviction or invalidation. Defaults to 300.
+     */
+    public long getQueryCacheTtlSeconds() {
+        return getLong(CONF_QUERY_CACHE_TTL_SECONDS, 300L);
+    }
+
+    public void setQueryCacheTtlSeconds(final long ttlSeconds) {
+        Preconditions.checkArgument(ttlSeconds >= 0, "ttlSeconds must be non negative");
+        setLong(CONF_QUERY_CACHE_TTL_SECONDS, ttlSeconds);
+    }
+
+    /**
+     * @return The number of binding sets a single cached query result may hold in memory before
+     * it is spilled to disk. Defaults to 10000.
+     */
+    public int getQueryCacheMaxMemoryResults() {
+        return getInt(CONF_QUERY_CACHE_MAX_MEMORY_RESULTS, 10000);
+    }
+
+    public void setQueryCacheMaxMemoryResults(final int maxMemoryResults) {
+        Preconditions.checkArgument(maxMemoryResults >= 0, "maxMemoryResults must be non negative");
+        setInt(CONF_QUERY_CACHE_MAX_MEMORY_RESULTS, maxMemoryResults);
+    }
+
+    /**
+     * @return The largest query result, in binding sets, that will be cached at all. Defaults to 1000000.
+     */
+    public long getQueryCacheMaxResults() {
+        return getLong(CONF_QUERY_CACHE_MAX_RESULTS, 1000000L);
+    }
+
+    public void setQueryCacheMaxResults(final long maxResults) {
+        Preconditions.checkArgument(maxResults > 0, "maxResults must be greater than 0");
+        setLong(CONF_QUERY_CACHE_MAX_RESULTS, maxResults);
+    }
+
+    /**
+     * @return The directory large cached query results are spilled to, or {@code null} to use
+     * the system temporary directory.
+     */
+    public String getQueryCacheSpillDir() {
+        return get(CONF_QUERY_CACHE_SPILL_DIR);
+    }
+
+    public void setQueryCacheSpillDir(final String spillDir) {
+        Preconditions.checkNotNull(spillDir);
+        set(CONF_QUERY_CACHE_SPILL_DIR, spillDir);
+    }
+
+    /**
+     * @return {@code true} if statements added through a sail connection are buffered until the
+     * connection commits or the buffer fills. Defaults to {@code false} if nothing is specified.
+     */
+    public boolean isWriteBufferEnabled() {
+        return getBoolean(CONF_WRITE_BUFFER_ENABLED, false);
+    }
+
+    /**
+     * Sets whether statements added through a sail connection are buffered and handed to the DAO
+     * in batches. Buffered statements are written when the connection commits, when the buffer
+     * fills, and before the connection reads or removes statements. Statements that have not been
+     * written yet are discarded when the connection rolls back.
+     * @param enabled {@code true} to buffer statements.
+     */
+    public void setWriteBufferEnabled(final boolean enabled) {
+        setBoolean(CONF_WRITE_BUFFER_ENABLED, enabled);
+    }
+
+    /**
+     * @return The number of statements a sail connection buffers before they are written. Defaults to 10000.
+     */
+    public int getWriteBufferMaxStatements() {
+        return getInt(CONF_WRITE_BUFFER_MAX_STATEMENTS, 10000);
+    }
+
+    public void setWriteBufferMaxStatements(final int maxStatements) {
+        Preconditions.checkArgument(maxStatements > 0, "maxStatements must be greater than 0");
+        setInt(CONF_WRITE_BUFFER_MAX_STATEMENTS, maxStatements);
+    }
+
+    /**
+     * @return The estimated size, in bytes, of the statements a sail connection buffers before they
+     * are written. Defaults to 32 MB.
+     */
+    public long getWriteBufferMaxBytes() {
+        return getLong(CONF_WRITE_BUFFER_MAX_BYTES, 32L * 1024 * 1024);
+    }
+
+    public void setWriteBufferMaxBytes(final long maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be greater than 0");
+        setLong(CONF_WRITE_BUFFER_MAX_BYTES, maxBytes);
+    }
+
+    /**
+     * @return {@code true} if simple FILTER expressions over a single statement pattern are
+     * evaluated where the statements are stored. Defaults to {@code false} if nothing is specified.
+     */
+    public boolean isFilterPushdownEnabled() {
+        return getBoolean(CONF_FILTER_PUSHDOWN_ENABLED, false);
+    }
+
+    /**
+     * Sets whether simple FILTER expressions over a single statement pattern are evaluated where
+     * the statements are stored. The FILTER is still evaluated by the sail, so this only changes
+     * how many statements are returned to it.
+     * <p>
+     * On Accumulo the filter runs in an iterator, so the accumulo.rya and rya.api jars and the
+     * Sesame query algebra jars must be on the classpath of every tablet server before this is
+     * enabled.
+     * @param enabled {@code true} to push filters down.
+     */
+    public void setFilterPushdownEnabled(final boolean enabled) {
+        setBoolean(CONF_FILTER_PUSHDOWN_ENABLED, enabled);
+    }
+
+    /**
+     * @return {@code true} if numeric comparisons against the object of a statement pattern are
+     * turned into range scans. Defaults to {@code false} if nothing is specified.
+     */
+    public boolean isFilterPushdownRangesEnabled() {
+        return getBoolean(CONF_FILTER_PUSHDOWN_RANGES, false);
+    }
+
+    /**
+     * Sets whether numeric comparisons against the object of a statement pattern are turned into
+     * range scans. A range scan only finds literals that have the same datatype as the constant
+     * the object is compared to, so only enable this if the predicates that are filtered this way
+     * always use a single numeric datatype.
+     * @param enabled {@code true} to turn numeric comparisons into range scans.
+     */
+    public void setFilterPushdownRangesEnabled(final boolean enabled) {
+        setBoolean(CONF_FILTER_PUSHDOWN_RANGES, enabled);
+    }
+
+    /**
+     * @return The serialized {@link org.apache.rya.api.query.filter.StatementFilter} that the
+     * statements a query reads must pass, or {@code null} if there is none.
+     */
+    public String getStatementFilter() {
+        return get(CONF_STATEMENT_FILTER);
+    }
+
+    public void setStatementFilter(final String filter) {
+        Preconditions.checkNotNull(filter);
+        set(CONF_STATEMENT_FILTER, filter);
+    }
+
+    /**
+     * @return {@code true} if the metadata constraints of reified queries are evaluated where the
+     * statements are stored. Defaults to {@code false} if nothing is specified.
+     */
+    public boolean isStatementMetadataFilterPushdownEnabled() {
+        return getBoolean(CONF_STATEMENT_METADATA_FILTER_PUSHDOWN, false);
+    }
+
+    /**
+     * Sets whether the metadata constraints of reified queries are evaluated where the statements
+     * are stored. On Accumulo this has the same tablet server classpath requirements as
+     * {@link #setFilterPushdownEnabled(boolean)}.
+     * @param enabled {@code true} to push metadata constraints down.
+     */
+    public void setStatementMetadataFilterPushdownEnabled(final boolean enabled) {
+        setBoolean(CONF_STATEMENT_METADATA_FILTER_PUSHDOWN, enabled);
+    }
+
+    /**
+     * @return The serialized {@link org.apache.rya.api.query.filter.StatementMetadataFilter} that
+     * the metadata of the statements a query reads must pass, or {@code null} if there is none.
+     */
+    public String getStatementMetadataFilter() {
+        return get(CONF_STATEMENT_METADATA_FILTER);
+    }
+
+    public void setStatementMetadataFilter(final String filter) {
+        Preconditions.checkNotNull(filter);
+        set(CONF_STATEMENT_METADATA_FILTER, filter);
+    }
 }
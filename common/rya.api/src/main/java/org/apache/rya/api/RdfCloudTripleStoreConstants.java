@@ -72,6 +72,9 @@ public class RdfCloudTripleStoreConstants {
     public static final String TBL_STATS_SUFFIX = "prospects";
     public static final String TBL_SEL_SUFFIX = "selectivity";
     public static final String TBL_NS_SUFFIX = "ns";
+    public static final String TBL_TERM2ID_SUFFIX = "term2id";
+    public static final String TBL_ID2TERM_SUFFIX = "id2term";
+    public static final String TBL_GRAPH_SUFFIX = "graph";
     public static String TBL_SPO = TBL_PRFX_DEF + TBL_SPO_SUFFIX;
     public static String TBL_PO = TBL_PRFX_DEF + TBL_PO_SUFFIX;
     public static String TBL_OSP = TBL_PRFX_DEF + TBL_OSP_SUFFIX;
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.client;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.openrdf.rio.RDFFormat;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Retunes the tables of an instance of Rya and pre-splits them so that statements are spread
+ * evenly across the tablet servers.
+ */
+@DefaultAnnotation(NonNull.class)
+public interface TuneTables {
+
+    /**
+     * Retunes the tables of an instance of Rya and pre-splits them.
+     *
+     * @param ryaInstanceName - The name of the Rya instance whose tables will be tuned. (not null)
+     * @param splitsPerTable - The maximum number of split points that are added to each table.
+     *   No splits are added if this is not positive.
+     * @param sampleFile - A file of statements like the ones that will be loaded. The split points
+     *   are picked from its statements. If absent, they are picked from the counts of the latest
+     *   prospector run. (not null)
+     * @param format - The format of the sample file. Required if the sample file is present. (not null)
+     * @throws InstanceDoesNotExistException No instance of Rya exists for the provided name.
+     * @throws RyaClientException Something caused the command to fail.
+     */
+    public void tuneTables(String ryaInstanceName, int splitsPerTable, Optional<Path> sampleFile, Optional<RDFFormat> format) throws InstanceDoesNotExistException, RyaClientException;
+}
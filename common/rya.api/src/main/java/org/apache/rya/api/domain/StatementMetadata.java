@@ -18,8 +18,12 @@
  */
 package org.apache.rya.api.domain;
 
+import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,8 +43,25 @@ import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 
+/**
+ * Properties that describe a statement, such as who created it. They are stored alongside the
+ * statement, so queries over reified statements do not need extra joins.
+ * <p>
+ * {@link #toBytes()} uses a compact binary encoding that starts with {@link #BINARY_VERSION}:
+ * a variable-length count of entries followed by, for each entry, the key, a marker byte that
+ * is {@link #URI_MARKER} or {@link #LITERAL_MARKER}, the datatype of literals, and the value.
+ * Each String is written as a variable-length byte count followed by its UTF-8 bytes. Values
+ * that were written as JSON by earlier versions are still read.
+ */
 public class StatementMetadata {
 
+    /**
+     * The first byte of metadata that uses the binary encoding. JSON never starts with it.
+     */
+    public static final byte BINARY_VERSION = 1;
+    public static final byte URI_MARKER = 0;
+    public static final byte LITERAL_MARKER = 1;
+
     private static Gson gson = new GsonBuilder().enableComplexMapKeySerialization()
     .registerTypeHierarchyAdapter(RyaType.class, new RyaTypeAdapter()).create();;
     public static StatementMetadata EMPTY_METADATA = new StatementMetadata();
@@ -53,8 +74,10 @@ public class StatementMetadata {
 
     public StatementMetadata(byte[] value) throws RdfDAOException {
         try {
-            if (value == null) {
+            if (value == null || value.length == 0) {
                 metadataMap = new HashMap<>();
+            } else if (value[0] == BINARY_VERSION) {
+                metadataMap = decode(value);
             } else {
                 // try to convert back to a json string and then back to the
                 // map.
@@ -90,18 +113,88 @@ public class StatementMetadata {
     }
 
     public byte[] toBytes() {
-        // convert the map to a json string
         if (metadataMap.isEmpty()) {
             return null;
         }
-        // TODO may want to cache this for performance reasons
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(BINARY_VERSION);
+        writeLength(out, metadataMap.size());
+        for (final Map.Entry<RyaURI, RyaType> entry : metadataMap.entrySet()) {
+            writeString(out, entry.getKey().getData());
+            final RyaType value = entry.getValue();
+            if (value instanceof RyaURI) {
+                out.write(URI_MARKER);
+            } else {
+                out.write(LITERAL_MARKER);
+                writeString(out, value.getDataType().stringValue());
+            }
+            writeString(out, value.getData());
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<RyaURI, RyaType> decode(final byte[] bytes) throws RdfDAOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
         try {
-            return toString().getBytes("UTF8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+            final int size = readLength(buffer);
+            final Map<RyaURI, RyaType> metadata = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                final RyaURI key = new RyaURI(readString(buffer));
+                final byte marker = buffer.get();
+                if (marker == URI_MARKER) {
+                    metadata.put(key, new RyaURI(readString(buffer)));
+                } else if (marker == LITERAL_MARKER) {
+                    final URIImpl dataType = new URIImpl(readString(buffer));
+                    metadata.put(key, new RyaType(dataType, readString(buffer)));
+                } else {
+                    throw new RdfDAOException("Unknown statement metadata value marker: " + marker);
+                }
+            }
+            return metadata;
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            throw new RdfDAOException("Malformed statement metadata.", e);
         }
     }
 
+    private static void writeLength(final ByteArrayOutputStream out, int length) {
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+    }
+
+    private static int readLength(final ByteBuffer buffer) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed length.");
+            }
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Length " + length + " is longer than the remaining bytes.");
+        }
+        return length;
+    }
+
+    private static void writeString(final ByteArrayOutputStream out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = readLength(buffer);
+        final String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
     public static class RyaTypeAdapter implements JsonSerializer<RyaType>, JsonDeserializer<RyaType> {
         @Override
         public JsonElement serialize(RyaType src, Type typeOfSrc, JsonSerializationContext context) {
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.layout;
+
+/**
+ * The ways the values of a statement may be written into the rows of the core SPO, PO, and OSP tables.
+ */
+public enum RyaTableLayout {
+    /**
+     * The subject, predicate, and object of each statement are written to the rows as their full
+     * lexical forms. This is the original layout and it supports every kind of query.
+     */
+    STRING,
+
+    /**
+     * Each distinct term is assigned a numeric id that is stored within a pair of dictionary tables.
+     * The rows of the core tables only hold the variable length encoded ids of a statement's terms, so
+     * long IRIs are only stored once. Range queries over subjects, predicates, or objects are not
+     * supported because the ids do not sort the same way as the values they represent.
+     */
+    DICTIONARY;
+}
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.filter;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.algebra.Compare.CompareOp;
+import org.openrdf.query.algebra.evaluation.ValueExprEvaluationException;
+import org.openrdf.query.algebra.evaluation.util.QueryEvaluationUtil;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.jcip.annotations.Immutable;
+
+/**
+ * A conjunction of simple SPARQL FILTER conditions that each test a single term of a statement.
+ * It can be serialized to a String, so it may be evaluated where the statements are stored
+ * instead of after they have been returned to the query's client.
+ * <p>
+ * The conditions follow the SPARQL semantics of the FILTER expression they were derived from: a
+ * condition that would raise a type error does not accept the statement.
+ */
+@Immutable
+@DefaultAnnotation(NonNull.class)
+public final class StatementFilter {
+
+    private static final String CONDITION_DELIM = "\n";
+    private static final String FIELD_DELIM = "\t";
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * The term of a statement a {@link Condition} tests.
+     */
+    public static enum Position {
+        SUBJECT,
+        PREDICATE,
+        OBJECT;
+    }
+
+    /**
+     * The kinds of test a {@link Condition} may perform.
+     */
+    public static enum Kind {
+        /**
+         * Compares the term to the condition's constant, like {@code ?o > 100}.
+         */
+        COMPARE,
+
+        /**
+         * Accepts terms that are IRIs, like {@code isIRI(?o)}.
+         */
+        IS_IRI,
+
+        /**
+         * Accepts terms that are literals, like {@code isLiteral(?o)}.
+         */
+        IS_LITERAL,
+
+        /**
+         * Compares the language tag of the term to the condition's constant, like {@code lang(?o) = "en"}.
+         */
+        LANG,
+
+        /**
+         * Compares the datatype of the term to the condition's constant, like {@code datatype(?o) = xsd:int}.
+         */
+        DATATYPE,
+
+        /**
+         * Accepts string literals that start with the condition's constant, like {@code STRSTARTS(?o, "a")}.
+         */
+        STRSTARTS,
+
+        /**
+         * Accepts terms whose string value starts with the condition's constant, like
+         * {@code STRSTARTS(STR(?o), "a")}.
+         */
+        STR_STRSTARTS;
+    }
+
+    /**
+     * A single test of a term of a statement.
+     */
+    @Immutable
+    @DefaultAnnotation(NonNull.class)
+    public static final class Condition {
+        private final Position position;
+        private final Kind kind;
+        private final CompareOp operator;
+        private final Value constant;
+
+        /**
+         * Constructs an instance of {@link Condition}.
+         *
+         * @param position - The term of the statement that is tested. (not null)
+         * @param kind - The kind of test that is performed. (not null)
+         * @param operator - How the term is compared to the constant. Only used by
+         *   {@link Kind#COMPARE}, {@link Kind#LANG} and {@link Kind#DATATYPE}. (not null)
+         * @param constant - The value the term is tested against. Ignored by {@link Kind#IS_IRI}
+         *   and {@link Kind#IS_LITERAL}. (not null)
+         */
+        public Condition(final Position position, final Kind kind, final CompareOp operator, final Value constant) {
+            this.position = requireNonNull(position);
+            this.kind = requireNonNull(kind);
+            this.operator = requireNonNull(operator);
+            this.constant = requireNonNull(constant);
+        }
+
+        public Position getPosition() {
+            return position;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public CompareOp getOperator() {
+            return operator;
+        }
+
+        public Value getConstant() {
+            return constant;
+        }
+
+        /**
+         * @param term - The term of the statement that is tested. (not null)
+         * @return {@code true} if the term passes the test; otherwise {@code false}.
+         */
+        public boolean accepts(final RyaType term) {
+            final Value value = RyaToRdfConversions.convertValue(term);
+            try {
+                switch (kind) {
+                case COMPARE:
+                    return QueryEvaluationUtil.compare(value, constant, operator);
+                case IS_IRI:
+                    return value instanceof URI;
+                case IS_LITERAL:
+                    return value instanceof Literal;
+                case LANG:
+                    if (!(value instanceof Literal)) {
+                        return false;
+                    }
+                    final String lang = ((Literal) value).getLanguage();
+                    return QueryEvaluationUtil.compare(new LiteralImpl(lang == null ? "" : lang), constant, operator);
+                case DATATYPE:
+                    if (!(value instanceof Literal)) {
+                        return false;
+                    }
+                    final URI datatype = ((Literal) value).getDatatype();
+                    return QueryEvaluationUtil.compare(datatype == null ? XMLSchema.STRING : datatype, constant, operator);
+                case STRSTARTS:
+                    if (!(value instanceof Literal) || !isStringLiteral((Literal) value)) {
+                        return false;
+                    }
+                    return value.stringValue().startsWith(constant.stringValue());
+                case STR_STRSTARTS:
+                    return value.stringValue().startsWith(constant.stringValue());
+                }
+            } catch (final ValueExprEvaluationException e) {
+                // A type error means the FILTER does not accept the statement.
+                return false;
+            }
+            return false;
+        }
+
+        private static boolean isStringLiteral(final Literal literal) {
+            final URI datatype = literal.getDatatype();
+            return datatype == null || XMLSchema.STRING.equals(datatype);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof Condition) {
+                final Condition other = (Condition) o;
+                return position == other.position && kind == other.kind &&
+                        operator == other.operator && constant.equals(other.constant);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(position, kind, operator, constant);
+        }
+
+        @Override
+        public String toString() {
+            return position + " " + kind + " " + operator + " " + constant;
+        }
+    }
+
+    private final List<Condition> conditions;
+
+    /**
+     * Constructs an instance of {@link StatementFilter}.
+     *
+     * @param conditions - The conditions a statement must pass. (not null)
+     */
+    public StatementFilter(final List<Condition> conditions) {
+        this.conditions = Collections.unmodifiableList(new ArrayList<>(requireNonNull(conditions)));
+    }
+
+    /**
+     * @return The conditions a statement must pass.
+     */
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * @param statement - The statement that is tested. (not null)
+     * @return {@code true} if the statement passes every condition; otherwise {@code false}.
+     */
+    public boolean accepts(final RyaStatement statement) {
+        requireNonNull(statement);
+        for (final Condition condition : conditions) {
+            final RyaType term = getTerm(statement, condition.getPosition());
+            if (term == null || !condition.accepts(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RyaType getTerm(final RyaStatement statement, final Position position) {
+        switch (position) {
+        case SUBJECT:
+            return statement.getSubject();
+        case PREDICATE:
+            return statement.getPredicate();
+        case OBJECT:
+            return statement.getObject();
+        }
+        return null;
+    }
+
+    /**
+     * @return A String that may be turned back into this filter using {@link #deserialize(String)}.
+     */
+    public String serialize() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Condition condition : conditions) {
+            if (builder.length() > 0) {
+                builder.append(CONDITION_DELIM);
+            }
+            final Value constant = condition.getConstant();
+            builder.append(condition.getPosition().name()).append(FIELD_DELIM)
+                .append(condition.getKind().name()).append(FIELD_DELIM)
+                .append(condition.getOperator().name()).append(FIELD_DELIM);
+            if (constant instanceof Literal) {
+                final Literal literal = (Literal) constant;
+                builder.append("L").append(FIELD_DELIM)
+                    .append(encode(literal.getDatatype() == null ? "" : literal.getDatatype().stringValue())).append(FIELD_DELIM)
+                    .append(encode(literal.getLanguage() == null ? "" : literal.getLanguage())).append(FIELD_DELIM);
+            } else {
+                builder.append("U").append(FIELD_DELIM)
+                    .append(FIELD_DELIM)
+                    .append(FIELD_DELIM);
+            }
+            builder.append(encode(constant.stringValue()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param serialized - A filter that was serialized using {@link #serialize()}. (not null)
+     * @return The filter that was serialized.
+     * @throws IllegalArgumentException The String is not a serialized filter.
+     */
+    public static StatementFilter deserialize(final String serialized) {
+        requireNonNull(serialized);
+        final List<Condition> conditions = new ArrayList<>();
+        if (!serialized.isEmpty()) {
+            for (final String part : serialized.split(CONDITION_DELIM)) {
+                final String[] fields = part.split(FIELD_DELIM, -1);
+                if (fields.length != 7) {
+                    throw new IllegalArgumentException("Malformed statement filter condition: " + part);
+                }
+
+                final Value constant;
+                final String label = decode(fields[6]);
+                if ("L".equals(fields[3])) {
+                    final String datatype = decode(fields[4]);
+                    final String language = decode(fields[5]);
+                    if (!language.isEmpty()) {
+                        constant = new LiteralImpl(label, language);
+                    } else if (!datatype.isEmpty()) {
+                        constant = new LiteralImpl(label, new URIImpl(datatype));
+                    } else {
+                        constant = new LiteralImpl(label);
+                    }
+                } else {
+                    constant = new URIImpl(label);
+                }
+
+                conditions.add(new Condition(
+                        Position.valueOf(fields[0]),
+                        Kind.valueOf(fields[1]),
+                        CompareOp.valueOf(fields[2]),
+                        constant));
+            }
+        }
+        return new StatementFilter(conditions);
+    }
+
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, ENCODING);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(final String value) {
+        try {
+            return URLDecoder.decode(value, ENCODING);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof StatementFilter) {
+            return conditions.equals(((StatementFilter) o).conditions);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return conditions.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return conditions.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.filter;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+
+import com.google.common.io.BaseEncoding;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.jcip.annotations.Immutable;
+
+/**
+ * Constraints the {@link StatementMetadata} of a statement must satisfy, such as
+ * {@code createdBy = X}. A statement passes if its metadata holds every required property and
+ * the required properties that have a constant value are equal to that value.
+ * <p>
+ * It can be serialized to a String, so it may be evaluated where the statements are stored.
+ */
+@Immutable
+@DefaultAnnotation(NonNull.class)
+public final class StatementMetadataFilter {
+
+    private static final String DELIM = ":";
+
+    private final Map<RyaURI, RyaType> requiredValues;
+    private final Set<RyaURI> requiredProperties;
+
+    /**
+     * Constructs an instance of {@link StatementMetadataFilter}.
+     *
+     * @param requiredValues - The metadata properties that must have a specific value. (not null)
+     * @param requiredProperties - The metadata properties that must be present with any value. (not null)
+     */
+    public StatementMetadataFilter(final Map<RyaURI, RyaType> requiredValues, final Set<RyaURI> requiredProperties) {
+        this.requiredValues = Collections.unmodifiableMap(new HashMap<>(requireNonNull(requiredValues)));
+        this.requiredProperties = Collections.unmodifiableSet(new HashSet<>(requireNonNull(requiredProperties)));
+    }
+
+    public Map<RyaURI, RyaType> getRequiredValues() {
+        return requiredValues;
+    }
+
+    public Set<RyaURI> getRequiredProperties() {
+        return requiredProperties;
+    }
+
+    /**
+     * @return {@code true} if the filter does not constrain anything.
+     */
+    public boolean isEmpty() {
+        return requiredValues.isEmpty() && requiredProperties.isEmpty();
+    }
+
+    /**
+     * @param metadata - The metadata of a statement. (not null)
+     * @return {@code true} if the metadata satisfies every constraint; otherwise {@code false}.
+     */
+    public boolean accepts(final StatementMetadata metadata) {
+        final Map<RyaURI, RyaType> properties = metadata.getMetadata();
+        for (final RyaURI property : requiredProperties) {
+            if (!properties.containsKey(property)) {
+                return false;
+            }
+        }
+        for (final Entry<RyaURI, RyaType> required : requiredValues.entrySet()) {
+            final RyaType value = properties.get(required.getKey());
+            // Compare the RDF values, which is how the statement metadata node compares them.
+            if (value == null || !RyaToRdfConversions.convertValue(value).equals(RyaToRdfConversions.convertValue(required.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A String that may be turned back into this filter using {@link #deserialize(String)}.
+     */
+    public String serialize() {
+        final StatementMetadata values = new StatementMetadata();
+        for (final Entry<RyaURI, RyaType> entry : requiredValues.entrySet()) {
+            values.addMetadata(entry.getKey(), entry.getValue());
+        }
+        final StatementMetadata properties = new StatementMetadata();
+        for (final RyaURI property : requiredProperties) {
+            properties.addMetadata(property, property);
+        }
+        return encode(values.toBytes()) + DELIM + encode(properties.toBytes());
+    }
+
+    /**
+     * @param serialized - A filter that was serialized using {@link #serialize()}. (not null)
+     * @return The filter that was serialized.
+     * @throws IllegalArgumentException The String is not a serialized filter.
+     */
+    public static StatementMetadataFilter deserialize(final String serialized) {
+        final String[] parts = serialized.split(DELIM, -1);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed statement metadata filter: " + serialized);
+        }
+        final StatementMetadata values = new StatementMetadata(BaseEncoding.base64().decode(parts[0]));
+        final StatementMetadata properties = new StatementMetadata(BaseEncoding.base64().decode(parts[1]));
+        return new StatementMetadataFilter(values.getMetadata(), properties.getMetadata().keySet());
+    }
+
+    private static String encode(final byte[] bytes) {
+        return bytes == null ? "" : BaseEncoding.base64().encode(bytes);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof StatementMetadataFilter) {
+            final StatementMetadataFilter other = (StatementMetadataFilter) o;
+            return requiredValues.equals(other.requiredValues) && requiredProperties.equals(other.requiredProperties);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * requiredValues.hashCode() + requiredProperties.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "values=" + requiredValues + ", properties=" + requiredProperties;
+    }
+}
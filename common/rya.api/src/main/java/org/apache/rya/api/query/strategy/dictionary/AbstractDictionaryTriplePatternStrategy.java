@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.strategy.dictionary;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.LAST_BYTES;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.domain.RyaRange;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.query.strategy.AbstractTriplePatternStrategy;
+import org.apache.rya.api.query.strategy.ByteRange;
+import org.apache.rya.api.resolver.triple.TermDictionary;
+import org.apache.rya.api.resolver.triple.TermIdCodec;
+import org.apache.rya.api.resolver.triple.TripleRowRegex;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+import com.google.common.primitives.Bytes;
+
+/**
+ * Defines the ranges of rows that were written by a
+ * {@link org.apache.rya.api.resolver.triple.impl.DictionaryTripleResolver}. The bound terms of the triple
+ * pattern are replaced with their ids, so a term that was never assigned an id results in a range that
+ * does not match any rows. Range patterns and row regular expressions are not supported because the rows
+ * do not hold the lexical forms of the terms.
+ */
+public abstract class AbstractDictionaryTriplePatternStrategy extends AbstractTriplePatternStrategy {
+
+    private final TermDictionary dictionary;
+
+    /**
+     * Constructs an instance of {@link AbstractDictionaryTriplePatternStrategy}.
+     *
+     * @param dictionary - Looks up the ids of the pattern's terms. (not null)
+     */
+    public AbstractDictionaryTriplePatternStrategy(final TermDictionary dictionary) {
+        this.dictionary = requireNonNull(dictionary);
+    }
+
+    /**
+     * Orders the terms of a triple pattern the same way they appear within this strategy's rows.
+     *
+     * @return The subject, predicate, and object in row order. Unbound terms are null.
+     */
+    protected abstract RyaType[] orderTerms(RyaURI subject, RyaURI predicate, RyaType object);
+
+    @Override
+    public Map.Entry<TABLE_LAYOUT, ByteRange> defineRange(final RyaURI subject, final RyaURI predicate, final RyaType object,
+                                                          final RyaURI context, final RdfCloudTripleStoreConfiguration conf) throws IOException {
+        if (!handles(subject, predicate, object, context)) {
+            return null;
+        }
+        if (subject instanceof RyaRange || predicate instanceof RyaRange || object instanceof RyaRange) {
+            throw new IOException("Range patterns are not supported by the dictionary table layout.");
+        }
+
+        // The bound terms always form a prefix of the row.
+        final List<RyaType> prefixTerms = new ArrayList<>(3);
+        for (final RyaType term : orderTerms(subject, predicate, object)) {
+            if (term == null) {
+                break;
+            }
+            prefixTerms.add(term);
+        }
+
+        byte[] start = new byte[0];
+        if (!prefixTerms.isEmpty()) {
+            try {
+                final Map<RyaType, Long> ids = dictionary.getIds(prefixTerms);
+                for (final RyaType term : prefixTerms) {
+                    final Long id = ids.get(term);
+                    start = Bytes.concat(start, TermIdCodec.encode(id == null ? TermIdCodec.UNASSIGNED_ID : id));
+                }
+            } catch (final TripleRowResolverException e) {
+                throw new IOException(e);
+            }
+        }
+        final byte[] stop = Bytes.concat(start, LAST_BYTES);
+        return new RdfCloudTripleStoreUtils.CustomEntry<TABLE_LAYOUT, ByteRange>(getLayout(), new ByteRange(start, stop));
+    }
+
+    @Override
+    public TripleRowRegex buildRegex(final String subject, final String predicate, final String object, final String context, final byte[] objectTypeInfo) {
+        // The object's type is part of its id, so it never needs to be filtered by a regular expression.
+        if (subject == null && predicate == null && object == null && context == null) {
+            return null;
+        }
+        throw new IllegalArgumentException("Regular expression filters are not supported by the dictionary table layout.");
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.strategy.dictionary;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.resolver.triple.TermDictionary;
+
+/**
+ * Scans the OSP table of the dictionary table layout.
+ */
+public class DictionaryOspTriplePatternStrategy extends AbstractDictionaryTriplePatternStrategy {
+
+    /**
+     * Constructs an instance of {@link DictionaryOspTriplePatternStrategy}.
+     *
+     * @param dictionary - Looks up the ids of the pattern's terms. (not null)
+     */
+    public DictionaryOspTriplePatternStrategy(final TermDictionary dictionary) {
+        super(dictionary);
+    }
+
+    @Override
+    public TABLE_LAYOUT getLayout() {
+        return TABLE_LAYOUT.OSP;
+    }
+
+    @Override
+    protected RyaType[] orderTerms(final RyaURI subject, final RyaURI predicate, final RyaType object) {
+        return new RyaType[] { object, subject, predicate };
+    }
+
+    @Override
+    public boolean handles(final RyaURI subject, final RyaURI predicate, final RyaType object, final RyaURI context) {
+        //os, o
+        return object != null && (subject != null || predicate == null);
+    }
+}
@@ -35,15 +35,20 @@ import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaURI;
 import org.apache.rya.api.query.strategy.TriplePatternStrategy;
+import org.apache.rya.api.query.strategy.dictionary.DictionaryOspTriplePatternStrategy;
+import org.apache.rya.api.query.strategy.dictionary.DictionaryPoTriplePatternStrategy;
+import org.apache.rya.api.query.strategy.dictionary.DictionarySpoTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.HashedPoWholeRowTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.HashedSpoWholeRowTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.NullRowTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.OspWholeRowTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.PoWholeRowTriplePatternStrategy;
 import org.apache.rya.api.query.strategy.wholerow.SpoWholeRowTriplePatternStrategy;
+import org.apache.rya.api.resolver.triple.TermDictionary;
 import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowResolver;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+import org.apache.rya.api.resolver.triple.impl.DictionaryTripleResolver;
 import org.apache.rya.api.resolver.triple.impl.WholeRowHashedTripleResolver;
 import org.apache.rya.api.resolver.triple.impl.WholeRowTripleResolver;
 
@@ -68,6 +73,18 @@ public class RyaTripleContext {
     }
 
 
+    /**
+     * Creates a context that reads and writes the dictionary table layout.
+     *
+     * @param dictionary - Assigns the ids that are written to the rows in place of the terms. (not null)
+     */
+    public RyaTripleContext(final TermDictionary dictionary) {
+        tripleResolver = new DictionaryTripleResolver(dictionary);
+        triplePatternStrategyList.add(new DictionarySpoTriplePatternStrategy(dictionary));
+        triplePatternStrategyList.add(new DictionaryPoTriplePatternStrategy(dictionary));
+        triplePatternStrategyList.add(new DictionaryOspTriplePatternStrategy(dictionary));
+    }
+
     private static class RyaTripleContextHolder {
     	// TODO want to be able to support more variability in configuration here
         public static final RyaTripleContext INSTANCE = new RyaTripleContext(false);
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.rya.api.domain.RyaType;
+
+/**
+ * Assigns numeric ids to the terms that appear within statements and maps those ids back to their terms.
+ * An id is assigned to a term once and never changes. The ids are greater than {@link TermIdCodec#UNASSIGNED_ID}.
+ */
+public interface TermDictionary {
+
+    /**
+     * Looks up the ids of terms, assigning new ids to any terms that do not have one yet.
+     *
+     * @param terms - The terms whose ids will be returned. (not null)
+     * @return A map from each of the terms to its id.
+     * @throws TripleRowResolverException The ids could not be read or assigned.
+     */
+    public Map<RyaType, Long> getOrAssignIds(Collection<? extends RyaType> terms) throws TripleRowResolverException;
+
+    /**
+     * Looks up the ids of terms without assigning new ones.
+     *
+     * @param terms - The terms whose ids will be returned. (not null)
+     * @return A map from each of the terms that has an id to that id. Terms that have not been assigned an id
+     *   are not included.
+     * @throws TripleRowResolverException The ids could not be read.
+     */
+    public Map<RyaType, Long> getIds(Collection<? extends RyaType> terms) throws TripleRowResolverException;
+
+    /**
+     * Looks up the terms that ids were assigned to.
+     *
+     * @param ids - The ids whose terms will be returned. (not null)
+     * @return A map from each of the ids that is assigned to its term. Unknown ids are not included.
+     * @throws TripleRowResolverException The terms could not be read.
+     */
+    public Map<Long, RyaType> getTerms(Collection<Long> ids) throws TripleRowResolverException;
+}
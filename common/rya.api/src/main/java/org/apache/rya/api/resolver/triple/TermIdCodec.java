@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Encodes the ids that are assigned to terms by a {@link TermDictionary} into a variable number of bytes.
+ * <p>
+ * The first byte of an encoded id holds the number of bytes that follow it. The remaining bytes are the
+ * id's big-endian value with its leading zero bytes removed. This means small ids take up little space,
+ * the encoded ids sort in the same order as the ids themselves, and no encoded id is a prefix of another.
+ * The last property allows encoded ids to be concatenated without delimiters and then scanned by prefix.
+ */
+public final class TermIdCodec {
+
+    /**
+     * An id that is never assigned to a term. Rows built from it will not match any stored row.
+     */
+    public static final long UNASSIGNED_ID = 0L;
+
+    /**
+     * The largest number of bytes an encoded id may take up.
+     */
+    public static final int MAX_ENCODED_LENGTH = 1 + Long.BYTES;
+
+    private TermIdCodec() { }
+
+    /**
+     * @param id - The id that will be encoded. (not negative)
+     * @return The encoded form of the id.
+     */
+    public static byte[] encode(final long id) {
+        checkArgument(id >= 0, "Term ids may not be negative.");
+
+        final int length = (Long.SIZE - Long.numberOfLeadingZeros(id) + 7) / 8;
+        final byte[] bytes = new byte[length + 1];
+        bytes[0] = (byte) length;
+
+        long remaining = id;
+        for(int i = length; i > 0; i--) {
+            bytes[i] = (byte) remaining;
+            remaining >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param bytes - The bytes that hold an encoded id. (not null)
+     * @param offset - The index of the first byte of the encoded id.
+     * @return The number of bytes the encoded id takes up.
+     */
+    public static int encodedLength(final byte[] bytes, final int offset) {
+        checkArgument(offset >= 0 && offset < bytes.length, "There is no encoded id at offset " + offset + ".");
+        final int length = bytes[offset] & 0xff;
+        checkArgument(length <= Long.BYTES && offset + length < bytes.length,
+                "The bytes at offset " + offset + " do not hold a valid encoded id.");
+        return length + 1;
+    }
+
+    /**
+     * @param bytes - The bytes that hold an encoded id. (not null)
+     * @param offset - The index of the first byte of the encoded id.
+     * @return The id that was decoded.
+     */
+    public static long decode(final byte[] bytes, final int offset) {
+        final int length = encodedLength(bytes, offset) - 1;
+        long id = 0;
+        for(int i = 1; i <= length; i++) {
+            id = (id << 8) | (bytes[offset + i] & 0xff);
+        }
+        return id;
+    }
+}
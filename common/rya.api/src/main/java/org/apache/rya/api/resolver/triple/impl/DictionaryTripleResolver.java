@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple.impl;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.EMPTY_BYTES;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.resolver.triple.TermDictionary;
+import org.apache.rya.api.resolver.triple.TermIdCodec;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolver;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+import com.google.common.primitives.Bytes;
+
+/**
+ * Will store triple in spo, po, osp. The row only holds the ids a {@link TermDictionary} assigned to the
+ * subject, predicate, and object, encoded using {@link TermIdCodec}. The context, qualifier, visibility,
+ * timestamp, and value are stored the same way {@link WholeRowTripleResolver} stores them.
+ */
+public class DictionaryTripleResolver implements TripleRowResolver {
+
+    private final TermDictionary dictionary;
+
+    /**
+     * Constructs an instance of {@link DictionaryTripleResolver}.
+     *
+     * @param dictionary - Assigns the ids of the terms that are written to the rows. (not null)
+     */
+    public DictionaryTripleResolver(final TermDictionary dictionary) {
+        this.dictionary = requireNonNull(dictionary);
+    }
+
+    /**
+     * @return Assigns the ids of the terms that are written to the rows.
+     */
+    public TermDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public Map<TABLE_LAYOUT, TripleRow> serialize(final RyaStatement stmt) throws TripleRowResolverException {
+        final RyaURI subject = stmt.getSubject();
+        final RyaURI predicate = stmt.getPredicate();
+        final RyaType object = stmt.getObject();
+        final RyaURI context = stmt.getContext();
+        final Long timestamp = stmt.getTimestamp();
+        final byte[] columnVisibility = stmt.getColumnVisibility();
+        final String qualifer = stmt.getQualifer();
+        final byte[] qualBytes = qualifer == null ? EMPTY_BYTES : qualifer.getBytes(StandardCharsets.UTF_8);
+        final byte[] value = stmt.getValue();
+        assert subject != null && predicate != null && object != null;
+        final byte[] cf = (context == null) ? EMPTY_BYTES : context.getData().getBytes(StandardCharsets.UTF_8);
+
+        final Map<RyaType, Long> ids = dictionary.getOrAssignIds(Arrays.asList(subject, predicate, object));
+        final byte[] subjBytes = TermIdCodec.encode(getId(ids, subject));
+        final byte[] predBytes = TermIdCodec.encode(getId(ids, predicate));
+        final byte[] objBytes = TermIdCodec.encode(getId(ids, object));
+
+        final Map<TABLE_LAYOUT, TripleRow> tripleRowMap = new HashMap<TABLE_LAYOUT, TripleRow>();
+        tripleRowMap.put(TABLE_LAYOUT.SPO,
+                new TripleRow(Bytes.concat(subjBytes, predBytes, objBytes), cf, qualBytes,
+                        timestamp, columnVisibility, value));
+        tripleRowMap.put(TABLE_LAYOUT.PO,
+                new TripleRow(Bytes.concat(predBytes, objBytes, subjBytes), cf, qualBytes,
+                        timestamp, columnVisibility, value));
+        tripleRowMap.put(TABLE_LAYOUT.OSP,
+                new TripleRow(Bytes.concat(objBytes, subjBytes, predBytes), cf, qualBytes,
+                        timestamp, columnVisibility, value));
+        return tripleRowMap;
+    }
+
+    @Override
+    public RyaStatement deserialize(final TABLE_LAYOUT table_layout, final TripleRow tripleRow) throws TripleRowResolverException {
+        assert tripleRow != null && table_layout != null;
+        final byte[] row = tripleRow.getRow();
+        final long first;
+        final long second;
+        final long third;
+        try {
+            final int secondOffset = TermIdCodec.encodedLength(row, 0);
+            final int thirdOffset = secondOffset + TermIdCodec.encodedLength(row, secondOffset);
+            first = TermIdCodec.decode(row, 0);
+            second = TermIdCodec.decode(row, secondOffset);
+            third = TermIdCodec.decode(row, thirdOffset);
+        } catch (final IllegalArgumentException e) {
+            throw new TripleRowResolverException("TripleRow[" + tripleRow + "] does not hold three encoded term ids.", e);
+        }
+
+        final byte[] columnFamily = tripleRow.getColumnFamily();
+        final boolean contextExists = columnFamily != null && columnFamily.length > 0;
+        final RyaURI context = (contextExists) ? (new RyaURI(new String(columnFamily, StandardCharsets.UTF_8))) : null;
+        final byte[] columnQualifier = tripleRow.getColumnQualifier();
+        final String qualifier = columnQualifier != null && columnQualifier.length > 0 ? new String(columnQualifier, StandardCharsets.UTF_8) : null;
+        final Long timestamp = tripleRow.getTimestamp();
+        final byte[] columnVisibility = tripleRow.getColumnVisibility();
+        final byte[] value = tripleRow.getValue();
+
+        final Map<Long, RyaType> terms = dictionary.getTerms(Arrays.asList(first, second, third));
+        switch (table_layout) {
+            case SPO:
+                return new RyaStatement(getURI(terms, first), getURI(terms, second), getTerm(terms, third),
+                        context, qualifier, columnVisibility, value, timestamp);
+            case PO:
+                return new RyaStatement(getURI(terms, third), getURI(terms, first), getTerm(terms, second),
+                        context, qualifier, columnVisibility, value, timestamp);
+            case OSP:
+                return new RyaStatement(getURI(terms, second), getURI(terms, third), getTerm(terms, first),
+                        context, qualifier, columnVisibility, value, timestamp);
+        }
+        throw new TripleRowResolverException("TripleRow[" + tripleRow + "] with Table layout[" + table_layout + "] is not deserializable");
+    }
+
+    private static long getId(final Map<RyaType, Long> ids, final RyaType term) throws TripleRowResolverException {
+        final Long id = ids.get(term);
+        if (id == null) {
+            throw new TripleRowResolverException("The dictionary did not assign an id to term " + term);
+        }
+        return id;
+    }
+
+    private static RyaType getTerm(final Map<Long, RyaType> terms, final long id) throws TripleRowResolverException {
+        final RyaType term = terms.get(id);
+        if (term == null) {
+            throw new TripleRowResolverException("The dictionary does not hold a term for id " + id);
+        }
+        return term;
+    }
+
+    private static RyaURI getURI(final Map<Long, RyaType> terms, final long id) throws TripleRowResolverException {
+        final RyaType term = getTerm(terms, id);
+        if (term instanceof RyaURI) {
+            return (RyaURI) term;
+        }
+        return new RyaURI(term.getData());
+    }
+}
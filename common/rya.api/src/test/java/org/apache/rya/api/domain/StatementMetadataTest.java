@@ -18,9 +18,14 @@
  */
 package org.apache.rya.api.domain;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.rya.api.persist.RdfDAOException;
 import org.junit.Assert;
 import org.junit.Test;
 import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
 
 public class StatementMetadataTest {
 
@@ -37,4 +42,38 @@ public class StatementMetadataTest {
         Assert.assertArrayEquals(singleData, new StatementMetadata(singleData).toBytes());
 
     }
+
+    @Test
+    public void binaryRoundTrip() throws Exception {
+        StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(new RyaURI("http://createdBy"), new RyaURI("http://Joe"));
+        metadata.addMetadata(new RyaURI("http://createdOn"), new RyaType(XMLSchema.DATE, "2017-01-04"));
+        metadata.addMetadata(new RyaURI("http://comment"), new RyaType("caf\u00e9 \u2603"));
+
+        byte[] data = metadata.toBytes();
+        Assert.assertEquals(StatementMetadata.BINARY_VERSION, data[0]);
+        Assert.assertEquals(metadata.getMetadata(), new StatementMetadata(data).getMetadata());
+        Assert.assertTrue(new StatementMetadata(data).getMetadata().get(new RyaURI("http://createdBy")) instanceof RyaURI);
+
+        // The binary form is much smaller than the JSON that used to be stored.
+        Assert.assertTrue(data.length * 2 < metadata.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void readsLegacyJson() throws Exception {
+        StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(new RyaURI("http://createdBy"), new RyaURI("http://Joe"));
+        metadata.addMetadata(new RyaURI("http://createdOn"), new RyaType(XMLSchema.DATE, "2017-01-04"));
+
+        byte[] json = metadata.toString().getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(metadata.getMetadata(), new StatementMetadata(json).getMetadata());
+    }
+
+    @Test(expected = RdfDAOException.class)
+    public void truncatedBinary() throws Exception {
+        StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(new RyaURI("http://createdBy"), new RyaURI("http://Joe"));
+        byte[] data = metadata.toBytes();
+        new StatementMetadata(Arrays.copyOf(data, data.length - 3));
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.query.filter.StatementFilter.Condition;
+import org.apache.rya.api.query.filter.StatementFilter.Kind;
+import org.apache.rya.api.query.filter.StatementFilter.Position;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.algebra.Compare.CompareOp;
+
+/**
+ * Tests the methods of {@link StatementFilter}.
+ */
+public class StatementFilterTest {
+
+    private final ValueFactory vf = new ValueFactoryImpl();
+    private RyaStatement price150;
+    private RyaStatement price50;
+    private RyaStatement label;
+
+    @Before
+    public void setUp() {
+        final RyaURI item = new RyaURI("urn:item");
+        price150 = new RyaStatement(item, new RyaURI("urn:price"), new RyaType(XMLSchema.INTEGER, "150"));
+        price50 = new RyaStatement(item, new RyaURI("urn:price"), new RyaType(XMLSchema.INTEGER, "50"));
+        label = new RyaStatement(item, new RyaURI("urn:label"), new RyaType("apple pie"));
+    }
+
+    @Test
+    public void compare() {
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.COMPARE, CompareOp.GT, vf.createLiteral("100", XMLSchema.INTEGER))));
+        assertTrue(filter.accepts(price150));
+        assertFalse(filter.accepts(price50));
+
+        // Comparing a string to a number is a type error.
+        assertFalse(filter.accepts(label));
+    }
+
+    @Test
+    public void termTypes() {
+        final StatementFilter isIri = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.IS_IRI, CompareOp.EQ, vf.createLiteral(""))));
+        final StatementFilter isLiteral = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.IS_LITERAL, CompareOp.EQ, vf.createLiteral(""))));
+        assertFalse(isIri.accepts(label));
+        assertTrue(isLiteral.accepts(label));
+    }
+
+    @Test
+    public void datatypeAndStrStarts() {
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.DATATYPE, CompareOp.EQ, XMLSchema.STRING),
+                new Condition(Position.OBJECT, Kind.STRSTARTS, CompareOp.EQ, vf.createLiteral("apple"))));
+        assertTrue(filter.accepts(label));
+        assertFalse(filter.accepts(price150));
+
+        final StatementFilter subjectFilter = new StatementFilter(Arrays.asList(
+                new Condition(Position.SUBJECT, Kind.STR_STRSTARTS, CompareOp.EQ, vf.createLiteral("urn:it"))));
+        assertTrue(subjectFilter.accepts(label));
+    }
+
+    @Test
+    public void serializationRoundTrip() {
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.COMPARE, CompareOp.LE, vf.createLiteral("100", XMLSchema.INTEGER)),
+                new Condition(Position.OBJECT, Kind.LANG, CompareOp.NE, vf.createLiteral("en")),
+                new Condition(Position.SUBJECT, Kind.COMPARE, CompareOp.EQ, vf.createURI("urn:a\tb")),
+                new Condition(Position.OBJECT, Kind.STRSTARTS, CompareOp.EQ, vf.createLiteral("line\nbreak", "en"))));
+        assertEquals(filter, StatementFilter.deserialize(filter.serialize()));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.query.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.domain.StatementMetadata;
+import org.junit.Test;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+/**
+ * Tests the methods of {@link StatementMetadataFilter}.
+ */
+public class StatementMetadataFilterTest {
+
+    private static final RyaURI CREATED_BY = new RyaURI("http://createdBy");
+    private static final RyaURI CREATED_ON = new RyaURI("http://createdOn");
+
+    @Test
+    public void requiredValue() {
+        final StatementMetadataFilter filter = new StatementMetadataFilter(
+                Collections.<RyaURI, RyaType>singletonMap(CREATED_BY, new RyaURI("http://Joe")),
+                Collections.<RyaURI>emptySet());
+
+        assertTrue(filter.accepts(metadata("http://Joe", "2017-01-04")));
+        assertFalse(filter.accepts(metadata("http://Bob", "2017-01-04")));
+        assertFalse(filter.accepts(new StatementMetadata()));
+    }
+
+    @Test
+    public void requiredProperty() {
+        final StatementMetadataFilter filter = new StatementMetadataFilter(
+                Collections.<RyaURI, RyaType>emptyMap(),
+                Collections.singleton(CREATED_ON));
+
+        assertTrue(filter.accepts(metadata("http://Joe", "2017-01-04")));
+
+        final StatementMetadata noDate = new StatementMetadata();
+        noDate.addMetadata(CREATED_BY, new RyaURI("http://Joe"));
+        assertFalse(filter.accepts(noDate));
+    }
+
+    @Test
+    public void emptyAcceptsEverything() {
+        final StatementMetadataFilter filter = new StatementMetadataFilter(
+                Collections.<RyaURI, RyaType>emptyMap(), Collections.<RyaURI>emptySet());
+
+        assertTrue(filter.isEmpty());
+        assertTrue(filter.accepts(new StatementMetadata()));
+    }
+
+    @Test
+    public void serializeRoundTrip() {
+        final Map<RyaURI, RyaType> values = new HashMap<>();
+        values.put(CREATED_BY, new RyaURI("http://Joe"));
+        values.put(CREATED_ON, new RyaType(XMLSchema.DATE, "2017-01-04"));
+        final StatementMetadataFilter filter = new StatementMetadataFilter(values, Collections.singleton(new RyaURI("http://source")));
+
+        assertEquals(filter, StatementMetadataFilter.deserialize(filter.serialize()));
+
+        final StatementMetadataFilter empty = new StatementMetadataFilter(
+                Collections.<RyaURI, RyaType>emptyMap(), Collections.<RyaURI>emptySet());
+        assertEquals(empty, StatementMetadataFilter.deserialize(empty.serialize()));
+    }
+
+    private static StatementMetadata metadata(final String createdBy, final String createdOn) {
+        final StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(CREATED_BY, new RyaURI(createdBy));
+        metadata.addMetadata(CREATED_ON, new RyaType(XMLSchema.DATE, createdOn));
+        return metadata;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+/**
+ * A {@link TermDictionary} that is held in memory. It is used to test the classes that use a dictionary.
+ */
+public class MemoryTermDictionary implements TermDictionary {
+
+    private final Map<RyaType, Long> ids = new HashMap<>();
+    private final Map<Long, RyaType> terms = new HashMap<>();
+    private long nextId = TermIdCodec.UNASSIGNED_ID + 1;
+
+    @Override
+    public synchronized Map<RyaType, Long> getOrAssignIds(final Collection<? extends RyaType> toAssign) {
+        for (final RyaType term : toAssign) {
+            if (!ids.containsKey(term)) {
+                final RyaType stored = XMLSchema.ANYURI.equals(term.getDataType()) ? new RyaURI(term.getData()) : term;
+                ids.put(stored, nextId);
+                terms.put(nextId, stored);
+                nextId++;
+            }
+        }
+        return getIds(toAssign);
+    }
+
+    @Override
+    public synchronized Map<RyaType, Long> getIds(final Collection<? extends RyaType> toFind) {
+        final Map<RyaType, Long> found = new HashMap<>();
+        for (final RyaType term : toFind) {
+            if (ids.containsKey(term)) {
+                found.put(term, ids.get(term));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized Map<Long, RyaType> getTerms(final Collection<Long> toFind) {
+        final Map<Long, RyaType> found = new HashMap<>();
+        for (final Long id : toFind) {
+            if (terms.containsKey(id)) {
+                found.put(id, terms.get(id));
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Tests the methods of {@link TermIdCodec}.
+ */
+public class TermIdCodecTest {
+
+    @Test
+    public void roundTrip() {
+        final long[] ids = { 0L, 1L, 255L, 256L, 65535L, 1L << 32, Long.MAX_VALUE };
+        for (final long id : ids) {
+            final byte[] encoded = TermIdCodec.encode(id);
+            assertEquals(encoded.length, TermIdCodec.encodedLength(encoded, 0));
+            assertEquals(id, TermIdCodec.decode(encoded, 0));
+        }
+    }
+
+    @Test
+    public void smallIdsAreShort() {
+        assertArrayEquals(new byte[] { 0 }, TermIdCodec.encode(0L));
+        assertArrayEquals(new byte[] { 1, 127 }, TermIdCodec.encode(127L));
+        assertArrayEquals(new byte[] { 2, 1, 0 }, TermIdCodec.encode(256L));
+        assertEquals(TermIdCodec.MAX_ENCODED_LENGTH, TermIdCodec.encode(Long.MAX_VALUE).length);
+    }
+
+    @Test
+    public void encodedIdsSortLikeIds() {
+        final long[] ids = { 0L, 1L, 200L, 255L, 256L, 70000L, 1L << 40, Long.MAX_VALUE };
+        for (int i = 1; i < ids.length; i++) {
+            final byte[] smaller = TermIdCodec.encode(ids[i - 1]);
+            final byte[] larger = TermIdCodec.encode(ids[i]);
+            assertTrue(UnsignedBytes.lexicographicalComparator().compare(smaller, larger) < 0);
+        }
+    }
+
+    @Test
+    public void concatenatedIds() {
+        final byte[] row = Bytes.concat(TermIdCodec.encode(3L), TermIdCodec.encode(300000L), TermIdCodec.encode(0L));
+        final int second = TermIdCodec.encodedLength(row, 0);
+        final int third = second + TermIdCodec.encodedLength(row, second);
+        assertEquals(3L, TermIdCodec.decode(row, 0));
+        assertEquals(300000L, TermIdCodec.decode(row, second));
+        assertEquals(0L, TermIdCodec.decode(row, third));
+        assertEquals(row.length, third + TermIdCodec.encodedLength(row, third));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedId() {
+        TermIdCodec.decode(new byte[] { 3, 1, 2 }, 0);
+    }
+}
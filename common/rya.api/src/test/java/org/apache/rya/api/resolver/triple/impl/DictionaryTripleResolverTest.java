@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.resolver.triple.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.resolver.triple.MemoryTermDictionary;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+import org.junit.Test;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+/**
+ * Tests the methods of {@link DictionaryTripleResolver}.
+ */
+public class DictionaryTripleResolverTest {
+
+    private final DictionaryTripleResolver resolver = new DictionaryTripleResolver(new MemoryTermDictionary());
+
+    @Test
+    public void roundTripEveryLayout() throws Exception {
+        final RyaStatement stmt = new RyaStatement(
+                new RyaURI("urn:test#subject"),
+                new RyaURI("urn:test#predicate"),
+                new RyaType(XMLSchema.INTEGER, "42"),
+                new RyaURI("urn:test#context"), "qualifier", "U".getBytes(StandardCharsets.UTF_8), null, 100L);
+
+        final Map<TABLE_LAYOUT, TripleRow> rows = resolver.serialize(stmt);
+        for (final TABLE_LAYOUT layout : new TABLE_LAYOUT[] { TABLE_LAYOUT.SPO, TABLE_LAYOUT.PO, TABLE_LAYOUT.OSP }) {
+            assertEquals(stmt, resolver.deserialize(layout, rows.get(layout)));
+        }
+    }
+
+    @Test
+    public void rowsHoldOnlyIds() throws Exception {
+        final String longIri = "http://example.org/a/very/long/namespace/that/would/otherwise/be/stored/three/times#subject";
+        final RyaStatement stmt = new RyaStatement(new RyaURI(longIri), new RyaURI("urn:test#predicate"), new RyaURI("urn:test#object"));
+
+        final Map<TABLE_LAYOUT, TripleRow> rows = resolver.serialize(stmt);
+        for (final TripleRow row : rows.values()) {
+            assertTrue(row.getRow().length <= 6);
+        }
+    }
+
+    @Test
+    public void sameTermsSameIds() throws Exception {
+        final RyaStatement first = new RyaStatement(new RyaURI("urn:alice"), new RyaURI("urn:knows"), new RyaURI("urn:bob"));
+        final RyaStatement second = new RyaStatement(new RyaURI("urn:bob"), new RyaURI("urn:knows"), new RyaURI("urn:alice"));
+
+        final byte[] firstSpo = resolver.serialize(first).get(TABLE_LAYOUT.SPO).getRow();
+        final byte[] secondOsp = resolver.serialize(second).get(TABLE_LAYOUT.OSP).getRow();
+
+        // The OSP row of the second statement is the first statement's subject, object, and predicate.
+        assertEquals(firstSpo[1], secondOsp[1]);
+        assertEquals(firstSpo[5], secondOsp[3]);
+    }
+
+    @Test(expected = TripleRowResolverException.class)
+    public void unknownId() throws Exception {
+        final TripleRow row = new TripleRow(new byte[] { 1, 100, 1, 101, 1, 102 }, new byte[0], new byte[0]);
+        resolver.deserialize(TABLE_LAYOUT.SPO, row);
+    }
+}
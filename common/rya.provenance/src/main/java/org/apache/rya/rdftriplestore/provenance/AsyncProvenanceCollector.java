@@ -0,0 +1,248 @@
+package org.apache.rya.rdftriplestore.provenance;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import org.openrdf.model.Statement;
+
+/**
+ * Records provenance data to an external rdf triplestore without blocking the query thread.
+ * <p>
+ * Queries are placed in a bounded buffer and a single background thread writes them to the
+ * {@link TriplestoreProvenanceCollector} in batches, one transaction per batch. What happens when the
+ * buffer is full is decided by the {@link FullBufferPolicy}. Call {@link #close()} to write the
+ * queries that are still buffered and release the connection to the provenance repository.
+ */
+public class AsyncProvenanceCollector implements ProvenanceCollector {
+
+	private static final Logger log = Logger.getLogger(AsyncProvenanceCollector.class);
+
+	public static final int DEFAULT_BUFFER_CAPACITY = 10000;
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	public static final long DEFAULT_BLOCK_TIMEOUT_MS = 1000;
+	public static final long DEFAULT_CLOSE_TIMEOUT_MS = 30000;
+
+	/**
+	 * What to do with a query when the buffer is full.
+	 */
+	public static enum FullBufferPolicy {
+		/**
+		 * Discard the query immediately.
+		 */
+		DROP,
+		/**
+		 * Wait for room in the buffer, up to the block timeout, before discarding the query.
+		 */
+		BLOCK;
+	}
+
+	private final TriplestoreProvenanceCollector writer;
+	private final BlockingQueue<QueryEvent> buffer;
+	private final int batchSize;
+	private final FullBufferPolicy fullBufferPolicy;
+	private final long blockTimeoutMs;
+	private final Thread writerThread;
+
+	private final AtomicLong recordedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a collector that uses the default buffer capacity and batch size and drops queries when
+	 * the buffer is full.
+	 * @param writer the collector that writes the batches to the provenance repository
+	 */
+	public AsyncProvenanceCollector(TriplestoreProvenanceCollector writer) {
+		this(writer, DEFAULT_BUFFER_CAPACITY, DEFAULT_BATCH_SIZE, FullBufferPolicy.DROP, DEFAULT_BLOCK_TIMEOUT_MS);
+	}
+
+	/**
+	 * @param writer the collector that writes the batches to the provenance repository
+	 * @param bufferCapacity the maximum number of queries that may wait to be written
+	 * @param batchSize the maximum number of queries written in a single transaction
+	 * @param fullBufferPolicy what to do with a query when the buffer is full
+	 * @param blockTimeoutMs how long {@link FullBufferPolicy#BLOCK} waits for room in the buffer
+	 */
+	public AsyncProvenanceCollector(TriplestoreProvenanceCollector writer, int bufferCapacity, int batchSize,
+			FullBufferPolicy fullBufferPolicy, long blockTimeoutMs) {
+		if (writer == null || fullBufferPolicy == null) {
+			throw new NullPointerException("The writer and full buffer policy must be provided.");
+		}
+		if (bufferCapacity <= 0 || batchSize <= 0 || blockTimeoutMs < 0) {
+			throw new IllegalArgumentException("The buffer capacity and batch size must be positive and the block timeout must not be negative.");
+		}
+		this.writer = writer;
+		this.buffer = new ArrayBlockingQueue<QueryEvent>(bufferCapacity);
+		this.batchSize = batchSize;
+		this.fullBufferPolicy = fullBufferPolicy;
+		this.blockTimeoutMs = blockTimeoutMs;
+
+		writerThread = new Thread(new Runnable() {
+			public void run() {
+				writeBatches();
+			}
+		}, "rya-provenance-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.rya.rdftriplestore.provenance.ProvenanceCollector#recordQuery(java.lang.String)
+	 */
+	public void recordQuery(String query) {
+		if (closed) {
+			droppedCount.incrementAndGet();
+			return;
+		}
+
+		final QueryEvent event = new QueryEvent(query, new Date());
+		boolean buffered = buffer.offer(event);
+		if (!buffered && fullBufferPolicy == FullBufferPolicy.BLOCK) {
+			try {
+				buffered = buffer.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (!buffered) {
+			droppedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Stops accepting queries, writes the queries that are still buffered, and closes the connection
+	 * to the provenance repository.
+	 * @param timeoutMs how long to wait for the buffered queries to be written
+	 * @throws InterruptedException the calling thread was interrupted while waiting
+	 */
+	public void close(long timeoutMs) throws InterruptedException {
+		closed = true;
+		try {
+			writerThread.join(timeoutMs);
+		} finally {
+			if (writerThread.isAlive()) {
+				writerThread.interrupt();
+				log.warn("Timed out waiting for buffered provenance data to be written.");
+			}
+			writer.close();
+		}
+
+		// Queries that were buffered after the writer thread finished will never be written.
+		final List<QueryEvent> unwritten = new ArrayList<QueryEvent>();
+		buffer.drainTo(unwritten);
+		droppedCount.addAndGet(unwritten.size());
+	}
+
+	/**
+	 * Stops accepting queries, writes the queries that are still buffered, and closes the connection
+	 * to the provenance repository. Waits at most {@link #DEFAULT_CLOSE_TIMEOUT_MS}.
+	 * @throws InterruptedException the calling thread was interrupted while waiting
+	 */
+	public void close() throws InterruptedException {
+		close(DEFAULT_CLOSE_TIMEOUT_MS);
+	}
+
+	/**
+	 * @return the number of queries that have been written to the provenance repository
+	 */
+	public long getRecordedCount() {
+		return recordedCount.get();
+	}
+
+	/**
+	 * @return the number of queries that were discarded because the buffer was full or the collector was closed
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return the number of queries that were discarded because they could not be written
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	/**
+	 * @return the number of queries that are waiting to be written
+	 */
+	public int getBufferedCount() {
+		return buffer.size();
+	}
+
+	private void writeBatches() {
+		final List<QueryEvent> batch = new ArrayList<QueryEvent>(batchSize);
+		while (!closed || !buffer.isEmpty()) {
+			try {
+				final QueryEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+			} catch (InterruptedException e) {
+				log.warn("The provenance writer was interrupted. Buffered provenance data will not be written.");
+				return;
+			}
+			buffer.drainTo(batch, batchSize - 1);
+			writeBatch(batch);
+			batch.clear();
+		}
+	}
+
+	private void writeBatch(List<QueryEvent> batch) {
+		final List<Statement> statements = new ArrayList<Statement>();
+		for (QueryEvent event : batch) {
+			statements.addAll(writer.getStatementsForQuery(event.query, event.atTime));
+		}
+		try {
+			writer.writeStatements(statements);
+			recordedCount.addAndGet(batch.size());
+		} catch (ProvenanceCollectionException | RuntimeException e) {
+			failedCount.addAndGet(batch.size());
+			log.warn("Could not write " + batch.size() + " provenance records.", e);
+		}
+	}
+
+	/**
+	 * A query that is waiting to be written.
+	 */
+	private static final class QueryEvent {
+		private final String query;
+		private final Date atTime;
+
+		public QueryEvent(String query, Date atTime) {
+			this.query = query;
+			this.atTime = atTime;
+		}
+	}
+}
@@ -31,6 +31,10 @@ public class ProvenanceCollectionException extends Exception {
 		super(e);
 	}
 
+	public ProvenanceCollectionException(String message) {
+		super(message);
+	}
+
 	/**
 	 * 
 	 */
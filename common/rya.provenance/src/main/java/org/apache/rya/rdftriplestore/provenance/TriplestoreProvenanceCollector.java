@@ -20,24 +20,36 @@ package org.apache.rya.rdftriplestore.provenance;
  */
 
 
+
+import java.util.Date;
 import java.util.List;
 
+import org.apache.log4j.Logger;
 import org.apache.rya.rdftriplestore.provenance.rdf.BaseProvenanceModel;
 import org.apache.rya.rdftriplestore.provenance.rdf.RDFProvenanceModel;
 
 import org.openrdf.model.Statement;
 import org.openrdf.repository.RepositoryException;
 import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
 
 /**
- * Records provenance data to an external rdf triplestore
+ * Records provenance data to an external rdf triplestore.
+ * <p>
+ * A single connection to the provenance repository is opened on the first write and reused until
+ * {@link #close()} is called. Use an {@link AsyncProvenanceCollector} to keep the writes off the
+ * query thread.
  */
 public class TriplestoreProvenanceCollector implements ProvenanceCollector {
 
+	private static final Logger log = Logger.getLogger(TriplestoreProvenanceCollector.class);
+
 	private RDFProvenanceModel provenanceModel;
 	private SailRepository provenanceRepo;
 	private String user;
 	private String queryType;
+	private SailRepositoryConnection provenanceConn;
+	private boolean closed = false;
 	
 	/**
 	 * @param repo the repository to record to
@@ -55,14 +67,60 @@ public class TriplestoreProvenanceCollector implements ProvenanceCollector {
 	 * @see org.apache.rya.rdftriplestore.provenance.ProvenanceCollector#recordQuery(java.lang.String)
 	 */
 	public void recordQuery(String query) throws ProvenanceCollectionException {
-		List<Statement> provenanceTriples = provenanceModel.getStatementsForQuery(query, user, queryType);
+		writeStatements(getStatementsForQuery(query, new Date()));
+	}
+
+	/**
+	 * @param query the query being recorded
+	 * @param atTime the time the query was issued
+	 * @return the provenance statements that describe the query
+	 */
+	public List<Statement> getStatementsForQuery(String query, Date atTime) {
+		return provenanceModel.getStatementsForQuery(query, user, queryType, atTime);
+	}
+
+	/**
+	 * Writes provenance statements to the repository within a single transaction.
+	 * @param provenanceTriples the statements to write
+	 * @throws ProvenanceCollectionException the statements could not be written or the collector has been closed
+	 */
+	public synchronized void writeStatements(List<Statement> provenanceTriples) throws ProvenanceCollectionException {
+		if (closed) {
+			throw new ProvenanceCollectionException("The provenance collector has been closed.");
+		}
 		try {
-			provenanceRepo.getConnection().add(provenanceTriples);
+			if (provenanceConn == null) {
+				provenanceConn = provenanceRepo.getConnection();
+			}
+			provenanceConn.begin();
+			provenanceConn.add(provenanceTriples);
+			provenanceConn.commit();
 		} catch (RepositoryException e) {
+			// Do not reuse a connection that may be left in a broken state.
+			closeConnection();
 			throw new ProvenanceCollectionException(e);
 		}
+	}
 
+	/**
+	 * Closes the connection to the provenance repository. The repository itself is not shut down.
+	 */
+	public synchronized void close() {
+		closed = true;
+		closeConnection();
 	}
 
-	
+	private void closeConnection() {
+		if (provenanceConn != null) {
+			try {
+				if (provenanceConn.isActive()) {
+					provenanceConn.rollback();
+				}
+				provenanceConn.close();
+			} catch (RepositoryException e) {
+				log.warn("Could not close the provenance repository connection.", e);
+			}
+			provenanceConn = null;
+		}
+	}
 }
@@ -49,12 +49,19 @@ public class BaseProvenanceModel implements RDFProvenanceModel {
 	 * @see org.apache.rya.rdftriplestore.provenance.rdf.RDFProvenanceModel#getStatementsForQuery(java.lang.String, java.lang.String, java.lang.String)
 	 */
 	public List<Statement> getStatementsForQuery(String query, String user, String queryType) {
+		return getStatementsForQuery(query, user, queryType, new Date());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.rya.rdftriplestore.provenance.rdf.RDFProvenanceModel#getStatementsForQuery(java.lang.String, java.lang.String, java.lang.String, java.util.Date)
+	 */
+	public List<Statement> getStatementsForQuery(String query, String user, String queryType, Date atTime) {
 		List<Statement> statements = new ArrayList<Statement>();
 		// create some statements for the query
 		Resource queryEventResource = vf.createURI(queryNameSpace + UUID.randomUUID().toString());
 		Statement queryEventDecl = vf.createStatement(queryEventResource, RDF.TYPE, queryEventType);
 		statements.add(queryEventDecl);
-		Statement queryEventTime = vf.createStatement(queryEventResource, atTimeProperty, vf.createLiteral(new Date()));
+		Statement queryEventTime = vf.createStatement(queryEventResource, atTimeProperty, vf.createLiteral(atTime));
 		statements.add(queryEventTime);
 		Statement queryUser = vf.createStatement(queryEventResource, associatedWithUser, vf.createLiteral(user));
 		statements.add(queryUser);
@@ -20,6 +20,7 @@ package org.apache.rya.rdftriplestore.provenance.rdf;
  */
 
 
+import java.util.Date;
 import java.util.List;
 
 import org.openrdf.model.Statement;
@@ -29,5 +30,17 @@ public interface RDFProvenanceModel {
 
 	List<Statement> getStatementsForQuery(String query, String user, String queryType);
 
+	/**
+	 * @param query the query being recorded
+	 * @param user the user issuing the query
+	 * @param queryType the type of query (SPARQL, etc.)
+	 * @param atTime the time the query was issued
+	 * @return the statements that describe the query event. The default implementation
+	 * ignores {@code atTime} and calls {@link #getStatementsForQuery(String, String, String)}.
+	 */
+	default List<Statement> getStatementsForQuery(final String query, final String user, final String queryType, final Date atTime) {
+		return getStatementsForQuery(query, user, queryType);
+	}
+
 	
 }
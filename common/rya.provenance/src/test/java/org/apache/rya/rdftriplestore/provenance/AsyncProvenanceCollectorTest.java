@@ -0,0 +1,123 @@
+package org.apache.rya.rdftriplestore.provenance;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.rya.rdftriplestore.provenance.AsyncProvenanceCollector.FullBufferPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.repository.RepositoryResult;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+import org.openrdf.sail.memory.MemoryStore;
+
+public class AsyncProvenanceCollectorTest {
+
+	private SailRepository repo;
+
+	@Before
+	public void setUp() throws Exception {
+		repo = new SailRepository(new MemoryStore());
+		repo.initialize();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		repo.shutDown();
+	}
+
+	@Test
+	public void testRecordedOnClose() throws Exception {
+		TriplestoreProvenanceCollector writer = new TriplestoreProvenanceCollector(repo, "fakeUser", "SPARQL");
+		AsyncProvenanceCollector coll = new AsyncProvenanceCollector(writer, 100, 7, FullBufferPolicy.BLOCK, 1000);
+		for (int i = 0; i < 50; i++) {
+			coll.recordQuery("fakeQuery" + i);
+		}
+		coll.close();
+
+		assertEquals(50, coll.getRecordedCount());
+		assertEquals(0, coll.getDroppedCount());
+		assertEquals(0, coll.getFailedCount());
+		// Each query event is described by 5 statements.
+		assertEquals(250, countStatements());
+	}
+
+	@Test
+	public void testDropWhenFull() throws Exception {
+		final CountDownLatch writing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		TriplestoreProvenanceCollector writer = new TriplestoreProvenanceCollector(repo, "fakeUser", "SPARQL") {
+			@Override
+			public synchronized void writeStatements(List<Statement> provenanceTriples) throws ProvenanceCollectionException {
+				writing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.writeStatements(provenanceTriples);
+			}
+		};
+		AsyncProvenanceCollector coll = new AsyncProvenanceCollector(writer, 2, 1, FullBufferPolicy.DROP, 0);
+
+		// The first query is taken by the writer thread, which then waits.
+		coll.recordQuery("fakeQuery0");
+		writing.await();
+
+		// Two queries fit in the buffer, the rest are dropped.
+		for (int i = 1; i < 5; i++) {
+			coll.recordQuery("fakeQuery" + i);
+		}
+		assertEquals(2, coll.getDroppedCount());
+
+		release.countDown();
+		coll.close();
+		assertEquals(3, coll.getRecordedCount());
+		assertEquals(15, countStatements());
+
+		// Queries recorded after close are dropped.
+		coll.recordQuery("fakeQuery5");
+		assertEquals(3, coll.getDroppedCount());
+	}
+
+	private int countStatements() throws Exception {
+		SailRepositoryConnection conn = repo.getConnection();
+		try {
+			RepositoryResult<Statement> statements = conn.getStatements(null, null, null, false);
+			int count = 0;
+			while (statements.hasNext()) {
+				statements.next();
+				count++;
+			}
+			statements.close();
+			return count;
+		} finally {
+			conn.close();
+		}
+	}
+}
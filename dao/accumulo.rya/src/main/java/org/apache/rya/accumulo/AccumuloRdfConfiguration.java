@@ -31,6 +31,8 @@ import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.rya.accumulo.experimental.AccumuloIndexer;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.layout.RyaTableLayout;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -49,6 +51,18 @@ public class AccumuloRdfConfiguration extends RdfCloudTripleStoreConfiguration {
 
     public static final String CONF_FLUSH_EACH_UPDATE = "ac.dao.flush";
 
+    public static final String CONF_TABLE_LAYOUT = "ac.table.layout";
+    public static final String CONF_DICTIONARY_CACHE_SIZE = "ac.dictionary.cache.size";
+    public static final String CONF_DICTIONARY_ID_BLOCK_SIZE = "ac.dictionary.idblock.size";
+    public static final String CONF_DICTIONARY_BATCH_SIZE = "ac.dictionary.batch.size";
+    public static final String CONF_GRAPH_INDEX_ENABLED = "ac.graph.index.enabled";
+
+    public static final String CONF_TABLE_TUNING_ENABLED = "ac.tuning.enabled";
+    public static final String CONF_TABLE_BLOOM_ENABLED = "ac.tuning.bloom.enabled";
+    public static final String CONF_TABLE_COMPACTION_RATIO = "ac.tuning.%s.compaction.ratio";
+    public static final String CONF_TABLE_INDEX_BLOCK_SIZE = "ac.tuning.%s.index.blocksize";
+    public static final String CONF_TABLE_LOCALITY_GROUP_GRAPHS = "ac.tuning.localitygroup.graphs";
+
     public static final String ITERATOR_SETTINGS_SIZE = "ac.iterators.size";
     public static final String ITERATOR_SETTINGS_BASE = "ac.iterators.%d.";
     public static final String ITERATOR_SETTINGS_NAME = ITERATOR_SETTINGS_BASE + "name";
@@ -330,6 +344,161 @@ public class AccumuloRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         setBoolean(CONF_FLUSH_EACH_UPDATE, flush);
     }
 
+    /**
+     * @return How the values of statements are written to the rows of the core tables. Defaults to
+     *   {@link RyaTableLayout#STRING}.
+     */
+    public RyaTableLayout getRyaTableLayout() {
+        return RyaTableLayout.valueOf(get(CONF_TABLE_LAYOUT, RyaTableLayout.STRING.name()));
+    }
+
+    /**
+     * @param layout - How the values of statements are written to the rows of the core tables. All of the
+     *   clients of a Rya instance must use the same layout. (not null)
+     */
+    public void setRyaTableLayout(RyaTableLayout layout) {
+        Preconditions.checkNotNull(layout);
+        set(CONF_TABLE_LAYOUT, layout.name());
+    }
+
+    /**
+     * @return The maximum number of terms and ids each dictionary cache holds. Defaults to 100000.
+     */
+    public int getDictionaryCacheSize() {
+        return getInt(CONF_DICTIONARY_CACHE_SIZE, 100000);
+    }
+
+    public void setDictionaryCacheSize(int size) {
+        Preconditions.checkArgument(size > 0, "The dictionary cache size must be greater than 0.");
+        setInt(CONF_DICTIONARY_CACHE_SIZE, size);
+    }
+
+    /**
+     * @return The number of ids a client reserves each time it runs out of ids to assign. Defaults to 1000.
+     */
+    public int getDictionaryIdBlockSize() {
+        return getInt(CONF_DICTIONARY_ID_BLOCK_SIZE, 1000);
+    }
+
+    public void setDictionaryIdBlockSize(int size) {
+        Preconditions.checkArgument(size > 0, "The dictionary id block size must be greater than 0.");
+        setInt(CONF_DICTIONARY_ID_BLOCK_SIZE, size);
+    }
+
+    /**
+     * @return The number of statements whose terms are assigned ids together while ingesting. Defaults to 1000.
+     */
+    public int getDictionaryBatchSize() {
+        return getInt(CONF_DICTIONARY_BATCH_SIZE, 1000);
+    }
+
+    public void setDictionaryBatchSize(int size) {
+        Preconditions.checkArgument(size > 0, "The dictionary batch size must be greater than 0.");
+        setInt(CONF_DICTIONARY_BATCH_SIZE, size);
+    }
+
+    /**
+     * @return The name of the table that maps terms to their ids when the dictionary layout is used.
+     */
+    public String getTermToIdTable() {
+        return getTablePrefix() + RdfCloudTripleStoreConstants.TBL_TERM2ID_SUFFIX;
+    }
+
+    /**
+     * @return The name of the table that maps ids to their terms when the dictionary layout is used.
+     */
+    public String getIdToTermTable() {
+        return getTablePrefix() + RdfCloudTripleStoreConstants.TBL_ID2TERM_SUFFIX;
+    }
+
+    /**
+     * @return {@code true} if statements that belong to a named graph are also written to a table whose
+     *   rows start with the graph, so graphs may be read and dropped without scanning the core tables.
+     *   Defaults to {@code false}.
+     */
+    public boolean isGraphIndexEnabled() {
+        return getBoolean(CONF_GRAPH_INDEX_ENABLED, false);
+    }
+
+    /**
+     * @param enabled - Whether statements that belong to a named graph are also written to the graph index
+     *   table. Enabling it on an instance that already holds named graphs requires rebuilding the table with
+     *   {@code GraphIndexRebuildTool}.
+     */
+    public void setGraphIndexEnabled(boolean enabled) {
+        setBoolean(CONF_GRAPH_INDEX_ENABLED, enabled);
+    }
+
+    /**
+     * @return The name of the table that indexes statements by their named graph.
+     */
+    public String getGraphIndexTable() {
+        return getTablePrefix() + RdfCloudTripleStoreConstants.TBL_GRAPH_SUFFIX;
+    }
+
+    /**
+     * @return {@code true} if {@link RyaTableTuner} settings are applied to the core tables when
+     *   they are created. Defaults to {@code true}.
+     */
+    public boolean isTableTuningEnabled() {
+        return getBoolean(CONF_TABLE_TUNING_ENABLED, true);
+    }
+
+    public void setTableTuningEnabled(boolean enabled) {
+        setBoolean(CONF_TABLE_TUNING_ENABLED, enabled);
+    }
+
+    /**
+     * @return {@code true} if the core tables keep row bloom filters, which let exact row lookups
+     *   skip the files that do not hold the row. Defaults to {@code true}.
+     */
+    public boolean isTableBloomFilterEnabled() {
+        return getBoolean(CONF_TABLE_BLOOM_ENABLED, true);
+    }
+
+    public void setTableBloomFilterEnabled(boolean enabled) {
+        setBoolean(CONF_TABLE_BLOOM_ENABLED, enabled);
+    }
+
+    /**
+     * @param tableSuffix - The suffix of the table, such as {@link RdfCloudTripleStoreConstants#TBL_SPO_SUFFIX}. (not null)
+     * @return The major compaction ratio of the table, or {@code null} to keep Accumulo's default.
+     */
+    public String getTableCompactionRatio(String tableSuffix) {
+        return get(String.format(CONF_TABLE_COMPACTION_RATIO, tableSuffix));
+    }
+
+    public void setTableCompactionRatio(String tableSuffix, double ratio) {
+        Preconditions.checkArgument(ratio >= 1, "The compaction ratio must be at least 1.");
+        set(String.format(CONF_TABLE_COMPACTION_RATIO, tableSuffix), Double.toString(ratio));
+    }
+
+    /**
+     * @param tableSuffix - The suffix of the table, such as {@link RdfCloudTripleStoreConstants#TBL_SPO_SUFFIX}. (not null)
+     * @return The size of the index blocks of the table's files, such as {@code 64K}, or {@code null}
+     *   to keep Accumulo's default.
+     */
+    public String getTableIndexBlockSize(String tableSuffix) {
+        return get(String.format(CONF_TABLE_INDEX_BLOCK_SIZE, tableSuffix));
+    }
+
+    public void setTableIndexBlockSize(String tableSuffix, String size) {
+        Preconditions.checkNotNull(size);
+        set(String.format(CONF_TABLE_INDEX_BLOCK_SIZE, tableSuffix), size);
+    }
+
+    /**
+     * @return The named graphs that are stored in locality groups of their own within the core
+     *   tables, so that scans of one graph do not read the others. Empty by default.
+     */
+    public String[] getLocalityGroupGraphs() {
+        return getStrings(CONF_TABLE_LOCALITY_GROUP_GRAPHS, new String[0]);
+    }
+
+    public void setLocalityGroupGraphs(String... graphs) {
+        setStrings(CONF_TABLE_LOCALITY_GROUP_GRAPHS, graphs);
+    }
+
     public void setAdditionalIterators(IteratorSetting... additionalIterators){
         //TODO do we need to worry about cleaning up
         this.set(ITERATOR_SETTINGS_SIZE, Integer.toString(additionalIterators.length));
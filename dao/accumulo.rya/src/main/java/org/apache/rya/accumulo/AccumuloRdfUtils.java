@@ -42,12 +42,16 @@ import static org.apache.rya.api.RdfCloudTripleStoreConstants.EMPTY_BYTES;
 public class AccumuloRdfUtils {
     private static final Log logger = LogFactory.getLog(AccumuloRdfUtils.class);
 
-    public static void createTableIfNotExist(TableOperations tableOperations, String tableName) throws AccumuloException, AccumuloSecurityException, TableExistsException {
+    /**
+     * @return {@code true} if the table did not exist and was created.
+     */
+    public static boolean createTableIfNotExist(TableOperations tableOperations, String tableName) throws AccumuloException, AccumuloSecurityException, TableExistsException {
         boolean tableExists = tableOperations.exists(tableName);
         if (!tableExists) {
             logger.debug("Creating accumulo table: " + tableName);
             tableOperations.create(tableName);
         }
+        return !tableExists;
     }
 
     public static Key from(TripleRow tripleRow) {
@@ -33,15 +33,18 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.BatchDeleter;
+import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.BatchWriter;
 import org.apache.accumulo.core.client.BatchWriterConfig;
 import org.apache.accumulo.core.client.Connector;
@@ -58,19 +61,25 @@ import org.apache.accumulo.core.security.Authorizations;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.Text;
+import org.apache.rya.accumulo.dictionary.AccumuloTermDictionary;
 import org.apache.rya.accumulo.experimental.AccumuloIndexer;
 import org.apache.rya.accumulo.query.AccumuloRyaQueryEngine;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
 import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
 import org.apache.rya.api.layout.TableLayoutStrategy;
 import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.RyaNamespaceManager;
 import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 import org.openrdf.model.Namespace;
 
+import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
@@ -90,6 +99,7 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
     private BatchWriter bw_spo;
     private BatchWriter bw_po;
     private BatchWriter bw_osp;
+    private BatchWriter bw_graph;
 
     private BatchWriter bw_ns;
 
@@ -100,6 +110,7 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
     private TableLayoutStrategy tableLayoutStrategy;
     private AccumuloRyaQueryEngine queryEngine;
     private RyaTripleContext ryaContext;
+    private AccumuloTermDictionary dictionary;
 
     @Override
     public boolean isInitialized() throws RyaDAOException {
@@ -123,7 +134,12 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             }
 
             tableLayoutStrategy = conf.getTableLayoutStrategy();
-            ryaContext = RyaTripleContext.getInstance(conf);
+            if (conf.getRyaTableLayout() == RyaTableLayout.DICTIONARY) {
+                dictionary = new AccumuloTermDictionary(connector, conf);
+                ryaContext = new RyaTripleContext(dictionary);
+            } else {
+                ryaContext = RyaTripleContext.getInstance(conf);
+            }
             ryaTableMutationsFactory = new RyaTableMutationsFactory(ryaContext);
 
             secondaryIndexers = conf.getAdditionalIndexers();
@@ -131,10 +147,16 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             flushEachUpdate.set(conf.flushEachUpdate());
 
             final TableOperations tableOperations = connector.tableOperations();
-            AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getSpo());
-            AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getPo());
-            AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getOsp());
+            boolean created = AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getSpo());
+            created |= AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getPo());
+            created |= AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getOsp());
             AccumuloRdfUtils.createTableIfNotExist(tableOperations, tableLayoutStrategy.getNs());
+            if (conf.isGraphIndexEnabled()) {
+                created |= AccumuloRdfUtils.createTableIfNotExist(tableOperations, conf.getGraphIndexTable());
+            }
+            if (created && conf.isTableTuningEnabled()) {
+                new RyaTableTuner(connector, conf).tune();
+            }
 
             for (final AccumuloIndexer index : secondaryIndexers) {
                 index.setConf(conf);
@@ -148,6 +170,9 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             bw_osp = mt_bw.getBatchWriter(tableLayoutStrategy.getOsp());
 
             bw_ns = mt_bw.getBatchWriter(tableLayoutStrategy.getNs());
+            if (conf.isGraphIndexEnabled()) {
+                bw_graph = mt_bw.getBatchWriter(conf.getGraphIndexTable());
+            }
 
             for (final AccumuloIndexer index : secondaryIndexers) {
                index.setConnector(connector);
@@ -155,7 +180,7 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
                index.init();
             }
 
-            queryEngine = new AccumuloRyaQueryEngine(connector, conf);
+            queryEngine = new AccumuloRyaQueryEngine(connector, conf, ryaContext);
 
             checkVersion();
 
@@ -217,9 +242,16 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
 
     @Override
     public void dropGraph(final AccumuloRdfConfiguration conf, final RyaURI... graphs) throws RyaDAOException {
+        // Without any graphs every statement is dropped, which the graph index can not speed up.
+        if (bw_graph != null && graphs.length > 0) {
+            dropIndexedGraphs(conf, graphs);
+            return;
+        }
+
         BatchDeleter bd_spo = null;
         BatchDeleter bd_po = null;
         BatchDeleter bd_osp = null;
+        BatchDeleter bd_graph = null;
 
         try {
             bd_spo = createBatchDeleter(tableLayoutStrategy.getSpo(), conf.getAuthorizations());
@@ -240,6 +272,12 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             bd_po.delete();
             bd_osp.delete();
 
+            if (bw_graph != null) {
+                bd_graph = createBatchDeleter(conf.getGraphIndexTable(), conf.getAuthorizations());
+                bd_graph.setRanges(Collections.singleton(new Range()));
+                bd_graph.delete();
+            }
+
             //TODO indexers do not support delete-UnsupportedOperation Exception will be thrown
 //            for (AccumuloIndex index : secondaryIndexers) {
 //                index.dropGraph(graphs);
@@ -257,22 +295,63 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             if (bd_osp != null) {
                 bd_osp.close();
             }
+            if (bd_graph != null) {
+                bd_graph.close();
+            }
         }
 
     }
 
+    /**
+     * Drops graphs by reading their statements from the graph index table and deleting each of
+     * them, so the work is proportional to the size of the graphs instead of the size of the core
+     * tables.
+     */
+    private void dropIndexedGraphs(final AccumuloRdfConfiguration conf, final RyaURI... graphs) throws RyaDAOException {
+        BatchScanner scanner = null;
+        try {
+            final List<Range> ranges = Lists.newArrayList();
+            for (final RyaURI graph : graphs) {
+                ranges.add(GraphIndexRows.graphRange(graph));
+            }
+            if (ranges.isEmpty()) {
+                return;
+            }
+            scanner = connector.createBatchScanner(conf.getGraphIndexTable(), conf.getAuthorizations(), NUM_THREADS);
+            scanner.setRanges(ranges);
+            for (final Map.Entry<Key, Value> entry : scanner) {
+                final Key key = GraphIndexRows.toSpoKey(entry.getKey());
+                final RyaStatement stmt = ryaContext.deserializeTriple(TABLE_LAYOUT.SPO, new TripleRow(
+                        key.getRowData().toArray(), key.getColumnFamilyData().toArray(), key.getColumnQualifierData().toArray(),
+                        key.getTimestamp(), key.getColumnVisibilityData().toArray(), entry.getValue().get()));
+                deleteSingleRyaStatement(stmt);
+            }
+            mt_bw.flush();
+        } catch (final Exception e) {
+            throw new RyaDAOException(e);
+        } finally {
+            if (scanner != null) {
+                scanner.close();
+            }
+        }
+    }
+
     protected void deleteSingleRyaStatement(final RyaStatement stmt) throws IOException, MutationsRejectedException {
         final Map<TABLE_LAYOUT, Collection<Mutation>> map = ryaTableMutationsFactory.serializeDelete(stmt);
         bw_spo.addMutations(map.get(TABLE_LAYOUT.SPO));
         bw_po.addMutations(map.get(TABLE_LAYOUT.PO));
         bw_osp.addMutations(map.get(TABLE_LAYOUT.OSP));
+        if (bw_graph != null) {
+            bw_graph.addMutations(ryaTableMutationsFactory.serializeGraphIndexDelete(stmt));
+        }
     }
 
     protected void commit(final Iterator<RyaStatement> commitStatements) throws RyaDAOException {
         try {
             //TODO: Should have a lock here in case we are adding and committing at the same time
-            while (commitStatements.hasNext()) {
-                final RyaStatement stmt = commitStatements.next();
+            final Iterator<RyaStatement> statements = dictionary == null ? commitStatements : assignTermIds(commitStatements);
+            while (statements.hasNext()) {
+                final RyaStatement stmt = statements.next();
 
                 final Map<TABLE_LAYOUT, Collection<Mutation>> mutationMap = ryaTableMutationsFactory.serialize(stmt);
                 final Collection<Mutation> spo = mutationMap.get(TABLE_LAYOUT.SPO);
@@ -281,6 +360,9 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
                 bw_spo.addMutations(spo);
                 bw_po.addMutations(po);
                 bw_osp.addMutations(osp);
+                if (bw_graph != null) {
+                    bw_graph.addMutations(ryaTableMutationsFactory.serializeGraphIndex(stmt));
+                }
 
                 for (final AccumuloIndexer index : secondaryIndexers) {
                     index.storeStatement(stmt);
@@ -295,6 +377,31 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
         }
     }
 
+    /**
+     * Assigns dictionary ids to the terms of the statements in batches, so that each batch of
+     * statements only looks up the dictionary once.
+     */
+    private Iterator<RyaStatement> assignTermIds(final Iterator<RyaStatement> statements) {
+        return Iterators.concat(Iterators.transform(Iterators.partition(statements, conf.getDictionaryBatchSize()),
+                new Function<List<RyaStatement>, Iterator<RyaStatement>>() {
+                    @Override
+                    public Iterator<RyaStatement> apply(final List<RyaStatement> batch) {
+                        final Set<RyaType> terms = new HashSet<>();
+                        for (final RyaStatement stmt : batch) {
+                            terms.add(stmt.getSubject());
+                            terms.add(stmt.getPredicate());
+                            terms.add(stmt.getObject());
+                        }
+                        try {
+                            dictionary.getOrAssignIds(terms);
+                        } catch (final TripleRowResolverException e) {
+                            throw new RuntimeException("Could not assign ids to the terms of a batch of statements.", e);
+                        }
+                        return batch.iterator();
+                    }
+                }));
+    }
+
     @Override
     public void destroy() throws RyaDAOException {
         if (!isInitialized.get()) {
@@ -306,6 +413,9 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             mt_bw.flush();
 
             mt_bw.close();
+            if (dictionary != null) {
+                dictionary.close();
+            }
         } catch (final Exception e) {
             throw new RyaDAOException(e);
         }
@@ -508,6 +618,14 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
                 tableLayoutStrategy.getNs(),
                 tableLayoutStrategy.getEval());
 
+        if (dictionary != null) {
+            tableNames.add(conf.getTermToIdTable());
+            tableNames.add(conf.getIdToTermTable());
+        }
+        if (conf.isGraphIndexEnabled()) {
+            tableNames.add(conf.getGraphIndexTable());
+        }
+
         // Additional Tables
         for (final AccumuloIndexer index : secondaryIndexers) {
             tableNames.add(index.getTableName());
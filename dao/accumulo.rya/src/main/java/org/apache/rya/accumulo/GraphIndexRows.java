@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTE;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTES;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.apache.rya.api.domain.RyaURI;
+
+import com.google.common.base.Function;
+import com.google.common.primitives.Bytes;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Converts between the rows of the SPO table and the rows of the graph index table, which is
+ * written when {@link AccumuloRdfConfiguration#isGraphIndexEnabled()} is set.
+ * <p>
+ * A statement that belongs to a named graph is written to the graph index table with the same
+ * column family, qualifier, visibility, timestamp and value as its SPO entry. The row is the
+ * graph followed by a delimiter and the SPO row, so every statement of a graph is found by a
+ * single prefix scan and the SPO entry is recovered by stripping the graph from the row.
+ */
+@DefaultAnnotation(NonNull.class)
+public final class GraphIndexRows {
+
+    /**
+     * Converts the entries of the graph index table into the entries of the SPO table they were
+     * derived from.
+     */
+    public static final Function<Map.Entry<Key, Value>, Map.Entry<Key, Value>> TO_SPO_ENTRY =
+            new Function<Map.Entry<Key, Value>, Map.Entry<Key, Value>>() {
+                @Override
+                public Map.Entry<Key, Value> apply(final Map.Entry<Key, Value> entry) {
+                    return new AbstractMap.SimpleImmutableEntry<>(toSpoKey(entry.getKey()), entry.getValue());
+                }
+            };
+
+    private GraphIndexRows() { }
+
+    /**
+     * @param context - The column family of an SPO entry, which holds the statement's graph. (not null)
+     * @param spoRow - The row of the SPO entry. (not null)
+     * @return The row of the statement in the graph index table.
+     */
+    public static byte[] toGraphRow(final byte[] context, final byte[] spoRow) {
+        return Bytes.concat(context, DELIM_BYTES, spoRow);
+    }
+
+    /**
+     * @param graphRow - A row of the graph index table. (not null)
+     * @return The row of the same statement in the SPO table.
+     * @throws IllegalArgumentException The row does not hold a graph.
+     */
+    public static byte[] toSpoRow(final byte[] graphRow) {
+        final int delim = Bytes.indexOf(graphRow, DELIM_BYTE);
+        if (delim < 0) {
+            throw new IllegalArgumentException("The row is not a graph index row.");
+        }
+        return Arrays.copyOfRange(graphRow, delim + 1, graphRow.length);
+    }
+
+    /**
+     * @param graphKey - A key of the graph index table. (not null)
+     * @return The key of the same statement in the SPO table.
+     */
+    public static Key toSpoKey(final Key graphKey) {
+        return new Key(toSpoRow(graphKey.getRowData().toArray()),
+                graphKey.getColumnFamilyData().toArray(),
+                graphKey.getColumnQualifierData().toArray(),
+                graphKey.getColumnVisibilityData().toArray(),
+                graphKey.getTimestamp());
+    }
+
+    /**
+     * @param context - A named graph. (not null)
+     * @return The range of the graph index table that holds every statement of the graph.
+     */
+    public static Range graphRange(final RyaURI context) {
+        return Range.prefix(new Text(toGraphRow(context.getData().getBytes(StandardCharsets.UTF_8), new byte[0])));
+    }
+}
@@ -28,6 +28,7 @@ import static org.apache.rya.api.RdfCloudTripleStoreConstants.EMPTY_TEXT;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -116,6 +117,48 @@ public class RyaTableMutationsFactory {
 
     }
 
+    /**
+     * @param stmt - The statement that is written.
+     * @return The mutations that add the statement to the graph index table. Empty if the statement
+     *   does not belong to a named graph.
+     * @see GraphIndexRows
+     */
+    public Collection<Mutation> serializeGraphIndex(RyaStatement stmt) throws IOException {
+        TripleRow graphRow = toGraphIndexRow(stmt);
+        if (graphRow == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(createMutation(graphRow));
+    }
+
+    /**
+     * @param stmt - The statement that is deleted.
+     * @return The mutations that remove the statement from the graph index table. Empty if the
+     *   statement does not belong to a named graph.
+     * @see GraphIndexRows
+     */
+    public Collection<Mutation> serializeGraphIndexDelete(RyaStatement stmt) throws IOException {
+        TripleRow graphRow = toGraphIndexRow(stmt);
+        if (graphRow == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(deleteMutation(graphRow));
+    }
+
+    private TripleRow toGraphIndexRow(RyaStatement stmt) throws IOException {
+        if (stmt.getContext() == null) {
+            return null;
+        }
+        try {
+            TripleRow spoRow = ryaContext.serializeTriple(stmt).get(TABLE_LAYOUT.SPO);
+            return new TripleRow(GraphIndexRows.toGraphRow(spoRow.getColumnFamily(), spoRow.getRow()),
+                    spoRow.getColumnFamily(), spoRow.getColumnQualifier(), spoRow.getTimestamp(),
+                    spoRow.getColumnVisibility(), spoRow.getValue());
+        } catch (TripleRowResolverException fe) {
+            throw new IOException(fe);
+        }
+    }
+
     protected Mutation deleteMutation(TripleRow tripleRow) {
         Mutation m = new Mutation(new Text(tripleRow.getRow()));
 
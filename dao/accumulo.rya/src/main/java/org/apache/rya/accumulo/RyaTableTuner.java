@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.file.keyfunctor.RowFunctor;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.query.strategy.ByteRange;
+import org.apache.rya.api.query.strategy.TriplePatternStrategy;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Applies the table settings of an {@link AccumuloRdfConfiguration} to the core tables of a Rya
+ * instance and pre-splits them.
+ * <p>
+ * The settings are row bloom filters, the major compaction ratio and index block size of each
+ * table, and locality groups for the graphs named by
+ * {@link AccumuloRdfConfiguration#getLocalityGroupGraphs()}. Tuning a table that is already tuned
+ * has no effect, so a live instance may be retuned at any time.
+ * <p>
+ * Split points are picked so that each tablet holds about the same number of statements. The
+ * weight of the rows comes either from a sample of the statements that will be loaded or from the
+ * counts of a prospector run.
+ */
+@DefaultAnnotation(NonNull.class)
+public class RyaTableTuner {
+    private static final Logger log = Logger.getLogger(RyaTableTuner.class);
+
+    private final Connector connector;
+    private final AccumuloRdfConfiguration conf;
+
+    /**
+     * Constructs an instance of {@link RyaTableTuner}.
+     *
+     * @param connector - Connects to the Accumulo instance that holds the tables. (not null)
+     * @param conf - Names the tables and holds their settings. (not null)
+     */
+    public RyaTableTuner(final Connector connector, final AccumuloRdfConfiguration conf) {
+        this.connector = requireNonNull(connector);
+        this.conf = requireNonNull(conf);
+    }
+
+    /**
+     * @return The names of the tables that are tuned, mapped from their suffixes.
+     */
+    public Map<String, String> getTunedTables() {
+        final Map<String, String> tables = new HashMap<>();
+        tables.put(RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX, conf.getTableLayoutStrategy().getSpo());
+        tables.put(RdfCloudTripleStoreConstants.TBL_PO_SUFFIX, conf.getTableLayoutStrategy().getPo());
+        tables.put(RdfCloudTripleStoreConstants.TBL_OSP_SUFFIX, conf.getTableLayoutStrategy().getOsp());
+        if (conf.isGraphIndexEnabled()) {
+            tables.put(RdfCloudTripleStoreConstants.TBL_GRAPH_SUFFIX, conf.getGraphIndexTable());
+        }
+        return tables;
+    }
+
+    /**
+     * Applies the table settings to every tuned table that exists.
+     */
+    public void tune() throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        final TableOperations tableOps = connector.tableOperations();
+        for (final Map.Entry<String, String> table : getTunedTables().entrySet()) {
+            if (tableOps.exists(table.getValue())) {
+                tune(table.getKey(), table.getValue());
+            }
+        }
+    }
+
+    private void tune(final String suffix, final String table) throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        final TableOperations tableOps = connector.tableOperations();
+        log.info("Tuning table " + table);
+
+        if (conf.isTableBloomFilterEnabled()) {
+            tableOps.setProperty(table, Property.TABLE_BLOOM_KEY_FUNCTOR.getKey(), RowFunctor.class.getName());
+            tableOps.setProperty(table, Property.TABLE_BLOOM_ENABLED.getKey(), "true");
+        }
+
+        final String ratio = conf.getTableCompactionRatio(suffix);
+        if (ratio != null) {
+            tableOps.setProperty(table, Property.TABLE_MAJC_RATIO.getKey(), ratio);
+        }
+
+        final String indexBlockSize = conf.getTableIndexBlockSize(suffix);
+        if (indexBlockSize != null) {
+            tableOps.setProperty(table, Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX.getKey(), indexBlockSize);
+        }
+
+        // The statements of a graph are stored under a column family that holds the graph.
+        final String[] graphs = conf.getLocalityGroupGraphs();
+        if (graphs.length > 0) {
+            final Map<String, Set<Text>> groups = new HashMap<>();
+            for (int i = 0; i < graphs.length; i++) {
+                groups.put("graph" + i, Collections.singleton(new Text(graphs[i])));
+            }
+            tableOps.setLocalityGroups(table, groups);
+        }
+    }
+
+    /**
+     * Adds split points to the core tables. Points a table already has are ignored by Accumulo.
+     *
+     * @param splits - The split points of each core table. (not null)
+     */
+    public void addSplits(final Map<TABLE_LAYOUT, SortedSet<Text>> splits) throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        for (final Map.Entry<TABLE_LAYOUT, SortedSet<Text>> entry : splits.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                final String table = RdfCloudTripleStoreUtils.layoutToTable(entry.getKey(), conf);
+                log.info("Adding " + entry.getValue().size() + " splits to table " + table);
+                connector.tableOperations().addSplits(table, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Weighs the rows of the core tables by how many statements of a sample start with them.
+     *
+     * @param ryaContext - Serializes the statements the way they are stored. (not null)
+     * @param sample - Statements like the ones that will be stored. (not null)
+     * @return The weight of each row of each core table.
+     */
+    public static Map<TABLE_LAYOUT, SortedMap<Text, Long>> weighSample(final RyaTripleContext ryaContext, final Iterator<RyaStatement> sample) throws IOException {
+        final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights = newWeights();
+        try {
+            while (sample.hasNext()) {
+                for (final Map.Entry<TABLE_LAYOUT, TripleRow> row : ryaContext.serializeTriple(sample.next()).entrySet()) {
+                    add(weights.get(row.getKey()), row.getValue().getRow(), 1L);
+                }
+            }
+        } catch (final TripleRowResolverException e) {
+            throw new IOException(e);
+        }
+        return weights;
+    }
+
+    /**
+     * Weighs the rows of the core tables by the number of statements that have each subject,
+     * predicate, and object, such as the counts of a prospector run.
+     *
+     * @param ryaContext - Serializes the terms the way they are stored. (not null)
+     * @param subjects - The number of statements that have each subject. (not null)
+     * @param predicates - The number of statements that have each predicate. (not null)
+     * @param objects - The number of statements that have each object. (not null)
+     * @return The weight of each row of each core table.
+     */
+    public static Map<TABLE_LAYOUT, SortedMap<Text, Long>> weighCounts(final RyaTripleContext ryaContext,
+            final Map<RyaURI, Long> subjects, final Map<RyaURI, Long> predicates, final Map<RyaType, Long> objects) throws IOException {
+        final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights = newWeights();
+        // The start of the range that holds every statement of a term is where its rows begin.
+        for (final Map.Entry<RyaURI, Long> subject : subjects.entrySet()) {
+            add(weights, ryaContext, subject.getKey(), null, null, subject.getValue());
+        }
+        for (final Map.Entry<RyaURI, Long> predicate : predicates.entrySet()) {
+            add(weights, ryaContext, null, predicate.getKey(), null, predicate.getValue());
+        }
+        for (final Map.Entry<RyaType, Long> object : objects.entrySet()) {
+            add(weights, ryaContext, null, null, object.getKey(), object.getValue());
+        }
+        return weights;
+    }
+
+    /**
+     * Picks split points that divide weighted rows into tablets of about the same weight.
+     *
+     * @param weights - The weight of each row of each core table. (not null)
+     * @param splitsPerTable - The maximum number of split points of each table.
+     * @return The split points of each core table.
+     */
+    public static Map<TABLE_LAYOUT, SortedSet<Text>> pickSplits(final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights, final int splitsPerTable) {
+        final Map<TABLE_LAYOUT, SortedSet<Text>> splits = new EnumMap<>(TABLE_LAYOUT.class);
+        for (final Map.Entry<TABLE_LAYOUT, SortedMap<Text, Long>> entry : weights.entrySet()) {
+            splits.put(entry.getKey(), pickSplits(entry.getValue(), splitsPerTable));
+        }
+        return splits;
+    }
+
+    static SortedSet<Text> pickSplits(final SortedMap<Text, Long> weights, final int splits) {
+        final SortedSet<Text> points = new TreeSet<>();
+        if (splits <= 0 || weights.size() < 2) {
+            return points;
+        }
+        long total = 0;
+        for (final long weight : weights.values()) {
+            total += weight;
+        }
+
+        // Every row but the first may start a tablet. Each split point is the start of the
+        // row whose preceding weight is closest to an even share of the total weight.
+        final List<Text> rows = new ArrayList<>(weights.size());
+        final long[] before = new long[weights.size()];
+        long seen = 0;
+        for (final Map.Entry<Text, Long> row : weights.entrySet()) {
+            before[rows.size()] = seen;
+            rows.add(row.getKey());
+            seen += row.getValue();
+        }
+
+        int i = 1;
+        for (int next = 1; next <= splits; next++) {
+            final double share = (double) total * next / (splits + 1);
+            while (i + 1 < rows.size() && Math.abs(before[i + 1] - share) <= Math.abs(before[i] - share)) {
+                i++;
+            }
+            points.add(rows.get(i));
+        }
+        return points;
+    }
+
+    private static Map<TABLE_LAYOUT, SortedMap<Text, Long>> newWeights() {
+        final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights = new EnumMap<>(TABLE_LAYOUT.class);
+        for (final TABLE_LAYOUT layout : TABLE_LAYOUT.values()) {
+            weights.put(layout, new TreeMap<Text, Long>());
+        }
+        return weights;
+    }
+
+    private static void add(final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights, final RyaTripleContext ryaContext,
+            final RyaURI subject, final RyaURI predicate, final RyaType object, final long weight) throws IOException {
+        final TriplePatternStrategy strategy = ryaContext.retrieveStrategy(subject, predicate, object, null);
+        if (strategy != null) {
+            final Map.Entry<TABLE_LAYOUT, ByteRange> range =
+                    strategy.defineRange(subject, predicate, object, null, null);
+            add(weights.get(range.getKey()), range.getValue().getStart(), weight);
+        }
+    }
+
+    private static void add(final SortedMap<Text, Long> weights, final byte[] row, final long weight) {
+        final Text key = new Text(row);
+        final Long current = weights.get(key);
+        weights.put(key, current == null ? weight : current + weight);
+    }
+}
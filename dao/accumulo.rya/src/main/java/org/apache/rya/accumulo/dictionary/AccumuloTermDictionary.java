@@ -0,0 +1,526 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.dictionary;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.ConditionalWriter;
+import org.apache.accumulo.core.client.ConditionalWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableExistsException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.data.Condition;
+import org.apache.accumulo.core.data.ConditionalMutation;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRdfUtils;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.resolver.RyaContext;
+import org.apache.rya.api.resolver.RyaTypeResolverException;
+import org.apache.rya.api.resolver.triple.TermDictionary;
+import org.apache.rya.api.resolver.triple.TermIdCodec;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link TermDictionary} that is stored within a pair of Accumulo tables.
+ * <p>
+ * The term to id table has one row per term. The row is the term serialized by {@link RyaContext} and the
+ * value is the term's id encoded by {@link TermIdCodec}. The id to term table holds the inverse mapping. It
+ * also holds a counter row that records the next id that has not been reserved by a client.
+ * <p>
+ * Clients reserve blocks of ids by updating the counter with a {@link ConditionalWriter}. A new term is
+ * only assigned an id if a conditional write that requires its row to be absent succeeds, so two clients
+ * that see the same new term at the same time agree on its id. The id to term entry of every proposed id is
+ * flushed before the conditional write that publishes it, so a reader that finds an id within the term to id
+ * table or a statement's row can always find its term. Proposed ids that lose a race leave behind id to term
+ * entries that nothing references, which are harmless.
+ * <p>
+ * Both mappings are cached in memory by bounded LRU caches.
+ */
+@DefaultAnnotation(NonNull.class)
+public class AccumuloTermDictionary implements TermDictionary, AutoCloseable {
+    private static final Logger log = Logger.getLogger(AccumuloTermDictionary.class);
+
+    private static final Text ID_CF = new Text("id");
+    private static final Text TERM_CF = new Text("term");
+    private static final Text EMPTY_CQ = new Text();
+    private static final Text COUNTER_ROW = new Text("~next_id");
+    private static final Text COUNTER_CF = new Text("counter");
+
+    private static final int NUM_THREADS = 4;
+
+    /**
+     * Serializes the writes of every dictionary of a mock instance, since the mock instance does not
+     * support conditional writes.
+     */
+    private static final Object MOCK_LOCK = new Object();
+
+    private final Connector connector;
+    private final String termToIdTable;
+    private final String idToTermTable;
+    private final int idBlockSize;
+    private final boolean mockInstance;
+
+    private final Cache<RyaType, Long> termToIdCache;
+    private final Cache<Long, RyaType> idToTermCache;
+
+    private final BatchWriter idToTermWriter;
+    private final ConditionalWriter termToIdWriter;
+    private final ConditionalWriter counterWriter;
+
+    private long nextId = TermIdCodec.UNASSIGNED_ID;
+    private long lastReservedId = TermIdCodec.UNASSIGNED_ID;
+
+    /**
+     * Constructs an instance of {@link AccumuloTermDictionary}. The dictionary tables are created if they
+     * do not exist yet.
+     *
+     * @param connector - Connects to the Accumulo instance that stores the dictionary. (not null)
+     * @param conf - Names the dictionary tables and configures the caches. (not null)
+     * @throws AccumuloException The dictionary tables could not be created.
+     * @throws AccumuloSecurityException The dictionary tables could not be created.
+     * @throws TableNotFoundException The dictionary tables could not be written to.
+     */
+    public AccumuloTermDictionary(final Connector connector, final AccumuloRdfConfiguration conf) throws AccumuloException, AccumuloSecurityException, TableNotFoundException {
+        this.connector = requireNonNull(connector);
+        requireNonNull(conf);
+        termToIdTable = conf.getTermToIdTable();
+        idToTermTable = conf.getIdToTermTable();
+        idBlockSize = conf.getDictionaryIdBlockSize();
+        mockInstance = connector.getInstance().getClass().equals(MockInstance.class);
+
+        termToIdCache = CacheBuilder.newBuilder().maximumSize(conf.getDictionaryCacheSize()).build();
+        idToTermCache = CacheBuilder.newBuilder().maximumSize(conf.getDictionaryCacheSize()).build();
+
+        try {
+            AccumuloRdfUtils.createTableIfNotExist(connector.tableOperations(), termToIdTable);
+            AccumuloRdfUtils.createTableIfNotExist(connector.tableOperations(), idToTermTable);
+        } catch (final TableExistsException e) {
+            // Another client created the table first.
+        }
+
+        idToTermWriter = connector.createBatchWriter(idToTermTable, new BatchWriterConfig().setMaxLatency(1, TimeUnit.SECONDS));
+        if (mockInstance) {
+            // The mock instance does not support conditional writes.
+            termToIdWriter = null;
+            counterWriter = null;
+        } else {
+            termToIdWriter = connector.createConditionalWriter(termToIdTable, new ConditionalWriterConfig());
+            counterWriter = connector.createConditionalWriter(idToTermTable, new ConditionalWriterConfig());
+        }
+    }
+
+    @Override
+    public Map<RyaType, Long> getOrAssignIds(final Collection<? extends RyaType> terms) throws TripleRowResolverException {
+        requireNonNull(terms);
+        final Map<RyaType, Long> ids = getIds(terms);
+        if (ids.size() == terms.size()) {
+            return ids;
+        }
+
+        final List<RyaType> missing = new ArrayList<>();
+        for (final RyaType term : terms) {
+            if (!ids.containsKey(term) && !missing.contains(term)) {
+                missing.add(term);
+            }
+        }
+        ids.putAll( assignIds(missing) );
+        return ids;
+    }
+
+    @Override
+    public Map<RyaType, Long> getIds(final Collection<? extends RyaType> terms) throws TripleRowResolverException {
+        requireNonNull(terms);
+        final Map<RyaType, Long> ids = new HashMap<>();
+        final Map<Text, RyaType> toFetch = new HashMap<>();
+        for (final RyaType term : terms) {
+            final Long id = termToIdCache.getIfPresent(term);
+            if (id != null) {
+                ids.put(term, id);
+            } else {
+                toFetch.put(new Text(serialize(term)), term);
+            }
+        }
+
+        if (!toFetch.isEmpty()) {
+            for (final Entry<Text, Long> fetched : fetchIds(toFetch.keySet()).entrySet()) {
+                final RyaType term = toFetch.get(fetched.getKey());
+                ids.put(term, fetched.getValue());
+                termToIdCache.put(term, fetched.getValue());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Map<Long, RyaType> getTerms(final Collection<Long> ids) throws TripleRowResolverException {
+        requireNonNull(ids);
+        final Map<Long, RyaType> terms = new HashMap<>();
+        final List<Range> ranges = new ArrayList<>();
+        for (final Long id : ids) {
+            final RyaType term = idToTermCache.getIfPresent(id);
+            if (term != null) {
+                terms.put(id, term);
+            } else {
+                ranges.add(Range.exact(new Text(TermIdCodec.encode(id))));
+            }
+        }
+
+        if (!ranges.isEmpty()) {
+            BatchScanner scanner = null;
+            try {
+                scanner = connector.createBatchScanner(idToTermTable, new Authorizations(), NUM_THREADS);
+                scanner.setRanges(ranges);
+                scanner.fetchColumn(TERM_CF, EMPTY_CQ);
+                for (final Entry<Key, Value> entry : scanner) {
+                    final long id = TermIdCodec.decode(entry.getKey().getRow().copyBytes(), 0);
+                    final RyaType term = deserialize(entry.getValue().get());
+                    terms.put(id, term);
+                    idToTermCache.put(id, term);
+                }
+            } catch (final TableNotFoundException e) {
+                throw new TripleRowResolverException("The dictionary table " + idToTermTable + " does not exist.", e);
+            } finally {
+                if (scanner != null) {
+                    scanner.close();
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Assigns ids to terms that were not found within the dictionary.
+     */
+    private Map<RyaType, Long> assignIds(final List<RyaType> terms) throws TripleRowResolverException {
+        final Map<RyaType, Long> assigned = new HashMap<>();
+        final Map<Text, RyaType> rows = new LinkedHashMap<>();
+        final Map<Text, Long> proposed = new HashMap<>();
+        for (final RyaType term : terms) {
+            final Text row = new Text(serialize(term));
+            rows.put(row, term);
+            proposed.put(row, reserveId());
+        }
+
+        try {
+            // Write the inverse mapping of every proposed id before the term to id table may publish it.
+            // Another client may read a published id right away, and a crash between the two writes
+            // must not leave an id behind whose term can not be found.
+            for (final Entry<Text, Long> entry : proposed.entrySet()) {
+                final Mutation mutation = new Mutation(new Text(TermIdCodec.encode(entry.getValue())));
+                mutation.put(TERM_CF, EMPTY_CQ, new Value(entry.getKey().copyBytes()));
+                idToTermWriter.addMutation(mutation);
+            }
+            idToTermWriter.flush();
+        } catch (final MutationsRejectedException e) {
+            throw new TripleRowResolverException("Could not write the terms of the proposed ids.", e);
+        }
+
+        final Map<Text, Long> accepted = mockInstance ? writeIdsToMock(proposed) : writeIds(proposed);
+        for (final Entry<Text, Long> entry : accepted.entrySet()) {
+            final RyaType term = rows.get(entry.getKey());
+            assigned.put(term, entry.getValue());
+            termToIdCache.put(term, entry.getValue());
+            idToTermCache.put(entry.getValue(), term);
+        }
+
+        // Another client assigned ids to the rest of the terms first.
+        if (assigned.size() < terms.size()) {
+            final List<RyaType> raced = new ArrayList<>();
+            for (final RyaType term : terms) {
+                if (!assigned.containsKey(term)) {
+                    raced.add(term);
+                }
+            }
+            final Map<RyaType, Long> found = getIds(raced);
+            if (found.size() < raced.size()) {
+                throw new TripleRowResolverException("Could not assign ids to the terms: " + raced);
+            }
+            assigned.putAll(found);
+        }
+        return assigned;
+    }
+
+    /**
+     * Writes the term to id mappings that have not been written by another client.
+     *
+     * @return The mappings that were written.
+     */
+    private Map<Text, Long> writeIds(final Map<Text, Long> proposed) throws TripleRowResolverException {
+        final List<ConditionalMutation> mutations = new ArrayList<>();
+        for (final Entry<Text, Long> entry : proposed.entrySet()) {
+            final ConditionalMutation mutation = new ConditionalMutation(entry.getKey(), new Condition(ID_CF, EMPTY_CQ));
+            mutation.put(ID_CF, EMPTY_CQ, new Value(TermIdCodec.encode(entry.getValue())));
+            mutations.add(mutation);
+        }
+
+        final Map<Text, Long> accepted = new HashMap<>();
+        final Iterator<ConditionalWriter.Result> results = termToIdWriter.write(mutations.iterator());
+        while (results.hasNext()) {
+            final ConditionalWriter.Result result = results.next();
+            final Text row = new Text(result.getMutation().getRow());
+            try {
+                switch (result.getStatus()) {
+                case ACCEPTED:
+                    accepted.put(row, proposed.get(row));
+                    break;
+                case REJECTED:
+                    // The term already has an id. It will be read once the write is finished.
+                    break;
+                case UNKNOWN:
+                    // Whichever id was written will be read once the write is finished.
+                    break;
+                case VIOLATED:
+                case INVISIBLE_VISIBILITY:
+                    throw new TripleRowResolverException("Could not assign an id to a term. Status: " + result.getStatus());
+                }
+            } catch (final AccumuloException | AccumuloSecurityException e) {
+                throw new TripleRowResolverException("Could not assign an id to a term.", e);
+            }
+        }
+
+        // Ids whose writes have an unknown status are only used if the row holds them.
+        final Set<Text> unknown = new HashSet<>(proposed.keySet());
+        unknown.removeAll(accepted.keySet());
+        if (!unknown.isEmpty()) {
+            for (final Entry<Text, Long> fetched : fetchIds(unknown).entrySet()) {
+                if (fetched.getValue().equals(proposed.get(fetched.getKey()))) {
+                    accepted.put(fetched.getKey(), fetched.getValue());
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Writes the term to id mappings to a mock instance, which does not support conditional writes.
+     * Only the dictionaries of a single JVM may assign ids to a mock instance.
+     */
+    private Map<Text, Long> writeIdsToMock(final Map<Text, Long> proposed) throws TripleRowResolverException {
+        synchronized (MOCK_LOCK) {
+            return writeIdsToMockLocked(proposed);
+        }
+    }
+
+    private Map<Text, Long> writeIdsToMockLocked(final Map<Text, Long> proposed) throws TripleRowResolverException {
+        final Map<Text, Long> existing = fetchIds(proposed.keySet());
+        final Map<Text, Long> accepted = new HashMap<>();
+        BatchWriter writer = null;
+        try {
+            writer = connector.createBatchWriter(termToIdTable, new BatchWriterConfig());
+            for (final Entry<Text, Long> entry : proposed.entrySet()) {
+                if (!existing.containsKey(entry.getKey())) {
+                    final Mutation mutation = new Mutation(entry.getKey());
+                    mutation.put(ID_CF, EMPTY_CQ, new Value(TermIdCodec.encode(entry.getValue())));
+                    writer.addMutation(mutation);
+                    accepted.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (final TableNotFoundException | MutationsRejectedException e) {
+            throw new TripleRowResolverException("Could not assign ids to terms.", e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (final MutationsRejectedException e) {
+                    throw new TripleRowResolverException("Could not assign ids to terms.", e);
+                }
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * @return The next unused id that is reserved by this client. A new block of ids is reserved when
+     *   the current block has been used up.
+     */
+    private synchronized long reserveId() throws TripleRowResolverException {
+        if (nextId == TermIdCodec.UNASSIGNED_ID || nextId > lastReservedId) {
+            final long blockStart = reserveBlock();
+            nextId = blockStart;
+            lastReservedId = blockStart + idBlockSize - 1;
+        }
+        return nextId++;
+    }
+
+    /**
+     * @return The first id of a block of ids that no other client will use.
+     */
+    private long reserveBlock() throws TripleRowResolverException {
+        if (mockInstance) {
+            synchronized (MOCK_LOCK) {
+                final Long current = readCounter();
+                final long blockStart = current == null ? TermIdCodec.UNASSIGNED_ID + 1 : current;
+                writeMockCounter(new Value(Long.toString(blockStart + idBlockSize).getBytes(StandardCharsets.UTF_8)));
+                return blockStart;
+            }
+        }
+
+        while (true) {
+            final Long current = readCounter();
+            final long blockStart = current == null ? TermIdCodec.UNASSIGNED_ID + 1 : current;
+            final Value updated = new Value(Long.toString(blockStart + idBlockSize).getBytes(StandardCharsets.UTF_8));
+
+            final Condition condition = new Condition(COUNTER_CF, EMPTY_CQ);
+            if (current != null) {
+                condition.setValue(Long.toString(current));
+            }
+            final ConditionalMutation mutation = new ConditionalMutation(COUNTER_ROW, condition);
+            mutation.put(COUNTER_CF, EMPTY_CQ, updated);
+
+            try {
+                final ConditionalWriter.Result result = counterWriter.write(mutation);
+                switch (result.getStatus()) {
+                case ACCEPTED:
+                    return blockStart;
+                case REJECTED:
+                    // Another client reserved a block first. Try again.
+                    break;
+                case UNKNOWN:
+                    // The counter's value does not show who wrote it, so another client may hold the block.
+                    // Treat the block as lost and reserve another one. At worst its ids are never used.
+                    log.warn("Could not tell whether the id block starting at " + blockStart + " was reserved. Reserving another block.");
+                    break;
+                case VIOLATED:
+                case INVISIBLE_VISIBILITY:
+                    throw new TripleRowResolverException("Could not reserve a block of term ids. Status: " + result.getStatus());
+                }
+            } catch (final AccumuloException | AccumuloSecurityException e) {
+                throw new TripleRowResolverException("Could not reserve a block of term ids.", e);
+            }
+        }
+    }
+
+    private Long readCounter() throws TripleRowResolverException {
+        try {
+            final Scanner scanner = connector.createScanner(idToTermTable, new Authorizations());
+            scanner.setRange(Range.exact(COUNTER_ROW));
+            scanner.fetchColumn(COUNTER_CF, EMPTY_CQ);
+            final Iterator<Entry<Key, Value>> it = scanner.iterator();
+            if (it.hasNext()) {
+                return Long.parseLong(new String(it.next().getValue().get(), StandardCharsets.UTF_8));
+            }
+            return null;
+        } catch (final TableNotFoundException e) {
+            throw new TripleRowResolverException("The dictionary table " + idToTermTable + " does not exist.", e);
+        }
+    }
+
+    private void writeMockCounter(final Value updated) throws TripleRowResolverException {
+        try {
+            final Mutation mutation = new Mutation(COUNTER_ROW);
+            mutation.put(COUNTER_CF, EMPTY_CQ, updated);
+            idToTermWriter.addMutation(mutation);
+            idToTermWriter.flush();
+        } catch (final MutationsRejectedException e) {
+            throw new TripleRowResolverException("Could not reserve a block of term ids.", e);
+        }
+    }
+
+    /**
+     * @return The ids that are stored for the rows of the term to id table. Rows without an id are not included.
+     */
+    private Map<Text, Long> fetchIds(final Collection<Text> rows) throws TripleRowResolverException {
+        final Map<Text, Long> ids = new HashMap<>();
+        final List<Range> ranges = new ArrayList<>();
+        for (final Text row : rows) {
+            ranges.add(Range.exact(row));
+        }
+
+        BatchScanner scanner = null;
+        try {
+            scanner = connector.createBatchScanner(termToIdTable, new Authorizations(), NUM_THREADS);
+            scanner.setRanges(ranges);
+            scanner.fetchColumn(ID_CF, EMPTY_CQ);
+            for (final Entry<Key, Value> entry : scanner) {
+                ids.put(entry.getKey().getRow(), TermIdCodec.decode(entry.getValue().get(), 0));
+            }
+        } catch (final TableNotFoundException e) {
+            throw new TripleRowResolverException("The dictionary table " + termToIdTable + " does not exist.", e);
+        } finally {
+            if (scanner != null) {
+                scanner.close();
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] serialize(final RyaType term) throws TripleRowResolverException {
+        try {
+            return RyaContext.getInstance().serialize(term);
+        } catch (final RyaTypeResolverException e) {
+            throw new TripleRowResolverException("Could not serialize the term " + term, e);
+        }
+    }
+
+    private static RyaType deserialize(final byte[] bytes) throws TripleRowResolverException {
+        try {
+            return RyaContext.getInstance().deserialize(bytes);
+        } catch (final RyaTypeResolverException e) {
+            throw new TripleRowResolverException("Could not deserialize a dictionary term.", e);
+        }
+    }
+
+    @Override
+    public void close() throws MutationsRejectedException {
+        try {
+            idToTermWriter.close();
+        } finally {
+            if (termToIdWriter != null) {
+                termToIdWriter.close();
+            }
+            if (counterWriter != null) {
+                counterWriter.close();
+            }
+        }
+    }
+}
@@ -28,11 +28,15 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.ScannerBase;
+import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Column;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
@@ -42,6 +46,8 @@ import org.apache.accumulo.core.iterators.user.TimestampFilter;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.GraphIndexRows;
+import org.apache.rya.accumulo.dictionary.AccumuloTermDictionary;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.RdfCloudTripleStoreConstants;
 import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
@@ -49,11 +55,14 @@ import org.apache.rya.api.domain.RyaRange;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
 import org.apache.rya.api.layout.TableLayoutStrategy;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.query.BatchRyaQuery;
 import org.apache.rya.api.persist.query.RyaQuery;
 import org.apache.rya.api.persist.query.RyaQueryEngine;
+import org.apache.rya.api.query.filter.StatementFilter;
+import org.apache.rya.api.query.filter.StatementMetadataFilter;
 import org.apache.rya.api.query.strategy.ByteRange;
 import org.apache.rya.api.query.strategy.TriplePatternStrategy;
 import org.apache.rya.api.resolver.RyaContext;
@@ -80,21 +89,57 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
     private AccumuloRdfConfiguration configuration;
     private Connector connector;
     private RyaTripleContext ryaContext;
+    private final AccumuloTermDictionary ownedDictionary;
     private final Map<TABLE_LAYOUT, KeyValueToRyaStatementFunction> keyValueToRyaStatementFunctionMap = new HashMap<TABLE_LAYOUT, KeyValueToRyaStatementFunction>();
 
     public AccumuloRyaQueryEngine(Connector connector) {
         this(connector, new AccumuloRdfConfiguration());
     }
 
+    /**
+     * If the configuration uses the {@link RyaTableLayout#DICTIONARY} layout, then the engine opens
+     * its own term dictionary, which is closed by {@link #close()}.
+     */
     public AccumuloRyaQueryEngine(Connector connector, AccumuloRdfConfiguration conf) {
+        this(connector, conf, openDictionary(connector, conf));
+    }
+
+    private AccumuloRyaQueryEngine(Connector connector, AccumuloRdfConfiguration conf, AccumuloTermDictionary dictionary) {
+        this(connector, conf, dictionary == null ? RyaTripleContext.getInstance(conf) : new RyaTripleContext(dictionary), dictionary);
+    }
+
+    /**
+     * @param connector - Connects to the Accumulo instance that holds the triple tables.
+     * @param conf - Configures the queries.
+     * @param ryaContext - Serializes the triple patterns and deserializes the rows of the
+     *   triple tables. It must match the {@link RyaTableLayout} of the tables.
+     */
+    public AccumuloRyaQueryEngine(Connector connector, AccumuloRdfConfiguration conf, RyaTripleContext ryaContext) {
+        this(connector, conf, ryaContext, null);
+    }
+
+    private AccumuloRyaQueryEngine(Connector connector, AccumuloRdfConfiguration conf, RyaTripleContext ryaContext,
+            AccumuloTermDictionary ownedDictionary) {
         this.connector = connector;
         this.configuration = conf;
-        ryaContext = RyaTripleContext.getInstance(conf);
+        this.ryaContext = ryaContext;
+        this.ownedDictionary = ownedDictionary;
         keyValueToRyaStatementFunctionMap.put(TABLE_LAYOUT.SPO, new KeyValueToRyaStatementFunction(TABLE_LAYOUT.SPO, ryaContext));
         keyValueToRyaStatementFunctionMap.put(TABLE_LAYOUT.PO, new KeyValueToRyaStatementFunction(TABLE_LAYOUT.PO, ryaContext));
         keyValueToRyaStatementFunctionMap.put(TABLE_LAYOUT.OSP, new KeyValueToRyaStatementFunction(TABLE_LAYOUT.OSP, ryaContext));
     }
 
+    private static AccumuloTermDictionary openDictionary(Connector connector, AccumuloRdfConfiguration conf) {
+        if (conf.getRyaTableLayout() != RyaTableLayout.DICTIONARY) {
+            return null;
+        }
+        try {
+            return new AccumuloTermDictionary(connector, conf);
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new IllegalStateException("Could not open the term dictionary.", e);
+        }
+    }
+
     @Override
     public CloseableIteration<RyaStatement, RyaDAOException> query(RyaStatement stmt, AccumuloRdfConfiguration conf)
             throws RyaDAOException {
@@ -134,9 +179,16 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
             TriplePatternStrategy strategy = null;
             RyaURI columnFamily = null;
             boolean columnFamilySet = false;
+            Collection<Range> graphRanges = new HashSet<Range>();
+            boolean graphPatternsOnly = true;
             for (Map.Entry<RyaStatement, BindingSet> stmtbs : stmts) {
                 RyaStatement stmt = stmtbs.getKey();
                 context = stmt.getContext();
+                if (isGraphPattern(stmt)) {
+                    graphRanges.add(GraphIndexRows.graphRange(context));
+                } else {
+                    graphPatternsOnly = false;
+                }
                 // if all RyaStatements for this query have the same context,
                 // then set the columnFamily to be that value so that Scanner can fetch
                 // only that ColumnFamily. Otherwise set columnFamily to null so that
@@ -206,10 +258,25 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
             String table = layoutToTable(layout, conf);
             boolean useBatchScanner = ranges.size() > maxRanges;
             RyaStatementBindingSetKeyValueIterator iterator = null;
-            if (useBatchScanner) {
+            if (graphPatternsOnly && useGraphIndex(regexSubject, regexPredicate, regexObject)) {
+                // The patterns only bind graphs, so their statements are read from the graph index.
+                // The entries are converted back to SPO entries, which rangeMap still matches.
+                Iterator<Map.Entry<Key, Value>>[] iters = new Iterator[graphRanges.size()];
+                int i = 0;
+                for (Range range : graphRanges) {
+                    Scanner scanner = connector.createScanner(configuration.getGraphIndexTable(), authorizations);
+                    scanner.setRange(range);
+                    fillScanner(scanner, columnFamily, null, ttl, null, null, conf);
+                    addStatementFilter(scanner, null, conf);
+                    iters[i] = Iterators.transform(scanner.iterator(), GraphIndexRows.TO_SPO_ENTRY);
+                    i++;
+                }
+                iterator = new RyaStatementBindingSetKeyValueIterator(TABLE_LAYOUT.SPO, Iterators.concat(iters), rangeMap, ryaContext);
+            } else if (useBatchScanner) {
                 ScannerBase scanner = connector.createBatchScanner(table, authorizations, numThreads);
                 ((BatchScanner) scanner).setRanges(ranges);
                 fillScanner(scanner, columnFamily, null, ttl, null, tripleRowRegex, conf);
+                addStatementFilter(scanner, layout, conf);
                 iterator = new RyaStatementBindingSetKeyValueIterator(layout, ryaContext, scanner, rangeMap);
             } else {
                 Scanner scannerBase = null;
@@ -219,6 +286,7 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
                     scannerBase = connector.createScanner(table, authorizations);
                     scannerBase.setRange(range);
                     fillScanner(scannerBase, columnFamily, null, ttl, null, tripleRowRegex, conf);
+                    addStatementFilter(scannerBase, layout, conf);
                     iters[i] = scannerBase.iterator();
                     i++;
                 }
@@ -276,6 +344,9 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
             RyaURI context = stmt.getContext();
             String qualifier = stmt.getQualifer();
             TripleRowRegex tripleRowRegex = null;
+            if (isGraphPattern(stmt) && useGraphIndex(regexSubject, regexPredicate, regexObject)) {
+                return queryGraphIndex(ryaQuery, authorizations);
+            }
             if (strategy != null) {
                 // otherwise, full table scan is supported
                 Map.Entry<RdfCloudTripleStoreConstants.TABLE_LAYOUT, ByteRange> entry = strategy.defineRange(subject, predicate, object,
@@ -311,6 +382,7 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
                 scanner.setBatchSize(batchSize);
             }
             fillScanner(scanner, context, qualifier, ttl, currentTime, tripleRowRegex, ryaQuery.getConf());
+            addStatementFilter(scanner, layout, ryaQuery.getConf());
 
             FluentCloseableIterable<RyaStatement> results = FluentCloseableIterable.from(new ScannerBaseCloseableIterable(scanner))
                     .transform(keyValueToRyaStatementFunctionMap.get(layout));
@@ -324,6 +396,44 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
         }
     }
 
+    /**
+     * @return {@code true} if the pattern only binds the graph of the statements it matches.
+     */
+    private static boolean isGraphPattern(RyaStatement stmt) {
+        return stmt.getContext() != null && stmt.getSubject() == null && stmt.getPredicate() == null && stmt.getObject() == null;
+    }
+
+    /**
+     * @return {@code true} if patterns that only bind a graph may be answered by the graph index
+     *   table. Its rows do not match the regular expressions of the core tables.
+     */
+    private boolean useGraphIndex(String regexSubject, String regexPredicate, String regexObject) {
+        return configuration.isGraphIndexEnabled() && regexSubject == null && regexPredicate == null && regexObject == null;
+    }
+
+    /**
+     * Reads every statement of the graph of a pattern that only binds a graph from the graph index
+     * table, instead of scanning the whole SPO table for the graph's column family.
+     */
+    private CloseableIterable<RyaStatement> queryGraphIndex(RyaQuery ryaQuery, Authorizations authorizations) throws Exception {
+        RyaStatement stmt = ryaQuery.getQuery();
+        Scanner scanner = connector.createScanner(configuration.getGraphIndexTable(), authorizations);
+        scanner.setRange(GraphIndexRows.graphRange(stmt.getContext()));
+        if (ryaQuery.getBatchSize() != null) {
+            scanner.setBatchSize(ryaQuery.getBatchSize());
+        }
+        fillScanner(scanner, stmt.getContext(), stmt.getQualifer(), ryaQuery.getTtl(), ryaQuery.getCurrentTime(), null, ryaQuery.getConf());
+        addStatementFilter(scanner, null, ryaQuery.getConf());
+
+        FluentCloseableIterable<RyaStatement> results = FluentCloseableIterable.from(new ScannerBaseCloseableIterable(scanner))
+                .transform(GraphIndexRows.TO_SPO_ENTRY)
+                .transform(keyValueToRyaStatementFunctionMap.get(TABLE_LAYOUT.SPO));
+        if (ryaQuery.getMaxResults() != null) {
+            results = results.limit(ryaQuery.getMaxResults().intValue());
+        }
+        return results;
+    }
+
     @Override
     public CloseableIterable<RyaStatement> query(BatchRyaQuery ryaQuery) throws RyaDAOException {
         Preconditions.checkNotNull(ryaQuery);
@@ -446,6 +556,27 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
         }
     }
 
+    /**
+     * Evaluates the {@link StatementFilter} and {@link StatementMetadataFilter} of a query on the
+     * tablet servers. Rows of the dictionary layout and of the graph index table, whose layout is
+     * {@code null}, can not be decoded there, so their statements are only filtered by their metadata.
+     */
+    protected void addStatementFilter(ScannerBase scanner, TABLE_LAYOUT layout, RdfCloudTripleStoreConfiguration conf) {
+        if (conf == null) {
+            return;
+        }
+        if (conf.getStatementFilter() != null && layout != null && configuration.getRyaTableLayout() != RyaTableLayout.DICTIONARY) {
+            IteratorSetting setting = new IteratorSetting(12, "sf", StatementFilterIterator.class.getName());
+            StatementFilterIterator.setOptions(setting, StatementFilter.deserialize(conf.getStatementFilter()), layout, conf.isPrefixRowsWithHash());
+            scanner.addScanIterator(setting);
+        }
+        if (conf.getStatementMetadataFilter() != null) {
+            IteratorSetting setting = new IteratorSetting(13, "smf", StatementMetadataFilterIterator.class.getName());
+            StatementMetadataFilterIterator.setFilter(setting, StatementMetadataFilter.deserialize(conf.getStatementMetadataFilter()));
+            scanner.addScanIterator(setting);
+        }
+    }
+
     @Override
     public void setConf(AccumuloRdfConfiguration conf) {
         this.configuration = conf;
@@ -458,5 +589,12 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
 
     @Override
     public void close() throws IOException {
+        if (ownedDictionary != null) {
+            try {
+                ownedDictionary.close();
+            } catch (MutationsRejectedException e) {
+                throw new IOException("Could not close the term dictionary.", e);
+            }
+        }
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.query;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.query.filter.StatementFilter;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+/**
+ * Evaluates a {@link StatementFilter} on the tablet servers. Each entry of an SPO, PO or OSP table
+ * is decoded into the statement it holds, and only the statements the filter accepts are returned.
+ * Entries that can not be decoded are returned, so the client decides what to do with them.
+ */
+public class StatementFilterIterator extends Filter {
+    public static final String FILTER_PROP = "statementFilter";
+    public static final String TABLE_LAYOUT_PROP = "tableLayout";
+    public static final String PREFIX_ROWS_WITH_HASH_PROP = "prefixRowsWithHash";
+
+    private StatementFilter filter;
+    private TABLE_LAYOUT layout;
+    private RyaTripleContext context;
+
+    /**
+     * Configures an iterator setting that uses this iterator.
+     *
+     * @param setting - The setting that is configured. (not null)
+     * @param filter - The filter the statements must pass. (not null)
+     * @param layout - The layout of the table that is scanned. (not null)
+     * @param prefixRowsWithHash - Whether the rows of the table are prefixed with a hash.
+     */
+    public static void setOptions(final IteratorSetting setting, final StatementFilter filter, final TABLE_LAYOUT layout, final boolean prefixRowsWithHash) {
+        setting.addOption(FILTER_PROP, filter.serialize());
+        setting.addOption(TABLE_LAYOUT_PROP, layout.name());
+        setting.addOption(PREFIX_ROWS_WITH_HASH_PROP, Boolean.toString(prefixRowsWithHash));
+    }
+
+    @Override
+    public boolean accept(final Key k, final Value v) {
+        try {
+            final RyaStatement statement = context.deserializeTriple(layout,
+                    new TripleRow(k.getRowData().toArray(),
+                            k.getColumnFamilyData().toArray(),
+                            k.getColumnQualifierData().toArray(),
+                            k.getTimestamp(),
+                            k.getColumnVisibilityData().toArray(),
+                            v != null ? v.get() : null));
+            return filter.accepts(statement);
+        } catch (final TripleRowResolverException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key,Value> source, final Map<String,String> options, final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        if (!validateOptions(options)) {
+            throw new IllegalArgumentException("The options " + FILTER_PROP + " and " + TABLE_LAYOUT_PROP + " must be set for StatementFilterIterator");
+        }
+        filter = StatementFilter.deserialize(options.get(FILTER_PROP));
+        layout = TABLE_LAYOUT.valueOf(options.get(TABLE_LAYOUT_PROP));
+        context = new RyaTripleContext(Boolean.parseBoolean(options.get(PREFIX_ROWS_WITH_HASH_PROP)));
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final StatementFilterIterator copy = (StatementFilterIterator) super.deepCopy(env);
+        copy.filter = filter;
+        copy.layout = layout;
+        copy.context = context;
+        return copy;
+    }
+
+    @Override
+    public OptionDescriber.IteratorOptions describeOptions() {
+        final Map<String, String> options = new TreeMap<String, String>();
+        options.put(FILTER_PROP, "the serialized StatementFilter the statements must pass");
+        options.put(TABLE_LAYOUT_PROP, "the layout of the table that is scanned: SPO, PO or OSP");
+        options.put(PREFIX_ROWS_WITH_HASH_PROP, "true if the rows of the table are prefixed with a hash");
+        return new OptionDescriber.IteratorOptions("statementFilter", "StatementFilterIterator removes statements that do not pass a StatementFilter",
+                options, null);
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        return options != null && options.containsKey(FILTER_PROP) && options.containsKey(TABLE_LAYOUT_PROP);
+    }
+}
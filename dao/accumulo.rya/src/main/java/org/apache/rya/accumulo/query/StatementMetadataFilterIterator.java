@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.query;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.api.persist.RdfDAOException;
+import org.apache.rya.api.query.filter.StatementMetadataFilter;
+
+/**
+ * Evaluates a {@link StatementMetadataFilter} on the tablet servers. The {@link StatementMetadata}
+ * stored in the Value of each entry of an SPO, PO or OSP table is decoded, and only the entries
+ * whose metadata the filter accepts are returned. Entries whose metadata can not be decoded are
+ * returned, so the client decides what to do with them.
+ */
+public class StatementMetadataFilterIterator extends Filter {
+    public static final String FILTER_PROP = "statementMetadataFilter";
+
+    private StatementMetadataFilter filter;
+
+    /**
+     * Configures an iterator setting that uses this iterator.
+     *
+     * @param setting - The setting that is configured. (not null)
+     * @param filter - The filter the metadata of the statements must pass. (not null)
+     */
+    public static void setFilter(final IteratorSetting setting, final StatementMetadataFilter filter) {
+        setting.addOption(FILTER_PROP, filter.serialize());
+    }
+
+    @Override
+    public boolean accept(final Key k, final Value v) {
+        try {
+            return filter.accepts(new StatementMetadata(v != null ? v.get() : null));
+        } catch (final RdfDAOException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key,Value> source, final Map<String,String> options, final IteratorEnvironment env) throws IOException {
+        super.init(source, options, env);
+        if (!validateOptions(options)) {
+            throw new IllegalArgumentException(FILTER_PROP + " must be set for StatementMetadataFilterIterator");
+        }
+        filter = StatementMetadataFilter.deserialize(options.get(FILTER_PROP));
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final StatementMetadataFilterIterator copy = (StatementMetadataFilterIterator) super.deepCopy(env);
+        copy.filter = filter;
+        return copy;
+    }
+
+    @Override
+    public OptionDescriber.IteratorOptions describeOptions() {
+        final Map<String, String> options = new TreeMap<String, String>();
+        options.put(FILTER_PROP, "the serialized StatementMetadataFilter the metadata of the statements must pass");
+        return new OptionDescriber.IteratorOptions("statementMetadataFilter",
+                "StatementMetadataFilterIterator removes statements whose metadata does not pass a StatementMetadataFilter",
+                options, null);
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        return options != null && options.containsKey(FILTER_PROP);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.accumulo.core.security.ColumnVisibility.Node;
+import org.apache.accumulo.core.security.ColumnVisibility.NodeType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An interned, simplified Accumulo visibility expression.
+ * <p>
+ * Every expression that simplifies to the same form is represented by the same instance for as long
+ * as that instance is cached, so unions of visibilities that have been seen before are resolved
+ * without parsing. The expression is also compiled once into a tree of authorization terms so that
+ * {@link #evaluate(Authorizations)} does not allocate.
+ */
+@DefaultAnnotation(NonNull.class)
+public final class CanonicalVisibility {
+
+    private static final Cache<String, CanonicalVisibility> INTERNED = CacheBuilder.newBuilder()
+            .maximumSize(VisibilitySimplifier.MAX_CACHED_EXPRESSIONS)
+            .build();
+
+    /**
+     * The visibility that every user may see.
+     */
+    public static final CanonicalVisibility EMPTY = new CanonicalVisibility("");
+
+    private final String expression;
+    private final Term root;
+
+    private CanonicalVisibility(final String expression) {
+        this.expression = expression;
+        final ColumnVisibility visibility = new ColumnVisibility(expression);
+        root = compile(visibility.getParseTree(), visibility.getExpression());
+    }
+
+    /**
+     * Finds the canonical form of a visibility expression.
+     *
+     * @param visibility - The visibility expression. (not null)
+     * @return The interned, simplified form of {@code visibility}.
+     */
+    public static CanonicalVisibility of(final String visibility) {
+        requireNonNull(visibility);
+
+        if(visibility.isEmpty()) {
+            return EMPTY;
+        }
+
+        CanonicalVisibility canonical = INTERNED.getIfPresent(visibility);
+        if(canonical == null) {
+            final String simplified = VisibilitySimplifier.simplify(visibility);
+            canonical = INTERNED.getIfPresent(simplified);
+            if(canonical == null) {
+                canonical = new CanonicalVisibility(simplified);
+                INTERNED.put(simplified, canonical);
+            }
+            INTERNED.put(visibility, canonical);
+        }
+        return canonical;
+    }
+
+    /**
+     * @return The simplified visibility expression.
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Unions this visibility with another one.
+     *
+     * @param other - The visibility that will be unioned with this one. (not null)
+     * @return The canonical form of a visibility that requires both this and {@code other}.
+     */
+    public CanonicalVisibility union(final CanonicalVisibility other) {
+        requireNonNull(other);
+        if(this == other || other.expression.isEmpty()) {
+            return this;
+        }
+        if(expression.isEmpty()) {
+            return other;
+        }
+        return of(VisibilitySimplifier.unionAndSimplify(expression, other.expression));
+    }
+
+    /**
+     * @param auths - The authorizations of a user. (not null)
+     * @return {@code true} if a user with {@code auths} may see data with this visibility.
+     */
+    public boolean evaluate(final Authorizations auths) {
+        requireNonNull(auths);
+        return root.evaluate(auths);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(o instanceof CanonicalVisibility) {
+            return expression.equals(((CanonicalVisibility) o).expression);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static Term compile(final Node node, final byte[] expression) {
+        final NodeType type = node.getType();
+        if(type == NodeType.TERM) {
+            return new Term(unescape(node.getTerm(expression)));
+        }
+
+        final List<Node> children = node.getChildren();
+        final Term[] compiled = new Term[children.size()];
+        for(int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(children.get(i), expression);
+        }
+        return new Term(type, compiled);
+    }
+
+    /**
+     * Removes the escape characters from a quoted term so it may be compared with authorizations.
+     */
+    private static ByteSequence unescape(final ByteSequence term) {
+        final byte[] escaped = term.toArray();
+        final byte[] unescaped = new byte[escaped.length];
+        int length = 0;
+        for(int i = 0; i < escaped.length; i++) {
+            if(escaped[i] == '\\' && i + 1 < escaped.length) {
+                i++;
+            }
+            unescaped[length++] = escaped[i];
+        }
+        return new ArrayByteSequence(unescaped, 0, length);
+    }
+
+    /**
+     * A node of a compiled visibility expression.
+     */
+    private static final class Term {
+        private final NodeType type;
+        private final ByteSequence auth;
+        private final Term[] children;
+
+        public Term(final ByteSequence auth) {
+            type = NodeType.TERM;
+            this.auth = auth;
+            children = new Term[0];
+        }
+
+        public Term(final NodeType type, final Term[] children) {
+            this.type = type;
+            auth = null;
+            this.children = children;
+        }
+
+        public boolean evaluate(final Authorizations auths) {
+            switch(type) {
+                case EMPTY:
+                    return true;
+                case TERM:
+                    return auths.contains(auth);
+                case AND:
+                    for(final Term child : children) {
+                        if(!child.evaluate(auths)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case OR:
+                    for(final Term child : children) {
+                        if(child.evaluate(auths)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    throw new IllegalStateException("Unknown visibility node type: " + type);
+            }
+        }
+    }
+}
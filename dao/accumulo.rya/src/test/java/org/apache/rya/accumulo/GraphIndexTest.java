@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.impl.EmptyBindingSet;
+
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * Tests how {@link AccumuloRyaDAO} maintains and uses the graph index table.
+ */
+public class GraphIndexTest {
+    private static final RyaURI GRAPH_A = new RyaURI("urn:graphA");
+    private static final RyaURI GRAPH_B = new RyaURI("urn:graphB");
+
+    private AccumuloRyaDAO dao;
+    private AccumuloRdfConfiguration conf;
+    private Connector connector;
+
+    @Before
+    public void setUp() throws Exception {
+        connector = new MockInstance().getConnector("", new PasswordToken(""));
+        conf = new AccumuloRdfConfiguration();
+        conf.setGraphIndexEnabled(true);
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+
+        dao.add(statement("urn:alice", "urn:likes", "urn:icecream", GRAPH_A));
+        dao.add(statement("urn:bob", "urn:likes", "urn:cake", GRAPH_A));
+        dao.add(statement("urn:alice", "urn:likes", "urn:pie", GRAPH_B));
+        dao.add(statement("urn:charlie", "urn:likes", "urn:tea", null));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dao.purge(conf);
+        dao.destroy();
+    }
+
+    @Test
+    public void onlyNamedGraphsAreIndexed() throws Exception {
+        assertEquals(3, count(conf.getGraphIndexTable()));
+    }
+
+    @Test
+    public void queryGraph() throws Exception {
+        final Set<String> subjects = new HashSet<>();
+        final CloseableIteration<RyaStatement, RyaDAOException> it = dao.getQueryEngine().query(new RyaStatement(null, null, null, GRAPH_A), conf);
+        try {
+            while (it.hasNext()) {
+                final RyaStatement stmt = it.next();
+                assertEquals(GRAPH_A, stmt.getContext());
+                subjects.add(stmt.getSubject().getData());
+            }
+        } finally {
+            it.close();
+        }
+
+        final Set<String> expected = new HashSet<>();
+        expected.add("urn:alice");
+        expected.add("urn:bob");
+        assertEquals(expected, subjects);
+    }
+
+    @Test
+    public void queryGraphWithBindingSet() throws Exception {
+        final Map.Entry<RyaStatement, BindingSet> pattern = new RdfCloudTripleStoreUtils.CustomEntry<RyaStatement, BindingSet>(
+                new RyaStatement(null, null, null, GRAPH_B), EmptyBindingSet.getInstance());
+        final CloseableIteration<? extends Map.Entry<RyaStatement, BindingSet>, RyaDAOException> it =
+                dao.getQueryEngine().queryWithBindingSet(Collections.singleton(pattern), conf);
+        int count = 0;
+        try {
+            while (it.hasNext()) {
+                final Map.Entry<RyaStatement, BindingSet> result = it.next();
+                if (result != null) {
+                    assertEquals(new RyaURI("urn:pie"), result.getKey().getObject());
+                    count++;
+                }
+            }
+        } finally {
+            it.close();
+        }
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void dropGraph() throws Exception {
+        dao.dropGraph(conf, GRAPH_A);
+
+        assertEquals(1, count(conf.getGraphIndexTable()));
+        // The other graph, the default graph and the version statement remain.
+        assertEquals(3, count(conf.getTableLayoutStrategy().getSpo()));
+        assertEquals(3, count(conf.getTableLayoutStrategy().getPo()));
+        assertEquals(3, count(conf.getTableLayoutStrategy().getOsp()));
+
+        final CloseableIteration<RyaStatement, RyaDAOException> it = dao.getQueryEngine().query(new RyaStatement(null, null, null, GRAPH_A), conf);
+        try {
+            assertFalse(it.hasNext());
+        } finally {
+            it.close();
+        }
+    }
+
+    @Test
+    public void dropAllGraphs() throws Exception {
+        // Dropping without naming any graphs clears every statement and the graph index.
+        dao.dropGraph(conf);
+
+        assertEquals(0, count(conf.getGraphIndexTable()));
+        assertEquals(0, count(conf.getTableLayoutStrategy().getSpo()));
+        assertEquals(0, count(conf.getTableLayoutStrategy().getPo()));
+        assertEquals(0, count(conf.getTableLayoutStrategy().getOsp()));
+    }
+
+    @Test
+    public void deleteRemovesIndexEntry() throws Exception {
+        dao.delete(statement("urn:bob", "urn:likes", "urn:cake", GRAPH_A), conf);
+        assertEquals(2, count(conf.getGraphIndexTable()));
+    }
+
+    private int count(final String table) throws Exception {
+        final Scanner scanner = connector.createScanner(table, conf.getAuthorizations());
+        int count = 0;
+        for (final Map.Entry<Key, Value> entry : scanner) {
+            count++;
+        }
+        return count;
+    }
+
+    private static RyaStatement statement(final String subject, final String predicate, final String object, final RyaURI graph) {
+        final RyaStatement stmt = new RyaStatement(new RyaURI(subject), new RyaURI(predicate), new RyaURI(object));
+        stmt.setContext(graph);
+        return stmt;
+    }
+}
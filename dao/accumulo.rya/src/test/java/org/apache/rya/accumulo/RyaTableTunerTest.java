@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.hadoop.io.Text;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests the methods of {@link RyaTableTuner}.
+ */
+public class RyaTableTunerTest {
+
+    private AccumuloRyaDAO dao;
+    private AccumuloRdfConfiguration conf;
+    private Connector connector;
+
+    @Before
+    public void setUp() throws Exception {
+        connector = new MockInstance(getClass().getSimpleName()).getConnector("", new PasswordToken(""));
+        conf = new AccumuloRdfConfiguration();
+        conf.setTableCompactionRatio(RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX, 2.0);
+        conf.setTableIndexBlockSize(RdfCloudTripleStoreConstants.TBL_PO_SUFFIX, "256K");
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dao.dropAndDestroy();
+    }
+
+    @Test
+    public void createdTablesAreTuned() throws Exception {
+        final Map<String, String> spo = properties(conf.getTableLayoutStrategy().getSpo());
+        assertEquals("true", spo.get(Property.TABLE_BLOOM_ENABLED.getKey()));
+        assertEquals("2.0", spo.get(Property.TABLE_MAJC_RATIO.getKey()));
+
+        final Map<String, String> po = properties(conf.getTableLayoutStrategy().getPo());
+        assertEquals("true", po.get(Property.TABLE_BLOOM_ENABLED.getKey()));
+        assertEquals("256K", po.get(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX.getKey()));
+
+        // The namespace table is not a core table.
+        final Map<String, String> ns = properties(conf.getTableLayoutStrategy().getNs());
+        assertFalse("true".equals(ns.get(Property.TABLE_BLOOM_ENABLED.getKey())));
+    }
+
+    @Test
+    public void localityGroups() throws Exception {
+        conf.setLocalityGroupGraphs("urn:graphA", "urn:graphB");
+        new RyaTableTuner(connector, conf).tune();
+
+        final Map<String, java.util.Set<Text>> groups = connector.tableOperations().getLocalityGroups(conf.getTableLayoutStrategy().getOsp());
+        assertEquals(2, groups.size());
+        assertEquals(Collections.singleton(new Text("urn:graphA")), groups.get("graph0"));
+        assertEquals(Collections.singleton(new Text("urn:graphB")), groups.get("graph1"));
+    }
+
+    @Test
+    public void pickSplits_evenWeights() {
+        final SortedMap<Text, Long> weights = new TreeMap<>();
+        for (final String row : new String[] {"a", "b", "c", "d", "e", "f", "g", "h"}) {
+            weights.put(new Text(row), 1L);
+        }
+
+        final SortedSet<Text> expected = new TreeSet<>();
+        expected.add(new Text("c"));
+        expected.add(new Text("e"));
+        expected.add(new Text("g"));
+        assertEquals(expected, RyaTableTuner.pickSplits(weights, 3));
+    }
+
+    @Test
+    public void pickSplits_heavyRow() {
+        final SortedMap<Text, Long> weights = new TreeMap<>();
+        weights.put(new Text("a"), 1L);
+        weights.put(new Text("b"), 100L);
+        weights.put(new Text("c"), 1L);
+
+        // A heavy row can not be split, so it ends up in a tablet of its own.
+        final SortedSet<Text> expected = new TreeSet<>();
+        expected.add(new Text("b"));
+        expected.add(new Text("c"));
+        assertEquals(expected, RyaTableTuner.pickSplits(weights, 4));
+    }
+
+    @Test
+    public void pickSplits_tooFewRows() {
+        final SortedMap<Text, Long> weights = new TreeMap<>();
+        weights.put(new Text("a"), 10L);
+        assertTrue(RyaTableTuner.pickSplits(weights, 4).isEmpty());
+        assertTrue(RyaTableTuner.pickSplits(new TreeMap<Text, Long>(), 4).isEmpty());
+    }
+
+    @Test
+    public void splitsFromSample() throws Exception {
+        final RyaTripleContext ryaContext = RyaTripleContext.getInstance(conf);
+        final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights = RyaTableTuner.weighSample(ryaContext, Lists.newArrayList(
+                new RyaStatement(new RyaURI("urn:alice"), new RyaURI("urn:likes"), new RyaURI("urn:icecream")),
+                new RyaStatement(new RyaURI("urn:bob"), new RyaURI("urn:likes"), new RyaURI("urn:cake")),
+                new RyaStatement(new RyaURI("urn:charlie"), new RyaURI("urn:likes"), new RyaURI("urn:pie")),
+                new RyaStatement(new RyaURI("urn:david"), new RyaURI("urn:likes"), new RyaURI("urn:tea"))).iterator());
+        assertEquals(4, weights.get(TABLE_LAYOUT.SPO).size());
+
+        final Map<TABLE_LAYOUT, SortedSet<Text>> splits = RyaTableTuner.pickSplits(weights, 1);
+        new RyaTableTuner(connector, conf).addSplits(splits);
+
+        final Map<TABLE_LAYOUT, Integer> splitCounts = new HashMap<>();
+        for (final Entry<TABLE_LAYOUT, SortedSet<Text>> entry : splits.entrySet()) {
+            splitCounts.put(entry.getKey(), entry.getValue().size());
+        }
+        assertEquals(Integer.valueOf(1), splitCounts.get(TABLE_LAYOUT.SPO));
+        assertEquals(1, connector.tableOperations().listSplits(conf.getTableLayoutStrategy().getSpo()).size());
+    }
+
+    private Map<String, String> properties(final String table) throws Exception {
+        final Map<String, String> properties = new HashMap<>();
+        for (final Entry<String, String> property : connector.tableOperations().getProperties(table)) {
+            properties.put(property.getKey(), property.getValue());
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.dictionary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.rya.accumulo.AccumuloITBase;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * Tests the methods of {@link AccumuloTermDictionary} and the dictionary layout of {@link AccumuloRyaDAO}
+ * by using a MiniAccumuloCluster.
+ */
+public class AccumuloTermDictionaryIT extends AccumuloITBase {
+
+    private AccumuloRdfConfiguration conf;
+
+    @Before
+    public void setUp() {
+        conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix(getRyaInstanceName());
+        conf.setRyaTableLayout(RyaTableLayout.DICTIONARY);
+        conf.setDictionaryIdBlockSize(3);
+    }
+
+    @Test
+    public void assignIds() throws Exception {
+        final List<RyaType> terms = Arrays.asList(
+                new RyaURI("urn:alice"),
+                new RyaURI("urn:bob"),
+                new RyaType("alice"),
+                new RyaType(XMLSchema.INTEGER, "5"),
+                new RyaURI("urn:charlie"));
+
+        try(AccumuloTermDictionary dictionary = new AccumuloTermDictionary(getConnector(), conf)) {
+            final Map<RyaType, Long> ids = dictionary.getOrAssignIds(terms);
+            assertEquals(terms.size(), ids.size());
+            assertEquals(terms.size(), new HashSet<>(ids.values()).size());
+
+            // Assigning ids again returns the same ids.
+            assertEquals(ids, dictionary.getOrAssignIds(terms));
+
+            // The ids map back to their terms.
+            final Map<Long, RyaType> lookedUp = dictionary.getTerms(ids.values());
+            for (final RyaType term : terms) {
+                assertEquals(term.getData(), lookedUp.get(ids.get(term)).getData());
+                assertEquals(term.getDataType(), lookedUp.get(ids.get(term)).getDataType());
+            }
+        }
+    }
+
+    @Test
+    public void dictionariesAgree() throws Exception {
+        final List<RyaType> terms = Arrays.<RyaType>asList(new RyaURI("urn:alice"), new RyaURI("urn:bob"));
+
+        try(AccumuloTermDictionary first = new AccumuloTermDictionary(getConnector(), conf);
+                AccumuloTermDictionary second = new AccumuloTermDictionary(getConnector(), conf)) {
+            final Map<RyaType, Long> firstIds = first.getOrAssignIds(terms);
+            assertEquals(firstIds, second.getOrAssignIds(terms));
+
+            // The second dictionary reserves a different block of ids for new terms.
+            final RyaType charlie = new RyaURI("urn:charlie");
+            final long secondId = second.getOrAssignIds(Arrays.asList(charlie)).get(charlie);
+            assertTrue(!firstIds.containsValue(secondId));
+            assertEquals(secondId, (long) first.getIds(Arrays.asList(charlie)).get(charlie));
+        }
+    }
+
+    @Test
+    public void concurrentDictionariesAgree() throws Exception {
+        final List<RyaType> terms = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            terms.add(new RyaURI("urn:person" + i));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try(AccumuloTermDictionary first = new AccumuloTermDictionary(getConnector(), conf);
+                AccumuloTermDictionary second = new AccumuloTermDictionary(getConnector(), conf)) {
+            // Both dictionaries assign ids to the same new terms at the same time.
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<Map<RyaType, Long>> firstIds = executor.submit(assignAfter(start, first, terms));
+            final Future<Map<RyaType, Long>> secondIds = executor.submit(assignAfter(start, second, terms));
+            start.countDown();
+
+            final Map<RyaType, Long> ids = firstIds.get();
+            assertEquals(ids, secondIds.get());
+            assertEquals(terms.size(), new HashSet<>(ids.values()).size());
+
+            // A dictionary with empty caches finds the term of every id.
+            try(AccumuloTermDictionary reader = new AccumuloTermDictionary(getConnector(), conf)) {
+                final Map<Long, RyaType> lookedUp = reader.getTerms(ids.values());
+                for (final RyaType term : terms) {
+                    assertEquals(term.getData(), lookedUp.get(ids.get(term)).getData());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void unknownTermsHaveNoIds() throws Exception {
+        try(AccumuloTermDictionary dictionary = new AccumuloTermDictionary(getConnector(), conf)) {
+            assertTrue(dictionary.getIds(Arrays.<RyaType>asList(new RyaURI("urn:nobody"))).isEmpty());
+        }
+    }
+
+    @Test
+    public void addQueryDelete() throws Exception {
+        final AccumuloRyaDAO dao = new AccumuloRyaDAO();
+        dao.setConnector(getConnector());
+        dao.setConf(conf);
+        dao.init();
+        try {
+            final RyaURI alice = new RyaURI("urn:alice");
+            final RyaURI bob = new RyaURI("urn:bob");
+            final RyaURI talksTo = new RyaURI("urn:talksTo");
+            final RyaURI age = new RyaURI("urn:age");
+            final RyaType thirty = new RyaType(XMLSchema.INTEGER, "30");
+
+            dao.add(Arrays.asList(
+                    new RyaStatement(alice, talksTo, bob),
+                    new RyaStatement(bob, talksTo, alice),
+                    new RyaStatement(alice, age, thirty)).iterator());
+            dao.flush();
+
+            // Query each of the table layouts.
+            assertEquals(2, query(dao, new RyaStatement(alice, null, null)).size());
+            assertEquals(2, query(dao, new RyaStatement(null, talksTo, null)).size());
+            assertEquals(1, query(dao, new RyaStatement(null, null, thirty)).size());
+            assertEquals(1, query(dao, new RyaStatement(alice, talksTo, bob)).size());
+
+            final Set<RyaStatement> found = query(dao, new RyaStatement(null, age, null));
+            final RyaStatement statement = found.iterator().next();
+            assertEquals(alice, statement.getSubject());
+            assertEquals(age, statement.getPredicate());
+            assertEquals(thirty.getData(), statement.getObject().getData());
+
+            // Terms that are not in the dictionary do not match anything.
+            assertTrue(query(dao, new RyaStatement(new RyaURI("urn:nobody"), null, null)).isEmpty());
+
+            dao.delete(new RyaStatement(alice, talksTo, bob), conf);
+            dao.flush();
+            assertEquals(1, query(dao, new RyaStatement(null, talksTo, null)).size());
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    private static Callable<Map<RyaType, Long>> assignAfter(final CountDownLatch start,
+            final AccumuloTermDictionary dictionary, final List<RyaType> terms) {
+        return new Callable<Map<RyaType, Long>>() {
+            @Override
+            public Map<RyaType, Long> call() throws Exception {
+                start.await();
+                return dictionary.getOrAssignIds(terms);
+            }
+        };
+    }
+
+    private Set<RyaStatement> query(final AccumuloRyaDAO dao, final RyaStatement pattern) throws RyaDAOException {
+        final Set<RyaStatement> statements = new HashSet<>();
+        final CloseableIteration<RyaStatement, RyaDAOException> it = dao.getQueryEngine().query(pattern, conf);
+        try {
+            while (it.hasNext()) {
+                statements.add(it.next());
+            }
+        } finally {
+            it.close();
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.query.filter.StatementFilter;
+import org.apache.rya.api.query.filter.StatementFilter.Condition;
+import org.apache.rya.api.query.filter.StatementFilter.Kind;
+import org.apache.rya.api.query.filter.StatementFilter.Position;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.junit.Test;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.algebra.Compare.CompareOp;
+
+/**
+ * Tests the methods of {@link StatementFilterIterator}.
+ */
+public class StatementFilterIteratorTest {
+
+    private final RyaTripleContext context = new RyaTripleContext(false);
+
+    @Test
+    public void filtersRows() throws Exception {
+        final TreeMap<Key, Value> rows = new TreeMap<>();
+        addRow(rows, TABLE_LAYOUT.PO, price("urn:item1", "50"));
+        addRow(rows, TABLE_LAYOUT.PO, price("urn:item2", "150"));
+        addRow(rows, TABLE_LAYOUT.PO, price("urn:item3", "250"));
+        addRow(rows, TABLE_LAYOUT.PO, new RyaStatement(new RyaURI("urn:item4"), new RyaURI("urn:price"), new RyaType("expensive")));
+
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.COMPARE, CompareOp.GT, ValueFactoryImpl.getInstance().createLiteral("100", XMLSchema.INTEGER))));
+
+        final Set<String> subjects = new HashSet<>();
+        final StatementFilterIterator iterator = makeIterator(rows, filter, TABLE_LAYOUT.PO);
+        while (iterator.hasTop()) {
+            subjects.add(toStatement(TABLE_LAYOUT.PO, iterator.getTopKey(), iterator.getTopValue()).getSubject().getData());
+            iterator.next();
+        }
+        assertEquals(new HashSet<>(Arrays.asList("urn:item2", "urn:item3")), subjects);
+    }
+
+    @Test
+    public void filtersEveryLayout() throws Exception {
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.SUBJECT, Kind.STR_STRSTARTS, CompareOp.EQ, ValueFactoryImpl.getInstance().createLiteral("urn:item1"))));
+
+        for (final TABLE_LAYOUT layout : Arrays.asList(TABLE_LAYOUT.SPO, TABLE_LAYOUT.PO, TABLE_LAYOUT.OSP)) {
+            final TreeMap<Key, Value> rows = new TreeMap<>();
+            addRow(rows, layout, price("urn:item1", "50"));
+            addRow(rows, layout, price("urn:item2", "150"));
+
+            final StatementFilterIterator iterator = makeIterator(rows, filter, layout);
+            assertEquals("urn:item1", toStatement(layout, iterator.getTopKey(), iterator.getTopValue()).getSubject().getData());
+            iterator.next();
+            assertFalse(iterator.hasTop());
+        }
+    }
+
+    @Test
+    public void keepsRowsThatCanNotBeDecoded() throws Exception {
+        final TreeMap<Key, Value> rows = new TreeMap<>();
+        final Key garbage = new Key("garbage");
+        rows.put(garbage, new Value(new byte[0]));
+
+        final StatementFilter filter = new StatementFilter(Arrays.asList(
+                new Condition(Position.OBJECT, Kind.IS_LITERAL, CompareOp.EQ, ValueFactoryImpl.getInstance().createLiteral(""))));
+        final StatementFilterIterator iterator = makeIterator(rows, filter, TABLE_LAYOUT.PO);
+        assertEquals(garbage, iterator.getTopKey());
+    }
+
+    private StatementFilterIterator makeIterator(final TreeMap<Key, Value> rows, final StatementFilter filter, final TABLE_LAYOUT layout) throws Exception {
+        final IteratorSetting setting = new IteratorSetting(12, "sf", StatementFilterIterator.class);
+        StatementFilterIterator.setOptions(setting, filter, layout, false);
+        final StatementFilterIterator iterator = new StatementFilterIterator();
+        iterator.init(new SortedMapIterator(rows), setting.getOptions(), null);
+        iterator.seek(new Range(), Collections.<ByteSequence>emptySet(), false);
+        return iterator;
+    }
+
+    private void addRow(final TreeMap<Key, Value> rows, final TABLE_LAYOUT layout, final RyaStatement statement) throws Exception {
+        final TripleRow row = context.serializeTriple(statement).get(layout);
+        final byte[] visibility = row.getColumnVisibility() != null ? row.getColumnVisibility() : new byte[0];
+        final Key key = new Key(row.getRow(), row.getColumnFamily(), row.getColumnQualifier(), visibility, row.getTimestamp());
+        rows.put(key, new Value(row.getValue() != null ? row.getValue() : new byte[0]));
+    }
+
+    private RyaStatement toStatement(final TABLE_LAYOUT layout, final Key key, final Value value) throws Exception {
+        return context.deserializeTriple(layout, new TripleRow(key.getRowData().toArray(), key.getColumnFamilyData().toArray(),
+                key.getColumnQualifierData().toArray(), key.getTimestamp(), key.getColumnVisibilityData().toArray(), value.get()));
+    }
+
+    private static RyaStatement price(final String item, final String price) {
+        return new RyaStatement(new RyaURI(item), new RyaURI("urn:price"), new RyaType(XMLSchema.INTEGER, price));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link CanonicalVisibility}.
+ */
+public class CanonicalVisibilityTest {
+
+    @Test
+    public void equivalentExpressionsAreInterned() {
+        final CanonicalVisibility first = CanonicalVisibility.of("(u&u)&b");
+        final CanonicalVisibility second = CanonicalVisibility.of("b&u");
+        assertSame(first, second);
+        assertEquals("b&u", first.getExpression());
+    }
+
+    @Test
+    public void union() {
+        final CanonicalVisibility union = CanonicalVisibility.of("u&b").union(CanonicalVisibility.of("u"));
+        assertSame(CanonicalVisibility.of("b&u"), union);
+    }
+
+    @Test
+    public void union_empty() {
+        final CanonicalVisibility u = CanonicalVisibility.of("u");
+        assertSame(u, u.union(CanonicalVisibility.EMPTY));
+        assertSame(u, CanonicalVisibility.EMPTY.union(u));
+    }
+
+    @Test
+    public void evaluate() {
+        final CanonicalVisibility visibility = CanonicalVisibility.of("a&(b|c)");
+        assertTrue(visibility.evaluate(new Authorizations("a", "c")));
+        assertFalse(visibility.evaluate(new Authorizations("a")));
+        assertFalse(visibility.evaluate(new Authorizations("b", "c")));
+    }
+
+    @Test
+    public void evaluate_empty() {
+        assertTrue(CanonicalVisibility.EMPTY.evaluate(new Authorizations()));
+    }
+
+    @Test
+    public void evaluate_quotedTerm() {
+        final CanonicalVisibility visibility = CanonicalVisibility.of("\"a\\\"b\"|c");
+        assertTrue(visibility.evaluate(new Authorizations("a\"b")));
+        assertFalse(visibility.evaluate(new Authorizations("a")));
+    }
+}
@@ -74,4 +74,11 @@ public class VisibilitySimplifierTest {
         final String simplified = new VisibilitySimplifier().unionAndSimplify("", "");
         assertEquals("", simplified);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void unionAndSimplify_operandOrder() {
+        final String simplified = new VisibilitySimplifier().unionAndSimplify("u", "a|b");
+        assertEquals(simplified, new VisibilitySimplifier().unionAndSimplify("a|b", "u"));
+        assertEquals("u&(a|b)", simplified);
+    }
+}
@@ -28,7 +28,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
+import org.apache.accumulo.core.security.Authorizations;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.query.BatchRyaQuery;
@@ -36,6 +38,7 @@ import org.apache.rya.api.persist.query.RyaQuery;
 import org.apache.rya.api.persist.query.RyaQueryEngine;
 import org.apache.rya.mongodb.dao.MongoDBStorageStrategy;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.document.visibility.VisibilityTermRegistry;
 import org.apache.rya.mongodb.iter.RyaStatementBindingSetCursorIterator;
 import org.apache.rya.mongodb.iter.RyaStatementCursorIterator;
 import org.bson.Document;
@@ -60,6 +63,7 @@ public class MongoDBQueryEngine implements RyaQueryEngine<StatefulMongoDBRdfConf
 
     private StatefulMongoDBRdfConfiguration configuration;
     private final MongoDBStorageStrategy<RyaStatement> strategy = new SimpleMongoDBStorageStrategy();
+    private VisibilityTermRegistry visibilityTermRegistry;
 
     @Override
     public void setConf(final StatefulMongoDBRdfConfiguration conf) {
@@ -71,6 +75,25 @@ public class MongoDBQueryEngine implements RyaQueryEngine<StatefulMongoDBRdfConf
         return configuration;
     }
 
+    /**
+     * Sets the registry queries read the document visibility terms that are in use from. The
+     * registry of the DAO that writes the statements learns about new terms right away.
+     *
+     * @param registry - The registry. (not null)
+     */
+    public synchronized void setVisibilityTermRegistry(final VisibilityTermRegistry registry) {
+        visibilityTermRegistry = checkNotNull(registry);
+    }
+
+    private synchronized VisibilityTermRegistry getVisibilityTermRegistry(final StatefulMongoDBRdfConfiguration conf) {
+        if (visibilityTermRegistry == null) {
+            visibilityTermRegistry = new VisibilityTermRegistry(
+                    getDatabase(conf).getCollection(conf.getVisibilityTermsCollectionName()),
+                    conf.getVisibilityTermsRefreshMillis());
+        }
+        return visibilityTermRegistry;
+    }
+
     @Override
     public CloseableIteration<RyaStatement, RyaDAOException> query(
             final RyaStatement stmt, final StatefulMongoDBRdfConfiguration conf)
@@ -102,8 +125,11 @@ public class MongoDBQueryEngine implements RyaQueryEngine<StatefulMongoDBRdfConf
             }
 
             // TODO not sure what to do about regex ranges?
+            final Authorizations auths = conf.getAuthorizations();
+            final Set<String> visibilityTerms = MongoDbRdfConstants.ALL_AUTHORIZATIONS.equals(auths) ? null :
+                getVisibilityTermRegistry(conf).getTerms();
             final RyaStatementBindingSetCursorIterator iterator = new RyaStatementBindingSetCursorIterator(
-                    getCollection(conf), rangeMap, strategy, conf.getAuthorizations());
+                    getCollection(conf), rangeMap, strategy, auths, visibilityTerms);
 
             return iterator;
         } catch (final Exception e) {
@@ -148,8 +174,11 @@ public class MongoDBQueryEngine implements RyaQueryEngine<StatefulMongoDBRdfConf
     }
 
     private MongoCollection<Document> getCollection(final StatefulMongoDBRdfConfiguration conf) {
-        final MongoDatabase db = conf.getMongoClient().getDatabase(conf.getRyaInstanceName());
-        return db.getCollection(conf.getTriplesCollectionName());
+        return getDatabase(conf).getCollection(conf.getTriplesCollectionName());
+    }
+
+    private MongoDatabase getDatabase(final StatefulMongoDBRdfConfiguration conf) {
+        return conf.getMongoClient().getDatabase(conf.getRyaInstanceName());
     }
 
     @Override
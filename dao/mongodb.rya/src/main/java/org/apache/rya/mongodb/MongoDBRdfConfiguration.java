@@ -27,6 +27,7 @@ import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.mongodb.aggregation.AggregationPipelineQueryOptimizer;
+import org.apache.rya.mongodb.document.visibility.VisibilityTermRegistry;
 import org.openrdf.query.algebra.evaluation.QueryOptimizer;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -53,6 +54,8 @@ public class MongoDBRdfConfiguration extends RdfCloudTripleStoreConfiguration {
     public static final String MONGO_GEO_MAXDISTANCE = "mongo.geo.maxdist";
 
     public static final String USE_AGGREGATION_PIPELINE = "rya.mongodb.query.pipeline";
+    public static final String USE_EMBEDDED_INDEXES = "rya.mongodb.index.embedded";
+    public static final String VISIBILITY_TERMS_REFRESH_MILLIS = "rya.mongodb.visibility.terms.refresh.millis";
 
     /**
      * Constructs an empty instance of {@link MongoDBRdfConfiguration}.
@@ -205,6 +208,14 @@ public class MongoDBRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         return getRyaInstanceName() + "_ns";
     }
 
+    /**
+     * @return The name of the MongoDB Collection that records every document visibility term
+     *   that has been written to the Rya instance. (default: rya_vis_terms)
+     */
+    public String getVisibilityTermsCollectionName() {
+        return getRyaInstanceName() + "_vis_terms";
+    }
+
     /**
      * @return The authorizations that will be used when accessing data. (default: empty)
      */
@@ -261,6 +272,49 @@ public class MongoDBRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         setBoolean(USE_AGGREGATION_PIPELINE, value);
     }
 
+    /**
+     * Indicates whether the secondary indexers store their fields on the core triple documents
+     * instead of writing a copy of each indexed statement to their own collections.
+     *
+     * @return {@code true} if the secondary index fields are embedded in the core triple documents. (default: false)
+     */
+    public boolean getUseEmbeddedIndexes() {
+        return getBoolean(USE_EMBEDDED_INDEXES, false);
+    }
+
+    /**
+     * Enable or disable storing the fields of the secondary indexers, such as free text, temporal
+     * and geo fields, on the core triple documents. Each statement is then indexed by the single
+     * insert that stores it, and the indexers query the core collection using partial indexes
+     * that only cover the documents holding their fields. Existing index collections are not
+     * migrated, so this should be chosen when a Rya instance is created.
+     *
+     * @param value - {@code true} to embed the secondary index fields in the core triple documents.
+     */
+    public void setUseEmbeddedIndexes(final boolean value) {
+        setBoolean(USE_EMBEDDED_INDEXES, value);
+    }
+
+    /**
+     * @return The number of milliseconds queries cache the document visibility terms that are in use
+     *   for. (default: 10000)
+     */
+    public long getVisibilityTermsRefreshMillis() {
+        return getLong(VISIBILITY_TERMS_REFRESH_MILLIS, VisibilityTermRegistry.DEFAULT_REFRESH_MILLIS);
+    }
+
+    /**
+     * Set the number of milliseconds queries cache the document visibility terms that are in use
+     * for. Terms written by other clients may be missing from the cache for that long, during
+     * which a query whose authorizations held every other term may miss the documents that use
+     * them.
+     *
+     * @param millis - The number of milliseconds. Zero reads the terms for every query.
+     */
+    public void setVisibilityTermsRefreshMillis(final long millis) {
+        setLong(VISIBILITY_TERMS_REFRESH_MILLIS, millis);
+    }
+
     @Override
     public List<Class<QueryOptimizer>> getOptimizers() {
         final List<Class<QueryOptimizer>> optimizers = super.getOptimizers();
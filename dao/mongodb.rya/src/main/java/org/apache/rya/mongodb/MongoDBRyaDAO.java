@@ -47,6 +47,7 @@ import org.apache.rya.mongodb.dao.MongoDBStorageStrategy;
 import org.apache.rya.mongodb.dao.SimpleMongoDBNamespaceManager;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.apache.rya.mongodb.document.util.DocumentVisibilityUtil;
+import org.apache.rya.mongodb.document.visibility.VisibilityTermRegistry;
 
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
@@ -69,6 +70,7 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
     private MongoDBQueryEngine queryEngine;
     private MongoDBStorageStrategy<RyaStatement> storageStrategy;
     private MongoDBNamespaceManager nameSpaceManager;
+    private VisibilityTermRegistry visibilityTermRegistry;
 
     private List<MongoSecondaryIndex> secondaryIndexers;
     private Authorizations auths;
@@ -114,6 +116,11 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
         queryEngine.setConf(conf);
         storageStrategy = new SimpleMongoDBStorageStrategy();
         storageStrategy.createIndices(coll);
+        visibilityTermRegistry = new VisibilityTermRegistry(
+                mongoClient.getDatabase(conf.getRyaInstanceName()).getCollection(conf.getVisibilityTermsCollectionName()),
+                conf.getVisibilityTermsRefreshMillis());
+        visibilityTermRegistry.backfill(mongoClient.getDatabase(conf.getRyaInstanceName()).getCollection(conf.getTriplesCollectionName()));
+        queryEngine.setVisibilityTermRegistry(visibilityTermRegistry);
         for(final MongoSecondaryIndex index: secondaryIndexers) {
             index.init();
         }
@@ -163,6 +170,8 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
             final boolean canAdd = DocumentVisibilityUtil.doesUserHaveDocumentAccess(auths, statement.getColumnVisibility());
             if (canAdd) {
                 final DBObject obj = storageStrategy.serialize(statement);
+                final List<MongoSecondaryIndex> separateIndexers = embedIndexFields(statement, obj);
+                registerVisibilityTerms(obj);
                 try {
                     mongoDbBatchWriter.addObjectToQueue(obj);
                     if (flushEachUpdate.get()) {
@@ -171,7 +180,7 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
                 } catch (final MongoDbBatchWriterException e) {
                     throw new RyaDAOException("Error adding statement", e);
                 }
-                for(final RyaSecondaryIndexer index: secondaryIndexers) {
+                for(final RyaSecondaryIndexer index: separateIndexers) {
                     index.storeStatement(statement);
                 }
             } else {
@@ -194,10 +203,12 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
             final boolean canAdd = DocumentVisibilityUtil.doesUserHaveDocumentAccess(auths, ryaStatement.getColumnVisibility());
             if (canAdd) {
                 final DBObject insert = storageStrategy.serialize(ryaStatement);
+                final List<MongoSecondaryIndex> separateIndexers = embedIndexFields(ryaStatement, insert);
+                registerVisibilityTerms(insert);
                 dbInserts.add(insert);
 
                 try {
-                    for (final RyaSecondaryIndexer index : secondaryIndexers) {
+                    for (final RyaSecondaryIndexer index : separateIndexers) {
                         index.storeStatement(ryaStatement);
                     }
                 } catch (final IOException e) {
@@ -298,6 +309,33 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
         }
     }
 
+    /**
+     * Lets the secondary indexers that embed their fields in the core triple documents add them to {@code obj}.
+     *
+     * @return The indexers that store the statement in their own collections.
+     */
+    private List<MongoSecondaryIndex> embedIndexFields(final RyaStatement statement, final DBObject obj) {
+        final List<MongoSecondaryIndex> separateIndexers = new ArrayList<>();
+        for (final MongoSecondaryIndex index : secondaryIndexers) {
+            if (!index.embedStatement(statement, obj)) {
+                separateIndexers.add(index);
+            }
+        }
+        return separateIndexers;
+    }
+
+    /**
+     * Registers the visibility terms of a document before it is written so that queries never
+     * skip redacting a document whose terms they do not know about.
+     */
+    private void registerVisibilityTerms(final DBObject obj) {
+        @SuppressWarnings("unchecked")
+        final List<String> terms = (List<String>) obj.get(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS);
+        if (terms != null) {
+            visibilityTermRegistry.register(terms);
+        }
+    }
+
     private void flushIndexers() throws RyaDAOException {
         for (final MongoSecondaryIndex indexer : secondaryIndexers) {
             try {
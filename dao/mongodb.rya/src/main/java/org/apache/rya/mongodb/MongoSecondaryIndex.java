@@ -18,9 +18,25 @@
  */
 package org.apache.rya.mongodb;
 
+import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.index.RyaSecondaryIndexer;
 
+import com.mongodb.DBObject;
+
 public interface MongoSecondaryIndex extends RyaSecondaryIndexer{
     @Override
 	public void init();
+
+    /**
+     * Adds the fields this index uses to the core document of a statement, so the statement
+     * is indexed by the same insert that stores it instead of a copy in another collection.
+     *
+     * @param statement - The statement that is being stored. (not null)
+     * @param coreDocument - The document that will be written to the core triples collection. (not null)
+     * @return {@code true} if this index stores its fields on the core document, in which case
+     *   {@link #storeStatement(RyaStatement)} is not called for the statement; otherwise {@code false}.
+     */
+    public default boolean embedStatement(final RyaStatement statement, final DBObject coreDocument) {
+        return false;
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.rya.mongodb.aggregation;
 
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.CONTEXT;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.OBJECT;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.OBJECT_HASH;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.OBJECT_TYPE;
@@ -843,7 +844,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
             Bson includeAll = Projections.include(SUBJECT, SUBJECT_HASH,
                     PREDICATE, PREDICATE_HASH, OBJECT, OBJECT_HASH,
                     OBJECT_TYPE, CONTEXT, STATEMENT_METADATA,
-                    DOCUMENT_VISIBILITY, TIMESTAMP, LEVEL);
+                    DOCUMENT_VISIBILITY, DOCUMENT_VISIBILITY_TERMS, TIMESTAMP, LEVEL);
             List<Bson> eqTests = new LinkedList<>();
             eqTests.add(new Document("$eq", Arrays.asList("$$this." + PREDICATE_HASH, "$" + PREDICATE_HASH)));
             eqTests.add(new Document("$eq", Arrays.asList("$$this." + OBJECT_HASH, "$" + OBJECT_HASH)));
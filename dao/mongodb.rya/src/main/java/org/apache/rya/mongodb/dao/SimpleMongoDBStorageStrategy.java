@@ -62,6 +62,7 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
     public static final String TIMESTAMP = "insertTimestamp";
     public static final String STATEMENT_METADATA = "statementMetadata";
     public static final String DOCUMENT_VISIBILITY = "documentVisibility";
+    public static final String DOCUMENT_VISIBILITY_TERMS = "documentVisibilityTerms";
 
     /**
      * Generate the hash that will be used to index and retrieve a given value.
@@ -90,6 +91,8 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
         doc.put(OBJECT_TYPE, 1);
         doc.put(SUBJECT_HASH, 1);
         coll.createIndex(doc);
+        // Lets the visibility pre-filter skip documents the user can not read without a collection scan.
+        coll.createIndex(new BasicDBObject(DOCUMENT_VISIBILITY_TERMS, 1));
     }
 
     @Override
@@ -197,6 +200,7 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
         .append(CONTEXT, context)
         .append(STATEMENT_METADATA, statement.getMetadata().toString())
         .append(DOCUMENT_VISIBILITY, dvObject.get(DOCUMENT_VISIBILITY))
+        .append(DOCUMENT_VISIBILITY_TERMS, dvObject.get(DOCUMENT_VISIBILITY_TERMS))
         .append(TIMESTAMP, statement.getTimestamp());
         return doc;
     }
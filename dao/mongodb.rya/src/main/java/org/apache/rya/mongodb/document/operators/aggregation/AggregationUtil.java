@@ -26,7 +26,10 @@ import static org.apache.rya.mongodb.document.operators.query.ArrayOperators.siz
 import static org.apache.rya.mongodb.document.operators.query.ComparisonOperators.eq;
 import static org.apache.rya.mongodb.document.operators.query.LogicalOperators.or;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.accumulo.core.security.Authorizations;
@@ -59,7 +62,24 @@ public final class AggregationUtil {
      * aggregation pipeline.
      */
     public static List<Document> createRedactPipeline(final Authorizations authorizations) {
-        if (MongoDbRdfConstants.ALL_AUTHORIZATIONS.equals(authorizations)) {
+        return createRedactPipeline(authorizations, null);
+    }
+
+    /**
+     * Creates a MongoDB $redact aggregation pipeline that only include
+     * documents whose document visibility match the provided authorizations.
+     * No $redact is needed when the authorizations hold every term that is in
+     * use, because {@link #createVisibilityFilter(Authorizations, Collection)}
+     * already excludes every document the user can not read.
+     * @param authorizations the {@link Authorization}s to include in the
+     * $redact. Only documents that match the authorizations will be returned.
+     * @param termsInUse every document visibility term that has been written,
+     * or {@code null} if they are not known.
+     * @return the {@link List} of {@link DBObject}s that represents the $redact
+     * aggregation pipeline.
+     */
+    public static List<Document> createRedactPipeline(final Authorizations authorizations, final Collection<String> termsInUse) {
+        if (MongoDbRdfConstants.ALL_AUTHORIZATIONS.equals(authorizations) || holdsAllTerms(authorizations, termsInUse)) {
             return Lists.newArrayList();
         }
 
@@ -102,4 +122,67 @@ public final class AggregationUtil {
 
         return pipeline;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a query filter on the indexed
+     * {@link SimpleMongoDBStorageStrategy#DOCUMENT_VISIBILITY_TERMS} field that
+     * excludes documents that can not be read with the provided authorizations.
+     * <p>
+     * When the authorizations do not hold every term in use, the filter only
+     * keeps documents that are readable by everyone or that use at least one of
+     * the authorizations. That is true of every readable document, but not every
+     * such document is readable, so the $redact stage must still follow it.
+     * Documents that were written before the terms were stored are kept for
+     * the $redact stage to decide.
+     * <p>
+     * When the authorizations hold every term in use, the filter keeps the
+     * documents whose terms are all held, which is every document. The filter
+     * still excludes documents with terms that were registered after
+     * {@code termsInUse} was read, so that they are never returned unredacted.
+     * @param authorizations the {@link Authorization}s of the user.
+     * @param termsInUse every document visibility term that has been written,
+     * or {@code null} if they are not known.
+     * @return the filter, or {@code null} if no filtering is required.
+     */
+    public static Document createVisibilityFilter(final Authorizations authorizations, final Collection<String> termsInUse) {
+        if (MongoDbRdfConstants.ALL_AUTHORIZATIONS.equals(authorizations)) {
+            return null;
+        }
+
+        final List<String> authList = AuthorizationsUtil.getAuthorizationsStrings(authorizations);
+        final String termsField = SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS;
+
+        if (holdsAllTerms(authorizations, termsInUse)) {
+            return new Document(termsField,
+                new Document("$exists", true)
+                    .append("$not", new Document("$elemMatch", new Document("$nin", authList))));
+        }
+
+        return or(
+            new Document(termsField, new Document("$in", authList)),
+            new Document(termsField, Collections.emptyList()),
+            new Document(termsField, new Document("$exists", false))
+        );
+    }
+
+    /**
+     * Checks if the authorizations hold every document visibility term that is
+     * in use.
+     * @param authorizations the {@link Authorization}s of the user.
+     * @param termsInUse every document visibility term that has been written,
+     * or {@code null} if they are not known.
+     * @return {@code true} if every term is held. {@code false} if a term is
+     * not held or the terms are not known.
+     */
+    public static boolean holdsAllTerms(final Authorizations authorizations, final Collection<String> termsInUse) {
+        if (termsInUse == null) {
+            return false;
+        }
+        for (final String term : termsInUse) {
+            if (!authorizations.contains(term.getBytes(StandardCharsets.UTF_8))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
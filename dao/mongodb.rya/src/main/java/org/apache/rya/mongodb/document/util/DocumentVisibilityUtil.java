@@ -21,7 +21,10 @@ package org.apache.rya.mongodb.document.util;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.security.Authorizations;
@@ -87,6 +90,55 @@ public final class DocumentVisibilityUtil {
         return result;
     }
 
+    /**
+     * Collects the distinct terms that appear in the multidimensional array
+     * representation of a document visibility boolean expression. The terms
+     * are stored next to the visibility so that MongoDB can use an index to
+     * discard documents that a user can not possibly read before the more
+     * expensive $redact stage evaluates the full expression.
+     * <p>
+     * Each element of the array is one clause of the disjunction. A document
+     * with no clauses, or with a clause that has no terms, is readable by
+     * everyone and gets an empty list of terms.
+     * @param multidimensionalArray the multidimensional array representation
+     * of the boolean expression. Nested groups may be {@code Object[]}s or
+     * {@link Collection}s. (may be {@code null})
+     * @return the sorted distinct terms, or an empty list if the document
+     * is readable by everyone.
+     */
+    public static List<String> toVisibilityTerms(final Object[] multidimensionalArray) {
+        final SortedSet<String> terms = new TreeSet<>();
+        if (multidimensionalArray == null) {
+            return new ArrayList<>(terms);
+        }
+        for (final Object clause : multidimensionalArray) {
+            if (!collectTerms(clause, terms)) {
+                return new ArrayList<>();
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static boolean collectTerms(final Object node, final Collection<String> terms) {
+        if (node instanceof String) {
+            terms.add((String) node);
+            return true;
+        }
+        final Object[] children;
+        if (node instanceof Object[]) {
+            children = (Object[]) node;
+        } else if (node instanceof Collection) {
+            children = ((Collection<?>) node).toArray();
+        } else {
+            return false;
+        }
+        boolean hasTerms = false;
+        for (final Object child : children) {
+            hasTerms |= collectTerms(child, terms);
+        }
+        return hasTerms;
+    }
+
     /**
      * Converts a {@link Node} and its corresponding expression into a
      * multidimensional array representation of the boolean expression.
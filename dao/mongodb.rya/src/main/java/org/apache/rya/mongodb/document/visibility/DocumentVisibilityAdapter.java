@@ -40,6 +40,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * {@code
  * {
  *   "documentVisibility": &lt;array&gt;,
+ *   "documentVisibilityTerms": &lt;array&gt;,
  * }
  * </pre>
  */
@@ -48,6 +49,7 @@ public final class DocumentVisibilityAdapter {
     private static final Logger log = Logger.getLogger(DocumentVisibilityAdapter.class);
 
     public static final String DOCUMENT_VISIBILITY_KEY = SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY;
+    public static final String DOCUMENT_VISIBILITY_TERMS_KEY = SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS;
 
     /**
      * Private constructor to prevent instantiation.
@@ -94,6 +96,7 @@ public final class DocumentVisibilityAdapter {
 
         final BasicDBObjectBuilder builder = BasicDBObjectBuilder.start();
         builder.add(DOCUMENT_VISIBILITY_KEY, dvArray);
+        builder.add(DOCUMENT_VISIBILITY_TERMS_KEY, DocumentVisibilityUtil.toVisibilityTerms(dvArray));
         return (BasicDBObject) builder.get();
     }
 
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb.document.visibility;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.document.util.DocumentVisibilityUtil;
+import org.bson.Document;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Records every document visibility term that has been written to a Rya
+ * instance. Each term is stored as the {@code _id} of a document in its own
+ * small collection.
+ * <p>
+ * Terms are registered before the statements that use them are written, so a
+ * user that holds every registered term can read every statement and queries
+ * may skip evaluating the document visibility of each document. Terms are never
+ * removed, so the registry may hold terms that are no longer in use.
+ * <p>
+ * The registered terms are cached for a refresh interval, so queries do not read
+ * the collection each time. Terms registered by this instance are added to the
+ * cache right away. A term registered by another writer may be missing from the
+ * cache until it is refreshed; that never exposes a document, because queries that
+ * skip the document visibility still require every term of a document to be held,
+ * but such a query may miss a document that another of its terms allows.
+ * <p>
+ * The registry also records whether the terms of the statements that were written
+ * before the terms were stored have been backfilled, so that only happens once.
+ */
+@DefaultAnnotation(NonNull.class)
+public class VisibilityTermRegistry {
+    private static final Logger log = Logger.getLogger(VisibilityTermRegistry.class);
+
+    private static final String ID = "_id";
+
+    /**
+     * The ID of the document that records that the backfill is complete. Visibility
+     * terms may not contain '~', so it can not be mistaken for a term.
+     */
+    private static final String BACKFILL_MARKER = "~backfilled";
+
+    /**
+     * The default number of milliseconds the registered terms are cached for.
+     */
+    public static final long DEFAULT_REFRESH_MILLIS = 10000;
+
+    private final MongoCollection<Document> coll;
+    private final long refreshMillis;
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    private volatile Set<String> cachedTerms = null;
+    private volatile long cachedAt = 0;
+
+    /**
+     * Constructs an instance of {@link VisibilityTermRegistry} that caches the
+     * registered terms for {@link #DEFAULT_REFRESH_MILLIS}.
+     * @param coll - The collection that holds the registered terms. (not null)
+     */
+    public VisibilityTermRegistry(final MongoCollection<Document> coll) {
+        this(coll, DEFAULT_REFRESH_MILLIS);
+    }
+
+    /**
+     * Constructs an instance of {@link VisibilityTermRegistry}.
+     * @param coll - The collection that holds the registered terms. (not null)
+     * @param refreshMillis - The number of milliseconds the registered terms are
+     *   cached for. Zero reads them every time.
+     */
+    public VisibilityTermRegistry(final MongoCollection<Document> coll, final long refreshMillis) {
+        this.coll = requireNonNull(coll);
+        checkArgument(refreshMillis >= 0, "The refresh interval must not be negative.");
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * Registers the terms that are used by a document that is about to be
+     * written. Terms that this instance has already registered are skipped.
+     * @param terms - The terms of the document's visibility. (not null)
+     */
+    public void register(final Collection<String> terms) {
+        requireNonNull(terms);
+        for (final String term : terms) {
+            if (!registered.contains(term)) {
+                try {
+                    coll.replaceOne(Filters.eq(ID, term), new Document(ID, term), new UpdateOptions().upsert(true));
+                } catch (final MongoWriteException e) {
+                    // Another writer registered the same term at the same time.
+                    if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                        throw e;
+                    }
+                }
+                registered.add(term);
+                addToCache(term);
+            }
+        }
+    }
+
+    /**
+     * @return Every term that has been registered by any writer, as of the last
+     *   time the cache was refreshed, and every term registered by this instance.
+     */
+    public Set<String> getTerms() {
+        final Set<String> cached = cachedTerms;
+        if (cached != null && System.currentTimeMillis() - cachedAt < refreshMillis) {
+            return cached;
+        }
+        return refresh();
+    }
+
+    private synchronized Set<String> refresh() {
+        final long readAt = System.currentTimeMillis();
+        final Set<String> terms = new HashSet<>();
+        for (final String term : coll.distinct(ID, Filters.ne(ID, BACKFILL_MARKER), String.class)) {
+            terms.add(term);
+        }
+        terms.addAll(registered);
+        cachedTerms = Collections.unmodifiableSet(terms);
+        cachedAt = readAt;
+        return cachedTerms;
+    }
+
+    private synchronized void addToCache(final String term) {
+        final Set<String> cached = cachedTerms;
+        if (cached != null && !cached.contains(term)) {
+            final Set<String> terms = new HashSet<>(cached);
+            terms.add(term);
+            cachedTerms = Collections.unmodifiableSet(terms);
+        }
+    }
+
+    /**
+     * Adds the {@link SimpleMongoDBStorageStrategy#DOCUMENT_VISIBILITY_TERMS}
+     * field to the statements that were written before the field existed and
+     * registers their terms. Does nothing if that has already been done.
+     * @param triples - The collection that holds the Rya statements. (not null)
+     * @return The number of statements that were updated.
+     */
+    public long backfill(final MongoCollection<Document> triples) {
+        requireNonNull(triples);
+        if (coll.find(Filters.eq(ID, BACKFILL_MARKER)).first() != null) {
+            return 0;
+        }
+        long updated = 0;
+        for (final Document doc : triples.find(Filters.exists(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS, false))
+                .projection(Projections.include(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY))) {
+            final Object dv = doc.get(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY);
+            final Object[] dvArray = dv instanceof List ? ((List<?>) dv).toArray() : null;
+            final List<String> terms = DocumentVisibilityUtil.toVisibilityTerms(dvArray);
+            register(terms);
+            triples.updateOne(Filters.eq(ID, doc.get(ID)), Updates.set(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS, terms));
+            updated++;
+        }
+        if (updated > 0) {
+            log.info("Added the document visibility terms to " + updated + " statements.");
+        }
+        coll.replaceOne(Filters.eq(ID, BACKFILL_MARKER), new Document(ID, BACKFILL_MARKER), new UpdateOptions().upsert(true));
+        return updated;
+    }
+}
@@ -19,6 +19,8 @@
 package org.apache.rya.mongodb.iter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -60,15 +62,28 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
     private Iterator<BindingSet> currentBindingSetIterator;
     private final MongoDBStorageStrategy<RyaStatement> strategy;
     private final Authorizations auths;
+    private final Collection<String> visibilityTerms;
 
     public RyaStatementBindingSetCursorIterator(final MongoCollection<Document> coll,
             final Multimap<RyaStatement, BindingSet> rangeMap, final MongoDBStorageStrategy<RyaStatement> strategy,
             final Authorizations auths) {
+        this(coll, rangeMap, strategy, auths, null);
+    }
+
+    /**
+     * @param visibilityTerms - Every document visibility term that has been written, or {@code null}
+     *   if they are not known. When {@code auths} holds all of them, documents are filtered on
+     *   their indexed visibility terms and the $redact stage is skipped.
+     */
+    public RyaStatementBindingSetCursorIterator(final MongoCollection<Document> coll,
+            final Multimap<RyaStatement, BindingSet> rangeMap, final MongoDBStorageStrategy<RyaStatement> strategy,
+            final Authorizations auths, final Collection<String> visibilityTerms) {
         this.coll = coll;
         this.rangeMap = rangeMap;
         queryIterator = rangeMap.keySet().iterator();
         this.strategy = strategy;
         this.auths = auths;
+        this.visibilityTerms = visibilityTerms;
     }
 
     @Override
@@ -148,17 +163,26 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
             match.add(currentQuery);
         }
 
+        final Object statementMatch;
         if (match.size() > 1) {
-            pipeline.add(new Document("$match", new Document("$or", match)));
+            statementMatch = new Document("$or", match);
         } else if (match.size() == 1) {
-            pipeline.add(new Document("$match", match.get(0)));
+            statementMatch = match.get(0);
         } else {
             batchQueryResultsIterator = Collections.emptyIterator();
             return;
         }
 
+        // Use the indexed visibility terms to discard documents the user can not read before they are redacted.
+        final Document visibilityFilter = AggregationUtil.createVisibilityFilter(auths, visibilityTerms);
+        if (visibilityFilter == null) {
+            pipeline.add(new Document("$match", statementMatch));
+        } else {
+            pipeline.add(new Document("$match", new Document("$and", Arrays.asList(statementMatch, visibilityFilter))));
+        }
+
         // Executing redact aggregation to only return documents the user has access to.
-        pipeline.addAll(AggregationUtil.createRedactPipeline(auths));
+        pipeline.addAll(AggregationUtil.createRedactPipeline(auths, visibilityTerms));
         log.trace(pipeline);
 
         final AggregateIterable<Document> aggIter = coll.aggregate(pipeline);
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaStatement.RyaStatementBuilder;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.persist.query.RyaQuery;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.document.util.AuthorizationsUtil;
+import org.calrissian.mango.collect.CloseableIterable;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Integration tests that {@link MongoDBQueryEngine} only skips the $redact stage
+ * when doing so cannot return a statement the user is not allowed to see.
+ */
+public class MongoDBVisibilityFastPathIT extends MongoITBase {
+    private static final RyaURI PREDICATE = new RyaURI("urn:pred");
+
+    @Override
+    protected void updateConfiguration(final MongoDBRdfConfiguration conf) {
+        // Hold on to the cached terms so writes from outside the DAO make it stale.
+        conf.setVisibilityTermsRefreshMillis(60 * 60 * 1000);
+    }
+
+    @Test
+    public void fastPathFiltersUnreadableStatements() throws Exception {
+        final MongoDBRyaDAO dao = new MongoDBRyaDAO();
+        try {
+            dao.setConf(conf);
+            dao.init();
+
+            dao.getConf().setAuths(AuthorizationsUtil.getAuthorizationsStringArray(Authorizations.EMPTY));
+            dao.add(statement("urn:a", "A"));
+            dao.add(statement("urn:b", "B"));
+            dao.add(statement("urn:ab", "A&B"));
+            dao.add(statement("urn:public", ""));
+
+            // Not every term is held, so $redact decides.
+            assertEquals(Sets.newHashSet("urn:a", "urn:public"), query(dao, new Authorizations("A")));
+
+            // Written by someone else, so the term "C" is not in the cached terms.
+            getRyaDbCollection().insert(new SimpleMongoDBStorageStrategy().serialize(statement("urn:c", "C")));
+            getRyaDbCollection().insert(new SimpleMongoDBStorageStrategy().serialize(statement("urn:ac", "A|C")));
+
+            // Every cached term is held, so $redact is skipped, but the statements that need "C" must still be
+            // filtered out. The one readable through "A" is missed until the cached terms are refreshed.
+            assertEquals(Sets.newHashSet("urn:a", "urn:b", "urn:ab", "urn:public"), query(dao, new Authorizations("A", "B")));
+
+            // A user who holds "C" as well sees everything.
+            assertEquals(Sets.newHashSet("urn:a", "urn:b", "urn:ab", "urn:public", "urn:c", "urn:ac"),
+                    query(dao, new Authorizations("A", "B", "C")));
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    private Set<String> query(final MongoDBRyaDAO dao, final Authorizations auths) throws Exception {
+        dao.getConf().setAuths(AuthorizationsUtil.getAuthorizationsStringArray(auths));
+        final Set<String> subjects = new HashSet<>();
+        try (final CloseableIterable<RyaStatement> iter = dao.getQueryEngine().query(
+                new RyaQuery(new RyaStatementBuilder().setPredicate(PREDICATE).build()))) {
+            for (final RyaStatement statement : iter) {
+                subjects.add(statement.getSubject().getData());
+            }
+        }
+        return subjects;
+    }
+
+    private static RyaStatement statement(final String subject, final String visibility) {
+        return new RyaStatementBuilder()
+                .setSubject(new RyaURI(subject))
+                .setPredicate(PREDICATE)
+                .setObject(new RyaURI("urn:object"))
+                .setColumnVisibility(visibility.getBytes())
+                .build();
+    }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertEquals;
 import static org.openrdf.model.vocabulary.XMLSchema.ANYURI;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.rya.api.domain.RyaStatement;
@@ -76,6 +77,7 @@ public class SimpleMongoDBStorageStrategyTest {
         } catch (final DocumentVisibilityConversionException e) {
             e.printStackTrace();
         }
+        testDBO.put(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS, Arrays.asList("A", "B"));
         testDBO.put(SimpleMongoDBStorageStrategy.TIMESTAMP, null);
     }
 
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb.document.operators.aggregation;
+
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.rya.mongodb.MongoDbRdfConstants;
+import org.apache.rya.mongodb.MongoITBase;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Integration tests the visibility filter and $redact fast path of {@link AggregationUtil}.
+ */
+public class AggregationUtilIT extends MongoITBase {
+    private static final Collection<String> TERMS_IN_USE = Arrays.asList("A", "B");
+
+    private MongoCollection<Document> coll;
+
+    @Before
+    public void insertDocuments() {
+        coll = getMongoClient().getDatabase(conf.getRyaInstanceName()).getCollection("visibility_filter");
+        coll.insertOne(new Document("_id", "a").append(DOCUMENT_VISIBILITY_TERMS, Arrays.asList("A")));
+        coll.insertOne(new Document("_id", "b").append(DOCUMENT_VISIBILITY_TERMS, Arrays.asList("B")));
+        coll.insertOne(new Document("_id", "ab").append(DOCUMENT_VISIBILITY_TERMS, Arrays.asList("A", "B")));
+        coll.insertOne(new Document("_id", "public").append(DOCUMENT_VISIBILITY_TERMS, Collections.emptyList()));
+        // A term that was written after the terms in use were read.
+        coll.insertOne(new Document("_id", "c").append(DOCUMENT_VISIBILITY_TERMS, Arrays.asList("C")));
+        // Written before the terms were stored.
+        coll.insertOne(new Document("_id", "old"));
+    }
+
+    @Test
+    public void fastPathOnlyWhenEveryTermIsHeld() {
+        assertFalse(AggregationUtil.holdsAllTerms(new Authorizations("A"), TERMS_IN_USE));
+        assertTrue(AggregationUtil.holdsAllTerms(new Authorizations("A", "B"), TERMS_IN_USE));
+        assertFalse(AggregationUtil.holdsAllTerms(new Authorizations("A", "B"), null));
+
+        assertFalse(AggregationUtil.createRedactPipeline(new Authorizations("A"), TERMS_IN_USE).isEmpty());
+        assertFalse(AggregationUtil.createRedactPipeline(new Authorizations("A", "B"), null).isEmpty());
+        assertTrue(AggregationUtil.createRedactPipeline(new Authorizations("A", "B"), TERMS_IN_USE).isEmpty());
+        assertTrue(AggregationUtil.createRedactPipeline(new Authorizations("A", "B", "C"), TERMS_IN_USE).isEmpty());
+    }
+
+    @Test
+    public void filterWithoutEveryTerm() {
+        // Keeps every document that may be readable for $redact to decide.
+        final Document filter = AggregationUtil.createVisibilityFilter(new Authorizations("A"), TERMS_IN_USE);
+        assertEquals(Sets.newHashSet("a", "ab", "public", "old"), find(filter));
+    }
+
+    @Test
+    public void filterWithEveryTerm() {
+        // $redact is skipped, so only the documents whose terms are all held may be kept. The document
+        // with the unknown term and the document without terms must not be returned unredacted.
+        final Document filter = AggregationUtil.createVisibilityFilter(new Authorizations("A", "B"), TERMS_IN_USE);
+        assertEquals(Sets.newHashSet("a", "b", "ab", "public"), find(filter));
+    }
+
+    @Test
+    public void noFilterWithAllAuthorizations() {
+        assertNull(AggregationUtil.createVisibilityFilter(MongoDbRdfConstants.ALL_AUTHORIZATIONS, TERMS_IN_USE));
+    }
+
+    private Set<String> find(final Document filter) {
+        final Set<String> ids = new HashSet<>();
+        for (final Document doc : coll.find(filter)) {
+            ids.add(doc.getString("_id"));
+        }
+        return ids;
+    }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
@@ -136,4 +137,25 @@ public class DocumentVisibilityUtilTest {
             count++;
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testToVisibilityTerms() throws Exception {
+        assertEquals(Arrays.asList("A", "B", "C"), DocumentVisibilityUtil.toVisibilityTerms(
+                DocumentVisibilityUtil.toMultidimensionalArray("C|(A&B)")));
+        assertEquals(Arrays.asList("A", "B", "C"), DocumentVisibilityUtil.toVisibilityTerms(
+                DocumentVisibilityUtil.toMultidimensionalArray("(A|B)&C")));
+        assertEquals(Arrays.asList("A"), DocumentVisibilityUtil.toVisibilityTerms(
+                DocumentVisibilityUtil.toMultidimensionalArray("A")));
+    }
+
+    @Test
+    public void testToVisibilityTerms_public() throws Exception {
+        assertEquals(Collections.emptyList(), DocumentVisibilityUtil.toVisibilityTerms(
+                DocumentVisibilityUtil.toMultidimensionalArray("")));
+        assertEquals(Collections.emptyList(), DocumentVisibilityUtil.toVisibilityTerms(null));
+
+        // A clause without any terms is satisfied by every user.
+        final Object[] withEmptyClause = new Object[] { new Object[] { "A" }, new Object[0] };
+        assertEquals(Collections.emptyList(), DocumentVisibilityUtil.toVisibilityTerms(withEmptyClause));
+    }
+}
@@ -37,7 +37,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject(dv);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : [[\"A\"]]" +
+                "documentVisibility : [[\"A\"]], " +
+                "documentVisibilityTerms : [\"A\"]" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -49,7 +50,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject(dv);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : [[\"A\", \"B\", \"C\"]]" +
+                "documentVisibility : [[\"A\", \"B\", \"C\"]], " +
+                "documentVisibilityTerms : [\"A\", \"B\", \"C\"]" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -61,7 +63,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject(dv);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : [[\"C\"], [\"B\"], [\"A\"]]" +
+                "documentVisibility : [[\"C\"], [\"B\"], [\"A\"]], " +
+                "documentVisibilityTerms : [\"A\", \"B\", \"C\"]" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -73,7 +76,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject(dv.getExpression());
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : [[\"A\", \"B\", \"C\"]]" +
+                "documentVisibility : [[\"A\", \"B\", \"C\"]], " +
+                "documentVisibilityTerms : [\"A\", \"B\", \"C\"]" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -84,7 +88,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject((byte[])null);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : []" +
+                "documentVisibility : [], " +
+                "documentVisibilityTerms : []" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -95,7 +100,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject((DocumentVisibility)null);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : []" +
+                "documentVisibility : [], " +
+                "documentVisibilityTerms : []" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -106,7 +112,8 @@ public class DocumentVisibilityAdapterTest {
         final BasicDBObject dbObject = DocumentVisibilityAdapter.toDBObject(MongoDbRdfConstants.EMPTY_DV);
         final BasicDBObject expected = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : []" +
+                "documentVisibility : [], " +
+                "documentVisibilityTerms : []" +
             "}"
         );
         assertEquals(expected, dbObject);
@@ -152,7 +159,8 @@ public class DocumentVisibilityAdapterTest {
     public void testToDocumentVisibility_empty() throws MalformedDocumentVisibilityException {
         final BasicDBObject dbObject = (BasicDBObject) JSON.parse(
             "{" +
-                "documentVisibility : []" +
+                "documentVisibility : [], " +
+                "documentVisibilityTerms : []" +
             "}"
         );
         final DocumentVisibility dv = DocumentVisibilityAdapter.toDocumentVisibility(dbObject);
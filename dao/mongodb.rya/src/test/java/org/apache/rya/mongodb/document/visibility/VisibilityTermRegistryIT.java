@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb.document.visibility;
+
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY_TERMS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.rya.mongodb.MongoITBase;
+import org.bson.Document;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Integration tests the methods of {@link VisibilityTermRegistry}.
+ */
+public class VisibilityTermRegistryIT extends MongoITBase {
+    private static final long ONE_HOUR = 60 * 60 * 1000;
+
+    @Test
+    public void registerTerms() {
+        final VisibilityTermRegistry registry = new VisibilityTermRegistry(getTermsCollection(), 0);
+        registry.register(Arrays.asList("A", "B"));
+        registry.register(Arrays.asList("B", "C"));
+
+        assertEquals(Sets.newHashSet("A", "B", "C"), registry.getTerms());
+        assertEquals(3, getTermsCollection().count());
+    }
+
+    @Test
+    public void cachedTermsIncludeOwnRegistrations() {
+        final VisibilityTermRegistry registry = new VisibilityTermRegistry(getTermsCollection(), ONE_HOUR);
+        assertEquals(Collections.emptySet(), registry.getTerms());
+
+        // The cache learns about the terms this registry registers right away.
+        registry.register(Arrays.asList("A"));
+        assertEquals(Sets.newHashSet("A"), registry.getTerms());
+    }
+
+    @Test
+    public void otherWritersTermsAppearAfterRefresh() {
+        final VisibilityTermRegistry cached = new VisibilityTermRegistry(getTermsCollection(), ONE_HOUR);
+        final VisibilityTermRegistry uncached = new VisibilityTermRegistry(getTermsCollection(), 0);
+        assertEquals(Collections.emptySet(), cached.getTerms());
+
+        new VisibilityTermRegistry(getTermsCollection()).register(Arrays.asList("A"));
+
+        assertEquals(Collections.emptySet(), cached.getTerms());
+        assertEquals(Sets.newHashSet("A"), uncached.getTerms());
+    }
+
+    @Test
+    public void backfillRunsOnce() {
+        final MongoCollection<Document> triples = getRyaCollection();
+        triples.insertOne(new Document("_id", "old").append(DOCUMENT_VISIBILITY, Arrays.asList(Arrays.asList("A", "B"))));
+        triples.insertOne(new Document("_id", "public").append(DOCUMENT_VISIBILITY, Collections.emptyList()));
+
+        final VisibilityTermRegistry registry = new VisibilityTermRegistry(getTermsCollection(), 0);
+        assertEquals(2, registry.backfill(triples));
+        assertEquals(Arrays.asList("A", "B"), triples.find(new Document("_id", "old")).first().get(DOCUMENT_VISIBILITY_TERMS));
+        assertEquals(Collections.emptyList(), triples.find(new Document("_id", "public")).first().get(DOCUMENT_VISIBILITY_TERMS));
+        assertEquals(Sets.newHashSet("A", "B"), registry.getTerms());
+
+        // Statements without terms are only backfilled once, and the record of that is not a term.
+        triples.insertOne(new Document("_id", "later").append(DOCUMENT_VISIBILITY, Arrays.asList(Arrays.asList("C"))));
+        assertEquals(0, new VisibilityTermRegistry(getTermsCollection(), 0).backfill(triples));
+        assertEquals(Sets.newHashSet("A", "B"), registry.getTerms());
+    }
+
+    private MongoCollection<Document> getTermsCollection() {
+        final MongoDatabase db = getMongoClient().getDatabase(conf.getRyaInstanceName());
+        return db.getCollection(conf.getVisibilityTermsCollectionName());
+    }
+}
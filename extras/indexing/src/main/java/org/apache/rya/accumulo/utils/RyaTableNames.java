@@ -25,6 +25,7 @@ import java.util.List;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.admin.TableOperations;
 import org.apache.rya.accumulo.instance.AccumuloRyaInstanceDetailsRepository;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
 import org.apache.rya.api.instance.RyaDetails;
 import org.apache.rya.api.instance.RyaDetailsRepository;
 import org.apache.rya.api.instance.RyaDetailsRepository.NotInitializedException;
@@ -68,6 +69,13 @@ public class RyaTableNames {
         tables.add( coreTableNames.getProspects() );
         tables.add( coreTableNames.getSelectivity() );
 
+        // Term dictionary tables, present when the instance uses the dictionary layout.
+        tables.add( ryaInstanceName + RdfCloudTripleStoreConstants.TBL_TERM2ID_SUFFIX );
+        tables.add( ryaInstanceName + RdfCloudTripleStoreConstants.TBL_ID2TERM_SUFFIX );
+
+        // Named graph index table.
+        tables.add( ryaInstanceName + RdfCloudTripleStoreConstants.TBL_GRAPH_SUFFIX );
+
         // Rya Details table.
         tables.add( AccumuloRyaInstanceDetailsRepository.makeTableName(ryaInstanceName) );
 
@@ -70,6 +70,7 @@ public class AccumuloRyaClientFactory {
                 new AccumuloUninstall(connectionDetails, connector),
                 new AccumuloLoadStatements(connectionDetails, connector),
                 new AccumuloLoadStatementsFile(connectionDetails, connector),
-                new AccumuloExecuteSparqlQuery(connectionDetails, connector));
+                new AccumuloExecuteSparqlQuery(connectionDetails, connector),
+                Optional.of(new AccumuloTuneTables(connectionDetails, connector)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.client.accumulo;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.RyaTableTuner;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.client.InstanceDoesNotExistException;
+import org.apache.rya.api.client.InstanceExists;
+import org.apache.rya.api.client.RyaClientException;
+import org.apache.rya.api.client.TuneTables;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.prospector.domain.TripleValueType;
+import org.apache.rya.prospector.service.ProspectorService;
+import org.apache.rya.prospector.service.ProspectorServiceEvalStatsDAO;
+import org.apache.rya.prospector.utils.ProspectorConstants;
+import org.openrdf.model.Statement;
+import org.openrdf.model.impl.URIImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An Accumulo implementation of the {@link TuneTables} command.
+ */
+@DefaultAnnotation(NonNull.class)
+public class AccumuloTuneTables extends AccumuloCommand implements TuneTables {
+    private static final Logger log = Logger.getLogger(AccumuloTuneTables.class);
+
+    /**
+     * The maximum number of statements that are read from a sample file.
+     */
+    public static final int MAX_SAMPLE_SIZE = 100_000;
+
+    private final InstanceExists instanceExists;
+
+    /**
+     * Constructs an instance of {@link AccumuloTuneTables}.
+     *
+     * @param connectionDetails - Details about the values that were used to create
+     *   the connector to the cluster. (not null)
+     * @param connector - Provides programmatic access to the instance of Accumulo
+     *   that hosts Rya instance. (not null)
+     */
+    public AccumuloTuneTables(final AccumuloConnectionDetails connectionDetails, final Connector connector) {
+        super(connectionDetails, connector);
+        instanceExists = new AccumuloInstanceExists(connectionDetails, connector);
+    }
+
+    @Override
+    public void tuneTables(final String ryaInstanceName, final int splitsPerTable, final Optional<Path> sampleFile, final Optional<RDFFormat> format) throws InstanceDoesNotExistException, RyaClientException {
+        requireNonNull(ryaInstanceName);
+        requireNonNull(sampleFile);
+        requireNonNull(format);
+        if (sampleFile.isPresent() && !format.isPresent()) {
+            throw new IllegalArgumentException("The format of the sample file must be provided.");
+        }
+
+        // Ensure the Rya Instance exists.
+        if(!instanceExists.exists(ryaInstanceName)) {
+            throw new InstanceDoesNotExistException(String.format("There is no Rya instance named '%s'.", ryaInstanceName));
+        }
+
+        final Connector connector = getConnector();
+        final AccumuloRdfConfiguration ryaConf = getAccumuloConnectionDetails().buildAccumuloRdfConfiguration(ryaInstanceName);
+        ryaConf.setGraphIndexEnabled(connector.tableOperations().exists(ryaConf.getGraphIndexTable()));
+        if (connector.tableOperations().exists(ryaConf.getTermToIdTable())) {
+            ryaConf.setRyaTableLayout(RyaTableLayout.DICTIONARY);
+        }
+
+        try {
+            final RyaTableTuner tuner = new RyaTableTuner(connector, ryaConf);
+            tuner.tune();
+
+            if (splitsPerTable > 0) {
+                // The rows of a dictionary encoded instance hold ids, so they can not be computed from the statements.
+                if (ryaConf.getRyaTableLayout() == RyaTableLayout.DICTIONARY) {
+                    log.warn("The tables of Rya instance '" + ryaInstanceName + "' are dictionary encoded, so they were not split.");
+                    return;
+                }
+
+                final RyaTripleContext ryaContext = RyaTripleContext.getInstance(ryaConf);
+                final Map<TABLE_LAYOUT, SortedMap<Text, Long>> weights = sampleFile.isPresent() ?
+                        RyaTableTuner.weighSample(ryaContext, readSample(sampleFile.get(), format.get()).iterator()) :
+                        weighLatestProspect(ryaContext, ryaConf);
+                final Map<TABLE_LAYOUT, SortedSet<Text>> splits = RyaTableTuner.pickSplits(weights, splitsPerTable);
+                tuner.addSplits(splits);
+            }
+        } catch (final AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new RyaClientException("A problem connecting to the Rya instance named '" + ryaInstanceName + "' has caused the tuning to fail.", e);
+        } catch (final IOException | RDFParseException e) {
+            throw new RyaClientException("A problem reading the statistics of the Rya instance named '" + ryaInstanceName + "' has caused the tuning to fail.", e);
+        }
+    }
+
+    /**
+     * Reads the first {@link #MAX_SAMPLE_SIZE} statements of a file.
+     */
+    private static List<RyaStatement> readSample(final Path sampleFile, final RDFFormat format) throws IOException, RDFParseException {
+        final List<RyaStatement> sample = new ArrayList<>();
+        final RDFParser parser = Rio.createParser(format);
+        parser.setRDFHandler(new RDFHandlerBase() {
+            @Override
+            public void handleStatement(final Statement statement) throws RDFHandlerException {
+                sample.add(RdfToRyaConversions.convertStatement(statement));
+                if (sample.size() >= MAX_SAMPLE_SIZE) {
+                    throw new SampleFullException();
+                }
+            }
+        });
+
+        try (InputStream in = Files.newInputStream(sampleFile)) {
+            parser.parse(in, "");
+        } catch (final SampleFullException e) {
+            // The rest of the file is not needed.
+        } catch (final RDFHandlerException e) {
+            throw new IOException(e);
+        }
+        return sample;
+    }
+
+    /**
+     * Weighs the rows of the core tables by the subject, predicate, and object counts of
+     * the latest prospector run.
+     */
+    private Map<TABLE_LAYOUT, SortedMap<Text, Long>> weighLatestProspect(final RyaTripleContext ryaContext, final AccumuloRdfConfiguration ryaConf)
+            throws AccumuloException, AccumuloSecurityException, TableNotFoundException, IOException {
+        final String prospectsTable = ProspectorServiceEvalStatsDAO.getProspectTableName(ryaConf);
+        final String[] auths = ryaConf.getAuths();
+
+        Long latest = null;
+        final Iterator<Long> prospects = new ProspectorService(getConnector(), prospectsTable).getProspects(auths);
+        while (prospects.hasNext()) {
+            final long prospect = prospects.next();
+            latest = latest == null ? prospect : Math.max(latest, prospect);
+        }
+
+        final Map<RyaURI, Long> subjects = new HashMap<>();
+        final Map<RyaURI, Long> predicates = new HashMap<>();
+        final Map<RyaType, Long> objects = new HashMap<>();
+        if (latest == null) {
+            log.warn("The prospector has not been run over Rya instance '" + ryaConf.getTablePrefix() + "', so its tables were not split.");
+        } else {
+            // The counts of a prospector run are written with the time of the run.
+            final Scanner scanner = getConnector().createScanner(prospectsTable, new Authorizations(auths));
+            scanner.fetchColumnFamily(new Text(ProspectorConstants.COUNT));
+            for (final Entry<Key, Value> entry : scanner) {
+                final Key key = entry.getKey();
+                if (key.getTimestamp() != latest) {
+                    continue;
+                }
+
+                final String[] row = key.getRow().toString().split(RdfCloudTripleStoreConstants.DELIM);
+                final String dataType = key.getColumnQualifier().toString();
+                final long count = Long.parseLong(entry.getValue().toString());
+                if (TripleValueType.SUBJECT.getIndexType().equals(row[0])) {
+                    subjects.put(new RyaURI(row[1]), count);
+                } else if (TripleValueType.PREDICATE.getIndexType().equals(row[0])) {
+                    predicates.put(new RyaURI(row[1]), count);
+                } else if (TripleValueType.OBJECT.getIndexType().equals(row[0])) {
+                    objects.put(XMLSchema.ANYURI.stringValue().equals(dataType) ?
+                            new RyaURI(row[1]) : new RyaType(new URIImpl(dataType), row[1]), count);
+                }
+            }
+        }
+        return RyaTableTuner.weighCounts(ryaContext, subjects, predicates, objects);
+    }
+
+    /**
+     * Stops the parser once the sample has been read.
+     */
+    private static final class SampleFullException extends RDFHandlerException {
+        private static final long serialVersionUID = 1L;
+
+        public SampleFullException() {
+            super("The sample is full.");
+        }
+    }
+}
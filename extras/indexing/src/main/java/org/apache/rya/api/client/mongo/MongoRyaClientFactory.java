@@ -70,6 +70,7 @@ public class MongoRyaClientFactory {
                 new MongoUninstall(adminClient, instanceExists),
                 new MongoLoadStatements(connectionDetails, instanceExists),
                 new MongoLoadStatementsFile(connectionDetails, instanceExists),
-                new MongoExecuteSparqlQuery(connectionDetails, instanceExists));
+                new MongoExecuteSparqlQuery(connectionDetails, instanceExists),
+                Optional.empty());
     }
 }
\ No newline at end of file
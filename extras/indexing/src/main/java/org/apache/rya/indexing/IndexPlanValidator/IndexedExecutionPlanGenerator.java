@@ -25,12 +25,18 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.apache.rya.indexing.external.tupleSet.ExternalTupleSet;
+import org.apache.rya.indexing.pcj.matching.PCJCombinationSearch;
 import org.apache.rya.indexing.pcj.matching.QueryVariableNormalizer;
 import org.openrdf.query.algebra.Projection;
 import org.openrdf.query.algebra.TupleExpr;
 
 import com.google.common.collect.Lists;
 
+/**
+ * Generates a plan for every valid combination of the indices that match a query.
+ * The number of combinations grows exponentially with the number of indices. The
+ * PCJ optimizer instead uses {@link PCJCombinationSearch} to find the best few.
+ */
 public class IndexedExecutionPlanGenerator implements ExternalIndexMatcher {
 
     private final TupleExpr query;
@@ -121,6 +121,8 @@ public class ConfigUtils {
     public static final String USE_ENTITY = "sc.use_entity";
     public static final String USE_PCJ = "sc.use_pcj";
     public static final String USE_OPTIMAL_PCJ = "sc.use.optimal.pcj";
+    public static final String OPTIMAL_PCJ_MAX_PLANS = "sc.optimal.pcj.max.plans";
+    public static final String OPTIMAL_PCJ_MAX_MILLIS = "sc.optimal.pcj.max.millis";
     public static final String USE_PCJ_UPDATER_INDEX = "sc.use.updater";
 
     public static final String FLUO_APP_NAME = "rya.indexing.pcj.fluo.fluoAppName";
@@ -424,6 +426,22 @@ public class ConfigUtils {
         return conf.getBoolean(USE_OPTIMAL_PCJ, false);
     }
 
+    /**
+     * @return The maximum number of partial plans the optimal PCJ search visits
+     *         for a single query segment before it settles for the best plan found.
+     */
+    public static long getOptimalPcjMaxPlans(final Configuration conf) {
+        return conf.getLong(OPTIMAL_PCJ_MAX_PLANS, 10000L);
+    }
+
+    /**
+     * @return The maximum number of milliseconds the optimal PCJ search spends on
+     *         a single query segment before it settles for the best plan found.
+     */
+    public static long getOptimalPcjMaxMillis(final Configuration conf) {
+        return conf.getLong(OPTIMAL_PCJ_MAX_MILLIS, 250L);
+    }
+
     public static boolean getUsePcjUpdaterIndex(final Configuration conf) {
         return conf.getBoolean(USE_PCJ_UPDATER_INDEX, false);
     }
@@ -20,15 +20,20 @@ package org.apache.rya.indexing.entity.query;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaURI;
@@ -42,26 +47,25 @@ import org.apache.rya.indexing.entity.storage.EntityStorage.EntityStorageExcepti
 import org.apache.rya.indexing.entity.storage.mongo.ConvertingCursor;
 import org.apache.rya.indexing.entity.update.EntityIndexer;
 import org.apache.rya.rdftriplestore.evaluation.ExternalBatchingIterator;
+import org.openrdf.model.Value;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.model.vocabulary.RDF;
-import org.openrdf.query.Binding;
 import org.openrdf.query.BindingSet;
 import org.openrdf.query.QueryEvaluationException;
 import org.openrdf.query.algebra.StatementPattern;
 import org.openrdf.query.algebra.Var;
 import org.openrdf.query.algebra.evaluation.impl.ExternalSet;
-import org.openrdf.query.algebra.evaluation.iterator.CollectionIteration;
 import org.openrdf.query.impl.MapBindingSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import info.aduna.iteration.CloseableIteration;
+import info.aduna.iteration.LookAheadIteration;
 
 /**
  * Indexing Node for {@link Entity} expressions to be inserted into execution plan
@@ -77,6 +81,11 @@ public class EntityQueryNode extends ExternalSet implements ExternalBatchingIter
      */
     private static final RyaURI TYPE_ID_URI = new RyaURI(RDF.TYPE.toString());
 
+    /**
+     * The maximum number of Subjects that are fetched by a single search.
+     */
+    private static final int SUBJECT_BATCH_SIZE = 1000;
+
     // Provided at construction time.
     private final Type type;
     private final Collection<StatementPattern> patterns;
@@ -256,63 +265,228 @@ public class EntityQueryNode extends ExternalSet implements ExternalBatchingIter
     @Override
     public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final Collection<BindingSet> bindingSets) throws QueryEvaluationException {
         requireNonNull(bindingSets);
-        final List<BindingSet> list = new ArrayList<>();
-        bindingSets.forEach(bindingSet -> {
-            try {
-                list.addAll(findBindings(bindingSet));
-            } catch (final Exception e) {
-                LOG.error("Unable to evaluate bindingset.", e);
+
+        // Group the binding sets by the Subject and the object values they bind, so each Entity is
+        // only fetched once and only checked once against the binding sets that bind the same values.
+        final Map<List<Object>, BindingSetGroup> groups = new LinkedHashMap<>();
+        for(final BindingSet bindingSet : bindingSets) {
+            final Optional<String> subject = getSubject(bindingSet);
+            final Map<String, String> boundObjects = getBoundObjects(bindingSet);
+            groups.computeIfAbsent(Arrays.asList(subject, boundObjects), key -> new BindingSetGroup(subject, boundObjects))
+                .bindingSets.add(bindingSet);
+        }
+
+        final Map<String, List<BindingSetGroup>> boundSubjects = new LinkedHashMap<>();
+        final List<BindingSetGroup> unboundSubjects = new ArrayList<>();
+        for(final BindingSetGroup group : groups.values()) {
+            if(group.subject.isPresent()) {
+                boundSubjects.computeIfAbsent(group.subject.get(), key -> new ArrayList<>()).add(group);
+            } else {
+                unboundSubjects.add(group);
             }
-        });
+        }
+
+        // A binding set that does not bind the Subject may join with any Entity, so a single search
+        // over all of them is used. Otherwise the bound Subjects are fetched in batches.
+        final List<Optional<Set<RyaURI>>> searches = new ArrayList<>();
+        if(!unboundSubjects.isEmpty()) {
+            searches.add(Optional.empty());
+        } else {
+            Set<RyaURI> batch = new HashSet<>();
+            for(final String subject : boundSubjects.keySet()) {
+                batch.add(new RyaURI(subject));
+                if(batch.size() == SUBJECT_BATCH_SIZE) {
+                    searches.add(Optional.of(batch));
+                    batch = new HashSet<>();
+                }
+            }
+            if(!batch.isEmpty()) {
+                searches.add(Optional.of(batch));
+            }
+        }
 
-        return new CollectionIteration<>(list);
+        return new EntityJoinIteration(searches.iterator(), groups.values(), boundSubjects, unboundSubjects);
     }
 
     @Override
     public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final BindingSet bindingSet) throws QueryEvaluationException {
         requireNonNull(bindingSet);
-        return new CollectionIteration<>(findBindings(bindingSet));
+        return evaluate(Collections.singleton(bindingSet));
     }
 
-    private List<BindingSet> findBindings(final BindingSet bindingSet) throws QueryEvaluationException {
-        final MapBindingSet resultSet = new MapBindingSet();
-        try {
-            final ConvertingCursor<TypedEntity> entitiesCursor;
-            final String subj;
-            // If the subject needs to be filled in, check if the subject variable is in the binding set.
-            if(subjectIsConstant) {
-                // if it is, fetch that value and then fetch the entity for the subject.
-                subj = subjectConstant.get();
-                entitiesCursor = entities.search(Optional.of(new RyaURI(subj)), type, properties);
-            } else {
-                entitiesCursor = entities.search(Optional.empty(), type, properties);
+    /**
+     * @param bindingSet - The binding set that will be joined with the Entities. (not null)
+     * @return The Subject the binding set requires the Entities to have, if it requires one.
+     */
+    private Optional<String> getSubject(final BindingSet bindingSet) {
+        if(subjectIsConstant) {
+            return subjectConstant;
+        }
+        final Value subject = bindingSet.getValue(subjectVar.get());
+        return subject == null ? Optional.empty() : Optional.of(subject.stringValue());
+    }
+
+    /**
+     * @param bindingSet - The binding set that will be joined with the Entities. (not null)
+     * @return The values the binding set gives the object variables of the patterns, keyed by binding name.
+     */
+    private Map<String, String> getBoundObjects(final BindingSet bindingSet) {
+        final Map<String, String> boundObjects = new HashMap<>();
+        for(final Var object : objectVariables.values()) {
+            final Value bound = bindingSet.getValue(object.getName());
+            if(bound != null) {
+                boundObjects.put(object.getName(), bound.stringValue());
+            }
+        }
+        return boundObjects;
+    }
+
+    /**
+     * Finds the bindings an Entity adds to a group of binding sets.
+     *
+     * @param typedEntity - The Entity that matched the search. (not null)
+     * @param boundObjects - The object values the binding sets bind. (not null)
+     * @return The bindings of the Entity's properties, or {@link Optional#empty()} if the binding
+     *   sets bind one of the object variables to a value the Entity does not have.
+     */
+    private Optional<MapBindingSet> getEntityBindings(final TypedEntity typedEntity, final Map<String, String> boundObjects) {
+        final MapBindingSet entityBindings = new MapBindingSet();
+
+        //ensure properties match and only add properties that are in the statement patterns to the binding set
+        for(final RyaURI key : objectVariables.keySet()) {
+            final Optional<RyaType> prop = typedEntity.getPropertyValue(key);
+            if(prop.isPresent()) {
+                final String data = prop.get().getData();
+                final String bindingName = objectVariables.get(key).getName();
+                final String bound = boundObjects.get(bindingName);
+                if(bound != null && !bound.equals(data)) {
+                    return Optional.empty();
+                }
+                entityBindings.addBinding(bindingName, ValueFactoryImpl.getInstance().createLiteral(data));
             }
+        }
+        return Optional.of(entityBindings);
+    }
+
+    /**
+     * Binding sets that bind the same Subject and object values, and so join with the same Entities.
+     */
+    private static class BindingSetGroup {
+        private final Optional<String> subject;
+        private final Map<String, String> boundObjects;
+        private final List<BindingSet> bindingSets = new ArrayList<>();
+
+        // Whether any Entity has joined with the group.
+        private boolean joined = false;
+
+        public BindingSetGroup(final Optional<String> subject, final Map<String, String> boundObjects) {
+            this.subject = subject;
+            this.boundObjects = boundObjects;
+        }
+    }
+
+    /**
+     * Lazily runs the Entity searches and joins each Entity that is found with the
+     * binding sets that may join with it. Only one search cursor is open at a time.
+     * Once the searches are done, the binding sets no Entity joined with are passed
+     * through unchanged.
+     */
+    private class EntityJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+        private final Iterator<Optional<Set<RyaURI>>> searches;
+        private final Collection<BindingSetGroup> groups;
+        private final Map<String, List<BindingSetGroup>> boundSubjects;
+        private final List<BindingSetGroup> unboundSubjects;
+
+        private ConvertingCursor<TypedEntity> cursor = null;
+        private Iterator<BindingSet> joined = Collections.emptyIterator();
+        private boolean unjoinedPassed = false;
+
+        public EntityJoinIteration(
+                final Iterator<Optional<Set<RyaURI>>> searches,
+                final Collection<BindingSetGroup> groups,
+                final Map<String, List<BindingSetGroup>> boundSubjects,
+                final List<BindingSetGroup> unboundSubjects) {
+            this.searches = searches;
+            this.groups = groups;
+            this.boundSubjects = boundSubjects;
+            this.unboundSubjects = unboundSubjects;
+        }
 
-            while(entitiesCursor.hasNext()) {
-                final TypedEntity typedEntity = entitiesCursor.next();
-                final ImmutableCollection<Property> properties = typedEntity.getProperties();
-                //ensure properties match and only add properties that are in the statement patterns to the binding set
-                for(final RyaURI key : objectVariables.keySet()) {
-                    final Optional<RyaType> prop = typedEntity.getPropertyValue(new RyaURI(key.getData()));
-                    if(prop.isPresent()) {
-                        final RyaType type = prop.get();
-                        final String bindingName = objectVariables.get(key).getName();
-                        resultSet.addBinding(bindingName, ValueFactoryImpl.getInstance().createLiteral(type.getData()));
+        @Override
+        protected BindingSet getNextElement() throws QueryEvaluationException {
+            while(true) {
+                if(joined.hasNext()) {
+                    return joined.next();
+                }
+
+                if(cursor != null && cursor.hasNext()) {
+                    final TypedEntity typedEntity = cursor.next();
+                    final List<BindingSet> results = new ArrayList<>();
+                    final List<BindingSetGroup> candidates = new ArrayList<>(unboundSubjects);
+                    candidates.addAll( boundSubjects.getOrDefault(typedEntity.getSubject().getData(), Collections.emptyList()) );
+                    for(final BindingSetGroup group : candidates) {
+                        final Optional<MapBindingSet> entityBindings = getEntityBindings(typedEntity, group.boundObjects);
+                        if(entityBindings.isPresent()) {
+                            group.joined = true;
+                            for(final BindingSet bindingSet : group.bindingSets) {
+                                final MapBindingSet resultSet = new MapBindingSet();
+                                entityBindings.get().forEach(resultSet::addBinding);
+                                bindingSet.forEach(resultSet::addBinding);
+                                results.add(resultSet);
+                            }
+                        }
+                    }
+                    joined = results.iterator();
+                    continue;
+                }
+
+                closeCursor();
+                if(!searches.hasNext()) {
+                    if(unjoinedPassed) {
+                        return null;
+                    }
+                    unjoinedPassed = true;
+                    final List<BindingSet> unjoined = new ArrayList<>();
+                    for(final BindingSetGroup group : groups) {
+                        if(!group.joined) {
+                            unjoined.addAll(group.bindingSets);
+                        }
                     }
+                    joined = unjoined.iterator();
+                    continue;
+                }
+
+                final Optional<Set<RyaURI>> subjects = searches.next();
+                try {
+                    cursor = subjects.isPresent() ?
+                            entities.search(subjects.get(), type, properties) :
+                            entities.search(Optional.empty(), type, properties);
+                } catch (final EntityStorageException e) {
+                    throw new QueryEvaluationException("Failed to evaluate the binding sets.", e);
                 }
             }
-        } catch (final EntityStorageException e) {
-            throw new QueryEvaluationException("Failed to evaluate the binding set", e);
         }
-        bindingSet.forEach(new Consumer<Binding>() {
-            @Override
-            public void accept(final Binding binding) {
-                resultSet.addBinding(binding);
+
+        @Override
+        protected void handleClose() throws QueryEvaluationException {
+            try {
+                super.handleClose();
+            } finally {
+                closeCursor();
             }
-        });
-        final List<BindingSet> list = new ArrayList<>();
-        list.add(resultSet);
-        return list;
+        }
+
+        private void closeCursor() throws QueryEvaluationException {
+            if(cursor != null) {
+                try {
+                    cursor.close();
+                } catch (final IOException e) {
+                    throw new QueryEvaluationException("Could not close the Entity search cursor.", e);
+                } finally {
+                    cursor = null;
+                }
+            }
+        }
     }
 
     /**
@@ -50,6 +50,30 @@ public interface EntityStorage extends RyaObjectStorage<Entity> {
      */
     public ConvertingCursor<TypedEntity> search(final Optional<RyaURI> subject, Type type, Set<Property> properties) throws EntityStorageException;
 
+    /**
+     * Search the stored {@link Entity}s that have any of the provided subjects, a specific
+     * {@link Type}, as well as the provided {@link Property} values. All of the subjects
+     * are matched by a single search.
+     *
+     * @param subjects - The {@link RyaURI} subjects of the Entities. (not null)
+     * @param type - The {@link Type} of the Entities. (not null)
+     * @param properties - The {@link Property} values that must be set on the Entity. (not null)
+     * @return A {@link CloseableIterator} over the {@link TypedEntity}s that match the search parameters.
+     * @throws EntityStorageException A problem occurred while searching the storage.
+     */
+    public ConvertingCursor<TypedEntity> search(final Set<RyaURI> subjects, Type type, Set<Property> properties) throws EntityStorageException;
+
+    /**
+     * Adds the explicit Type IDs and sets the {@link Property} values of {@code additions} on the
+     * stored {@link Entity} that has the same Subject, creating it if it does not exist. The
+     * stored Entity is not read first, so writers that update the same Entity do not conflict.
+     * The version of the stored Entity is incremented.
+     *
+     * @param additions - The Subject, explicit Type IDs, and Properties that will be merged. (not null)
+     * @throws EntityStorageException A problem occurred while updating the storage.
+     */
+    public void merge(Entity additions) throws EntityStorageException;
+
     /**
      * Indicates a problem while interacting with an {@link EntityStorage}.
      */
@@ -69,7 +69,7 @@ public class EntityDocumentConverter implements DocumentConverter<Entity> {
                     final RyaType value = property.getValue();
                     typePropertiesDoc.append(encodedPropertyName,  ryaTypeConverter.toDocument(value));
                 });
-            propertiesDoc.append(typeId.getData(), typePropertiesDoc);
+            propertiesDoc.append(MongoDbSafeKey.encodeKey(typeId.getData()), typePropertiesDoc);
         }
         doc.append(PROPERTIES, propertiesDoc);
 
@@ -118,8 +118,9 @@ public class EntityDocumentConverter implements DocumentConverter<Entity> {
             .forEach(explicitTypeId -> builder.setExplicitType(new RyaURI(explicitTypeId)));
 
         final Document propertiesDoc = (Document) document.get(PROPERTIES);
-        for(final String typeId : propertiesDoc.keySet()) {
-            final Document typePropertiesDoc = (Document) propertiesDoc.get(typeId);
+        for(final String encodedTypeId : propertiesDoc.keySet()) {
+            final String typeId = MongoDbSafeKey.decodeKey(encodedTypeId);
+            final Document typePropertiesDoc = (Document) propertiesDoc.get(encodedTypeId);
             for(final String propertyName : typePropertiesDoc.keySet()) {
                 final String decodedPropertyName = MongoDbSafeKey.decodeKey(propertyName);
                 final Document value = (Document) typePropertiesDoc.get(propertyName);
@@ -21,9 +21,11 @@ package org.apache.rya.indexing.entity.storage.mongo;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -49,15 +51,19 @@ import org.bson.conversions.Bson;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.mongodb.ErrorCategory;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A Mongo DB implementation of {@link EntityStorage}.
@@ -69,6 +75,17 @@ public class MongoEntityStorage implements EntityStorage {
     protected static final String COLLECTION_NAME = "entity-entities";
 
     private static final EntityDocumentConverter ENTITY_CONVERTER = new EntityDocumentConverter();
+    private static final RyaTypeDocumentConverter RYA_TYPE_CONVERTER = new RyaTypeDocumentConverter();
+
+    /**
+     * The near duplicate detection blocking keys of an Entity.
+     */
+    private static final String BLOCKING_KEYS = "blockingKeys";
+
+    /**
+     * Identifies the tolerances the blocking keys of an Entity were created with.
+     */
+    private static final String BLOCKING_KEYS_VERSION = "blockingKeysVersion";
 
     /**
      * A client connected to the Mongo instance that hosts the Rya instance.
@@ -114,6 +131,16 @@ public class MongoEntityStorage implements EntityStorage {
         } else {
             this.duplicateDataDetector = duplicateDataDetector;
         }
+
+        if (this.duplicateDataDetector.isDetectionEnabled()) {
+            try {
+                final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
+                collection.createIndex(new Document(BLOCKING_KEYS, 1));
+                collection.createIndex(new Document(BLOCKING_KEYS_VERSION, 1));
+            } catch (final MongoException e) {
+                throw new EntityStorageException("Could not create the duplicate detection indices.", e);
+            }
+        }
     }
 
     @Override
@@ -126,7 +153,7 @@ public class MongoEntityStorage implements EntityStorage {
             if (!hasDuplicate) {
                 mongo.getDatabase(ryaInstanceName)
                     .getCollection(COLLECTION_NAME)
-                    .insertOne( ENTITY_CONVERTER.toDocument(entity) );
+                    .insertOne( appendBlockingKeys(entity, ENTITY_CONVERTER.toDocument(entity)) );
             } else {
                 throw new EntityNearDuplicateException("Duplicate data found and will not be inserted for Entity with Subject: "  + entity);
             }
@@ -166,7 +193,7 @@ public class MongoEntityStorage implements EntityStorage {
 
         // Do a find and replace.
         final Bson oldEntityFilter = Filters.and(filters);
-        final Document updatedDoc = ENTITY_CONVERTER.toDocument(updated);
+        final Document updatedDoc = appendBlockingKeys(updated, ENTITY_CONVERTER.toDocument(updated));
 
         final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
         if(collection.findOneAndReplace(oldEntityFilter, updatedDoc) == null) {
@@ -174,6 +201,85 @@ public class MongoEntityStorage implements EntityStorage {
         }
     }
 
+    @Override
+    public void merge(final Entity additions) throws EntityStorageException {
+        requireNonNull(additions);
+
+        // New Entities must be checked for duplicates, which requires reading the stored Entities.
+        if(duplicateDataDetector.isDetectionEnabled() && !get(additions.getSubject()).isPresent()) {
+            try {
+                create(additions);
+                return;
+            } catch(final EntityAlreadyExistsException e) {
+                // Another writer created the Entity, so merge into it.
+            }
+        }
+
+        final List<Bson> updates = new ArrayList<>();
+        final List<String> explicitTypeIds = additions.getExplicitTypeIds().stream()
+                .map(RyaURI::getData)
+                .collect(Collectors.toList());
+        if(explicitTypeIds.isEmpty()) {
+            updates.add( Updates.setOnInsert(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds) );
+        } else {
+            updates.add( Updates.addEachToSet(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds) );
+        }
+
+        boolean hasProperties = false;
+        for(final Entry<RyaURI, ImmutableMap<RyaURI, Property>> typeProperties : additions.getProperties().entrySet()) {
+            for(final Property property : typeProperties.getValue().values()) {
+                final String propertyPath = Joiner.on(".").join(
+                        EntityDocumentConverter.PROPERTIES,
+                        MongoDbSafeKey.encodeKey(typeProperties.getKey().getData()),
+                        MongoDbSafeKey.encodeKey(property.getName().getData()));
+                updates.add( Updates.set(propertyPath, RYA_TYPE_CONVERTER.toDocument(property.getValue())) );
+                hasProperties = true;
+            }
+        }
+        if(!hasProperties) {
+            updates.add( Updates.setOnInsert(EntityDocumentConverter.PROPERTIES, new Document()) );
+        }
+
+        // Keys of replaced property values are kept. Extra keys only add duplicate candidates.
+        if(duplicateDataDetector.isDetectionEnabled()) {
+            updates.add( Updates.addEachToSet(BLOCKING_KEYS, new ArrayList<>(duplicateDataDetector.getBlockingKeys(additions))) );
+            updates.add( Updates.setOnInsert(BLOCKING_KEYS_VERSION, duplicateDataDetector.getBlockingKeysVersion()) );
+        }
+        if(additions.getSmartUri() != null) {
+            updates.add( Updates.setOnInsert(EntityDocumentConverter.SMART_URI, additions.getSmartUri().stringValue()) );
+        }
+
+        // Stored Entities move to their next version.
+        final List<Bson> existingUpdates = new ArrayList<>(updates);
+        existingUpdates.add( Updates.inc(EntityDocumentConverter.VERSION, 1) );
+        final Bson existingUpdate = Updates.combine(existingUpdates);
+
+        // New Entities start at the same version create() stores them with.
+        final List<Bson> insertUpdates = new ArrayList<>(updates);
+        insertUpdates.add( Updates.setOnInsert(EntityDocumentConverter.VERSION, additions.getVersion()) );
+        final Bson insertUpdate = Updates.combine(insertUpdates);
+
+        final Bson filter = makeSubjectFilter(additions.getSubject());
+        final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
+        try {
+            if(collection.updateOne(filter, existingUpdate).getMatchedCount() == 0) {
+                try {
+                    // Only matches a missing Entity, so an Entity created since the update above is not left at its version.
+                    final Bson missingFilter = Filters.and(filter, Filters.exists(EntityDocumentConverter.VERSION, false));
+                    collection.updateOne(missingFilter, insertUpdate, new UpdateOptions().upsert(true));
+                } catch(final MongoException e) {
+                    // Another writer created the Entity, so it is updated instead.
+                    if(ErrorCategory.fromErrorCode( e.getCode() ) != ErrorCategory.DUPLICATE_KEY) {
+                        throw e;
+                    }
+                    collection.updateOne(filter, existingUpdate);
+                }
+            }
+        } catch(final MongoException e) {
+            throw new EntityStorageException("Failed to merge into the Entity with Subject '" + additions.getSubject().getData() + "'.", e);
+        }
+    }
+
     @Override
     public Optional<Entity> get(final RyaURI subject) throws EntityStorageException {
         requireNonNull(subject);
@@ -195,6 +301,20 @@ public class MongoEntityStorage implements EntityStorage {
 
     @Override
     public ConvertingCursor<TypedEntity> search(final Optional<RyaURI> subject, final Type type, final Set<Property> properties) throws EntityStorageException {
+        requireNonNull(subject);
+        return doSearch(subject.map(Collections::singleton).orElse(null), type, properties);
+    }
+
+    @Override
+    public ConvertingCursor<TypedEntity> search(final Set<RyaURI> subjects, final Type type, final Set<Property> properties) throws EntityStorageException {
+        requireNonNull(subjects);
+        return doSearch(subjects, type, properties);
+    }
+
+    /**
+     * @param subjects - The subjects of the Entities, or {@code null} if Entities with any subject match.
+     */
+    private ConvertingCursor<TypedEntity> doSearch(final @Nullable Collection<RyaURI> subjects, final Type type, final Set<Property> properties) throws EntityStorageException {
         requireNonNull(type);
         requireNonNull(properties);
 
@@ -204,6 +324,13 @@ public class MongoEntityStorage implements EntityStorage {
                     .flatMap(property -> makePropertyFilters(type.getId(), property))
                     .collect(Collectors.toSet());
 
+            // Match the specified Subjects.
+            if(subjects != null) {
+                filters.add( Filters.in(EntityDocumentConverter.SUBJECT, subjects.stream()
+                        .map(RyaURI::getData)
+                        .collect(Collectors.toList())) );
+            }
+
             // Only match explicitly Typed entities.
             filters.add( makeExplicitTypeFilter(type.getId()) );
 
@@ -268,16 +395,17 @@ public class MongoEntityStorage implements EntityStorage {
     private static Stream<Bson> makePropertyFilters(final RyaURI typeId, final Property property) {
         final String propertyName = property.getName().getData();
         final String encodedPropertyName = MongoDbSafeKey.encodeKey(propertyName);
+        final String encodedTypeId = MongoDbSafeKey.encodeKey(typeId.getData());
 
         // Must match the property's data type.
         final String dataTypePath = Joiner.on(".").join(
-                new String[]{EntityDocumentConverter.PROPERTIES, typeId.getData(), encodedPropertyName, RyaTypeDocumentConverter.DATA_TYPE});
+                new String[]{EntityDocumentConverter.PROPERTIES, encodedTypeId, encodedPropertyName, RyaTypeDocumentConverter.DATA_TYPE});
         final String propertyDataType = property.getValue().getDataType().stringValue();
         final Bson dataTypeFilter = Filters.eq(dataTypePath, propertyDataType);
 
         // Must match the property's value.
         final String valuePath = Joiner.on(".").join(
-                new String[]{EntityDocumentConverter.PROPERTIES, typeId.getData(), encodedPropertyName, RyaTypeDocumentConverter.VALUE});
+                new String[]{EntityDocumentConverter.PROPERTIES, encodedTypeId, encodedPropertyName, RyaTypeDocumentConverter.VALUE});
         final String propertyValue = property.getValue().getData();
         final Bson valueFilter = Filters.eq(valuePath, propertyValue);
 
@@ -287,80 +415,91 @@ public class MongoEntityStorage implements EntityStorage {
     private boolean detectDuplicates(final Entity entity) throws EntityStorageException {
         boolean hasDuplicate = false;
         if (duplicateDataDetector.isDetectionEnabled()) {
-            // Grab all entities that have all the same explicit types as our
-            // original Entity.
-            final List<Entity> comparisonEntities = searchHasAllExplicitTypes(entity.getExplicitTypeIds());
+            // Grab the entities that have all the same explicit types as our
+            // original Entity and share its blocking keys.
+            final Optional<Bson> candidatesFilter = makeDuplicateCandidatesFilter(entity);
+            if (!candidatesFilter.isPresent()) {
+                return false;
+            }
 
-            // Now that we have our set of potential duplicates, compare them.
-            // We can stop when we find one duplicate.
-            for (final Entity compareEntity : comparisonEntities) {
-                try {
+            try(final MongoCursor<Document> candidates = mongo.getDatabase(ryaInstanceName)
+                    .getCollection(COLLECTION_NAME)
+                    .find(candidatesFilter.get())
+                    .iterator()) {
+                // Now that we have our set of potential duplicates, compare them.
+                // We can stop when we find one duplicate.
+                while (!hasDuplicate && candidates.hasNext()) {
+                    final Entity compareEntity = ENTITY_CONVERTER.fromDocument(candidates.next());
                     hasDuplicate = duplicateDataDetector.compareEntities(entity, compareEntity);
-                } catch (final SmartUriException e) {
-                    throw new EntityStorageException("Encountered an error while comparing entities.", e);
-                }
-                if (hasDuplicate) {
-                    break;
                 }
+            } catch (final SmartUriException e) {
+                throw new EntityStorageException("Encountered an error while comparing entities.", e);
+            } catch (final DocumentConverterException e) {
+                throw new EntityStorageException("Encountered an error while reading the entities to compare.", e);
             }
         }
         return hasDuplicate;
     }
 
     /**
-     * Searches the Entity storage for all Entities that contain all the
-     * specified explicit type IDs.
-     * @param explicitTypeIds the {@link ImmutableList} of {@link RyaURI}s that
-     * are being searched for.
-     * @return the {@link List} of {@link Entity}s that have all the specified
-     * explicit type IDs. If nothing was found an empty {@link List} is
-     * returned.
+     * Makes a filter that matches the Entities that contain all the explicit
+     * type IDs of an Entity and that may be nearly identical to it. Entities
+     * whose blocking keys were created with different tolerances always match.
+     * @param entity the {@link Entity} that is being checked.
+     * @return the filter, or {@link Optional#empty()} if no Entity may be
+     * nearly identical to it.
      * @throws EntityStorageException
      */
-    private List<Entity> searchHasAllExplicitTypes(final ImmutableList<RyaURI> explicitTypeIds) throws EntityStorageException {
-        final List<Entity> hasAllExplicitTypesEntities = new ArrayList<>();
-        if (!explicitTypeIds.isEmpty()) {
-            // Grab the first type from the explicit type IDs.
-            final RyaURI firstType = explicitTypeIds.get(0);
-
-            // Check if that type exists anywhere in storage.
-            final List<RyaURI> subjects = new ArrayList<>();
-            Optional<Type> type;
-            try {
-                if (mongoTypeStorage == null) {
-                    mongoTypeStorage = new MongoTypeStorage(mongo, ryaInstanceName);
-                }
-                type = mongoTypeStorage.get(firstType);
-            } catch (final TypeStorageException e) {
-                throw new EntityStorageException("Unable to get entity type: " + firstType, e);
-            }
-            if (type.isPresent()) {
-                // Grab the subjects for all the types we found matching "firstType"
-                final ConvertingCursor<TypedEntity> cursor = search(Optional.empty(), type.get(), Collections.emptySet());
-                while (cursor.hasNext()) {
-                    final TypedEntity typedEntity = cursor.next();
-                    final RyaURI subject = typedEntity.getSubject();
-                    subjects.add(subject);
-                }
-            }
+    private Optional<Bson> makeDuplicateCandidatesFilter(final Entity entity) throws EntityStorageException {
+        final ImmutableList<RyaURI> explicitTypeIds = entity.getExplicitTypeIds();
+        if (explicitTypeIds.isEmpty()) {
+            return Optional.empty();
+        }
 
-            // Now grab all the Entities that have the subjects we found.
-            for (final RyaURI subject : subjects) {
-                final Optional<Entity> entityFromSubject = get(subject);
-                if (entityFromSubject.isPresent()) {
-                    final Entity candidateEntity = entityFromSubject.get();
-                    // Filter out any entities that don't have all the same
-                    // types associated with them as our original list of
-                    // explicit type IDs. We already know the entities we found
-                    // have "firstType" but now we have access to all the other
-                    // types they have.
-                    if (candidateEntity.getExplicitTypeIds().containsAll(explicitTypeIds)) {
-                        hasAllExplicitTypesEntities.add(candidateEntity);
-                    }
-                }
+        // Grab the first type from the explicit type IDs.
+        final RyaURI firstType = explicitTypeIds.get(0);
+
+        // Check if that type exists anywhere in storage.
+        Optional<Type> type;
+        try {
+            if (mongoTypeStorage == null) {
+                mongoTypeStorage = new MongoTypeStorage(mongo, ryaInstanceName);
             }
+            type = mongoTypeStorage.get(firstType);
+        } catch (final TypeStorageException e) {
+            throw new EntityStorageException("Unable to get entity type: " + firstType, e);
+        }
+        if (!type.isPresent()) {
+            return Optional.empty();
         }
 
-        return hasAllExplicitTypesEntities;
+        final List<Bson> filters = new ArrayList<>();
+        filters.add( Filters.all(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds.stream()
+                .map(RyaURI::getData)
+                .collect(Collectors.toList())) );
+
+        final List<Set<String>> candidateKeys = duplicateDataDetector.getCandidateKeys(entity);
+        if (!candidateKeys.isEmpty()) {
+            final List<Bson> keyFilters = candidateKeys.stream()
+                    .map(keys -> Filters.in(BLOCKING_KEYS, keys))
+                    .collect(Collectors.toList());
+            filters.add( Filters.or(
+                    Filters.and(keyFilters),
+                    Filters.ne(BLOCKING_KEYS_VERSION, duplicateDataDetector.getBlockingKeysVersion())) );
+        }
+
+        return Optional.of( Filters.and(filters) );
+    }
+
+    /**
+     * Adds the blocking keys of an Entity to its document when duplicate
+     * detection is enabled.
+     */
+    private Document appendBlockingKeys(final Entity entity, final Document document) {
+        if (duplicateDataDetector.isDetectionEnabled()) {
+            document.append(BLOCKING_KEYS, new ArrayList<>(duplicateDataDetector.getBlockingKeys(entity)));
+            document.append(BLOCKING_KEYS_VERSION, duplicateDataDetector.getBlockingKeysVersion());
+        }
+        return document;
     }
 }
\ No newline at end of file
@@ -136,48 +136,40 @@ public abstract class BaseEntityIndexer implements EntityIndexer, MongoSecondary
         checkState(entities != null, "Must set this indexers configuration before storing statements.");
         checkState(types != null, "Must set this indexers configuration before storing statements.");
 
-        new EntityUpdater(entities).update(subject, old -> {
-            // Create a builder with the updated Version.
-            final Entity.Builder updated;
-            if(!old.isPresent()) {
-                updated = Entity.builder()
-                        .setSubject(subject)
-                        .setVersion(0);
-            } else {
-                final int updatedVersion = old.get().getVersion() + 1;
-                updated = Entity.builder(old.get())
-                        .setVersion( updatedVersion );
+        // Only the additions are built. They are merged into the stored Entity atomically, so
+        // the stored Entity does not need to be read and concurrent writers do not conflict.
+        final Entity.Builder additions = Entity.builder()
+                .setSubject(subject)
+                .setVersion(0);
+
+        // Update the entity based on the Statements.
+        for(final RyaStatement statement : statements) {
+
+            // The Statement is setting an Explicit Type ID for the Entity.
+            if(Objects.equal(TYPE_URI, statement.getPredicate())) {
+                final RyaURI typeId = new RyaURI(statement.getObject().getData());
+                additions.setExplicitType(typeId);
             }
 
-            // Update the entity based on the Statements.
-            for(final RyaStatement statement : statements) {
+            // The Statement is adding a Property to the Entity.
+            else {
+                final RyaURI propertyName = statement.getPredicate();
+                final RyaType propertyValue = statement.getObject();
 
-                // The Statement is setting an Explicit Type ID for the Entity.
-                if(Objects.equal(TYPE_URI, statement.getPredicate())) {
-                    final RyaURI typeId = new RyaURI(statement.getObject().getData());
-                    updated.setExplicitType(typeId);
-                }
-
-                // The Statement is adding a Property to the Entity.
-                else {
-                    final RyaURI propertyName = statement.getPredicate();
-                    final RyaType propertyValue = statement.getObject();
-
-                    try(final ConvertingCursor<Type> typesIt = types.search(propertyName)) {
-                        // Set the Property for each type that includes the Statement's predicate.
-                        while(typesIt.hasNext()) {
-                            final RyaURI typeId = typesIt.next().getId();
-                            updated.setProperty(typeId, new Property(propertyName, propertyValue));
-                        }
-                    } catch (final TypeStorageException | IOException e) {
-                        throw new RuntimeException("Failed to fetch Types that include the property name '" +
-                                statement.getPredicate().getData() + "'.", e);
+                try(final ConvertingCursor<Type> typesIt = types.search(propertyName)) {
+                    // Set the Property for each type that includes the Statement's predicate.
+                    while(typesIt.hasNext()) {
+                        final RyaURI typeId = typesIt.next().getId();
+                        additions.setProperty(typeId, new Property(propertyName, propertyValue));
                     }
+                } catch (final TypeStorageException | IOException e) {
+                    throw new RuntimeException("Failed to fetch Types that include the property name '" +
+                            statement.getPredicate().getData() + "'.", e);
                 }
             }
+        }
 
-            return Optional.of( updated.build() );
-        });
+        entities.merge( additions.build() );
     }
 
     @Override
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
@@ -71,6 +72,8 @@ import org.openrdf.sail.SailException;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
@@ -107,6 +110,14 @@ import info.aduna.iteration.CloseableIteration;
 public class AccumuloIndexSet extends ExternalTupleSet implements
 		ExternalBatchingIterator {
 
+	/**
+	 * Cardinalities read from the PCJ metadata, keyed by instance and table
+	 * name. Query planning asks for the cardinality of every candidate PCJ of
+	 * every query, so the metadata is only re-read once an entry expires.
+	 */
+	private static final Cache<String, Double> CARDINALITIES = CacheBuilder.newBuilder()
+			.maximumSize(10000).expireAfterWrite(60, TimeUnit.SECONDS).build();
+
 	private final Connector accCon; // connector to Accumulo table where results
 									// are stored
 	private final String tablename; // name of Accumulo table
@@ -223,16 +234,30 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 	 */
 	@Override
 	public double cardinality() {
+		final String key = accCon.getInstance().getInstanceName() + "/" + tablename;
+		final Double cached = CARDINALITIES.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+
 		double cardinality = 0;
 		try {
 			cardinality = pcj.getPcjMetadata(accCon, tablename)
 					.getCardinality();
+			CARDINALITIES.put(key, cardinality);
 		} catch (final PcjException e) {
 			e.printStackTrace();
 		}
 		return cardinality;
 	}
 
+	/**
+	 * @return The name of the Accumulo table the PCJ results are stored in.
+	 */
+	public String getTableName() {
+		return tablename;
+	}
+
 	/**
 	 *
 	 * @param tableName
@@ -44,6 +44,7 @@ import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.query.QueryEvaluationException;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
@@ -71,16 +72,23 @@ public abstract class AbstractMongoIndexer<T extends IndexingMongoDBStorageStrat
 
     protected T storageStrategy;
 
+    private boolean embedded = false;
     private MongoDbBatchWriter<DBObject> mongoDbBatchWriter;
 
     protected void initCore() {
         dbName = conf.getRyaInstanceName();
         this.mongoClient = conf.getMongoClient();
         db = this.mongoClient.getDB(dbName);
-        collection = db.getCollection(getCollectionName());
+        embedded = supportsEmbedding() && ((MongoDBRdfConfiguration)conf).getUseEmbeddedIndexes();
+        collection = db.getCollection(embedded ? conf.getTriplesCollectionName() : getCollectionName());
 
         flushEachUpdate = ((MongoDBRdfConfiguration)conf).flushEachUpdate();
 
+        if (embedded) {
+            // The statements are indexed by the DAO's insert into the core collection.
+            return;
+        }
+
         final MongoDbBatchWriterConfig mongoDbBatchWriterConfig = MongoDbBatchWriterUtils.getMongoDbBatchWriterConfig(conf);
         mongoDbBatchWriter = new MongoDbBatchWriter<>(new DbCollectionType(collection), mongoDbBatchWriterConfig);
         try {
@@ -97,8 +105,27 @@ public abstract class AbstractMongoIndexer<T extends IndexingMongoDBStorageStrat
         this.conf = (StatefulMongoDBRdfConfiguration) conf;
     }
 
+    /**
+     * @return {@code true} if this indexer can store its fields on the core triple documents.
+     *   Indexers that store documents that are not statements should override this. (default: true)
+     */
+    protected boolean supportsEmbedding() {
+        return true;
+    }
+
+    /**
+     * @return {@code true} if this indexer stores its fields on the core triple documents
+     *   and queries the core collection.
+     */
+    protected boolean isEmbedded() {
+        return embedded;
+    }
+
     @Override
     public void close() throws IOException {
+        if (embedded) {
+            return;
+        }
         flush();
         try {
             mongoDbBatchWriter.shutdown();
@@ -109,6 +136,9 @@ public abstract class AbstractMongoIndexer<T extends IndexingMongoDBStorageStrat
 
     @Override
     public void flush() throws IOException {
+        if (embedded) {
+            return;
+        }
         try {
             mongoDbBatchWriter.flush();
         } catch (final MongoDbBatchWriterException e) {
@@ -133,6 +163,10 @@ public abstract class AbstractMongoIndexer<T extends IndexingMongoDBStorageStrat
 
     @Override
     public void deleteStatement(final RyaStatement stmt) throws IOException {
+        if (embedded) {
+            // The fields are removed along with the core document.
+            return;
+        }
         final DBObject obj = storageStrategy.getQuery(stmt);
         collection.remove(obj);
     }
@@ -153,8 +187,32 @@ public abstract class AbstractMongoIndexer<T extends IndexingMongoDBStorageStrat
         storeStatement(ryaStatement, flushEachUpdate);
     }
 
+    @Override
+    public boolean embedStatement(final RyaStatement ryaStatement, final DBObject coreDocument) {
+        if (!embedded) {
+            return false;
+        }
+        final DBObject obj = prepareStatementForStorage(ryaStatement);
+        if (obj != null) {
+            for (final String key : obj.keySet()) {
+                if (!coreDocument.containsField(key)) {
+                    coreDocument.put(key, obj.get(key));
+                }
+            }
+        }
+        return true;
+    }
+
     private void storeStatement(final RyaStatement ryaStatement, final boolean flush) throws IOException {
         final DBObject obj = prepareStatementForStorage(ryaStatement);
+        if (embedded) {
+            // Statements that were not written through the DAO are merged into their core document.
+            if (obj != null) {
+                final Object id = obj.removeField(IndexingMongoDBStorageStrategy.ID);
+                collection.update(new BasicDBObject(IndexingMongoDBStorageStrategy.ID, id), new BasicDBObject("$set", obj), true, false);
+            }
+            return;
+        }
         try {
             mongoDbBatchWriter.addObjectToQueue(obj);
             if (flush) {
@@ -24,6 +24,7 @@ import java.util.Set;
 import org.openrdf.model.URI;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import com.mongodb.QueryBuilder;
 
@@ -31,6 +32,33 @@ import org.apache.rya.indexing.StatementConstraints;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 
 public class IndexingMongoDBStorageStrategy extends SimpleMongoDBStorageStrategy {
+    private boolean usePartialIndexes = false;
+
+    /**
+     * @param usePartialIndexes - {@code true} if the indices should only cover the documents that
+     *   hold the indexed field. This is used when the index fields are embedded in the core triple
+     *   documents, most of which are not indexed.
+     */
+    public void setUsePartialIndexes(final boolean usePartialIndexes) {
+        this.usePartialIndexes = usePartialIndexes;
+    }
+
+    /**
+     * Creates an index on a single field of the collection.
+     * @param coll - The collection to index.
+     * @param field - The field to index.
+     * @param type - The type of the index, such as {@code 1}, {@code "text"} or {@code "2dsphere"}.
+     */
+    protected void createIndex(final DBCollection coll, final String field, final Object type) {
+        final DBObject keys = new BasicDBObject(field, type);
+        if (usePartialIndexes) {
+            final DBObject partialFilter = new BasicDBObject(field, new BasicDBObject("$exists", true));
+            coll.createIndex(keys, new BasicDBObject("partialFilterExpression", partialFilter));
+        } else {
+            coll.createIndex(keys);
+        }
+    }
+
     public DBObject getQuery(final StatementConstraints contraints) {
         final QueryBuilder queryBuilder = QueryBuilder.start();
         if (contraints.hasSubject()){
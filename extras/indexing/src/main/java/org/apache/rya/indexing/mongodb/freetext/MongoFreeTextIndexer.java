@@ -44,6 +44,7 @@ public class MongoFreeTextIndexer extends AbstractMongoIndexer<TextMongoDBStorag
             logger.debug("No predicates specified for freetext indexing.  During insertion, all statements will be attempted to be indexed into the freetext indexer.");
         }
         storageStrategy = new TextMongoDBStorageStrategy();
+        storageStrategy.setUsePartialIndexes(isEmbedded());
         storageStrategy.createIndices(collection);
     }
 
@@ -31,9 +31,7 @@ public class TextMongoDBStorageStrategy extends IndexingMongoDBStorageStrategy {
 
 	@Override
     public void createIndices(final DBCollection coll){
-		final BasicDBObject basicDBObject = new BasicDBObject();
-		basicDBObject.append(text, "text");
-		coll.createIndex(basicDBObject);
+		createIndex(coll, text, "text");
 	}
 
 	@Override
@@ -160,6 +160,13 @@ public class MongoPcjQueryNode extends ExternalTupleSet implements ExternalBatch
         };
     }
 
+    /**
+     * @return The ID of the PCJ whose results this node reads.
+     */
+    public String getPcjId() {
+        return pcjId;
+    }
+
     @Override
     public String getSignature() {
         return "(Mongo PcjQueryNode) " + Joiner.on(", ").join(super.getTupleExpr().getProjectionElemList().getElements()).replaceAll("\\s+", " ");
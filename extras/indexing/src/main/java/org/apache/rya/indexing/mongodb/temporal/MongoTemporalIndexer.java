@@ -53,6 +53,7 @@ public class MongoTemporalIndexer extends AbstractMongoIndexer<TemporalMongoDBSt
             LOG.debug("No predicates specified for temporal indexing.  During insertion, all statements will be attempted to be indexed into the temporal indexer.");
         }
         storageStrategy = new TemporalMongoDBStorageStrategy();
+        storageStrategy.setUsePartialIndexes(isEmbedded());
         storageStrategy.createIndices(collection);
     }
 
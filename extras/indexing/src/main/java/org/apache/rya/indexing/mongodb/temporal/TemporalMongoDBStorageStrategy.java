@@ -47,9 +47,9 @@ public class TemporalMongoDBStorageStrategy extends IndexingMongoDBStorageStrate
 
     @Override
     public void createIndices(final DBCollection coll){
-        coll.createIndex(INTERVAL_START);
-        coll.createIndex(INTERVAL_END);
-        coll.createIndex(INSTANT);
+        createIndex(coll, INTERVAL_START, 1);
+        createIndex(coll, INTERVAL_END, 1);
+        createIndex(coll, INSTANT, 1);
     }
 
     @Override
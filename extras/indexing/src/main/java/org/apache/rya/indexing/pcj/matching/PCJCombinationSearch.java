@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.matching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.indexing.external.tupleSet.AccumuloIndexSet;
+import org.apache.rya.indexing.external.tupleSet.ExternalTupleSet;
+import org.apache.rya.indexing.mongodb.pcj.MongoPcjQueryNode;
+import org.openrdf.query.algebra.QueryModelNode;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.helpers.QueryModelVisitorBase;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+
+/**
+ * Finds the combinations of PCJs that best cover a query segment using a
+ * bounded branch-and-bound search instead of enumerating every combination.
+ * <p>
+ * A plan is scored by the number of nodes the segment would have after its
+ * PCJs are substituted, with the summed PCJ cardinalities breaking ties. A
+ * partial plan is only extended if the most it could still shrink the segment
+ * can beat the best plan found so far, and candidates that match the same
+ * nodes as a smaller PCJ are dropped before the search starts. The search
+ * stops once it has visited a maximum number of plans or run for a maximum
+ * amount of time, returning the best plans it has found.
+ * <p>
+ * The chosen plans are remembered for each normalized segment and candidate
+ * list, including the tables the candidates read and their cardinalities, so
+ * repeated queries skip the search entirely.
+ */
+public class PCJCombinationSearch {
+    private static final Logger log = Logger.getLogger(PCJCombinationSearch.class);
+    private static final PCJToSegmentConverter converter = new PCJToSegmentConverter();
+
+    /**
+     * The number of best plans handed back to the matcher, which rates each of them.
+     */
+    private static final int MAX_RESULTS = 8;
+
+    private static final Cache<String, List<List<Integer>>> CHOSEN_PLANS = CacheBuilder.newBuilder()
+            .maximumSize(1000).expireAfterWrite(10, TimeUnit.MINUTES).build();
+
+    private final List<QueryModelNode> queryNodes;
+    private final long maxPlans;
+    private final long maxMillis;
+
+    /**
+     * Constructs an instance of {@link PCJCombinationSearch}.
+     *
+     * @param queryNodes - The nodes of the query segment the PCJs are matched to. (not null)
+     * @param maxPlans - The maximum number of partial plans to visit. (> 0)
+     * @param maxMillis - The maximum number of milliseconds to search for. (> 0)
+     */
+    public PCJCombinationSearch(final List<QueryModelNode> queryNodes, final long maxPlans, final long maxMillis) {
+        this.queryNodes = checkNotNull(queryNodes);
+        checkArgument(maxPlans > 0, "The plan budget must be positive.");
+        checkArgument(maxMillis > 0, "The time budget must be positive.");
+        this.maxPlans = maxPlans;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @param pcjs - The PCJs that match some portion of the query segment. (not null)
+     * @return The best combinations of disjoint PCJs found, ordered from best to
+     *         worst. If there are no PCJs, a single empty combination is returned.
+     */
+    public List<List<ExternalTupleSet>> getBestCombos(final List<ExternalTupleSet> pcjs) {
+        checkNotNull(pcjs);
+        if (pcjs.isEmpty()) {
+            return Collections.singletonList(Collections.<ExternalTupleSet>emptyList());
+        }
+
+        // Order the candidates by their normalized form so that the same query
+        // over the same PCJs yields the same memoization key and positions.
+        final Map<String, String> varNames = new HashMap<>();
+        final StringBuilder key = new StringBuilder();
+        for (final QueryModelNode node : queryNodes) {
+            key.append(normalize(node, varNames)).append('\n');
+        }
+        final List<String> normalizedPcjs = new ArrayList<>(pcjs.size());
+        for (final ExternalTupleSet pcj : pcjs) {
+            normalizedPcjs.add(pcj.getClass().getName() + " " + normalize(pcj.getTupleExpr(), varNames)
+                    + " " + getIdentity(pcj) + " " + pcj.cardinality());
+        }
+        final List<Integer> order = new ArrayList<>(pcjs.size());
+        for (int i = 0; i < pcjs.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                return normalizedPcjs.get(a).compareTo(normalizedPcjs.get(b));
+            }
+        });
+        final List<ExternalTupleSet> candidates = new ArrayList<>(pcjs.size());
+        for (final Integer i : order) {
+            candidates.add(pcjs.get(i));
+            key.append(normalizedPcjs.get(i)).append('\n');
+        }
+
+        List<List<Integer>> chosen = CHOSEN_PLANS.getIfPresent(key.toString());
+        if (chosen == null) {
+            chosen = search(candidates);
+            CHOSEN_PLANS.put(key.toString(), chosen);
+        }
+
+        final List<List<ExternalTupleSet>> combos = new ArrayList<>(chosen.size());
+        for (final List<Integer> plan : chosen) {
+            final List<ExternalTupleSet> combo = new ArrayList<>(plan.size());
+            for (final Integer i : plan) {
+                combo.add(candidates.get(i));
+            }
+            combos.add(combo);
+        }
+        return combos;
+    }
+
+    /**
+     * Searches for the best combinations of the candidates.
+     *
+     * @param candidates - The PCJs that may be part of a plan.
+     * @return The positions of the PCJs of each of the best plans, best first.
+     */
+    @VisibleForTesting
+    List<List<Integer>> search(final List<ExternalTupleSet> candidates) {
+        final Search search = new Search(candidates);
+        search.run();
+        return search.getResults();
+    }
+
+    /**
+     * The state of a single run of the search.
+     */
+    private final class Search {
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<Set<QueryModelNode>> nodes = new ArrayList<>();
+        private final List<Double> cardinalities = new ArrayList<>();
+        private final List<Plan> best = new ArrayList<>();
+        private long deadline;
+        private long visited = 0;
+        private boolean exhausted = false;
+
+        public Search(final List<ExternalTupleSet> candidates) {
+            // Drop the candidates that match exactly the same nodes as another
+            // candidate with a smaller cardinality. They can never do better.
+            final Map<Set<QueryModelNode>, Integer> byNodes = new HashMap<>();
+            final Map<Integer, Set<QueryModelNode>> candidateNodes = new HashMap<>();
+            final Map<Integer, Double> candidateCardinalities = new HashMap<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                final ExternalTupleSet pcj = candidates.get(i);
+                final Set<QueryModelNode> matched = new HashSet<>(converter.setToSegment(pcj).getOrderedNodes());
+                final double cardinality = pcj.cardinality();
+                candidateNodes.put(i, matched);
+                candidateCardinalities.put(i, cardinality);
+
+                final Integer other = byNodes.get(matched);
+                if (other == null || candidateCardinalities.get(other) > cardinality) {
+                    byNodes.put(matched, i);
+                }
+            }
+
+            // Try the largest and then the smallest candidates first so that good
+            // plans are found early and the bound prunes as much as possible.
+            final List<Integer> kept = new ArrayList<>(byNodes.values());
+            Collections.sort(kept, new Comparator<Integer>() {
+                @Override
+                public int compare(final Integer a, final Integer b) {
+                    final int bySize = Integer.compare(candidateNodes.get(b).size(), candidateNodes.get(a).size());
+                    if (bySize != 0) {
+                        return bySize;
+                    }
+                    final int byCardinality = Double.compare(candidateCardinalities.get(a), candidateCardinalities.get(b));
+                    return byCardinality != 0 ? byCardinality : Integer.compare(a, b);
+                }
+            });
+            for (final Integer i : kept) {
+                positions.add(i);
+                nodes.add(candidateNodes.get(i));
+                cardinalities.add(candidateCardinalities.get(i));
+            }
+        }
+
+        public void run() {
+            deadline = System.currentTimeMillis() + maxMillis;
+            extend(0, new ArrayList<Integer>(), new HashSet<QueryModelNode>(), 0);
+            if (exhausted) {
+                log.debug("Optimal PCJ search budget exhausted after visiting " + visited
+                        + " plans. Using the best plans found so far.");
+            }
+        }
+
+        public List<List<Integer>> getResults() {
+            final List<List<Integer>> results = new ArrayList<>(best.size());
+            for (final Plan plan : best) {
+                results.add(plan.pcjs);
+            }
+            return results;
+        }
+
+        private void extend(final int from, final List<Integer> chosen, final Set<QueryModelNode> covered,
+                final double cardinality) {
+            for (int i = from; i < nodes.size() && !exhausted; i++) {
+                final Set<QueryModelNode> matched = nodes.get(i);
+                if (!Collections.disjoint(covered, matched)) {
+                    continue;
+                }
+
+                // Always finish the first plan so there is something to return.
+                visited++;
+                if (!best.isEmpty() && (visited > maxPlans || System.currentTimeMillis() > deadline)) {
+                    exhausted = true;
+                    return;
+                }
+
+                final Set<QueryModelNode> nowCovered = Sets.union(covered, matched).immutableCopy();
+                final double nowCardinality = cardinality + cardinalities.get(i);
+                chosen.add(positions.get(i));
+                final int size = queryNodes.size() - nowCovered.size() + chosen.size();
+                offer(new Plan(new ArrayList<>(chosen), size, nowCardinality));
+
+                if (!isPruned(i + 1, nowCovered, size, nowCardinality)) {
+                    extend(i + 1, chosen, nowCovered, nowCardinality);
+                }
+                chosen.remove(chosen.size() - 1);
+            }
+        }
+
+        /**
+         * A plan can only be improved by adding more PCJs. Each PCJ that matches
+         * {@code n} nodes shrinks the segment by {@code n - 1}, so the largest
+         * remaining candidates that fit within the uncovered nodes bound how much
+         * smaller the segment can still get.
+         */
+        private boolean isPruned(final int from, final Set<QueryModelNode> covered, final int size,
+                final double cardinality) {
+            int uncovered = queryNodes.size() - covered.size();
+            double shrink = 0;
+            for (int i = from; i < nodes.size() && uncovered > 0; i++) {
+                final Set<QueryModelNode> matched = nodes.get(i);
+                if (!Collections.disjoint(covered, matched)) {
+                    continue;
+                }
+                final int n = matched.size();
+                if (n <= uncovered) {
+                    shrink += n - 1;
+                    uncovered -= n;
+                } else {
+                    shrink += (n - 1) * ((double) uncovered / n);
+                    uncovered = 0;
+                }
+            }
+
+            if (best.size() < MAX_RESULTS) {
+                return false;
+            }
+            final Plan worst = best.get(best.size() - 1);
+            // Sizes are whole numbers, and adding PCJs never lowers the cardinality.
+            final double bound = Math.ceil(size - shrink - 1e-9);
+            return bound > worst.size || (bound == worst.size && cardinality >= worst.cardinality);
+        }
+
+        private void offer(final Plan plan) {
+            int i = best.size();
+            while (i > 0 && plan.compareTo(best.get(i - 1)) < 0) {
+                i--;
+            }
+            if (i < MAX_RESULTS) {
+                best.add(i, plan);
+                if (best.size() > MAX_RESULTS) {
+                    best.remove(best.size() - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A combination of PCJs and the score of the segment they produce.
+     */
+    private static final class Plan implements Comparable<Plan> {
+        private final List<Integer> pcjs;
+        private final int size;
+        private final double cardinality;
+
+        public Plan(final List<Integer> pcjs, final int size, final double cardinality) {
+            this.pcjs = pcjs;
+            this.size = size;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public int compareTo(final Plan other) {
+            final int bySize = Integer.compare(size, other.size);
+            return bySize != 0 ? bySize : Double.compare(cardinality, other.cardinality);
+        }
+    }
+
+    /**
+     * @return The table or document collection the PCJ's results are read from, so
+     *         that PCJs with the same query but different results are told apart.
+     */
+    private static String getIdentity(final ExternalTupleSet pcj) {
+        if (pcj instanceof AccumuloIndexSet) {
+            return ((AccumuloIndexSet) pcj).getTableName();
+        } else if (pcj instanceof MongoPcjQueryNode) {
+            return ((MongoPcjQueryNode) pcj).getPcjId();
+        }
+        return "";
+    }
+
+    /**
+     * @return The string form of a copy of the node whose variables have been
+     *         renamed in the order they are first seen.
+     */
+    private static String normalize(final QueryModelNode node, final Map<String, String> varNames) {
+        final QueryModelNode copy = node.clone();
+        copy.visit(new QueryModelVisitorBase<RuntimeException>() {
+            @Override
+            public void meet(final Var var) {
+                if (!var.isConstant()) {
+                    String name = varNames.get(var.getName());
+                    if (name == null) {
+                        name = "v" + varNames.size();
+                        varNames.put(var.getName(), name);
+                    }
+                    var.setName(name);
+                }
+            }
+        });
+        return copy.toString();
+    }
+}
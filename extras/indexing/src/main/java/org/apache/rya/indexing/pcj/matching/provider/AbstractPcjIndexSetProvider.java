@@ -28,10 +28,11 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.Logger;
 import org.apache.rya.api.instance.RyaDetails;
 import org.apache.rya.indexing.IndexPlanValidator.IndexedExecutionPlanGenerator;
-import org.apache.rya.indexing.IndexPlanValidator.ValidIndexCombinationGenerator;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.apache.rya.indexing.external.matching.ExternalSetProvider;
 import org.apache.rya.indexing.external.matching.QuerySegment;
 import org.apache.rya.indexing.external.tupleSet.ExternalTupleSet;
+import org.apache.rya.indexing.pcj.matching.PCJCombinationSearch;
 import org.apache.rya.indexing.pcj.matching.PCJOptimizerUtilities;
 import org.apache.rya.indexing.pcj.matching.PCJToSegmentConverter;
 import org.openrdf.query.algebra.TupleExpr;
@@ -86,12 +87,15 @@ public abstract class AbstractPcjIndexSetProvider implements ExternalSetProvider
     /**
      * @param segment - QuerySegment used to get relevant queries form index cache for matching
      *
-     * @return Iterator of Lists (combos) of PCJs used to build an optimal query plan
+     * @return Iterator of Lists (combos) of PCJs used to build an optimal query plan. Only the
+     *         best combos found by a {@link PCJCombinationSearch} within the configured budget
+     *         are returned.
      */
     @Override
     public Iterator<List<ExternalTupleSet>> getExternalSetCombos(final QuerySegment<ExternalTupleSet> segment) {
-        final ValidIndexCombinationGenerator comboGen = new ValidIndexCombinationGenerator(segment.getOrderedNodes());
-        return comboGen.getValidIndexCombos(getExternalSets(segment));
+        final PCJCombinationSearch search = new PCJCombinationSearch(segment.getOrderedNodes(),
+                ConfigUtils.getOptimalPcjMaxPlans(conf), ConfigUtils.getOptimalPcjMaxMillis(conf));
+        return search.getBestCombos(getExternalSets(segment)).iterator();
     }
 
     /**
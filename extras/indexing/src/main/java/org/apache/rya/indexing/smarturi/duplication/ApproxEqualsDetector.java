@@ -18,6 +18,10 @@
  */
 package org.apache.rya.indexing.smarturi.duplication;
 
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
 import org.apache.rya.indexing.smarturi.SmartUriException;
 import org.openrdf.model.URI;
 
@@ -75,4 +79,29 @@ public interface ApproxEqualsDetector<T> {
         final T object2 = convertStringToObject(rhs);
         return areObjectsApproxEquals(object1, object2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the blocking keys of a stored value. A stored value that is
+     * approximately equal to a checked value has at least one of the checked
+     * value's candidate keys. See {@link #getCandidateKeys(String)}.
+     * @param string the {@link String} representation of the stored value.
+     * @return the blocking keys of the value or an empty {@link Set} if the
+     * value can not be blocked and must always be compared.
+     * @throws SmartUriException
+     */
+    public default Set<String> getBlockingKeys(final String string) throws SmartUriException {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Creates the candidate keys of a checked value. Only the stored values
+     * that have one of these blocking keys may be approximately equal to it.
+     * @param string the {@link String} representation of the checked value.
+     * @return the candidate keys of the value or {@link Optional#empty()} if
+     * any stored value may be approximately equal to it.
+     * @throws SmartUriException
+     */
+    public default Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.smarturi.duplication;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Creates the blocking keys used by the {@link ApproxEqualsDetector}s. A value
+ * is stored with its blocking keys. When a value is checked, its candidate keys
+ * are created. Every stored value that is approximately equal to the checked
+ * value has at least one of the candidate keys, so only the stored values that
+ * share a key need to be compared. The keys may also match values that are not
+ * approximately equal. Those are removed by the comparison.
+ */
+final class BlockingKeys {
+    /**
+     * The largest number of keys that a range of buckets may produce before the
+     * value is treated as unconstrained.
+     */
+    private static final int MAX_RANGE_KEYS = 64;
+
+    /**
+     * The longest string whose deletion neighborhood is used as its keys.
+     */
+    private static final int MAX_NEIGHBORHOOD_LENGTH = 64;
+
+    /**
+     * Bucket numbers beyond this magnitude are not used.
+     */
+    private static final long MAX_BUCKET = 1L << 62;
+
+    /**
+     * Stored values that can never match a candidate of the percentage scheme.
+     */
+    private static final String NOT_POSITIVE_KEY = "p-";
+
+    private BlockingKeys() {
+    }
+
+    /**
+     * Creates the keys of a value that only matches exactly equal values.
+     * @param value the value.
+     * @return the keys.
+     */
+    public static Set<String> exactKeys(final Object value) {
+        return Collections.singleton("=" + value);
+    }
+
+    /**
+     * Creates the blocking keys of a whole number.
+     * @param value the stored value.
+     * @param tolerance the {@link Tolerance}.
+     * @return the keys, or an empty {@link Set} if the value can not be blocked.
+     */
+    public static Set<String> integralKeys(final long value, final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Collections.emptySet();
+        } else if (t == 0) {
+            return exactKeys(value);
+        }
+        switch (tolerance.getToleranceType()) {
+            case PERCENTAGE:
+                return percentageKeys(value, t);
+            case DIFFERENCE:
+            default:
+                final long width = (long) Math.ceil(t);
+                if (width >= MAX_BUCKET) {
+                    return Collections.emptySet();
+                }
+                return Collections.singleton("d" + Math.floorDiv(value, width));
+        }
+    }
+
+    /**
+     * Creates the candidate keys of a whole number.
+     * @param value the checked value.
+     * @param tolerance the {@link Tolerance}.
+     * @return the keys, or {@link Optional#empty()} if any value may match.
+     */
+    public static Optional<Set<String>> integralCandidateKeys(final long value, final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Optional.empty();
+        } else if (t == 0) {
+            return Optional.of(exactKeys(value));
+        }
+        switch (tolerance.getToleranceType()) {
+            case PERCENTAGE:
+                return percentageCandidateKeys(value, t);
+            case DIFFERENCE:
+            default:
+                final long width = (long) Math.ceil(t);
+                if (width >= MAX_BUCKET) {
+                    return Optional.empty();
+                }
+                // Values within the tolerance are at most one bucket apart.
+                final long bucket = Math.floorDiv(value, width);
+                return Optional.of(rangeKeys("d", bucket - 1, bucket + 1));
+        }
+    }
+
+    /**
+     * Creates the blocking keys of a decimal number.
+     * @param value the stored value.
+     * @param tolerance the {@link Tolerance}.
+     * @return the keys, or an empty {@link Set} if the value can not be blocked.
+     */
+    public static Set<String> decimalKeys(final Number value, final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Collections.emptySet();
+        } else if (t == 0) {
+            return exactKeys(value);
+        }
+        switch (tolerance.getToleranceType()) {
+            case PERCENTAGE:
+                return percentageKeys(value.doubleValue(), t);
+            case DIFFERENCE:
+            default:
+                final Optional<Long> bucket = decimalBucket(value, t);
+                return bucket.isPresent() ? Collections.singleton("d" + bucket.get()) : Collections.emptySet();
+        }
+    }
+
+    /**
+     * Creates the candidate keys of a decimal number.
+     * @param value the checked value.
+     * @param tolerance the {@link Tolerance}.
+     * @return the keys, or {@link Optional#empty()} if any value may match.
+     */
+    public static Optional<Set<String>> decimalCandidateKeys(final Number value, final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Optional.empty();
+        } else if (t == 0) {
+            return Optional.of(exactKeys(value));
+        }
+        switch (tolerance.getToleranceType()) {
+            case PERCENTAGE:
+                return percentageCandidateKeys(value.doubleValue(), t);
+            case DIFFERENCE:
+            default:
+                // The difference is compared as a double, so allow an extra
+                // bucket on each side for rounding.
+                final Optional<Long> bucket = decimalBucket(value, t);
+                return bucket.isPresent() ? Optional.of(rangeKeys("d", bucket.get() - 2, bucket.get() + 2)) : Optional.empty();
+        }
+    }
+
+    /**
+     * Creates the blocking keys of a string.
+     * @param value the stored value.
+     * @param tolerance the {@link Tolerance}.
+     * @return the keys, or an empty {@link Set} if the value can not be blocked.
+     */
+    public static Set<String> stringKeys(final String value, final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Collections.emptySet();
+        }
+        final String folded = foldCase(value);
+        switch (getStringScheme(tolerance)) {
+            case EXACT:
+                return exactKeys(folded);
+            case NEIGHBORHOOD:
+                if (folded.length() > MAX_NEIGHBORHOOD_LENGTH) {
+                    return Collections.emptySet();
+                }
+                return deletionNeighborhood(folded);
+            case LENGTH:
+                return Collections.singleton("#" + value.length());
+            case NONE:
+            default:
+                return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Creates the candidate keys of a string.
+     * @param value the checked value.
+     * @param tolerance the {@link Tolerance}.
+     * @param equivalentTermsMap the {@link Map} of terms that are considered
+     * equivalent to each other. (not {@code null})
+     * @return the keys, or {@link Optional#empty()} if any value may match.
+     */
+    public static Optional<Set<String>> stringCandidateKeys(final String value, final Tolerance tolerance, final Map<String, List<String>> equivalentTermsMap) {
+        final double t = tolerance.getValue();
+        if (t < 0) {
+            return Optional.empty();
+        }
+
+        // Equivalent terms only apply when there is a tolerance.
+        final Collection<String> equivalents = t == 0 || equivalentTermsMap.get(value) == null ?
+                Collections.emptyList() : equivalentTermsMap.get(value);
+
+        final String folded = foldCase(value);
+        final Set<String> keys = new LinkedHashSet<>();
+        switch (getStringScheme(tolerance)) {
+            case EXACT:
+                keys.add("=" + folded);
+                for (final String equivalent : equivalents) {
+                    keys.add("=" + foldCase(equivalent));
+                }
+                return Optional.of(keys);
+            case NEIGHBORHOOD:
+                if (folded.length() > MAX_NEIGHBORHOOD_LENGTH) {
+                    return Optional.empty();
+                }
+                keys.addAll(deletionNeighborhood(folded));
+                for (final String equivalent : equivalents) {
+                    keys.add("~" + foldCase(equivalent));
+                }
+                return Optional.of(keys);
+            case LENGTH:
+                // The edit distance is at least the difference of the lengths.
+                final long distance;
+                if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+                    distance = (long) Math.floor(t * value.length());
+                } else {
+                    distance = (long) Math.floor(t);
+                }
+                if (distance > MAX_RANGE_KEYS) {
+                    return Optional.empty();
+                }
+                keys.addAll(rangeKeys("#", Math.max(0, value.length() - distance), value.length() + distance));
+                for (final String equivalent : equivalents) {
+                    keys.add("#" + equivalent.length());
+                }
+                return Optional.of(keys);
+            case NONE:
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * The ways strings are blocked.
+     */
+    private enum StringScheme {
+        /**
+         * Only strings that are equal when case is ignored match.
+         */
+        EXACT,
+        /**
+         * Strings within an edit distance of one match. Their deletion
+         * neighborhoods intersect.
+         */
+        NEIGHBORHOOD,
+        /**
+         * Strings whose lengths are within the tolerance match.
+         */
+        LENGTH,
+        /**
+         * Every string matches.
+         */
+        NONE;
+    }
+
+    private static StringScheme getStringScheme(final Tolerance tolerance) {
+        final double t = tolerance.getValue();
+        if (t == 0) {
+            return StringScheme.EXACT;
+        }
+        switch (tolerance.getToleranceType()) {
+            case PERCENTAGE:
+                return t >= 1 ? StringScheme.NONE : StringScheme.LENGTH;
+            case DIFFERENCE:
+            default:
+                if (t < 1) {
+                    return StringScheme.EXACT;
+                } else if (t < 2) {
+                    return StringScheme.NEIGHBORHOOD;
+                }
+                return StringScheme.LENGTH;
+        }
+    }
+
+    /**
+     * Folds the case of each character the same way
+     * {@link String#equalsIgnoreCase(String)} compares them.
+     */
+    private static String foldCase(final String value) {
+        final char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the string and every string made by deleting one of its characters.
+     */
+    private static Set<String> deletionNeighborhood(final String value) {
+        final Set<String> keys = new LinkedHashSet<>();
+        keys.add("~" + value);
+        for (int i = 0; i < value.length(); i++) {
+            keys.add("~" + value.substring(0, i) + value.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Stored values are placed in logarithmic buckets that are one tolerance wide.
+     */
+    private static Set<String> percentageKeys(final double value, final double tolerance) {
+        if (tolerance >= 1) {
+            return Collections.emptySet();
+        } else if (value <= 0) {
+            return Collections.singleton(NOT_POSITIVE_KEY);
+        }
+        return Collections.singleton("p" + (long) Math.floor(Math.log(value) / Math.log1p(tolerance)));
+    }
+
+    private static Optional<Set<String>> percentageCandidateKeys(final double value, final double tolerance) {
+        // The percentage is relative to the checked value, so a checked value
+        // that is not positive matches any value.
+        if (tolerance >= 1 || value <= 0 || Double.isInfinite(value) || Double.isNaN(value)) {
+            return Optional.empty();
+        }
+        final double width = Math.log1p(tolerance);
+        final double lowBucket = Math.floor(Math.log(value * (1 - tolerance)) / width);
+        final double highBucket = Math.floor(Math.log(value * (1 + tolerance)) / width);
+        if (Double.isInfinite(lowBucket) || Double.isInfinite(highBucket) || highBucket - lowBucket > MAX_RANGE_KEYS) {
+            return Optional.empty();
+        }
+        final long low = (long) lowBucket - 1;
+        final long high = (long) highBucket + 1;
+        return Optional.of(rangeKeys("p", low, high));
+    }
+
+    private static Optional<Long> decimalBucket(final Number value, final double tolerance) {
+        final BigDecimal bucket = new BigDecimal(String.valueOf(value))
+                .divide(new BigDecimal(String.valueOf(tolerance)), 0, RoundingMode.FLOOR);
+        if (bucket.abs().compareTo(BigDecimal.valueOf(MAX_BUCKET)) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(bucket.longValue());
+    }
+
+    private static Set<String> rangeKeys(final String prefix, final long low, final long high) {
+        final Set<String> keys = new LinkedHashSet<>();
+        for (long i = low; i <= high; i++) {
+            keys.add(prefix + i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.smarturi.duplication;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.rya.indexing.entity.model.Entity;
+
+/**
+ * An in memory index of {@link Entity}s by their blocking keys. It finds the
+ * entities that may be nearly identical to an entity without comparing it to
+ * every entity in the index. The candidates must still be compared with
+ * {@link DuplicateDataDetector#compareEntities(Entity, Entity)}.
+ */
+public class DuplicateCandidateIndex {
+    private final DuplicateDataDetector duplicateDataDetector;
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<Set<String>> entityKeys = new ArrayList<>();
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+
+    /**
+     * Creates a new instance of {@link DuplicateCandidateIndex}.
+     * @param duplicateDataDetector the {@link DuplicateDataDetector} that
+     * creates the blocking keys. (not {@code null})
+     */
+    public DuplicateCandidateIndex(final DuplicateDataDetector duplicateDataDetector) {
+        this.duplicateDataDetector = requireNonNull(duplicateDataDetector);
+    }
+
+    /**
+     * Adds an entity to the index.
+     * @param entity the {@link Entity}. (not {@code null})
+     * @return the position of the entity within the index.
+     */
+    public int add(final Entity entity) {
+        requireNonNull(entity);
+        final int position = entities.size();
+        final Set<String> keys = duplicateDataDetector.getBlockingKeys(entity);
+        entities.add(entity);
+        entityKeys.add(keys);
+        for (final String key : keys) {
+            postings.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+        }
+        return position;
+    }
+
+    /**
+     * @param position the position of the entity within the index.
+     * @return the {@link Entity} at the position.
+     */
+    public Entity get(final int position) {
+        return entities.get(position);
+    }
+
+    /**
+     * @return the number of entities in the index.
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * Finds the entities that may be nearly identical to an entity.
+     * @param entity the checked {@link Entity}. (not {@code null})
+     * @return the positions of the candidate entities.
+     */
+    public NavigableSet<Integer> getCandidates(final Entity entity) {
+        requireNonNull(entity);
+        final NavigableSet<Integer> candidates = new TreeSet<>();
+        final List<Set<String>> candidateKeys = duplicateDataDetector.getCandidateKeys(entity);
+        if (candidateKeys.isEmpty()) {
+            for (int i = 0; i < entities.size(); i++) {
+                candidates.add(i);
+            }
+            return candidates;
+        }
+
+        // Start from the property with the fewest matching entities.
+        Set<String> smallest = null;
+        int smallestCount = Integer.MAX_VALUE;
+        for (final Set<String> keys : candidateKeys) {
+            int count = 0;
+            for (final String key : keys) {
+                count += postings.getOrDefault(key, Collections.emptyList()).size();
+            }
+            if (count < smallestCount) {
+                smallest = keys;
+                smallestCount = count;
+            }
+        }
+
+        for (final String key : smallest) {
+            for (final int position : postings.getOrDefault(key, Collections.emptyList())) {
+                if (hasKeyFromEach(entityKeys.get(position), candidateKeys)) {
+                    candidates.add(position);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean hasKeyFromEach(final Set<String> keys, final List<Set<String>> candidateKeys) {
+        for (final Set<String> propertyKeys : candidateKeys) {
+            if (Collections.disjoint(keys, propertyKeys)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -21,9 +21,13 @@ package org.apache.rya.indexing.smarturi.duplication;
 import static java.util.Objects.requireNonNull;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +54,7 @@ import org.openrdf.model.impl.URIImpl;
 import org.openrdf.model.vocabulary.XMLSchema;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 
 /**
  * Detects if two entities contain data that's nearly identical based on a set
@@ -63,10 +68,21 @@ import com.google.common.collect.ImmutableMap;
  * compared.
  */
 public class DuplicateDataDetector {
+    /**
+     * Changes when the way blocking keys are created changes.
+     */
+    private static final String BLOCKING_KEYS_SCHEME = "1";
+
+    /**
+     * The blocking key of a value that can not be blocked.
+     */
+    private static final String WILDCARD_BLOCKING_KEY = "*";
+
     private final Map<URI, ApproxEqualsDetector<?>> uriMap = new HashMap<>();
     private final Map<Class<?>, ApproxEqualsDetector<?>> classMap = new HashMap<>();
 
     private boolean isDetectionEnabled;
+    private String blockingKeysVersion;
 
     /**
      * Creates a new instance of {@link DuplicateDataDetector} with the
@@ -179,6 +195,18 @@ public class DuplicateDataDetector {
         }
 
         this.isDetectionEnabled = isDetectionEnabled;
+
+        // Blocking keys that were created with different tolerances can not be used.
+        final StringBuilder version = new StringBuilder(BLOCKING_KEYS_SCHEME);
+        for (final Tolerance tolerance : Arrays.asList(booleanTolerance, byteTolerance, dateTolerance, doubleTolerance,
+                floatTolerance, integerTolerance, longTolerance, shortTolerance, stringTolerance, uriTolerance)) {
+            version.append('|');
+            if (tolerance != null) {
+                version.append(tolerance.getToleranceType()).append(':').append(tolerance.getValue());
+            }
+        }
+        version.append('|').append(equivalentTermsMap);
+        blockingKeysVersion = Hashing.md5().hashString(version, StandardCharsets.UTF_8).toString();
     }
 
     /**
@@ -200,11 +228,17 @@ public class DuplicateDataDetector {
         // Use a Sorted Set in reverse order to hold the indices
         final Set<Integer> indicesToRemove = new TreeSet<>((a, b) -> Integer.compare(b, a));
         if (entities != null && entities.size() > 1) {
-            // Compare all entities to each other while avoiding making the
-            // same comparisons again and not comparing an entity to itself.
+            final DuplicateCandidateIndex index = new DuplicateCandidateIndex(this);
+            for (final Entity entity : entities) {
+                index.add(entity);
+            }
+
+            // Compare each entity to the entities after it that share its
+            // blocking keys while avoiding making the same comparisons again
+            // and not comparing an entity to itself.
             for (int i = 0; i < entities.size() - 1; i++) {
                 final Entity entity1 = entities.get(i);
-                for (int j = entities.size() - 1; j > i; j--) {
+                for (final int j : index.getCandidates(entity1).descendingSet().headSet(i)) {
                     final Entity entity2 = entities.get(j);
                     final boolean areDuplicates = compareEntities(entity1, entity2);
                     if (areDuplicates) {
@@ -222,6 +256,104 @@ public class DuplicateDataDetector {
         }
     }
 
+    /**
+     * @return identifies the tolerances the blocking keys are created with.
+     * Blocking keys that were created with a different version must not be
+     * used.
+     */
+    public String getBlockingKeysVersion() {
+        return blockingKeysVersion;
+    }
+
+    /**
+     * Creates the blocking keys of an entity's properties. An entity may only
+     * be nearly identical to another entity if it has at least one of the keys
+     * from each of the sets returned by {@link #getCandidateKeys(Entity)} for
+     * the other entity. Values are only compared with stored values of the same
+     * data type.
+     * @param entity the stored {@link Entity}. (not {@code null})
+     * @return the blocking keys.
+     */
+    public Set<String> getBlockingKeys(final Entity entity) {
+        requireNonNull(entity);
+        final Set<String> keys = new HashSet<>();
+        for (final Entry<RyaURI, ImmutableMap<RyaURI, Property>> entry : entity.getProperties().entrySet()) {
+            for (final Property property : entry.getValue().values()) {
+                final String prefix = getBlockingKeyPrefix(entry.getKey(), property);
+                final ApproxEqualsDetector<?> approxEqualsDetector = uriMap.get(property.getValue().getDataType());
+
+                Set<String> propertyKeys = Collections.emptySet();
+                if (approxEqualsDetector != null) {
+                    try {
+                        propertyKeys = approxEqualsDetector.getBlockingKeys(property.getValue().getData());
+                    } catch (final SmartUriException | IllegalArgumentException e) {
+                        // The value can not be blocked, so it will always be a candidate.
+                    }
+                }
+
+                if (propertyKeys.isEmpty()) {
+                    keys.add(hashBlockingKey(prefix, WILDCARD_BLOCKING_KEY));
+                } else {
+                    for (final String key : propertyKeys) {
+                        keys.add(hashBlockingKey(prefix, key));
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Creates the candidate keys of an entity's properties. Only entities
+     * that have at least one of the keys from each of the returned sets in
+     * their {@link #getBlockingKeys(Entity)} may be nearly identical to it.
+     * @param entity the checked {@link Entity}. (not {@code null})
+     * @return the sets of candidate keys. An empty {@link List} if any entity
+     * may be nearly identical to it.
+     */
+    public List<Set<String>> getCandidateKeys(final Entity entity) {
+        requireNonNull(entity);
+        final List<Set<String>> candidateKeys = new ArrayList<>();
+        for (final Entry<RyaURI, ImmutableMap<RyaURI, Property>> entry : entity.getProperties().entrySet()) {
+            for (final Property property : entry.getValue().values()) {
+                final ApproxEqualsDetector<?> approxEqualsDetector = uriMap.get(property.getValue().getDataType());
+                if (approxEqualsDetector == null) {
+                    continue;
+                }
+
+                Optional<Set<String>> propertyKeys = Optional.empty();
+                try {
+                    propertyKeys = approxEqualsDetector.getCandidateKeys(property.getValue().getData());
+                } catch (final SmartUriException | IllegalArgumentException e) {
+                    // The value can not be blocked, so it does not constrain the candidates.
+                }
+
+                if (propertyKeys.isPresent()) {
+                    final String prefix = getBlockingKeyPrefix(entry.getKey(), property);
+                    final Set<String> keys = new HashSet<>();
+                    keys.add(hashBlockingKey(prefix, WILDCARD_BLOCKING_KEY));
+                    for (final String key : propertyKeys.get()) {
+                        keys.add(hashBlockingKey(prefix, key));
+                    }
+                    candidateKeys.add(keys);
+                }
+            }
+        }
+        return candidateKeys;
+    }
+
+    private static String getBlockingKeyPrefix(final RyaURI typeIdUri, final Property property) {
+        return typeIdUri.getData() + '\u0000' + property.getName().getData() + '\u0000' + property.getValue().getDataType() + '\u0000';
+    }
+
+    /**
+     * Hashes the keys so they are short enough to be indexed. A collision
+     * only adds a candidate.
+     */
+    private static String hashBlockingKey(final String prefix, final String key) {
+        return Hashing.murmur3_128().hashString(prefix + key, StandardCharsets.UTF_8).toString();
+    }
+
     /**
      * Compares two Smart URI's to determine if they have nearly identical data.
      * @param uri1 the first Smart {@link URI}. (not {@code null})
@@ -350,6 +482,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.BOOLEAN;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return tolerance.getValue() == 0 ? BlockingKeys.exactKeys(convertStringToObject(string)) : Collections.emptySet();
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return tolerance.getValue() == 0 ? Optional.of(BlockingKeys.exactKeys(convertStringToObject(string))) : Optional.empty();
+        }
     }
 
     /**
@@ -415,6 +557,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.BYTE;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -489,6 +641,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.DATE;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string).getTime(), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string).getTime(), tolerance);
+        }
     }
 
     /**
@@ -562,6 +724,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.DATETIME;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string).getMillis(), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string).getMillis(), tolerance);
+        }
     }
 
     /**
@@ -641,6 +813,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.DOUBLE;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -721,6 +903,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.FLOAT;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -786,6 +978,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.INTEGER;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -851,6 +1053,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.LONG;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -916,6 +1128,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.SHORT;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralKeys(convertStringToObject(string), tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidateKeys(convertStringToObject(string), tolerance);
+        }
     }
 
     /**
@@ -991,6 +1213,16 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.STRING;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.stringKeys(string, tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.stringCandidateKeys(string, tolerance, equivalentTermsMap);
+        }
     }
 
     /**
@@ -1062,5 +1294,15 @@ public class DuplicateDataDetector {
         public URI getXmlSchemaUri() {
             return XMLSchema.ANYURI;
         }
+
+        @Override
+        public Set<String> getBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.stringKeys(string, tolerance);
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateKeys(final String string) throws SmartUriException {
+            return BlockingKeys.stringCandidateKeys(string, tolerance, Collections.emptyMap());
+        }
     }
 }
@@ -42,6 +42,7 @@ import org.apache.rya.api.domain.RyaURI;
 import org.apache.rya.api.domain.StatementMetadata;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.query.RyaQueryEngine;
+import org.apache.rya.api.query.filter.StatementMetadataFilter;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.rya.api.resolver.RyaToRdfConversions;
 import org.apache.rya.rdftriplestore.evaluation.ExternalBatchingIterator;
@@ -332,7 +333,7 @@ public class StatementMetadataNode<C extends RdfCloudTripleStoreConfiguration> e
 
         final CloseableIteration<? extends Entry<RyaStatement, BindingSet>, RyaDAOException> iteration;
         try {
-            iteration = queryEngine.queryWithBindingSet(statements, conf);
+            iteration = queryEngine.queryWithBindingSet(statements, getQueryConf());
         } catch (RyaDAOException e) {
             throw new RuntimeException(e);
         }
@@ -340,6 +341,37 @@ public class StatementMetadataNode<C extends RdfCloudTripleStoreConfiguration> e
         return new PropertyFilterAndBindingSetJoinIteration(iteration, properties, statement);
     }
 
+    /**
+     * Ships the metadata properties of this node with the query so that the store can drop
+     * statements whose metadata can not match before they are returned. The properties are still
+     * checked by {@link PropertyFilterAndBindingSetJoinIteration}, which also binds their values.
+     *
+     * @return The configuration the query is issued with.
+     */
+    @SuppressWarnings("unchecked")
+    private C getQueryConf() {
+        if (!conf.isStatementMetadataFilterPushdownEnabled()) {
+            return conf;
+        }
+        final Map<RyaURI, RyaType> requiredValues = new HashMap<>();
+        final Set<RyaURI> requiredProperties = new HashSet<>();
+        for (final Map.Entry<RyaURI, Var> entry : properties.entrySet()) {
+            final Var var = entry.getValue();
+            if (var.hasValue()) {
+                requiredValues.put(entry.getKey(), RdfToRyaConversions.convertValue(var.getValue()));
+            } else {
+                requiredProperties.add(entry.getKey());
+            }
+        }
+        final StatementMetadataFilter filter = new StatementMetadataFilter(requiredValues, requiredProperties);
+        if (filter.isEmpty()) {
+            return conf;
+        }
+        final C queryConf = (C) conf.clone();
+        queryConf.setStatementMetadataFilter(filter.serialize());
+        return queryConf;
+    }
+
     /**
      * Uses StatementPattern constraints to form a RyaStatement, and fills in
      * any null values with {@link BindingSet} values corresponding to the
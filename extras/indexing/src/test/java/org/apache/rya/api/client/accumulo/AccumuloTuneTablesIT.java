@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.client.accumulo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.rya.accumulo.AccumuloITBase;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.client.Install.InstallConfiguration;
+import org.apache.rya.api.client.InstanceDoesNotExistException;
+import org.apache.rya.api.client.RyaClient;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.rio.RDFFormat;
+
+/**
+ * Integration tests the methods of {@link AccumuloTuneTables}.
+ */
+public class AccumuloTuneTablesIT extends AccumuloITBase {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test(expected = InstanceDoesNotExistException.class)
+    public void instanceDoesNotExist() throws Exception {
+        final AccumuloConnectionDetails connectionDetails = new AccumuloConnectionDetails(
+                getUsername(),
+                getPassword().toCharArray(),
+                getInstanceName(),
+                getZookeepers());
+
+        new AccumuloTuneTables(connectionDetails, getConnector()).tuneTables("instance_that_does_not_exist", 0, Optional.empty(), Optional.empty());
+    }
+
+    @Test
+    public void tuneTables_splitsFromSample() throws Exception {
+        final RyaClient ryaClient = install();
+
+        // Tune the tables using a sample with several subjects.
+        ryaClient.getTuneTables().get().tuneTables(getRyaInstanceName(), 2, Optional.of(writeSample()), Optional.of(RDFFormat.NTRIPLES));
+
+        // Verify the core tables were split.
+        final TableOperations tableOps = getConnector().tableOperations();
+        final String spoTable = getRyaInstanceName() + RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX;
+        assertFalse( tableOps.listSplits(spoTable).isEmpty() );
+        assertTrue( tableOps.listSplits(spoTable).size() <= 2 );
+    }
+
+    @Test
+    public void tuneTables_dictionaryLayoutNotSplit() throws Exception {
+        final RyaClient ryaClient = install();
+
+        // The presence of the term dictionary table marks the instance as dictionary encoded.
+        final TableOperations tableOps = getConnector().tableOperations();
+        tableOps.create(getRyaInstanceName() + RdfCloudTripleStoreConstants.TBL_TERM2ID_SUFFIX);
+
+        // Tune the tables using a sample with several subjects.
+        ryaClient.getTuneTables().get().tuneTables(getRyaInstanceName(), 2, Optional.of(writeSample()), Optional.of(RDFFormat.NTRIPLES));
+
+        // Verify the core tables were not split, because their rows hold ids instead of terms.
+        final String spoTable = getRyaInstanceName() + RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX;
+        assertEquals(0, tableOps.listSplits(spoTable).size());
+    }
+
+    private RyaClient install() throws Exception {
+        final AccumuloConnectionDetails connectionDetails = new AccumuloConnectionDetails(
+                getUsername(),
+                getPassword().toCharArray(),
+                getInstanceName(),
+                getZookeepers());
+        final RyaClient ryaClient = AccumuloRyaClientFactory.build(connectionDetails, getConnector());
+        ryaClient.getInstall().install(getRyaInstanceName(), InstallConfiguration.builder().build());
+        return ryaClient;
+    }
+
+    private Path writeSample() throws Exception {
+        final Path sample = tempFolder.newFile("sample.nt").toPath();
+        Files.write(sample, Arrays.asList(
+                "<urn:alice> <urn:talksTo> <urn:bob> .",
+                "<urn:bob> <urn:talksTo> <urn:charlie> .",
+                "<urn:charlie> <urn:talksTo> <urn:david> .",
+                "<urn:david> <urn:talksTo> <urn:eve> .",
+                "<urn:eve> <urn:talksTo> <urn:alice> ."),
+                StandardCharsets.UTF_8);
+        return sample;
+    }
+}
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.rya.api.domain.RyaURI;
@@ -45,6 +46,7 @@ import org.openrdf.query.algebra.helpers.StatementPatternCollector;
 import org.openrdf.query.impl.MapBindingSet;
 import org.openrdf.query.parser.sparql.SPARQLParser;
 
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableSet;
 
 import info.aduna.iteration.CloseableIteration;
@@ -272,6 +274,103 @@ public class EntityQueryNodeIT extends MongoITBase {
         }
     }
 
+    @Test
+    public void evaluate_multipleBindingSets() throws Exception {
+        final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), "testDB");
+        final ValueFactory vf = ValueFactoryImpl.getInstance();
+        storage.create(Entity.builder()
+                .setSubject(new RyaURI("urn:SSN:111-11-1111"))
+                .setExplicitType(PERSON_TYPE.getId())
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:age"), RdfToRyaConversions.convertLiteral(vf.createLiteral(20))))
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:eye"), RdfToRyaConversions.convertLiteral(vf.createLiteral("blue"))))
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:name"), RdfToRyaConversions.convertLiteral(vf.createLiteral("Bob"))))
+                .build());
+        storage.create(Entity.builder()
+                .setSubject(new RyaURI("urn:SSN:222-22-2222"))
+                .setExplicitType(PERSON_TYPE.getId())
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:age"), RdfToRyaConversions.convertLiteral(vf.createLiteral(25))))
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:eye"), RdfToRyaConversions.convertLiteral(vf.createLiteral("brown"))))
+                .setProperty(PERSON_TYPE.getId(), new Property(new RyaURI("urn:name"), RdfToRyaConversions.convertLiteral(vf.createLiteral("Fred"))))
+                .build());
+
+        final List<StatementPattern> patterns = getSPs(
+                "SELECT * WHERE { " +
+                    "?ssn <" + RDF.TYPE + "> <urn:person> ."+
+                    "?ssn <urn:age> ?age . " +
+                    "?ssn <urn:eye> ?eye . " +
+                    "?ssn <urn:name> ?name . " +
+                "}");
+        final EntityQueryNode node = new EntityQueryNode(PERSON_TYPE, patterns, storage);
+
+        // Two binding sets share Bob's subject, and one of them also binds his eye color.
+        final MapBindingSet bob = new MapBindingSet();
+        bob.addBinding("ssn", vf.createURI("urn:SSN:111-11-1111"));
+        final MapBindingSet blueEyedBob = new MapBindingSet();
+        blueEyedBob.addBinding("ssn", vf.createURI("urn:SSN:111-11-1111"));
+        blueEyedBob.addBinding("eye", vf.createLiteral("blue"));
+        final MapBindingSet fred = new MapBindingSet();
+        fred.addBinding("ssn", vf.createURI("urn:SSN:222-22-2222"));
+        // Neither of these have a matching Entity.
+        final MapBindingSet brownEyedBob = new MapBindingSet();
+        brownEyedBob.addBinding("ssn", vf.createURI("urn:SSN:111-11-1111"));
+        brownEyedBob.addBinding("eye", vf.createLiteral("brown"));
+        final MapBindingSet nobody = new MapBindingSet();
+        nobody.addBinding("ssn", vf.createURI("urn:SSN:333-33-3333"));
+
+        final List<BindingSet> results = new ArrayList<>();
+        final CloseableIteration<BindingSet, QueryEvaluationException> rez =
+                node.evaluate(Arrays.<BindingSet>asList(bob, blueEyedBob, brownEyedBob, nobody, fred, bob));
+        try {
+            while(rez.hasNext()) {
+                results.add(rez.next());
+            }
+        } finally {
+            rez.close();
+        }
+
+        final MapBindingSet expectedBob = new MapBindingSet();
+        expectedBob.addBinding("ssn", vf.createURI("urn:SSN:111-11-1111"));
+        expectedBob.addBinding("age", vf.createLiteral("20"));
+        expectedBob.addBinding("eye", vf.createLiteral("blue"));
+        expectedBob.addBinding("name", vf.createLiteral("Bob"));
+
+        final MapBindingSet expectedFred = new MapBindingSet();
+        expectedFred.addBinding("ssn", vf.createURI("urn:SSN:222-22-2222"));
+        expectedFred.addBinding("age", vf.createLiteral("25"));
+        expectedFred.addBinding("eye", vf.createLiteral("brown"));
+        expectedFred.addBinding("name", vf.createLiteral("Fred"));
+
+        // Every binding set is evaluated, and the ones without a matching Entity are passed through.
+        final List<BindingSet> expected = Arrays.<BindingSet>asList(expectedBob, expectedBob, expectedBob, expectedFred, brownEyedBob, nobody);
+        assertEquals(HashMultiset.create(expected), HashMultiset.create(results));
+    }
+
+    @Test
+    public void evaluate_constantSubjectNoEntity() throws Exception {
+        final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), "testDB");
+        final ValueFactory vf = ValueFactoryImpl.getInstance();
+        final List<StatementPattern> patterns = getSPs(
+                "SELECT * WHERE { " +
+                    "<urn:SSN:111-11-1111> <" + RDF.TYPE + "> <urn:person> ."+
+                    "<urn:SSN:111-11-1111> <urn:name> ?name . " +
+                "}");
+        final EntityQueryNode node = new EntityQueryNode(PERSON_TYPE, patterns, storage);
+
+        final MapBindingSet bindingSet = new MapBindingSet();
+        bindingSet.addBinding("x", vf.createLiteral("y"));
+
+        final List<BindingSet> results = new ArrayList<>();
+        final CloseableIteration<BindingSet, QueryEvaluationException> rez = node.evaluate(bindingSet);
+        try {
+            while(rez.hasNext()) {
+                results.add(rez.next());
+            }
+        } finally {
+            rez.close();
+        }
+        assertEquals(Arrays.<BindingSet>asList(bindingSet), results);
+    }
+
     /**
      * TODO doc
      *
@@ -136,6 +136,84 @@ public class MongoEntityStorageIT extends MongoITBase {
         assertFalse( deleted );
     }
 
+    @Test
+    public void merge() throws Exception {
+        // An Entity that will be stored.
+        final Entity entity = Entity.builder()
+                .setSubject(new RyaURI("urn:GTIN-14/00012345600012"))
+                .setExplicitType(new RyaURI("urn:icecream"))
+                .setProperty(new RyaURI("urn:icecream"), new Property(new RyaURI("urn:brand"), new RyaType(XMLSchema.STRING, "Awesome Icecream")))
+                .build();
+
+        // Create it.
+        final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), RYA_INSTANCE_NAME);
+        storage.create(entity);
+
+        // Merge a new Type and Property into it.
+        storage.merge(Entity.builder()
+                .setSubject(new RyaURI("urn:GTIN-14/00012345600012"))
+                .setExplicitType(new RyaURI("urn:dessert"))
+                .setProperty(new RyaURI("urn:icecream"), new Property(new RyaURI("urn:flavor"), new RyaType(XMLSchema.STRING, "Chocolate")))
+                .build());
+
+        // Verify the stored Entity holds both the old and the merged values.
+        final Entity expected = Entity.builder()
+                .setSubject(new RyaURI("urn:GTIN-14/00012345600012"))
+                .setExplicitType(new RyaURI("urn:icecream"))
+                .setExplicitType(new RyaURI("urn:dessert"))
+                .setProperty(new RyaURI("urn:icecream"), new Property(new RyaURI("urn:brand"), new RyaType(XMLSchema.STRING, "Awesome Icecream")))
+                .setProperty(new RyaURI("urn:icecream"), new Property(new RyaURI("urn:flavor"), new RyaType(XMLSchema.STRING, "Chocolate")))
+                .setVersion(1)
+                .build();
+        assertEquals(expected, storage.get(new RyaURI("urn:GTIN-14/00012345600012")).get());
+    }
+
+    @Test
+    public void merge_nonExisting() throws Exception {
+        // Merge into an Entity that has not been created.
+        final Entity entity = Entity.builder()
+                .setSubject(new RyaURI("urn:GTIN-14/00012345600012"))
+                .setExplicitType(new RyaURI("urn:icecream"))
+                .setProperty(new RyaURI("urn:icecream"), new Property(new RyaURI("urn:brand"), new RyaType(XMLSchema.STRING, "Awesome Icecream")))
+                .build();
+
+        final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), RYA_INSTANCE_NAME);
+        storage.merge(entity);
+
+        // Verify the Entity was created.
+        final Optional<Entity> storedEntity = storage.get(new RyaURI("urn:GTIN-14/00012345600012"));
+        assertTrue(storedEntity.isPresent());
+        assertEquals(entity.getExplicitTypeIds(), storedEntity.get().getExplicitTypeIds());
+        assertEquals(entity.getProperties(), storedEntity.get().getProperties());
+
+        // Merged Entities start at the same version as created ones.
+        assertEquals(entity.getVersion(), storedEntity.get().getVersion());
+    }
+
+    @Test
+    public void merge_typeIdWithDots() throws Exception {
+        final RyaURI subject = new RyaURI("urn:GTIN-14/00012345600012");
+        final RyaURI icecreamType = new RyaURI("http://example.org/icecream");
+
+        final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), RYA_INSTANCE_NAME);
+        storage.create(Entity.builder()
+                .setSubject(subject)
+                .setExplicitType(icecreamType)
+                .setProperty(icecreamType, new Property(new RyaURI("urn:brand"), new RyaType(XMLSchema.STRING, "Awesome Icecream")))
+                .build());
+
+        // The Type's id is encoded the same way whether it is written by create or merge.
+        storage.merge(Entity.builder()
+                .setSubject(subject)
+                .setProperty(icecreamType, new Property(new RyaURI("urn:flavor"), new RyaType(XMLSchema.STRING, "Chocolate")))
+                .build());
+
+        final Entity stored = storage.get(subject).get();
+        assertEquals(ImmutableSet.of(icecreamType), stored.getProperties().keySet());
+        assertEquals(2, stored.getProperties().get(icecreamType).size());
+        assertEquals(1, stored.getVersion());
+    }
+
     @Test
     public void search_byDataType() throws Exception {
         final EntityStorage storage = new MongoEntityStorage(super.getMongoClient(), RYA_INSTANCE_NAME);
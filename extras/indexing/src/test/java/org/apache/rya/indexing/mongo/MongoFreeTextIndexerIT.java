@@ -33,6 +33,7 @@ import org.apache.rya.indexing.StatementConstraints;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.apache.rya.indexing.mongodb.freetext.MongoFreeTextIndexer;
 import org.apache.rya.mongodb.MongoITBase;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.junit.Test;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
@@ -43,6 +44,7 @@ import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.model.vocabulary.RDFS;
 
 import com.google.common.collect.Sets;
+import com.mongodb.DBObject;
 
 import info.aduna.iteration.CloseableIteration;
 
@@ -178,6 +180,28 @@ public class MongoFreeTextIndexerIT extends MongoITBase {
         }
     }
 
+    @Test
+    public void testSearch_embedded() throws Exception {
+        conf.setUseEmbeddedIndexes(true);
+
+        try (MongoFreeTextIndexer f = new MongoFreeTextIndexer()) {
+            f.setConf(conf);
+            f.init();
+
+            final ValueFactory vf = new ValueFactoryImpl();
+            final Statement statement = vf.createStatement(new URIImpl("foo:subj"), RDFS.LABEL, vf.createLiteral("this is a new hat"));
+            final RyaStatement ryaStatement = RdfToRyaConversions.convertStatement(statement);
+
+            // The text is added to the core document instead of being written to the freetext collection.
+            final DBObject coreDocument = new SimpleMongoDBStorageStrategy().serialize(ryaStatement);
+            assertTrue(f.embedStatement(ryaStatement, coreDocument));
+            getRyaDbCollection().insert(coreDocument);
+
+            assertEquals(Sets.newHashSet(statement), getSet(f.queryText("hat new", EMPTY_CONSTRAINTS)));
+            assertEquals(0, getMongoClient().getDB(conf.getRyaInstanceName()).getCollection(f.getCollectionName()).count());
+        }
+    }
+
     private static <X> Set<X> getSet(final CloseableIteration<X, ?> iter) throws Exception {
         final Set<X> set = new HashSet<>();
         while (iter.hasNext()) {
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.accumulo.core.client.TableExistsException;
 import org.apache.accumulo.core.client.TableNotFoundException;
@@ -38,8 +39,12 @@ import org.apache.rya.indexing.TemporalInstantRfc3339;
 import org.apache.rya.indexing.TemporalInterval;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.apache.rya.indexing.mongodb.temporal.MongoTemporalIndexer;
+import org.apache.rya.indexing.mongodb.temporal.TemporalMongoDBStorageStrategy;
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
+import org.apache.rya.mongodb.MongoDBRyaDAO;
 import org.apache.rya.mongodb.MongoITBase;
+import org.apache.rya.mongodb.MongoSecondaryIndex;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.junit.Test;
 import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
@@ -49,6 +54,7 @@ import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.model.vocabulary.RDFS;
 import org.openrdf.query.QueryEvaluationException;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
@@ -247,6 +253,82 @@ public final class MongoTemporalIndexerIT extends MongoITBase {
         }
     }
 
+    /**
+     * The DAO writes the temporal fields into the core triple documents when the index is embedded.
+     */
+    @Test
+    public void testEmbedded_addThroughDao() throws Exception {
+        conf.setUseEmbeddedIndexes(true);
+
+        final MongoTemporalIndexer tIndexer = new MongoTemporalIndexer();
+        conf.setIndexers(Arrays.<MongoSecondaryIndex>asList(tIndexer));
+        final MongoDBRyaDAO dao = new MongoDBRyaDAO();
+        try {
+            dao.setConf(conf);
+            dao.init();
+
+            final ValueFactory vf = new ValueFactoryImpl();
+            // Not in the predicate list, so it is stored without the temporal fields.
+            dao.add(convertStatement(new StatementImpl(vf.createURI("foo:subj1"), RDFS.LABEL, vf.createLiteral(seriesTs[0].getAsReadable()))));
+            for (int s = 0; s <= 10; s++) {
+                dao.add(convertStatement(seriesSpo[s]));
+            }
+            dao.flush();
+
+            final DBCollection core = getRyaDbCollection();
+            assertEquals(12, core.count());
+            assertEquals(11, core.count(new BasicDBObject(TemporalMongoDBStorageStrategy.INSTANT, new BasicDBObject("$exists", true))));
+            assertEquals(0, getMongoClient().getDB(conf.getRyaInstanceName()).getCollection(tIndexer.getCollectionName()).count());
+
+            final Set<Statement> expected = new HashSet<>(Arrays.asList(seriesSpo).subList(5, 11));
+            final Set<Statement> actual = new HashSet<>();
+            final CloseableIteration<Statement, QueryEvaluationException> iter = tIndexer.queryInstantAfterInstant(seriesTs[4], EMPTY_CONSTRAINTS);
+            while (iter.hasNext()) {
+                actual.add(iter.next());
+            }
+            assertEquals(expected, actual);
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    /**
+     * Statements stored straight through an embedded indexer are merged into their core triple documents.
+     */
+    @Test
+    public void testEmbedded_storeStatement() throws Exception {
+        conf.setUseEmbeddedIndexes(true);
+
+        try(MongoTemporalIndexer tIndexer = new MongoTemporalIndexer()) {
+            tIndexer.setConf(conf);
+            tIndexer.init();
+
+            final ValueFactory vf = new ValueFactoryImpl();
+
+            // The core document already exists without the temporal fields.
+            getRyaDbCollection().insert(new SimpleMongoDBStorageStrategy().serialize(convertStatement(spo_B02)));
+            tIndexer.storeStatement(convertStatement(spo_B02));
+            tIndexer.storeStatement(convertStatement(spo_B03_E20));
+
+            // Not in the predicate list, so nothing is written.
+            tIndexer.storeStatement(convertStatement(new StatementImpl(vf.createURI("foo:subj1"), RDFS.LABEL, vf.createLiteral(tsB02.getAsReadable()))));
+
+            final DBCollection core = getRyaDbCollection();
+            assertEquals(2, core.count());
+            assertEquals(1, core.count(new BasicDBObject(TemporalMongoDBStorageStrategy.INSTANT, new BasicDBObject("$exists", true))));
+            assertEquals(1, core.count(new BasicDBObject(TemporalMongoDBStorageStrategy.INTERVAL_START, new BasicDBObject("$exists", true))));
+
+            final CloseableIteration<Statement, QueryEvaluationException> iter = tIndexer.queryInstantEqualsInstant(tsB02, EMPTY_CONSTRAINTS);
+            assertTrue(iter.hasNext());
+            assertEquals(spo_B02, iter.next());
+            assertFalse(iter.hasNext());
+
+            // The fields are removed along with the core document, so deleting through the indexer leaves it alone.
+            tIndexer.deleteStatement(convertStatement(spo_B02));
+            assertEquals(2, core.count());
+        }
+    }
+
     /**
      * Test instant after a given instant.
      * From the series: instant {equal, before, after} instant
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.matching;
+
+import java.util.List;
+
+import org.apache.rya.indexing.external.matching.QuerySegment;
+import org.apache.rya.indexing.external.matching.QuerySegmentFactory;
+import org.apache.rya.indexing.external.tupleSet.ExternalTupleSet;
+import org.apache.rya.indexing.external.tupleSet.SimpleExternalTupleSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.query.algebra.Projection;
+import org.openrdf.query.algebra.QueryModelNode;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class PCJCombinationSearchTest {
+
+    private static final String QUERY = ""//
+            + "SELECT ?a ?b ?c ?d ?e " //
+            + "{" //
+            + "  ?a <uri:p1> ?b . "//
+            + "  ?b <uri:p2> ?c . "//
+            + "  ?c <uri:p3> ?d . "//
+            + "  ?d <uri:p4> ?e . "//
+            + "}";//
+
+    private final QuerySegmentFactory<ExternalTupleSet> qFactory = new QuerySegmentFactory<ExternalTupleSet>();
+    private final SPARQLParser parser = new SPARQLParser();
+
+    @Test
+    public void testFindsBestCombo() throws Exception {
+        final ExternalTupleSet first = getPcj("SELECT ?a ?b ?c { ?a <uri:p1> ?b . ?b <uri:p2> ?c . }");
+        final ExternalTupleSet middle = getPcj("SELECT ?b ?c ?d { ?b <uri:p2> ?c . ?c <uri:p3> ?d . }");
+        final ExternalTupleSet last = getPcj("SELECT ?c ?d ?e { ?c <uri:p3> ?d . ?d <uri:p4> ?e . }");
+
+        final PCJCombinationSearch search = new PCJCombinationSearch(getQueryNodes(), 10000, 10000);
+        final List<List<ExternalTupleSet>> combos = search.getBestCombos(Lists.newArrayList(middle, last, first));
+
+        Assert.assertEquals(Sets.newHashSet(first, last), Sets.newHashSet(combos.get(0)));
+        for (final List<ExternalTupleSet> combo : combos) {
+            Assert.assertFalse(combo.contains(middle) && (combo.contains(first) || combo.contains(last)));
+        }
+
+        // The same query over the same PCJs is answered from the remembered plans.
+        Assert.assertEquals(combos, search.getBestCombos(Lists.newArrayList(middle, last, first)));
+    }
+
+    @Test
+    public void testPlanBudget() throws Exception {
+        final ExternalTupleSet first = getPcj("SELECT ?a ?b ?c { ?a <uri:p1> ?b . ?b <uri:p2> ?c . }");
+        final ExternalTupleSet last = getPcj("SELECT ?c ?d ?e { ?c <uri:p3> ?d . ?d <uri:p4> ?e . }");
+
+        final PCJCombinationSearch search = new PCJCombinationSearch(getQueryNodes(), 1, 10000);
+        final List<List<Integer>> plans = search.search(Lists.newArrayList(first, last));
+
+        Assert.assertEquals(1, plans.size());
+        Assert.assertEquals(1, plans.get(0).size());
+    }
+
+    @Test
+    public void testNoPcjs() throws Exception {
+        final PCJCombinationSearch search = new PCJCombinationSearch(getQueryNodes(), 10000, 10000);
+        final List<List<ExternalTupleSet>> combos = search.getBestCombos(Lists.<ExternalTupleSet>newArrayList());
+
+        Assert.assertEquals(1, combos.size());
+        Assert.assertTrue(combos.get(0).isEmpty());
+    }
+
+    private List<QueryModelNode> getQueryNodes() throws Exception {
+        final Projection projection = (Projection) parser.parseQuery(QUERY, null).getTupleExpr();
+        final QuerySegment<ExternalTupleSet> segment = qFactory.getQuerySegment(projection.getArg());
+        return segment.getOrderedNodes();
+    }
+
+    private ExternalTupleSet getPcj(final String sparql) throws Exception {
+        return new SimpleExternalTupleSet((Projection) parser.parseQuery(sparql, null).getTupleExpr());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.smarturi.duplication;
+
+import static org.apache.rya.api.domain.RyaTypeUtils.intRyaType;
+import static org.apache.rya.api.domain.RyaTypeUtils.stringRyaType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.indexing.entity.model.Entity;
+import org.apache.rya.indexing.entity.model.Property;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests the methods of {@link DuplicateCandidateIndex}.
+ */
+public class DuplicateCandidateIndexTest {
+    private static final RyaURI PERSON_TYPE_URI = new RyaURI("urn:example/person");
+    private static final RyaURI HAS_AGE = new RyaURI("urn:example/hasAge");
+    private static final RyaURI HAS_EYE_COLOR = new RyaURI("urn:example/hasEyeColor");
+
+    private static Entity createPerson(final String name, final int age, final String eyeColor) {
+        return Entity.builder()
+            .setSubject(new RyaURI("urn:example/" + name))
+            .setExplicitType(PERSON_TYPE_URI)
+            .setProperty(PERSON_TYPE_URI, new Property(HAS_AGE, intRyaType(age)))
+            .setProperty(PERSON_TYPE_URI, new Property(HAS_EYE_COLOR, stringRyaType(eyeColor)))
+            .build();
+    }
+
+    @Test
+    public void testGetCandidates() throws Exception {
+        final Map<String, List<String>> equivalentTermsMap = new HashMap<>();
+        equivalentTermsMap.put("blue", Arrays.asList("azure"));
+        final DuplicateDataDetector duplicateDataDetector = new DuplicateDataDetector(new Tolerance(1.0, ToleranceType.DIFFERENCE), equivalentTermsMap);
+
+        final DuplicateCandidateIndex index = new DuplicateCandidateIndex(duplicateDataDetector);
+        index.add(createPerson("Alice", 40, "Blue"));
+        index.add(createPerson("Bob", 41, "blve"));
+        index.add(createPerson("Charlie", 40, "azure"));
+        index.add(createPerson("David", 40, "brown"));
+        index.add(createPerson("Eve", 45, "blue"));
+
+        // Only the entities whose properties are all within tolerance are candidates.
+        final Entity checked = createPerson("Frank", 40, "blue");
+        assertEquals(Sets.newHashSet(0, 1, 2), index.getCandidates(checked));
+
+        // Every nearly identical entity is a candidate.
+        for (int i = 0; i < index.size(); i++) {
+            if (duplicateDataDetector.compareEntities(checked, index.get(i))) {
+                assertTrue(index.getCandidates(checked).contains(i));
+            }
+        }
+    }
+
+    @Test
+    public void testGetCandidates_noProperties() throws Exception {
+        final DuplicateDataDetector duplicateDataDetector = new DuplicateDataDetector(0.0);
+        final DuplicateCandidateIndex index = new DuplicateCandidateIndex(duplicateDataDetector);
+        index.add(createPerson("Alice", 40, "blue"));
+        index.add(createPerson("Bob", 41, "brown"));
+
+        // An entity without properties may be nearly identical to any entity.
+        final Entity checked = Entity.builder()
+            .setSubject(new RyaURI("urn:example/Frank"))
+            .setExplicitType(PERSON_TYPE_URI)
+            .build();
+        assertEquals(Sets.newHashSet(0, 1), index.getCandidates(checked));
+    }
+
+    @Test
+    public void testRemoveDuplicatesFromCollection() throws Exception {
+        final DuplicateDataDetector duplicateDataDetector = new DuplicateDataDetector(new Tolerance(1.0, ToleranceType.DIFFERENCE), new HashMap<>());
+        final List<Entity> entities = new ArrayList<>();
+        entities.add(createPerson("Alice", 40, "blue"));
+        entities.add(createPerson("Bob", 60, "brown"));
+        entities.add(createPerson("Charlie", 41, "blue"));
+        entities.add(createPerson("David", 61, "browne"));
+        entities.add(createPerson("Eve", 20, "green"));
+
+        duplicateDataDetector.removeDuplicatesFromCollection(entities);
+
+        final List<Entity> expected = new ArrayList<>();
+        expected.add(createPerson("Alice", 40, "blue"));
+        expected.add(createPerson("Bob", 60, "brown"));
+        expected.add(createPerson("Eve", 20, "green"));
+        assertEquals(expected, entities);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.rya.indexing.pcj.functions.geo.SfIntersectsRdf4J;
+import org.apache.rya.indexing.pcj.functions.geo.SfWithinRdf4J;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfIntersects;
+import org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfWithin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that compares the GeoSPARQL filter functions Rya registers, which cache parsed geometries
+ * and prepare constant ones, with the RDF4J functions they wrap, which parse both arguments on every call.
+ * <p>
+ * Each invocation evaluates a filter such as {@code FILTER(geof:sfWithin(?wkt, "POLYGON(...)"))} over a
+ * batch of points, the way a query that binds {@code ?wkt} to many features would. It pivots over how many
+ * vertices the constant polygon has.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.geo.GeoFunctionBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@DefaultAnnotation(NonNull.class)
+public class GeoFunctionBenchmark {
+
+    private static final String WKT_LITERAL = "http://www.opengis.net/ont/geosparql#wktLiteral";
+
+    /**
+     * How many features are tested against the polygon per invocation.
+     */
+    private static final int NUM_POINTS = 1000;
+
+    @Param({"4", "64", "1024"})
+    public int polygonVertices;
+
+    private final ValueFactory vf = new ValueFactoryImpl();
+    private final org.eclipse.rdf4j.model.ValueFactory rdf4jVf = SimpleValueFactory.getInstance();
+
+    private final SfWithinRdf4J ryaWithin = new SfWithinRdf4J();
+    private final SfIntersectsRdf4J ryaIntersects = new SfIntersectsRdf4J();
+    private final SfWithin rdf4jWithin = new SfWithin();
+    private final SfIntersects rdf4jIntersects = new SfIntersects();
+
+    // Cached benchmark data that is generated during the setup phase.
+    private org.openrdf.model.Literal polygon;
+    private final List<org.openrdf.model.Literal> points = new ArrayList<>();
+    private org.eclipse.rdf4j.model.Literal rdf4jPolygon;
+    private final List<org.eclipse.rdf4j.model.Literal> rdf4jPoints = new ArrayList<>();
+
+    @Setup
+    public void buildBenchmarkValues() {
+        // Make spatial4j use JTS so polygons can be parsed.
+        System.setProperty("SpatialContextFactory", "com.spatial4j.core.context.jts.JtsSpatialContextFactory");
+
+        final org.openrdf.model.URI wktType = vf.createURI(WKT_LITERAL);
+        final IRI rdf4jWktType = rdf4jVf.createIRI(WKT_LITERAL);
+
+        final String polygonWkt = makePolygon(polygonVertices);
+        polygon = vf.createLiteral(polygonWkt, wktType);
+        rdf4jPolygon = rdf4jVf.createLiteral(polygonWkt, rdf4jWktType);
+
+        final Random random = new Random(42);
+        points.clear();
+        rdf4jPoints.clear();
+        for (int i = 0; i < NUM_POINTS; i++) {
+            final String pointWkt = "POINT (" + (random.nextDouble() * 4 - 2) + " " + (random.nextDouble() * 4 - 2) + ")";
+            points.add(vf.createLiteral(pointWkt, wktType));
+            rdf4jPoints.add(rdf4jVf.createLiteral(pointWkt, rdf4jWktType));
+        }
+    }
+
+    @Benchmark
+    public void ryaSfWithin(final Blackhole bh) throws Exception {
+        for (final org.openrdf.model.Literal point : points) {
+            bh.consume(ryaWithin.evaluate(vf, point, polygon));
+        }
+    }
+
+    @Benchmark
+    public void rdf4jSfWithin(final Blackhole bh) throws Exception {
+        for (final org.eclipse.rdf4j.model.Literal point : rdf4jPoints) {
+            bh.consume(rdf4jWithin.evaluate(rdf4jVf, point, rdf4jPolygon));
+        }
+    }
+
+    @Benchmark
+    public void ryaSfIntersects(final Blackhole bh) throws Exception {
+        for (final org.openrdf.model.Literal point : points) {
+            bh.consume(ryaIntersects.evaluate(vf, polygon, point));
+        }
+    }
+
+    @Benchmark
+    public void rdf4jSfIntersects(final Blackhole bh) throws Exception {
+        for (final org.eclipse.rdf4j.model.Literal point : rdf4jPoints) {
+            bh.consume(rdf4jIntersects.evaluate(rdf4jVf, rdf4jPolygon, point));
+        }
+    }
+
+    /**
+     * @param vertices - How many vertices the polygon has.
+     * @return The WKT of a regular polygon centered on the origin with a radius of one degree.
+     */
+    private static String makePolygon(final int vertices) {
+        final StringBuilder wkt = new StringBuilder("POLYGON ((");
+        for (int i = 0; i <= vertices; i++) {
+            final double angle = 2 * Math.PI * (i % vertices) / vertices;
+            if (i > 0) {
+                wkt.append(", ");
+            }
+            wkt.append(Math.cos(angle)).append(' ').append(Math.sin(angle));
+        }
+        return wkt.append("))").toString();
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(GeoFunctionBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
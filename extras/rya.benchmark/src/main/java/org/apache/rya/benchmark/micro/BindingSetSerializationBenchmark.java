@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import org.apache.fluo.api.data.Bytes;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.apache.rya.indexing.pcj.storage.accumulo.BindingSetStringConverter;
+import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
+import org.apache.rya.indexing.pcj.storage.accumulo.VisibilityBindingSetSerDe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.impl.MapBindingSet;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how quickly binding sets are converted to and from the forms they are stored in by the
+ * PCJ index and the Fluo PCJ application: {@link VisibilityBindingSetSerDe} and {@link BindingSetStringConverter}.
+ * <p>
+ * The binding sets have a subject URI, an object of the parameterized type, and a timestamp.
+ */
+@State(Scope.Thread)
+@DefaultAnnotation(NonNull.class)
+public class BindingSetSerializationBenchmark {
+
+    @Param({"STRING", "INTEGER", "DOUBLE", "DATETIME", "URI"})
+    public LiteralType literalType;
+
+    @Param({"16", "256", "4096"})
+    public int literalSize;
+
+    private final VisibilityBindingSetSerDe serDe = new VisibilityBindingSetSerDe();
+    private final BindingSetStringConverter converter = new BindingSetStringConverter();
+    private final VariableOrder varOrder = new VariableOrder("subject", "object", "time");
+
+    private VisibilityBindingSet bindingSet;
+    private Bytes serialized;
+    private String converted;
+
+    @Setup
+    public void setup() throws Exception {
+        final ValueFactory vf = new ValueFactoryImpl();
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("subject", vf.createURI("urn:subject:0123456789"));
+        bs.addBinding("object", RyaToRdfConversions.convertValue(literalType.make(literalSize)));
+        bs.addBinding("time", vf.createLiteral(1511884955000L));
+        bindingSet = new VisibilityBindingSet(bs, "U&FOUO");
+
+        serialized = serDe.serialize(bindingSet);
+        converted = converter.convert(bindingSet, varOrder);
+    }
+
+    @Benchmark
+    public Bytes visibilityBindingSetSerialize() throws Exception {
+        return serDe.serialize(bindingSet);
+    }
+
+    @Benchmark
+    public VisibilityBindingSet visibilityBindingSetDeserialize() throws Exception {
+        return serDe.deserialize(serialized);
+    }
+
+    @Benchmark
+    public String bindingSetToString() {
+        return converter.convert(bindingSet, varOrder);
+    }
+
+    @Benchmark
+    public BindingSet bindingSetFromString() {
+        return converter.convert(converted, varOrder);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, BindingSetSerializationBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.rya.mongodb.document.util.DocumentVisibilityConversionException;
+import org.apache.rya.mongodb.document.util.DocumentVisibilityUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how quickly {@link DocumentVisibilityUtil} converts document visibilities to and from the
+ * arrays that are stored in MongoDB and checks whether a user may read a document. Visibilities are
+ * attached to statements rather than to literals, so this benchmark is parameterized by the
+ * visibility expression instead of by literal type.
+ */
+@State(Scope.Thread)
+@DefaultAnnotation(NonNull.class)
+public class DocumentVisibilityUtilBenchmark {
+
+    @Param({"U", "U&FOUO", "(U&FOUO)|(S&A)|(TS&B)", "(((U|S)&(FOUO|A))|(TS&(B|C|D)))&E"})
+    public String visibility;
+
+    private final Authorizations authorizations = new Authorizations("U", "FOUO", "A");
+
+    private byte[] expression;
+    private Object[] array;
+
+    @Setup
+    public void setup() throws DocumentVisibilityConversionException {
+        expression = visibility.getBytes(StandardCharsets.UTF_8);
+        array = DocumentVisibilityUtil.toMultidimensionalArray(visibility);
+    }
+
+    @Benchmark
+    public Object[] toMultidimensionalArray() throws DocumentVisibilityConversionException {
+        return DocumentVisibilityUtil.toMultidimensionalArray(visibility);
+    }
+
+    @Benchmark
+    public String multidimensionalArrayToBooleanString() {
+        return DocumentVisibilityUtil.multidimensionalArrayToBooleanString(array);
+    }
+
+    @Benchmark
+    public boolean doesUserHaveDocumentAccess() {
+        return DocumentVisibilityUtil.doesUserHaveDocumentAccess(authorizations, expression);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, DocumentVisibilityUtilBenchmark.class.getSimpleName());
+    }
+}
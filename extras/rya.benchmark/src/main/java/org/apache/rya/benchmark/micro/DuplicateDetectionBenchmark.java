@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import static org.apache.rya.api.domain.RyaTypeUtils.dateRyaType;
+import static org.apache.rya.api.domain.RyaTypeUtils.doubleRyaType;
+import static org.apache.rya.api.domain.RyaTypeUtils.intRyaType;
+import static org.apache.rya.api.domain.RyaTypeUtils.stringRyaType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.indexing.entity.model.Entity;
+import org.apache.rya.indexing.entity.model.Property;
+import org.apache.rya.indexing.smarturi.SmartUriException;
+import org.apache.rya.indexing.smarturi.duplication.DuplicateCandidateIndex;
+import org.apache.rya.indexing.smarturi.duplication.DuplicateDataDetector;
+import org.apache.rya.indexing.smarturi.duplication.Tolerance;
+import org.apache.rya.indexing.smarturi.duplication.ToleranceType;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how quickly a new {@link Entity} is checked for near duplicates among {@code entityCount}
+ * stored entities of the same type. {@code indexedDetection} compares the entity with the candidates
+ * found by a {@link DuplicateCandidateIndex}, the way entity storage does. {@code pairwiseDetection}
+ * compares it with every stored entity, the way entity storage did before the index existed. Half of
+ * the checked entities are near duplicates of a stored entity.
+ * <p>
+ * Storing one million entities takes a few gigabytes of heap, so run this benchmark with a large
+ * heap, for example {@code -jvmArgs -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@DefaultAnnotation(NonNull.class)
+public class DuplicateDetectionBenchmark {
+
+    private static final RyaURI PERSON_TYPE = new RyaURI("urn:example/person");
+    private static final RyaURI HAS_NAME = new RyaURI("urn:example/hasName");
+    private static final RyaURI HAS_AGE = new RyaURI("urn:example/hasAge");
+    private static final RyaURI HAS_HEIGHT = new RyaURI("urn:example/hasHeight");
+    private static final RyaURI HAS_DATE_OF_BIRTH = new RyaURI("urn:example/hasDateOfBirth");
+
+    private static final int CHECKED_ENTITY_COUNT = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entityCount;
+
+    private DuplicateDataDetector detector;
+    private DuplicateCandidateIndex index;
+    private List<Entity> stored;
+    private List<Entity> checked;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        // The default tolerances of the duplicate data configuration.
+        detector = new DuplicateDataDetector(
+                new Tolerance(0.0, ToleranceType.DIFFERENCE),
+                new Tolerance(0.0, ToleranceType.DIFFERENCE),
+                new Tolerance(500.0, ToleranceType.DIFFERENCE),
+                new Tolerance(0.0001, ToleranceType.PERCENTAGE),
+                new Tolerance(0.0001, ToleranceType.PERCENTAGE),
+                new Tolerance(1.0, ToleranceType.DIFFERENCE),
+                new Tolerance(1.0, ToleranceType.DIFFERENCE),
+                new Tolerance(1.0, ToleranceType.DIFFERENCE),
+                new Tolerance(0.05, ToleranceType.PERCENTAGE),
+                new Tolerance(1.0, ToleranceType.DIFFERENCE),
+                new HashMap<>(),
+                true);
+
+        final Random random = new Random(42);
+        index = new DuplicateCandidateIndex(detector);
+        stored = new ArrayList<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            final Entity entity = createPerson(i, random);
+            stored.add(entity);
+            index.add(entity);
+        }
+
+        checked = new ArrayList<>(CHECKED_ENTITY_COUNT);
+        for (int i = 0; i < CHECKED_ENTITY_COUNT; i++) {
+            if (i % 2 == 0) {
+                // A near duplicate of a stored entity.
+                final Entity original = stored.get(random.nextInt(entityCount));
+                checked.add(Entity.builder(original)
+                        .setSubject(new RyaURI("urn:example/checked/" + i))
+                        .build());
+            } else {
+                checked.add(createPerson(entityCount + i, random));
+            }
+        }
+    }
+
+    private static Entity createPerson(final int id, final Random random) {
+        return Entity.builder()
+                .setSubject(new RyaURI("urn:example/person/" + id))
+                .setExplicitType(PERSON_TYPE)
+                .setProperty(PERSON_TYPE, new Property(HAS_NAME, stringRyaType("Person " + Integer.toHexString(random.nextInt()))))
+                .setProperty(PERSON_TYPE, new Property(HAS_AGE, intRyaType(random.nextInt(100))))
+                .setProperty(PERSON_TYPE, new Property(HAS_HEIGHT, doubleRyaType(140.0 + random.nextInt(600000) / 10000.0)))
+                .setProperty(PERSON_TYPE, new Property(HAS_DATE_OF_BIRTH, dateRyaType(new DateTime(random.nextLong() % 3000000000000L))))
+                .build();
+    }
+
+    private Entity nextChecked() {
+        next = (next + 1) % CHECKED_ENTITY_COUNT;
+        return checked.get(next);
+    }
+
+    @Benchmark
+    public boolean indexedDetection() throws SmartUriException {
+        final Entity entity = nextChecked();
+        for (final int candidate : index.getCandidates(entity)) {
+            if (detector.compareEntities(entity, index.get(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean pairwiseDetection() throws SmartUriException {
+        final Entity entity = nextChecked();
+        for (final Entity other : stored) {
+            if (detector.compareEntities(entity, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, DuplicateDetectionBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.apache.rya.api.utils.CloseableIterator;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult.Side;
+import org.apache.rya.streams.kafka.processors.join.KeyValueJoinStateStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.impl.MapBindingSet;
+
+import com.google.common.collect.Lists;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how quickly {@link KeyValueJoinStateStore} stores a binding set that arrives at a join and
+ * fetches the binding sets from the other side that it joins with. The join variable is bound to a
+ * value of the parameterized type, and the other side holds {@code joinGroupSize} binding sets for it.
+ * <p>
+ * The state store is backed by a sorted in memory map so that the benchmark measures the key handling
+ * of {@link KeyValueJoinStateStore} rather than a Kafka Streams state store implementation.
+ */
+@State(Scope.Thread)
+@DefaultAnnotation(NonNull.class)
+public class KeyValueJoinStateStoreBenchmark {
+
+    @Param({"STRING", "INTEGER", "DOUBLE", "DATETIME", "URI"})
+    public LiteralType literalType;
+
+    @Param({"16", "256", "4096"})
+    public int literalSize;
+
+    @Param({"1", "10", "100"})
+    public int joinGroupSize;
+
+    private KeyValueJoinStateStore joinStore;
+    private BinaryResult leftResult;
+    private BinaryResult rightResult;
+
+    @Setup
+    public void setup() {
+        final ValueFactory vf = new ValueFactoryImpl();
+        final Value joinValue = RyaToRdfConversions.convertValue(literalType.make(literalSize));
+
+        joinStore = new KeyValueJoinStateStore(new InMemoryKeyValueStore(), "join",
+                Lists.newArrayList("x"), Lists.newArrayList("x", "y"));
+
+        // Fill the left side of the join.
+        for (int i = 0; i < joinGroupSize; i++) {
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("x", joinValue);
+            bs.addBinding("y", vf.createURI("urn:left:" + i));
+            joinStore.store(new BinaryResult(Side.LEFT, new VisibilityBindingSet(bs, "U")));
+        }
+
+        final MapBindingSet left = new MapBindingSet();
+        left.addBinding("x", joinValue);
+        left.addBinding("y", vf.createURI("urn:left:0"));
+        leftResult = new BinaryResult(Side.LEFT, new VisibilityBindingSet(left, "U"));
+
+        final MapBindingSet right = new MapBindingSet();
+        right.addBinding("x", joinValue);
+        right.addBinding("y", vf.createURI("urn:right:0"));
+        rightResult = new BinaryResult(Side.RIGHT, new VisibilityBindingSet(right, "U&FOUO"));
+    }
+
+    @Benchmark
+    public void store() {
+        // Overwrites the same left entry so the store does not grow between invocations.
+        joinStore.store(leftResult);
+    }
+
+    @Benchmark
+    public void getJoinedValues(final Blackhole bh) throws Exception {
+        try (final CloseableIterator<VisibilityBindingSet> joined = joinStore.getJoinedValues(rightResult)) {
+            while (joined.hasNext()) {
+                bh.consume(joined.next());
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, KeyValueJoinStateStoreBenchmark.class.getSimpleName());
+    }
+
+    /**
+     * A {@link KeyValueStore} that holds its entries in a {@link TreeMap}.
+     */
+    private static final class InMemoryKeyValueStore implements KeyValueStore<String, VisibilityBindingSet> {
+        private final NavigableMap<String, VisibilityBindingSet> map = new TreeMap<>();
+
+        @Override
+        public String name() {
+            return "benchmark";
+        }
+
+        @Override
+        public void init(final ProcessorContext context, final StateStore root) { }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+
+        @Override
+        public boolean persistent() {
+            return false;
+        }
+
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public VisibilityBindingSet get(final String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void put(final String key, final VisibilityBindingSet value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public VisibilityBindingSet putIfAbsent(final String key, final VisibilityBindingSet value) {
+            return map.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void putAll(final List<KeyValue<String, VisibilityBindingSet>> entries) {
+            for (final KeyValue<String, VisibilityBindingSet> entry : entries) {
+                map.put(entry.key, entry.value);
+            }
+        }
+
+        @Override
+        public VisibilityBindingSet delete(final String key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public KeyValueIterator<String, VisibilityBindingSet> range(final String from, final String to) {
+            return new EntryIterator(map.subMap(from, true, to, true).entrySet().iterator());
+        }
+
+        @Override
+        public KeyValueIterator<String, VisibilityBindingSet> all() {
+            return new EntryIterator(map.entrySet().iterator());
+        }
+
+        public long approximateNumEntries() {
+            return map.size();
+        }
+    }
+
+    /**
+     * Adapts an iterator over a map's entries to a {@link KeyValueIterator}.
+     */
+    private static final class EntryIterator implements KeyValueIterator<String, VisibilityBindingSet> {
+        private final Iterator<Entry<String, VisibilityBindingSet>> entries;
+        private Entry<String, VisibilityBindingSet> peeked = null;
+
+        EntryIterator(final Iterator<Entry<String, VisibilityBindingSet>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return peeked != null || entries.hasNext();
+        }
+
+        @Override
+        public KeyValue<String, VisibilityBindingSet> next() {
+            final Entry<String, VisibilityBindingSet> entry = peeked != null ? peeked : entries.next();
+            peeked = null;
+            return new KeyValue<>(entry.getKey(), entry.getValue());
+        }
+
+        public String peekNextKey() {
+            if (peeked == null) {
+                peeked = entries.next();
+            }
+            return peeked.getKey();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() { }
+    }
+}
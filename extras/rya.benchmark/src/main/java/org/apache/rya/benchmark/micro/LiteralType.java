@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+import com.google.common.base.Strings;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The kinds of RDF object values the microbenchmarks are parameterized over. Each type can build
+ * a value whose lexical form is roughly a requested number of characters long.
+ */
+@DefaultAnnotation(NonNull.class)
+public enum LiteralType {
+    STRING {
+        @Override
+        public RyaType make(final int size) {
+            return new RyaType(XMLSchema.STRING, Strings.padEnd("literal ", size, 'x'));
+        }
+    },
+
+    INTEGER {
+        @Override
+        public RyaType make(final int size) {
+            // xsd:integer is unbounded, so the number of digits may scale with the size.
+            return new RyaType(XMLSchema.INTEGER, "1" + Strings.repeat("0", Math.max(size - 1, 0)));
+        }
+    },
+
+    DOUBLE {
+        @Override
+        public RyaType make(final int size) {
+            return new RyaType(XMLSchema.DOUBLE, Double.toString(Math.PI * size));
+        }
+    },
+
+    DATETIME {
+        @Override
+        public RyaType make(final int size) {
+            // Date times have a fixed size.
+            return new RyaType(XMLSchema.DATETIME, "2017-11-28T16:02:35.000Z");
+        }
+    },
+
+    URI {
+        @Override
+        public RyaType make(final int size) {
+            return new RyaURI(Strings.padEnd("urn:object:", size, 'x'));
+        }
+    };
+
+    /**
+     * @param size - About how many characters the value's lexical form should have.
+     * @return A value of this type.
+     */
+    public abstract RyaType make(int size);
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the microbenchmarks of the code Rya executes for every statement or binding set it handles.
+ * The GC profiler is always enabled so every result includes the bytes allocated per operation.
+ * <p>
+ * To execute these benchmarks, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmarks and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.micro.MicroBenchmarks [JMH options]
+ * </pre>
+ * A single benchmark may be run by executing its class instead.
+ */
+public class MicroBenchmarks {
+
+    /**
+     * Runs benchmarks with allocation profiling enabled.
+     *
+     * @param args - The command line arguments that will be passed to JMH.
+     * @param include - A regular expression that selects the benchmarks to run.
+     */
+    public static void run(final String[] args, final String include) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(include);
+        opts.addProfiler(GCProfiler.class);
+
+        new Runner(opts.build()).run();
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        run(args, MicroBenchmarks.class.getPackage().getName() + ".*Benchmark");
+    }
+}
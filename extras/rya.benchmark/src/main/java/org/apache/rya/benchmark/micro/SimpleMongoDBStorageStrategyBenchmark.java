@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.mongodb.DBObject;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how quickly {@link SimpleMongoDBStorageStrategy} converts a statement to the document
+ * that is stored in MongoDB and back again.
+ */
+@State(Scope.Thread)
+@DefaultAnnotation(NonNull.class)
+public class SimpleMongoDBStorageStrategyBenchmark {
+
+    @Param({"STRING", "INTEGER", "DOUBLE", "DATETIME", "URI"})
+    public LiteralType literalType;
+
+    @Param({"16", "256", "4096"})
+    public int literalSize;
+
+    private final SimpleMongoDBStorageStrategy strategy = new SimpleMongoDBStorageStrategy();
+
+    private RyaStatement statement;
+    private DBObject document;
+
+    @Setup
+    public void setup() {
+        statement = new RyaStatement(
+                new RyaURI("urn:subject:0123456789"),
+                new RyaURI("urn:predicate:hasValue"),
+                literalType.make(literalSize),
+                null, null, "U&FOUO".getBytes(StandardCharsets.UTF_8), null, 1511884955000L);
+        document = strategy.serialize(statement);
+    }
+
+    @Benchmark
+    public DBObject serialize() {
+        return strategy.serialize(statement);
+    }
+
+    @Benchmark
+    public RyaStatement deserializeDBObject() {
+        return strategy.deserializeDBObject(document);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, SimpleMongoDBStorageStrategyBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.commons.io.FileUtils;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.indexing.statement.metadata.matching.StatementMetadataNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.query.algebra.helpers.StatementPatternCollector;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+
+import com.google.common.io.Files;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * Measures how quickly a {@link StatementMetadataNode} answers a query that constrains the
+ * {@code createdBy} metadata of statements, with and without evaluating the metadata constraints
+ * on the tablet servers. Statements written by many different users are loaded into a
+ * {@link MiniAccumuloCluster}, and only a small fraction of them match the query.
+ */
+@State(Scope.Benchmark)
+@DefaultAnnotation(NonNull.class)
+public class StatementMetadataQueryBenchmark {
+    private static final String ACCUMULO_PASSWORD = "password";
+    private static final int EMPLOYEE_COUNT = 10000;
+    private static final int CREATOR_COUNT = 100;
+
+    private static final String QUERY = "prefix owl: <http://www.w3.org/2002/07/owl#> "
+            + "prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> "
+            + "select ?x ?y where { _:blankNode rdf:type owl:Annotation; owl:annotatedSource ?x; "
+            + "owl:annotatedProperty <http://worksAt>; owl:annotatedTarget ?y; <http://createdBy> <http://creator0> }";
+
+    @Param({"true", "false"})
+    public boolean pushdown;
+
+    private File dataDir;
+    private MiniAccumuloCluster cluster;
+    private AccumuloRdfConfiguration conf;
+    private AccumuloRyaDAO dao;
+    private List<StatementPattern> patterns;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dataDir = Files.createTempDir();
+        cluster = new MiniAccumuloCluster(new MiniAccumuloConfig(dataDir, ACCUMULO_PASSWORD));
+        cluster.start();
+        final Connector connector = cluster.getConnector("root", ACCUMULO_PASSWORD);
+
+        conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix("metadata_benchmark_");
+        conf.setAccumuloInstance(cluster.getInstanceName());
+        conf.setAccumuloZookeepers(cluster.getZooKeepers());
+        conf.setAccumuloUser("root");
+        conf.setAccumuloPassword(ACCUMULO_PASSWORD);
+        conf.setDisplayQueryPlan(false);
+        conf.setStatementMetadataFilterPushdownEnabled(pushdown);
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+
+        final List<RyaStatement> statements = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            final StatementMetadata metadata = new StatementMetadata();
+            metadata.addMetadata(new RyaURI("http://createdBy"), new RyaURI("http://creator" + (i % CREATOR_COUNT)));
+            metadata.addMetadata(new RyaURI("http://createdOn"), new RyaType(XMLSchema.DATE, "2017-01-04"));
+            statements.add(new RyaStatement(new RyaURI("http://employee" + i), new RyaURI("http://worksAt"),
+                    new RyaType("CoffeeShop"), null, "", metadata));
+        }
+        dao.add(statements.iterator());
+        dao.flush();
+
+        patterns = StatementPatternCollector.process(new SPARQLParser().parseQuery(QUERY, null).getTupleExpr());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            if (dao != null) {
+                dao.destroy();
+            }
+            if (cluster != null) {
+                cluster.stop();
+            }
+        } finally {
+            if (dataDir != null) {
+                FileUtils.deleteQuietly(dataDir);
+            }
+        }
+    }
+
+    @Benchmark
+    public int queryByCreator() throws QueryEvaluationException {
+        int count = 0;
+        final StatementMetadataNode<AccumuloRdfConfiguration> node = new StatementMetadataNode<>(patterns, conf);
+        final CloseableIteration<BindingSet, QueryEvaluationException> it = node.evaluate(new QueryBindingSet());
+        try {
+            while (it.hasNext()) {
+                it.next();
+                count++;
+            }
+        } finally {
+            it.close();
+        }
+        return count;
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, StatementMetadataQueryBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.micro;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.admin.DiskUsage;
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.commons.io.FileUtils;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * Compares the {@link RyaTableLayout}s of the Accumulo core tables. Statements with long IRIs are loaded into
+ * a {@link MiniAccumuloCluster} and the tables are compacted. The number of bytes the core tables use on disk
+ * is logged once the load is finished, and the benchmarks measure how quickly statements are scanned back.
+ */
+@State(Scope.Benchmark)
+@DefaultAnnotation(NonNull.class)
+public class TableLayoutBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TableLayoutBenchmark.class);
+
+    private static final String ACCUMULO_PASSWORD = "password";
+    private static final String IRI_PREFIX = "http://example.org/a/rather/long/namespace/that/repeats/within/every/term#";
+    private static final int SUBJECT_COUNT = 1000;
+    private static final int PREDICATE_COUNT = 10;
+
+    @Param({"STRING", "DICTIONARY"})
+    public RyaTableLayout layout;
+
+    private File dataDir;
+    private MiniAccumuloCluster cluster;
+    private AccumuloRdfConfiguration conf;
+    private AccumuloRyaDAO dao;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dataDir = Files.createTempDir();
+        cluster = new MiniAccumuloCluster(new MiniAccumuloConfig(dataDir, ACCUMULO_PASSWORD));
+        cluster.start();
+        final Connector connector = cluster.getConnector("root", ACCUMULO_PASSWORD);
+
+        conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix("layout_benchmark_");
+        conf.setRyaTableLayout(layout);
+        conf.setDisplayQueryPlan(false);
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+
+        final List<RyaStatement> statements = new ArrayList<>();
+        for (int s = 0; s < SUBJECT_COUNT; s++) {
+            for (int p = 0; p < PREDICATE_COUNT; p++) {
+                statements.add(new RyaStatement(
+                        new RyaURI(IRI_PREFIX + "subject" + s),
+                        new RyaURI(IRI_PREFIX + "predicate" + p),
+                        new RyaURI(IRI_PREFIX + "object" + (s * p % SUBJECT_COUNT))));
+            }
+        }
+        dao.add(statements.iterator());
+        dao.flush();
+
+        final List<String> tables = new ArrayList<>();
+        tables.add(conf.getTableLayoutStrategy().getSpo());
+        tables.add(conf.getTableLayoutStrategy().getPo());
+        tables.add(conf.getTableLayoutStrategy().getOsp());
+        if (layout == RyaTableLayout.DICTIONARY) {
+            tables.add(conf.getTermToIdTable());
+            tables.add(conf.getIdToTermTable());
+        }
+
+        long bytes = 0;
+        for (final String table : tables) {
+            connector.tableOperations().compact(table, null, null, true, true);
+            for (final DiskUsage usage : connector.tableOperations().getDiskUsage(Sets.newHashSet(table))) {
+                bytes += usage.getUsage();
+            }
+        }
+        logger.info("{} layout bytes on disk: {}", layout, bytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            if (dao != null) {
+                dao.destroy();
+            }
+            if (cluster != null) {
+                cluster.stop();
+            }
+        } finally {
+            if (dataDir != null) {
+                FileUtils.deleteQuietly(dataDir);
+            }
+        }
+    }
+
+    @Benchmark
+    public int scanBySubject() throws RyaDAOException {
+        return count(new RyaStatement(new RyaURI(IRI_PREFIX + "subject" + (SUBJECT_COUNT / 2)), null, null));
+    }
+
+    @Benchmark
+    public int scanByPredicate() throws RyaDAOException {
+        return count(new RyaStatement(null, new RyaURI(IRI_PREFIX + "predicate1"), null));
+    }
+
+    @Benchmark
+    public int scanByObject() throws RyaDAOException {
+        final RyaType object = new RyaURI(IRI_PREFIX + "object0");
+        return count(new RyaStatement(null, null, object));
+    }
+
+    private int count(final RyaStatement pattern) throws RyaDAOException {
+        int count = 0;
+        final CloseableIteration<RyaStatement, RyaDAOException> it = dao.getQueryEngine().query(pattern, conf);
+        try {
+            while (it.hasNext()) {
+                it.next();
+                count++;
+            }
+        } finally {
+            it.close();
+        }
+        return count;
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        MicroBenchmarks.run(args, TableLayoutBenchmark.class.getSimpleName());
+    }
+}
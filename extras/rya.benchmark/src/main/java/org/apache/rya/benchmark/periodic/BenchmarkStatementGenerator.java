@@ -21,14 +21,18 @@ package org.apache.rya.benchmark.periodic;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Random;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 
 import org.openrdf.model.Literal;
 import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +45,21 @@ public class BenchmarkStatementGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(BenchmarkStatementGenerator.class);
 
+    /**
+     * The namespace of the LUBM university ontology.
+     */
+    public static final String LUBM_NS = "http://swat.cse.lehigh.edu/onto/univ-bench.owl#";
+
+    /**
+     * The namespace of the BSBM vocabulary.
+     */
+    public static final String BSBM_NS = "http://www4.wiwiss.fu-berlin.de/bizer/bsbm/v01/vocabulary/";
+
+    /**
+     * The namespace of the BSBM instance data.
+     */
+    public static final String BSBM_INST_NS = "http://www4.wiwiss.fu-berlin.de/bizer/bsbm/v01/instances/";
+
     private final ValueFactory vf;
     private final DatatypeFactory dtf;
 
@@ -87,4 +106,174 @@ public class BenchmarkStatementGenerator {
 
         return statements;
     }
+
+    /**
+     * Generates a dataset that is shaped like the LUBM university benchmark. Each department has
+     * full professors, graduate students, undergraduate students and courses:
+     *
+     * <pre>
+     * http://www.Department{d}.University{u}.edu/FullProfessor{p} ub:worksFor http://www.Department{d}.University{u}.edu
+     * http://www.Department{d}.University{u}.edu/FullProfessor{p} ub:teacherOf http://www.Department{d}.University{u}.edu/Course{c}
+     * http://www.Department{d}.University{u}.edu/GraduateStudent{s} ub:takesCourse http://www.Department{d}.University{u}.edu/Course{c}
+     * http://www.Department{d}.University{u}.edu/GraduateStudent{s} ub:advisor http://www.Department{d}.University{u}.edu/FullProfessor{p}
+     * ...
+     * </pre>
+     *
+     * The same arguments always produce the same statements.
+     *
+     * @param numUniversities - The number of universities to generate.
+     * @param departmentsPerUniversity - The number of departments each university has.
+     * @param seed - Seeds the choice of courses and advisors.
+     * @return A new list of all generated Statements.
+     */
+    public List<Statement> generateLubm(final int numUniversities, final int departmentsPerUniversity, final long seed) {
+        final Random random = new Random(seed);
+        final List<Statement> statements = Lists.newArrayList();
+
+        final URI university = vf.createURI(LUBM_NS + "University");
+        final URI department = vf.createURI(LUBM_NS + "Department");
+        final URI fullProfessor = vf.createURI(LUBM_NS + "FullProfessor");
+        final URI graduateStudent = vf.createURI(LUBM_NS + "GraduateStudent");
+        final URI undergraduateStudent = vf.createURI(LUBM_NS + "UndergraduateStudent");
+        final URI course = vf.createURI(LUBM_NS + "Course");
+        final URI subOrganizationOf = vf.createURI(LUBM_NS + "subOrganizationOf");
+        final URI worksFor = vf.createURI(LUBM_NS + "worksFor");
+        final URI memberOf = vf.createURI(LUBM_NS + "memberOf");
+        final URI teacherOf = vf.createURI(LUBM_NS + "teacherOf");
+        final URI takesCourse = vf.createURI(LUBM_NS + "takesCourse");
+        final URI advisor = vf.createURI(LUBM_NS + "advisor");
+        final URI name = vf.createURI(LUBM_NS + "name");
+        final URI emailAddress = vf.createURI(LUBM_NS + "emailAddress");
+
+        final int professors = 5;
+        final int courses = 10;
+        final int graduates = 10;
+        final int undergraduates = 20;
+
+        for (int u = 0; u < numUniversities; u++) {
+            final URI univ = vf.createURI("http://www.University" + u + ".edu");
+            statements.add(vf.createStatement(univ, RDF.TYPE, university));
+            statements.add(vf.createStatement(univ, name, vf.createLiteral("University" + u)));
+
+            for (int d = 0; d < departmentsPerUniversity; d++) {
+                final String deptPrefix = "http://www.Department" + d + ".University" + u + ".edu";
+                final URI dept = vf.createURI(deptPrefix);
+                statements.add(vf.createStatement(dept, RDF.TYPE, department));
+                statements.add(vf.createStatement(dept, subOrganizationOf, univ));
+
+                for (int c = 0; c < courses; c++) {
+                    final URI crs = vf.createURI(deptPrefix + "/Course" + c);
+                    statements.add(vf.createStatement(crs, RDF.TYPE, course));
+                    statements.add(vf.createStatement(crs, name, vf.createLiteral("Course" + c)));
+                }
+
+                for (int p = 0; p < professors; p++) {
+                    final URI prof = vf.createURI(deptPrefix + "/FullProfessor" + p);
+                    statements.add(vf.createStatement(prof, RDF.TYPE, fullProfessor));
+                    statements.add(vf.createStatement(prof, worksFor, dept));
+                    statements.add(vf.createStatement(prof, name, vf.createLiteral("FullProfessor" + p)));
+                    statements.add(vf.createStatement(prof, emailAddress, vf.createLiteral("FullProfessor" + p + "@Department" + d + ".University" + u + ".edu")));
+                    // Every course has a teacher.
+                    for (int c = p; c < courses; c += professors) {
+                        statements.add(vf.createStatement(prof, teacherOf, vf.createURI(deptPrefix + "/Course" + c)));
+                    }
+                }
+
+                for (int s = 0; s < graduates; s++) {
+                    final URI student = vf.createURI(deptPrefix + "/GraduateStudent" + s);
+                    statements.add(vf.createStatement(student, RDF.TYPE, graduateStudent));
+                    statements.add(vf.createStatement(student, memberOf, dept));
+                    statements.add(vf.createStatement(student, name, vf.createLiteral("GraduateStudent" + s)));
+                    statements.add(vf.createStatement(student, advisor, vf.createURI(deptPrefix + "/FullProfessor" + random.nextInt(professors))));
+                    for (int i = 0; i < 2; i++) {
+                        statements.add(vf.createStatement(student, takesCourse, vf.createURI(deptPrefix + "/Course" + random.nextInt(courses))));
+                    }
+                }
+
+                for (int s = 0; s < undergraduates; s++) {
+                    final URI student = vf.createURI(deptPrefix + "/UndergraduateStudent" + s);
+                    statements.add(vf.createStatement(student, RDF.TYPE, undergraduateStudent));
+                    statements.add(vf.createStatement(student, memberOf, dept));
+                    statements.add(vf.createStatement(student, name, vf.createLiteral("UndergraduateStudent" + s)));
+                    for (int i = 0; i < 3; i++) {
+                        statements.add(vf.createStatement(student, takesCourse, vf.createURI(deptPrefix + "/Course" + random.nextInt(courses))));
+                    }
+                }
+            }
+        }
+
+        logger.info("Generated {} LUBM statements for {} universities.", statements.size(), numUniversities);
+        return statements;
+    }
+
+    /**
+     * Generates a dataset that is shaped like the BSBM e-commerce benchmark. Each product has a type, a producer,
+     * features and numeric properties, and is described by offers and reviews:
+     *
+     * <pre>
+     * bsbm-inst:Product{n} rdf:type bsbm-inst:ProductType{t}
+     * bsbm-inst:Product{n} bsbm:productFeature bsbm-inst:ProductFeature{f}
+     * bsbm-inst:Offer{o} bsbm:product bsbm-inst:Product{n}
+     * bsbm-inst:Offer{o} bsbm:price "..."^^xsd:double
+     * bsbm-inst:Review{r} bsbm:reviewFor bsbm-inst:Product{n}
+     * ...
+     * </pre>
+     *
+     * The same arguments always produce the same statements.
+     *
+     * @param numProducts - The number of products to generate.
+     * @param seed - Seeds the choice of types, features, prices and ratings.
+     * @return A new list of all generated Statements.
+     */
+    public List<Statement> generateBsbm(final int numProducts, final long seed) {
+        final Random random = new Random(seed);
+        final List<Statement> statements = Lists.newArrayList();
+
+        final URI productFeature = vf.createURI(BSBM_NS + "productFeature");
+        final URI producer = vf.createURI(BSBM_NS + "producer");
+        final URI numeric1 = vf.createURI(BSBM_NS + "productPropertyNumeric1");
+        final URI product = vf.createURI(BSBM_NS + "product");
+        final URI vendor = vf.createURI(BSBM_NS + "vendor");
+        final URI price = vf.createURI(BSBM_NS + "price");
+        final URI reviewFor = vf.createURI(BSBM_NS + "reviewFor");
+        final URI rating1 = vf.createURI(BSBM_NS + "rating1");
+        final URI reviewer = vf.createURI(BSBM_NS + "reviewer");
+
+        final int productTypes = 10;
+        final int features = 50;
+        final int producers = Math.max(1, numProducts / 50);
+        final int vendors = Math.max(1, numProducts / 100);
+        final int offersPerProduct = 4;
+        final int reviewsPerProduct = 2;
+
+        long offerId = 0;
+        long reviewId = 0;
+        for (int n = 0; n < numProducts; n++) {
+            final URI prod = vf.createURI(BSBM_INST_NS + "Product" + n);
+            statements.add(vf.createStatement(prod, RDF.TYPE, vf.createURI(BSBM_INST_NS + "ProductType" + random.nextInt(productTypes))));
+            statements.add(vf.createStatement(prod, RDFS.LABEL, vf.createLiteral("Product" + n)));
+            statements.add(vf.createStatement(prod, producer, vf.createURI(BSBM_INST_NS + "Producer" + random.nextInt(producers))));
+            statements.add(vf.createStatement(prod, numeric1, vf.createLiteral(random.nextInt(2000))));
+            for (int i = 0; i < 3; i++) {
+                statements.add(vf.createStatement(prod, productFeature, vf.createURI(BSBM_INST_NS + "ProductFeature" + random.nextInt(features))));
+            }
+
+            for (int i = 0; i < offersPerProduct; i++) {
+                final URI offer = vf.createURI(BSBM_INST_NS + "Offer" + offerId++);
+                statements.add(vf.createStatement(offer, product, prod));
+                statements.add(vf.createStatement(offer, vendor, vf.createURI(BSBM_INST_NS + "Vendor" + random.nextInt(vendors))));
+                statements.add(vf.createStatement(offer, price, vf.createLiteral(Math.round(random.nextDouble() * 1000000) / 100.0)));
+            }
+
+            for (int i = 0; i < reviewsPerProduct; i++) {
+                final URI review = vf.createURI(BSBM_INST_NS + "Review" + reviewId++);
+                statements.add(vf.createStatement(review, reviewFor, prod));
+                statements.add(vf.createStatement(review, reviewer, vf.createURI(BSBM_INST_NS + "Reviewer" + random.nextInt(numProducts))));
+                statements.add(vf.createStatement(review, rating1, vf.createLiteral(1 + random.nextInt(10))));
+            }
+        }
+
+        logger.info("Generated {} BSBM statements for {} products.", statements.size(), numProducts);
+        return statements;
+    }
 }
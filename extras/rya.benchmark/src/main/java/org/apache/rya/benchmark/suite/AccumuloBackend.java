@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import java.io.File;
+
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+
+import com.google.common.io.Files;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures the Accumulo DAO and Sail running against a {@link MiniAccumuloCluster}.
+ */
+@DefaultAnnotation(NonNull.class)
+public class AccumuloBackend extends SailBackend {
+
+    static final String ACCUMULO_USER = "root";
+    static final String ACCUMULO_PASSWORD = "password";
+    static final String RYA_INSTANCE_NAME = "rya_benchmark_";
+
+    private File dataDir = null;
+    private MiniAccumuloCluster cluster = null;
+
+    @Override
+    public String getName() {
+        return "accumulo";
+    }
+
+    @Override
+    protected Configuration startServers() throws Exception {
+        dataDir = Files.createTempDir();
+        cluster = new MiniAccumuloCluster(new MiniAccumuloConfig(dataDir, ACCUMULO_PASSWORD));
+        cluster.start();
+        return createRyaConfiguration(cluster);
+    }
+
+    /**
+     * @param cluster - The cluster Rya will be stored in. (not null)
+     * @return A configuration that connects Rya to the cluster.
+     */
+    static AccumuloRdfConfiguration createRyaConfiguration(final MiniAccumuloCluster cluster) {
+        final AccumuloRdfConfiguration ryaConf = new AccumuloRdfConfiguration();
+        ryaConf.setTablePrefix(RYA_INSTANCE_NAME);
+        ryaConf.setBoolean(ConfigUtils.USE_MOCK_INSTANCE, false);
+        ryaConf.set(ConfigUtils.CLOUDBASE_USER, ACCUMULO_USER);
+        ryaConf.set(ConfigUtils.CLOUDBASE_PASSWORD, ACCUMULO_PASSWORD);
+        ryaConf.set(ConfigUtils.CLOUDBASE_ZOOKEEPERS, cluster.getZooKeepers());
+        ryaConf.set(ConfigUtils.CLOUDBASE_INSTANCE, cluster.getInstanceName());
+        ryaConf.set(ConfigUtils.CLOUDBASE_AUTHS, "");
+        return ryaConf;
+    }
+
+    @Override
+    protected void stopServers() throws Exception {
+        try {
+            if (cluster != null) {
+                cluster.stop();
+            }
+        } finally {
+            if (dataDir != null) {
+                FileUtils.deleteQuietly(dataDir);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import java.util.List;
+
+import org.openrdf.model.Statement;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A Rya deployment that the {@link EndToEndBenchmark} loads statements into and queries. Each backend
+ * starts its own embedded servers so that runs are reproducible on a single machine.
+ */
+@DefaultAnnotation(NonNull.class)
+public interface BenchmarkBackend extends AutoCloseable {
+
+    /**
+     * @return The name the backend's results are reported under.
+     */
+    public String getName();
+
+    /**
+     * Starts the embedded servers and connects to them.
+     *
+     * @param queries - The SPARQL queries that will be evaluated once the data has been loaded. (not null)
+     * @throws Exception The backend could not be started.
+     */
+    public void start(List<String> queries) throws Exception;
+
+    /**
+     * Writes a batch of statements. The method does not return until the batch is visible to queries,
+     * including any incremental maintenance the backend performs.
+     *
+     * @param statements - The statements to write. (not null)
+     * @throws Exception The statements could not be written.
+     */
+    public void ingest(List<Statement> statements) throws Exception;
+
+    /**
+     * @return {@code true} if {@link #evaluate(String)} may be called.
+     */
+    public boolean supportsQueries();
+
+    /**
+     * Evaluates a query and reads all of its results.
+     *
+     * @param sparql - The query to evaluate. (not null)
+     * @return The number of results the query produced.
+     * @throws Exception The query could not be evaluated.
+     */
+    public long evaluate(String sparql) throws Exception;
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+
+import org.apache.rya.benchmark.periodic.BenchmarkStatementGenerator;
+import org.openrdf.model.Statement;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The datasets the {@link EndToEndBenchmark} may load, along with the queries that are run over them.
+ */
+@DefaultAnnotation(NonNull.class)
+public enum BenchmarkDataset {
+
+    /**
+     * University data shaped like LUBM. The scale is the number of universities, each with 5 departments.
+     */
+    LUBM {
+        @Override
+        public List<Statement> generate(final int scale, final long seed) throws DatatypeConfigurationException {
+            return new BenchmarkStatementGenerator().generateLubm(scale, 5, seed);
+        }
+
+        @Override
+        public Map<String, String> getQueries() {
+            final String prefix = "PREFIX ub: <" + BenchmarkStatementGenerator.LUBM_NS + "> "
+                    + "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> ";
+
+            final Map<String, String> queries = new LinkedHashMap<>();
+            queries.put("q1-course-students", prefix
+                    + "SELECT ?x WHERE { "
+                    + "?x rdf:type ub:GraduateStudent . "
+                    + "?x ub:takesCourse <http://www.Department0.University0.edu/Course0> . }");
+            queries.put("q2-department-members", prefix
+                    + "SELECT ?x ?y WHERE { "
+                    + "?x ub:memberOf ?y . "
+                    + "?y ub:subOrganizationOf <http://www.University0.edu> . }");
+            queries.put("q3-professor-contacts", prefix
+                    + "SELECT ?x ?name ?email WHERE { "
+                    + "?x rdf:type ub:FullProfessor . "
+                    + "?x ub:worksFor <http://www.Department0.University0.edu> . "
+                    + "?x ub:name ?name . "
+                    + "?x ub:emailAddress ?email . }");
+            queries.put("q4-advisor-courses", prefix
+                    + "SELECT ?x ?y ?z WHERE { "
+                    + "?x rdf:type ub:GraduateStudent . "
+                    + "?x ub:advisor ?y . "
+                    + "?y ub:teacherOf ?z . "
+                    + "?x ub:takesCourse ?z . }");
+            return queries;
+        }
+    },
+
+    /**
+     * E-commerce data shaped like BSBM. The scale is the number of products.
+     */
+    BSBM {
+        @Override
+        public List<Statement> generate(final int scale, final long seed) throws DatatypeConfigurationException {
+            return new BenchmarkStatementGenerator().generateBsbm(scale, seed);
+        }
+
+        @Override
+        public Map<String, String> getQueries() {
+            final String prefix = "PREFIX bsbm: <" + BenchmarkStatementGenerator.BSBM_NS + "> "
+                    + "PREFIX bsbm-inst: <" + BenchmarkStatementGenerator.BSBM_INST_NS + "> "
+                    + "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> "
+                    + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> ";
+
+            final Map<String, String> queries = new LinkedHashMap<>();
+            queries.put("q1-products-by-feature", prefix
+                    + "SELECT ?product ?label WHERE { "
+                    + "?product rdf:type bsbm-inst:ProductType1 . "
+                    + "?product bsbm:productFeature bsbm-inst:ProductFeature1 . "
+                    + "?product rdfs:label ?label . "
+                    + "?product bsbm:productPropertyNumeric1 ?value . "
+                    + "FILTER(?value > 1000) }");
+            queries.put("q2-product-details", prefix
+                    + "SELECT ?label ?producer ?feature WHERE { "
+                    + "bsbm-inst:Product0 rdfs:label ?label . "
+                    + "bsbm-inst:Product0 bsbm:producer ?producer . "
+                    + "bsbm-inst:Product0 bsbm:productFeature ?feature . }");
+            queries.put("q3-cheap-offers", prefix
+                    + "SELECT ?offer ?vendor ?price WHERE { "
+                    + "?offer bsbm:product bsbm-inst:Product0 . "
+                    + "?offer bsbm:vendor ?vendor . "
+                    + "?offer bsbm:price ?price . "
+                    + "FILTER(?price < 5000.0) }");
+            queries.put("q4-reviews-by-type", prefix
+                    + "SELECT ?review ?product ?rating WHERE { "
+                    + "?product rdf:type bsbm-inst:ProductType0 . "
+                    + "?review bsbm:reviewFor ?product . "
+                    + "?review bsbm:rating1 ?rating . }");
+            return queries;
+        }
+    };
+
+    /**
+     * Generates the dataset. The same arguments always produce the same statements.
+     *
+     * @param scale - How large the dataset is. What is scaled depends on the dataset.
+     * @param seed - Seeds the random choices made while generating the data.
+     * @return The generated statements.
+     * @throws DatatypeConfigurationException The generator could not be created.
+     */
+    public abstract List<Statement> generate(int scale, long seed) throws DatatypeConfigurationException;
+
+    /**
+     * @return The queries that are evaluated over the dataset, keyed by the name they are reported under.
+     */
+    public abstract Map<String, String> getQueries();
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.rya.benchmark.suite.LatencyStatistics.Summary;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The results of an {@link EndToEndBenchmark} run. The report is written as JSON using the field names,
+ * so renaming a field breaks comparisons with reports from earlier versions.
+ */
+@DefaultAnnotation(NonNull.class)
+public class BenchmarkReport {
+
+    String ryaVersion;
+    String javaVersion;
+    String startTime;
+    String dataset;
+    int scale;
+    long seed;
+    int statements;
+    int batchSize;
+    int warmupRuns;
+    int queryRuns;
+    final List<BackendReport> backends = new ArrayList<>();
+
+    public List<BackendReport> getBackends() {
+        return backends;
+    }
+
+    /**
+     * The results measured for one {@link BenchmarkBackend}.
+     */
+    public static class BackendReport {
+        String name;
+        @Nullable String error;
+        long startupMillis;
+        long ingestMillis;
+        double statementsPerSecond;
+        Summary batchLatency;
+        long heapBytesBeforeIngest;
+        long peakHeapBytesDuringIngest;
+        long retainedHeapBytesAfterIngest;
+        long peakHeapBytesDuringQueries;
+        final List<QueryReport> queries = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public @Nullable String getError() {
+            return error;
+        }
+
+        public double getStatementsPerSecond() {
+            return statementsPerSecond;
+        }
+
+        public List<QueryReport> getQueries() {
+            return queries;
+        }
+    }
+
+    /**
+     * The results measured for one query against one {@link BenchmarkBackend}.
+     */
+    public static class QueryReport {
+        String name;
+        String sparql;
+        long results;
+        Summary latency;
+
+        public String getName() {
+            return name;
+        }
+
+        public long getResults() {
+            return results;
+        }
+
+        public Summary getLatency() {
+            return latency;
+        }
+    }
+}
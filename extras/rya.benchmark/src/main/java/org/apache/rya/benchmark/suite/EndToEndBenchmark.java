@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.benchmark.suite.BenchmarkReport.BackendReport;
+import org.apache.rya.benchmark.suite.BenchmarkReport.QueryReport;
+import org.openrdf.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A reproducible end to end benchmark that loads a generated dataset into Rya backends that run
+ * embedded within the benchmark's JVM and then queries it. For each backend it measures:
+ * <ul>
+ *     <li>Ingest throughput and the latency of each ingested batch.</li>
+ *     <li>The latency percentiles of each of the dataset's queries.</li>
+ *     <li>How much heap was used while ingesting and querying.</li>
+ * </ul>
+ * The following backends are available:
+ * <ul>
+ *     <li>accumulo - The Accumulo DAO and Sail over a MiniAccumuloCluster.</li>
+ *     <li>mongo - The MongoDB DAO and Sail over an embedded MongoDB server.</li>
+ *     <li>fluo-pcj - Incremental maintenance of the dataset's queries by the Rya PCJ Fluo application.</li>
+ * </ul>
+ * The results are written as JSON so that runs against different versions of Rya may be compared.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.suite.EndToEndBenchmark --dataset LUBM --scale 1 --output results.json
+ * </pre>
+ */
+@DefaultAnnotation(NonNull.class)
+public class EndToEndBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(EndToEndBenchmark.class);
+
+    private final Options options;
+
+    /**
+     * Constructs an instance of {@link EndToEndBenchmark}.
+     *
+     * @param options - Configures what will be benchmarked. (not null)
+     */
+    public EndToEndBenchmark(final Options options) {
+        this.options = requireNonNull(options);
+    }
+
+    /**
+     * Runs the benchmark against each of the configured backends. A backend that fails is reported
+     * with its error and does not stop the remaining backends from being measured.
+     *
+     * @return The measurements.
+     * @throws Exception The dataset could not be generated.
+     */
+    public BenchmarkReport run() throws Exception {
+        final BenchmarkReport report = new BenchmarkReport();
+        report.ryaVersion = EndToEndBenchmark.class.getPackage().getImplementationVersion();
+        report.javaVersion = System.getProperty("java.version");
+        report.startTime = ZonedDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        report.dataset = options.dataset.name();
+        report.scale = options.scale;
+        report.seed = options.seed;
+        report.batchSize = options.batchSize;
+        report.warmupRuns = options.warmupRuns;
+        report.queryRuns = options.queryRuns;
+
+        final List<Statement> statements = options.dataset.generate(options.scale, options.seed);
+        report.statements = statements.size();
+
+        for (final String backendName : options.backends) {
+            final BenchmarkBackend backend = createBackend(backendName);
+            logger.info("Benchmarking the {} backend.", backend.getName());
+            report.backends.add( run(backend, statements) );
+        }
+        return report;
+    }
+
+    private BackendReport run(final BenchmarkBackend backend, final List<Statement> statements) {
+        final BackendReport report = new BackendReport();
+        report.name = backend.getName();
+
+        final Map<String, String> queries = options.dataset.getQueries();
+        try (final HeapMonitor heap = new HeapMonitor(50)) {
+            try {
+                // Start the backend.
+                final long startupStart = System.nanoTime();
+                backend.start( new ArrayList<>(queries.values()) );
+                report.startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startupStart);
+
+                // Load the dataset.
+                report.heapBytesBeforeIngest = heap.reset();
+                final LatencyStatistics batchLatency = new LatencyStatistics();
+                final long ingestStart = System.nanoTime();
+                for (final List<Statement> batch : Lists.partition(statements, options.batchSize)) {
+                    final long batchStart = System.nanoTime();
+                    backend.ingest(batch);
+                    batchLatency.record(System.nanoTime() - batchStart);
+                }
+                final long ingestNanos = System.nanoTime() - ingestStart;
+                report.ingestMillis = TimeUnit.NANOSECONDS.toMillis(ingestNanos);
+                report.statementsPerSecond = ingestNanos == 0 ? 0 : statements.size() * 1e9 / ingestNanos;
+                report.batchLatency = batchLatency.summarize();
+                report.peakHeapBytesDuringIngest = heap.getPeakBytes();
+                report.retainedHeapBytesAfterIngest = heap.reset();
+                logger.info("Ingested {} statements into {} at {} statements/second.",
+                        statements.size(), backend.getName(), Math.round(report.statementsPerSecond));
+
+                // Evaluate the queries.
+                if (backend.supportsQueries()) {
+                    for (final Entry<String, String> query : queries.entrySet()) {
+                        report.queries.add( run(backend, query.getKey(), query.getValue()) );
+                    }
+                    report.peakHeapBytesDuringQueries = heap.getPeakBytes();
+                }
+            } catch (final Exception e) {
+                logger.error("The " + backend.getName() + " backend failed.", e);
+                report.error = e.toString();
+            } finally {
+                try {
+                    backend.close();
+                } catch (final Exception e) {
+                    logger.warn("Could not shut down the " + backend.getName() + " backend.", e);
+                }
+            }
+        }
+        return report;
+    }
+
+    private QueryReport run(final BenchmarkBackend backend, final String name, final String sparql) throws Exception {
+        final QueryReport report = new QueryReport();
+        report.name = name;
+        report.sparql = sparql;
+
+        for (int i = 0; i < options.warmupRuns; i++) {
+            backend.evaluate(sparql);
+        }
+
+        final LatencyStatistics latency = new LatencyStatistics();
+        for (int i = 0; i < options.queryRuns; i++) {
+            final long start = System.nanoTime();
+            report.results = backend.evaluate(sparql);
+            latency.record(System.nanoTime() - start);
+        }
+        report.latency = latency.summarize();
+
+        logger.info("Query {} on {} returned {} results with a median latency of {} ms.",
+                name, backend.getName(), report.results, report.latency.getP50Millis());
+        return report;
+    }
+
+    private static BenchmarkBackend createBackend(final String name) {
+        switch (name) {
+            case "accumulo":
+                return new AccumuloBackend();
+            case "mongo":
+                return new MongoBackend();
+            case "fluo-pcj":
+                return new FluoPcjBackend();
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + name);
+        }
+    }
+
+    /**
+     * Writes a report as JSON.
+     *
+     * @param report - The report to write. (not null)
+     * @param file - The file the report is written to. (not null)
+     * @throws Exception The report could not be written.
+     */
+    public static void write(final BenchmarkReport report, final File file) throws Exception {
+        final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(report, writer);
+        }
+    }
+
+    /**
+     * The command line options of the benchmark.
+     */
+    public static class Options {
+        @Parameter(names = { "-d", "--dataset" }, description = "The dataset to generate: LUBM or BSBM")
+        private BenchmarkDataset dataset = BenchmarkDataset.LUBM;
+
+        @Parameter(names = { "-s", "--scale" }, description = "Universities for LUBM, products for BSBM")
+        private int scale = 1;
+
+        @Parameter(names = { "--seed" }, description = "Seeds the data generator so runs are reproducible")
+        private long seed = 42;
+
+        @Parameter(names = { "-b", "--backends" }, description = "Comma separated backends: accumulo, mongo, fluo-pcj")
+        private List<String> backends = Lists.newArrayList("accumulo", "mongo", "fluo-pcj");
+
+        @Parameter(names = { "--batch-size" }, description = "How many statements are ingested at a time")
+        private int batchSize = 1000;
+
+        @Parameter(names = { "--warmup-runs" }, description = "How many times each query is run before it is measured")
+        private int warmupRuns = 3;
+
+        @Parameter(names = { "--query-runs" }, description = "How many times each query is measured")
+        private int queryRuns = 20;
+
+        @Parameter(names = { "-o", "--output" }, description = "The file the JSON report is written to")
+        private File output = new File("rya-benchmark-results.json");
+
+        public Options setDataset(final BenchmarkDataset dataset) {
+            this.dataset = requireNonNull(dataset);
+            return this;
+        }
+
+        public Options setScale(final int scale) {
+            this.scale = scale;
+            return this;
+        }
+
+        public Options setBackends(final List<String> backends) {
+            this.backends = requireNonNull(backends);
+            return this;
+        }
+
+        public Options setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Options setWarmupRuns(final int warmupRuns) {
+            this.warmupRuns = warmupRuns;
+            return this;
+        }
+
+        public Options setQueryRuns(final int queryRuns) {
+            this.queryRuns = queryRuns;
+            return this;
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Options options = new Options();
+        final JCommander cli = new JCommander(options);
+        cli.setProgramName(EndToEndBenchmark.class.getName());
+        try {
+            cli.parse(args);
+            if (options.batchSize < 1 || options.queryRuns < 1 || options.warmupRuns < 0 || options.scale < 1) {
+                throw new ParameterException("The scale, batch size and query runs must be positive.");
+            }
+        } catch (final ParameterException e) {
+            System.err.println("Error! Invalid input: " + e.getMessage());
+            cli.usage();
+            System.exit(1);
+        }
+
+        final BenchmarkReport report = new EndToEndBenchmark(options).run();
+        write(report, options.output);
+        logger.info("Wrote the benchmark report to {}", options.output.getAbsolutePath());
+        System.exit(0);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.commons.io.FileUtils;
+import org.apache.fluo.api.client.FluoAdmin;
+import org.apache.fluo.api.client.FluoClient;
+import org.apache.fluo.api.client.FluoFactory;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.config.ObserverSpecification;
+import org.apache.fluo.api.mini.MiniFluo;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.indexing.pcj.fluo.api.CreateFluoPcj;
+import org.apache.rya.indexing.pcj.fluo.api.InsertTriples;
+import org.apache.rya.indexing.pcj.fluo.app.batch.BatchObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.AggregationCombineObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.AggregationObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.FilterObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.JoinObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.ProjectionObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.StatementPatternObserver;
+import org.apache.rya.indexing.pcj.fluo.app.observers.TripleObserver;
+import org.apache.rya.indexing.pcj.fluo.app.query.MetadataCacheSupplier;
+import org.apache.rya.indexing.pcj.fluo.app.query.StatementPatternIdCacheSupplier;
+import org.openrdf.model.Statement;
+
+import com.google.common.io.Files;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures how long the Rya PCJ Fluo application takes to incrementally maintain the benchmark's queries.
+ * Every query is registered as a PCJ before any data is loaded, and a batch is only considered ingested
+ * once the Fluo observers have finished processing it.
+ * <p>
+ * The results are not exported, so the measurement covers the joins, filters, aggregations and projections
+ * that are maintained within Fluo and not the cost of writing to an external PCJ table or Kafka topic.
+ */
+@DefaultAnnotation(NonNull.class)
+public class FluoPcjBackend implements BenchmarkBackend {
+
+    private static final String FLUO_APP_NAME = "rya_benchmark_pcj_updater";
+
+    private File dataDir = null;
+    private MiniAccumuloCluster cluster = null;
+    private MiniFluo fluo = null;
+    private FluoClient fluoClient = null;
+
+    @Override
+    public String getName() {
+        return "fluo-pcj";
+    }
+
+    @Override
+    public void start(final List<String> queries) throws Exception {
+        requireNonNull(queries);
+
+        dataDir = Files.createTempDir();
+        cluster = new MiniAccumuloCluster(new MiniAccumuloConfig(dataDir, AccumuloBackend.ACCUMULO_PASSWORD));
+        cluster.start();
+
+        final FluoConfiguration fluoConfig = new FluoConfiguration();
+        fluoConfig.setMiniStartAccumulo(false);
+        fluoConfig.setAccumuloInstance(cluster.getInstanceName());
+        fluoConfig.setAccumuloUser(AccumuloBackend.ACCUMULO_USER);
+        fluoConfig.setAccumuloPassword(AccumuloBackend.ACCUMULO_PASSWORD);
+        fluoConfig.setInstanceZookeepers(cluster.getZooKeepers() + "/fluo");
+        fluoConfig.setAccumuloZookeepers(cluster.getZooKeepers());
+        fluoConfig.setApplicationName(FLUO_APP_NAME);
+        fluoConfig.setAccumuloTable(FLUO_APP_NAME);
+
+        // The QueryResultObserver is left out so that results stay within Fluo.
+        final List<ObserverSpecification> observers = new ArrayList<>();
+        observers.add(new ObserverSpecification(BatchObserver.class.getName()));
+        observers.add(new ObserverSpecification(TripleObserver.class.getName()));
+        observers.add(new ObserverSpecification(StatementPatternObserver.class.getName()));
+        observers.add(new ObserverSpecification(JoinObserver.class.getName()));
+        observers.add(new ObserverSpecification(FilterObserver.class.getName()));
+        observers.add(new ObserverSpecification(AggregationObserver.class.getName()));
+        observers.add(new ObserverSpecification(AggregationCombineObserver.class.getName()));
+        observers.add(new ObserverSpecification(ProjectionObserver.class.getName()));
+        fluoConfig.addObservers(observers);
+
+        FluoFactory.newAdmin(fluoConfig).initialize(new FluoAdmin.InitializationOptions()
+                .setClearTable(true)
+                .setClearZookeeper(true));
+        fluo = FluoFactory.newMiniFluo(fluoConfig);
+        fluoClient = FluoFactory.newClient(fluo.getClientConfiguration());
+
+        final CreateFluoPcj createPcj = new CreateFluoPcj();
+        for (final String sparql : queries) {
+            createPcj.createPcj(sparql, fluoClient);
+        }
+    }
+
+    @Override
+    public void ingest(final List<Statement> statements) throws Exception {
+        requireNonNull(statements);
+        checkState(fluoClient != null, "The backend has not been started.");
+
+        final List<RyaStatement> triples = statements.stream()
+                .map(RdfToRyaConversions::convertStatement)
+                .collect(Collectors.toList());
+        new InsertTriples().insert(fluoClient, triples);
+        fluo.waitForObservers();
+    }
+
+    @Override
+    public boolean supportsQueries() {
+        return false;
+    }
+
+    @Override
+    public long evaluate(final String sparql) {
+        throw new UnsupportedOperationException("The Fluo PCJ backend only measures incremental maintenance.");
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (fluoClient != null) {
+                fluoClient.close();
+            }
+            if (fluo != null) {
+                fluo.close();
+            }
+            StatementPatternIdCacheSupplier.clear();
+            MetadataCacheSupplier.clear();
+            if (cluster != null) {
+                cluster.stop();
+            }
+        } finally {
+            if (dataDir != null) {
+                FileUtils.deleteQuietly(dataDir);
+            }
+        }
+    }
+}
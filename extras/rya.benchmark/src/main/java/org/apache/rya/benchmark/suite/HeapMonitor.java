@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Samples how much of the JVM's heap is in use while a phase of the benchmark runs. The embedded backends
+ * run within the benchmark's JVM, so the numbers include their servers as well as the Rya client code.
+ */
+@DefaultAnnotation(NonNull.class)
+public class HeapMonitor implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "heap-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong peakUsed = new AtomicLong();
+
+    /**
+     * Constructs an instance of {@link HeapMonitor} that starts sampling immediately.
+     *
+     * @param samplePeriodMillis - How often the heap is sampled.
+     */
+    public HeapMonitor(final long samplePeriodMillis) {
+        sampler.scheduleAtFixedRate(this::sample, 0, samplePeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        final long used = memory.getHeapMemoryUsage().getUsed();
+        peakUsed.accumulateAndGet(used, Math::max);
+    }
+
+    /**
+     * Forgets the peak that has been seen so far, so the next phase is measured on its own.
+     *
+     * @return The number of bytes that are in use after a garbage collection.
+     */
+    public long reset() {
+        final long retained = getRetainedBytes();
+        peakUsed.set(retained);
+        return retained;
+    }
+
+    /**
+     * @return The most heap that was in use since the monitor was created or last reset, in bytes.
+     */
+    public long getPeakBytes() {
+        sample();
+        return peakUsed.get();
+    }
+
+    /**
+     * Requests a garbage collection and then reports how much heap is still in use. This is an estimate
+     * because the JVM may ignore the request.
+     *
+     * @return The number of bytes that are in use.
+     */
+    public long getRetainedBytes() {
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+}
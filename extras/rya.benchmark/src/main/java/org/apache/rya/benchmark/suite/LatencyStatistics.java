@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Records a series of latencies and summarizes them as percentiles. Percentiles use the nearest-rank method,
+ * so every reported value is one that was actually recorded.
+ * <p>
+ * This class is not thread safe.
+ */
+@DefaultAnnotation(NonNull.class)
+public class LatencyStatistics {
+
+    private long[] nanos = new long[16];
+    private int count = 0;
+    private boolean sorted = true;
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos - How long the measured operation took in nanoseconds. (not negative)
+     */
+    public void record(final long latencyNanos) {
+        checkArgument(latencyNanos >= 0, "A latency may not be negative.");
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        if (count > 0 && latencyNanos < nanos[count - 1]) {
+            sorted = false;
+        }
+        nanos[count++] = latencyNanos;
+    }
+
+    /**
+     * @return How many latencies have been recorded.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The sum of every recorded latency in nanoseconds.
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += nanos[i];
+        }
+        return total;
+    }
+
+    /**
+     * @param percentile - The percentile to look up. (between 0 and 100)
+     * @return The latency at that percentile in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(final double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "The percentile must be between 0 and 100.");
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(nanos, 0, count);
+            sorted = true;
+        }
+        final int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return nanos[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * @return A summary of the recorded latencies, in milliseconds.
+     */
+    public Summary summarize() {
+        final Summary summary = new Summary();
+        summary.count = count;
+        summary.meanMillis = count == 0 ? 0 : toMillis(getTotalNanos()) / count;
+        summary.minMillis = toMillis(getPercentileNanos(0));
+        summary.p50Millis = toMillis(getPercentileNanos(50));
+        summary.p90Millis = toMillis(getPercentileNanos(90));
+        summary.p99Millis = toMillis(getPercentileNanos(99));
+        summary.maxMillis = toMillis(getPercentileNanos(100));
+        return summary;
+    }
+
+    private static double toMillis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The percentiles of a set of latencies. The fields are written to the suite's JSON report as they are named.
+     */
+    public static class Summary {
+        int count;
+        double meanMillis;
+        double minMillis;
+        double p50Millis;
+        double p90Millis;
+        double p99Millis;
+        double maxMillis;
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getMinMillis() {
+            return minMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP90Millis() {
+            return p90Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.mongodb.EmbeddedMongoFactory;
+import org.apache.rya.mongodb.MongoDBRdfConfiguration;
+
+import de.flapdoodle.embed.mongo.config.IMongodConfig;
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Measures the MongoDB DAO and Sail running against a MongoDB server started by {@link EmbeddedMongoFactory}.
+ */
+@DefaultAnnotation(NonNull.class)
+public class MongoBackend extends SailBackend {
+
+    private static final String RYA_INSTANCE_NAME = "rya_benchmark";
+
+    private EmbeddedMongoFactory mongo = null;
+
+    @Override
+    public String getName() {
+        return "mongo";
+    }
+
+    @Override
+    protected Configuration startServers() throws Exception {
+        mongo = EmbeddedMongoFactory.newFactory();
+        final IMongodConfig mongoConfig = mongo.getMongoServerDetails();
+
+        final MongoDBRdfConfiguration ryaConf = new MongoDBRdfConfiguration();
+        ryaConf.setBoolean(ConfigUtils.USE_MONGO, true);
+        ryaConf.setMongoHostname(mongoConfig.net().getServerAddress().getHostAddress());
+        ryaConf.setMongoPort("" + mongoConfig.net().getPort());
+        ryaConf.setRyaInstanceName(RYA_INSTANCE_NAME);
+        ryaConf.setTablePrefix(RYA_INSTANCE_NAME);
+        ryaConf.setFlush(false);
+        return ryaConf;
+    }
+
+    @Override
+    protected void stopServers() throws Exception {
+        if (mongo != null) {
+            mongo.shutdown();
+        }
+    }
+}
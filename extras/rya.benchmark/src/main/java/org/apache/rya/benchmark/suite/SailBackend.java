@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.api.persist.RyaDAO;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
+import org.apache.rya.sail.config.RyaSailFactory;
+import org.openrdf.model.Statement;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.query.parser.ParsedQuery;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+import org.openrdf.sail.Sail;
+import org.openrdf.sail.SailConnection;
+
+import com.google.common.collect.Iterators;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * A backend that writes statements through a Rya DAO and evaluates queries with the Rya Sail.
+ */
+@DefaultAnnotation(NonNull.class)
+public abstract class SailBackend implements BenchmarkBackend {
+
+    private Sail sail = null;
+    private RyaDAO<?> dao = null;
+
+    /**
+     * Starts the backend's embedded servers.
+     *
+     * @return The Rya configuration that connects to the servers.
+     * @throws Exception The servers could not be started.
+     */
+    protected abstract Configuration startServers() throws Exception;
+
+    /**
+     * Stops the backend's embedded servers.
+     *
+     * @throws Exception The servers could not be stopped.
+     */
+    protected abstract void stopServers() throws Exception;
+
+    @Override
+    public void start(final List<String> queries) throws Exception {
+        sail = RyaSailFactory.getInstance( startServers() );
+        dao = ((RdfCloudTripleStore) sail).getRyaDAO();
+    }
+
+    @Override
+    public void ingest(final List<Statement> statements) throws Exception {
+        requireNonNull(statements);
+        checkState(dao != null, "The backend has not been started.");
+        dao.add( Iterators.transform(statements.iterator(), RdfToRyaConversions::convertStatement) );
+        dao.flush();
+    }
+
+    @Override
+    public boolean supportsQueries() {
+        return true;
+    }
+
+    @Override
+    public long evaluate(final String sparql) throws Exception {
+        requireNonNull(sparql);
+        checkState(sail != null, "The backend has not been started.");
+
+        final ParsedQuery parsed = new SPARQLParser().parseQuery(sparql, null);
+        long count = 0;
+        final SailConnection conn = sail.getConnection();
+        try {
+            final CloseableIteration<? extends BindingSet, ?> results =
+                    conn.evaluate(parsed.getTupleExpr(), parsed.getDataset(), new QueryBindingSet(), false);
+            try {
+                while (results.hasNext()) {
+                    results.next();
+                    count++;
+                }
+            } finally {
+                results.close();
+            }
+        } finally {
+            conn.close();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (sail != null) {
+                sail.shutDown();
+            }
+        } finally {
+            stopServers();
+        }
+    }
+}
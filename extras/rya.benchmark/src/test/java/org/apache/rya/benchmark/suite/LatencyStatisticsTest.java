@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.suite;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.rya.benchmark.suite.LatencyStatistics.Summary;
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link LatencyStatistics}.
+ */
+public class LatencyStatisticsTest {
+
+    @Test
+    public void percentiles() {
+        final LatencyStatistics stats = new LatencyStatistics();
+        // Record 1..100 ms out of order.
+        for (int i = 100; i >= 1; i--) {
+            stats.record(i * 1_000_000L);
+        }
+
+        assertEquals(100, stats.getCount());
+        assertEquals(1_000_000L, stats.getPercentileNanos(0));
+        assertEquals(50_000_000L, stats.getPercentileNanos(50));
+        assertEquals(90_000_000L, stats.getPercentileNanos(90));
+        assertEquals(99_000_000L, stats.getPercentileNanos(99));
+        assertEquals(100_000_000L, stats.getPercentileNanos(100));
+    }
+
+    @Test
+    public void summarize() {
+        final LatencyStatistics stats = new LatencyStatistics();
+        stats.record(2_000_000L);
+        stats.record(4_000_000L);
+
+        final Summary summary = stats.summarize();
+        assertEquals(2, summary.getCount());
+        assertEquals(3.0, summary.getMeanMillis(), 0.0001);
+        assertEquals(2.0, summary.getP50Millis(), 0.0001);
+        assertEquals(4.0, summary.getMaxMillis(), 0.0001);
+    }
+
+    @Test
+    public void summarizeNothing() {
+        final Summary summary = new LatencyStatistics().summarize();
+        assertEquals(0, summary.getCount());
+        assertEquals(0.0, summary.getMaxMillis(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLatency() {
+        new LatencyStatistics().record(-1);
+    }
+}
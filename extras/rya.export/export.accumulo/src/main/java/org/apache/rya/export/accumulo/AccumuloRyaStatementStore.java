@@ -21,8 +21,13 @@ package org.apache.rya.export.accumulo;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -35,7 +40,9 @@ import org.apache.log4j.Logger;
 import org.apache.rya.accumulo.AccumuloRyaDAO;
 import org.apache.rya.api.RdfCloudTripleStoreConstants;
 import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
 import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.persist.query.BatchRyaQuery;
 import org.apache.rya.api.resolver.RyaTripleContext;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 import org.apache.rya.export.InstanceType;
@@ -48,11 +55,15 @@ import org.apache.rya.export.api.store.AddStatementException;
 import org.apache.rya.export.api.store.ContainsStatementException;
 import org.apache.rya.export.api.store.FetchStatementException;
 import org.apache.rya.export.api.store.RemoveStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds;
 import org.apache.rya.export.api.store.RyaStatementStore;
+import org.apache.rya.export.api.store.StatementOrder;
 import org.apache.rya.export.api.store.UpdateStatementException;
+import org.calrissian.mango.collect.CloseableIterable;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 
 import info.aduna.iteration.CloseableIteration;
 
@@ -65,6 +76,7 @@ import info.aduna.iteration.CloseableIteration;
  * <li>add a rya statement to the store</li>
  * <li>remove a rya statement from the store</li>
  * <li>update an existing rya statement with a new one</li>
+ * <li>add, remove, and check for rya statements in batches</li>
  *
  * One would use this {@link AccumuloRyaStatementStore} when they have an
  * Accumulo database that is used when merging in data or exporting data.
@@ -134,6 +146,19 @@ public class AccumuloRyaStatementStore implements RyaStatementStore {
         }
     }
 
+    /**
+     * The statements are fetched in the order of the rows of the SPO table.
+     * That is only an order the statements can be diffed in when the rows are
+     * not prefixed with hashes.
+     */
+    @Override
+    public Optional<StatementOrder> getNativeOrder() {
+        if (accumuloRyaDao.getConf().isPrefixRowsWithHash()) {
+            return Optional.empty();
+        }
+        return Optional.of(StatementOrder.SPO);
+    }
+
     @Override
     public void addStatement(final RyaStatement statement) throws AddStatementException {
         try {
@@ -150,6 +175,78 @@ public class AccumuloRyaStatementStore implements RyaStatementStore {
         }
     }
 
+    @Override
+    public void addStatements(final Iterator<RyaStatement> statements) throws AddStatementException {
+        try {
+            final List<RyaStatement> batch = Lists.newArrayList(statements);
+            accumuloRyaDao.add(batch.iterator());
+            accumuloRyaDao.flush();
+            //This is a hack since a statement re-added with the same timestamp won't reappear since its been marked for deletion.
+            //RYA-197 is the ticket for fixing this hack.
+            final Set<String> contained = containsStatements(batch);
+            final List<RyaStatement> missing = new ArrayList<>();
+            for (final RyaStatement statement : batch) {
+                if (!contained.contains(RyaStatementIds.getId(statement))) {
+                    statement.setTimestamp(statement.getTimestamp() + 1L);
+                    missing.add(statement);
+                }
+            }
+            if (!missing.isEmpty()) {
+                accumuloRyaDao.add(missing.iterator());
+                accumuloRyaDao.flush();
+            }
+        } catch (final RyaDAOException | ContainsStatementException e) {
+            throw new AddStatementException("Unable to add the Rya Statements", e);
+        }
+    }
+
+    @Override
+    public void removeStatements(final Iterator<RyaStatement> statements) throws RemoveStatementException {
+        try {
+            accumuloRyaDao.delete(statements, accumuloRyaDao.getConf());
+        } catch (final RyaDAOException e) {
+            throw new RemoveStatementException("Unable to delete the Rya Statements", e);
+        }
+    }
+
+    @Override
+    public Set<String> containsStatements(final Collection<RyaStatement> statements) throws ContainsStatementException {
+        checkNotNull(statements);
+        // A batch query may only scan a single context, so the statements are grouped by context.
+        final Map<RyaURI, List<RyaStatement>> byContext = new HashMap<>();
+        for (final RyaStatement statement : statements) {
+            List<RyaStatement> group = byContext.get(statement.getContext());
+            if (group == null) {
+                group = new ArrayList<>();
+                byContext.put(statement.getContext(), group);
+            }
+            group.add(statement);
+        }
+
+        final Set<String> contained = new HashSet<>();
+        for (final List<RyaStatement> group : byContext.values()) {
+            final BatchRyaQuery query = BatchRyaQuery.builder(group).load(accumuloRyaDao.getConf()).build();
+            CloseableIterable<RyaStatement> results = null;
+            try {
+                results = accumuloRyaDao.getQueryEngine().query(query);
+                for (final RyaStatement result : results) {
+                    contained.add(RyaStatementIds.getId(result));
+                }
+            } catch (final RyaDAOException e) {
+                throw new ContainsStatementException("Encountered an error while querying for statements.", e);
+            } finally {
+                if (results != null) {
+                    try {
+                        results.close();
+                    } catch (final IOException e) {
+                        log.warn("Unable to close the statement query.", e);
+                    }
+                }
+            }
+        }
+        return contained;
+    }
+
     @Override
     public void removeStatement(final RyaStatement statement) throws RemoveStatementException {
         try {
@@ -27,6 +27,7 @@ import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.export.accumulo.AccumuloRyaStatementStore;
 import org.apache.rya.export.api.conf.policy.TimestampPolicyStatementStore;
 import org.apache.rya.export.api.store.FetchStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 import org.apache.rya.export.api.store.RyaStatementStore;
 
 /**
@@ -61,4 +62,9 @@ public class TimestampPolicyAccumuloRyaStatementStore extends TimestampPolicySta
     public Iterator<RyaStatement> fetchStatements() throws FetchStatementException {
         return store.fetchStatements();
     }
+
+    @Override
+    public Iterator<RyaStatement> fetchStatements(final IdRange range) throws FetchStatementException {
+        return store.fetchStatements(range);
+    }
 }
@@ -24,8 +24,11 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.log4j.LogManager;
@@ -40,6 +43,7 @@ import org.apache.rya.export.api.store.AddStatementException;
 import org.apache.rya.export.api.store.FetchStatementException;
 import org.apache.rya.export.api.store.RemoveStatementException;
 import org.apache.rya.export.api.store.RyaStatementStore;
+import org.apache.rya.export.api.store.StatementOrder;
 import org.apache.rya.export.api.store.UpdateStatementException;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.junit.After;
@@ -49,6 +53,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
 
 /**
  * Tests the methods of {@link AccumuloRyaStatementStore}.
@@ -115,6 +120,24 @@ public class AccumuloRyaStatementStoreTest {
         accumuloRyaStatementStore.fetchStatements();
     }
 
+    @Test
+    public void testFetchStatements_NativeOrder() throws MergerException {
+        final AccumuloRyaStatementStore accumuloRyaStatementStore = createAccumuloRyaStatementStore();
+        assertEquals(Optional.of(StatementOrder.SPO), accumuloRyaStatementStore.getNativeOrder());
+
+        for (final RyaStatement ryaStatement : RYA_STATEMENTS.reverse()) {
+            accumuloRyaStatementStore.addStatement(ryaStatement);
+        }
+
+        final List<String> keys = new ArrayList<>();
+        final Iterator<RyaStatement> statements = accumuloRyaStatementStore.fetchStatements();
+        while (statements.hasNext()) {
+            keys.add(StatementOrder.SPO.getKey(statements.next()));
+        }
+        assertEquals(RYA_STATEMENTS.size(), keys.size());
+        assertTrue(Ordering.natural().isOrdered(keys));
+    }
+
     @Test
     public void testRemoveAddStatements() throws MergerException {
         final AccumuloRyaStatementStore accumuloRyaStatementStore = createAccumuloRyaStatementStore();
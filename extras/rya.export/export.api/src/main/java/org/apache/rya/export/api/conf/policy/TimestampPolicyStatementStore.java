@@ -25,6 +25,7 @@ import java.util.Iterator;
 
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.export.api.store.FetchStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 import org.apache.rya.export.api.store.RyaStatementStore;
 import org.apache.rya.export.api.store.RyaStatementStorePolicy;
 
@@ -50,4 +51,11 @@ public abstract class TimestampPolicyStatementStore extends RyaStatementStorePol
      */
     @Override
     public abstract Iterator<RyaStatement> fetchStatements() throws FetchStatementException;
+
+    /**
+     * The statements fetched will have been inserted into the statement store after
+     * the specified timestamp.
+     */
+    @Override
+    public abstract Iterator<RyaStatement> fetchStatements(final IdRange range) throws FetchStatementException;
 }
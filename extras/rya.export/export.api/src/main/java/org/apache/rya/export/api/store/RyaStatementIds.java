@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.export.api.store;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.rya.api.domain.RyaStatement;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Computes the ids that {@link RyaStatementStore}s use to order and partition
+ * {@link RyaStatement}s when they are diffed against each other.
+ * <p>
+ * A statement's id is the lower case hex SHA-1 of its subject, predicate,
+ * object, and context separated by spaces.  This is the same value the Mongo
+ * Rya DAO uses as a document's {@code _id}, so a Mongo store can read its
+ * statements in id order straight off of the primary index.  Two statements
+ * that only differ by timestamp, visibility, or metadata share an id.
+ */
+public final class RyaStatementIds {
+    /**
+     * The number of characters of an id that {@link #partition(int)} splits on.
+     */
+    private static final int PARTITION_PREFIX_LENGTH = 4;
+    private static final int PARTITION_PREFIX_VALUES = 1 << (4 * PARTITION_PREFIX_LENGTH);
+
+    private RyaStatementIds() {
+    }
+
+    /**
+     * @param statement - The {@link RyaStatement} to compute the id of. (not null)
+     * @return The id of the statement.
+     */
+    public static String getId(final RyaStatement statement) {
+        checkNotNull(statement);
+        final String context = statement.getContext() == null ? "" : statement.getContext().getData();
+        final String id = statement.getSubject().getData() + " " +
+                statement.getPredicate().getData() + " " + statement.getObject().getData() + " " + context;
+        return Hashing.sha1().hashString(id, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Splits the id space into contiguous ranges of roughly equal size.
+     * @param numPartitions - The number of ranges to create. (greater than 0)
+     * @return The ranges, in id order.  The first range has a {@code null}
+     * start and the last range has a {@code null} end.
+     */
+    public static IdRange[] partition(final int numPartitions) {
+        checkArgument(numPartitions > 0 && numPartitions <= PARTITION_PREFIX_VALUES,
+                "The number of partitions must be between 1 and " + PARTITION_PREFIX_VALUES);
+        final IdRange[] ranges = new IdRange[numPartitions];
+        String start = null;
+        for (int i = 0; i < numPartitions; i++) {
+            String end = null;
+            if (i < numPartitions - 1) {
+                final long boundary = (long) PARTITION_PREFIX_VALUES * (i + 1) / numPartitions;
+                end = String.format("%0" + PARTITION_PREFIX_LENGTH + "x", boundary);
+            }
+            ranges[i] = new IdRange(start, end);
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * A range of statement ids.  The start is inclusive and the end is exclusive.
+     */
+    public static class IdRange {
+        private final String start;
+        private final String end;
+
+        /**
+         * Creates a new {@link IdRange}.
+         * @param start - The first id in the range, or {@code null} if the range is unbounded below.
+         * @param end - The id after the last id in the range, or {@code null} if the range is unbounded above.
+         */
+        public IdRange(final String start, final String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @return The first id in the range, or {@code null} if the range is unbounded below.
+         */
+        public String getStart() {
+            return start;
+        }
+
+        /**
+         * @return The id after the last id in the range, or {@code null} if the range is unbounded above.
+         */
+        public String getEnd() {
+            return end;
+        }
+
+        /**
+         * @param id - A statement id. (not null)
+         * @return {@code true} if the id falls within this range.
+         */
+        public boolean contains(final String id) {
+            return (start == null || id.compareTo(start) >= 0) && (end == null || id.compareTo(end) < 0);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + (start == null ? "" : start) + ", " + (end == null ? "" : end) + ")";
+        }
+    }
+}
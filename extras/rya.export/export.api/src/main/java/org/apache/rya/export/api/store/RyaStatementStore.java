@@ -18,12 +18,19 @@
  */
 package org.apache.rya.export.api.store;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.export.api.metadata.MergeParentMetadata;
 import org.apache.rya.export.api.metadata.ParentMetadataExistsException;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 
 /**
  * Allows specific CRUD operations on {@link RyaStatement} storage systems.
@@ -33,6 +40,7 @@ import org.apache.rya.export.api.metadata.ParentMetadataExistsException;
  * <li>add a rya statement to the store</li>
  * <li>remove a rya statement from the store</li>
  * <li>update an existing rya statement with a new one</li>
+ * <li>fetch, add, remove, and check for statements in batches</li>
  *
  * One would use this {@link RyaStatementStore} when they have a database or
  * some storage system that is used when merging in data or exporting data.
@@ -76,6 +84,85 @@ public interface RyaStatementStore {
      */
     public boolean containsStatement(final RyaStatement ryaStatement) throws ContainsStatementException;
 
+    /**
+     * Fetches the statements whose ids fall within a range, ordered by id.
+     * See {@link RyaStatementIds} for how ids are computed.
+     * <p>
+     * The default implementation fetches every statement and sorts the ones
+     * within the range in memory.  Stores that can read statements in id order
+     * should override it.
+     * @param range - The range of ids to fetch. (not null)
+     * @return an {@link Iterator} over the {@link RyaStatement}s in the range,
+     * sorted by id.
+     * @throws FetchStatementException - Thrown when fetching a statement fails.
+     */
+    public default Iterator<RyaStatement> fetchStatements(final IdRange range) throws FetchStatementException {
+        final List<RyaStatement> statements = new ArrayList<>();
+        final Iterator<RyaStatement> all = fetchStatements();
+        while(all.hasNext()) {
+            final RyaStatement statement = all.next();
+            if(statement != null && range.contains(RyaStatementIds.getId(statement))) {
+                statements.add(statement);
+            }
+        }
+        statements.sort(Comparator.comparing(RyaStatementIds::getId));
+        return statements.iterator();
+    }
+
+    /**
+     * @return The order {@link #fetchStatements()} returns this store's
+     * statements in without sorting them, if it has one.  Two stores that
+     * share a native order can be diffed by walking both of their statements
+     * at once.  The default implementation has none.
+     */
+    public default Optional<StatementOrder> getNativeOrder() {
+        return Optional.empty();
+    }
+
+    /**
+     * Adds a batch of statements.  The default implementation adds them one
+     * at a time.
+     * @param statements - The {@link RyaStatement}s to add to this {@link RyaStatementStore}.
+     * @throws AddStatementException Thrown when adding a statement fails.
+     */
+    public default void addStatements(final Iterator<RyaStatement> statements) throws AddStatementException {
+        while(statements.hasNext()) {
+            addStatement(statements.next());
+        }
+    }
+
+    /**
+     * Removes a batch of statements.  The default implementation removes them
+     * one at a time.
+     * @param statements - The {@link RyaStatement}s to remove from this {@link RyaStatementStore}.
+     * @throws RemoveStatementException - Thrown when a statement is not removed
+     */
+    public default void removeStatements(final Iterator<RyaStatement> statements) throws RemoveStatementException {
+        while(statements.hasNext()) {
+            removeStatement(statements.next());
+        }
+    }
+
+    /**
+     * Checks which of a batch of statements are contained in the statement
+     * store.  A statement is contained when the store holds a statement with
+     * the same subject, predicate, object, and context.  The default
+     * implementation checks them one at a time.
+     * @param statements - The {@link RyaStatement}s to search for. (not null)
+     * @return The ids, as computed by {@link RyaStatementIds}, of the
+     * statements that are contained in the statement store.
+     * @throws ContainsStatementException - Thrown when an exception occurs trying to check for the statements.
+     */
+    public default Set<String> containsStatements(final Collection<RyaStatement> statements) throws ContainsStatementException {
+        final Set<String> contained = new HashSet<>();
+        for(final RyaStatement statement : statements) {
+            if(containsStatement(statement)) {
+                contained.add(RyaStatementIds.getId(statement));
+            }
+        }
+        return contained;
+    }
+
     /**
      * @return - The {@link MergeParentMetadata}, if it exists, of this Statement Store.
      */
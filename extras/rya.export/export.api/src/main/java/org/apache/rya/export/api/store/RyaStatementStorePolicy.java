@@ -20,12 +20,15 @@ package org.apache.rya.export.api.store;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.export.api.metadata.MergeParentMetadata;
 import org.apache.rya.export.api.metadata.ParentMetadataExistsException;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 
 /**
  * Decorates a {@link RyaStatementStore}.  This is to be used when the default
@@ -68,6 +71,31 @@ public abstract class RyaStatementStorePolicy implements RyaStatementStore {
         return store.containsStatement(statement);
     }
 
+    @Override
+    public Iterator<RyaStatement> fetchStatements(final IdRange range) throws FetchStatementException {
+        return store.fetchStatements(range);
+    }
+
+    @Override
+    public Optional<StatementOrder> getNativeOrder() {
+        return store.getNativeOrder();
+    }
+
+    @Override
+    public void addStatements(final Iterator<RyaStatement> statements) throws AddStatementException {
+        store.addStatements(statements);
+    }
+
+    @Override
+    public void removeStatements(final Iterator<RyaStatement> statements) throws RemoveStatementException {
+        store.removeStatements(statements);
+    }
+
+    @Override
+    public Set<String> containsStatements(final Collection<RyaStatement> statements) throws ContainsStatementException {
+        return store.containsStatements(statements);
+    }
+
     @Override
     public Optional<MergeParentMetadata> getParentMetadata() {
         return store.getParentMetadata();
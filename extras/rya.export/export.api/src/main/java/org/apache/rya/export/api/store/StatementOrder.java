@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.export.api.store;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+/**
+ * The orders a {@link RyaStatementStore} may read its statements in.  Each
+ * order maps a statement to a key, and the statements are sorted by comparing
+ * the keys as strings.
+ */
+public enum StatementOrder {
+    /**
+     * Ordered by the statement ids computed by {@link RyaStatementIds}.
+     */
+    ID {
+        @Override
+        public String getKey(final RyaStatement statement) {
+            return RyaStatementIds.getId(statement);
+        }
+    },
+
+    /**
+     * Ordered the way the rows of an Accumulo SPO table that is not prefixed
+     * with hashes are.  Statements that only differ by context share a key.
+     */
+    SPO {
+        @Override
+        public String getKey(final RyaStatement statement) {
+            checkNotNull(statement);
+            try {
+                final byte[] row = SPO_CONTEXT.serializeTriple(statement).get(TABLE_LAYOUT.SPO).getRow();
+                // Each byte maps to a char of the same unsigned value, so the keys
+                // compare the same way Accumulo compares the rows.
+                return new String(row, StandardCharsets.ISO_8859_1);
+            } catch (final TripleRowResolverException e) {
+                throw new IllegalArgumentException("Unable to serialize the statement " + statement, e);
+            }
+        }
+    };
+
+    private static final RyaTripleContext SPO_CONTEXT = new RyaTripleContext(false);
+
+    /**
+     * @param statement - The {@link RyaStatement} to compute the key of. (not null)
+     * @return The key the statement is sorted by in this order.
+     */
+    public abstract String getKey(final RyaStatement statement);
+}
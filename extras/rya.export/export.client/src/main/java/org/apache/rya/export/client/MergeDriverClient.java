@@ -41,9 +41,8 @@ import org.apache.rya.export.api.conf.policy.TimestampPolicyMergeConfiguration;
 import org.apache.rya.export.api.store.RyaStatementStore;
 import org.apache.rya.export.client.conf.MergeConfigurationCLI;
 import org.apache.rya.export.client.conf.TimeUtils;
-import org.apache.rya.export.client.merge.MemoryTimeMerger;
+import org.apache.rya.export.client.merge.SortMergeTimeMerger;
 import org.apache.rya.export.client.merge.StatementStoreFactory;
-import org.apache.rya.export.client.merge.VisibilityStatementMerger;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
 import org.openrdf.query.MalformedQueryException;
 import org.openrdf.query.UpdateExecutionException;
@@ -116,9 +115,13 @@ public class MergeDriverClient {
                     } else {
                         timeOffset = 0L;
                     }
-                    final MemoryTimeMerger merger = new MemoryTimeMerger(parentStore, childStore,
-                            new VisibilityStatementMerger(), timeConfig.getToolStartTime(),
-                            configuration.getParentRyaInstanceName(), timeOffset);
+                    // An Accumulo store has to scan every statement to serve a partition, so it is merged in one pass.
+                    final boolean hasAccumuloStore = configuration.getParentDBType() == ACCUMULO || configuration.getChildDBType() == ACCUMULO;
+                    final int numPartitions = hasAccumuloStore ? 1 : Runtime.getRuntime().availableProcessors();
+                    final SortMergeTimeMerger merger = new SortMergeTimeMerger(parentStore, childStore,
+                            timeConfig.getToolStartTime(),
+                            configuration.getParentRyaInstanceName(), timeOffset,
+                            numPartitions, SortMergeTimeMerger.DEFAULT_BATCH_SIZE);
                     merger.runJob();
                 }
             }
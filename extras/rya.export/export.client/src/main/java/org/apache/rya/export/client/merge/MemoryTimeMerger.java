@@ -20,9 +20,12 @@ package org.apache.rya.export.client.merge;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.apache.rya.api.domain.RyaStatement;
@@ -34,6 +37,7 @@ import org.apache.rya.export.api.store.AddStatementException;
 import org.apache.rya.export.api.store.ContainsStatementException;
 import org.apache.rya.export.api.store.FetchStatementException;
 import org.apache.rya.export.api.store.RemoveStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds;
 import org.apache.rya.export.api.store.RyaStatementStore;
 
 /**
@@ -45,6 +49,7 @@ import org.apache.rya.export.api.store.RyaStatementStore;
  */
 public class MemoryTimeMerger implements Merger {
     private static final Logger LOG = Logger.getLogger(MemoryTimeMerger.class);
+    private static final int BATCH_SIZE = 1000;
 
     private final RyaStatementStore parentStore;
     private final RyaStatementStore childStore;
@@ -136,26 +141,55 @@ public class MemoryTimeMerger implements Merger {
 
         //Remove statements that were removed in the child.
         //after the timestamp has passed, there is no need to keep checking the parent
+        final List<RyaStatement> batch = new ArrayList<>(BATCH_SIZE);
         while(childStatements.hasNext()) {
             final RyaStatement statement = childStatements.next();
             if(statement.getTimestamp() > metadata.getTimestamp().getTime()) {
                 break;
             }
-            if(!parentStore.containsStatement(statement)) {
-                System.out.println(statement.toString());
-                childStore.removeStatement(statement);
+            batch.add(statement);
+            if(batch.size() >= BATCH_SIZE) {
+                removeMissingFromParent(batch);
             }
         }
+        removeMissingFromParent(batch);
 
-        long curTime = -1L;
         //Add all of the child statements that are not in the parent
         while(parentStatements.hasNext()) {
-            final RyaStatement statement = parentStatements.next();
-            curTime = statement.getTimestamp();
-            if(!childStore.containsStatement(statement)) {
+            batch.add(parentStatements.next());
+            if(batch.size() >= BATCH_SIZE) {
+                addMissingToChild(batch);
+            }
+        }
+        addMissingToChild(batch);
+    }
+
+    private void removeMissingFromParent(final List<RyaStatement> batch) throws ContainsStatementException, RemoveStatementException {
+        final Set<String> contained = parentStore.containsStatements(batch);
+        final List<RyaStatement> missing = new ArrayList<>();
+        for(final RyaStatement statement : batch) {
+            if(!contained.contains(RyaStatementIds.getId(statement))) {
+                missing.add(statement);
+            }
+        }
+        if(!missing.isEmpty()) {
+            childStore.removeStatements(missing.iterator());
+        }
+        batch.clear();
+    }
+
+    private void addMissingToChild(final List<RyaStatement> batch) throws ContainsStatementException, AddStatementException {
+        final Set<String> contained = childStore.containsStatements(batch);
+        final List<RyaStatement> missing = new ArrayList<>();
+        for(final RyaStatement statement : batch) {
+            if(!contained.contains(RyaStatementIds.getId(statement))) {
                 statement.setTimestamp(statement.getTimestamp() - timeOffset);
-                childStore.addStatement(statement);
+                missing.add(statement);
             }
         }
+        if(!missing.isEmpty()) {
+            childStore.addStatements(missing.iterator());
+        }
+        batch.clear();
     }
 }
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.export.client.merge;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.export.api.Merger;
+import org.apache.rya.export.api.MergerException;
+import org.apache.rya.export.api.metadata.MergeParentMetadata;
+import org.apache.rya.export.api.metadata.ParentMetadataExistsException;
+import org.apache.rya.export.api.store.FetchStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
+import org.apache.rya.export.api.store.RyaStatementStore;
+import org.apache.rya.export.api.store.StatementOrder;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A {@link Merger} that diffs the parent and the child by walking both of them
+ * in the same order, merge-join style.  Statements that are only in the
+ * parent are added to the child.  Statements that are only in the child and
+ * were there when it was cloned are removed from the child.
+ * <p>
+ * When both stores share a {@link RyaStatementStore#getNativeOrder() native order}
+ * their statements are walked in that order as they are read.  Otherwise they
+ * are walked in statement id order, and the id space is split into partitions
+ * that are merged in parallel.  Writes to the child, and the checks against
+ * the parent that confirm a removal, are made in batches.  See
+ * {@link RyaStatementIds} for how the ids are computed.
+ */
+public class SortMergeTimeMerger implements Merger {
+    private static final Logger LOG = Logger.getLogger(SortMergeTimeMerger.class);
+
+    /**
+     * The number of statements that are written or checked at a time by default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final RyaStatementStore parentStore;
+    private final RyaStatementStore childStore;
+    private final Date timestamp;
+    private final String ryaInstanceName;
+    private final Long timeOffset;
+    private final int numPartitions;
+    private final int batchSize;
+
+    /**
+     * Creates a new {@link SortMergeTimeMerger} to merge the statements from the parent to a child.
+     * @param parentStore - The store statements are merged from. (not null)
+     * @param childStore - The store statements are merged into. (not null)
+     * @param timestamp - The timestamp from which all parent statements will be merged into the child. (not null)
+     * @param ryaInstanceName - The name of the parent rya instance. (not null)
+     * @param timeOffset - The time difference between the parent and the child. (not null)
+     * @param numPartitions - The number of partitions of the id space that are merged in parallel
+     *   when the stores do not share a native order. (greater than 0)
+     * @param batchSize - The number of statements that are written or checked at a time. (greater than 0)
+     */
+    public SortMergeTimeMerger(final RyaStatementStore parentStore, final RyaStatementStore childStore,
+            final Date timestamp, final String ryaInstanceName,
+            final Long timeOffset, final int numPartitions, final int batchSize) {
+        this.parentStore = checkNotNull(parentStore);
+        this.childStore = checkNotNull(childStore);
+        this.timestamp = checkNotNull(timestamp);
+        this.ryaInstanceName = checkNotNull(ryaInstanceName);
+        this.timeOffset = checkNotNull(timeOffset);
+        checkArgument(numPartitions > 0, "The number of partitions must be greater than 0.");
+        checkArgument(batchSize > 0, "The batch size must be greater than 0.");
+        this.numPartitions = numPartitions;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void runJob() {
+        final Optional<MergeParentMetadata> metadata = parentStore.getParentMetadata();
+
+        //check the parent for a parent metadata repo
+        if(metadata.isPresent()) {
+            LOG.info("Merging statements...");
+            final MergeParentMetadata parentMetadata = metadata.get();
+            if(parentMetadata.getRyaInstanceName().equals(ryaInstanceName)) {
+                try {
+                    importStatements(parentMetadata);
+                } catch (final MergerException e) {
+                    LOG.error("Failed to import statements.", e);
+                }
+            }
+        } else {
+            try {
+                LOG.info("Cloning statements...");
+                export();
+            } catch (final MergerException e) {
+                LOG.error("Failed to export statements.", e);
+            }
+        }
+    }
+
+    /**
+     * Exports all statements after the provided timestamp.
+     */
+    private void export() throws ParentMetadataExistsException, FetchStatementException {
+        LOG.info("Creating parent metadata in the child.");
+        //setup parent metadata repo in the child
+        final MergeParentMetadata metadata = new MergeParentMetadata.Builder()
+            .setRyaInstanceName(ryaInstanceName)
+            .setTimestamp(new Date())
+            .setParentTimeOffset(timeOffset)
+            .setFilterTimestmap(timestamp)
+            .build();
+        childStore.setParentMetadata(metadata);
+
+        //fetch all statements after timestamp from the parent
+        final Iterator<List<RyaStatement>> batches = Iterators.partition(parentStore.fetchStatements(), batchSize);
+        LOG.info("Exporting statements.");
+        while(batches.hasNext()) {
+            final List<RyaStatement> batch = batches.next();
+            try {
+                childStore.addStatements(batch.iterator());
+            } catch (final MergerException e) {
+                LOG.error("Failed to add a batch of " + batch.size() + " statements to the statement store.", e);
+            }
+        }
+    }
+
+    private void importStatements(final MergeParentMetadata metadata) throws MergerException {
+        final Optional<StatementOrder> nativeOrder = parentStore.getNativeOrder();
+        if(nativeOrder.isPresent() && nativeOrder.equals(childStore.getNativeOrder())) {
+            LOG.info("Importing statements in " + nativeOrder.get() + " order.");
+            final PartitionCounts counts = mergeStatements(
+                    Iterators.filter(parentStore.fetchStatements(), Predicates.notNull()),
+                    Iterators.filter(childStore.fetchStatements(), Predicates.notNull()),
+                    nativeOrder.get(), metadata);
+            LOG.info("Added " + counts.added + " statements to and removed " + counts.removed + " statements from the child.");
+            return;
+        }
+
+        LOG.info("Importing statements using " + numPartitions + " partitions.");
+        final ExecutorService executor = Executors.newFixedThreadPool(numPartitions,
+                new ThreadFactoryBuilder().setNameFormat("merge-partition-%d").setDaemon(true).build());
+        try {
+            final List<Future<PartitionCounts>> futures = new ArrayList<>();
+            for(final IdRange range : RyaStatementIds.partition(numPartitions)) {
+                futures.add(executor.submit(() -> mergePartition(range, metadata)));
+            }
+
+            long added = 0;
+            long removed = 0;
+            for(final Future<PartitionCounts> future : futures) {
+                try {
+                    final PartitionCounts counts = future.get();
+                    added += counts.added;
+                    removed += counts.removed;
+                } catch (final ExecutionException e) {
+                    if(e.getCause() instanceof MergerException) {
+                        throw (MergerException) e.getCause();
+                    }
+                    throw new MergerException("Failed to merge a partition of the statements.", e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MergerException("Interrupted while merging the statements.", e);
+                }
+            }
+            LOG.info("Added " + added + " statements to and removed " + removed + " statements from the child.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Merges the statements whose ids fall within a range.
+     */
+    private PartitionCounts mergePartition(final IdRange range, final MergeParentMetadata metadata) throws MergerException {
+        LOG.debug("Merging partition " + range);
+        return mergeStatements(parentStore.fetchStatements(range), childStore.fetchStatements(range), StatementOrder.ID, metadata);
+    }
+
+    /**
+     * Merges the parent's statements into the child's.
+     * @param parent - The parent's statements, sorted in {@code order}.
+     * @param child - The child's statements, sorted in {@code order}.
+     */
+    private PartitionCounts mergeStatements(final Iterator<RyaStatement> parent, final Iterator<RyaStatement> child,
+            final StatementOrder order, final MergeParentMetadata metadata) throws MergerException {
+        final long cloneTime = metadata.getTimestamp().getTime();
+        final PeekingIterator<RyaStatement> parentStatements = Iterators.peekingIterator(parent);
+        final PeekingIterator<RyaStatement> childStatements = Iterators.peekingIterator(child);
+
+        final PartitionCounts counts = new PartitionCounts();
+        final List<RyaStatement> additions = new ArrayList<>(batchSize);
+        final List<RyaStatement> removals = new ArrayList<>(batchSize);
+        while(parentStatements.hasNext() || childStatements.hasNext()) {
+            final String parentKey = parentStatements.hasNext() ? order.getKey(parentStatements.peek()) : null;
+            final String childKey = childStatements.hasNext() ? order.getKey(childStatements.peek()) : null;
+            final int compare = parentKey == null ? 1 : childKey == null ? -1 : parentKey.compareTo(childKey);
+
+            if(compare == 0) {
+                //Statements that share a key may still differ by id, such as by context.
+                final List<RyaStatement> parentGroup = nextGroup(parentStatements, order, parentKey);
+                final List<RyaStatement> childGroup = nextGroup(childStatements, order, childKey);
+                final Set<String> parentIds = getIds(parentGroup);
+                final Set<String> childIds = getIds(childGroup);
+                for(final RyaStatement statement : parentGroup) {
+                    if(!childIds.contains(RyaStatementIds.getId(statement))) {
+                        additions.add(statement);
+                    }
+                }
+                for(final RyaStatement statement : childGroup) {
+                    if(!parentIds.contains(RyaStatementIds.getId(statement)) && statement.getTimestamp() <= cloneTime) {
+                        removals.add(statement);
+                    }
+                }
+            } else if(compare < 0) {
+                //Add all of the parent statements that are not in the child
+                additions.addAll(nextGroup(parentStatements, order, parentKey));
+            } else {
+                //Remove statements that were removed in the parent.
+                //Statements added to the child after it was cloned are kept.
+                for(final RyaStatement statement : nextGroup(childStatements, order, childKey)) {
+                    if(statement.getTimestamp() <= cloneTime) {
+                        removals.add(statement);
+                    }
+                }
+            }
+
+            if(additions.size() >= batchSize) {
+                counts.added += flushAdditions(additions);
+            }
+            if(removals.size() >= batchSize) {
+                counts.removed += flushRemovals(removals);
+            }
+        }
+        counts.added += flushAdditions(additions);
+        counts.removed += flushRemovals(removals);
+        return counts;
+    }
+
+    /**
+     * @return The statements at the head of the iterator that share a key.
+     */
+    private static List<RyaStatement> nextGroup(final PeekingIterator<RyaStatement> statements,
+            final StatementOrder order, final String key) {
+        final List<RyaStatement> group = new ArrayList<>(1);
+        group.add(statements.next());
+        while(statements.hasNext() && order.getKey(statements.peek()).equals(key)) {
+            group.add(statements.next());
+        }
+        return group;
+    }
+
+    private static Set<String> getIds(final List<RyaStatement> statements) {
+        final Set<String> ids = new HashSet<>();
+        for(final RyaStatement statement : statements) {
+            ids.add(RyaStatementIds.getId(statement));
+        }
+        return ids;
+    }
+
+    private int flushAdditions(final List<RyaStatement> additions) throws MergerException {
+        if(additions.isEmpty()) {
+            return 0;
+        }
+        for(final RyaStatement statement : additions) {
+            statement.setTimestamp(statement.getTimestamp() - timeOffset);
+        }
+        final int added = additions.size();
+        childStore.addStatements(additions.iterator());
+        additions.clear();
+        return added;
+    }
+
+    private int flushRemovals(final List<RyaStatement> removals) throws MergerException {
+        if(removals.isEmpty()) {
+            return 0;
+        }
+        // The parent may have only fetched the statements that pass its policy, so
+        // a statement missing from its side of the walk is confirmed before removal.
+        final Set<String> inParent = parentStore.containsStatements(removals);
+        final List<RyaStatement> removed = new ArrayList<>(removals.size());
+        for(final RyaStatement statement : removals) {
+            if(!inParent.contains(RyaStatementIds.getId(statement))) {
+                removed.add(statement);
+            }
+        }
+        if(!removed.isEmpty()) {
+            childStore.removeStatements(removed.iterator());
+        }
+        removals.clear();
+        return removed.size();
+    }
+
+    /**
+     * The number of statements a partition added to and removed from the child.
+     */
+    private static class PartitionCounts {
+        private long added = 0;
+        private long removed = 0;
+    }
+}
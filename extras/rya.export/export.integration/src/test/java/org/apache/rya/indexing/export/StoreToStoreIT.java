@@ -37,6 +37,7 @@ import org.apache.rya.export.api.store.AddStatementException;
 import org.apache.rya.export.api.store.FetchStatementException;
 import org.apache.rya.export.api.store.RyaStatementStore;
 import org.apache.rya.export.client.merge.MemoryTimeMerger;
+import org.apache.rya.export.client.merge.SortMergeTimeMerger;
 import org.apache.rya.export.client.merge.VisibilityStatementMerger;
 import org.apache.rya.export.mongo.MongoRyaStatementStore;
 import org.apache.rya.export.mongo.policy.TimestampPolicyMongoRyaStatementStore;
@@ -241,6 +242,40 @@ public class StoreToStoreIT extends ITBase {
         assertEquals(52, count(parentStore));
     }
 
+    @Test
+    public void sortMerge_cloneTest() throws Exception {
+        loadMockStatements(parentStore, 50, new Date(currentDate.getTime() + 10000L));
+
+        final SortMergeTimeMerger merger = new SortMergeTimeMerger(parentStore, childStore,
+            currentDate, RYA_INSTANCE, 0L, 4, 7);
+        merger.runJob();
+        assertEquals(50, count(childStore));
+    }
+
+    @Test
+    public void sortMerge_childToParent_BothAddTest() throws Exception {
+        loadMockStatements(parentStore, 50, new Date(currentDate.getTime() + 10000L));
+
+        final SortMergeTimeMerger merger = new SortMergeTimeMerger(parentStore, childStore,
+            currentDate, RYA_INSTANCE, 0L, 4, 7);
+        merger.runJob();
+        assertEquals(50, count(childStore));
+
+        //add a statement to each store
+        final RyaStatement stmnt1 = makeRyaStatement("http://subject", "http://predicate", "http://add");
+        final RyaStatement stmnt2 = makeRyaStatement("http://subject", "http://predicate", "http://add2");
+        stmnt1.setTimestamp(new Date().getTime() + 10L);
+        stmnt2.setTimestamp(currentDate.getTime() + 1000L);
+        parentStore.addStatement(stmnt1);
+        childStore.addStatement(stmnt2);
+
+        final SortMergeTimeMerger otherMerger = new SortMergeTimeMerger(childStore, parentStore,
+                currentDate, RYA_INSTANCE, 0L, 4, 7);
+        otherMerger.runJob();
+        //both should still be there
+        assertEquals(52, count(parentStore));
+    }
+
     private void loadMockStatements(final RyaStatementStore store, final int count, final Date timestamp) throws AddStatementException {
         for(int ii = 0; ii < count; ii++) {
             final RyaStatement statement = makeRyaStatement("http://subject", "http://predicate", "http://"+ii);
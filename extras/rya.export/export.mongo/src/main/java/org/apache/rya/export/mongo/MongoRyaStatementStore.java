@@ -19,12 +19,16 @@
 package org.apache.rya.export.mongo;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.ID;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.TIMESTAMP;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.RyaDAOException;
@@ -33,6 +37,8 @@ import org.apache.rya.export.api.metadata.ParentMetadataExistsException;
 import org.apache.rya.export.api.store.AddStatementException;
 import org.apache.rya.export.api.store.ContainsStatementException;
 import org.apache.rya.export.api.store.RemoveStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 import org.apache.rya.export.api.store.RyaStatementStore;
 import org.apache.rya.export.api.store.UpdateStatementException;
 import org.apache.rya.export.mongo.parent.MongoParentMetadataRepository;
@@ -42,8 +48,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.mongodb.BasicDBObject;
-import com.mongodb.Cursor;
 import com.mongodb.DB;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.MongoClient;
 
@@ -81,11 +87,12 @@ public class MongoRyaStatementStore implements RyaStatementStore {
 
     @Override
     public Iterator<RyaStatement> fetchStatements() {
-        final Cursor cur = db.getCollection(TRIPLES_COLLECTION).find().sort(new BasicDBObject(TIMESTAMP, 1));
         final List<RyaStatement> statements = new ArrayList<>();
-        while(cur.hasNext()) {
-            final RyaStatement statement = adapter.deserializeDBObject(cur.next());
-            statements.add(statement);
+        try(final DBCursor cur = db.getCollection(TRIPLES_COLLECTION).find().sort(new BasicDBObject(TIMESTAMP, 1))) {
+            while(cur.hasNext()) {
+                final RyaStatement statement = adapter.deserializeDBObject(cur.next());
+                statements.add(statement);
+            }
         }
         return statements.iterator();
     }
@@ -99,6 +106,92 @@ public class MongoRyaStatementStore implements RyaStatementStore {
         }
     }
 
+    @Override
+    public Iterator<RyaStatement> fetchStatements(final IdRange range) {
+        checkNotNull(range);
+        // Statement ids are the document ids, so this reads straight off of the primary index.
+        return readStatements(db.getCollection(TRIPLES_COLLECTION).find(getIdRangeQuery(range)).sort(new BasicDBObject(ID, 1)));
+    }
+
+    @Override
+    public void addStatements(final Iterator<RyaStatement> statements) throws AddStatementException {
+        try {
+            dao.add(statements);
+        } catch (final RyaDAOException e) {
+            throw new AddStatementException("Unable to add statements.", e);
+        }
+    }
+
+    @Override
+    public void removeStatements(final Iterator<RyaStatement> statements) throws RemoveStatementException {
+        try {
+            //mongo dao does not need a config to remove.
+            dao.delete(statements, null);
+        } catch (final RyaDAOException e) {
+            throw new RemoveStatementException("Unable to remove statements.", e);
+        }
+    }
+
+    @Override
+    public Set<String> containsStatements(final Collection<RyaStatement> statements) throws ContainsStatementException {
+        checkNotNull(statements);
+        final List<String> ids = new ArrayList<>(statements.size());
+        for(final RyaStatement statement : statements) {
+            ids.add(RyaStatementIds.getId(statement));
+        }
+
+        final Set<String> contained = new HashSet<>();
+        try {
+            final DBObject query = new BasicDBObject(ID, new BasicDBObject("$in", ids));
+            try(final DBCursor cur = db.getCollection(TRIPLES_COLLECTION).find(query, new BasicDBObject(ID, 1))) {
+                while(cur.hasNext()) {
+                    contained.add((String) cur.next().get(ID));
+                }
+            }
+        } catch (final RuntimeException e) {
+            throw new ContainsStatementException("Encountered an error while querying for statements.", e);
+        }
+        return contained;
+    }
+
+    /**
+     * Reads every statement a cursor matches and closes it.
+     * @param cursor - The cursor over the statement documents. (not null)
+     * @return The statements, in the order the cursor returned them.
+     */
+    public static Iterator<RyaStatement> readStatements(final DBCursor cursor) {
+        checkNotNull(cursor);
+        final SimpleMongoDBStorageStrategy adapter = new SimpleMongoDBStorageStrategy();
+        final List<RyaStatement> statements = new ArrayList<>();
+        try(final DBCursor cur = cursor) {
+            while(cur.hasNext()) {
+                statements.add(adapter.deserializeDBObject(cur.next()));
+            }
+        }
+        return statements.iterator();
+    }
+
+    /**
+     * @param range - The range of statement ids to match. (not null)
+     * @return A query that matches the statement documents whose ids fall within the range.
+     */
+    public static BasicDBObject getIdRangeQuery(final IdRange range) {
+        checkNotNull(range);
+        final BasicDBObject idQuery = new BasicDBObject();
+        if(range.getStart() != null) {
+            idQuery.append("$gte", range.getStart());
+        }
+        if(range.getEnd() != null) {
+            idQuery.append("$lt", range.getEnd());
+        }
+
+        final BasicDBObject query = new BasicDBObject();
+        if(!idQuery.isEmpty()) {
+            query.append(ID, idQuery);
+        }
+        return query;
+    }
+
     @Override
     public void removeStatement(final RyaStatement statement) throws RemoveStatementException {
         try {
@@ -20,6 +20,7 @@
 package org.apache.rya.export.mongo.policy;
 
 import static org.apache.rya.export.mongo.MongoRyaStatementStore.TRIPLES_COLLECTION;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.ID;
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.TIMESTAMP;
 
 import java.util.ArrayList;
@@ -30,14 +31,15 @@ import java.util.List;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.export.api.conf.policy.TimestampPolicyStatementStore;
 import org.apache.rya.export.api.store.FetchStatementException;
+import org.apache.rya.export.api.store.RyaStatementIds.IdRange;
 import org.apache.rya.export.api.store.RyaStatementStore;
 import org.apache.rya.export.mongo.MongoRyaStatementStore;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
-import com.mongodb.Cursor;
 import com.mongodb.DB;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 
 /**
@@ -67,12 +69,20 @@ public class TimestampPolicyMongoRyaStatementStore extends TimestampPolicyStatem
                 new BasicDBObjectBuilder()
                     .add("$gte", timestamp.getTime()).get())
             .get();
-        final Cursor cur = db.getCollection(TRIPLES_COLLECTION).find(timeObj).sort(new BasicDBObject(TIMESTAMP, 1));
         final List<RyaStatement> statements = new ArrayList<>();
-        while(cur.hasNext()) {
-            final RyaStatement statement = adapter.deserializeDBObject(cur.next());
-            statements.add(statement);
+        try(final DBCursor cur = db.getCollection(TRIPLES_COLLECTION).find(timeObj).sort(new BasicDBObject(TIMESTAMP, 1))) {
+            while(cur.hasNext()) {
+                final RyaStatement statement = adapter.deserializeDBObject(cur.next());
+                statements.add(statement);
+            }
         }
         return statements.iterator();
     }
+
+    @Override
+    public Iterator<RyaStatement> fetchStatements(final IdRange range) throws FetchStatementException {
+        final BasicDBObject query = MongoRyaStatementStore.getIdRangeQuery(range)
+            .append(TIMESTAMP, new BasicDBObject("$gte", timestamp.getTime()));
+        return MongoRyaStatementStore.readStatements(db.getCollection(TRIPLES_COLLECTION).find(query).sort(new BasicDBObject(ID, 1)));
+    }
 }
@@ -48,6 +48,12 @@ import com.google.common.base.Preconditions;
 public abstract class AbstractForwardChainTool implements Tool {
     private static final Logger logger = Logger.getLogger(AbstractForwardChainTool.class);
 
+    /**
+     * Configuration key for the maximum number of independent rules to execute
+     * concurrently. Defaults to 1.
+     */
+    public static final String NUM_THREADS_PROP = "rya.forwardchain.threads";
+
     private RdfCloudTripleStoreConfiguration conf;
 
     private long numInferences = 0;
@@ -98,13 +104,15 @@ public abstract class AbstractForwardChainTool implements Tool {
      * Get the high-level {@link AbstractForwardChainStrategy} that governs how
      * reasoning will proceed. By default, returns a {@link RoundRobinStrategy}
      * which executes each relevant rule one-by-one, then moves to the next
-     * iteration and repeats, until no rules are still relevant. Subclasses may
-     * override this method to provide alternative strategies.
+     * iteration and repeats, until no rules are still relevant. Independent
+     * rules are executed concurrently by up to {@link #NUM_THREADS_PROP}
+     * threads. Subclasses may override this method to provide alternative
+     * strategies.
      * @return The high-level forward chaining logic.
      * @throws ForwardChainException if the strategy can't be instantiated.
      */
     protected AbstractForwardChainStrategy getStrategy() throws ForwardChainException {
-        return new RoundRobinStrategy(getRuleStrategy());
+        return new RoundRobinStrategy(getRuleStrategy(), conf.getInt(NUM_THREADS_PROP, 1));
     }
 
     /**
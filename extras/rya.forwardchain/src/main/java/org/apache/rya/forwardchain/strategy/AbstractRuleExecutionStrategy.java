@@ -93,6 +93,16 @@ public abstract class AbstractRuleExecutionStrategy {
      */
     public void shutDown() throws ForwardChainException { }
 
+    /**
+     * Whether this strategy can execute multiple rules at the same time from
+     * different threads. False by default; subclasses should override if they
+     * support concurrent execution.
+     * @return true if rules may be executed concurrently.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Indicate that a rule need only be applied if one of the source statements
      * is is at least this derivation level, i.e. took this many steps to derive
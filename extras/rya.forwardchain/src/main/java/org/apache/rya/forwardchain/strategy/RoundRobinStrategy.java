@@ -18,11 +18,20 @@
  */
 package org.apache.rya.forwardchain.strategy;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
@@ -35,6 +44,7 @@ import org.apache.rya.forwardchain.rule.Ruleset;
 import org.openrdf.model.vocabulary.XMLSchema;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * A simple {@link AbstractForwardChainStrategy} that iterates over every
@@ -66,9 +76,15 @@ import com.google.common.base.Preconditions;
  * current rule may or may not produce more triples in response, but any rule
  * that could produce triples in response will be triggered.
  * <p>
+ * If more than one thread is allowed and the rule execution strategy is thread
+ * safe, rules that can't directly trigger each other are executed
+ * concurrently. Each step takes the highest priority rule and adds any
+ * remaining rules that are independent of the rules chosen so far.
+ * <p>
  * The procedure for executing the individual rules is governed by the
  * {@link RuleExecutionStrategy}. This class uses the strategy's reported counts
- * to determine whether or not a rule has produced inferences.
+ * to determine whether or not a rule has produced inferences, and records the
+ * number of inferences made during each iteration.
  */
 public class RoundRobinStrategy extends AbstractForwardChainStrategy {
     private static final Logger logger = Logger.getLogger(RoundRobinStrategy.class);
@@ -79,15 +95,41 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
     private Set<Rule> activeNow;
     private Set<Rule> activeNextIteration;
     private long inferencesThisIteration;
+    private final List<Long> inferencesPerIteration = new ArrayList<>();
     private AtomicBoolean initialized = new AtomicBoolean(false);
+    private final int numThreads;
+    private ExecutorService executor = null;
 
     /**
      * Instantiate a RoundRobinStrategy by providing the RuleExecutionStrategy.
+     * Rules will be executed one at a time.
      * @param ruleStrategy Defines how to execute individual rules; not null.
      */
     public RoundRobinStrategy(AbstractRuleExecutionStrategy ruleStrategy) {
+        this(ruleStrategy, 1);
+    }
+
+    /**
+     * Instantiate a RoundRobinStrategy by providing the RuleExecutionStrategy
+     * and the maximum number of rules to execute at once.
+     * @param ruleStrategy Defines how to execute individual rules; not null.
+     * @param numThreads The maximum number of independent rules to execute
+     *  concurrently. Only used if the rule strategy is thread safe; must be
+     *  positive.
+     */
+    public RoundRobinStrategy(AbstractRuleExecutionStrategy ruleStrategy, int numThreads) {
         Preconditions.checkNotNull(ruleStrategy);
+        Preconditions.checkArgument(numThreads > 0, "Number of threads must be positive");
         this.ruleStrategy = ruleStrategy;
+        this.numThreads = ruleStrategy.isThreadSafe() ? numThreads : 1;
+    }
+
+    /**
+     * Get the number of inferences made during each completed iteration.
+     * @return The counts, starting with the first iteration.
+     */
+    public List<Long> getInferencesPerIteration() {
+        return Collections.unmodifiableList(inferencesPerIteration);
     }
 
     @Override
@@ -97,8 +139,13 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
         ruleset = withRuleset;
         activeNow = new HashSet<>();
         activeNextIteration = new HashSet<>(ruleset.getRules());
+        inferencesPerIteration.clear();
         logger.info("Initializing round robin forward chaining, with " +
                 activeNextIteration.size() + " rules.");
+        if (numThreads > 1 && executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                    .setNameFormat("forward-chain-%d").setDaemon(true).build());
+        }
         initialized.set(true);
         prepareQueue();
     }
@@ -107,11 +154,13 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
         if (initialized.get()) {
             if (activeNow.isEmpty()) {
                 if (iteration > 0) {
+                    inferencesPerIteration.add(inferencesThisIteration);
                     logger.info("Finished iteration " + iteration + "; made " +
                             inferencesThisIteration + " inferences.");
                 }
                 if (activeNextIteration.isEmpty()) {
-                    logger.info("Finished forward chaining after " + iteration + " iterations.");
+                    logger.info("Finished forward chaining after " + iteration
+                            + " iterations; inferences per iteration: " + inferencesPerIteration);
                     setDone();
                 }
                 else {
@@ -129,6 +178,10 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
 
     private void setDone() throws ForwardChainException {
         initialized.set(false);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
         if (ruleStrategy != null) {
             ruleStrategy.shutDown();
         }
@@ -144,32 +197,91 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
         if (!initialized.get()) {
             return 0;
         }
-        Rule rule = getNextRule();
-        if (rule == null) {
+        List<Rule> rules = getNextRules();
+        if (rules.isEmpty()) {
             return 0;
         }
-        StatementMetadata metadata = new StatementMetadata();
-        metadata.addMetadata(ForwardChainConstants.RYA_DERIVATION_TIME,
-                new RyaType(XMLSchema.INT, Integer.toString(iteration)));
-        long inferences = rule.execute(ruleStrategy, metadata);
-        inferencesThisIteration += inferences;
-        if (inferences > 0) {
-            for (Rule successor : ruleset.getSuccessorsOf(rule)) {
-                // If we'll handle the triggered rule in the current iteration,
-                // it may not need  to be checked in the next one.
-                if (!activeNow.contains(successor)) {
-                    activeNextIteration.add(successor);
+        Map<Rule, Long> results = new HashMap<>();
+        if (rules.size() == 1) {
+            Rule rule = rules.get(0);
+            results.put(rule, rule.execute(ruleStrategy, newMetadata()));
+        }
+        else {
+            Map<Rule, Future<Long>> futures = new HashMap<>();
+            for (Rule rule : rules) {
+                StatementMetadata metadata = newMetadata();
+                futures.put(rule, executor.submit(() -> rule.execute(ruleStrategy, metadata)));
+            }
+            for (Map.Entry<Rule, Future<Long>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ForwardChainException) {
+                        throw (ForwardChainException) e.getCause();
+                    }
+                    throw new ForwardChainException("Error executing " + entry.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ForwardChainException("Interrupted while executing " + entry.getKey(), e);
+                }
+            }
+        }
+        long inferences = 0;
+        for (Map.Entry<Rule, Long> result : results.entrySet()) {
+            inferences += result.getValue();
+            if (result.getValue() > 0) {
+                for (Rule successor : ruleset.getSuccessorsOf(result.getKey())) {
+                    // If we'll handle the triggered rule in the current iteration,
+                    // it may not need  to be checked in the next one.
+                    if (!activeNow.contains(successor)) {
+                        activeNextIteration.add(successor);
+                    }
                 }
             }
         }
+        inferencesThisIteration += inferences;
         prepareQueue();
         return inferences;
     }
 
-    private Rule getNextRule() {
+    private StatementMetadata newMetadata() {
+        StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(ForwardChainConstants.RYA_DERIVATION_TIME,
+                new RyaType(XMLSchema.INT, Integer.toString(iteration)));
+        return metadata;
+    }
+
+    /**
+     * Choose the highest priority rule, followed by up to the maximum number
+     * of threads of the remaining rules in priority order that can't directly
+     * trigger or be triggered by any rule already chosen.
+     */
+    private List<Rule> getNextRules() {
+        List<Rule> next = new ArrayList<>();
         if (activeNow.isEmpty()) {
-            return null;
+            return next;
         }
+        for (Rule candidate : sortActiveRules()) {
+            if (next.size() >= numThreads) {
+                break;
+            }
+            boolean independent = true;
+            for (Rule chosen : next) {
+                if (ruleset.getSuccessorsOf(chosen).contains(candidate)
+                        || ruleset.getSuccessorsOf(candidate).contains(chosen)) {
+                    independent = false;
+                    break;
+                }
+            }
+            if (independent) {
+                next.add(candidate);
+            }
+        }
+        activeNow.removeAll(next);
+        return next;
+    }
+
+    private SortedSet<Rule> sortActiveRules() {
         Ruleset subset = new Ruleset(activeNow);
         SortedSet<Rule> sorted = new TreeSet<>(new Comparator<Rule>() {
             @Override
@@ -193,9 +305,7 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
             return remainingPredecessors(rule).size() - remainingSuccessors(rule).size();
         }).thenComparing(Rule::toString)); // Fall back on string comparison
         sorted.addAll(activeNow);
-        Rule next = sorted.first();
-        activeNow.remove(next);
-        return next;
+        return sorted;
     }
 
     private Set<Rule> remainingSuccessors(Rule rule) {
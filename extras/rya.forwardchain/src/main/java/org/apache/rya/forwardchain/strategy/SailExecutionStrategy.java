@@ -18,18 +18,32 @@
  */
 package org.apache.rya.forwardchain.strategy;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.log4j.Logger;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.StatementMetadata;
 import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.query.RyaQuery;
 import org.apache.rya.api.persist.query.RyaQueryEngine;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.forwardchain.ForwardChainConstants;
 import org.apache.rya.forwardchain.ForwardChainException;
 import org.apache.rya.forwardchain.rule.AbstractConstructRule;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
@@ -37,33 +51,71 @@ import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.sail.config.RyaSailFactory;
 import org.calrissian.mango.collect.CloseableIterable;
 import org.openrdf.model.Statement;
+import org.openrdf.model.Value;
+import org.openrdf.query.BindingSet;
 import org.openrdf.query.GraphQuery;
 import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.BindingSetAssignment;
+import org.openrdf.query.algebra.Difference;
+import org.openrdf.query.algebra.Exists;
+import org.openrdf.query.algebra.Extension;
+import org.openrdf.query.algebra.Group;
+import org.openrdf.query.algebra.Join;
+import org.openrdf.query.algebra.LeftJoin;
+import org.openrdf.query.algebra.MultiProjection;
+import org.openrdf.query.algebra.Projection;
+import org.openrdf.query.algebra.Slice;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.TupleExpr;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.query.algebra.helpers.QueryModelVisitorBase;
 import org.openrdf.query.parser.ParsedGraphQuery;
 import org.openrdf.repository.RepositoryException;
 import org.openrdf.repository.sail.SailGraphQuery;
 import org.openrdf.repository.sail.SailRepository;
 import org.openrdf.repository.sail.SailRepositoryConnection;
+import org.openrdf.rio.RDFHandler;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.helpers.RDFHandlerBase;
 
 import com.google.common.base.Preconditions;
 
 /**
- * A naive but back-end-agnostic rule execution strategy that applies a
- * construct rule by submitting the associated query to a Rya SAIL, then
- * converting the resulting bindings (expecting variables "subject",
- * "predicate", and "object") into triples and inserting them into a Rya DAO.
+ * A back-end-agnostic rule execution strategy that applies a construct rule by
+ * submitting the associated query to a Rya SAIL, then converting the resulting
+ * bindings (expecting variables "subject", "predicate", and "object") into
+ * triples and inserting them into a Rya DAO.
+ * <p>
+ * The strategy remembers the statements it infers at each derivation level.
+ * Once a required level has been set, a rule is evaluated semi-naively: its
+ * WHERE clause is joined with the bindings that match any antecedent pattern
+ * to a statement inferred at or after the required level, so derivations made
+ * by previous iterations aren't repeated. Rules that aren't monotonic, and
+ * iterations whose inferences exceed the maximum delta size, fall back on
+ * evaluating the whole query.
+ * <p>
+ * Rules may be executed concurrently; each execution uses its own connection.
  */
 public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
     private static final Logger logger = Logger.getLogger(SailExecutionStrategy.class);
 
+    /**
+     * The default number of inferred statements held in memory for semi-naive evaluation.
+     */
+    public static final long DEFAULT_MAX_DELTA_SIZE = 100000;
+
     private final RdfCloudTripleStoreConfiguration conf;
 
     private SailRepository repo = null;
-    private SailRepositoryConnection conn = null;
     private RyaDAO<?> dao = null;
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
+
+    // Statements inferred by this strategy, by derivation level
+    private final Map<Integer, Queue<Statement>> delta = new ConcurrentHashMap<>();
+    private final Set<Integer> incompleteLevels = ConcurrentHashMap.newKeySet();
+    private final AtomicLong deltaSize = new AtomicLong(0);
+    private long maxDeltaSize = DEFAULT_MAX_DELTA_SIZE;
 
     /**
      * Initialize a SailExecutionStrategy with the given configuration.
@@ -74,6 +126,18 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
         this.conf = conf;
     }
 
+    /**
+     * Set the maximum number of inferred statements to remember for
+     * semi-naive evaluation. If more statements than this are inferred at or
+     * after the required level, rules are evaluated over the whole store.
+     * @param maxDeltaSize The maximum number of statements; zero disables
+     *  semi-naive evaluation.
+     */
+    public void setMaxDeltaSize(long maxDeltaSize) {
+        Preconditions.checkArgument(maxDeltaSize >= 0);
+        this.maxDeltaSize = maxDeltaSize;
+    }
+
     /**
      * Executes a CONSTRUCT query through the SAIL and inserts the results into
      * the DAO.
@@ -91,23 +155,214 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
             initialize();
         }
         ParsedGraphQuery graphQuery = rule.getQuery();
-        long statementsAdded = 0;
         logger.info("Applying inference rule " + rule + "...");
         for (String line : graphQuery.getTupleExpr().toString().split("\n")) {
             logger.debug("\t" + line);
         }
-        InferredStatementHandler<?> handler = new InferredStatementHandler<>(dao, metadata);
+        final int level = getDerivationLevel(metadata);
+        final Queue<Statement> inferred = level < 0 ? null
+                : delta.computeIfAbsent(level, l -> new ConcurrentLinkedQueue<>());
+        if (inferred == null) {
+            // Inferences we can't assign to a level leave every level incomplete
+            incompleteLevels.add(Integer.MAX_VALUE);
+        }
+        InferredStatementHandler<?> handler = new InferredStatementHandler<>(dao, metadata, level, inferred);
+        SailRepositoryConnection conn = null;
         try {
-            GraphQuery executableQuery = new SailGraphQuery(graphQuery, conn) { };
-            executableQuery.evaluate(handler);
-            statementsAdded = handler.getNumStatementsAdded();
+            conn = repo.getConnection();
+            Collection<Map<String, Value>> deltaBindings = getDeltaBindings(rule);
+            if (deltaBindings == null) {
+                evaluate(graphQuery, conn, handler);
+            }
+            else if (!deltaBindings.isEmpty()) {
+                logger.info("Evaluating semi-naively with " + deltaBindings.size()
+                        + " antecedent bindings from derivation level " + requiredLevel + " onward.");
+                evaluate(restrictToDelta(graphQuery, deltaBindings), conn, handler);
+            }
+            long statementsAdded = handler.getNumStatementsAdded();
             logger.info("Added " + statementsAdded + " inferred statements.");
             return statementsAdded;
+        } catch (RepositoryException e) {
+            throw new ForwardChainException("Error connecting to SAIL", e);
         } catch (QueryEvaluationException e) {
             throw new ForwardChainException("Error evaluating query portion of construct rule", e);
         } catch (RDFHandlerException e) {
             throw new ForwardChainException("Error processing results of construct rule", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (RepositoryException e) {
+                    logger.warn("Error closing SailRepositoryConnection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluate a construct query and pass its results to a handler.
+     * @param query The query to evaluate; not null.
+     * @param conn The connection to evaluate the query with; not null.
+     * @param handler Receives the constructed statements; not null.
+     * @throws QueryEvaluationException if evaluating the query fails.
+     * @throws RDFHandlerException if the handler fails.
+     */
+    protected void evaluate(ParsedGraphQuery query, SailRepositoryConnection conn,
+            RDFHandler handler) throws QueryEvaluationException, RDFHandlerException {
+        GraphQuery executableQuery = new SailGraphQuery(query, conn) { };
+        executableQuery.evaluate(handler);
+    }
+
+    /**
+     * Restrict a query to the antecedent bindings of the delta by joining its
+     * WHERE clause with the bindings, so the whole delta is evaluated by one
+     * query.
+     * @param query A construct query; not modified.
+     * @param deltaBindings The bindings found by {@link #getDeltaBindings}.
+     * @return A copy of the query whose solutions must match one of the
+     *  bindings.
+     */
+    private static ParsedGraphQuery restrictToDelta(ParsedGraphQuery query,
+            Collection<Map<String, Value>> deltaBindings) {
+        Set<String> names = new HashSet<>();
+        List<BindingSet> bindingSets = new ArrayList<>(deltaBindings.size());
+        for (Map<String, Value> bindings : deltaBindings) {
+            QueryBindingSet bindingSet = new QueryBindingSet();
+            for (Map.Entry<String, Value> binding : bindings.entrySet()) {
+                bindingSet.addBinding(binding.getKey(), binding.getValue());
+            }
+            names.addAll(bindings.keySet());
+            bindingSets.add(bindingSet);
+        }
+        BindingSetAssignment values = new BindingSetAssignment();
+        values.setBindingSetNames(names);
+        values.setBindingSets(bindingSets);
+        TupleExpr restricted = query.getTupleExpr().clone();
+        restricted.visit(new WhereClauseJoiner(values));
+        ParsedGraphQuery restrictedQuery = new ParsedGraphQuery(restricted, query.getQueryNamespaces());
+        restrictedQuery.setDataset(query.getDataset());
+        return restrictedQuery;
+    }
+
+    /**
+     * Determine the bindings to evaluate a rule with semi-naively, such that
+     * each binding restricts one antecedent to a statement inferred at or
+     * after the required level.
+     * @param rule The rule to be evaluated.
+     * @return The distinct antecedent bindings, or null if the rule must be
+     *  evaluated over the whole store.
+     */
+    private Collection<Map<String, Value>> getDeltaBindings(AbstractConstructRule rule) {
+        if (requiredLevel <= 0 || !isMonotonic(rule)) {
+            return null;
+        }
+        List<Statement> statements = new ArrayList<>();
+        for (Map.Entry<Integer, Queue<Statement>> entry : delta.entrySet()) {
+            if (entry.getKey() >= requiredLevel) {
+                statements.addAll(entry.getValue());
+            }
+        }
+        // Check completeness after taking the snapshot, so that a level that
+        // overflowed while it was being copied isn't used.
+        for (Integer incomplete : incompleteLevels) {
+            if (incomplete >= requiredLevel) {
+                return null;
+            }
+        }
+        Set<Map<String, Value>> bindings = new HashSet<>();
+        for (StatementPattern antecedent : rule.getAntecedentPatterns()) {
+            for (Statement statement : statements) {
+                Map<String, Value> match = match(antecedent, statement);
+                if (match != null) {
+                    bindings.add(match);
+                }
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * Semi-naive evaluation is only valid for queries whose results can only
+     * grow as statements are added.
+     */
+    private static boolean isMonotonic(AbstractConstructRule rule) {
+        MonotonicityVisitor visitor = new MonotonicityVisitor();
+        rule.getQuery().getTupleExpr().visit(visitor);
+        return visitor.monotonic;
+    }
+
+    /**
+     * Match a statement against a pattern.
+     * @return The variable bindings that make the pattern match the statement,
+     *  or null if it can't.
+     */
+    private static Map<String, Value> match(StatementPattern sp, Statement statement) {
+        Map<String, Value> bindings = new HashMap<>();
+        if (!bind(sp.getSubjectVar(), statement.getSubject(), bindings)
+                || !bind(sp.getPredicateVar(), statement.getPredicate(), bindings)
+                || !bind(sp.getObjectVar(), statement.getObject(), bindings)) {
+            return null;
+        }
+        Var contextVar = sp.getContextVar();
+        if (contextVar != null && (contextVar.hasValue() || statement.getContext() != null)
+                && !bind(contextVar, statement.getContext(), bindings)) {
+            return null;
+        }
+        return bindings;
+    }
+
+    private static boolean bind(Var var, Value value, Map<String, Value> bindings) {
+        if (var.hasValue()) {
+            return var.getValue().equals(value);
         }
+        Value existing = bindings.putIfAbsent(var.getName(), value);
+        return existing == null || existing.equals(value);
+    }
+
+    private static int getDerivationLevel(StatementMetadata metadata) {
+        RyaType level = metadata.getMetadata().get(ForwardChainConstants.RYA_DERIVATION_TIME);
+        if (level != null) {
+            try {
+                return Integer.parseInt(level.getData());
+            } catch (NumberFormatException e) {
+                logger.warn("Unexpected derivation level: " + level.getData());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Forget any inferred statements below the new required level, since they
+     * won't be needed for semi-naive evaluation. A level of zero starts over.
+     */
+    @Override
+    public void setRequiredLevel(int derivationLevel) {
+        super.setRequiredLevel(derivationLevel);
+        if (derivationLevel <= 0) {
+            delta.clear();
+            incompleteLevels.clear();
+            deltaSize.set(0);
+            return;
+        }
+        for (Integer level : new ArrayList<>(delta.keySet())) {
+            if (level < derivationLevel) {
+                Queue<Statement> removed = delta.remove(level);
+                if (removed != null) {
+                    deltaSize.addAndGet(-removed.size());
+                }
+            }
+        }
+        incompleteLevels.removeIf(level -> level < derivationLevel);
+    }
+
+    /**
+     * Each rule execution uses its own connection, so rules may be executed
+     * concurrently.
+     * @return true
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
     }
 
     /**
@@ -116,13 +371,18 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
      * @throws ForwardChainException if connecting fails.
      */
     @Override
-    public void initialize() throws ForwardChainException {
+    public synchronized void initialize() throws ForwardChainException {
+        if (initialized) {
+            return;
+        }
         try {
             if (dao == null) {
                 dao = getDAO();
             }
+            // Configure the shared query engine once, since rules may be
+            // executed concurrently.
+            configureQueryEngine(dao);
             repo = new SailRepository(RyaSailFactory.getInstance(conf));
-            conn = repo.getConnection();
             initialized = true;
         } catch (Exception e) {
             shutDown();
@@ -130,6 +390,10 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
         }
     }
 
+    private static <T extends RdfCloudTripleStoreConfiguration> void configureQueryEngine(RyaDAO<T> dao) {
+        dao.getQueryEngine().setConf(dao.getConf());
+    }
+
     private RyaDAO<?> getDAO() throws RyaDAOException, ForwardChainException {
         if (ConfigUtils.getUseMongo(conf)) {
             MongoDBRdfConfiguration mongoConf;
@@ -161,15 +425,8 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
      * Shut down the SAIL connection objects.
      */
     @Override
-    public void shutDown() {
+    public synchronized void shutDown() {
         initialized = false;
-        if (conn != null) {
-            try {
-                conn.close();
-            } catch (RepositoryException e) {
-                logger.warn("Error closing SailRepositoryConnection", e);
-            }
-        }
         if (repo != null && repo.isInitialized()) {
             try {
                 repo.shutDown();
@@ -186,17 +443,110 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
         }
     }
 
-    private static class InferredStatementHandler<T extends RdfCloudTripleStoreConfiguration> extends RDFHandlerBase {
+    /**
+     * Remember a newly inferred statement for semi-naive evaluation. If the
+     * level would exceed the maximum delta size, it is marked incomplete and
+     * its statements are dropped instead.
+     */
+    private void recordInference(int level, Queue<Statement> inferred, Statement statement) {
+        if (incompleteLevels.contains(level)) {
+            return;
+        }
+        if (deltaSize.incrementAndGet() > maxDeltaSize) {
+            deltaSize.decrementAndGet();
+            incompleteLevels.add(level);
+            Queue<Statement> removed = delta.remove(level);
+            if (removed != null) {
+                deltaSize.addAndGet(-removed.size());
+            }
+            logger.info("More than " + maxDeltaSize + " statements inferred from derivation level "
+                    + level + " onward; rules depending on them will be evaluated over the whole store.");
+            return;
+        }
+        inferred.add(statement);
+    }
+
+    /**
+     * Flags any query containing an operator whose results may shrink when
+     * statements are added, or that depends on the complete set of solutions.
+     */
+    private static class MonotonicityVisitor extends QueryModelVisitorBase<RuntimeException> {
+        private boolean monotonic = true;
+
+        @Override
+        public void meet(LeftJoin node) {
+            monotonic = false;
+        }
+
+        @Override
+        public void meet(Difference node) {
+            monotonic = false;
+        }
+
+        @Override
+        public void meet(Exists node) {
+            monotonic = false;
+        }
+
+        @Override
+        public void meet(Group node) {
+            monotonic = false;
+        }
+
+        @Override
+        public void meet(Slice node) {
+            monotonic = false;
+        }
+    }
+
+    /**
+     * Joins the WHERE clause of a construct query, found beneath its outermost
+     * projection and any extensions, with a set of bindings.
+     */
+    private static class WhereClauseJoiner extends QueryModelVisitorBase<RuntimeException> {
+        private final BindingSetAssignment values;
+
+        WhereClauseJoiner(BindingSetAssignment values) {
+            this.values = values;
+        }
+
+        @Override
+        public void meet(Projection node) {
+            joinWhereClause(node.getArg());
+        }
+
+        @Override
+        public void meet(MultiProjection node) {
+            joinWhereClause(node.getArg());
+        }
+
+        private void joinWhereClause(TupleExpr arg) {
+            TupleExpr where = arg;
+            while (where instanceof Extension) {
+                where = ((Extension) where).getArg();
+            }
+            Join join = new Join();
+            where.replaceWith(join);
+            join.setLeftArg(values);
+            join.setRightArg(where);
+        }
+    }
+
+    private class InferredStatementHandler<T extends RdfCloudTripleStoreConfiguration> extends RDFHandlerBase {
         private RyaDAO<T> dao;
         private RyaQueryEngine<T> engine;
         private long numStatementsAdded = 0;
         private StatementMetadata metadata;
+        private int level;
+        private Queue<Statement> inferred;
 
-        InferredStatementHandler(RyaDAO<T> dao, StatementMetadata metadata) {
+        InferredStatementHandler(RyaDAO<T> dao, StatementMetadata metadata,
+                int level, Queue<Statement> inferred) {
             this.dao = dao;
             this.engine = dao.getQueryEngine();
             this.metadata = metadata;
-            this.engine.setConf(dao.getConf());
+            this.level = level;
+            this.inferred = inferred;
         }
 
         @Override
@@ -210,6 +560,9 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
                 if (!iter.iterator().hasNext()) {
                     dao.add(ryaStatement);
                     numStatementsAdded++;
+                    if (inferred != null) {
+                        recordInference(level, inferred, statement);
+                    }
                 }
             } catch (RyaDAOException e) {
                 logger.error("Error handling inferred statement", e);
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.forwardchain.strategy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.forwardchain.ForwardChainException;
+import org.apache.rya.forwardchain.rule.Rule;
+import org.apache.rya.forwardchain.rule.Ruleset;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.Var;
+
+import com.google.common.collect.Sets;
+
+public class RoundRobinStrategyTest {
+    private static final StatementPattern TYPE_SP = new StatementPattern(new Var("x"), c(RDF.TYPE), new Var("t"));
+    private static final StatementPattern SCO_SP = new StatementPattern(new Var("x"), c(RDFS.SUBCLASSOF), new Var("y"));
+    private static final StatementPattern P1_SP = new StatementPattern(new Var("x"),
+            c(new ValueFactoryImpl().createURI("urn:p1")), new Var("y"));
+    private static final StatementPattern P2_SP = new StatementPattern(new Var("x"),
+            c(new ValueFactoryImpl().createURI("urn:p2")), new Var("y"));
+
+    private static Var c(Value val) {
+        Var v = new Var("-const-" + val.stringValue(), val);
+        v.setAnonymous(true);
+        return v;
+    }
+
+    /**
+     * Makes some number of inferences the first time it's executed, and none
+     * after that. Optionally waits for other rules to be executing at the same
+     * time.
+     */
+    private static class TestRule implements Rule {
+        private final String name;
+        private final StatementPattern consume;
+        private final StatementPattern produce;
+        private final long inferences;
+        private final CountDownLatch latch;
+        private final AtomicInteger executions = new AtomicInteger(0);
+        private volatile boolean concurrent = false;
+
+        TestRule(String name, StatementPattern consume, StatementPattern produce,
+                long inferences, CountDownLatch latch) {
+            this.name = name;
+            this.consume = consume;
+            this.produce = produce;
+            this.inferences = inferences;
+            this.latch = latch;
+        }
+        @Override
+        public boolean canConclude(StatementPattern sp) {
+            return produce.equals(sp);
+        }
+        @Override
+        public Collection<StatementPattern> getAntecedentPatterns() {
+            return Sets.newHashSet(consume);
+        }
+        @Override
+        public Collection<StatementPattern> getConsequentPatterns() {
+            return Sets.newHashSet(produce);
+        }
+        @Override
+        public long execute(AbstractRuleExecutionStrategy strategy,
+                StatementMetadata metadata) throws ForwardChainException {
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    concurrent = latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new ForwardChainException(e);
+                }
+            }
+            return executions.getAndIncrement() == 0 ? inferences : 0;
+        }
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class TestStrategy extends AbstractRuleExecutionStrategy {
+        private final boolean threadSafe;
+        TestStrategy(boolean threadSafe) {
+            this.threadSafe = threadSafe;
+        }
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+    }
+
+    @Test
+    public void testIndependentRulesRunConcurrently() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        TestRule typeToSco = new TestRule("2-typeToSco", TYPE_SP, SCO_SP, 1, latch);
+        TestRule scoToType = new TestRule("3-scoToType", SCO_SP, TYPE_SP, 0, null);
+        TestRule p1ToP2 = new TestRule("1-p1ToP2", P1_SP, P2_SP, 2, latch);
+        RoundRobinStrategy strategy = new RoundRobinStrategy(new TestStrategy(true), 2);
+        long inferences = strategy.executeAll(new Ruleset(Arrays.asList(typeToSco, scoToType, p1ToP2)));
+        Assert.assertEquals(3, inferences);
+        Assert.assertTrue(typeToSco.concurrent);
+        Assert.assertTrue(p1ToP2.concurrent);
+        // p1ToP2 and typeToSco are independent and run first. scoToType runs
+        // afterwards within the same iteration and produces nothing, so one
+        // iteration suffices.
+        Assert.assertEquals(Arrays.asList(3L), strategy.getInferencesPerIteration());
+    }
+
+    @Test
+    public void testDependentRulesTriggerNextIteration() throws Exception {
+        TestRule typeToSco = new TestRule("2-typeToSco", TYPE_SP, SCO_SP, 1, null);
+        TestRule scoToType = new TestRule("3-scoToType", SCO_SP, TYPE_SP, 4, null);
+        RoundRobinStrategy strategy = new RoundRobinStrategy(new TestStrategy(false), 2);
+        long inferences = strategy.executeAll(new Ruleset(Arrays.asList(typeToSco, scoToType)));
+        Assert.assertEquals(5, inferences);
+        // typeToSco runs first; scoToType then triggers it again, so the
+        // second iteration re-executes typeToSco, which produces nothing.
+        Assert.assertEquals(Arrays.asList(5L, 0L), strategy.getInferencesPerIteration());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.forwardchain.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.rya.forwardchain.rule.Ruleset;
+import org.apache.rya.forwardchain.rule.SpinConstructRule;
+import org.apache.rya.indexing.mongodb.MongoIndexingConfiguration;
+import org.apache.rya.indexing.mongodb.MongoIndexingConfiguration.MongoDBIndexingConfigBuilder;
+import org.apache.rya.mongodb.EmbeddedMongoFactory;
+import org.apache.rya.mongodb.MongoDBRdfConfiguration;
+import org.apache.rya.sail.config.RyaSailFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.URI;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.BindingSetAssignment;
+import org.openrdf.query.algebra.helpers.QueryModelVisitorBase;
+import org.openrdf.query.parser.ParsedGraphQuery;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+
+import com.google.common.collect.Iterables;
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+
+public class SailExecutionStrategyIT {
+    private static final ValueFactory VF = ValueFactoryImpl.getInstance();
+    private static final String EX = "http://example.org/";
+    private static final URI ANCESTOR = VF.createURI(EX, "ancestor");
+    private static final int CHAIN_LENGTH = 5;
+
+    private MongoDBRdfConfiguration conf;
+    private SailRepository repository;
+
+    /**
+     * Records the number of antecedent bindings each evaluated query is
+     * restricted to, or -1 if it is evaluated over the whole store.
+     */
+    private static class RecordingStrategy extends SailExecutionStrategy {
+        private final List<Integer> restrictions = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingStrategy(MongoDBRdfConfiguration conf) {
+            super(conf);
+        }
+
+        @Override
+        protected void evaluate(ParsedGraphQuery query, SailRepositoryConnection conn,
+                RDFHandler handler) throws QueryEvaluationException, RDFHandlerException {
+            List<Integer> sizes = new ArrayList<>();
+            query.getTupleExpr().visit(new QueryModelVisitorBase<RuntimeException>() {
+                @Override
+                public void meet(BindingSetAssignment node) {
+                    sizes.add(Iterables.size(node.getBindingSets()));
+                }
+            });
+            restrictions.add(sizes.isEmpty() ? -1 : sizes.get(0));
+            super.evaluate(query, conn, handler);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MongoDBIndexingConfigBuilder builder = MongoIndexingConfiguration.builder().setUseMockMongo(true);
+        final MongoClient c = EmbeddedMongoFactory.newFactory().newMongoClient();
+        final ServerAddress address = c.getAddress();
+        builder.setMongoHost(address.getHost());
+        builder.setMongoPort(Integer.toString(address.getPort()));
+        builder.setUseInference(false);
+        c.close();
+        conf = builder.build();
+        repository = new SailRepository(RyaSailFactory.getInstance(conf));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (repository != null) {
+            repository.shutDown();
+        }
+    }
+
+    @Test
+    public void testSemiNaiveTransitiveClosure() throws Exception {
+        // a0 -> a1 -> ... -> a4
+        SailRepositoryConnection conn = repository.getConnection();
+        try {
+            for (int i = 0; i + 1 < CHAIN_LENGTH; i++) {
+                conn.add(node(i), ANCESTOR, node(i + 1));
+            }
+        } finally {
+            conn.close();
+        }
+
+        String text = "CONSTRUCT { ?x <" + ANCESTOR + "> ?z } WHERE { "
+                + "?x <" + ANCESTOR + "> ?y . ?y <" + ANCESTOR + "> ?z . }";
+        ParsedGraphQuery query = (ParsedGraphQuery) new SPARQLParser().parseQuery(text, null);
+        SpinConstructRule rule = new SpinConstructRule(OWL.THING, VF.createURI(EX, "transitive"), query);
+        RecordingStrategy ruleStrategy = new RecordingStrategy(conf);
+        RoundRobinStrategy strategy = new RoundRobinStrategy(ruleStrategy);
+        long inferences = strategy.executeAll(new Ruleset(Arrays.asList(rule)));
+
+        // The closure of the chain holds every ordered pair.
+        Assert.assertEquals(6, inferences);
+        conn = repository.getConnection();
+        try {
+            for (int i = 0; i < CHAIN_LENGTH; i++) {
+                for (int j = i + 1; j < CHAIN_LENGTH; j++) {
+                    Assert.assertTrue(conn.hasStatement(node(i), ANCESTOR, node(j), false));
+                }
+            }
+        } finally {
+            conn.close();
+        }
+
+        // Paths of two edges are found first, then the longer paths that use
+        // them, and the last iteration finds nothing new.
+        Assert.assertEquals(Arrays.asList(3L, 3L, 0L), strategy.getInferencesPerIteration());
+        // Only the first iteration reads the whole store. Each later iteration
+        // is restricted to the statements the previous iteration inferred,
+        // each of which matches both antecedents.
+        Assert.assertEquals(Arrays.asList(-1, 6, 6), ruleStrategy.restrictions);
+    }
+
+    private static URI node(int i) {
+        return VF.createURI(EX, "a" + i);
+    }
+}
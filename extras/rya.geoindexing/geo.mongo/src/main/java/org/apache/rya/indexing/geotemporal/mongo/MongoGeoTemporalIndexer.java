@@ -89,6 +89,12 @@ public class MongoGeoTemporalIndexer extends AbstractMongoIndexer<GeoTemporalMon
         storageStrategy = new GeoTemporalMongoDBStorageStrategy();
     }
 
+    @Override
+    protected boolean supportsEmbedding() {
+        // Events are stored per subject, not per statement.
+        return false;
+    }
+
     @Override
     public void setConf(final Configuration conf) {
         requireNonNull(conf);
@@ -116,7 +116,7 @@ public class GeoMongoDBStorageStrategy extends IndexingMongoDBStorageStrategy {
 
     @Override
     public void createIndices(final DBCollection coll){
-        coll.createIndex(new BasicDBObject(GEO, "2dsphere"));
+        createIndex(coll, GEO, "2dsphere");
     }
 
     public DBObject getQuery(final GeoQuery queryObj) throws MalformedQueryException {
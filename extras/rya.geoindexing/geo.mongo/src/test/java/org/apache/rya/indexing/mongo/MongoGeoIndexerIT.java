@@ -23,9 +23,11 @@ import static org.apache.rya.indexing.GeoIndexingTestUtils.getSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
+import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.indexing.GeoConstants;
 import org.apache.rya.indexing.StatementConstraints;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
@@ -33,6 +35,7 @@ import org.apache.rya.indexing.accumulo.geo.OptionalConfigUtils;
 import org.apache.rya.indexing.mongodb.geo.MongoGeoIndexer;
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.mongodb.MongoITBase;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.junit.Test;
 import org.openrdf.model.Resource;
 import org.openrdf.model.Statement;
@@ -44,6 +47,7 @@ import org.openrdf.model.impl.StatementImpl;
 import org.openrdf.model.impl.ValueFactoryImpl;
 
 import com.google.common.collect.Sets;
+import com.mongodb.DBObject;
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.geom.LinearRing;
@@ -103,6 +107,38 @@ public class MongoGeoIndexerIT extends MongoITBase {
         }
     }
 
+    @Test
+    public void testEmbeddedSearch() throws Exception {
+        conf.setUseEmbeddedIndexes(true);
+
+        try (final MongoGeoIndexer f = new MongoGeoIndexer()) {
+            f.setConf(conf);
+            f.init();
+
+            final ValueFactory vf = new ValueFactoryImpl();
+            final Point point = gf.createPoint(new Coordinate(10, 10));
+            final Value pointValue = vf.createLiteral("Point(10 10)", GeoConstants.XMLSCHEMA_OGC_WKT);
+
+            // The geo field is added to the core documents instead of being written to the geo collection.
+            final Statement s1 = new StatementImpl(vf.createURI("foo:subj1"), GeoConstants.GEO_AS_WKT, pointValue);
+            final Statement notIndexed = new StatementImpl(vf.createURI("foo:subj2"), vf.createURI("pred:other"), pointValue);
+            for (final Statement statement : Arrays.asList(s1, notIndexed)) {
+                final RyaStatement ryaStatement = convertStatement(statement);
+                final DBObject coreDocument = new SimpleMongoDBStorageStrategy().serialize(ryaStatement);
+                assertTrue(f.embedStatement(ryaStatement, coreDocument));
+                getRyaDbCollection().insert(coreDocument);
+            }
+
+            // Statements stored straight through the indexer are merged into their core documents.
+            final Statement s3 = new StatementImpl(vf.createURI("foo:subj3"), GeoConstants.GEO_AS_WKT, pointValue);
+            f.storeStatement(convertStatement(s3));
+
+            assertEquals(Sets.newHashSet(s1, s3), getSet(f.queryEquals(point, EMPTY_CONSTRAINTS)));
+            assertEquals(3, getRyaDbCollection().count());
+            assertEquals(0, getMongoClient().getDB(conf.getRyaInstanceName()).getCollection(f.getCollectionName()).count());
+        }
+    }
+
     @Test
     public void testPrimeMeridianSearch() throws Exception {
         try (final MongoGeoIndexer f = new MongoGeoIndexer()) {
@@ -47,6 +47,7 @@ import org.apache.rya.api.persist.query.BatchRyaQuery;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.rya.indexing.pcj.fluo.app.FluoStringConverter;
 import org.apache.rya.indexing.pcj.fluo.app.NodeType;
+import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQuery;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryMetadataDAO;
 import org.apache.rya.indexing.pcj.fluo.app.query.SparqlFluoQueryBuilder;
@@ -107,6 +108,11 @@ public class CreateFluoPcj {
      * The maximum number of join results that will be processed per transaction.
      */
     private final int joinBatchSize;
+
+    /**
+     * The number of rows the partial results of each aggregation Group By value are spread over.
+     */
+    private final int aggregationPartialShardCount;
     /**
      * Constructs an instance of {@link CreateFluoPcj} that uses
      * {@link #DEFAULT_SP_INSERT_BATCH_SIZE} as the default batch insert size.
@@ -122,10 +128,26 @@ public class CreateFluoPcj {
      *   inserted into each Statement Pattern's result set per Fluo transaction.
      */
     public CreateFluoPcj(final int spInsertBatchSize, final int joinBatchSize) {
+        this(spInsertBatchSize, joinBatchSize, AggregationMetadata.DEFAULT_PARTIAL_SHARD_COUNT);
+    }
+
+    /**
+     * Constructs an instance of {@link CreateFluoPcj}.
+     *
+     * @param spInsertBatchSize - The maximum number of binding sets that will be
+     *   inserted into each Statement Pattern's result set per Fluo transaction.
+     * @param joinBatchSize - The maximum number of join results that will be processed per transaction.
+     * @param aggregationPartialShardCount - The number of rows the partial results of each aggregation
+     *   Group By value are spread over. Use a value greater than 1 for aggregations with few Group By
+     *   values that are updated by many concurrent transactions.
+     */
+    public CreateFluoPcj(final int spInsertBatchSize, final int joinBatchSize, final int aggregationPartialShardCount) {
         checkArgument(spInsertBatchSize > 0, "The SP insert batch size '" + spInsertBatchSize + "' must be greater than 0.");
         checkArgument(joinBatchSize > 0, "The Join batch size '" + joinBatchSize + "' must be greater than 0.");
+        checkArgument(aggregationPartialShardCount > 0, "The aggregation partial shard count '" + aggregationPartialShardCount + "' must be greater than 0.");
         this.spInsertBatchSize = spInsertBatchSize;
         this.joinBatchSize = joinBatchSize;
+        this.aggregationPartialShardCount = aggregationPartialShardCount;
     }
     
 
@@ -218,7 +240,8 @@ public class CreateFluoPcj {
                 .setExportStrategies(strategies)
                 .setFluoQueryId(queryId)
                 .setSparql(sparql)
-                .setJoinBatchSize(joinBatchSize);
+                .setJoinBatchSize(joinBatchSize)
+                .setAggregationPartialShardCount(aggregationPartialShardCount);
         
         FluoQuery query = builder.build();
         
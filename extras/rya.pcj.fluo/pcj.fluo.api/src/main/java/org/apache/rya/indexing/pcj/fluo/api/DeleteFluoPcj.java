@@ -35,6 +35,7 @@ import org.apache.rya.indexing.pcj.fluo.app.NodeType;
 import org.apache.rya.indexing.pcj.fluo.app.batch.BatchInformationDAO;
 import org.apache.rya.indexing.pcj.fluo.app.batch.SpanBatchDeleteInformation;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQuery;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryMetadataDAO;
 import org.apache.rya.indexing.pcj.fluo.app.query.StatementPatternIdManager;
 import org.apache.rya.indexing.pcj.fluo.app.query.UnsupportedQueryException;
@@ -186,6 +187,13 @@ public class DeleteFluoPcj {
         SpanBatchDeleteInformation batch = SpanBatchDeleteInformation.builder().setColumn(type.getResultColumn())
                 .setSpan(Span.prefix(prefixBytes)).setBatchSize(batchSize).setNodeId(Optional.of(nodeId)).build();
         BatchInformationDAO.addBatch(tx, nodeId, batch);
+
+        // Aggregations may also hold partial results that have not been combined.
+        if(type == NodeType.AGGREGATION) {
+            final SpanBatchDeleteInformation partialsBatch = SpanBatchDeleteInformation.builder().setColumn(FluoQueryColumns.AGGREGATION_PARTIAL_STATE)
+                    .setSpan(Span.prefix(prefixBytes)).setBatchSize(batchSize).setNodeId(Optional.of(nodeId)).build();
+            BatchInformationDAO.addBatch(tx, nodeId, partialsBatch);
+        }
         tx.commit();
     }
 
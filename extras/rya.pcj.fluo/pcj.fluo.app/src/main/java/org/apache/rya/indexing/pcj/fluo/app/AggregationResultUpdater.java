@@ -24,13 +24,18 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.io.serialization.ValidatingObjectInputStream;
 import org.apache.fluo.api.client.TransactionBase;
 import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
 import org.apache.log4j.Logger;
-import org.apache.rya.accumulo.utils.VisibilitySimplifier;
+import org.apache.rya.accumulo.utils.CanonicalVisibility;
 import org.apache.rya.api.function.aggregation.AggregationElement;
 import org.apache.rya.api.function.aggregation.AggregationFunction;
 import org.apache.rya.api.function.aggregation.AggregationState;
@@ -45,6 +50,7 @@ import org.apache.rya.api.log.LogUtils;
 import org.apache.rya.api.model.VisibilityBindingSet;
 import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
+import org.apache.rya.indexing.pcj.fluo.app.util.BindingHashShardingFunction;
 import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
 import org.openrdf.query.impl.MapBindingSet;
 
@@ -62,6 +68,8 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
 
     private static final AggregationStateSerDe AGG_STATE_SERDE = new ObjectSerializationAggregationStateSerDe();
 
+    private static final Bytes AGGREGATION_PREFIX_BYTES = Bytes.of(IncrementalUpdateConstants.AGGREGATION_PREFIX);
+
     private static final ImmutableMap<AggregationType, AggregationFunction> FUNCTIONS;
     static {
         final ImmutableMap.Builder<AggregationType, AggregationFunction> builder = ImmutableMap.builder();
@@ -98,8 +106,96 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
         final VariableOrder groupByVars = aggregationMetadata.getGroupByVariableOrder();
         final Bytes rowId = makeRowKey(aggregationNodeId, groupByVars, childBindingSet);
 
+        // Hot Group By values collide when every update writes the same row. Their updates may be spread over a
+        // number of partial rows instead. The partials are combined into the final result by a weak notification.
+        final int partialShardCount = aggregationMetadata.getPartialShardCount();
+        if(partialShardCount > 1) {
+            final int partialShard = Math.floorMod(Long.hashCode(tx.getStartTimestamp()), partialShardCount);
+            final Bytes partialRowId = BindingHashShardingFunction.addPartialShard(AGGREGATION_PREFIX_BYTES, rowId, partialShard);
+            updateState(tx, partialRowId, FluoQueryColumns.AGGREGATION_PARTIAL_STATE, childBindingSet, aggregationMetadata);
+            tx.setWeakNotification(rowId, FluoQueryColumns.AGGREGATION_PARTIALS_UPDATED);
+        } else {
+            updateState(tx, rowId, FluoQueryColumns.AGGREGATION_BINDING_SET, childBindingSet, aggregationMetadata);
+        }
+    }
+
+    /**
+     * Combines the partial results of a Group By value that is sharded across partial rows into its final
+     * {@link AggregationState}. The final state is only written when it changed, so the observers of the
+     * Aggregation node's results only see the combined result.
+     *
+     * @param tx - The transaction all Fluo queries will use. (not null)
+     * @param rowId - The row of the final result whose partial results will be combined. (not null)
+     * @param aggregationMetadata - The metadata of the Aggregation node whose results will be updated. (not null)
+     * @throws Exception The combine could not be successfully performed.
+     */
+    public void combinePartialResults(
+            final TransactionBase tx,
+            final Bytes rowId,
+            final AggregationMetadata aggregationMetadata) throws Exception {
+        requireNonNull(tx);
+        requireNonNull(rowId);
+        requireNonNull(aggregationMetadata);
+
+        // Fetch every partial result of the row in a single batch.
+        final int partialShardCount = aggregationMetadata.getPartialShardCount();
+        final List<Bytes> partialRowIds = new ArrayList<>(partialShardCount);
+        for(int i = 0; i < partialShardCount; i++) {
+            partialRowIds.add( BindingHashShardingFunction.addPartialShard(AGGREGATION_PREFIX_BYTES, rowId, i) );
+        }
+        final Map<Bytes, Map<Column, Bytes>> partials = tx.get(partialRowIds, Collections.singleton(FluoQueryColumns.AGGREGATION_PARTIAL_STATE));
+
+        // Each partial is cumulative, so the final state is rebuilt from all of them every time.
+        AggregationState combined = null;
+        for(final Map<Column, Bytes> columns : partials.values()) {
+            final Bytes partialBytes = columns.get(FluoQueryColumns.AGGREGATION_PARTIAL_STATE);
+            if(partialBytes == null) {
+                continue;
+            }
+
+            final AggregationState partial = AGG_STATE_SERDE.deserialize(partialBytes.toArray());
+            if(combined == null) {
+                combined = new AggregationState();
+                for(final String variable : aggregationMetadata.getGroupByVariableOrder()) {
+                    combined.getBindingSet().addBinding( partial.getBindingSet().getBinding(variable) );
+                }
+            }
+
+            combined.setVisibility( CanonicalVisibility.of(combined.getVisibility())
+                    .union(CanonicalVisibility.of(partial.getVisibility())).getExpression() );
+            for(final AggregationElement aggregation : aggregationMetadata.getAggregations()) {
+                getFunction(aggregation).merge(aggregation, combined, partial);
+            }
+        }
+
+        if(combined == null) {
+            return;
+        }
+
+        // Do not write the final state if it has not changed since the last combine.
+        final Bytes oldStateBytes = tx.get(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET);
+        if(oldStateBytes != null && combined.equals(AGG_STATE_SERDE.deserialize(oldStateBytes.toArray()))) {
+            return;
+        }
+
+        log.trace(
+                "Transaction ID: " + tx.getStartTimestamp() + "\n" +
+                "Combined " + partials.size() + " partial results:" + LogUtils.clean(combined.getBindingSet().toString()) + "\n" );
+
+        tx.set(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET, Bytes.of(AGG_STATE_SERDE.serialize(combined)));
+    }
+
+    /**
+     * Updates the {@link AggregationState} that is stored within a row/column using a child Binding Set.
+     */
+    private void updateState(
+            final TransactionBase tx,
+            final Bytes rowId,
+            final Column column,
+            final VisibilityBindingSet childBindingSet,
+            final AggregationMetadata aggregationMetadata) {
         // Load the old state from the bytes if one was found; otherwise initialize the state.
-        final Optional<Bytes> stateBytes = Optional.ofNullable( tx.get(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET) );
+        final Optional<Bytes> stateBytes = Optional.ofNullable( tx.get(rowId, column) );
 
         final AggregationState state;
         if(stateBytes.isPresent()) {
@@ -123,18 +219,13 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
 
         // Update the visibilities of the result binding set based on the child's visibilities.
         final String oldVisibility = state.getVisibility();
-        final String updateVisibilities = VisibilitySimplifier.unionAndSimplify(oldVisibility, childBindingSet.getVisibility());
+        final String updateVisibilities = CanonicalVisibility.of(oldVisibility)
+                .union(CanonicalVisibility.of(childBindingSet.getVisibility())).getExpression();
         state.setVisibility(updateVisibilities);
 
         // Update the Aggregation State with each Aggregation function included within this group.
         for(final AggregationElement aggregation : aggregationMetadata.getAggregations()) {
-            final AggregationType type = aggregation.getAggregationType();
-            final AggregationFunction function = FUNCTIONS.get(type);
-            if(function == null) {
-                throw new RuntimeException("Unrecognized aggregation function: " + type);
-            }
-
-            function.update(aggregation, state, childBindingSet);
+            getFunction(aggregation).update(aggregation, state, childBindingSet);
         }
 
         log.trace(
@@ -142,7 +233,16 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
                 "After Update:" + LogUtils.clean(state.getBindingSet().toString()) + "\n" );
 
         // Store the updated state. This will write on top of any old state that was present for the Group By values.
-        tx.set(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET, Bytes.of(AGG_STATE_SERDE.serialize(state)));
+        tx.set(rowId, column, Bytes.of(AGG_STATE_SERDE.serialize(state)));
+    }
+
+    private static AggregationFunction getFunction(final AggregationElement aggregation) {
+        final AggregationType type = aggregation.getAggregationType();
+        final AggregationFunction function = FUNCTIONS.get(type);
+        if(function == null) {
+            throw new RuntimeException("Unrecognized aggregation function: " + type);
+        }
+        return function;
     }
 
     /**
@@ -28,6 +28,7 @@ public class IncrementalUpdateConstants {
     public static final String NODEID_BS_DELIM = "<<:>>";
     public static final String JOIN_DELIM = "<:>J<:>";
     public static final String TYPE_DELIM = "<<~>>";
+    public static final String PARTIAL_SHARD_DELIM = "<<#>>";
 
     //to be used in construction of id for each node
     public static final String TRIPLE_PREFIX = "T";
@@ -25,7 +25,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.fluo.api.data.Bytes;
-import org.apache.rya.accumulo.utils.VisibilitySimplifier;
+import org.apache.rya.accumulo.utils.CanonicalVisibility;
 import org.apache.rya.api.client.CreatePCJ.ExportStrategy;
 import org.apache.rya.api.client.CreatePCJ.QueryType;
 import org.apache.rya.api.domain.RyaStatement;
@@ -49,7 +49,6 @@ public class ExporterManager implements AutoCloseable {
 
     private static final VisibilityBindingSetSerDe BS_SERDE = new VisibilityBindingSetSerDe();
     private static final RyaSubGraphKafkaSerDe SG_SERDE = new RyaSubGraphKafkaSerDe();
-    private final Map<String, String> simplifiedVisibilities = new HashMap<>();
     
     private final Map<QueryType, Map<ExportStrategy, IncrementalResultExporter>> exporters;
     
@@ -142,28 +141,19 @@ public class ExporterManager implements AutoCloseable {
     
     private void simplifyVisibilities(final VisibilityBindingSet result) {
         // Simplify the result's visibilities.
-        final String visibility = result.getVisibility();
-        if(!simplifiedVisibilities.containsKey(visibility)) {
-            final String simplified = VisibilitySimplifier.simplify( visibility );
-            simplifiedVisibilities.put(visibility, simplified);
-        }
-        result.setVisibility( simplifiedVisibilities.get(visibility) );
+        result.setVisibility( CanonicalVisibility.of(result.getVisibility()).getExpression() );
     }
     
     private void simplifyVisibilities(final RyaSubGraph subgraph) throws UnsupportedEncodingException {
         final Set<RyaStatement> statements = subgraph.getStatements();
         if (statements.size() > 0) {
             final byte[] visibilityBytes = statements.iterator().next().getColumnVisibility();
-            // Simplify the result's visibilities and cache new simplified
-            // visibilities
+            // Simplify the result's visibilities.
             final String visibility = new String(visibilityBytes, "UTF-8");
-            if (!simplifiedVisibilities.containsKey(visibility)) {
-                final String simplified = VisibilitySimplifier.simplify(visibility);
-                simplifiedVisibilities.put(visibility, simplified);
-            }
+            final byte[] simplified = CanonicalVisibility.of(visibility).getExpression().getBytes("UTF-8");
 
             for (final RyaStatement statement : statements) {
-                statement.setColumnVisibility(simplifiedVisibilities.get(visibility).getBytes("UTF-8"));
+                statement.setColumnVisibility(simplified);
             }
             
             subgraph.setStatements(statements);
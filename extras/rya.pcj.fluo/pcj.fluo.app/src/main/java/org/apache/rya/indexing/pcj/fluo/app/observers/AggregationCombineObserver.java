@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.fluo.app.observers;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.AGGREGATION_PREFIX;
+
+import org.apache.fluo.api.client.TransactionBase;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.AbstractObserver;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater;
+import org.apache.rya.indexing.pcj.fluo.app.BindingSetRow;
+import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryMetadataCache;
+import org.apache.rya.indexing.pcj.fluo.app.query.MetadataCacheSupplier;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Notified when the partial results of a sharded Aggregation have been updated. This observer
+ * combines the partial results into the final result of the Group By value. Since the notification
+ * is weak, many partial updates may be combined by a single notification.
+ */
+@DefaultAnnotation(NonNull.class)
+public class AggregationCombineObserver extends AbstractObserver {
+
+    private final FluoQueryMetadataCache queryDao = MetadataCacheSupplier.getOrCreateCache();
+    private final AggregationResultUpdater updater = new AggregationResultUpdater();
+
+    @Override
+    public ObservedColumn getObservedColumn() {
+        return new ObservedColumn(FluoQueryColumns.AGGREGATION_PARTIALS_UPDATED, NotificationType.WEAK);
+    }
+
+    @Override
+    public void process(final TransactionBase tx, final Bytes row, final Column col) throws Exception {
+        requireNonNull(tx);
+        requireNonNull(row);
+
+        // Make nodeId and fetch the Aggregation node's metadata.
+        final String nodeId = BindingSetRow.makeFromShardedRow(Bytes.of(AGGREGATION_PREFIX), row).getNodeId();
+        final AggregationMetadata metadata = queryDao.readAggregationMetadata(tx, nodeId);
+
+        updater.combinePartialResults(tx, row, metadata);
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.rya.indexing.pcj.fluo.app.query;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
@@ -41,10 +42,16 @@ import net.jcip.annotations.Immutable;
 @DefaultAnnotation(NonNull.class)
 public class AggregationMetadata extends CommonNodeMetadata {
 
+    /**
+     * By default every Group By value's result is updated within a single row.
+     */
+    public static final int DEFAULT_PARTIAL_SHARD_COUNT = 1;
+
     private final String parentNodeId;
     private final String childNodeId;
     private final Collection<AggregationElement> aggregations;
     private final VariableOrder groupByVariables;
+    private final int partialShardCount;
 
     /**
      * Constructs an instance of {@link AggregationMetadata}.
@@ -64,11 +71,37 @@ public class AggregationMetadata extends CommonNodeMetadata {
             final String childNodeId,
             final Collection<AggregationElement> aggregations,
             final VariableOrder groupByVariables) {
+        this(nodeId, varOrder, parentNodeId, childNodeId, aggregations, groupByVariables, DEFAULT_PARTIAL_SHARD_COUNT);
+    }
+
+    /**
+     * Constructs an instance of {@link AggregationMetadata}.
+     *
+     * @param nodeId - The ID the Fluo app uses to reference this node. (not null)
+     * @param varOrder - The variable order of binding sets that are emitted by this node. This may only contain a
+     *   single variable because aggregations are only able to emit the aggregated value. (not null)
+     * @param parentNodeId - The Node ID of this node's parent. This is the node that will consume the results of the aggregations. (not null)
+     * @param childNodeId - The Node ID of this node's child. This is the node that will feed binding sets into the aggregations. (not null)
+     * @param aggregations - The aggregations that will be performed over the BindingSets that are emitted from the child node. (not null)
+     * @param groupByVariables - Defines how the data is grouped for the aggregation function. (not null, may be empty if no grouping is required)
+     * @param partialShardCount - The number of rows partial results are spread over for each Group By value. If this
+     *   is 1, each result is updated within a single row. (greater than 0)
+     */
+    public AggregationMetadata(
+            final String nodeId,
+            final VariableOrder varOrder,
+            final String parentNodeId,
+            final String childNodeId,
+            final Collection<AggregationElement> aggregations,
+            final VariableOrder groupByVariables,
+            final int partialShardCount) {
         super(nodeId, varOrder);
         this.parentNodeId = requireNonNull(parentNodeId);
         this.childNodeId = requireNonNull(childNodeId);
         this.aggregations = requireNonNull(aggregations);
         this.groupByVariables = requireNonNull(groupByVariables);
+        checkArgument(partialShardCount > 0, "The partial shard count must be greater than 0.");
+        this.partialShardCount = partialShardCount;
     }
 
     /**
@@ -99,6 +132,16 @@ public class AggregationMetadata extends CommonNodeMetadata {
         return groupByVariables;
     }
 
+    /**
+     * @return The number of rows partial results are spread over for each Group By value. If this is greater
+     *   than 1, each new child Binding Set updates one of those rows and the rows are then combined into the
+     *   result that is seen by this node's parent. This keeps transactions that update the same Group By value
+     *   from colliding on a single row.
+     */
+    public int getPartialShardCount() {
+        return partialShardCount;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(
@@ -107,7 +150,8 @@ public class AggregationMetadata extends CommonNodeMetadata {
                 parentNodeId,
                 childNodeId,
                 aggregations,
-                groupByVariables);
+                groupByVariables,
+                partialShardCount);
     }
 
     @Override
@@ -119,7 +163,8 @@ public class AggregationMetadata extends CommonNodeMetadata {
                     Objects.equals(parentNodeId, metadata.parentNodeId) &&
                     Objects.equals(childNodeId, metadata.childNodeId) &&
                     Objects.equals(aggregations, metadata.aggregations) &&
-                    Objects.equals(groupByVariables, metadata.groupByVariables);
+                    Objects.equals(groupByVariables, metadata.groupByVariables) &&
+                    partialShardCount == metadata.partialShardCount;
         }
         return false;
     }
@@ -138,6 +183,11 @@ public class AggregationMetadata extends CommonNodeMetadata {
             string.append("    GroupBy Variable Order: " + groupByVariables + "\n");
         }
 
+        // Only print the partial shard count if results are sharded.
+        if(partialShardCount > 1) {
+            string.append("    Partial Shard Count: " + partialShardCount + "\n");
+        }
+
         // Print each of the AggregationElements.
         string.append("    Aggregations: {\n");
         final Iterator<AggregationElement> it = aggregations.iterator();
@@ -177,6 +227,7 @@ public class AggregationMetadata extends CommonNodeMetadata {
         private String childNodeId;
         private final List<AggregationElement> aggregations = new ArrayList<>();
         private VariableOrder groupByVariables = new VariableOrder();
+        private int partialShardCount = DEFAULT_PARTIAL_SHARD_COUNT;
 
         /**
          * Constructs an instance of {@link Builder}.
@@ -267,11 +318,27 @@ public class AggregationMetadata extends CommonNodeMetadata {
             return groupByVariables;
         }
 
+        /**
+         * @param partialShardCount - The number of rows partial results are spread over for each Group By value.
+         * @return This builder so that method invocations may be chained.
+         */
+        public Builder setPartialShardCount(final int partialShardCount) {
+            this.partialShardCount = partialShardCount;
+            return this;
+        }
+
+        /**
+         * @return The number of rows partial results are spread over for each Group By value.
+         */
+        public int getPartialShardCount() {
+            return partialShardCount;
+        }
+
         /**
          * @return An instance of {@link AggregationMetadata} build using this builder's values.
          */
         public AggregationMetadata build() {
-            return new AggregationMetadata(nodeId, varOrder, parentNodeId, childNodeId, aggregations, groupByVariables);
+            return new AggregationMetadata(nodeId, varOrder, parentNodeId, childNodeId, aggregations, groupByVariables, partialShardCount);
         }
     }
 }
\ No newline at end of file
@@ -134,7 +134,10 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:childNodeId</td> <td>The Node ID of the node that feeds this node Binding Sets.</td> </tr>
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:groupByBindingNames</td> <td>An ordered list of the binding names the aggregation's results will be grouped by.</td> </tr>
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:aggregations</td> <td>A serialized form of the aggregations that need to be performed by this aggregation node.</td> </tr>
+ *     <tr> <td>Node ID</td> <td>aggregationMetadata:partialShardCount</td> <td>The number of rows partial results are spread over for each Group By value.</td> </tr>
  *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String</td> <td>aggregationMetadata:bindingSet</td><td>An {@link AggregationState} object.</td> </tr>
+ *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String</td> <td>aggregationMetadata:partialsUpdated</td><td>Empty. A weak notification that the partial results must be combined.</td> </tr>
+ *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String + DELIM + Partial Shard</td> <td>aggregationMetadata:partialState</td><td>An {@link AggregationState} object for a subset of the child Binding Sets.</td> </tr>
  *   </table>
  * </p>
  */
@@ -231,7 +234,10 @@ public class FluoQueryColumns {
     public static final Column AGGREGATION_CHILD_NODE_ID = new Column(AGGREGATION_METADATA_CF, "childNodeId");
     public static final Column AGGREGATION_GROUP_BY_BINDING_NAMES = new Column(AGGREGATION_METADATA_CF, "groupByBindingNames");
     public static final Column AGGREGATION_AGGREGATIONS = new Column(AGGREGATION_METADATA_CF, "aggregations");
+    public static final Column AGGREGATION_PARTIAL_SHARD_COUNT = new Column(AGGREGATION_METADATA_CF, "partialShardCount");
     public static final Column AGGREGATION_BINDING_SET = new Column(AGGREGATION_METADATA_CF, "bindingSet");
+    public static final Column AGGREGATION_PARTIALS_UPDATED = new Column(AGGREGATION_METADATA_CF, "partialsUpdated");
+    public static final Column AGGREGATION_PARTIAL_STATE = new Column(AGGREGATION_METADATA_CF, "partialState");
 
     /**
      * BatchObserver column for processing tasks that need to be broken into
@@ -345,7 +351,8 @@ public class FluoQueryColumns {
                         AGGREGATION_PARENT_NODE_ID,
                         AGGREGATION_CHILD_NODE_ID,
                         AGGREGATION_GROUP_BY_BINDING_NAMES,
-                        AGGREGATION_AGGREGATIONS));
+                        AGGREGATION_AGGREGATIONS,
+                        AGGREGATION_PARTIAL_SHARD_COUNT));
 
         private final List<Column> columns;
 
@@ -512,6 +512,7 @@ public class FluoQueryMetadataDAO {
         final VariableOrder groupByVars = metadata.getGroupByVariableOrder();
         final String groupByString = Joiner.on(";").join(groupByVars.getVariableOrders());
         tx.set(rowId, FluoQueryColumns.AGGREGATION_GROUP_BY_BINDING_NAMES, groupByString);
+        tx.set(rowId, FluoQueryColumns.AGGREGATION_PARTIAL_SHARD_COUNT, Integer.toString(metadata.getPartialShardCount()));
 
         // Serialize the collection of AggregationElements.
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -545,8 +546,8 @@ public class FluoQueryMetadataDAO {
                 FluoQueryColumns.AGGREGATION_VARIABLE_ORDER,
                 FluoQueryColumns.AGGREGATION_PARENT_NODE_ID,
                 FluoQueryColumns.AGGREGATION_CHILD_NODE_ID,
-                FluoQueryColumns.AGGREGATION_GROUP_BY_BINDING_NAMES);
-
+                FluoQueryColumns.AGGREGATION_GROUP_BY_BINDING_NAMES,
+                FluoQueryColumns.AGGREGATION_PARTIAL_SHARD_COUNT);
 
         // Return an object holding them.
         final String varOrderString = values.get(FluoQueryColumns.AGGREGATION_VARIABLE_ORDER);
@@ -559,6 +560,11 @@ public class FluoQueryMetadataDAO {
         final String groupByString = values.get(FluoQueryColumns.AGGREGATION_GROUP_BY_BINDING_NAMES);
         final VariableOrder groupByVars = groupByString.isEmpty() ? new VariableOrder() : new VariableOrder( groupByString.split(";") );
 
+        // Aggregations that were created before partial sharding existed update a single row.
+        final String partialShardCountString = values.get(FluoQueryColumns.AGGREGATION_PARTIAL_SHARD_COUNT);
+        final int partialShardCount = partialShardCountString == null ?
+                AggregationMetadata.DEFAULT_PARTIAL_SHARD_COUNT : Integer.parseInt(partialShardCountString);
+
         // Deserialize the collection of AggregationElements.
         final Bytes aggBytes = sx.get(Bytes.of(nodeId.getBytes(Charsets.UTF_8)), FluoQueryColumns.AGGREGATION_AGGREGATIONS);
         final Collection<AggregationElement> aggregations;
@@ -586,7 +592,8 @@ public class FluoQueryMetadataDAO {
                 .setVarOrder(varOrder)
                 .setParentNodeId(parentNodeId)
                 .setChildNodeId(childNodeId)
-                .setGroupByVariableOrder(groupByVars);
+                .setGroupByVariableOrder(groupByVars)
+                .setPartialShardCount(partialShardCount);
 
         for(final AggregationElement aggregation : aggregations) {
             builder.addAggregation(aggregation);
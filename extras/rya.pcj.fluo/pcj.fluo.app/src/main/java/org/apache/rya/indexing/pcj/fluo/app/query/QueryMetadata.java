@@ -182,6 +182,7 @@ public class QueryMetadata extends CommonNodeMetadata {
         private Set<ExportStrategy> exportStrategies;
         private QueryType queryType;
         private Optional<Integer> joinBatchSize = Optional.empty();
+        private Optional<Integer> aggregationPartialShardCount = Optional.empty();
         
 
         /**
@@ -289,6 +290,22 @@ public class QueryMetadata extends CommonNodeMetadata {
             return joinBatchSize;
         }
 
+        /**
+         * Sets the number of rows partial results are spread over for each Group By value of this query's aggregations
+         * @param aggregationPartialShardCount - number of rows partial aggregation results are spread over
+         */
+        public Builder setAggregationPartialShardCount(Optional<Integer> aggregationPartialShardCount) {
+            this.aggregationPartialShardCount = aggregationPartialShardCount;
+            return this;
+        }
+
+        /**
+         * @return Optional containing the number of rows partial aggregation results are spread over
+         */
+        public Optional<Integer> getAggregationPartialShardCount() {
+            return aggregationPartialShardCount;
+        }
+
         /**
          * @return An instance of {@link QueryMetadata} build using this builder's values.
          */
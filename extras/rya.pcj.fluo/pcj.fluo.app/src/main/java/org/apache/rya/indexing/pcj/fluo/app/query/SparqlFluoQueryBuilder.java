@@ -103,6 +103,7 @@ public class SparqlFluoQueryBuilder {
     private String queryId;
     private NodeIds nodeIds;
     private Optional<Integer> joinBatchSize = Optional.empty();
+    private Optional<Integer> aggregationPartialShardCount = Optional.empty();
 
     //Default behavior is to export to Kafka - subject to change when user can
     //specify their own export strategy
@@ -145,6 +146,19 @@ public class SparqlFluoQueryBuilder {
         return this;
     }
 
+    /**
+     * Sets the number of rows the partial results of each Group By value are spread over. Transactions that
+     * update the same Group By value collide less often when this is greater than 1, at the cost of combining
+     * the partial results before they are seen by the aggregation's parent.
+     * @param aggregationPartialShardCount - The number of rows partial aggregation results are spread over. (greater than 0)
+     * @return SparqlFluoQueryBuilder for chaining method calls
+     */
+    public SparqlFluoQueryBuilder setAggregationPartialShardCount(final int aggregationPartialShardCount) {
+        Preconditions.checkArgument(aggregationPartialShardCount > 0);
+        this.aggregationPartialShardCount = Optional.of(aggregationPartialShardCount);
+        return this;
+    }
+
     public FluoQuery build() throws UnsupportedQueryException {
         Preconditions.checkNotNull(sparql);
         Preconditions.checkNotNull(queryId);
@@ -176,7 +190,8 @@ public class SparqlFluoQueryBuilder {
             .setSparql(sparql)
             .setChildNodeId(childNodeId)
             .setExportStrategies(exportStrategies)
-            .setJoinBatchSize(joinBatchSize);
+            .setJoinBatchSize(joinBatchSize)
+            .setAggregationPartialShardCount(aggregationPartialShardCount);
 
         fluoQueryBuilder.setQueryMetadata(queryBuilder);
 
@@ -361,6 +376,9 @@ public class SparqlFluoQueryBuilder {
 
                 aggregationBuilder.setChildNodeId(childNodeId);
                 aggregationBuilder.setGroupByVariableOrder(groupByVariableOrder);
+                if(fluoQueryBuilder.getQueryBuilder().getAggregationPartialShardCount().isPresent()) {
+                    aggregationBuilder.setPartialShardCount(fluoQueryBuilder.getQueryBuilder().getAggregationPartialShardCount().get());
+                }
 
                 final Set<String> aggregationVars = getVarsToDelete(groupByVariableOrder.getVariableOrders(), aggregationBuilder.getVariableOrder().getVariableOrders());
                 FluoQueryUtils.updateVarOrders(fluoQueryBuilder, UpdateAction.DeleteVariable, Lists.newArrayList(aggregationVars), aggregationId);
@@ -21,6 +21,7 @@ package org.apache.rya.indexing.pcj.fluo.app.util;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.NODEID_BS_DELIM;
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.PARTIAL_SHARD_DELIM;
 import static org.apache.rya.indexing.pcj.storage.accumulo.BindingSetStringConverter.TYPE_DELIM;
 
 import org.apache.fluo.api.data.Bytes;
@@ -166,6 +167,41 @@ public class BindingHashShardingFunction {
         return builder.toBytes();
     }
 
+    /**
+     * Generates the rowId of a partial result that belongs to a sharded row. The partial row is of the form:
+     * node_prefix:shardId:nodeId//Binding_values<<#>>partialShard, where the shardId is regenerated from the new
+     * suffix so that the partial rows of a single sharded row are spread across the table. The nodeId//Binding_values
+     * portion is preserved so that {@link #removeHash(Bytes, Bytes)} may still be used to read the nodeId.
+     *
+     * @param prefixBytes - prefix of the node type that the row corresponds to. (not null)
+     * @param shardedRow - A row that was generated by {@link #addShard(String, VariableOrder, VisibilityBindingSet)}. (not null)
+     * @param partialShard - Identifies which partial result of the row is being addressed. (not negative)
+     * @return - serialized Bytes rowId for storing a partial result in Fluo
+     */
+    public static Bytes addPartialShard(Bytes prefixBytes, Bytes shardedRow, int partialShard) {
+        checkNotNull(prefixBytes);
+        checkNotNull(shardedRow);
+        checkArgument(partialShard >= 0, "The partial shard must not be negative.");
+        checkArgument(shardedRow.length() >= prefixBytes.length() + 6, "Row is shorter than expected " + shardedRow);
+        checkArgument(shardedRow.subSequence(0, prefixBytes.length()).equals(prefixBytes),
+                "Row does not have expected prefix " + shardedRow);
+        checkArgument(hasHash(prefixBytes, shardedRow), "Row does not have expected hash " + shardedRow);
+
+        String suffix = shardedRow.subSequence(prefixBytes.length() + 6, shardedRow.length()).toString();
+        if (!suffix.contains(NODEID_BS_DELIM)) {
+            suffix = suffix + NODEID_BS_DELIM;
+        }
+        suffix = suffix + PARTIAL_SHARD_DELIM + partialShard;
+
+        BytesBuilder builder = Bytes.builder();
+        builder.append(prefixBytes);
+        builder.append(":");
+        builder.append(genHash(Bytes.of(suffix)));
+        builder.append(":");
+        builder.append(suffix);
+        return builder.toBytes();
+    }
+
     private static String genHash(Bytes row) {
         int hash = Hashing.murmur3_32().hashBytes(row.toArray()).asInt();
         hash = hash & 0x7fffffff;
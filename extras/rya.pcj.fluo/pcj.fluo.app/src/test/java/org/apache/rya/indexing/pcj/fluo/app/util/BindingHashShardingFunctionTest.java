@@ -18,6 +18,7 @@
  */
 package org.apache.rya.indexing.pcj.fluo.app.util;
 
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.AGGREGATION_PREFIX;
 import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.SP_PREFIX;
 
 import org.apache.fluo.api.data.Bytes;
@@ -63,4 +64,28 @@ public class BindingHashShardingFunctionTest {
         BindingSetRow actual = BindingSetRow.makeFromShardedRow(Bytes.of(SP_PREFIX), shardedRow);
         Assert.assertEquals(expected, actual);
     }
+
+    @Test
+    public void partialShardKeepsNodeId() {
+        String nodeId = NodeType.generateNewFluoIdForType(NodeType.AGGREGATION);
+        QueryBindingSet bs = new QueryBindingSet();
+        bs.addBinding("item", vf.createURI("urn:apple"));
+        VisibilityBindingSet vBs = new VisibilityBindingSet(bs);
+        VariableOrder varOrder = new VariableOrder("item");
+        Bytes shardedRow = BindingHashShardingFunction.addShard(nodeId, varOrder, vBs);
+        Bytes partialRow0 = BindingHashShardingFunction.addPartialShard(Bytes.of(AGGREGATION_PREFIX), shardedRow, 0);
+        Bytes partialRow1 = BindingHashShardingFunction.addPartialShard(Bytes.of(AGGREGATION_PREFIX), shardedRow, 1);
+        Assert.assertNotEquals(partialRow0, partialRow1);
+        Assert.assertEquals(nodeId, BindingSetRow.makeFromShardedRow(Bytes.of(AGGREGATION_PREFIX), partialRow0).getNodeId());
+        Assert.assertEquals(nodeId, BindingSetRow.makeFromShardedRow(Bytes.of(AGGREGATION_PREFIX), partialRow1).getNodeId());
+    }
+
+    @Test
+    public void partialShardWithoutGroupBy() {
+        String nodeId = NodeType.generateNewFluoIdForType(NodeType.AGGREGATION);
+        VisibilityBindingSet vBs = new VisibilityBindingSet(new QueryBindingSet());
+        Bytes shardedRow = BindingHashShardingFunction.addShard(nodeId, new VariableOrder(), vBs);
+        Bytes partialRow = BindingHashShardingFunction.addPartialShard(Bytes.of(AGGREGATION_PREFIX), shardedRow, 3);
+        Assert.assertEquals(nodeId, BindingSetRow.makeFromShardedRow(Bytes.of(AGGREGATION_PREFIX), partialRow).getNodeId());
+    }
 }
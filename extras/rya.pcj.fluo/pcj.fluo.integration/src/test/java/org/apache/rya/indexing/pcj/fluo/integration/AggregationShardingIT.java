@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.fluo.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.fluo.api.client.FluoClient;
+import org.apache.fluo.api.client.Snapshot;
+import org.apache.fluo.api.client.Transaction;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.exceptions.CommitException;
+import org.apache.fluo.core.client.FluoClientImpl;
+import org.apache.log4j.Logger;
+import org.apache.rya.api.function.aggregation.AggregationState;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.indexing.pcj.fluo.api.CreateFluoPcj;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.ObjectSerializationAggregationStateSerDe;
+import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQuery;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
+import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryMetadataDAO;
+import org.apache.rya.indexing.pcj.fluo.app.util.BindingHashShardingFunction;
+import org.apache.rya.indexing.pcj.storage.PrecomputedJoinStorage;
+import org.apache.rya.indexing.pcj.storage.accumulo.AccumuloPcjStorage;
+import org.apache.rya.pcj.fluo.test.base.RyaExportITBase;
+import org.junit.Test;
+import org.openrdf.model.Literal;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.impl.MapBindingSet;
+
+/**
+ * Performs integration tests over the Fluo application to show that a hot Group By value whose
+ * partial results are sharded across many rows is still aggregated correctly, and to compare
+ * how often its updates collide with the unsharded layout.
+ */
+public class AggregationShardingIT extends RyaExportITBase {
+    private static final Logger log = Logger.getLogger(AggregationShardingIT.class);
+
+    private static final ValueFactory VF = new ValueFactoryImpl();
+
+    private static final String SPARQL =
+            "SELECT ?item (count(?price) as ?total) " +
+            "WHERE { " +
+                "?item <urn:price> ?price . " +
+            "} " +
+            "GROUP BY ?item";
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 50;
+    private static final int PARTIAL_SHARD_COUNT = 8;
+
+    @Test
+    public void shardedCountMatchesUnsharded() throws Exception {
+        final LoadResult unsharded = runHotKeyLoad(1);
+        final LoadResult sharded = runHotKeyLoad(PARTIAL_SHARD_COUNT);
+
+        final BigInteger expected = BigInteger.valueOf(THREADS * UPDATES_PER_THREAD);
+        assertEquals(expected, unsharded.total);
+        assertEquals(expected, sharded.total);
+
+        log.info("Hot Group By value with " + THREADS + " writers and " + UPDATES_PER_THREAD + " updates each:\n" +
+                "    unsharded: " + unsharded + "\n" +
+                "    " + PARTIAL_SHARD_COUNT + " partial shards: " + sharded);
+    }
+
+    @Test
+    public void partialShardCountIsStored() throws Exception {
+        try(FluoClient fluoClient = new FluoClientImpl(getFluoConfiguration())) {
+            final AggregationMetadata metadata = createPcj(fluoClient, PARTIAL_SHARD_COUNT);
+            try(Snapshot sx = fluoClient.newSnapshot()) {
+                final AggregationMetadata stored = new FluoQueryMetadataDAO().readAggregationMetadata(sx, metadata.getNodeId());
+                assertEquals(PARTIAL_SHARD_COUNT, stored.getPartialShardCount());
+            }
+        }
+    }
+
+    /**
+     * Creates a PCJ that aggregates with the provided shard count and has many client transactions
+     * concurrently update the same Group By value.
+     */
+    private LoadResult runHotKeyLoad(final int partialShardCount) throws Exception {
+        try(FluoClient fluoClient = new FluoClientImpl(getFluoConfiguration())) {
+            final AggregationMetadata metadata = createPcj(fluoClient, partialShardCount);
+            final AggregationResultUpdater updater = new AggregationResultUpdater();
+            final AtomicLong retries = new AtomicLong();
+
+            final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            final long start = System.currentTimeMillis();
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                for(int t = 0; t < THREADS; t++) {
+                    final int thread = t;
+                    futures.add(executor.submit(() -> {
+                        for(int i = 0; i < UPDATES_PER_THREAD; i++) {
+                            final VisibilityBindingSet child = makeChild(thread * UPDATES_PER_THREAD + i);
+                            boolean committed = false;
+                            while(!committed) {
+                                try(Transaction tx = fluoClient.newTransaction()) {
+                                    updater.updateAggregateResults(tx, child, metadata);
+                                    tx.commit();
+                                    committed = true;
+                                } catch(final CommitException e) {
+                                    retries.incrementAndGet();
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for(final Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            }
+            final long writeMillis = System.currentTimeMillis() - start;
+
+            // Let the combine observer fold the partial results into the final result.
+            getMiniFluo().waitForObservers();
+
+            final Bytes rowId = BindingHashShardingFunction.addShard(metadata.getNodeId(), metadata.getGroupByVariableOrder(), makeChild(0));
+            try(Snapshot sx = fluoClient.newSnapshot()) {
+                final Bytes stateBytes = sx.get(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET);
+                final AggregationState state = new ObjectSerializationAggregationStateSerDe().deserialize(stateBytes.toArray());
+                final BigInteger total = ((Literal) state.getBindingSet().getValue("total")).integerValue();
+                return new LoadResult(total, retries.get(), writeMillis);
+            }
+        }
+    }
+
+    private AggregationMetadata createPcj(final FluoClient fluoClient, final int partialShardCount) throws Exception {
+        final PrecomputedJoinStorage pcjStorage = new AccumuloPcjStorage(getAccumuloConnector(), getRyaInstanceName());
+        final String pcjId = pcjStorage.createPcj(SPARQL);
+        final FluoQuery query = new CreateFluoPcj(1000, 5000, partialShardCount)
+                .withRyaIntegration(pcjId, pcjStorage, fluoClient, getAccumuloConnector(), getRyaInstanceName());
+        return query.getAggregationMetadata().iterator().next();
+    }
+
+    private static VisibilityBindingSet makeChild(final int price) {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("item", VF.createURI("urn:apple"));
+        bs.addBinding("price", VF.createLiteral(price));
+        return new VisibilityBindingSet(bs);
+    }
+
+    /**
+     * The outcome of a single hot Group By value load.
+     */
+    private static final class LoadResult {
+        private final BigInteger total;
+        private final long retries;
+        private final long writeMillis;
+
+        public LoadResult(final BigInteger total, final long retries, final long writeMillis) {
+            this.total = total;
+            this.retries = retries;
+            this.writeMillis = writeMillis;
+        }
+
+        @Override
+        public String toString() {
+            final long updates = THREADS * UPDATES_PER_THREAD;
+            return "total=" + total + ", retries=" + retries + ", " + writeMillis + "ms, " +
+                    (updates * 1000 / Math.max(writeMillis, 1)) + " updates/s";
+        }
+    }
+}
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhContainsRdf4J extends FunctionAdapter {
+public class EhContainsRdf4J extends GeometryRelationAdapter {
     public EhContainsRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhContains());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhContains(),
+                relate("T*TFF*FF*"));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhCoveredByRdf4J extends FunctionAdapter {
+public class EhCoveredByRdf4J extends GeometryRelationAdapter {
     public EhCoveredByRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhCoveredBy());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhCoveredBy(),
+                relate("TFF*TFT**"));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhCoversRdf4J extends FunctionAdapter {
+public class EhCoversRdf4J extends GeometryRelationAdapter {
     public EhCoversRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhCovers());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhCovers(),
+                relate("T*TFT*FF*"));
     }
 }
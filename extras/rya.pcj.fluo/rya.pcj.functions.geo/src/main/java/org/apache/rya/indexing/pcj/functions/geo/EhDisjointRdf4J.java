@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhDisjointRdf4J extends FunctionAdapter {
+public class EhDisjointRdf4J extends GeometryRelationAdapter {
     public EhDisjointRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhDisjoint());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhDisjoint(),
+                (g1, g2) -> g1.disjoint(g2),
+                (p, g) -> p.disjoint(g), (p, g) -> p.disjoint(g));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhInsideRdf4J extends FunctionAdapter {
+public class EhInsideRdf4J extends GeometryRelationAdapter {
     public EhInsideRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhInside());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhInside(),
+                relate("TFF*FFT**"));
     }
 }
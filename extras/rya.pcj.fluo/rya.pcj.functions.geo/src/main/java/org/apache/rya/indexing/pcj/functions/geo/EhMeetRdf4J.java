@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhMeetRdf4J extends FunctionAdapter {
+public class EhMeetRdf4J extends GeometryRelationAdapter {
     public EhMeetRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhMeet());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhMeet(),
+                (g1, g2) -> g1.touches(g2),
+                (p, g) -> p.touches(g), (p, g) -> p.touches(g));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class EhOverlapRdf4J extends FunctionAdapter {
+public class EhOverlapRdf4J extends GeometryRelationAdapter {
     public EhOverlapRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhOverlap());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhOverlap(),
+                relate("T*T***T**"));
     }
 }
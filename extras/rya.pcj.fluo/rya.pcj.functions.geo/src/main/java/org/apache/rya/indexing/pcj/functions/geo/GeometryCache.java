@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.functions.geo;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spatial4j.core.context.jts.JtsSpatialContext;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+
+/**
+ * Caches the JTS geometries parsed from WKT literals, keyed on the literal's label, so a geometry that
+ * appears in many evaluations of a GeoSPARQL filter (such as a constant polygon) is only parsed once.
+ * <p>
+ * Geometries are read with the same spatial context the RDF4J functions use, so a cached geometry is
+ * identical to the one the wrapped function would have parsed.
+ * <p>
+ * The parsed geometries are shared by every thread. A {@link PreparedGeometry} is not safe to share, so
+ * each thread keeps its own small cache of the geometries it has prepared.
+ */
+class GeometryCache {
+    /**
+     * System property that bounds the number of parsed geometries that are cached.
+     */
+    static final String CACHE_SIZE_PROPERTY = "rya.geo.geometryCacheSize";
+
+    /**
+     * System property that bounds the number of prepared geometries each thread caches.
+     */
+    static final String PREPARED_CACHE_SIZE_PROPERTY = "rya.geo.preparedGeometryCacheSize";
+
+    static final String WKT_LITERAL = "http://www.opengis.net/ont/geosparql#wktLiteral";
+
+    private static final long CACHE_SIZE = Long.getLong(CACHE_SIZE_PROPERTY, 10000);
+    private static final int PREPARED_CACHE_SIZE = Integer.getInteger(PREPARED_CACHE_SIZE_PROPERTY, 64);
+
+    private static final Cache<String, CachedGeometry> geometries = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    private static final ThreadLocal<Map<String, PreparedGeometry>> prepared = new ThreadLocal<Map<String, PreparedGeometry>>() {
+        @Override
+        protected Map<String, PreparedGeometry> initialValue() {
+            return new LinkedHashMap<String, PreparedGeometry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, PreparedGeometry> eldest) {
+                    return size() > PREPARED_CACHE_SIZE;
+                }
+            };
+        }
+    };
+
+    private GeometryCache() { }
+
+    /**
+     * Look up, or parse and cache, the geometry of a WKT literal.
+     *
+     * @param value
+     *            A function argument.
+     * @return the geometry, or null if the value is not a WKT literal this cache understands. Callers should
+     *         let the wrapped RDF4J function handle (and report problems with) such values.
+     */
+    static CachedGeometry get(final Value value) {
+        if (!(value instanceof Literal)) {
+            return null;
+        }
+        final Literal literal = (Literal) value;
+        final URI datatype = literal.getDatatype();
+        final String wkt = literal.getLabel();
+        // Literals that name their coordinate reference system are left to the wrapped function.
+        if (datatype == null || !WKT_LITERAL.equals(datatype.stringValue()) || wkt.trim().startsWith("<")) {
+            return null;
+        }
+        CachedGeometry cached = geometries.getIfPresent(wkt);
+        if (cached == null) {
+            try {
+                final JtsSpatialContext context = JtsSpatialContext.GEO;
+                cached = new CachedGeometry(wkt, context.getGeometryFrom(context.readShapeFromWkt(wkt)));
+            } catch (ParseException | RuntimeException e) {
+                return null;
+            }
+            geometries.put(wkt, cached);
+        }
+        cached.uses.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Drop every cached geometry.
+     */
+    static void clear() {
+        geometries.invalidateAll();
+        prepared.get().clear();
+    }
+
+    /**
+     * A parsed geometry, along with how often it has been used.
+     */
+    static class CachedGeometry {
+        private final String wkt;
+        private final Geometry geometry;
+        private final AtomicLong uses = new AtomicLong();
+
+        private CachedGeometry(final String wkt, final Geometry geometry) {
+            this.wkt = wkt;
+            this.geometry = geometry;
+        }
+
+        Geometry getGeometry() {
+            return geometry;
+        }
+
+        /**
+         * @return how many times this geometry has been requested since it was cached.
+         */
+        long getUses() {
+            return uses.get();
+        }
+
+        /**
+         * @return the prepared form of this geometry, cached for the calling thread.
+         */
+        PreparedGeometry getPrepared() {
+            final Map<String, PreparedGeometry> threadPrepared = prepared.get();
+            PreparedGeometry p = threadPrepared.get(wkt);
+            if (p == null) {
+                p = PreparedGeometryFactory.prepare(geometry);
+                threadPrepared.put(wkt, p);
+            }
+            return p;
+        }
+    }
+}
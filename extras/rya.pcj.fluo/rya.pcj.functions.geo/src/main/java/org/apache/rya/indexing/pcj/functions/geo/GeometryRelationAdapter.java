@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.functions.geo;
+
+import org.apache.rya.indexing.pcj.functions.geo.GeometryCache.CachedGeometry;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.query.algebra.evaluation.ValueExprEvaluationException;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+
+/**
+ * Adapts an RDF4J function that tests a spatial relation between two geometries. The geometries are
+ * taken from the {@link GeometryCache} instead of being parsed by the wrapped function on every call.
+ * <p>
+ * A geometry that has already been used by an earlier evaluation is most likely a constant in the
+ * query, so when the relation can be tested against a {@link PreparedGeometry} it is prepared once and
+ * reused. Anything the cache does not understand is passed to the wrapped function.
+ */
+class GeometryRelationAdapter extends FunctionAdapter {
+
+    /**
+     * Tests a spatial relation. Must give the same answer as the wrapped function.
+     */
+    interface Relation {
+        boolean test(Geometry g1, Geometry g2);
+    }
+
+    /**
+     * Tests a spatial relation using the prepared form of one of the arguments.
+     */
+    interface PreparedRelation {
+        boolean test(PreparedGeometry prepared, Geometry other);
+    }
+
+    private final Relation relation;
+    private final PreparedRelation firstPrepared;
+    private final PreparedRelation secondPrepared;
+
+    /**
+     * A relation that is only tested on plain geometries.
+     */
+    GeometryRelationAdapter(final org.eclipse.rdf4j.query.algebra.evaluation.function.Function theRdf4JFunction,
+            final Relation relation) {
+        this(theRdf4JFunction, relation, null, null);
+    }
+
+    /**
+     * @param relation
+     *            Tests the relation on plain geometries.
+     * @param firstPrepared
+     *            Tests the relation when the first argument is prepared, or null if that is not supported.
+     * @param secondPrepared
+     *            Tests the relation when the second argument is prepared, or null if that is not supported.
+     */
+    GeometryRelationAdapter(final org.eclipse.rdf4j.query.algebra.evaluation.function.Function theRdf4JFunction,
+            final Relation relation, final PreparedRelation firstPrepared, final PreparedRelation secondPrepared) {
+        super(theRdf4JFunction);
+        this.relation = relation;
+        this.firstPrepared = firstPrepared;
+        this.secondPrepared = secondPrepared;
+    }
+
+    /**
+     * A relation that holds when the two geometries' DE-9IM intersection matrix matches any of the patterns.
+     */
+    static Relation relate(final String... patterns) {
+        return (g1, g2) -> {
+            for (final String pattern : patterns) {
+                if (g1.relate(g2, pattern)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Value evaluate(final ValueFactory valueFactory, final Value... args) throws ValueExprEvaluationException {
+        if (args.length == 2) {
+            final CachedGeometry g1 = GeometryCache.get(args[0]);
+            final CachedGeometry g2 = g1 == null ? null : GeometryCache.get(args[1]);
+            if (g2 != null) {
+                return valueFactory.createLiteral(test(g1, g2));
+            }
+        }
+        return super.evaluate(valueFactory, args);
+    }
+
+    private boolean test(final CachedGeometry g1, final CachedGeometry g2) {
+        final boolean prepareFirst = firstPrepared != null && g1.getUses() > 1;
+        final boolean prepareSecond = secondPrepared != null && g2.getUses() > 1;
+        if (prepareFirst && (!prepareSecond || g1.getUses() >= g2.getUses())) {
+            return firstPrepared.test(g1.getPrepared(), g2.getGeometry());
+        }
+        if (prepareSecond) {
+            return secondPrepared.test(g2.getPrepared(), g1.getGeometry());
+        }
+        return relation.test(g1.getGeometry(), g2.getGeometry());
+    }
+}
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class RCC8DCRdf4J extends FunctionAdapter {
+public class RCC8DCRdf4J extends GeometryRelationAdapter {
     public RCC8DCRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8DC());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8DC(),
+                relate("FFTFFTTTT"));
     }
 }
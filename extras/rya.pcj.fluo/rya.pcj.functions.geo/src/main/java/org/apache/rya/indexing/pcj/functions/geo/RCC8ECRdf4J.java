@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class RCC8ECRdf4J extends FunctionAdapter {
+public class RCC8ECRdf4J extends GeometryRelationAdapter {
     public RCC8ECRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8EC());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8EC(),
+                relate("FFTFTTTTT"));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class RCC8NTPPRdf4J extends FunctionAdapter {
+public class RCC8NTPPRdf4J extends GeometryRelationAdapter {
     public RCC8NTPPRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8NTPP());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8NTPP(),
+                relate("TFFTFFTTT"));
     }
 }
@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class RCC8PORdf4J extends FunctionAdapter {
+public class RCC8PORdf4J extends GeometryRelationAdapter {
     public RCC8PORdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8PO());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8PO(),
+                relate("TTTTTTTTT"));
     }
 }
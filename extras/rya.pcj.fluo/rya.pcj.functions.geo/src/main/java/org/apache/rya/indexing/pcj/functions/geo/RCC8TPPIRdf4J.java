@@ -19,8 +19,9 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class RCC8TPPIRdf4J extends FunctionAdapter {
+public class RCC8TPPIRdf4J extends GeometryRelationAdapter {
     public RCC8TPPIRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8TPPI());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8TPPI(),
+                relate("TTTFTTFFT"));
     }
 }
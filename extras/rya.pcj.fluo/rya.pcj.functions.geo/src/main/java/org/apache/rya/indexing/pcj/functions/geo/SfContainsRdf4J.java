@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfContainsRdf4J extends FunctionAdapter {
+public class SfContainsRdf4J extends GeometryRelationAdapter {
     public SfContainsRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfContains());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfContains(),
+                (g1, g2) -> g1.contains(g2),
+                (p, g) -> p.contains(g), (p, g) -> p.within(g));
     }
 }
@@ -19,8 +19,25 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfCrossesRdf4J extends FunctionAdapter {
+import com.vividsolutions.jts.geom.Geometry;
+
+public class SfCrossesRdf4J extends GeometryRelationAdapter {
     public SfCrossesRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfCrosses());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfCrosses(),
+                SfCrossesRdf4J::crosses);
+    }
+
+    /**
+     * The same test RDF4J makes, which only looks at the argument dimensions in the order given.
+     */
+    private static boolean crosses(final Geometry g1, final Geometry g2) {
+        final int d1 = g1.getDimension();
+        final int d2 = g2.getDimension();
+        if ((d1 == 0 && d2 == 1) || (d1 == 0 && d2 == 2) || (d1 == 1 && d2 == 2)) {
+            return g1.relate(g2, "T*T***T**");
+        } else if (d1 == 1 && d2 == 1) {
+            return g1.relate(g2, "0*T***T**");
+        }
+        return false;
     }
 }
@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfDisjointRdf4J extends FunctionAdapter {
+public class SfDisjointRdf4J extends GeometryRelationAdapter {
     public SfDisjointRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfDisjoint());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfDisjoint(),
+                (g1, g2) -> g1.disjoint(g2),
+                (p, g) -> p.disjoint(g), (p, g) -> p.disjoint(g));
     }
 }
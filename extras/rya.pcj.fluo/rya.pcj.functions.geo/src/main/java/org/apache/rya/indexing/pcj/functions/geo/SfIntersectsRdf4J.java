@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfIntersectsRdf4J extends FunctionAdapter {
+public class SfIntersectsRdf4J extends GeometryRelationAdapter {
     public SfIntersectsRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfIntersects());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfIntersects(),
+                (g1, g2) -> g1.intersects(g2),
+                (p, g) -> p.intersects(g), (p, g) -> p.intersects(g));
     }
 }
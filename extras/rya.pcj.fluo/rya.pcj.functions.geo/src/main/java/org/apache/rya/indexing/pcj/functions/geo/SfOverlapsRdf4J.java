@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfOverlapsRdf4J extends FunctionAdapter {
+public class SfOverlapsRdf4J extends GeometryRelationAdapter {
     public SfOverlapsRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfOverlaps());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfOverlaps(),
+                (g1, g2) -> g1.overlaps(g2),
+                (p, g) -> p.overlaps(g), (p, g) -> p.overlaps(g));
     }
 }
@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfTouchesRdf4J extends FunctionAdapter {
+public class SfTouchesRdf4J extends GeometryRelationAdapter {
     public SfTouchesRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfTouches());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfTouches(),
+                (g1, g2) -> g1.touches(g2),
+                (p, g) -> p.touches(g), (p, g) -> p.touches(g));
     }
 }
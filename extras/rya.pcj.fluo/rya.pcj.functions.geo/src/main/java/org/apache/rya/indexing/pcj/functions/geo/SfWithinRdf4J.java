@@ -19,8 +19,10 @@
 
 package org.apache.rya.indexing.pcj.functions.geo;
 
-public class SfWithinRdf4J extends FunctionAdapter {
+public class SfWithinRdf4J extends GeometryRelationAdapter {
     public SfWithinRdf4J() {
-        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfWithin());
+        super(new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfWithin(),
+                (g1, g2) -> g1.within(g2),
+                (p, g) -> p.within(g), (p, g) -> p.contains(g));
     }
 }
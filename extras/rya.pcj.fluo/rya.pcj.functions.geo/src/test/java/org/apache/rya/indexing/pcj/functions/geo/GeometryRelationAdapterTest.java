@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.functions.geo;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.algebra.evaluation.function.Function;
+
+/**
+ * Verifies that the functions that read geometries from the {@link GeometryCache} give the same answers
+ * as the RDF4J functions they wrap, both before and after their arguments have been prepared.
+ */
+public class GeometryRelationAdapterTest {
+    private static final ValueFactory vf = new ValueFactoryImpl();
+
+    private static final String[] WKTS = {
+            "POLYGON ((-78 39, -77 39, -77 38, -78 38, -78 39))",
+            "POLYGON ((-77.5 38.5, -76 38.5, -76 37, -77.5 37, -77.5 38.5))",
+            "POLYGON ((-77.8 38.8, -77.2 38.8, -77.2 38.2, -77.8 38.2, -77.8 38.8))",
+            "POLYGON ((-77 39, -76 39, -76 38, -77 38, -77 39))",
+            "LINESTRING (-79 38.5, -76 38.5)",
+            "LINESTRING (-77.5 37.5, -77.5 39.5)",
+            "POINT (-77.5 38.5)",
+            "POINT (-78 39)",
+            "POINT (-70 30)" };
+
+    @Before
+    public void before() {
+        GeometryCache.clear();
+    }
+
+    @Test
+    public void sameAnswersAsRdf4J() throws Exception {
+        verify(new SfIntersectsRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfIntersects());
+        verify(new SfDisjointRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfDisjoint());
+        verify(new SfTouchesRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfTouches());
+        verify(new SfCrossesRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfCrosses());
+        verify(new SfWithinRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfWithin());
+        verify(new SfContainsRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfContains());
+        verify(new SfOverlapsRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.SfOverlaps());
+        verify(new EhCoversRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhCovers());
+        verify(new EhInsideRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.EhInside());
+        verify(new RCC8ECRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8EC());
+        verify(new RCC8NTPPRdf4J(), new org.eclipse.rdf4j.query.algebra.evaluation.function.geosparql.RCC8NTPP());
+    }
+
+    /**
+     * Evaluate every pair of geometries a few times, so the later passes use prepared geometries.
+     */
+    private void verify(final Function cached, final org.eclipse.rdf4j.query.algebra.evaluation.function.Function rdf4j) throws Exception {
+        final Function expected = new FunctionAdapter(rdf4j);
+        for (int pass = 0; pass < 3; pass++) {
+            for (final String first : WKTS) {
+                for (final String second : WKTS) {
+                    assertEquals(cached.getURI() + "(" + first + ", " + second + ")",
+                            expected.evaluate(vf, wkt(first), wkt(second)),
+                            cached.evaluate(vf, wkt(first), wkt(second)));
+                }
+            }
+        }
+    }
+
+    private static Value wkt(final String wkt) {
+        return vf.createLiteral(wkt, vf.createURI(GeometryCache.WKT_LITERAL));
+    }
+}
@@ -77,7 +77,7 @@ public class MRReasoningUtils {
     static final String TEMP_SUFFIX = "a";
     // Named outputs for different kinds of facts
     static final String SCHEMA_OUT = "schema";
-    static final String INCONSISTENT_OUT = "inconsistencies";
+    public static final String INCONSISTENT_OUT = "inconsistencies";
     static final String TERMINAL_OUT = "instance";
     static final String INTERMEDIATE_OUT = "intermediate";
     static final String DEBUG_OUT = "debug";
@@ -128,7 +128,7 @@ public class MRReasoningUtils {
     /**
      * Convert an Accumulo row to a RyaStatement.
      */
-    static RyaStatement getStatement(Key row, Value data, Configuration conf) {
+    public static RyaStatement getStatement(Key row, Value data, Configuration conf) {
         try {
             RyaTripleContext ryaContext = RyaTripleContext.getInstance(
                 new AccumuloRdfConfiguration(conf));
@@ -170,7 +170,7 @@ public class MRReasoningUtils {
      * If a local input path was given, upload it to HDFS and configure file
      * input. Useful for automating tests against small inputs.
      */
-    static boolean uploadIfNecessary(Configuration conf)
+    public static boolean uploadIfNecessary(Configuration conf)
             throws IOException {
         String local = conf.get(LOCAL_INPUT);
         if (local == null) {
@@ -200,7 +200,7 @@ public class MRReasoningUtils {
     /**
      * Get a Repository from the configuration variables
      */
-    static RyaSailRepository getRepository(Configuration conf)
+    public static RyaSailRepository getRepository(Configuration conf)
             throws AccumuloException, AccumuloSecurityException {
         boolean mock = conf.getBoolean(MRUtils.AC_MOCK_PROP, false);
         String instance = conf.get(MRUtils.AC_INSTANCE_PROP, "instance");
@@ -229,7 +229,7 @@ public class MRReasoningUtils {
     /**
      * Set up a MapReduce Job to use Accumulo as input.
      */
-    static void configureAccumuloInput(Job job)
+    public static void configureAccumuloInput(Job job)
             throws AccumuloSecurityException {
         Configuration conf = job.getConfiguration();
         String username = conf.get(MRUtils.AC_USERNAME_PROP, "root");
@@ -267,7 +267,7 @@ public class MRReasoningUtils {
     /**
      * Whether we should output the final inferences.
      */
-    static boolean shouldOutput(Configuration conf) {
+    public static boolean shouldOutput(Configuration conf) {
         return conf.getBoolean(OUTPUT_FLAG, true);
     }
 
@@ -288,7 +288,7 @@ public class MRReasoningUtils {
     /**
      * Get the Path for RDF file input, or null if not given.
      */
-    static Path getInputPath(Configuration conf) {
+    public static Path getInputPath(Configuration conf) {
         String in = conf.get(MRUtils.INPUT_PATH);
         if (in == null) {
             return null;
@@ -299,7 +299,7 @@ public class MRReasoningUtils {
     /**
      * Get the full output path for a configuration and relative pathname.
      */
-    static Path getOutputPath(Configuration conf, String name) {
+    public static Path getOutputPath(Configuration conf, String name) {
         String root = conf.get(WORKING_DIR, "tmp/reasoning");
         return new Path(root + "/" + name);
     }
@@ -0,0 +1,44 @@
+package org.apache.rya.reasoning.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.rya.reasoning.Derivation;
+import org.apache.rya.reasoning.Fact;
+import org.apache.rya.reasoning.mr.ResourceWritable;
+import org.apache.rya.reasoning.mr.SchemaWritable;
+import org.apache.spark.serializer.KryoRegistrator;
+
+import com.esotericsoftware.kryo.Kryo;
+
+/**
+ * Registers the reasoner's Writable classes with Kryo, so facts, derivations,
+ * and the schema can be shuffled, cached, and broadcast by Spark. Set
+ * spark.kryo.registrator to this class (done automatically by
+ * {@link SparkReasoner#configure}).
+ */
+public class ReasoningKryoRegistrator implements KryoRegistrator {
+    @Override
+    public void registerClasses(Kryo kryo) {
+        kryo.register(Fact.class, new WritableKryoSerializer<Fact>());
+        kryo.register(Derivation.class, new WritableKryoSerializer<Derivation>());
+        kryo.register(ResourceWritable.class, new WritableKryoSerializer<ResourceWritable>());
+        kryo.register(SchemaWritable.class, new WritableKryoSerializer<SchemaWritable>());
+    }
+}
@@ -0,0 +1,400 @@
+package org.apache.rya.reasoning.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.reasoning.Derivation;
+import org.apache.rya.reasoning.Fact;
+import org.apache.rya.reasoning.LocalReasoner;
+import org.apache.rya.reasoning.LocalReasoner.Relevance;
+import org.apache.rya.reasoning.Schema;
+import org.apache.rya.reasoning.mr.SchemaWritable;
+import org.apache.spark.HashPartitioner;
+import org.apache.spark.Partitioner;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.serializer.KryoSerializer;
+import org.apache.spark.storage.StorageLevel;
+import org.openrdf.model.Resource;
+
+import scala.Tuple2;
+
+/**
+ * Performs the same forward-chaining reasoning as the MapReduce
+ * ReasoningDriver, but keeps all of the data in memory on a Spark cluster
+ * instead of running a series of jobs that reread the input and every
+ * previous iteration's output from HDFS.
+ * <p>
+ * Two cached, partitioned copies of the data are maintained across
+ * iterations:
+ * <ul>
+ * <li>Every known fact (input, inferred, and inconsistencies), partitioned by
+ *     the fact itself. Newly derived facts are partitioned the same way, so
+ *     duplicate elimination is a narrow subtraction against this RDD.</li>
+ * <li>The facts that are still useful for reasoning, keyed by each node they
+ *     are relevant to (as decided by {@link LocalReasoner#relevantFact}).
+ *     Each iteration only appends the new facts to this RDD, and grouping it
+ *     by node does not require a shuffle.</li>
+ * </ul>
+ * The node-keyed RDD is only rebuilt from scratch when new schema
+ * information is derived, since that can change which facts are relevant.
+ * <p>
+ * The reasoning logic itself is unchanged: each node's facts are fed to a
+ * {@link LocalReasoner} in the same order the MapReduce reducer receives them
+ * (incoming edges first), and the simplest derivation of each new fact is
+ * kept.
+ */
+public class SparkReasoner {
+    private static final Logger log = Logger.getLogger(SparkReasoner.class);
+
+    /**
+     * Checkpoint the cached data this often, if a checkpoint directory has
+     * been set, to keep the lineage from growing without bound.
+     */
+    static final int CHECKPOINT_INTERVAL = 10;
+
+    // Categories of newly derived information
+    private static final int INSTANCE = 0;
+    private static final int USEFUL = 1;
+    private static final int SCHEMA = 2;
+    private static final int INCONSISTENCY = 3;
+
+    // Order in which the MapReduce reducer receives facts: incoming edges
+    // (the node is the object) before outgoing edges.
+    private static final int INCOMING = -1;
+    private static final int OUTGOING = 1;
+
+    private final JavaSparkContext sc;
+    private final Partitioner partitioner;
+    private final StorageLevel storageLevel;
+
+    private JavaPairRDD<Fact, Fact> known;
+    private JavaPairRDD<Resource, Tuple2<Integer, Fact>> byNode;
+    private Broadcast<SchemaWritable> schema;
+
+    private int iteration = 0;
+    private int lastSchemaUpdate = 0;
+    private long numInstanceTriples = 0;
+    private long numSchemaTriples = 0;
+    private long numInconsistencies = 0;
+
+    /**
+     * Set the serialization options required by the reasoner.
+     * @param   conf    Spark configuration to modify
+     * @return  The same configuration
+     */
+    public static SparkConf configure(SparkConf conf) {
+        conf.set("spark.serializer", KryoSerializer.class.getName());
+        conf.set("spark.kryo.registrator",
+            ReasoningKryoRegistrator.class.getName());
+        return conf;
+    }
+
+    /**
+     * Constructor.
+     * @param   sc              Spark context, whose configuration should have
+     *                          been passed through {@link #configure}
+     * @param   numPartitions   Number of partitions to spread the facts over
+     * @param   storageLevel    How to cache the facts between iterations
+     */
+    public SparkReasoner(JavaSparkContext sc, int numPartitions,
+            StorageLevel storageLevel) {
+        this.sc = sc;
+        this.partitioner = new HashPartitioner(numPartitions);
+        this.storageLevel = storageLevel;
+    }
+
+    /**
+     * Constructor using the context's default parallelism and keeping the
+     * cached facts in memory, spilling to disk if necessary.
+     */
+    public SparkReasoner(JavaSparkContext sc) {
+        this(sc, sc.defaultParallelism(), StorageLevel.MEMORY_AND_DISK());
+    }
+
+    /**
+     * Run the reasoner on a set of input facts until no new information can
+     * be derived.
+     * @param   input   Input triples (schema and instance data)
+     */
+    public void reason(JavaRDD<Fact> input) {
+        known = input.filter(fact -> fact != null && !fact.isEmpty())
+            .mapToPair(fact -> new Tuple2<>(fact, fact))
+            .reduceByKey(partitioner, (f1, f2) -> f1)
+            .persist(storageLevel);
+        updateSchema();
+        byNode = keyByNode(known, schema).persist(storageLevel);
+        boolean productive = true;
+        while (productive) {
+            iteration++;
+            JavaPairRDD<Fact, Fact> derived = byNode
+                .groupByKey(partitioner)
+                .flatMap(reasonAboutNodes(schema, iteration, lastSchemaUpdate))
+                .mapToPair(fact -> new Tuple2<>(fact, fact))
+                .reduceByKey(partitioner, SparkReasoner::simplest);
+            // Only keep unique, newly generated facts
+            JavaPairRDD<Fact, Fact> fresh = derived.subtractByKey(known)
+                .persist(storageLevel);
+            Map<Integer, Long> counts = fresh.values()
+                .map(SparkReasoner::category).countByValue();
+            long newUseful = get(counts, USEFUL);
+            long newInstance = get(counts, INSTANCE) + newUseful;
+            long newSchema = get(counts, SCHEMA);
+            long newInconsistencies = get(counts, INCONSISTENCY);
+            numInstanceTriples += newInstance;
+            numSchemaTriples += newSchema;
+            numInconsistencies += newInconsistencies;
+            log.info("Iteration " + iteration + ": " + newInstance
+                + " new instance triples (" + newUseful
+                + " useful for reasoning), " + newSchema
+                + " new schema triples, " + newInconsistencies
+                + " new inconsistencies");
+
+            JavaPairRDD<Fact, Fact> oldKnown = known;
+            JavaPairRDD<Resource, Tuple2<Integer, Fact>> oldByNode = byNode;
+            known = known.union(fresh).persist(storageLevel);
+            boolean checkpoint = sc.getCheckpointDir().isPresent()
+                && iteration % CHECKPOINT_INTERVAL == 0;
+            if (checkpoint) {
+                known.checkpoint();
+            }
+            known.count();
+            // If schema triples were just deduced, regenerate the whole schema
+            // and reconsider which facts are relevant to which nodes.
+            if (newSchema > 0) {
+                lastSchemaUpdate = iteration;
+                updateSchema();
+                byNode = keyByNode(known, schema);
+            }
+            else {
+                byNode = byNode.union(keyByNode(fresh, schema));
+            }
+            byNode.persist(storageLevel);
+            if (checkpoint) {
+                byNode.checkpoint();
+            }
+            byNode.count();
+            oldKnown.unpersist(false);
+            oldByNode.unpersist(false);
+            fresh.unpersist(false);
+            // Repeat if we're still generating information
+            productive = newUseful + newSchema > 0;
+        }
+    }
+
+    /**
+     * Get every fact derived by the reasoner, with its simplest derivation.
+     */
+    public JavaRDD<Fact> getInferences() {
+        return known.values().filter(fact -> !fact.isEmpty()
+            && fact.isInference());
+    }
+
+    /**
+     * Get every inconsistency found by the reasoner.
+     */
+    public JavaRDD<Derivation> getInconsistencies() {
+        return known.values().filter(Fact::isEmpty).map(Fact::getDerivation);
+    }
+
+    /**
+     * Get the schema as of the end of reasoning.
+     */
+    public Schema getSchema() {
+        return schema.value();
+    }
+
+    /**
+     * Number of iterations performed, including the last unproductive one.
+     */
+    public int getNumIterations() {
+        return iteration;
+    }
+
+    public long getNumInstanceTriples() {
+        return numInstanceTriples;
+    }
+
+    public long getNumSchemaTriples() {
+        return numSchemaTriples;
+    }
+
+    public long getNumInconsistencies() {
+        return numInconsistencies;
+    }
+
+    /**
+     * Release the cached data.
+     */
+    public void close() {
+        if (known != null) {
+            known.unpersist(false);
+        }
+        if (byNode != null) {
+            byNode.unpersist(false);
+        }
+        if (schema != null) {
+            schema.destroy();
+        }
+    }
+
+    /**
+     * Collect the schema triples among the known facts, compute the closure
+     * on the driver, and broadcast the result.
+     */
+    private void updateSchema() {
+        SchemaWritable s = new SchemaWritable();
+        List<Fact> schemaFacts = known.keys()
+            .filter(fact -> !fact.isEmpty()
+                && Schema.isSchemaTriple(fact.getTriple()))
+            .collect();
+        for (Fact fact : schemaFacts) {
+            s.processTriple(fact.getTriple());
+        }
+        s.closure();
+        if (schema != null) {
+            schema.unpersist(false);
+        }
+        schema = sc.broadcast(s);
+    }
+
+    /**
+     * Key the facts that can still be used for reasoning by each node they
+     * are relevant to, and partition them by node.
+     */
+    private JavaPairRDD<Resource, Tuple2<Integer, Fact>> keyByNode(
+            JavaPairRDD<Fact, Fact> facts,
+            Broadcast<SchemaWritable> schema) {
+        return facts.values()
+            .filter(fact -> !fact.isEmpty() && (fact.isUseful()
+                || Schema.isSchemaTriple(fact.getTriple())))
+            .flatMapToPair(relevantNodes(schema))
+            .partitionBy(partitioner);
+    }
+
+    /**
+     * Key a fact by its subject and/or object, if relevant, as the
+     * ForwardChain mapper does.
+     */
+    private static PairFlatMapFunction<Fact, Resource, Tuple2<Integer, Fact>>
+            relevantNodes(Broadcast<SchemaWritable> schema) {
+        return fact -> {
+            List<Tuple2<Resource, Tuple2<Integer, Fact>>> nodes = new ArrayList<>(2);
+            Relevance rel = LocalReasoner.relevantFact(fact, schema.value());
+            if (rel.subject()) {
+                nodes.add(new Tuple2<>(fact.getSubject(),
+                    new Tuple2<>(OUTGOING, fact)));
+            }
+            if (rel.object()) {
+                nodes.add(new Tuple2<>((Resource) fact.getObject(),
+                    new Tuple2<>(INCOMING, fact)));
+            }
+            return nodes;
+        };
+    }
+
+    /**
+     * Run a LocalReasoner for each node and return everything it derives.
+     * Inconsistencies are returned as empty facts holding the derivation.
+     */
+    private static FlatMapFunction<Tuple2<Resource, Iterable<Tuple2<Integer, Fact>>>, Fact>
+            reasonAboutNodes(Broadcast<SchemaWritable> schema, int t,
+            int tSchema) {
+        // Same cutoff as the AbstractReasoner: if it is nonzero, a node can
+        // only produce something new if one of its facts is that recent.
+        int minIteration = tSchema < (t - 1) ? 0 : t - 1;
+        return group -> {
+            List<Tuple2<Integer, Fact>> facts = new ArrayList<>();
+            boolean frontier = minIteration == 0;
+            for (Tuple2<Integer, Fact> edge : group._2()) {
+                facts.add(edge);
+                frontier = frontier
+                    || edge._2().getIteration() >= minIteration;
+            }
+            List<Fact> results = new ArrayList<>();
+            if (!frontier) {
+                return results;
+            }
+            Collections.sort(facts, (e1, e2) -> Integer.compare(e1._1(), e2._1()));
+            LocalReasoner reasoner = new LocalReasoner(group._1(),
+                schema.value(), t, tSchema);
+            for (Tuple2<Integer, Fact> edge : facts) {
+                // The reasoner may store and modify the facts it is given,
+                // which must not affect the cached copies.
+                reasoner.processFact(edge._2().clone());
+                collectResults(reasoner, results);
+            }
+            reasoner.getTypes();
+            collectResults(reasoner, results);
+            return results;
+        };
+    }
+
+    private static void collectResults(LocalReasoner reasoner,
+            List<Fact> results) {
+        if (reasoner.hasNewFacts()) {
+            results.addAll(reasoner.getFacts());
+        }
+        if (reasoner.hasInconsistencies()) {
+            for (Derivation inconsistency : reasoner.getInconsistencies()) {
+                Fact empty = new Fact();
+                empty.setDerivation(inconsistency);
+                results.add(empty);
+            }
+        }
+    }
+
+    /**
+     * Of two derivations of the same fact, prefer the simplest.
+     */
+    private static Fact simplest(Fact f1, Fact f2) {
+        return f2.span() < f1.span() ? f2 : f1;
+    }
+
+    private static int category(Fact fact) {
+        if (fact.isEmpty()) {
+            return INCONSISTENCY;
+        }
+        else if (Schema.isSchemaTriple(fact.getTriple())) {
+            return SCHEMA;
+        }
+        else if (fact.isUseful()) {
+            return USEFUL;
+        }
+        else {
+            return INSTANCE;
+        }
+    }
+
+    private static long get(Map<Integer, Long> counts, int category) {
+        Long count = counts.get(category);
+        return count == null ? 0 : count;
+    }
+}
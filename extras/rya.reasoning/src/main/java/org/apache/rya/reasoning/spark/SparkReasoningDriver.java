@@ -0,0 +1,197 @@
+package org.apache.rya.reasoning.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.rya.accumulo.mr.MRUtils;
+import org.apache.rya.accumulo.mr.RdfFileInputFormat;
+import org.apache.rya.accumulo.mr.RyaStatementWritable;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.rdftriplestore.RyaSailRepository;
+import org.apache.rya.reasoning.Fact;
+import org.apache.rya.reasoning.mr.MRReasoningUtils;
+import org.apache.spark.SerializableWritable;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.storage.StorageLevel;
+import org.openrdf.repository.RepositoryConnection;
+import org.openrdf.rio.RDFFormat;
+
+/**
+ * Runs the forward-chaining reasoner on Spark until no new facts can be
+ * derived. Accepts the same input configuration as the MapReduce
+ * ReasoningDriver, but performs every iteration in a single Spark
+ * application (see {@link SparkReasoner}), and finally writes the inferred
+ * triples back to Rya instead of to intermediate files.
+ */
+public class SparkReasoningDriver extends Configured implements Tool {
+    /**
+     * Spark master URL, e.g. "local[*]". If not given, the master must be
+     * provided by spark-submit.
+     */
+    public static final String SPARK_MASTER_PROP = "reasoning.spark.master";
+
+    /**
+     * Number of partitions to spread the facts over (defaults to Spark's
+     * default parallelism).
+     */
+    public static final String PARTITIONS_PROP = "reasoning.spark.partitions";
+
+    /**
+     * Storage level used to cache facts between iterations (defaults to
+     * MEMORY_AND_DISK).
+     */
+    public static final String STORAGE_LEVEL_PROP = "reasoning.spark.storageLevel";
+
+    public static void main(String[] args) throws Exception {
+        int result = ToolRunner.run(new SparkReasoningDriver(), args);
+        System.exit(result);
+    }
+
+    private long numInconsistencies = 0;
+
+    @Override
+    public int run(String[] args) throws Exception {
+        Configuration conf = getConf();
+        SparkConf sparkConf = SparkReasoner.configure(new SparkConf()
+            .setAppName("Rya Reasoning"));
+        String master = conf.get(SPARK_MASTER_PROP);
+        if (master != null) {
+            sparkConf.setMaster(master);
+        }
+        JavaSparkContext sc = new JavaSparkContext(sparkConf);
+        try {
+            // If running against a local file, upload it
+            MRReasoningUtils.uploadIfNecessary(conf);
+            int partitions = conf.getInt(PARTITIONS_PROP, sc.defaultParallelism());
+            StorageLevel level = StorageLevel.fromString(
+                conf.get(STORAGE_LEVEL_PROP, "MEMORY_AND_DISK"));
+            SparkReasoner reasoner = new SparkReasoner(sc, partitions, level);
+            try {
+                reasoner.reason(loadInput(sc, conf));
+                numInconsistencies = reasoner.getNumInconsistencies();
+                System.out.println("Reasoning finished after "
+                    + reasoner.getNumIterations() + " iterations:");
+                System.out.println("\t" + reasoner.getNumInstanceTriples()
+                    + " new instance triples");
+                System.out.println("\t" + reasoner.getNumSchemaTriples()
+                    + " new schema triples");
+                System.out.println("\t" + numInconsistencies
+                    + " new inconsistencies");
+                if (MRReasoningUtils.shouldOutput(conf)) {
+                    writeInferences(reasoner.getInferences(), conf);
+                    if (numInconsistencies > 0) {
+                        Path out = MRReasoningUtils.getOutputPath(conf,
+                            MRReasoningUtils.INCONSISTENT_OUT);
+                        reasoner.getInconsistencies()
+                            .map(inconsistency -> inconsistency.explain(true))
+                            .saveAsTextFile(out.toString());
+                    }
+                }
+            }
+            finally {
+                reasoner.close();
+            }
+        }
+        finally {
+            sc.stop();
+        }
+        return 0;
+    }
+
+    /**
+     * True if we've detected at least one inconsistency.
+     */
+    boolean hasInconsistencies() {
+        return numInconsistencies > 0;
+    }
+
+    /**
+     * Read the input triples from an RDF file, if one was given, or else from
+     * the Accumulo table.
+     */
+    static JavaRDD<Fact> loadInput(JavaSparkContext sc, Configuration conf)
+            throws Exception {
+        Path inputPath = MRReasoningUtils.getInputPath(conf);
+        if (inputPath != null) {
+            conf.set(MRUtils.FORMAT_PROP, conf.get(MRUtils.FORMAT_PROP,
+                RDFFormat.RDFXML.getName()));
+            return sc.newAPIHadoopFile(inputPath.toString(),
+                    RdfFileInputFormat.class, LongWritable.class,
+                    RyaStatementWritable.class, conf)
+                .values().map(rsw -> toFact(rsw.getRyaStatement()));
+        }
+        else {
+            Job job = Job.getInstance(conf);
+            MRReasoningUtils.configureAccumuloInput(job);
+            SerializableWritable<Configuration> jobConf =
+                new SerializableWritable<>(job.getConfiguration());
+            return sc.newAPIHadoopRDD(job.getConfiguration(),
+                    AccumuloInputFormat.class, Key.class, Value.class)
+                .map(row -> toFact(MRReasoningUtils.getStatement(row._1(),
+                    row._2(), jobConf.value())));
+        }
+    }
+
+    /**
+     * Add the inferred triples to Rya, using one connection per partition.
+     */
+    static void writeInferences(JavaRDD<Fact> inferences,
+            Configuration conf) {
+        SerializableWritable<Configuration> writeConf =
+            new SerializableWritable<>(conf);
+        inferences.foreachPartition(facts -> {
+            RyaSailRepository repository =
+                MRReasoningUtils.getRepository(writeConf.value());
+            repository.initialize();
+            RepositoryConnection conn = repository.getConnection();
+            try {
+                conn.begin();
+                while (facts.hasNext()) {
+                    conn.add(facts.next().getTriple());
+                }
+                conn.commit();
+            }
+            finally {
+                conn.close();
+                repository.shutDown();
+            }
+        });
+    }
+
+    private static Fact toFact(RyaStatement rs) {
+        if (rs == null) {
+            return null;
+        }
+        Fact fact = new Fact();
+        fact.setTriple(rs);
+        return fact;
+    }
+}
@@ -0,0 +1,63 @@
+package org.apache.rya.reasoning.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.io.Writable;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Lets Spark's Kryo serializer move reasoner objects around by reusing their
+ * Hadoop serialization. Objects are created with their default constructor
+ * and then filled in with readFields, exactly as they would be by MapReduce.
+ */
+public class WritableKryoSerializer<T extends Writable> extends Serializer<T> {
+    @Override
+    public void write(Kryo kryo, Output output, T writable) {
+        try {
+            DataOutputStream out = new DataOutputStream(output);
+            writable.write(out);
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new KryoException(e);
+        }
+    }
+
+    @Override
+    public T read(Kryo kryo, Input input, Class<T> type) {
+        T writable = kryo.newInstance(type);
+        try {
+            writable.readFields(new DataInputStream(input));
+        }
+        catch (IOException e) {
+            throw new KryoException(e);
+        }
+        return writable;
+    }
+}
@@ -0,0 +1,108 @@
+package org.apache.rya.reasoning.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.rya.reasoning.Derivation;
+import org.apache.rya.reasoning.Fact;
+import org.apache.rya.reasoning.OwlRule;
+import org.apache.rya.reasoning.TestUtils;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.model.vocabulary.RDF;
+
+public class SparkReasonerTest {
+    static URI SUB_ORG = TestUtils.uri("subOrganizationOf");
+    static URI ORG = TestUtils.uri("Organization");
+    static URI PERSON = TestUtils.uri("Person");
+    static URI A = TestUtils.uri("a");
+    static URI B = TestUtils.uri("b");
+    static URI C = TestUtils.uri("c");
+    static URI D = TestUtils.uri("d");
+    static URI X = TestUtils.uri("x");
+
+    private JavaSparkContext sc;
+
+    @Before
+    public void setUp() {
+        SparkConf conf = SparkReasoner.configure(new SparkConf()
+            .setMaster("local[2]").setAppName("SparkReasonerTest"));
+        sc = new JavaSparkContext(conf);
+    }
+
+    @After
+    public void tearDown() {
+        sc.stop();
+    }
+
+    @Test
+    public void testTransitiveChain() throws Exception {
+        List<Fact> input = Arrays.asList(
+            TestUtils.fact(SUB_ORG, RDF.TYPE, OWL.TRANSITIVEPROPERTY),
+            TestUtils.fact(A, SUB_ORG, B),
+            TestUtils.fact(B, SUB_ORG, C),
+            TestUtils.fact(C, SUB_ORG, D));
+        SparkReasoner reasoner = new SparkReasoner(sc);
+        reasoner.reason(sc.parallelize(input, 2));
+        List<Fact> inferences = reasoner.getInferences().collect();
+        Set<Statement> triples = new HashSet<>();
+        for (Fact fact : inferences) {
+            triples.add(fact.getTriple());
+            Assert.assertTrue("Inference should have a derivation: " + fact,
+                fact.hasRule(OwlRule.PRP_TRP));
+        }
+        Assert.assertEquals("Each fact should only be inferred once",
+            triples.size(), inferences.size());
+        Assert.assertTrue(triples.contains(TestUtils.statement(A, SUB_ORG, C)));
+        Assert.assertTrue(triples.contains(TestUtils.statement(B, SUB_ORG, D)));
+        Assert.assertTrue(triples.contains(TestUtils.statement(A, SUB_ORG, D)));
+        Assert.assertEquals(3, reasoner.getNumInstanceTriples());
+        Assert.assertEquals(0, reasoner.getNumInconsistencies());
+        reasoner.close();
+    }
+
+    @Test
+    public void testInconsistency() throws Exception {
+        List<Fact> input = Arrays.asList(
+            TestUtils.fact(PERSON, OWL.DISJOINTWITH, ORG),
+            TestUtils.fact(X, RDF.TYPE, PERSON),
+            TestUtils.fact(X, RDF.TYPE, ORG));
+        SparkReasoner reasoner = new SparkReasoner(sc);
+        reasoner.reason(sc.parallelize(input, 2));
+        List<Derivation> inconsistencies = new ArrayList<>(
+            reasoner.getInconsistencies().collect());
+        Assert.assertEquals(1, inconsistencies.size());
+        Assert.assertEquals(OwlRule.CAX_DW, inconsistencies.get(0).getRule());
+        Assert.assertEquals(1, reasoner.getNumInconsistencies());
+        reasoner.close();
+    }
+}
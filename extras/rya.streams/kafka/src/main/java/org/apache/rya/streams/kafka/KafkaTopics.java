@@ -98,6 +98,18 @@ public class KafkaTopics {
         return ryaInstance + "-QueryResults-" + queryId.toString();
     }
 
+    /**
+     * Creates the Kafka topic name that a group of Rya Streams query executors use to divide
+     * the queries they run amongst themselves.
+     *
+     * @param groupName - The name of the group of query executors. (not null)
+     * @return The name of the Kafka topic.
+     */
+    public static String queryExecutorGroupTopic(final String groupName) {
+        requireNonNull(groupName);
+        return groupName + "-QueryExecutors";
+    }
+
     /**
      * TODO doc
      *
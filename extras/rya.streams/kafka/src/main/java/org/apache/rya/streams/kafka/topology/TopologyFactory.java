@@ -29,6 +29,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -145,7 +146,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
             }
 
             // Add a state store for any node type that requires one.
-            if (entry.getNode() instanceof Join ||  entry.getNode() instanceof LeftJoin || entry.getNode() instanceof Group) {
+            if (hasStateStore(entry.getNode())) {
                 // Add a state store for the join processor.
                 final StateStoreSupplier joinStoreSupplier =
                         Stores.create( entry.getID() )
@@ -171,6 +172,39 @@ public class TopologyFactory implements TopologyBuilderFactory {
         return builder;
     }
 
+    /**
+     * Determines whether the topology of a SPARQL query holds state between the statements it
+     * processes. Kafka Streams keeps that state separately for each partition of the statements
+     * topic, so statements that are joined or aggregated together must be read from the same partition.
+     *
+     * @param sparqlQuery - The SPARQL query to check. (not null)
+     * @return {@code true} if the query contains a join, left join, or aggregation.
+     * @throws MalformedQueryException - The provided query is not a valid SPARQL query.
+     */
+    public static boolean isStateful(final String sparqlQuery) throws MalformedQueryException {
+        requireNonNull(sparqlQuery);
+        final TupleExpr expr = new SPARQLParser().parseQuery(sparqlQuery, null).getTupleExpr();
+        final AtomicBoolean stateful = new AtomicBoolean(false);
+        expr.visit(new QueryModelVisitorBase<RuntimeException>() {
+            @Override
+            protected void meetNode(final QueryModelNode node) {
+                if (hasStateStore(node)) {
+                    stateful.set(true);
+                } else {
+                    super.meetNode(node);
+                }
+            }
+        });
+        return stateful.get();
+    }
+
+    /**
+     * @return {@code true} if the processor of a node needs a state store.
+     */
+    private static boolean hasStateStore(final QueryModelNode node) {
+        return node instanceof Join || node instanceof LeftJoin || node instanceof Group;
+    }
+
     @VisibleForTesting
     public List<ProcessorEntry> getProcessorEntry() {
         return processorEntryList;
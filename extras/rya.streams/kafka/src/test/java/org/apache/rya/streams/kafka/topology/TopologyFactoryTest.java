@@ -19,6 +19,7 @@
 package org.apache.rya.streams.kafka.topology;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -125,4 +126,30 @@ public class TopologyFactoryTest {
         final StatementPattern expected = new StatementPattern(new Var("person"), TALKS_TO, new Var("otherPerson"));
         assertEquals(expected, entries.get(1).getNode());
     }
+
+    @Test
+    public void isStateful_statementPatterns() throws Exception {
+        final String query = "CONSTRUCT { ?person <urn:mightKnow> ?otherPerson } WHERE { "
+                + "?person <urn:talksTo> ?otherPerson . "
+                + "FILTER(?person != ?otherPerson) "
+                + "}";
+        assertFalse(TopologyFactory.isStateful(query));
+    }
+
+    @Test
+    public void isStateful_join() throws Exception {
+        final String query = "SELECT * WHERE { "
+                + "?person <urn:talksTo> ?otherPerson . "
+                + "?otherPerson <urn:talksTo> ?dog . "
+                + "}";
+        assertTrue(TopologyFactory.isStateful(query));
+    }
+
+    @Test
+    public void isStateful_aggregation() throws Exception {
+        final String query = "SELECT (count(?person) as ?count) WHERE { "
+                + "?person <urn:talksTo> ?otherPerson . "
+                + "}";
+        assertTrue(TopologyFactory.isStateful(query));
+    }
 }
\ No newline at end of file
@@ -32,10 +32,13 @@ import org.apache.commons.daemon.Daemon;
 import org.apache.commons.daemon.DaemonContext;
 import org.apache.commons.daemon.DaemonInitException;
 import org.apache.rya.streams.kafka.KafkaStreamsFactory;
+import org.apache.rya.streams.kafka.MultiThreadKafkaStreamsFactory;
 import org.apache.rya.streams.kafka.SingleThreadKafkaStreamsFactory;
 import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.querymanager.kafka.DistributedQueryExecutor;
 import org.apache.rya.streams.querymanager.kafka.KafkaQueryChangeLogSource;
 import org.apache.rya.streams.querymanager.kafka.LocalQueryExecutor;
+import org.apache.rya.streams.querymanager.xml.DistributedKafkaStreams;
 import org.apache.rya.streams.querymanager.xml.Kafka;
 import org.apache.rya.streams.querymanager.xml.QueryManagerConfig;
 import org.apache.rya.streams.querymanager.xml.QueryManagerConfig.PerformanceTunning.QueryChanngeLogDiscoveryPeriod;
@@ -111,9 +114,19 @@ public class QueryManagerDaemon implements Daemon {
         final QueryChangeLogSource source = new KafkaQueryChangeLogSource(kafka.getHostname(), kafka.getPort(), scheduler);
 
         // Initialize a QueryExecutor.
-        final String zookeeperServers = config.getQueryExecutor().getLocalKafkaStreams().getZookeepers();
-        final KafkaStreamsFactory streamsFactory = new SingleThreadKafkaStreamsFactory(kafka.getHostname() + ":" + kafka.getPort());
-        final QueryExecutor queryExecutor = new LocalQueryExecutor(new CreateKafkaTopic(zookeeperServers), streamsFactory);
+        final String kafkaServers = kafka.getHostname() + ":" + kafka.getPort();
+        final QueryExecutor queryExecutor;
+        final DistributedKafkaStreams distributed = config.getQueryExecutor().getDistributedKafkaStreams();
+        if(distributed != null) {
+            log.info("Sharing queries with the other Query Managers of group: " + distributed.getGroupName());
+            final KafkaStreamsFactory streamsFactory = new MultiThreadKafkaStreamsFactory(kafkaServers, distributed.getStreamThreads().intValue());
+            queryExecutor = new DistributedQueryExecutor(new CreateKafkaTopic(distributed.getZookeepers()), streamsFactory, kafkaServers,
+                    distributed.getGroupName(), distributed.getGroupPartitions().intValue(), distributed.getInputPartitions().intValue());
+        } else {
+            final String zookeeperServers = config.getQueryExecutor().getLocalKafkaStreams().getZookeepers();
+            final KafkaStreamsFactory streamsFactory = new SingleThreadKafkaStreamsFactory(kafkaServers);
+            queryExecutor = new LocalQueryExecutor(new CreateKafkaTopic(zookeeperServers), streamsFactory);
+        }
 
         // Initialize the QueryManager using the configured resources.
         manager = new QueryManager(queryExecutor, source, period, units);
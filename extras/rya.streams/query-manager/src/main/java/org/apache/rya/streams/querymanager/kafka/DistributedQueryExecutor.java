@@ -0,0 +1,561 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.querymanager.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.KafkaStreamsFactory;
+import org.apache.rya.streams.kafka.KafkaStreamsFactory.KafkaStreamsFactoryException;
+import org.apache.rya.streams.kafka.KafkaTopics;
+import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.kafka.topology.TopologyFactory;
+import org.apache.rya.streams.querymanager.QueryExecutor;
+import org.apache.rya.streams.querymanager.QueryManager;
+import org.openrdf.query.MalformedQueryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link QueryExecutor} that shares the work of running {@link StreamsQuery}s with the other
+ * executors of the same group, which are typically each part of a {@link QueryManager} running
+ * on a different machine.
+ * <p/>
+ * Every executor of the group is told to start and stop every query, because each query manager
+ * reads the same query change logs. The executors divide the queries amongst themselves by joining
+ * a Kafka consumer group on a topic that is owned by the group. Each query belongs to one of that
+ * topic's partitions and is only run by the executor the partition is assigned to. When an executor
+ * joins or leaves the group, or stops heartbeating because it crashed, Kafka rebalances the partitions
+ * and the surviving executors start the queries they have been handed. An executor that loses its
+ * membership stops its jobs and rejoins the group.
+ * <p/>
+ * Each query is run by a {@link KafkaStreams} job that is created by the provided {@link KafkaStreamsFactory},
+ * so the number of threads each query uses is configured by the factory. The statements topics the queries
+ * read are created with the configured number of partitions so that those threads have work to share. A
+ * warning is logged if a statements topic already existed with a different number of partitions.
+ * <p/>
+ * Queries that join or aggregate statements are refused if their statements topic has more than one
+ * partition. Their jobs keep state separately for each partition, and statements are not partitioned by
+ * the values they are joined or grouped on, so results whose statements landed on different partitions
+ * would silently be lost.
+ */
+@DefaultAnnotation(NonNull.class)
+public class DistributedQueryExecutor extends AbstractIdleService implements QueryExecutor {
+    private static final Logger log = LoggerFactory.getLogger(DistributedQueryExecutor.class);
+
+    /**
+     * How long the group membership consumer waits for records each time it polls. It also
+     * heartbeats to the group coordinator when it polls, so this must be well below the session timeout.
+     */
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * How long the group coordinator waits to hear from an executor before deciding it has crashed.
+     */
+    private static final int SESSION_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * How long the executor waits before rejoining the group after it lost its membership.
+     */
+    private static final long REJOIN_BACKOFF_MILLIS = 1000;
+
+    /**
+     * Provides thread safety when interacting with this class.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Every query the group has been told to run, by Query ID, whether this executor runs it or not.
+     */
+    private final Map<UUID, QueryAndInstance> activeQueries = new HashMap<>();
+
+    /**
+     * Lookup the executing {@link KafkaStreams} job for a Query Id that is run by this executor.
+     */
+    private final Map<UUID, KafkaStreams> byQueryId = new HashMap<>();
+
+    /**
+     * The partitions of the group's topic that are assigned to this executor.
+     */
+    private final Set<Integer> assignedPartitions = new HashSet<>();
+
+    /**
+     * The number of partitions of each statements topic that has been checked.
+     */
+    private final Map<String, Integer> inputTopicPartitions = new HashMap<>();
+
+    /**
+     * Used to create the input and output topics for a Kafka Streams job.
+     */
+    private final CreateKafkaTopic createKafkaTopic;
+
+    /**
+     * Builds the {@link KafkaStreams} objects that execute queries.
+     */
+    private final KafkaStreamsFactory streamsFactory;
+
+    private final String kafkaServers;
+    private final String groupName;
+    private final int groupPartitions;
+    private final int inputPartitions;
+
+    /**
+     * The number of partitions the group's topic actually has. It may have been created by an
+     * executor that was configured differently.
+     */
+    private int partitionCount;
+
+    private volatile KafkaConsumer<byte[], byte[]> membership = null;
+
+    /**
+     * Looks up the partitions of the statements topics. Must be used while holding {@link #lock}.
+     */
+    private KafkaConsumer<byte[], byte[]> metadata = null;
+    private ExecutorService membershipThread = null;
+    private volatile boolean shutdownSignal = false;
+    private volatile boolean crashed = false;
+
+    /**
+     * Constructs an instance of {@link DistributedQueryExecutor}.
+     *
+     * @param createKafkaTopic - Used to create the input and output topics for a Kafka Streams job. (not null)
+     * @param streamsFactory - Builds the {@link KafkaStreams} objects that execute queries. (not null)
+     * @param kafkaServers - The Kafka servers the group of executors coordinates through. (not null)
+     * @param groupName - The name of the group of executors that share the queries. (not null)
+     * @param groupPartitions - The number of partitions of the group's topic. This limits how many executors
+     *   may share the queries, so it should be larger than the number of executors that will ever be run. (> 0)
+     * @param inputPartitions - The number of partitions the statements topics read by the queries are created with.
+     *   Queries that join or aggregate statements are only run if this is 1. (> 0)
+     */
+    public DistributedQueryExecutor(
+            final CreateKafkaTopic createKafkaTopic,
+            final KafkaStreamsFactory streamsFactory,
+            final String kafkaServers,
+            final String groupName,
+            final int groupPartitions,
+            final int inputPartitions) {
+        this.createKafkaTopic = requireNonNull(createKafkaTopic);
+        this.streamsFactory = requireNonNull(streamsFactory);
+        this.kafkaServers = requireNonNull(kafkaServers);
+        this.groupName = requireNonNull(groupName);
+        checkArgument(groupPartitions > 0, "The number of group partitions must be positive.");
+        checkArgument(inputPartitions > 0, "The number of input partitions must be positive.");
+        this.groupPartitions = groupPartitions;
+        this.inputPartitions = inputPartitions;
+    }
+
+    @Override
+    protected void startUp() throws Exception {
+        log.info("Distributed Query Executor starting up. Joining group " + groupName + ".");
+
+        // Make sure the topic whose partitions are divided amongst the group exists.
+        final String groupTopic = KafkaTopics.queryExecutorGroupTopic(groupName);
+        createKafkaTopic.createTopics(Sets.newHashSet(groupTopic), groupPartitions, 1, Optional.empty());
+
+        metadata = new KafkaConsumer<>(makeConsumerProperties(Optional.empty()));
+        final List<PartitionInfo> partitionInfos = metadata.partitionsFor(groupTopic);
+        partitionCount = partitionInfos == null || partitionInfos.isEmpty() ? groupPartitions : partitionInfos.size();
+        membership = joinGroup();
+
+        // The consumer may only be used by one thread, so it is polled by a thread of its own.
+        shutdownSignal = false;
+        membershipThread = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("Query Executor Group " + groupName + " Membership")
+                .build());
+        membershipThread.submit(this::pollMembership);
+    }
+
+    /**
+     * Keeps this executor in the group until it shuts down. If the executor loses its membership, it
+     * stops the jobs it runs, because another executor may be handed their queries, and rejoins the group.
+     * The jobs are started again once the group assigns partitions to the executor.
+     */
+    private void pollMembership() {
+        KafkaConsumer<byte[], byte[]> consumer = membership;
+        try {
+            while(!shutdownSignal) {
+                try {
+                    if(consumer == null) {
+                        consumer = joinGroup();
+                        membership = consumer;
+                        log.info("Rejoined group " + groupName + ".");
+                    }
+                    // Nothing is written to the topic. Polling keeps this executor in the group.
+                    consumer.poll(POLL_MILLIS);
+                } catch(final WakeupException e) {
+                    // The executor is shutting down.
+                } catch(final Exception e) {
+                    log.error("The Distributed Query Executor is no longer a member of group " + groupName +
+                            ". Stopping its jobs and rejoining the group.", e);
+                    stopAllJobs();
+                    if(consumer != null) {
+                        try {
+                            consumer.close();
+                        } catch(final Exception closeException) {
+                            log.warn("Could not close the group membership consumer.", closeException);
+                        }
+                        consumer = null;
+                    }
+                    try {
+                        Thread.sleep(REJOIN_BACKOFF_MILLIS);
+                    } catch (final InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        } finally {
+            // Closing the consumer leaves the group. A crashed process never gets to.
+            if(consumer != null && !crashed) {
+                consumer.close();
+            }
+        }
+    }
+
+    /**
+     * @return A consumer that has subscribed to the group's topic. It joins the group the first time it is polled.
+     */
+    private KafkaConsumer<byte[], byte[]> joinGroup() {
+        final KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(
+                makeConsumerProperties(Optional.of("RyaStreams-QueryExecutors-" + groupName)));
+        consumer.subscribe(Sets.newHashSet(KafkaTopics.queryExecutorGroupTopic(groupName)), new AssignmentListener());
+        return consumer;
+    }
+
+    private Properties makeConsumerProperties(final Optional<String> groupId) {
+        final Properties consumerProps = new Properties();
+        consumerProps.setProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaServers);
+        groupId.ifPresent(id -> consumerProps.setProperty(ConsumerConfig.GROUP_ID_CONFIG, id));
+        consumerProps.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        consumerProps.setProperty(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, "" + SESSION_TIMEOUT_MILLIS);
+        consumerProps.setProperty(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, "" + SESSION_TIMEOUT_MILLIS / 10);
+        consumerProps.setProperty(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        consumerProps.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        return consumerProps;
+    }
+
+    @Override
+    protected void shutDown() throws Exception {
+        log.info("Distributed Query Executor shutting down. Leaving the group and stopping all jobs...");
+
+        // Leave the group so that the other executors pick up this executor's queries.
+        shutdownSignal = true;
+        final KafkaConsumer<byte[], byte[]> consumer = membership;
+        if(consumer != null) {
+            consumer.wakeup();
+        }
+        membershipThread.shutdown();
+        if(!membershipThread.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Timed out while waiting to leave group " + groupName + ".");
+        }
+
+        // A crashed executor's consumer was left open so that it did not leave the group.
+        if(crashed && consumer != null) {
+            consumer.close();
+        }
+
+        // Stop all of the running queries.
+        stopAllJobs();
+
+        lock.lock();
+        try {
+            metadata.close();
+            inputTopicPartitions.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Distributed Query Executor shut down.");
+    }
+
+    /**
+     * Stops this executor the way a crashed process would. It stops talking to the group without
+     * leaving it, so the other executors only take over its queries once its session times out.
+     */
+    @VisibleForTesting
+    void crash() {
+        crashed = true;
+        shutdownSignal = true;
+        stopAllJobs();
+    }
+
+    /**
+     * Stops every job this executor runs. The queries remain active, so their jobs are started again
+     * if their partitions are assigned to this executor.
+     */
+    private void stopAllJobs() {
+        lock.lock();
+        try {
+            for(final KafkaStreams job : byQueryId.values()) {
+                job.close();
+            }
+            byQueryId.clear();
+            assignedPartitions.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void startQuery(final String ryaInstance, final StreamsQuery query) throws QueryExecutorException {
+        requireNonNull(ryaInstance);
+        requireNonNull(query);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            activeQueries.put(query.getQueryId(), new QueryAndInstance(ryaInstance, query));
+
+            // Only the executor the query's partition is assigned to runs it.
+            if(assignedPartitions.contains( partitionFor(query.getQueryId(), partitionCount) )) {
+                startJob(ryaInstance, query);
+            }
+        } catch (final KafkaStreamsFactoryException e) {
+            throw new QueryExecutorException("Could not start query " + query.getQueryId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stopQuery(final UUID queryId) throws QueryExecutorException {
+        requireNonNull(queryId);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            activeQueries.remove(queryId);
+            stopJob(queryId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stopAll(final String ryaInstanceName) throws QueryExecutorException {
+        requireNonNull(ryaInstanceName);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            final Iterator<Entry<UUID, QueryAndInstance>> it = activeQueries.entrySet().iterator();
+            while(it.hasNext()) {
+                final Entry<UUID, QueryAndInstance> entry = it.next();
+                if(entry.getValue().ryaInstance.equals(ryaInstanceName)) {
+                    it.remove();
+                    stopJob(entry.getKey());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The IDs of the queries that are being run by this executor. The other queries of
+     *   the group are being run by the other executors.
+     */
+    @Override
+    public Set<UUID> getRunningQueryIds() throws QueryExecutorException {
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            return new HashSet<>( byQueryId.keySet() );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Determines which partition of a group's topic a query belongs to.
+     *
+     * @param queryId - The ID of the query. (not null)
+     * @param partitions - The number of partitions the group's topic has.
+     * @return The partition the query belongs to.
+     */
+    @VisibleForTesting
+    static int partitionFor(final UUID queryId, final int partitions) {
+        return Math.floorMod(queryId.hashCode(), partitions);
+    }
+
+    /**
+     * Must be called while holding {@link #lock}.
+     */
+    private void startJob(final String ryaInstance, final StreamsQuery query) throws KafkaStreamsFactoryException {
+        if(byQueryId.containsKey(query.getQueryId())) {
+            return;
+        }
+
+        // Make sure the Statements topic exists with enough partitions for the job's threads to share.
+        final String statementsTopic = KafkaTopics.statementsTopic(ryaInstance);
+        createKafkaTopic.createTopics(Sets.newHashSet(statementsTopic), inputPartitions, 1, Optional.empty());
+        final int statementsPartitions = checkInputPartitions(statementsTopic);
+
+        // Joins and aggregations only see the statements of one partition at a time.
+        try {
+            if(statementsPartitions > 1 && TopologyFactory.isStateful(query.getSparql())) {
+                throw new KafkaStreamsFactoryException("Query " + query.getQueryId() + " joins or aggregates statements, " +
+                        "but the statements topic " + statementsTopic + " has " + statementsPartitions + " partitions. " +
+                        "Such queries may only be run over a statements topic that has a single partition.");
+            }
+        } catch (final MalformedQueryException e) {
+            throw new KafkaStreamsFactoryException("Could not parse query " + query.getQueryId(), e);
+        }
+
+        // Make sure the Query Results topic exists for the query.
+        createKafkaTopic.createTopics(Sets.newHashSet(KafkaTopics.queryResultsTopic(ryaInstance, query.getQueryId())), 1, 1, Optional.empty());
+
+        // Setup the Kafka Streams job that will execute.
+        final KafkaStreams streams = streamsFactory.make(ryaInstance, query);
+        streams.start();
+        byQueryId.put(query.getQueryId(), streams);
+        log.info("Started query " + query.getQueryId() + " for Rya instance " + ryaInstance + ".");
+    }
+
+    /**
+     * Warns if a statements topic that already existed does not have the configured number of partitions,
+     * since the topic is not recreated. Must be called while holding {@link #lock}.
+     *
+     * @param statementsTopic - The statements topic to check. (not null)
+     * @return The number of partitions the topic has, or the configured number if it is not known yet.
+     */
+    private int checkInputPartitions(final String statementsTopic) {
+        final Integer checked = inputTopicPartitions.get(statementsTopic);
+        if(checked != null) {
+            return checked;
+        }
+        final List<PartitionInfo> partitionInfos = metadata.partitionsFor(statementsTopic);
+        if(partitionInfos == null || partitionInfos.isEmpty()) {
+            // The topic's metadata has not reached the brokers yet. Check again for the next job.
+            return inputPartitions;
+        }
+        inputTopicPartitions.put(statementsTopic, partitionInfos.size());
+        if(partitionInfos.size() != inputPartitions) {
+            log.warn("The statements topic " + statementsTopic + " has " + partitionInfos.size() + " partitions, but " +
+                    inputPartitions + " were configured. The number of threads that may share the work of its " +
+                    "queries is limited by the number of partitions it has.");
+        }
+        return partitionInfos.size();
+    }
+
+    /**
+     * Must be called while holding {@link #lock}.
+     */
+    private void stopJob(final UUID queryId) {
+        final KafkaStreams streams = byQueryId.remove(queryId);
+        if(streams != null) {
+            streams.close();
+            log.info("Stopped query " + queryId + ".");
+        }
+    }
+
+    /**
+     * Starts and stops jobs as the group's partitions are assigned to this executor. It is
+     * invoked by the membership thread while it polls.
+     */
+    private class AssignmentListener implements ConsumerRebalanceListener {
+        @Override
+        public void onPartitionsRevoked(final Collection<TopicPartition> partitions) {
+            // Every partition is revoked before a rebalance and most are handed straight back, so
+            // the jobs keep running until the new assignment shows which of them have moved.
+            log.info("Group " + groupName + " is rebalancing.");
+        }
+
+        @Override
+        public void onPartitionsAssigned(final Collection<TopicPartition> partitions) {
+            lock.lock();
+            try {
+                assignedPartitions.clear();
+                for(final TopicPartition partition : partitions) {
+                    assignedPartitions.add(partition.partition());
+                }
+                log.info("Group " + groupName + " assigned partitions " + assignedPartitions + " to this executor.");
+
+                // Stop the jobs whose queries have been handed to another executor.
+                for(final UUID queryId : new HashSet<>(byQueryId.keySet())) {
+                    if(!assignedPartitions.contains( partitionFor(queryId, partitionCount) )) {
+                        stopJob(queryId);
+                    }
+                }
+
+                // Start the jobs whose queries have been handed to this executor.
+                for(final QueryAndInstance active : activeQueries.values()) {
+                    final UUID queryId = active.query.getQueryId();
+                    if(assignedPartitions.contains( partitionFor(queryId, partitionCount) )) {
+                        try {
+                            startJob(active.ryaInstance, active.query);
+                        } catch (final KafkaStreamsFactoryException e) {
+                            log.error("Could not start query " + queryId + " after it was assigned to this executor.", e);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A query and the Rya instance whose statements it processes.
+     */
+    private static class QueryAndInstance {
+        private final String ryaInstance;
+        private final StreamsQuery query;
+
+        public QueryAndInstance(final String ryaInstance, final StreamsQuery query) {
+            this.ryaInstance = ryaInstance;
+            this.query = query;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.querymanager.kafka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.VisibilityStatement;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.KafkaStreamsFactory;
+import org.apache.rya.streams.kafka.KafkaTopics;
+import org.apache.rya.streams.kafka.MultiThreadKafkaStreamsFactory;
+import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.kafka.interactor.KafkaLoadStatements;
+import org.apache.rya.streams.kafka.serialization.VisibilityBindingSetDeserializer;
+import org.apache.rya.streams.kafka.serialization.VisibilityStatementSerializer;
+import org.apache.rya.streams.querymanager.QueryExecutor.QueryExecutorException;
+import org.apache.rya.test.kafka.KafkaTestInstanceRule;
+import org.apache.rya.test.kafka.KafkaTestUtil;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.impl.MapBindingSet;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Integration tests the methods of {@link DistributedQueryExecutor} by running a group of
+ * them within the same JVM.
+ */
+public class DistributedQueryExecutorIT {
+
+    private static final int GROUP_PARTITIONS = 6;
+
+    private static final String JOIN_QUERY =
+            "SELECT * WHERE { " +
+                "?person <urn:talksTo> ?employee . " +
+                "?employee <urn:worksAt> <urn:BurgerJoint> . " +
+            "}";
+
+    private final String ryaInstance = UUID.randomUUID().toString();
+    private final String groupName = UUID.randomUUID().toString();
+    private final List<DistributedQueryExecutor> executors = new ArrayList<>();
+
+    @Rule
+    public KafkaTestInstanceRule kafka = new KafkaTestInstanceRule(false);
+
+    @After
+    public void cleanup() throws Exception {
+        for(final DistributedQueryExecutor executor : executors) {
+            if(executor.isRunning()) {
+                executor.stopAndWait();
+            }
+        }
+    }
+
+    @Test
+    public void queriesAreShared() throws Exception {
+        final List<StreamsQuery> queries = makeQueries();
+        final DistributedQueryExecutor first = startExecutor(queries);
+        final DistributedQueryExecutor second = startExecutor(queries);
+        final DistributedQueryExecutor third = startExecutor(queries);
+
+        // Each query is run by exactly one of the executors, and each executor has work.
+        waitForQueries(toIds(queries), first, second, third);
+        assertTrue( !first.getRunningQueryIds().isEmpty() );
+        assertTrue( !second.getRunningQueryIds().isEmpty() );
+        assertTrue( !third.getRunningQueryIds().isEmpty() );
+    }
+
+    @Test
+    public void stoppedQueriesAreNotRun() throws Exception {
+        final List<StreamsQuery> queries = makeQueries();
+        final DistributedQueryExecutor first = startExecutor(queries);
+        final DistributedQueryExecutor second = startExecutor(queries);
+        waitForQueries(toIds(queries), first, second);
+
+        // Every query manager is told to stop the query, just like it was told to start it.
+        final StreamsQuery stopped = queries.remove(0);
+        first.stopQuery(stopped.getQueryId());
+        second.stopQuery(stopped.getQueryId());
+
+        waitForQueries(toIds(queries), first, second);
+    }
+
+    @Test
+    public void rebalanceWhenExecutorLeaves() throws Exception {
+        final List<StreamsQuery> queries = makeQueries();
+        final DistributedQueryExecutor first = startExecutor(queries);
+        final DistributedQueryExecutor second = startExecutor(queries);
+        waitForQueries(toIds(queries), first, second);
+
+        // The remaining executor takes over the queries of the one that left the group.
+        second.stopAndWait();
+        waitForQueries(toIds(queries), first);
+
+        // The queries are shared again when another executor joins the group.
+        final DistributedQueryExecutor third = startExecutor(queries);
+        waitForQueries(toIds(queries), first, third);
+        assertTrue( !third.getRunningQueryIds().isEmpty() );
+    }
+
+    @Test
+    public void crashAndRestart() throws Exception {
+        final List<StreamsQuery> queries = makeQueries();
+        final DistributedQueryExecutor first = startExecutor(queries);
+        final DistributedQueryExecutor second = startExecutor(queries);
+        waitForQueries(toIds(queries), first, second);
+
+        // The crashed executor never leaves the group, so its session has to time out first.
+        second.crash();
+        waitForQueries(toIds(queries), first);
+
+        // Restarting the crashed query manager shares the queries again.
+        final DistributedQueryExecutor restarted = startExecutor(queries);
+        waitForQueries(toIds(queries), first, restarted);
+        assertTrue( !restarted.getRunningQueryIds().isEmpty() );
+    }
+
+    @Test
+    public void joinOverOnePartition() throws Exception {
+        final StreamsQuery join = new StreamsQuery(UUID.randomUUID(), JOIN_QUERY, true, false);
+        final DistributedQueryExecutor executor = startExecutor(Lists.newArrayList(join), makeJobFactory(), 1);
+        waitForQueries(Sets.newHashSet(join.getQueryId()), executor);
+
+        // Wait for the job to start.
+        Thread.sleep(5000);
+
+        final ValueFactory vf = new ValueFactoryImpl();
+        try(final Producer<String, VisibilityStatement> producer =
+                    KafkaTestUtil.makeProducer(kafka, StringSerializer.class, VisibilityStatementSerializer.class);
+                final Consumer<String, VisibilityBindingSet> consumer =
+                    KafkaTestUtil.fromStartConsumer(kafka, StringDeserializer.class, VisibilityBindingSetDeserializer.class)) {
+            // Load statements that match both sides of the join.
+            new KafkaLoadStatements(KafkaTopics.statementsTopic(ryaInstance), producer).fromCollection(makeJoinStatements(vf));
+
+            // The join result is written to the query's results topic.
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("person", vf.createURI("urn:Alice"));
+            bs.addBinding("employee", vf.createURI("urn:Bob"));
+            final List<VisibilityBindingSet> expected = Lists.newArrayList(new VisibilityBindingSet(bs, "a"));
+
+            consumer.subscribe( Lists.newArrayList(KafkaTopics.queryResultsTopic(ryaInstance, join.getQueryId())) );
+            assertEquals(expected, KafkaTestUtil.pollForResults(500, 6, 1, consumer));
+        }
+    }
+
+    @Test
+    public void joinOverManyPartitionsIsRefused() throws Exception {
+        // A query that does not join or aggregate may read a statements topic with many partitions.
+        final StreamsQuery pattern = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+        final DistributedQueryExecutor executor = startExecutor(Lists.newArrayList(pattern), makeJobFactory(), 2);
+        waitForQueries(Sets.newHashSet(pattern.getQueryId()), executor);
+
+        // A join over the same topic would lose the results whose statements are on different partitions.
+        final StreamsQuery join = new StreamsQuery(UUID.randomUUID(), JOIN_QUERY, true, false);
+        try {
+            executor.startQuery(ryaInstance, join);
+            fail("A join over a statements topic with many partitions must be refused.");
+        } catch(final QueryExecutorException e) {
+            // Expected.
+        }
+        assertFalse( executor.getRunningQueryIds().contains(join.getQueryId()) );
+        assertEquals(Sets.newHashSet(pattern.getQueryId()), executor.getRunningQueryIds());
+    }
+
+    /**
+     * @return A factory that creates real jobs.
+     */
+    private KafkaStreamsFactory makeJobFactory() {
+        return new MultiThreadKafkaStreamsFactory(kafka.getKafkaHostname() + ":" + kafka.getKafkaPort(), 1);
+    }
+
+    /**
+     * @return Statements that match both sides of {@link #JOIN_QUERY} once.
+     */
+    private static List<VisibilityStatement> makeJoinStatements(final ValueFactory vf) {
+        final List<VisibilityStatement> statements = new ArrayList<>();
+        statements.add(new VisibilityStatement(vf.createStatement(
+                vf.createURI("urn:Alice"), vf.createURI("urn:talksTo"), vf.createURI("urn:Bob")), "a"));
+        statements.add(new VisibilityStatement(vf.createStatement(
+                vf.createURI("urn:Bob"), vf.createURI("urn:worksAt"), vf.createURI("urn:BurgerJoint")), "a"));
+        statements.add(new VisibilityStatement(vf.createStatement(
+                vf.createURI("urn:Charlie"), vf.createURI("urn:worksAt"), vf.createURI("urn:TacoShop")), "a"));
+        return statements;
+    }
+
+    /**
+     * @return Queries whose IDs cover every partition of the group's topic.
+     */
+    private List<StreamsQuery> makeQueries() {
+        final List<StreamsQuery> queries = new ArrayList<>();
+        final Set<Integer> partitions = new HashSet<>();
+        while(partitions.size() < GROUP_PARTITIONS) {
+            final UUID queryId = UUID.randomUUID();
+            if(partitions.add( DistributedQueryExecutor.partitionFor(queryId, GROUP_PARTITIONS) )) {
+                queries.add(new StreamsQuery(queryId, "SELECT * WHERE { ?a ?b ?c. }", true, false));
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Starts an executor of the group and tells it to run every query, the way its query manager would.
+     */
+    private DistributedQueryExecutor startExecutor(final List<StreamsQuery> queries) throws Exception {
+        // The jobs are mocked. This test is only interested in which executor runs them.
+        final KafkaStreamsFactory jobFactory = mock(KafkaStreamsFactory.class);
+        when(jobFactory.make(anyString(), any(StreamsQuery.class))).thenAnswer(invocation -> mock(KafkaStreams.class));
+        return startExecutor(queries, jobFactory, 2);
+    }
+
+    /**
+     * Starts an executor of the group whose jobs are made by a specific factory and tells it to run every query.
+     */
+    private DistributedQueryExecutor startExecutor(final List<StreamsQuery> queries, final KafkaStreamsFactory jobFactory, final int inputPartitions) throws Exception {
+        final String kafkaServers = kafka.getKafkaHostname() + ":" + kafka.getKafkaPort();
+        final DistributedQueryExecutor executor = new DistributedQueryExecutor(
+                new CreateKafkaTopic(kafka.getZookeeperServers()), jobFactory, kafkaServers, groupName, GROUP_PARTITIONS, inputPartitions);
+        executors.add(executor);
+        executor.startAndWait();
+
+        for(final StreamsQuery query : queries) {
+            executor.startQuery(ryaInstance, query);
+        }
+        return executor;
+    }
+
+    /**
+     * Waits until the executors run each of the expected queries exactly once between them.
+     */
+    private static void waitForQueries(final Set<UUID> expected, final DistributedQueryExecutor... executors) throws Exception {
+        Set<UUID> running = new HashSet<>();
+        int runCount = 0;
+        for(int attempt = 0; attempt < 60; attempt++) {
+            running = new HashSet<>();
+            runCount = 0;
+            for(final DistributedQueryExecutor executor : executors) {
+                final Set<UUID> ids = executor.getRunningQueryIds();
+                running.addAll(ids);
+                runCount += ids.size();
+            }
+            if(expected.equals(running) && runCount == expected.size()) {
+                return;
+            }
+            Thread.sleep(1000);
+        }
+        assertEquals(expected, running);
+        assertEquals(expected.size(), runCount);
+    }
+
+    private static Set<UUID> toIds(final List<StreamsQuery> queries) {
+        final Set<UUID> ids = new HashSet<>();
+        for(final StreamsQuery query : queries) {
+            ids.add(query.getQueryId());
+        }
+        return ids;
+    }
+}
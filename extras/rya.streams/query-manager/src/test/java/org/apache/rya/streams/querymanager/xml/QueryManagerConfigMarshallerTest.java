@@ -18,6 +18,7 @@
  */
 package org.apache.rya.streams.querymanager.xml;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.ByteArrayInputStream;
@@ -63,6 +64,43 @@ public class QueryManagerConfigMarshallerTest {
         assertNotNull(config);
     }
 
+    @Test
+    public void unmarshal_distributedKafkaStreams() throws Exception {
+        final String xml =
+                "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+                "<queryManagerConfig>\n" +
+                "    <queryChangeLogSource>\n" +
+                "        <kafka>\n" +
+                "            <hostname>localhost</hostname>\n" +
+                "            <port>6</port>\n" +
+                "        </kafka>\n" +
+                "    </queryChangeLogSource>\n" +
+                "    <queryExecutor>\n" +
+                "        <distributedKafkaStreams>\n" +
+                "            <zookeepers>zoo1,zoo2,zoo3</zookeepers>\n" +
+                "            <groupName>rya-streams</groupName>\n" +
+                "            <groupPartitions>32</groupPartitions>\n" +
+                "            <streamThreads>4</streamThreads>\n" +
+                "            <inputPartitions>8</inputPartitions>\n" +
+                "        </distributedKafkaStreams>\n" +
+                "    </queryExecutor>\n" +
+                "    <performanceTunning>\n" +
+                "        <queryChanngeLogDiscoveryPeriod>\n" +
+                "            <value>1</value>\n" +
+                "            <units>MINUTES</units>\n" +
+                "        </queryChanngeLogDiscoveryPeriod>\n" +
+                "    </performanceTunning>\n" +
+                "</queryManagerConfig>";
+
+        final InputStream xmlStream = new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8));
+        final QueryManagerConfig config = QueryManagerConfigUnmarshaller.unmarshall(xmlStream);
+        final DistributedKafkaStreams distributed = config.getQueryExecutor().getDistributedKafkaStreams();
+        assertEquals("rya-streams", distributed.getGroupName());
+        assertEquals(32, distributed.getGroupPartitions().intValue());
+        assertEquals(4, distributed.getStreamThreads().intValue());
+        assertEquals(8, distributed.getInputPartitions().intValue());
+    }
+
     @Test(expected = UnmarshalException.class)
     public void unmarshal_invalidXml() throws Exception {
         final String xml =
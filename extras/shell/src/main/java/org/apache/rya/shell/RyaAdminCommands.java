@@ -21,11 +21,14 @@ package org.apache.rya.shell;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.rya.api.client.CreatePCJ.ExportStrategy;
 import org.apache.rya.api.client.GetInstanceDetails;
 import org.apache.rya.api.client.Install.DuplicateInstanceNameException;
@@ -42,6 +45,7 @@ import org.apache.rya.shell.util.InstanceNamesFormatter;
 import org.apache.rya.shell.util.RyaDetailsFormatter;
 import org.apache.rya.shell.util.SparqlPrompt;
 import org.apache.rya.shell.util.UninstallPrompt;
+import org.openrdf.rio.RDFFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.shell.core.CommandMarker;
 import org.springframework.shell.core.annotation.CliAvailabilityIndicator;
@@ -70,6 +74,7 @@ public class RyaAdminCommands implements CommandMarker {
     public static final String UNINSTALL_CMD = "uninstall";
     public static final String ADD_USER_CMD = "add-user";
     public static final String REMOVE_USER_CMD = "remove-user";
+    public static final String TUNE_TABLES_CMD = "tune-tables";
 
     private final SharedShellState state;
     private final InstallPrompt installPrompt;
@@ -152,11 +157,13 @@ public class RyaAdminCommands implements CommandMarker {
     }
 
     /**
-     * Enables commands that are available when connected to a Rya Instance that supports user management.
+     * Enables commands that are available when connected to a Rya Instance that supports user management
+     * and table tuning.
      */
     @CliAvailabilityIndicator({
         ADD_USER_CMD,
-        REMOVE_USER_CMD})
+        REMOVE_USER_CMD,
+        TUNE_TABLES_CMD})
     public boolean areUserCommandAvailable() {
         return areInstanceCommandsAvailable() && state.getShellState().getStorageType().get() == StorageType.ACCUMULO;
     }
@@ -571,6 +578,42 @@ public class RyaAdminCommands implements CommandMarker {
         }
     }
 
+    @CliCommand(value = TUNE_TABLES_CMD, help = "Retunes the tables of the Rya instance and pre-splits them.")
+    public String tuneTables(
+            @CliOption(key = {"splits"}, mandatory = false, unspecifiedDefaultValue = "0", help = "The maximum number of split points added to each table.")
+            final int splits,
+            @CliOption(key = {"sample"}, mandatory = false, help = "A local file of RDF Statements that split points are picked from. If not provided, the latest prospector run is used.")
+            final String sample) {
+        // Fetch the Rya client that is connected to the store.
+        final ShellState shellState = state.getShellState();
+        final RyaClient ryaClient = shellState.getConnectedCommands().get();
+        final String ryaInstance = shellState.getRyaInstanceName().get();
+
+        java.util.Optional<Path> sampleFile = java.util.Optional.empty();
+        java.util.Optional<RDFFormat> format = java.util.Optional.empty();
+        if (sample != null) {
+            // If the provided path is relative, then make it rooted in the user's home.
+            final String userHome = FilenameUtils.separatorsToUnix(System.getProperty("user.home"));
+            final Path rootedFile = Paths.get( sample.replaceFirst("^~", userHome) );
+            final RDFFormat rdfFormat = RDFFormat.forFileName(rootedFile.getFileName().toString());
+            if (rdfFormat == null) {
+                throw new RuntimeException("Unable to detect RDF Statement data input format for file: " + rootedFile);
+            }
+            sampleFile = java.util.Optional.of(rootedFile);
+            format = java.util.Optional.of(rdfFormat);
+        }
+
+        try {
+            ryaClient.getTuneTables().get().tuneTables(ryaInstance, splits, sampleFile, format);
+        } catch (final InstanceDoesNotExistException e) {
+            throw new RuntimeException(String.format("A Rya instance named '%s' does not exist.", ryaInstance), e);
+        } catch (final RyaClientException e) {
+            throw new RuntimeException("The tables could not be tuned. Provided reason: " + e.getMessage(), e);
+        }
+
+        return "The tables of the Rya instance named '" + ryaInstance + "' have been tuned.";
+    }
+
     @CliCommand(value = UNINSTALL_CMD, help = "Uninstall an instance of Rya.")
     public String uninstall() {
         // Fetch the command that is connected to the store.
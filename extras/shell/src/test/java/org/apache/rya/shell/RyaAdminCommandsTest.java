@@ -26,6 +26,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -46,6 +47,7 @@ import org.apache.rya.api.client.ListInstances;
 import org.apache.rya.api.client.RemoveUser;
 import org.apache.rya.api.client.RyaClient;
 import org.apache.rya.api.client.RyaClientException;
+import org.apache.rya.api.client.TuneTables;
 import org.apache.rya.api.client.Uninstall;
 import org.apache.rya.api.client.accumulo.AccumuloConnectionDetails;
 import org.apache.rya.api.client.mongo.MongoConnectionDetails;
@@ -63,6 +65,7 @@ import org.apache.rya.shell.util.InstallPrompt;
 import org.apache.rya.shell.util.SparqlPrompt;
 import org.apache.rya.shell.util.UninstallPrompt;
 import org.junit.Test;
+import org.openrdf.rio.RDFFormat;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
@@ -548,6 +551,47 @@ public class RyaAdminCommandsTest {
         verify(mockRemoveUser).removeUser(eq("test_instance"), eq("alice"));
     }
 
+    @Test
+    public void tuneTables() throws Exception {
+        // Mock the object that performs the Tune Tables command.
+        final TuneTables mockTuneTables = mock(TuneTables.class);
+
+        final RyaClient mockClient = mock(RyaClient.class);
+        when(mockClient.getTuneTables()).thenReturn( java.util.Optional.of(mockTuneTables) );
+
+        final SharedShellState state = new SharedShellState();
+        state.connectedToAccumulo(mock(AccumuloConnectionDetails.class), mockClient);
+        state.connectedToInstance("test_instance");
+
+        // Execute the command.
+        final RyaAdminCommands commands = new RyaAdminCommands(state, mock(InstallPrompt.class), mock(SparqlPrompt.class), mock(UninstallPrompt.class));
+        final String message = commands.tuneTables(10, "/tmp/sample.nt");
+
+        // Verify the request was forwarded to the client with the detected sample format.
+        verify(mockTuneTables).tuneTables(eq("test_instance"), eq(10), eq(java.util.Optional.of(Paths.get("/tmp/sample.nt"))), eq(java.util.Optional.of(RDFFormat.NTRIPLES)));
+        assertEquals("The tables of the Rya instance named 'test_instance' have been tuned.", message);
+    }
+
+    @Test
+    public void tuneTables_noSample() throws Exception {
+        // Mock the object that performs the Tune Tables command.
+        final TuneTables mockTuneTables = mock(TuneTables.class);
+
+        final RyaClient mockClient = mock(RyaClient.class);
+        when(mockClient.getTuneTables()).thenReturn( java.util.Optional.of(mockTuneTables) );
+
+        final SharedShellState state = new SharedShellState();
+        state.connectedToAccumulo(mock(AccumuloConnectionDetails.class), mockClient);
+        state.connectedToInstance("test_instance");
+
+        // Execute the command.
+        final RyaAdminCommands commands = new RyaAdminCommands(state, mock(InstallPrompt.class), mock(SparqlPrompt.class), mock(UninstallPrompt.class));
+        commands.tuneTables(0, null);
+
+        // Verify the request was forwarded to the client without a sample.
+        verify(mockTuneTables).tuneTables(eq("test_instance"), eq(0), eq(java.util.Optional.empty()), eq(java.util.Optional.empty()));
+    }
+
     @Test
     public void uninstall_yes() throws Exception {
         // Mock the object that performs the Uninstall command.
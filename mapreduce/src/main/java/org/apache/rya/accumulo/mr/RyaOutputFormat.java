@@ -53,6 +53,7 @@ import org.apache.rya.api.RdfCloudTripleStoreConstants;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.rya.api.resolver.RyaTripleContext;
@@ -85,6 +86,7 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
     private static final String ENABLE_ENTITY = PREFIX + ".entity.enable";
     private static final String ENABLE_CORE = PREFIX + ".coretables.enable";
     private static final String OUTPUT_PREFIX_PROPERTY = PREFIX + ".tablePrefix";
+    private static final String OUTPUT_LAYOUT_PROPERTY = PREFIX + ".tableLayout";
     private static final String CV_PROPERTY = PREFIX + ".cv.default";
     private static final String CONTEXT_PROPERTY = PREFIX + ".context";
 
@@ -123,6 +125,16 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
         job.getConfiguration().set(OUTPUT_PREFIX_PROPERTY, prefix);
     }
 
+    /**
+     * Set the layout of the core tables that output will be written to. Defaults to
+     * {@link RyaTableLayout#STRING}.
+     * @param job Job to apply the setting to.
+     * @param layout The layout of the core rya tables that output will be written to.
+     */
+    public static void setTableLayout(final Job job, final RyaTableLayout layout) {
+        job.getConfiguration().set(OUTPUT_LAYOUT_PROPERTY, layout.name());
+    }
+
     /**
      * Set whether the free text index is enabled. Defaults to true.
      * @param job Job to apply the setting to.
@@ -270,6 +282,7 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
             if (tablePrefix != null) {
                 ryaConf.setTablePrefix(tablePrefix);
             }
+            ryaConf.setRyaTableLayout(RyaTableLayout.valueOf(conf.get(OUTPUT_LAYOUT_PROPERTY, RyaTableLayout.STRING.name())));
             ryaConf.setDisplayQueryPlan(false);
             ryaIndexer.setConf(ryaConf);
             ryaIndexer.init();
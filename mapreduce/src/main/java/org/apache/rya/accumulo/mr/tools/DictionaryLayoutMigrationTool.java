@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr.tools;
+
+import java.util.Date;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.rya.accumulo.mr.AbstractAccumuloMRTool;
+import org.apache.rya.accumulo.mr.MRUtils;
+import org.apache.rya.accumulo.mr.RyaOutputFormat;
+import org.apache.rya.api.layout.RyaTableLayout;
+
+/**
+ * Copies the statements of a Rya instance whose core tables use the
+ * {@link RyaTableLayout#STRING} layout into a Rya instance whose core tables
+ * use the {@link RyaTableLayout#DICTIONARY} layout.
+ * <p>
+ * Uses {@link org.apache.rya.accumulo.mr.RyaInputFormat} to read the statements
+ * and {@link RyaOutputFormat} to write them. The writers assign dictionary ids to
+ * the terms of the statements as they are written.
+ * <p>
+ * Expects configuration:
+ * <p>
+ * - Accumulo and Rya configuration parameters as named in {@link MRUtils}
+ *   (username, password, instance name, zookeepers, and Rya prefix). The Rya
+ *   prefix names the instance that is read.
+ * <p>
+ * - The prefix of the instance that is written, named by parameter
+ *   "rdf.dictionary.targetPrefix". It must differ from the Rya prefix.
+ * <p>
+ * Secondary indices are not written; they do not depend on the layout of the
+ * core tables, so the existing indices can be kept.
+ */
+public class DictionaryLayoutMigrationTool extends AbstractAccumuloMRTool implements Tool {
+    public static final String TARGET_PREFIX_PROP = "rdf.dictionary.targetPrefix";
+
+    public static void main(String[] args) {
+        try {
+            ToolRunner.run(new Configuration(), new DictionaryLayoutMigrationTool(), args);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+        init();
+        String targetPrefix = conf.get(TARGET_PREFIX_PROP);
+        if (targetPrefix == null || targetPrefix.equals(tablePrefix)) {
+            System.err.println("The parameter " + TARGET_PREFIX_PROP + " must name a table prefix other than " + tablePrefix);
+            return 1;
+        }
+
+        Job job = Job.getInstance(conf, "Migrate Rya to the dictionary table layout");
+        job.setJarByClass(DictionaryLayoutMigrationTool.class);
+
+        setupRyaInput(job);
+        setupRyaOutput(job);
+        RyaOutputFormat.setTablePrefix(job, targetPrefix);
+        RyaOutputFormat.setTableLayout(job, RyaTableLayout.DICTIONARY);
+        RyaOutputFormat.setFreeTextEnabled(job, false);
+        RyaOutputFormat.setTemporalEnabled(job, false);
+        RyaOutputFormat.setEntityEnabled(job, false);
+
+        job.setMapperClass(Mapper.class);
+        job.setNumReduceTasks(0);
+
+        Date startTime = new Date();
+        System.out.println("Job started: " + startTime);
+        int exitCode = job.waitForCompletion(true) ? 0 : 1;
+
+        if (exitCode == 0) {
+            Date end_time = new Date();
+            System.out.println("Job ended: " + end_time);
+            System.out.println("The job took "
+                    + (end_time.getTime() - startTime.getTime()) / 1000
+                    + " seconds.");
+        } else {
+            System.out.println("Job Failed!!!");
+        }
+        return exitCode;
+    }
+}
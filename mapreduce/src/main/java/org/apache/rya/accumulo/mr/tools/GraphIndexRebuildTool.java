@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr.tools;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.GraphIndexRows;
+import org.apache.rya.accumulo.mr.AbstractAccumuloMRTool;
+import org.apache.rya.accumulo.mr.MRUtils;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+
+/**
+ * Writes every statement of a Rya instance that belongs to a named graph to the
+ * graph index table, so that {@link AccumuloRdfConfiguration#setGraphIndexEnabled(boolean)}
+ * may be turned on for an instance that already holds named graphs.
+ * <p>
+ * Reads the SPO table directly; the row of each graph index entry is derived from
+ * the row and column family of an SPO entry, so the tool works for every table
+ * layout without decoding the statements.
+ * <p>
+ * Expects configuration:
+ * <p>
+ * - Accumulo and Rya configuration parameters as named in {@link MRUtils}
+ *   (username, password, instance name, zookeepers, and Rya prefix).
+ * <p>
+ * Clients should enable the graph index before the tool is run, so statements
+ * written while it runs are indexed as well. Running the tool again is harmless.
+ */
+public class GraphIndexRebuildTool extends AbstractAccumuloMRTool implements Tool {
+
+    public static void main(String[] args) {
+        try {
+            ToolRunner.run(new Configuration(), new GraphIndexRebuildTool(), args);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+        init();
+
+        Job job = Job.getInstance(conf, "Rebuild the Rya graph index");
+        job.setJarByClass(GraphIndexRebuildTool.class);
+
+        setupAccumuloInput(job);
+        AccumuloInputFormat.setInputTableName(job, tablePrefix + RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX);
+        setupAccumuloOutput(job, tablePrefix + RdfCloudTripleStoreConstants.TBL_GRAPH_SUFFIX);
+
+        job.setMapperClass(GraphIndexMapper.class);
+        job.setMapOutputKeyClass(Text.class);
+        job.setMapOutputValueClass(Mutation.class);
+        job.setNumReduceTasks(0);
+
+        Date startTime = new Date();
+        System.out.println("Job started: " + startTime);
+        int exitCode = job.waitForCompletion(true) ? 0 : 1;
+
+        if (exitCode == 0) {
+            Date end_time = new Date();
+            System.out.println("Job ended: " + end_time);
+            System.out.println("The job took "
+                    + (end_time.getTime() - startTime.getTime()) / 1000
+                    + " seconds.");
+        } else {
+            System.out.println("Job Failed!!!");
+        }
+        return exitCode;
+    }
+
+    /**
+     * Reads the SPO table and writes a graph index entry for each entry that has a
+     * named graph.
+     */
+    public static class GraphIndexMapper extends Mapper<Key, Value, Text, Mutation> {
+        @Override
+        protected void map(Key key, Value value, Context context) throws IOException, InterruptedException {
+            byte[] graph = key.getColumnFamilyData().toArray();
+            if (graph.length == 0) {
+                return;
+            }
+            Mutation mutation = new Mutation(GraphIndexRows.toGraphRow(graph, key.getRowData().toArray()));
+            mutation.put(key.getColumnFamily(), key.getColumnQualifier(), key.getColumnVisibilityParsed(),
+                    key.getTimestamp(), value);
+            // A null table name writes to the default table, which is the graph index table.
+            context.write(null, mutation);
+        }
+    }
+}
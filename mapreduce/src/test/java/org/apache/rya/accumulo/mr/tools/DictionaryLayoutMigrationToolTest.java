@@ -0,0 +1,111 @@
+package org.apache.rya.accumulo.mr.tools;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.accumulo.mr.TestUtils;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.layout.RyaTableLayout;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.vocabulary.XMLSchema;
+
+/**
+ * Tests the methods of {@link DictionaryLayoutMigrationTool}.
+ */
+public class DictionaryLayoutMigrationToolTest {
+
+    private static final String USER = "root";
+    private static final String PASSWORD = "";
+    private static final String SOURCE_PREFIX = "src_";
+    private static final String TARGET_PREFIX = "dict_";
+
+    private final String instance = DictionaryLayoutMigrationToolTest.class.getSimpleName() + ".myinstance";
+    private final Authorizations auths = new Authorizations("test_auths");
+    private Connector connector;
+
+    @Before
+    public void setUp() throws Exception {
+        connector = new MockInstance(instance).getConnector(USER, new PasswordToken(PASSWORD));
+        connector.securityOperations().changeUserAuthorizations(USER, auths);
+    }
+
+    @Test
+    public void migratesStatements() throws Exception {
+        final RyaStatement talksTo = new RyaStatement(new RyaURI("urn:alice"), new RyaURI("urn:talksTo"), new RyaURI("urn:bob"));
+        final RyaStatement age = new RyaStatement(new RyaURI("urn:alice"), new RyaURI("urn:age"), new RyaType(XMLSchema.INTEGER, "30"));
+        final RyaStatement name = new RyaStatement(new RyaURI("urn:bob"), new RyaURI("urn:name"), new RyaType("Bob"),
+                new RyaURI("urn:graph"));
+
+        // Write the statements to an instance that uses the string layout.
+        final AccumuloRyaDAO source = new AccumuloRyaDAO();
+        source.setConnector(connector);
+        source.setConf(makeConf(SOURCE_PREFIX, RyaTableLayout.STRING));
+        source.init();
+        try {
+            source.add(Arrays.asList(talksTo, age, name).iterator());
+        } finally {
+            source.destroy();
+        }
+
+        assertEquals(0, runTool(TARGET_PREFIX));
+
+        // The statements may be read from the instance that uses the dictionary layout.
+        TestUtils.verify(connector, makeConf(TARGET_PREFIX, RyaTableLayout.DICTIONARY), talksTo, age, name);
+    }
+
+    @Test
+    public void targetMustDifferFromSource() throws Exception {
+        assertEquals(1, runTool(SOURCE_PREFIX));
+    }
+
+    private int runTool(final String targetPrefix) throws Exception {
+        return ToolRunner.run(new Configuration(), new DictionaryLayoutMigrationTool(), new String[] {
+                "-Dac.mock=true",
+                "-Dac.instance=" + instance,
+                "-Dac.username=" + USER,
+                "-Dac.pwd=" + PASSWORD,
+                "-Dac.auth=" + auths.toString(),
+                "-Drdf.tablePrefix=" + SOURCE_PREFIX,
+                "-D" + DictionaryLayoutMigrationTool.TARGET_PREFIX_PROP + "=" + targetPrefix
+        });
+    }
+
+    private AccumuloRdfConfiguration makeConf(final String prefix, final RyaTableLayout layout) {
+        final AccumuloRdfConfiguration conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix(prefix);
+        conf.setRyaTableLayout(layout);
+        conf.setAuths(auths.toString());
+        return conf;
+    }
+}
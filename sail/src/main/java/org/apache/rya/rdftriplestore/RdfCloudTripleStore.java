@@ -25,6 +25,7 @@ import org.apache.rya.api.persist.RdfEvalStatsDAO;
 import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.joinselect.SelectivityEvalDAO;
+import org.apache.rya.rdftriplestore.cache.QueryResultCache;
 import org.apache.rya.rdftriplestore.inference.InferenceEngine;
 import org.apache.rya.rdftriplestore.namespace.NamespaceManager;
 import org.apache.rya.rdftriplestore.provenance.ProvenanceCollector;
@@ -44,6 +45,7 @@ public class RdfCloudTripleStore<C extends RdfCloudTripleStoreConfiguration> ext
     protected SelectivityEvalDAO<C> selectEvalDAO;
     private NamespaceManager namespaceManager;
     protected ProvenanceCollector provenanceCollector;
+    protected QueryResultCache queryResultCache;
 
     private static final ValueFactory VF = new ValueFactoryImpl();
 
@@ -79,6 +81,10 @@ public class RdfCloudTripleStore<C extends RdfCloudTripleStoreConfiguration> ext
         if (namespaceManager == null) {
             this.namespaceManager = new NamespaceManager(ryaDAO, this.conf);
         }
+
+        if (queryResultCache == null && this.conf.isQueryCacheEnabled()) {
+            this.queryResultCache = new QueryResultCache(this.conf);
+        }
     }
 
     @Override
@@ -94,6 +100,9 @@ public class RdfCloudTripleStore<C extends RdfCloudTripleStoreConfiguration> ext
             if (rdfEvalStatsDAO != null) {
                 rdfEvalStatsDAO.destroy();
             }
+            if (queryResultCache != null) {
+                queryResultCache.close();
+            }
             ryaDAO.destroy();
         } catch (final Exception e) {
             throw new SailException(e);
@@ -166,4 +175,15 @@ public class RdfCloudTripleStore<C extends RdfCloudTripleStoreConfiguration> ext
         this.provenanceCollector = provenanceCollector;
     }
 
+    /**
+     * @return The cache that holds the results of read-only queries, or {@code null} if query results are not cached.
+     */
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    public void setQueryResultCache(final QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
 }
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.hadoop.conf.Configurable;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
@@ -41,7 +42,13 @@ import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.joinselect.SelectivityEvalDAO;
 import org.apache.rya.api.persist.utils.RyaDAOHelper;
+import org.apache.rya.api.query.filter.StatementFilter;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.rdftriplestore.buffer.RyaStatementWriteBuffer;
+import org.apache.rya.rdftriplestore.cache.QueryResultCache;
+import org.apache.rya.rdftriplestore.cache.QueryResultCacheInvalidatingRyaDAO;
+import org.apache.rya.rdftriplestore.cache.QueryResultCacheKey;
+import org.apache.rya.rdftriplestore.evaluation.FilterPushdownVisitor;
 import org.apache.rya.rdftriplestore.evaluation.FilterRangeVisitor;
 import org.apache.rya.rdftriplestore.evaluation.ParallelEvaluationStrategyImpl;
 import org.apache.rya.rdftriplestore.evaluation.QueryJoinOptimizer;
@@ -60,6 +67,7 @@ import org.apache.rya.rdftriplestore.inference.OneOfVisitor;
 import org.apache.rya.rdftriplestore.inference.PropertyChainVisitor;
 import org.apache.rya.rdftriplestore.inference.ReflexivePropertyVisitor;
 import org.apache.rya.rdftriplestore.inference.SameAsVisitor;
+import org.apache.rya.rdftriplestore.inference.SchemaChangeLog;
 import org.apache.rya.rdftriplestore.inference.SomeValuesFromVisitor;
 import org.apache.rya.rdftriplestore.inference.SubClassOfVisitor;
 import org.apache.rya.rdftriplestore.inference.SubPropertyOfVisitor;
@@ -118,6 +126,10 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
 
 
     private ProvenanceCollector provenanceCollector;
+    private QueryResultCache queryResultCache;
+    private RyaStatementWriteBuffer writeBuffer;
+    // The schema statements in the write buffer, recorded with the inference engine once they are written.
+    private final List<Statement> bufferedAdds = new ArrayList<>();
 
     public RdfCloudTripleStoreConnection(final RdfCloudTripleStore<C> sailBase, final C conf, final ValueFactory vf)
             throws SailException {
@@ -137,12 +149,21 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
             checkArgument(store.getRyaDAO().isInitialized());
             checkNotNull(store.getNamespaceManager());
 
-            this.ryaDAO = store.getRyaDAO();
+            this.queryResultCache = store.getQueryResultCache();
+            if (queryResultCache != null) {
+                // Writes made through this connection invalidate the cached results they affect.
+                this.ryaDAO = new QueryResultCacheInvalidatingRyaDAO<>(store.getRyaDAO(), queryResultCache);
+            } else {
+                this.ryaDAO = store.getRyaDAO();
+            }
             this.rdfEvalStatsDAO = store.getRdfEvalStatsDAO();
             this.selectEvalDAO = store.getSelectEvalDAO();
             this.inferenceEngine = store.getInferenceEngine();
             this.namespaceManager = store.getNamespaceManager();
             this.provenanceCollector = store.getProvenanceCollector();
+            if (conf.isWriteBufferEnabled() && writeBuffer == null) {
+                this.writeBuffer = new RyaStatementWriteBuffer(conf.getWriteBufferMaxStatements(), conf.getWriteBufferMaxBytes());
+            }
 
         } catch (final Exception e) {
             throw new SailException(e);
@@ -176,23 +197,65 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
 
                 ryaStatements.add(statement);
             }
-            ryaDAO.add(ryaStatements.iterator());
+
+            if (writeBuffer == null) {
+                ryaDAO.add(ryaStatements.iterator());
+                if (inferenceEngine != null) {
+                    inferenceEngine.recordAdd(subject, predicate, object);
+                }
+            } else {
+                // A schema statement is recorded with the inference engine when it is flushed, so a rollback
+                // does not leave a schema change behind.
+                if (inferenceEngine != null && !SchemaChangeLog.getComponents(predicate, object).isEmpty()) {
+                    bufferedAdds.add(new StatementImpl(subject, predicate, object));
+                }
+                boolean full = false;
+                for (final RyaStatement statement : ryaStatements) {
+                    full |= writeBuffer.add(statement);
+                }
+                if (full) {
+                    flushWriteBuffer();
+                }
+            }
         } catch (final RyaDAOException e) {
             throw new SailException(e);
         }
     }
 
-
-
+    /**
+     * Hands the statements that have been buffered by this connection to the DAO, then records them
+     * with the inference engine. They are not recorded if the DAO fails, because it is not known which
+     * of them were written.
+     */
+    private void flushWriteBuffer() throws SailException {
+        if (writeBuffer != null && !writeBuffer.isEmpty()) {
+            try {
+                writeBuffer.flush(ryaDAO);
+                if (inferenceEngine != null) {
+                    for (final Statement statement : bufferedAdds) {
+                        inferenceEngine.recordAdd(statement.getSubject(), statement.getPredicate(), statement.getObject());
+                    }
+                }
+            } catch (final RyaDAOException e) {
+                throw new SailException(e);
+            } finally {
+                bufferedAdds.clear();
+            }
+        }
+    }
 
     @Override
     protected void clearInternal(final Resource... aresource) throws SailException {
+        flushWriteBuffer();
         try {
             final RyaURI[] graphs = new RyaURI[aresource.length];
             for (int i = 0 ; i < graphs.length ; i++){
                 graphs[i] = RdfToRyaConversions.convertResource(aresource[i]);
             }
             ryaDAO.dropGraph(conf, graphs);
+            if (inferenceEngine != null) {
+                inferenceEngine.recordRemove(null, null);
+            }
         } catch (final RyaDAOException e) {
             throw new SailException(e);
         }
@@ -211,7 +274,15 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
     @Override
     protected void commitInternal() throws SailException {
         verifyIsOpen();
-        //There is no transactional layer
+        //There is no transactional layer, but buffered statements are written when the connection commits.
+        if (writeBuffer != null) {
+            flushWriteBuffer();
+            try {
+                ryaDAO.flush();
+            } catch (final RyaDAOException e) {
+                throw new SailException(e);
+            }
+        }
     }
 
     @Override
@@ -219,6 +290,8 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
             TupleExpr tupleExpr, final Dataset dataset, BindingSet bindings,
             final boolean flag) throws SailException {
         verifyIsOpen();
+        // Queries must see the statements this connection has added.
+        flushWriteBuffer();
         logger.trace("Incoming query model:\n{}", tupleExpr.toString());
         if (provenanceCollector != null){
             try {
@@ -283,6 +356,19 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
             bindings = new QueryBindingSet();
         }
 
+        QueryResultCacheKey cacheKey = null;
+        if (queryResultCache != null) {
+            cacheKey = new QueryResultCacheKey(tupleExpr, dataset, bindings, queryConf.getAuths(), queryConf.isInfer(), flag);
+            try {
+                final CloseableIteration<BindingSet, QueryEvaluationException> cached = queryResultCache.get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            } catch (final QueryEvaluationException e) {
+                logger.warn("Could not read cached query results, evaluating the query instead.", e);
+            }
+        }
+
         if (!(tupleExpr instanceof QueryRoot)) {
             tupleExpr = new QueryRoot(tupleExpr);
         }
@@ -381,6 +467,9 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
 //                tupleExpr.visit(new FilterTimeIndexVisitor(queryConf));
 //                tupleExpr.visit(new PartitionFilterTimeIndexVisitor(queryConf));
             }
+            if (queryConf.isFilterPushdownEnabled()) {
+                tupleExpr.visit(new FilterPushdownVisitor(queryConf));
+            }
             final FilterRangeVisitor rangeVisitor = new FilterRangeVisitor(queryConf);
             tupleExpr.visit(rangeVisitor);
             tupleExpr.visit(rangeVisitor); //this has to be done twice to get replace the statementpatterns with the right ranges
@@ -432,6 +521,9 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
                     strategy.shutdown();
                 }
             };
+            if (cacheKey != null) {
+                return queryResultCache.cache(cacheKey, iterWrap);
+            }
             return iterWrap;
         } catch (final QueryEvaluationException e) {
             throw new SailException(e);
@@ -557,6 +649,7 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
         if (!(subject instanceof URI)) {
             throw new SailException("Subject[" + subject + "] must be URI");
         }
+        flushWriteBuffer();
 
         try {
             if (contexts != null && contexts.length > 0) {
@@ -581,14 +674,25 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
 
                 ryaDAO.delete(statement, conf);
             }
+            if (inferenceEngine != null) {
+                inferenceEngine.recordRemove(predicate, object);
+            }
         } catch (final RyaDAOException e) {
             throw new SailException(e);
         }
     }
 
+    /**
+     * Rya has no transactional layer, so a rollback does not undo writes that
+     * have already reached the DAO. When the write buffer is enabled, the
+     * statements this connection has buffered but not yet flushed are discarded.
+     */
     @Override
     protected void rollbackInternal() throws SailException {
-        //TODO: No transactional layer as of yet
+        if (writeBuffer != null) {
+            writeBuffer.clear();
+            bufferedAdds.clear();
+        }
     }
 
     @Override
@@ -613,6 +717,7 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
 
         private final C conf;
         private final RyaDAO<C> ryaDAO;
+        private final Map<String, C> filteredConfs = new ConcurrentHashMap<>();
 
         public StoreTripleSource(final C conf, final RyaDAO<C> ryaDAO) {
             this.conf = conf;
@@ -633,6 +738,23 @@ public class RdfCloudTripleStoreConnection<C extends RdfCloudTripleStoreConfigur
             return RyaDAOHelper.query(ryaDAO, statements, conf);
         }
 
+        /**
+         * Queries for statements that must also pass a {@link StatementFilter}. The filter is
+         * handed to the DAO through a copy of this source's configuration.
+         */
+        public CloseableIteration<? extends Entry<Statement, BindingSet>, QueryEvaluationException> getStatements(
+                final Collection<Map.Entry<Statement, BindingSet>> statements,
+                final StatementFilter filter) throws QueryEvaluationException {
+            final String serialized = filter.serialize();
+            C filteredConf = filteredConfs.get(serialized);
+            if (filteredConf == null) {
+                filteredConf = (C) conf.clone();
+                filteredConf.setStatementFilter(serialized);
+                filteredConfs.put(serialized, filteredConf);
+            }
+            return RyaDAOHelper.query(ryaDAO, statements, filteredConf);
+        }
+
         @Override
         public ValueFactory getValueFactory() {
             return RdfCloudTripleStoreConstants.VALUE_FACTORY;
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.buffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.persist.RyaDAO;
+import org.apache.rya.api.persist.RyaDAOException;
+
+/**
+ * Holds the statements that have been added through a sail connection until they are handed to a
+ * {@link RyaDAO} as a single batch. The buffer is full once it holds either a maximum number of
+ * statements or statements whose estimated size exceeds a maximum number of bytes, which bounds
+ * the memory a connection may use for writes that have not been flushed.
+ * <p>
+ * This class is not thread safe. Each connection owns its own buffer.
+ */
+public class RyaStatementWriteBuffer {
+
+    /**
+     * A rough estimate of the size of a {@link RyaStatement} and its fields, excluding the characters
+     * of its values.
+     */
+    private static final long STATEMENT_OVERHEAD_BYTES = 256;
+
+    private final int maxStatements;
+    private final long maxBytes;
+    private final List<RyaStatement> statements = new ArrayList<>();
+    private long estimatedBytes = 0;
+
+    /**
+     * Constructs an instance of {@link RyaStatementWriteBuffer}.
+     *
+     * @param maxStatements - The number of statements that fill the buffer. (greater than 0)
+     * @param maxBytes - The estimated size of the statements that fill the buffer. (greater than 0)
+     */
+    public RyaStatementWriteBuffer(final int maxStatements, final long maxBytes) {
+        checkArgument(maxStatements > 0, "maxStatements must be greater than 0");
+        checkArgument(maxBytes > 0, "maxBytes must be greater than 0");
+        this.maxStatements = maxStatements;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param statement - The statement that will be written by the next flush. (not null)
+     * @return {@code true} if the buffer is full and should be flushed.
+     */
+    public boolean add(final RyaStatement statement) {
+        requireNonNull(statement);
+        statements.add(statement);
+        estimatedBytes += estimateSize(statement);
+        return isFull();
+    }
+
+    /**
+     * @return {@code true} if the buffer is full and should be flushed.
+     */
+    public boolean isFull() {
+        return statements.size() >= maxStatements || estimatedBytes >= maxBytes;
+    }
+
+    /**
+     * @return {@code true} if there are no statements waiting to be written.
+     */
+    public boolean isEmpty() {
+        return statements.isEmpty();
+    }
+
+    /**
+     * @return The number of statements waiting to be written.
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * @return The estimated size, in bytes, of the statements waiting to be written.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Hands the buffered statements to a DAO as a single batch and empties the buffer. The buffer is
+     * emptied even if the DAO fails, because it is not known which statements were written.
+     *
+     * @param dao - The DAO the statements are written to. (not null)
+     * @throws RyaDAOException The DAO could not write the statements.
+     */
+    public void flush(final RyaDAO<?> dao) throws RyaDAOException {
+        requireNonNull(dao);
+        if (statements.isEmpty()) {
+            return;
+        }
+        try {
+            dao.add(statements.iterator());
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Discards the buffered statements without writing them.
+     */
+    public void clear() {
+        statements.clear();
+        estimatedBytes = 0;
+    }
+
+    private static long estimateSize(final RyaStatement statement) {
+        long size = STATEMENT_OVERHEAD_BYTES;
+        size += estimateSize(statement.getSubject());
+        size += estimateSize(statement.getPredicate());
+        size += estimateSize(statement.getObject());
+        size += estimateSize(statement.getContext());
+        final byte[] visibility = statement.getColumnVisibility();
+        if (visibility != null) {
+            size += visibility.length;
+        }
+        return size;
+    }
+
+    private static long estimateSize(final RyaType value) {
+        if (value == null || value.getData() == null) {
+            return 0;
+        }
+        // Java strings hold two bytes per character.
+        return 2L * value.getData().length();
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryEvaluationException;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+import info.aduna.iteration.CloseableIteration;
+import info.aduna.iteration.CloseableIteratorIteration;
+
+/**
+ * Caches the results of read-only queries evaluated by the sail so that repeated queries with the
+ * same bindings and authorizations do not have to be evaluated against the backing store again.
+ * <p>
+ * The cache holds at most a configured number of query results and expires them after a configured
+ * time to live. Results are only cached once they have been read to the end. Results that are
+ * larger than {@link RdfCloudTripleStoreConfiguration#getQueryCacheMaxMemoryResults()} are spilled
+ * to a file instead of being held on the heap and results larger than
+ * {@link RdfCloudTripleStoreConfiguration#getQueryCacheMaxResults()} are not cached at all.
+ * <p>
+ * Writers are expected to call {@link #invalidate(String)} for every predicate they write, which
+ * {@link QueryResultCacheInvalidatingRyaDAO} does on their behalf.
+ */
+public class QueryResultCache {
+    private static final Logger log = Logger.getLogger(QueryResultCache.class);
+
+    private final Cache<QueryResultCacheKey, CachedQueryResult> cache;
+    private final int maxMemoryResults;
+    private final long maxResults;
+    private final File spillDir;
+
+    /**
+     * Results that are still being read from the store. They are tracked so a write that happens while
+     * they are being read keeps them out of the cache.
+     */
+    private final Set<CachingIteration> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<CachingIteration, Boolean>());
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong spillCount = new AtomicLong();
+    private final AtomicLong uncachedCount = new AtomicLong();
+
+    /**
+     * Constructs an instance of {@link QueryResultCache} using the query cache settings of a configuration.
+     *
+     * @param conf - The configuration the cache settings are read from. (not null)
+     */
+    public QueryResultCache(final RdfCloudTripleStoreConfiguration conf) {
+        this(conf.getQueryCacheMaxEntries(),
+                conf.getQueryCacheTtlSeconds(),
+                conf.getQueryCacheMaxMemoryResults(),
+                conf.getQueryCacheMaxResults(),
+                conf.getQueryCacheSpillDir() == null ? null : new File(conf.getQueryCacheSpillDir()));
+    }
+
+    /**
+     * Constructs an instance of {@link QueryResultCache}.
+     *
+     * @param maxEntries - The maximum number of query results the cache holds. (&gt; 0)
+     * @param ttlSeconds - How long a result is cached for. 0 means results do not expire. (&gt;= 0)
+     * @param maxMemoryResults - The number of binding sets a result may hold on the heap before it is spilled to disk. (&gt;= 0)
+     * @param maxResults - The number of binding sets a result may hold and still be cached. (&gt; 0)
+     * @param spillDir - The directory results are spilled to, or {@code null} to use the system temporary directory.
+     */
+    public QueryResultCache(final long maxEntries, final long ttlSeconds, final int maxMemoryResults,
+            final long maxResults, final File spillDir) {
+        checkArgument(maxEntries > 0, "maxEntries must be greater than 0");
+        checkArgument(ttlSeconds >= 0, "ttlSeconds must be non negative");
+        checkArgument(maxMemoryResults >= 0, "maxMemoryResults must be non negative");
+        checkArgument(maxResults > 0, "maxResults must be greater than 0");
+
+        this.maxMemoryResults = maxMemoryResults;
+        this.maxResults = maxResults;
+        this.spillDir = spillDir;
+
+        CacheBuilder<QueryResultCacheKey, CachedQueryResult> builder = CacheBuilder.newBuilder()
+                .removalListener(new RemovalListener<QueryResultCacheKey, CachedQueryResult>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<QueryResultCacheKey, CachedQueryResult> notification) {
+                        final CachedQueryResult result = notification.getValue();
+                        if (result != null) {
+                            result.discard();
+                        }
+                    }
+                })
+                .maximumSize(maxEntries)
+                .recordStats();
+        if (ttlSeconds > 0) {
+            builder = builder.expireAfterWrite(ttlSeconds, TimeUnit.SECONDS);
+        }
+        cache = builder.build();
+    }
+
+    /**
+     * Looks up the cached results of a query.
+     *
+     * @param key - Identifies the query. (not null)
+     * @return The cached results, or {@code null} if the query's results are not cached.
+     * @throws QueryEvaluationException The cached results could not be read.
+     */
+    public CloseableIteration<BindingSet, QueryEvaluationException> get(final QueryResultCacheKey key) throws QueryEvaluationException {
+        requireNonNull(key);
+        final CachedQueryResult result = cache.getIfPresent(key);
+        if (result == null) {
+            return null;
+        }
+        log.debug("Query result cache hit.");
+        return result.iterate();
+    }
+
+    /**
+     * Wraps the results of a query that missed the cache. The results are added to the cache once they
+     * have been read to the end, as long as none of the predicates the query reads were written to in
+     * the meantime.
+     *
+     * @param key - Identifies the query. (not null)
+     * @param results - The results of evaluating the query. (not null)
+     * @return An iteration over the same results that populates the cache as it is read.
+     */
+    public CloseableIteration<BindingSet, QueryEvaluationException> cache(final QueryResultCacheKey key,
+            final CloseableIteration<BindingSet, QueryEvaluationException> results) {
+        requireNonNull(key);
+        requireNonNull(results);
+        final CachingIteration iteration = new CachingIteration(key, results);
+        inFlight.add(iteration);
+        return iteration;
+    }
+
+    /**
+     * Removes every cached result that may be changed by a write to a predicate.
+     *
+     * @param predicate - The predicate that was written to, or {@code null} if it is not known.
+     */
+    public void invalidate(final String predicate) {
+        // Abandon the results that are still being read first so none of them can be added to the
+        // cache after the cached results have been cleared.
+        for (final CachingIteration iteration : inFlight) {
+            if (iteration.key.dependsOn(predicate)) {
+                iteration.abandon();
+            }
+        }
+
+        final Iterator<Entry<QueryResultCacheKey, CachedQueryResult>> it = cache.asMap().entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().dependsOn(predicate)) {
+                it.remove();
+                invalidationCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public void invalidateAll() {
+        invalidate(null);
+    }
+
+    /**
+     * @return The number of lookups that found cached results.
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of lookups that did not find cached results.
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * @return The number of results that were removed because the cache was full or they expired.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * @return The number of results that were removed because a predicate they read was written to.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    /**
+     * @return The number of results that were spilled to disk.
+     */
+    public long getSpillCount() {
+        return spillCount.get();
+    }
+
+    /**
+     * @return The number of results that were read to the end but were not cached because they were too
+     *   large or were invalidated while they were being read.
+     */
+    public long getUncachedCount() {
+        return uncachedCount.get();
+    }
+
+    /**
+     * @return The number of results that are currently cached.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes every cached result and deletes any results that were spilled to disk.
+     */
+    public void close() {
+        for (final CachingIteration iteration : inFlight) {
+            iteration.abandon();
+        }
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+    /**
+     * The results of a query that have been read to the end. They are either held on the heap
+     * or in a spill file.
+     */
+    private static final class CachedQueryResult {
+        private final List<BindingSet> results;
+        private final File spillFile;
+        private final long size;
+
+        private CachedQueryResult(final List<BindingSet> results) {
+            this.results = Collections.unmodifiableList(results);
+            this.spillFile = null;
+            this.size = results.size();
+        }
+
+        private CachedQueryResult(final File spillFile, final long size) {
+            this.results = null;
+            this.spillFile = spillFile;
+            this.size = size;
+        }
+
+        public CloseableIteration<BindingSet, QueryEvaluationException> iterate() throws QueryEvaluationException {
+            if (results != null) {
+                return new CloseableIteratorIteration<BindingSet, QueryEvaluationException>(results.iterator());
+            }
+            return new SpillFileIteration(spillFile, size);
+        }
+
+        public void discard() {
+            if (spillFile != null && !spillFile.delete()) {
+                log.warn("Could not delete query cache spill file " + spillFile);
+            }
+        }
+    }
+
+    /**
+     * Reads a result that was spilled to disk.
+     */
+    private static final class SpillFileIteration implements CloseableIteration<BindingSet, QueryEvaluationException> {
+        private final ObjectInputStream in;
+        private final long size;
+        private long read = 0;
+
+        public SpillFileIteration(final File spillFile, final long size) throws QueryEvaluationException {
+            this.size = size;
+            try {
+                in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+            } catch (final IOException e) {
+                throw new QueryEvaluationException("Could not read the cached query result from " + spillFile, e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() throws QueryEvaluationException {
+            return read < size;
+        }
+
+        @Override
+        public BindingSet next() throws QueryEvaluationException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                final BindingSet next = (BindingSet) in.readObject();
+                read++;
+                return next;
+            } catch (IOException | ClassNotFoundException e) {
+                throw new QueryEvaluationException("Could not read the cached query result.", e);
+            }
+        }
+
+        @Override
+        public void remove() throws QueryEvaluationException {
+            throw new UnsupportedOperationException("Cached query results may not be modified.");
+        }
+
+        @Override
+        public void close() throws QueryEvaluationException {
+            try {
+                in.close();
+            } catch (final IOException e) {
+                throw new QueryEvaluationException(e);
+            }
+        }
+    }
+
+    /**
+     * Records the results of a query as they are read and adds them to the cache once the
+     * last result has been read.
+     */
+    private final class CachingIteration implements CloseableIteration<BindingSet, QueryEvaluationException> {
+        private final QueryResultCacheKey key;
+        private final CloseableIteration<BindingSet, QueryEvaluationException> results;
+
+        private List<BindingSet> buffer = new ArrayList<>();
+        private File spillFile = null;
+        private ObjectOutputStream spillStream = null;
+        private long count = 0;
+        private volatile boolean abandoned = false;
+        private boolean finished = false;
+
+        public CachingIteration(final QueryResultCacheKey key, final CloseableIteration<BindingSet, QueryEvaluationException> results) {
+            this.key = key;
+            this.results = results;
+        }
+
+        @Override
+        public boolean hasNext() throws QueryEvaluationException {
+            final boolean hasNext = results.hasNext();
+            if (!hasNext) {
+                finish();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public BindingSet next() throws QueryEvaluationException {
+            final BindingSet next = results.next();
+            record(next);
+            return next;
+        }
+
+        @Override
+        public void remove() throws QueryEvaluationException {
+            results.remove();
+        }
+
+        @Override
+        public void close() throws QueryEvaluationException {
+            try {
+                results.close();
+            } finally {
+                // A result that was closed before it was read to the end is incomplete.
+                if (!finished) {
+                    abandon();
+                }
+                inFlight.remove(this);
+            }
+        }
+
+        private synchronized void record(final BindingSet bindingSet) {
+            if (abandoned) {
+                return;
+            }
+
+            count++;
+            if (count > maxResults) {
+                abandon();
+                return;
+            }
+
+            final BindingSet copy = new QueryBindingSet(bindingSet);
+            try {
+                if (spillStream != null) {
+                    spillStream.writeObject(copy);
+                    // Keep the stream from holding a reference to every binding set it has written.
+                    spillStream.reset();
+                } else {
+                    buffer.add(copy);
+                    if (buffer.size() > maxMemoryResults) {
+                        spill();
+                    }
+                }
+            } catch (final IOException e) {
+                log.warn("Could not spill a query result to disk, it will not be cached.", e);
+                abandon();
+            }
+        }
+
+        private void spill() throws IOException {
+            spillFile = File.createTempFile("rya-query-cache-", ".bin", spillDir);
+            spillFile.deleteOnExit();
+            spillStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+            for (final BindingSet bindingSet : buffer) {
+                spillStream.writeObject(bindingSet);
+            }
+            spillStream.reset();
+            buffer = null;
+            spillCount.incrementAndGet();
+        }
+
+        private synchronized void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            // The result stays in flight until it is in the cache so a concurrent invalidation either
+            // abandons it first or removes it from the cache afterwards.
+            try {
+                if (abandoned) {
+                    uncachedCount.incrementAndGet();
+                    return;
+                }
+
+                if (spillStream != null) {
+                    try {
+                        spillStream.close();
+                    } catch (final IOException e) {
+                        log.warn("Could not spill a query result to disk, it will not be cached.", e);
+                        abandon();
+                        uncachedCount.incrementAndGet();
+                        return;
+                    }
+                    cache.put(key, new CachedQueryResult(spillFile, count));
+                } else {
+                    cache.put(key, new CachedQueryResult(buffer));
+                }
+                spillStream = null;
+                spillFile = null;
+                buffer = null;
+            } finally {
+                inFlight.remove(this);
+            }
+        }
+
+        private synchronized void abandon() {
+            abandoned = true;
+            buffer = null;
+            if (spillStream != null) {
+                try {
+                    spillStream.close();
+                } catch (final IOException e) {
+                    log.debug("Could not close a query cache spill file.", e);
+                }
+                spillStream = null;
+            }
+            if (spillFile != null) {
+                spillFile.delete();
+                spillFile = null;
+            }
+        }
+    }
+}
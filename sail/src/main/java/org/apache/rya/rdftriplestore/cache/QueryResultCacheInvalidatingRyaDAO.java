@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.persist.RyaDAO;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.persist.RyaNamespaceManager;
+import org.apache.rya.api.persist.query.RyaQueryEngine;
+
+/**
+ * A {@link RyaDAO} that invalidates the entries of a {@link QueryResultCache} that read the
+ * predicates of the statements it writes. Every other call is passed through to the wrapped DAO.
+ *
+ * @param <C> The type of configuration used by the wrapped DAO.
+ */
+public class QueryResultCacheInvalidatingRyaDAO<C extends RdfCloudTripleStoreConfiguration> implements RyaDAO<C> {
+
+    private final RyaDAO<C> dao;
+    private final QueryResultCache cache;
+
+    /**
+     * Constructs an instance of {@link QueryResultCacheInvalidatingRyaDAO}.
+     *
+     * @param dao - The DAO that statements are written to. (not null)
+     * @param cache - The cache that is invalidated by writes. (not null)
+     */
+    public QueryResultCacheInvalidatingRyaDAO(final RyaDAO<C> dao, final QueryResultCache cache) {
+        this.dao = requireNonNull(dao);
+        this.cache = requireNonNull(cache);
+    }
+
+    /**
+     * @return The DAO that statements are written to.
+     */
+    public RyaDAO<C> getWrappedDAO() {
+        return dao;
+    }
+
+    @Override
+    public void setConf(final C conf) {
+        dao.setConf(conf);
+    }
+
+    @Override
+    public C getConf() {
+        return dao.getConf();
+    }
+
+    @Override
+    public void init() throws RyaDAOException {
+        dao.init();
+    }
+
+    @Override
+    public boolean isInitialized() throws RyaDAOException {
+        return dao.isInitialized();
+    }
+
+    @Override
+    public void destroy() throws RyaDAOException {
+        dao.destroy();
+    }
+
+    @Override
+    public void add(final RyaStatement statement) throws RyaDAOException {
+        try {
+            dao.add(statement);
+        } finally {
+            invalidate(statement);
+        }
+    }
+
+    @Override
+    public void add(final Iterator<RyaStatement> statementIter) throws RyaDAOException {
+        final PredicateRecordingIterator it = new PredicateRecordingIterator(statementIter);
+        try {
+            dao.add(it);
+        } finally {
+            it.invalidate();
+        }
+    }
+
+    @Override
+    public void delete(final RyaStatement statement, final C conf) throws RyaDAOException {
+        try {
+            dao.delete(statement, conf);
+        } finally {
+            invalidate(statement);
+        }
+    }
+
+    @Override
+    public void dropGraph(final C conf, final RyaURI... graphs) throws RyaDAOException {
+        try {
+            dao.dropGraph(conf, graphs);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void delete(final Iterator<RyaStatement> statements, final C conf) throws RyaDAOException {
+        final PredicateRecordingIterator it = new PredicateRecordingIterator(statements);
+        try {
+            dao.delete(it, conf);
+        } finally {
+            it.invalidate();
+        }
+    }
+
+    @Override
+    public String getVersion() throws RyaDAOException {
+        return dao.getVersion();
+    }
+
+    @Override
+    public RyaQueryEngine<C> getQueryEngine() {
+        return dao.getQueryEngine();
+    }
+
+    @Override
+    public RyaNamespaceManager<C> getNamespaceManager() {
+        return dao.getNamespaceManager();
+    }
+
+    @Override
+    public void purge(final RdfCloudTripleStoreConfiguration configuration) {
+        try {
+            dao.purge(configuration);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void dropAndDestroy() throws RyaDAOException {
+        try {
+            dao.dropAndDestroy();
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void flush() throws RyaDAOException {
+        dao.flush();
+    }
+
+    private void invalidate(final RyaStatement statement) {
+        final RyaURI predicate = statement.getPredicate();
+        cache.invalidate(predicate == null ? null : predicate.getData());
+    }
+
+    /**
+     * Remembers the predicates of the statements that have been handed to the wrapped DAO.
+     */
+    private final class PredicateRecordingIterator implements Iterator<RyaStatement> {
+        private final Iterator<RyaStatement> statements;
+        private final Set<String> predicates = new HashSet<>();
+        private boolean unknownPredicate = false;
+
+        public PredicateRecordingIterator(final Iterator<RyaStatement> statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return statements.hasNext();
+        }
+
+        @Override
+        public RyaStatement next() {
+            final RyaStatement statement = statements.next();
+            final RyaURI predicate = statement.getPredicate();
+            if (predicate == null) {
+                unknownPredicate = true;
+            } else {
+                predicates.add(predicate.getData());
+            }
+            return statement;
+        }
+
+        @Override
+        public void remove() {
+            statements.remove();
+        }
+
+        public void invalidate() {
+            if (unknownPredicate) {
+                cache.invalidateAll();
+            } else {
+                for (final String predicate : predicates) {
+                    cache.invalidate(predicate);
+                }
+            }
+        }
+    }
+}
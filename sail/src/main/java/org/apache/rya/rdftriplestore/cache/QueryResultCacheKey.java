@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.openrdf.query.Binding;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.Dataset;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.TupleExpr;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.helpers.StatementPatternCollector;
+
+/**
+ * Identifies a query in the {@link QueryResultCache}. Two keys are equal when they were created from
+ * the same query algebra, dataset, bindings, authorizations and inference settings.
+ * <p>
+ * The query algebra is normalized by rendering the parsed model, so queries that only differ in
+ * whitespace, prefix declarations or variable formatting share a key.
+ * <p>
+ * A key also records which predicates the query reads so cached results can be invalidated when
+ * those predicates are written to. A query that contains a statement pattern with an unbound
+ * predicate, or that is evaluated with inferencing enabled, depends on every predicate.
+ */
+public class QueryResultCacheKey {
+
+    private final String key;
+    private final int hashCode;
+    private final boolean dependsOnAllPredicates;
+    private final Set<String> predicates;
+
+    /**
+     * Constructs an instance of {@link QueryResultCacheKey}.
+     *
+     * @param query - The query algebra before it has been optimized. (not null)
+     * @param dataset - The dataset the query is evaluated against. (may be null)
+     * @param bindings - The bindings supplied with the query. (may be null)
+     * @param auths - The authorizations the query is evaluated with. (not null)
+     * @param infer - Whether inferencing is enabled for the query.
+     * @param includeInferred - Whether inferred statements are included in the results.
+     */
+    public QueryResultCacheKey(final TupleExpr query, final Dataset dataset, final BindingSet bindings,
+            final String[] auths, final boolean infer, final boolean includeInferred) {
+        requireNonNull(query);
+        requireNonNull(auths);
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append(query.toString()).append('\u0000');
+        builder.append(dataset == null ? "" : dataset.toString()).append('\u0000');
+
+        if (bindings != null) {
+            final TreeMap<String, String> sortedBindings = new TreeMap<>();
+            for (final Binding binding : bindings) {
+                sortedBindings.put(binding.getName(), String.valueOf(binding.getValue()));
+            }
+            builder.append(sortedBindings).append('\u0000');
+        }
+
+        final String[] sortedAuths = auths.clone();
+        Arrays.sort(sortedAuths);
+        builder.append(Arrays.toString(sortedAuths)).append('\u0000');
+        builder.append(infer).append('\u0000').append(includeInferred);
+
+        key = builder.toString();
+        hashCode = key.hashCode();
+
+        boolean allPredicates = infer;
+        final Set<String> preds = new HashSet<>();
+        for (final StatementPattern pattern : StatementPatternCollector.process(query)) {
+            final Var predVar = pattern.getPredicateVar();
+            if (predVar == null || !predVar.hasValue()) {
+                allPredicates = true;
+            } else {
+                preds.add(predVar.getValue().stringValue());
+            }
+        }
+        dependsOnAllPredicates = allPredicates;
+        predicates = Collections.unmodifiableSet(preds);
+    }
+
+    /**
+     * @param predicate - A predicate that has been written to, or {@code null} if the predicate is not known.
+     * @return {@code true} if the results of this query may be changed by a write to {@code predicate}.
+     */
+    public boolean dependsOn(final String predicate) {
+        return predicate == null || dependsOnAllPredicates || predicates.contains(predicate);
+    }
+
+    /**
+     * @return The predicates that appear as constants within the query.
+     */
+    public Set<String> getPredicates() {
+        return predicates;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof QueryResultCacheKey) {
+            final QueryResultCacheKey other = (QueryResultCacheKey) o;
+            return hashCode == other.hashCode && key.equals(other.key);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.evaluation;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.domain.RangeValue;
+import org.apache.rya.api.query.filter.StatementFilter.Condition;
+import org.apache.rya.api.query.filter.StatementFilter.Kind;
+import org.apache.rya.api.query.filter.StatementFilter.Position;
+import org.apache.rya.rdftriplestore.utils.FilteredStatementPattern;
+import org.openrdf.model.BNode;
+import org.openrdf.model.Literal;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.LiteralImpl;
+import org.openrdf.model.vocabulary.FN;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.algebra.Compare;
+import org.openrdf.query.algebra.Compare.CompareOp;
+import org.openrdf.query.algebra.Datatype;
+import org.openrdf.query.algebra.Filter;
+import org.openrdf.query.algebra.FunctionCall;
+import org.openrdf.query.algebra.IsLiteral;
+import org.openrdf.query.algebra.IsURI;
+import org.openrdf.query.algebra.Lang;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.Str;
+import org.openrdf.query.algebra.TupleExpr;
+import org.openrdf.query.algebra.ValueConstant;
+import org.openrdf.query.algebra.ValueExpr;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.helpers.QueryModelVisitorBase;
+
+/**
+ * Pushes simple FILTER conditions down into the statement pattern they filter. A condition is
+ * pushed down when it tests a single variable of the {@link StatementPattern} directly beneath
+ * the {@link Filter} using a comparison against a constant, {@code isIRI}, {@code isLiteral},
+ * {@code lang}, {@code datatype} or {@code STRSTARTS}. The pattern is replaced with a
+ * {@link FilteredStatementPattern} so the DAO may evaluate the condition where the statements
+ * are stored. The {@link Filter} itself is left in place.
+ * <p>
+ * If {@link RdfCloudTripleStoreConfiguration#isFilterPushdownRangesEnabled()}, numeric
+ * comparisons against the object of a pattern with a constant predicate are also turned into
+ * a {@link RangeValue}, so the PO table only scans the statements within the range.
+ */
+public class FilterPushdownVisitor extends QueryModelVisitorBase<Exception> {
+
+    private final RdfCloudTripleStoreConfiguration conf;
+
+    /**
+     * Constructs an instance of {@link FilterPushdownVisitor}.
+     *
+     * @param conf - Configures which conditions are pushed down. (not null)
+     */
+    public FilterPushdownVisitor(final RdfCloudTripleStoreConfiguration conf) {
+        this.conf = requireNonNull(conf);
+    }
+
+    @Override
+    public void meet(final Filter node) throws Exception {
+        super.meet(node);
+
+        // Split conjunctions are stacked Filters above the pattern.
+        TupleExpr arg = node.getArg();
+        while (arg instanceof Filter) {
+            arg = ((Filter) arg).getArg();
+        }
+        if (!(arg instanceof StatementPattern)) {
+            return;
+        }
+        final StatementPattern pattern = (StatementPattern) arg;
+        if (pattern.getClass() != StatementPattern.class && pattern.getClass() != FilteredStatementPattern.class) {
+            return;
+        }
+
+        final Condition condition = toCondition(node.getCondition(), pattern);
+        if (condition == null) {
+            return;
+        }
+
+        final FilteredStatementPattern filtered;
+        if (pattern instanceof FilteredStatementPattern) {
+            filtered = (FilteredStatementPattern) pattern;
+        } else {
+            filtered = new FilteredStatementPattern(pattern);
+            pattern.replaceWith(filtered);
+        }
+        filtered.addCondition(condition);
+
+        if (conf.isFilterPushdownRangesEnabled()) {
+            pushDownRange(filtered, condition);
+        }
+    }
+
+    private static Condition toCondition(final ValueExpr expr, final StatementPattern pattern) {
+        if (expr instanceof Compare) {
+            final Compare compare = (Compare) expr;
+            CompareOp op = compare.getOperator();
+            ValueExpr variable = compare.getLeftArg();
+            Value constant = getConstant(compare.getRightArg());
+            if (constant == null) {
+                variable = compare.getRightArg();
+                constant = getConstant(compare.getLeftArg());
+                op = flip(op);
+            }
+            if (constant == null || constant instanceof BNode) {
+                return null;
+            }
+
+            if (variable instanceof Lang) {
+                final Position position = getPosition(((Lang) variable).getArg(), pattern);
+                return position == null || !(constant instanceof Literal) ? null : new Condition(position, Kind.LANG, op, constant);
+            } else if (variable instanceof Datatype) {
+                final Position position = getPosition(((Datatype) variable).getArg(), pattern);
+                return position == null || !(constant instanceof URI) ? null : new Condition(position, Kind.DATATYPE, op, constant);
+            } else {
+                final Position position = getPosition(variable, pattern);
+                return position == null ? null : new Condition(position, Kind.COMPARE, op, constant);
+            }
+        } else if (expr instanceof IsURI) {
+            final Position position = getPosition(((IsURI) expr).getArg(), pattern);
+            return position == null ? null : new Condition(position, Kind.IS_IRI, CompareOp.EQ, new LiteralImpl(""));
+        } else if (expr instanceof IsLiteral) {
+            final Position position = getPosition(((IsLiteral) expr).getArg(), pattern);
+            return position == null ? null : new Condition(position, Kind.IS_LITERAL, CompareOp.EQ, new LiteralImpl(""));
+        } else if (expr instanceof FunctionCall && FN.STARTS_WITH.stringValue().equals(((FunctionCall) expr).getURI())) {
+            final List<ValueExpr> args = ((FunctionCall) expr).getArgs();
+            if (args.size() != 2) {
+                return null;
+            }
+            final Value constant = getConstant(args.get(1));
+            if (!(constant instanceof Literal) || !isSimpleString((Literal) constant)) {
+                return null;
+            }
+            if (args.get(0) instanceof Str) {
+                final Position position = getPosition(((Str) args.get(0)).getArg(), pattern);
+                return position == null ? null : new Condition(position, Kind.STR_STRSTARTS, CompareOp.EQ, constant);
+            }
+            final Position position = getPosition(args.get(0), pattern);
+            return position == null ? null : new Condition(position, Kind.STRSTARTS, CompareOp.EQ, constant);
+        }
+        return null;
+    }
+
+    /**
+     * @return The position of the pattern that an unbound variable appears in, or {@code null}
+     *   if the expression is not such a variable.
+     */
+    private static Position getPosition(final ValueExpr expr, final StatementPattern pattern) {
+        if (!(expr instanceof Var) || ((Var) expr).hasValue()) {
+            return null;
+        }
+        final String name = ((Var) expr).getName();
+        if (matches(pattern.getSubjectVar(), name)) {
+            return Position.SUBJECT;
+        } else if (matches(pattern.getPredicateVar(), name)) {
+            return Position.PREDICATE;
+        } else if (matches(pattern.getObjectVar(), name)) {
+            return Position.OBJECT;
+        }
+        return null;
+    }
+
+    private static boolean matches(final Var var, final String name) {
+        return var != null && !var.hasValue() && var.getName().equals(name);
+    }
+
+    private static Value getConstant(final ValueExpr expr) {
+        if (expr instanceof ValueConstant) {
+            return ((ValueConstant) expr).getValue();
+        } else if (expr instanceof Var && ((Var) expr).hasValue()) {
+            return ((Var) expr).getValue();
+        }
+        return null;
+    }
+
+    private static boolean isSimpleString(final Literal literal) {
+        return literal.getLanguage() == null && (literal.getDatatype() == null || XMLSchema.STRING.equals(literal.getDatatype()));
+    }
+
+    private static CompareOp flip(final CompareOp op) {
+        switch (op) {
+        case LT:
+            return CompareOp.GT;
+        case LE:
+            return CompareOp.GE;
+        case GT:
+            return CompareOp.LT;
+        case GE:
+            return CompareOp.LE;
+        default:
+            return op;
+        }
+    }
+
+    /**
+     * Turns a numeric comparison against the object of a pattern into a range of the PO table.
+     * Only datatypes whose serialized form sorts in numeric order are supported.
+     */
+    private static void pushDownRange(final StatementPattern pattern, final Condition condition) {
+        final Var objVar = pattern.getObjectVar();
+        if (condition.getKind() != Kind.COMPARE || condition.getPosition() != Position.OBJECT ||
+                objVar.hasValue() || !pattern.getPredicateVar().hasValue() ||
+                !(condition.getConstant() instanceof Literal)) {
+            return;
+        }
+
+        final Literal constant = (Literal) condition.getConstant();
+        final Literal min;
+        final Literal max;
+        try {
+            if (XMLSchema.INTEGER.equals(constant.getDatatype())) {
+                Integer.parseInt(constant.getLabel());
+                min = new LiteralImpl(Integer.toString(Integer.MIN_VALUE), XMLSchema.INTEGER);
+                max = new LiteralImpl(Integer.toString(Integer.MAX_VALUE), XMLSchema.INTEGER);
+            } else if (XMLSchema.LONG.equals(constant.getDatatype())) {
+                Long.parseLong(constant.getLabel());
+                min = new LiteralImpl(Long.toString(Long.MIN_VALUE), XMLSchema.LONG);
+                max = new LiteralImpl(Long.toString(Long.MAX_VALUE), XMLSchema.LONG);
+            } else if (XMLSchema.DOUBLE.equals(constant.getDatatype())) {
+                Double.parseDouble(constant.getLabel());
+                min = new LiteralImpl(Double.toString(-Double.MAX_VALUE), XMLSchema.DOUBLE);
+                max = new LiteralImpl(Double.toString(Double.MAX_VALUE), XMLSchema.DOUBLE);
+            } else {
+                return;
+            }
+        } catch (final NumberFormatException e) {
+            return;
+        }
+
+        switch (condition.getOperator()) {
+        case GT:
+        case GE:
+            objVar.setValue(new RangeValue<Value>(constant, max));
+            break;
+        case LT:
+        case LE:
+            objVar.setValue(new RangeValue<Value>(min, constant));
+            break;
+        default:
+            break;
+        }
+    }
+}
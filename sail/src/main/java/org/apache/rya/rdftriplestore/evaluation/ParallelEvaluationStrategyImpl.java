@@ -45,6 +45,7 @@ import org.apache.rya.rdftriplestore.RdfCloudTripleStoreConnection;
 import org.apache.rya.rdftriplestore.RdfCloudTripleStoreConnection.StoreTripleSource;
 import org.apache.rya.rdftriplestore.inference.InferenceEngine;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
+import org.apache.rya.rdftriplestore.utils.FilteredStatementPattern;
 import org.apache.rya.rdftriplestore.utils.FixedStatementPattern;
 import org.apache.rya.rdftriplestore.utils.TransitivePropertySP;
 
@@ -213,7 +214,12 @@ public class ParallelEvaluationStrategyImpl extends EvaluationStrategyImpl {
                 return new EmptyIteration();
             }
 
-            iter = ((RdfCloudTripleStoreConnection.StoreTripleSource) tripleSource).getStatements(stmts);
+            if (sp instanceof FilteredStatementPattern) {
+                iter = ((RdfCloudTripleStoreConnection.StoreTripleSource) tripleSource).getStatements(stmts,
+                        ((FilteredStatementPattern) sp).getFilter());
+            } else {
+                iter = ((RdfCloudTripleStoreConnection.StoreTripleSource) tripleSource).getStatements(stmts);
+            }
         }
         return new ConvertingIteration<Map.Entry<Statement, BindingSet>, BindingSet, QueryEvaluationException>(iter) {
 
@@ -22,6 +22,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -36,6 +38,7 @@ import java.util.TimerTask;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
@@ -47,6 +50,8 @@ import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.utils.RyaDAOHelper;
 import org.apache.rya.api.persist.utils.RyaDaoQueryWrapper;
+import org.apache.rya.rdftriplestore.inference.SchemaChangeLog.Changes;
+import org.apache.rya.rdftriplestore.inference.SchemaChangeLog.SchemaComponent;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -87,22 +92,25 @@ public class InferenceEngine {
     private final AtomicReference<Graph> subClassOfGraph = new AtomicReference<>();
     private final AtomicReference<Graph> subPropertyOfGraph = new AtomicReference<>();
 
-    private final Set<URI> symmetricPropertySet = ConcurrentHashMap.newKeySet();;
-    private final Map<URI, URI> inverseOfMap = new ConcurrentHashMap<>();
-    private final Set<URI> transitivePropertySet = ConcurrentHashMap.newKeySet();;
-    private final Set<URI> reflexivePropertySet = ConcurrentHashMap.newKeySet();;
-    private final Map<URI, Set<URI>> domainByType = new ConcurrentHashMap<>();
-    private final Map<URI, Set<URI>> rangeByType = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<URI, Value>> hasValueByType = new ConcurrentHashMap<>();
-    private final Map<URI, Map<Resource, Value>> hasValueByProperty = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<Resource, URI>> someValuesFromByRestrictionType = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<Resource, URI>> allValuesFromByValueType = new ConcurrentHashMap<>();
-    private final Map<Resource, List<Set<Resource>>> intersections = new ConcurrentHashMap<>();
-    private final Map<Resource, Set<Resource>> enumerations = new ConcurrentHashMap<>();
-    private final Map<URI, List<URI>> propertyChainPropertyToChain = new ConcurrentHashMap<>();
+    // Each refresh builds new maps and sets and swaps them in, so readers never see a half-built view.
+    private volatile Set<URI> symmetricPropertySet = Collections.emptySet();
+    private volatile Map<URI, URI> inverseOfMap = Collections.emptyMap();
+    private volatile Set<URI> transitivePropertySet = Collections.emptySet();
+    private volatile Set<URI> reflexivePropertySet = Collections.emptySet();
+    private volatile Map<URI, Set<URI>> domainByType = Collections.emptyMap();
+    private volatile Map<URI, Set<URI>> rangeByType = Collections.emptyMap();
+    private volatile Map<Resource, Map<URI, Value>> hasValueByType = Collections.emptyMap();
+    private volatile Map<URI, Map<Resource, Value>> hasValueByProperty = Collections.emptyMap();
+    private volatile Map<Resource, Map<Resource, URI>> someValuesFromByRestrictionType = Collections.emptyMap();
+    private volatile Map<Resource, Map<Resource, URI>> allValuesFromByValueType = Collections.emptyMap();
+    private volatile Map<Resource, List<Set<Resource>>> intersections = Collections.emptyMap();
+    private volatile Map<Resource, Set<Resource>> enumerations = Collections.emptyMap();
+    private volatile Map<URI, List<URI>> propertyChainPropertyToChain = Collections.emptyMap();
     // hasSelf maps.
-    private final Map<URI, Set<Resource>> hasSelfByProperty = new ConcurrentHashMap<>();
-    private final Map<Resource, Set<URI>> hasSelfByType = new ConcurrentHashMap<>();
+    private volatile Map<URI, Set<Resource>> hasSelfByProperty = Collections.emptyMap();
+    private volatile Map<Resource, Set<URI>> hasSelfByType = Collections.emptyMap();
+
+    private final SchemaChangeLog schemaChanges = new SchemaChangeLog();
 
     private RyaDAO<?> ryaDAO;
     private RdfCloudTripleStoreConfiguration conf;
@@ -111,6 +119,7 @@ public class InferenceEngine {
     private final AtomicBoolean schedule = new AtomicBoolean(true);
 
     private final AtomicLong refreshGraphSchedule = new AtomicLong(5 * 60 * 1000); //5 min
+    private final AtomicInteger fullRefreshInterval = new AtomicInteger(12); //every hour at the default schedule
     private Timer timer;
 
     public void init() throws InferenceEngineException {
@@ -129,10 +138,20 @@ public class InferenceEngine {
             if (schedule.get()) {
                 timer = new Timer(InferenceEngine.class.getName());
                 timer.scheduleAtFixedRate(new TimerTask() {
+                    private int refreshes = 0;
+
                     @Override
                     public void run() {
                         try {
-                            refreshGraph();
+                            // Every so often the whole schema is rebuilt to pick up writes that
+                            // were not recorded, such as bulk loads that bypass the Sail.
+                            refreshes++;
+                            final int interval = fullRefreshInterval.get();
+                            if (interval > 0 && refreshes % interval == 0) {
+                                refreshGraph();
+                            } else {
+                                refreshSchemaChanges();
+                            }
                         } catch (final InferenceEngineException e) {
                             throw new RuntimeException(e);
                         }
@@ -153,52 +172,221 @@ public class InferenceEngine {
         }
     }
 
+    /**
+     * Rebuilds the whole schema from scans of the store.
+     */
     public void refreshGraph() throws InferenceEngineException {
         refreshLock.lock();
         try {
-            //get all subclassof
-            Graph graph = TinkerGraph.open();
-            addPredicateEdges(RDFS.SUBCLASSOF, Direction.OUT, graph, RDFS.SUBCLASSOF.stringValue());
-            //equivalentClass is the same as subClassOf both ways
-            addPredicateEdges(OWL.EQUIVALENTCLASS, Direction.BOTH, graph, RDFS.SUBCLASSOF.stringValue());
-            // Add unions to the subclass graph
-            addUnions(graph);
-            subClassOfGraph.set(graph);
+            // Changes recorded before the scans start are read by them.
+            schemaChanges.drain();
+            refresh(EnumSet.allOf(SchemaComponent.class));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Brings the schema up to date with the schema statements that have been written through
+     * {@link #recordAdd(Resource, URI, Value)} and {@link #recordRemove(URI, Value)} since the last
+     * refresh. Added hierarchy, inverse and property type statements are applied to copies of the
+     * cached structures. Only the parts of the schema touched by other writes, and the parts
+     * computed from them, are rebuilt from scans.
+     */
+    public void refreshSchemaChanges() throws InferenceEngineException {
+        refreshLock.lock();
+        try {
+            final Changes changes = schemaChanges.drain();
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            final Set<SchemaComponent> stale = EnumSet.noneOf(SchemaComponent.class);
+            for (final SchemaComponent component : changes.getStale()) {
+                stale.addAll(component.withDependents());
+            }
+            applyAdditions(changes.getAdditions(), stale);
+            refresh(stale);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Records a statement that has been added to the store. It is applied to the schema by the
+     * next refresh if it is a schema statement.
+     *
+     * @param subject - The subject of the statement. (not null)
+     * @param predicate - The predicate of the statement. (not null)
+     * @param object - The object of the statement. (not null)
+     */
+    public void recordAdd(final Resource subject, final URI predicate, final Value object) {
+        schemaChanges.recordAdd(subject, predicate, object);
+    }
+
+    /**
+     * Records a pattern of statements that has been removed from the store. The parts of the
+     * schema that it may have changed are rebuilt by the next refresh.
+     *
+     * @param predicate - The predicate of the removed statements, or {@code null} if any predicate matched.
+     * @param object - The object of the removed statements, or {@code null} if any object matched.
+     */
+    public void recordRemove(final URI predicate, final Value object) {
+        schemaChanges.recordRemove(predicate, object);
+    }
+
+    /**
+     * Applies added schema statements to copies of the structures they change, then swaps the
+     * copies in. Statements that can not be applied directly mark their parts of the schema stale.
+     *
+     * @param additions - The added schema statements.
+     * @param stale - The parts of the schema that will be rebuilt. Statements for them are skipped,
+     *   and the parts computed from the changed structures are added.
+     */
+    private void applyAdditions(final List<Statement> additions, final Set<SchemaComponent> stale) {
+        Graph classGraph = null;
+        Graph propertyGraph = null;
+        Map<URI, URI> inverses = null;
+        Set<URI> symmetric = null;
+        Set<URI> transitive = null;
+        Set<URI> reflexive = null;
+
+        // The closure over intersections depends on the whole class hierarchy.
+        if (!intersections.isEmpty()) {
+            for (final Statement st : additions) {
+                if (RDFS.SUBCLASSOF.equals(st.getPredicate()) || OWL.EQUIVALENTCLASS.equals(st.getPredicate())) {
+                    stale.addAll(SchemaComponent.CLASS_HIERARCHY.withDependents());
+                    break;
+                }
+            }
+        }
+
+        final Set<SchemaComponent> changed = EnumSet.noneOf(SchemaComponent.class);
+        for (final Statement st : additions) {
+            final URI predicate = st.getPredicate();
+            final Resource subject = st.getSubject();
+            final Value object = st.getObject();
+            final Set<SchemaComponent> components = SchemaChangeLog.getComponents(predicate, object);
+            final SchemaComponent component = components.iterator().next();
+            if (stale.contains(component)) {
+                continue;
+            }
+            // Any other part of the schema that reads the statement is rebuilt.
+            for (final SchemaComponent other : components) {
+                if (other != component) {
+                    stale.addAll(other.withDependents());
+                }
+            }
+
+            if (component == SchemaComponent.CLASS_HIERARCHY && object instanceof Resource) {
+                classGraph = classGraph == null ? copyGraph(subClassOfGraph.get()) : classGraph;
+                addEdges(classGraph, RDFS.SUBCLASSOF.stringValue(), st, OWL.EQUIVALENTCLASS.equals(predicate));
+            } else if (component == SchemaComponent.PROPERTY_HIERARCHY && object instanceof Resource) {
+                propertyGraph = propertyGraph == null ? copyGraph(subPropertyOfGraph.get()) : propertyGraph;
+                addEdges(propertyGraph, RDFS.SUBPROPERTYOF.stringValue(), st, OWL.EQUIVALENTPROPERTY.equals(predicate));
+            } else if (component == SchemaComponent.INVERSES && subject instanceof URI && object instanceof URI) {
+                inverses = inverses == null ? new HashMap<>(inverseOfMap) : inverses;
+                inverses.put((URI) subject, (URI) object);
+                inverses.put((URI) object, (URI) subject);
+            } else if (component == SchemaComponent.PROPERTY_TYPES && subject instanceof URI) {
+                if (OWL.SYMMETRICPROPERTY.equals(object)) {
+                    symmetric = symmetric == null ? new HashSet<>(symmetricPropertySet) : symmetric;
+                    symmetric.add((URI) subject);
+                } else if (OWL.TRANSITIVEPROPERTY.equals(object)) {
+                    transitive = transitive == null ? new HashSet<>(transitivePropertySet) : transitive;
+                    transitive.add((URI) subject);
+                } else {
+                    reflexive = reflexive == null ? new HashSet<>(reflexivePropertySet) : reflexive;
+                    reflexive.add((URI) subject);
+                }
+            }
+            changed.add(component);
+        }
 
-            graph = TinkerGraph.open();
-            addPredicateEdges(RDFS.SUBPROPERTYOF, Direction.OUT, graph, RDFS.SUBPROPERTYOF.stringValue());
-            //equiv property really is the same as a subPropertyOf both ways
-            addPredicateEdges(OWL.EQUIVALENTPROPERTY, Direction.BOTH, graph, RDFS.SUBPROPERTYOF.stringValue());
-            subPropertyOfGraph.set(graph);
+        if (classGraph != null) {
+            subClassOfGraph.set(classGraph);
+        }
+        if (propertyGraph != null) {
+            subPropertyOfGraph.set(propertyGraph);
+        }
+        if (inverses != null) {
+            inverseOfMap = Collections.unmodifiableMap(inverses);
+        }
+        if (symmetric != null) {
+            symmetricPropertySet = Collections.unmodifiableSet(symmetric);
+        }
+        if (transitive != null) {
+            transitivePropertySet = Collections.unmodifiableSet(transitive);
+        }
+        if (reflexive != null) {
+            reflexivePropertySet = Collections.unmodifiableSet(reflexive);
+        }
 
-            refreshIntersectionOf();
+        // The parts of the schema computed from the changed structures are rebuilt.
+        for (final SchemaComponent component : changed) {
+            final Set<SchemaComponent> dependents = component.withDependents();
+            dependents.remove(component);
+            stale.addAll(dependents);
+        }
+    }
 
-            refreshOneOf();
+    /**
+     * Rebuilds parts of the schema from scans of the store. Each part is built aside and then
+     * swapped in, in an order that lets the later parts read the earlier ones.
+     *
+     * @param components - The parts of the schema to rebuild.
+     */
+    private void refresh(final Set<SchemaComponent> components) throws InferenceEngineException {
+        try {
+            if (components.contains(SchemaComponent.CLASS_HIERARCHY)) {
+                //get all subclassof
+                final Graph graph = TinkerGraph.open();
+                addPredicateEdges(RDFS.SUBCLASSOF, Direction.OUT, graph, RDFS.SUBCLASSOF.stringValue());
+                //equivalentClass is the same as subClassOf both ways
+                addPredicateEdges(OWL.EQUIVALENTCLASS, Direction.BOTH, graph, RDFS.SUBCLASSOF.stringValue());
+                // Add unions to the subclass graph
+                addUnions(graph);
+                final Map<Resource, List<Set<Resource>>> intersectionsPartial = new HashMap<>();
+                refreshIntersectionOf(graph, intersectionsPartial);
+                subClassOfGraph.set(graph);
+                intersections = Collections.unmodifiableMap(intersectionsPartial);
+            }
 
-            synchronized(symmetricPropertySet) {
-                symmetricPropertySet.clear();
-                symmetricPropertySet.addAll(fetchInstances(OWL.SYMMETRICPROPERTY));
+            if (components.contains(SchemaComponent.PROPERTY_HIERARCHY)) {
+                final Graph graph = TinkerGraph.open();
+                addPredicateEdges(RDFS.SUBPROPERTYOF, Direction.OUT, graph, RDFS.SUBPROPERTYOF.stringValue());
+                //equiv property really is the same as a subPropertyOf both ways
+                addPredicateEdges(OWL.EQUIVALENTPROPERTY, Direction.BOTH, graph, RDFS.SUBPROPERTYOF.stringValue());
+                subPropertyOfGraph.set(graph);
             }
-            synchronized(transitivePropertySet) {
-                transitivePropertySet.clear();
-                transitivePropertySet.addAll(fetchInstances(OWL.TRANSITIVEPROPERTY));
+
+            if (components.contains(SchemaComponent.ENUMERATIONS)) {
+                refreshOneOf();
             }
-            synchronized(reflexivePropertySet) {
-                reflexivePropertySet.clear();
-                reflexivePropertySet.addAll(fetchInstances(REFLEXIVE_PROPERTY));
+
+            if (components.contains(SchemaComponent.PROPERTY_TYPES)) {
+                symmetricPropertySet = Collections.unmodifiableSet(fetchInstances(OWL.SYMMETRICPROPERTY));
+                transitivePropertySet = Collections.unmodifiableSet(fetchInstances(OWL.TRANSITIVEPROPERTY));
+                reflexivePropertySet = Collections.unmodifiableSet(fetchInstances(REFLEXIVE_PROPERTY));
             }
 
-            refreshInverseOf();
+            if (components.contains(SchemaComponent.INVERSES)) {
+                refreshInverseOf();
+            }
 
-            refreshPropertyChainPropertyToChain();
+            if (components.contains(SchemaComponent.PROPERTY_CHAINS)) {
+                refreshPropertyChainPropertyToChain();
+            }
 
-            refreshDomainRange();
+            if (components.contains(SchemaComponent.DOMAIN_RANGE)) {
+                refreshDomainRange();
+            }
 
-            refreshPropertyRestrictions();
+            if (components.contains(SchemaComponent.RESTRICTIONS)) {
+                refreshPropertyRestrictions();
+            }
         } catch (final QueryEvaluationException e) {
             throw new InferenceEngineException(e);
-        } finally {
-            refreshLock.unlock();
         }
     }
 
@@ -321,10 +509,7 @@ public class InferenceEngine {
                 iter.close();
             }
         }
-        synchronized(inverseOfMap) {
-            inverseOfMap.clear();
-            inverseOfMap.putAll(invProp);
-        }
+        inverseOfMap = Collections.unmodifiableMap(invProp);
     }
 
     private void refreshPropertyChainPropertyToChain() throws QueryEvaluationException {
@@ -468,10 +653,7 @@ public class InferenceEngine {
             }
         }
 
-        synchronized(propertyChainPropertyToChain) {
-            propertyChainPropertyToChain.clear();
-            propertyChainPropertyToChain.putAll(tempPropertyChainPropertyToChain);
-        }
+        propertyChainPropertyToChain = Collections.unmodifiableMap(tempPropertyChainPropertyToChain);
     }
 
     /**
@@ -628,14 +810,8 @@ public class InferenceEngine {
                 }
             }
         }
-        synchronized(domainByType) {
-            domainByType.clear();
-            domainByType.putAll(domainByTypePartial);
-        }
-        synchronized(rangeByType) {
-            rangeByType.clear();
-            rangeByType.putAll(rangeByTypePartial);
-        }
+        domainByType = domainByTypePartial;
+        rangeByType = rangeByTypePartial;
     }
 
     private void refreshPropertyRestrictions() throws QueryEvaluationException {
@@ -660,8 +836,8 @@ public class InferenceEngine {
     }
 
     private void refreshHasValueRestrictions(final Map<Resource, URI> restrictions) throws QueryEvaluationException {
-        hasValueByType.clear();
-        hasValueByProperty.clear();
+        final Map<Resource, Map<URI, Value>> hasValueByTypePartial = new HashMap<>();
+        final Map<URI, Map<Resource, Value>> hasValueByPropertyPartial = new HashMap<>();
         final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, null, OWL.HASVALUE, null, conf);
         try {
             while (iter.hasNext()) {
@@ -670,14 +846,14 @@ public class InferenceEngine {
                 if (restrictions.containsKey(restrictionClass)) {
                     final URI property = restrictions.get(restrictionClass);
                     final Value value = st.getObject();
-                    if (!hasValueByType.containsKey(restrictionClass)) {
-                        hasValueByType.put(restrictionClass, new HashMap<>());
+                    if (!hasValueByTypePartial.containsKey(restrictionClass)) {
+                        hasValueByTypePartial.put(restrictionClass, new HashMap<>());
                     }
-                    if (!hasValueByProperty.containsKey(property)) {
-                        hasValueByProperty.put(property, new HashMap<>());
+                    if (!hasValueByPropertyPartial.containsKey(property)) {
+                        hasValueByPropertyPartial.put(property, new HashMap<>());
                     }
-                    hasValueByType.get(restrictionClass).put(property, value);
-                    hasValueByProperty.get(property).put(restrictionClass, value);
+                    hasValueByTypePartial.get(restrictionClass).put(property, value);
+                    hasValueByPropertyPartial.get(property).put(restrictionClass, value);
                 }
             }
         } finally {
@@ -685,10 +861,12 @@ public class InferenceEngine {
                 iter.close();
             }
         }
+        hasValueByType = hasValueByTypePartial;
+        hasValueByProperty = hasValueByPropertyPartial;
     }
 
     private void refreshSomeValuesFromRestrictions(final Map<Resource, URI> restrictions) throws QueryEvaluationException {
-        someValuesFromByRestrictionType.clear();
+        final Map<Resource, Map<Resource, URI>> someValuesFromPartial = new HashMap<>();
         ryaDaoQueryWrapper.queryAll(null, OWL.SOMEVALUESFROM, null, new RDFHandlerBase() {
             @Override
             public void handleStatement(final Statement statement) throws RDFHandlerException {
@@ -703,18 +881,19 @@ public class InferenceEngine {
                         valueClasses.addAll(getSubClasses((URI) valueClass));
                     }
                     for (final Resource valueSubClass : valueClasses) {
-                        if (!someValuesFromByRestrictionType.containsKey(restrictionClass)) {
-                            someValuesFromByRestrictionType.put(restrictionClass, new ConcurrentHashMap<>());
+                        if (!someValuesFromPartial.containsKey(restrictionClass)) {
+                            someValuesFromPartial.put(restrictionClass, new ConcurrentHashMap<>());
                         }
-                        someValuesFromByRestrictionType.get(restrictionClass).put(valueSubClass, property);
+                        someValuesFromPartial.get(restrictionClass).put(valueSubClass, property);
                     }
                 }
             }
         });
+        someValuesFromByRestrictionType = someValuesFromPartial;
     }
 
     private void refreshAllValuesFromRestrictions(final Map<Resource, URI> restrictions) throws QueryEvaluationException {
-        allValuesFromByValueType.clear();
+        final Map<Resource, Map<Resource, URI>> allValuesFromPartial = new HashMap<>();
         ryaDaoQueryWrapper.queryAll(null, OWL.ALLVALUESFROM, null, new RDFHandlerBase() {
             @Override
             public void handleStatement(final Statement statement) throws RDFHandlerException {
@@ -729,27 +908,28 @@ public class InferenceEngine {
                         restrictionClasses.addAll(getSubClasses((URI) directRestrictionClass));
                     }
                     for (final Resource restrictionClass : restrictionClasses) {
-                        if (!allValuesFromByValueType.containsKey(valueClass)) {
-                            allValuesFromByValueType.put(valueClass, new ConcurrentHashMap<>());
+                        if (!allValuesFromPartial.containsKey(valueClass)) {
+                            allValuesFromPartial.put(valueClass, new ConcurrentHashMap<>());
                         }
-                        allValuesFromByValueType.get(valueClass).put(restrictionClass, property);
+                        allValuesFromPartial.get(valueClass).put(restrictionClass, property);
                     }
                 }
             }
         });
+        allValuesFromByValueType = allValuesFromPartial;
     }
 
     private void refreshHasSelfRestrictions(final Map<Resource, URI> restrictions) throws QueryEvaluationException {
-        hasSelfByType.clear();
-        hasSelfByProperty.clear();
+        final Map<Resource, Set<URI>> hasSelfByTypePartial = new HashMap<>();
+        final Map<URI, Set<Resource>> hasSelfByPropertyPartial = new HashMap<>();
 
         for(final Resource type : restrictions.keySet()) {
             final URI property = restrictions.get(type);
             final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, type, HAS_SELF, null, conf);
             try {
                 if (iter.hasNext()) {
-                    Set<URI> typeSet = hasSelfByType.get(type);
-                    Set<Resource> propSet = hasSelfByProperty.get(property);
+                    Set<URI> typeSet = hasSelfByTypePartial.get(type);
+                    Set<Resource> propSet = hasSelfByPropertyPartial.get(property);
 
                     if (typeSet == null) {
                         typeSet = new HashSet<>();
@@ -761,8 +941,8 @@ public class InferenceEngine {
                     typeSet.add(property);
                     propSet.add(type);
 
-                    hasSelfByType.put(type, typeSet);
-                    hasSelfByProperty.put(property, propSet);
+                    hasSelfByTypePartial.put(type, typeSet);
+                    hasSelfByPropertyPartial.put(property, propSet);
                 }
             } finally {
                 if (iter != null) {
@@ -770,9 +950,15 @@ public class InferenceEngine {
                 }
             }
         }
+        hasSelfByType = hasSelfByTypePartial;
+        hasSelfByProperty = hasSelfByPropertyPartial;
     }
 
-    private void refreshIntersectionOf() throws QueryEvaluationException {
+    /**
+     * Reads the intersections into a map and adds the subclass relations they imply to a subclass
+     * graph that has not been published yet.
+     */
+    private void refreshIntersectionOf(final Graph graph, final Map<Resource, List<Set<Resource>>> intersectionsPartial) throws QueryEvaluationException {
         final Map<Resource, List<Set<Resource>>> intersectionsProp = new HashMap<>();
 
         // First query for all the owl:intersectionOf's.
@@ -810,7 +996,6 @@ public class InferenceEngine {
             }
         });
 
-        intersections.clear();
         for (final Entry<Resource, List<Set<Resource>>> entry : intersectionsProp.entrySet()) {
             final Resource type = entry.getKey();
             final List<Set<Resource>> intersectionList = entry.getValue();
@@ -825,22 +1010,22 @@ public class InferenceEngine {
                 // :A subclassOf :C
                 // So add each type that's part of the intersection to the
                 // subClassOf graph.
-                addSubClassOf(type, other);
+                addSubClassOf(graph, type, other);
                 for (final Set<Resource> intersection : intersectionList) {
                     if (!intersection.contains(other)) {
-                        addIntersection(intersection, other);
+                        addIntersection(intersectionsPartial, intersection, other);
                     }
                 }
             }
             for (final Set<Resource> intersection : intersectionList) {
-                addIntersection(intersection, type);
+                addIntersection(intersectionsPartial, intersection, type);
             }
         }
         for (final Entry<Resource, List<Set<Resource>>> entry : intersectionsProp.entrySet()) {
             final Resource type = entry.getKey();
             final List<Set<Resource>> intersectionList = entry.getValue();
 
-            final Set<URI> superClasses = getSuperClasses((URI) type);
+            final Set<URI> superClasses = findChildren(graph, (URI) type);
             for (final URI superClass : superClasses) {
                 // Add intersections to super classes if applicable.
                 // IF:
@@ -850,7 +1035,7 @@ public class InferenceEngine {
                 // Then we can infer:
                 // intersectionOf[:B, :C] subclassOf :D
                 for (final Set<Resource> intersection : intersectionList) {
-                    addIntersection(intersection, superClass);
+                    addIntersection(intersectionsPartial, intersection, superClass);
                 }
             }
             // Check if other keys have any of the same intersections and infer
@@ -861,8 +1046,8 @@ public class InferenceEngine {
                 otherKeys.remove(type);
                 for (final Resource otherKey : otherKeys) {
                     if (intersectionsProp.get(otherKey).contains(intersection)) {
-                        addSubClassOf(otherKey, type);
-                        addSubClassOf(type, otherKey);
+                        addSubClassOf(graph, otherKey, type);
+                        addSubClassOf(graph, type, otherKey);
                     }
                 }
             }
@@ -905,10 +1090,7 @@ public class InferenceEngine {
             }
         });
 
-        synchronized(enumerations) {
-            enumerations.clear();
-            enumerations.putAll(enumTypes);
-        }
+        enumerations = Collections.unmodifiableMap(enumTypes);
     }
 
     /**
@@ -1028,14 +1210,14 @@ public class InferenceEngine {
         return list;
     }
 
-    private void addSubClassOf(final Resource s, final Resource o) {
+    private static void addSubClassOf(final Graph graph, final Resource s, final Resource o) {
         final Statement statement = new StatementImpl(s, RDFS.SUBCLASSOF, o);
         final String edgeName = RDFS.SUBCLASSOF.stringValue();
 
-        addStatementEdge(subClassOfGraph.get(), edgeName, statement);
+        addStatementEdge(graph, edgeName, statement);
     }
 
-    private void addIntersection(final Set<Resource> intersection, final Resource type) {
+    private static void addIntersection(final Map<Resource, List<Set<Resource>>> intersections, final Set<Resource> intersection, final Resource type) {
         if (type != null && intersection != null && !intersection.isEmpty()) {
             List<Set<Resource>> intersectionList = intersections.get(type);
             if (intersectionList == null) {
@@ -1056,6 +1238,32 @@ public class InferenceEngine {
         return null;
     }
 
+    /**
+     * Copies the vertices and edges of a graph into a new graph that may be changed without
+     * affecting readers of the original.
+     */
+    private static Graph copyGraph(final Graph graph) {
+        final Graph copy = TinkerGraph.open();
+        if (graph != null) {
+            graph.edges().forEachRemaining(edge -> {
+                final Resource subj = (Resource) edge.outVertex().value(URI_PROP);
+                final Value obj = edge.inVertex().value(URI_PROP);
+                addStatementEdge(copy, edge.label(), new StatementImpl(subj, VF.createURI(edge.label()), obj));
+            });
+        }
+        return copy;
+    }
+
+    /**
+     * Adds the edge of a statement to a graph, and the reverse edge too if the relation is an equivalence.
+     */
+    private static void addEdges(final Graph graph, final String edgeName, final Statement st, final boolean equivalence) {
+        addStatementEdge(graph, edgeName, st);
+        if (equivalence) {
+            addStatementEdge(graph, edgeName, new StatementImpl((Resource) st.getObject(), st.getPredicate(), st.getSubject()));
+        }
+    }
+
     private static void addStatementEdge(final Graph graph, final String edgeName, final Statement st) {
         final Resource subj = st.getSubject();
         Vertex a = getVertex(graph, subj);
@@ -1383,6 +1591,32 @@ public class InferenceEngine {
         this.refreshGraphSchedule.set(refreshGraphSchedule);
     }
 
+    /**
+     * @return The number of scheduled refreshes between rebuilds of the whole schema. The
+     *   refreshes in between only apply recorded schema changes. Not positive if the whole
+     *   schema is never rebuilt by the schedule.
+     */
+    public int getFullRefreshInterval() {
+        return fullRefreshInterval.get();
+    }
+
+    /**
+     * Sets how many scheduled refreshes pass between rebuilds of the whole schema. Defaults to 12,
+     * so with the default schedule of 5 minutes the whole schema is rebuilt once an hour.
+     * <p>
+     * Only schema statements that are written or removed through a Sail connection of this store
+     * are picked up by the refreshes in between. Schema changes written any other way, such as
+     * bulk loads, MapReduce jobs or other Rya clients, may take up to
+     * {@code fullRefreshInterval * refreshGraphSchedule} to appear. Set this to 1 to rebuild the
+     * whole schema on every scheduled refresh.
+     *
+     * @param fullRefreshInterval - The number of scheduled refreshes between rebuilds of the whole
+     *   schema. If it is not positive, the whole schema is never rebuilt by the schedule.
+     */
+    public void setFullRefreshInterval(final int fullRefreshInterval) {
+        this.fullRefreshInterval.set(fullRefreshInterval);
+    }
+
     public Set<URI> getSymmetricPropertySet() {
         return symmetricPropertySet;
     }
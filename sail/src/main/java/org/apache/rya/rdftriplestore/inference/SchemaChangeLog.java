@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.inference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.impl.StatementImpl;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.OWL;
+import org.openrdf.model.vocabulary.RDF;
+import org.openrdf.model.vocabulary.RDFS;
+
+/**
+ * Records the writes of schema statements between refreshes of an {@link InferenceEngine}, so a
+ * refresh only rebuilds the parts of the schema those writes changed.
+ * <p>
+ * Added statements that can be applied directly to the cached schema are kept. Any other write
+ * only marks the parts of the schema that it touches as stale. A write whose predicate is not known
+ * marks every part of the schema as stale.
+ */
+public class SchemaChangeLog {
+
+    /**
+     * The parts of the schema that an {@link InferenceEngine} caches, each rebuilt from its own scans.
+     */
+    public static enum SchemaComponent {
+        /**
+         * The subclass graph, built from subClassOf, equivalentClass, unionOf and intersectionOf.
+         */
+        CLASS_HIERARCHY,
+
+        /**
+         * The subproperty graph, built from subPropertyOf and equivalentProperty.
+         */
+        PROPERTY_HIERARCHY,
+
+        /**
+         * The enumerated types, built from oneOf.
+         */
+        ENUMERATIONS,
+
+        /**
+         * The symmetric, transitive and reflexive properties.
+         */
+        PROPERTY_TYPES,
+
+        /**
+         * The inverse properties.
+         */
+        INVERSES,
+
+        /**
+         * The property chains, built from propertyChainAxiom.
+         */
+        PROPERTY_CHAINS,
+
+        /**
+         * The domains and ranges, closed over the class and property hierarchies and the inverses.
+         */
+        DOMAIN_RANGE,
+
+        /**
+         * The hasValue, someValuesFrom, allValuesFrom and hasSelf property restrictions.
+         */
+        RESTRICTIONS;
+
+        /**
+         * @return The parts of the schema that are computed from this one, including this one.
+         */
+        public Set<SchemaComponent> withDependents() {
+            switch (this) {
+            case CLASS_HIERARCHY:
+                return EnumSet.of(CLASS_HIERARCHY, DOMAIN_RANGE, RESTRICTIONS);
+            case PROPERTY_HIERARCHY:
+                return EnumSet.of(PROPERTY_HIERARCHY, DOMAIN_RANGE);
+            case INVERSES:
+                return EnumSet.of(INVERSES, DOMAIN_RANGE);
+            default:
+                return EnumSet.of(this);
+            }
+        }
+    }
+
+    static final URI PROPERTY_CHAIN_AXIOM = ValueFactoryImpl.getInstance().createURI(OWL.NAMESPACE, "propertyChainAxiom");
+    static final URI LIST_INDEX = ValueFactoryImpl.getInstance().createURI("http://www.w3.org/2000/10/swap/list#index");
+    static final URI HAS_SELF = ValueFactoryImpl.getInstance().createURI(OWL.NAMESPACE, "hasSelf");
+    static final URI REFLEXIVE_PROPERTY = ValueFactoryImpl.getInstance().createURI(OWL.NAMESPACE, "ReflexiveProperty");
+
+    private final EnumSet<SchemaComponent> stale = EnumSet.noneOf(SchemaComponent.class);
+    private final List<Statement> additions = new ArrayList<>();
+
+    /**
+     * Records a statement that has been added to the store.
+     *
+     * @param subject - The subject of the statement. (not null)
+     * @param predicate - The predicate of the statement. (not null)
+     * @param object - The object of the statement. (not null)
+     */
+    public void recordAdd(final Resource subject, final URI predicate, final Value object) {
+        final Set<SchemaComponent> components = getComponents(predicate, object);
+        if (!components.isEmpty()) {
+            synchronized (this) {
+                if (isDelta(predicate, object)) {
+                    additions.add(new StatementImpl(subject, predicate, object));
+                } else {
+                    stale.addAll(components);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a pattern of statements that has been removed from the store. Removals are never
+     * applied as deltas because the statements may still be stored in other contexts.
+     *
+     * @param predicate - The predicate of the removed statements, or {@code null} if any predicate matched.
+     * @param object - The object of the removed statements, or {@code null} if any object matched.
+     */
+    public void recordRemove(final URI predicate, final Value object) {
+        final Set<SchemaComponent> components = getComponents(predicate, object);
+        if (!components.isEmpty()) {
+            synchronized (this) {
+                stale.addAll(components);
+            }
+        }
+    }
+
+    /**
+     * Takes the changes that have been recorded since the last call, leaving the log empty.
+     *
+     * @return The recorded changes.
+     */
+    public synchronized Changes drain() {
+        final Changes changes = new Changes(EnumSet.copyOf(stale), new ArrayList<>(additions));
+        stale.clear();
+        additions.clear();
+        return changes;
+    }
+
+    /**
+     * @return {@code true} if no changes have been recorded since the last drain.
+     */
+    public synchronized boolean isEmpty() {
+        return stale.isEmpty() && additions.isEmpty();
+    }
+
+    /**
+     * Finds the parts of the schema that statements with a predicate and object are read into.
+     *
+     * @param predicate - The predicate of the statements, or {@code null} if it is not known.
+     * @param object - The object of the statements, or {@code null} if it is not known.
+     * @return The parts of the schema that the statements are read into. Empty if they are not
+     *   schema statements.
+     */
+    public static Set<SchemaComponent> getComponents(final URI predicate, final Value object) {
+        if (predicate == null) {
+            return EnumSet.allOf(SchemaComponent.class);
+        } else if (RDFS.SUBCLASSOF.equals(predicate) || OWL.EQUIVALENTCLASS.equals(predicate)
+                || OWL.UNIONOF.equals(predicate) || OWL.INTERSECTIONOF.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.CLASS_HIERARCHY);
+        } else if (RDFS.SUBPROPERTYOF.equals(predicate) || OWL.EQUIVALENTPROPERTY.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.PROPERTY_HIERARCHY);
+        } else if (OWL.ONEOF.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.ENUMERATIONS);
+        } else if (OWL.INVERSEOF.equals(predicate)) {
+            // Property chains read the inverses of their links.
+            return EnumSet.of(SchemaComponent.INVERSES, SchemaComponent.PROPERTY_CHAINS);
+        } else if (PROPERTY_CHAIN_AXIOM.equals(predicate) || LIST_INDEX.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.PROPERTY_CHAINS);
+        } else if (RDFS.DOMAIN.equals(predicate) || RDFS.RANGE.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.DOMAIN_RANGE);
+        } else if (OWL.ONPROPERTY.equals(predicate) || OWL.HASVALUE.equals(predicate) || OWL.SOMEVALUESFROM.equals(predicate)
+                || OWL.ALLVALUESFROM.equals(predicate) || HAS_SELF.equals(predicate)) {
+            return EnumSet.of(SchemaComponent.RESTRICTIONS);
+        } else if (RDF.FIRST.equals(predicate) || RDF.REST.equals(predicate)) {
+            // Lists are read by unions, intersections, enumerations and property chains.
+            return EnumSet.of(SchemaComponent.CLASS_HIERARCHY, SchemaComponent.ENUMERATIONS, SchemaComponent.PROPERTY_CHAINS);
+        } else if (RDF.TYPE.equals(predicate)) {
+            if (object == null || OWL.SYMMETRICPROPERTY.equals(object) || OWL.TRANSITIVEPROPERTY.equals(object)
+                    || REFLEXIVE_PROPERTY.equals(object)) {
+                return EnumSet.of(SchemaComponent.PROPERTY_TYPES);
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return {@code true} if an added statement can be applied to the cached schema without a scan.
+     */
+    static boolean isDelta(final URI predicate, final Value object) {
+        return RDFS.SUBCLASSOF.equals(predicate) || OWL.EQUIVALENTCLASS.equals(predicate)
+                || RDFS.SUBPROPERTYOF.equals(predicate) || OWL.EQUIVALENTPROPERTY.equals(predicate)
+                || OWL.INVERSEOF.equals(predicate) || RDF.TYPE.equals(predicate);
+    }
+
+    /**
+     * The changes that were recorded between two refreshes.
+     */
+    public static class Changes {
+        private final Set<SchemaComponent> stale;
+        private final List<Statement> additions;
+
+        private Changes(final Set<SchemaComponent> stale, final List<Statement> additions) {
+            this.stale = stale;
+            this.additions = additions;
+        }
+
+        /**
+         * @return The parts of the schema that must be rebuilt from scans.
+         */
+        public Set<SchemaComponent> getStale() {
+            return stale;
+        }
+
+        /**
+         * @return The added statements that may be applied to the cached schema directly.
+         */
+        public List<Statement> getAdditions() {
+            return additions;
+        }
+
+        /**
+         * @return {@code true} if there are no changes.
+         */
+        public boolean isEmpty() {
+            return stale.isEmpty() && additions.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.rya.api.query.filter.StatementFilter;
+import org.apache.rya.api.query.filter.StatementFilter.Condition;
+import org.openrdf.query.algebra.StatementPattern;
+
+/**
+ * A {@link StatementPattern} whose statements must pass a {@link StatementFilter}. The filter is
+ * evaluated where the statements are stored, if the DAO supports it. The FILTER it was derived
+ * from is left in the query, so DAOs that ignore it still return correct results.
+ */
+public class FilteredStatementPattern extends StatementPattern {
+
+    private List<Condition> conditions = new ArrayList<>();
+
+    public FilteredStatementPattern() {
+    }
+
+    /**
+     * Constructs a filtered copy of a statement pattern.
+     *
+     * @param pattern - The pattern whose statements are filtered. (not null)
+     */
+    public FilteredStatementPattern(final StatementPattern pattern) {
+        super(pattern.getScope(),
+                pattern.getSubjectVar().clone(),
+                pattern.getPredicateVar().clone(),
+                pattern.getObjectVar().clone(),
+                pattern.getContextVar() == null ? null : pattern.getContextVar().clone());
+    }
+
+    /**
+     * @param condition - A condition the statements of this pattern must also pass. (not null)
+     */
+    public void addCondition(final Condition condition) {
+        conditions.add(condition);
+    }
+
+    /**
+     * @return The filter the statements of this pattern must pass.
+     */
+    public StatementFilter getFilter() {
+        return new StatementFilter(conditions);
+    }
+
+    @Override
+    public String getSignature() {
+        return super.getSignature() + " " + conditions;
+    }
+
+    @Override
+    public FilteredStatementPattern clone() {
+        final FilteredStatementPattern clone = (FilteredStatementPattern) super.clone();
+        clone.conditions = new ArrayList<>(conditions);
+        return clone;
+    }
+}
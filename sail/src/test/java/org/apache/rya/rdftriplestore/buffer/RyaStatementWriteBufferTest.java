@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+
+import info.aduna.iteration.CloseableIteration;
+
+/**
+ * Tests the methods of {@link RyaStatementWriteBuffer} and how the sail connection uses it.
+ */
+public class RyaStatementWriteBufferTest {
+    private static final RyaURI LIKES = new RyaURI("urn:likes");
+
+    private final ValueFactory vf = new ValueFactoryImpl();
+    private AccumuloRyaDAO dao;
+    private AccumuloRdfConfiguration conf;
+    private SailRepository repository;
+    private SailRepositoryConnection conn;
+
+    @Before
+    public void setUp() throws Exception {
+        final Connector connector = new MockInstance().getConnector("", new PasswordToken(""));
+        conf = new AccumuloRdfConfiguration();
+        conf.setWriteBufferEnabled(true);
+        conf.setWriteBufferMaxStatements(3);
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+        final RdfCloudTripleStore store = new RdfCloudTripleStore();
+        store.setConf(conf);
+        store.setRyaDAO(dao);
+        repository = new SailRepository(store);
+        repository.initialize();
+        conn = repository.getConnection();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        conn.close();
+        repository.shutDown();
+        dao.purge(conf);
+        dao.destroy();
+    }
+
+    @Test
+    public void fullWhenMaxStatementsReached() {
+        final RyaStatementWriteBuffer buffer = new RyaStatementWriteBuffer(2, Long.MAX_VALUE);
+        assertFalse(buffer.add(new RyaStatement(new RyaURI("urn:alice"), LIKES, new RyaURI("urn:icecream"))));
+        assertTrue(buffer.add(new RyaStatement(new RyaURI("urn:bob"), LIKES, new RyaURI("urn:icecream"))));
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.getEstimatedBytes());
+    }
+
+    @Test
+    public void fullWhenMaxBytesReached() {
+        final RyaStatementWriteBuffer buffer = new RyaStatementWriteBuffer(Integer.MAX_VALUE, 1);
+        assertTrue(buffer.add(new RyaStatement(new RyaURI("urn:alice"), LIKES, new RyaURI("urn:icecream"))));
+    }
+
+    @Test
+    public void writtenOnCommit() throws Exception {
+        conn.begin();
+        conn.add(vf.createURI("urn:alice"), vf.createURI(LIKES.getData()), vf.createURI("urn:icecream"));
+        conn.add(vf.createURI("urn:bob"), vf.createURI(LIKES.getData()), vf.createURI("urn:icecream"));
+        assertEquals(0, countLikes());
+
+        conn.commit();
+        assertEquals(2, countLikes());
+    }
+
+    @Test
+    public void writtenWhenFull() throws Exception {
+        conn.begin();
+        for (int i = 0; i < 4; i++) {
+            conn.add(vf.createURI("urn:person" + i), vf.createURI(LIKES.getData()), vf.createURI("urn:icecream"));
+        }
+        assertEquals(3, countLikes());
+        conn.commit();
+        assertEquals(4, countLikes());
+    }
+
+    @Test
+    public void discardedOnRollback() throws Exception {
+        conn.begin();
+        conn.add(vf.createURI("urn:alice"), vf.createURI(LIKES.getData()), vf.createURI("urn:icecream"));
+        conn.rollback();
+        assertEquals(0, countLikes());
+    }
+
+    @Test
+    public void queriesSeeBufferedStatements() throws Exception {
+        conn.begin();
+        conn.add(vf.createURI("urn:alice"), vf.createURI(LIKES.getData()), vf.createURI("urn:icecream"));
+
+        final TupleQueryResult result = conn.prepareTupleQuery(QueryLanguage.SPARQL,
+                "SELECT ?s WHERE { ?s <urn:likes> <urn:icecream> . }").evaluate();
+        assertTrue(result.hasNext());
+        result.close();
+        conn.commit();
+    }
+
+    private int countLikes() throws RyaDAOException {
+        int count = 0;
+        final CloseableIteration<RyaStatement, RyaDAOException> it =
+                dao.getQueryEngine().query(new RyaStatement(null, LIKES, null), conf);
+        try {
+            while (it.hasNext()) {
+                it.next();
+                count++;
+            }
+        } finally {
+            it.close();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.cache;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQuery;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+
+/**
+ * Tests the methods of {@link QueryResultCache} through the sail.
+ */
+public class QueryResultCacheTest {
+    private static final String QUERY = "SELECT ?s WHERE { ?s <urn:likes> <urn:icecream> . }";
+
+    private final ValueFactory vf = new ValueFactoryImpl();
+    private AccumuloRyaDAO dao;
+    private AccumuloRdfConfiguration conf;
+    private RdfCloudTripleStore store;
+    private SailRepository repository;
+    private SailRepositoryConnection conn;
+
+    @Before
+    public void setUp() throws Exception {
+        final Connector connector = new MockInstance().getConnector("", new PasswordToken(""));
+        conf = new AccumuloRdfConfiguration();
+        conf.setQueryCacheEnabled(true);
+        conf.setQueryCacheMaxMemoryResults(1);
+        dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+        store = new RdfCloudTripleStore();
+        store.setConf(conf);
+        store.setRyaDAO(dao);
+        repository = new SailRepository(store);
+        repository.initialize();
+        conn = repository.getConnection();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        conn.close();
+        repository.shutDown();
+        dao.purge(conf);
+        dao.destroy();
+    }
+
+    @Test
+    public void repeatedQueryHitsCache() throws Exception {
+        conn.add(vf.createURI("urn:alice"), vf.createURI("urn:likes"), vf.createURI("urn:icecream"));
+        conn.add(vf.createURI("urn:bob"), vf.createURI("urn:likes"), vf.createURI("urn:icecream"));
+
+        final QueryResultCache cache = store.getQueryResultCache();
+        final Set<String> expected = new HashSet<>();
+        expected.add("urn:alice");
+        expected.add("urn:bob");
+
+        assertEquals(expected, evaluate());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        // The second result is read from the cache. It holds more than one result, so it was spilled.
+        assertEquals(expected, evaluate());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getSpillCount());
+    }
+
+    @Test
+    public void writeToReadPredicateInvalidates() throws Exception {
+        conn.add(vf.createURI("urn:alice"), vf.createURI("urn:likes"), vf.createURI("urn:icecream"));
+        evaluate();
+
+        final QueryResultCache cache = store.getQueryResultCache();
+        assertEquals(1, cache.size());
+
+        // A predicate the query does not read leaves the cached result alone.
+        conn.add(vf.createURI("urn:alice"), vf.createURI("urn:age"), vf.createLiteral(30));
+        assertEquals(1, cache.size());
+
+        conn.add(vf.createURI("urn:charlie"), vf.createURI("urn:likes"), vf.createURI("urn:icecream"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getInvalidationCount());
+
+        final Set<String> expected = new HashSet<>();
+        expected.add("urn:alice");
+        expected.add("urn:charlie");
+        assertEquals(expected, evaluate());
+    }
+
+    @Test
+    public void differentInferenceSettingsDoNotShareResults() throws Exception {
+        conn.add(vf.createURI("urn:alice"), vf.createURI("urn:likes"), vf.createURI("urn:icecream"));
+        evaluate();
+
+        final TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, QUERY);
+        query.setBinding(AccumuloRdfConfiguration.CONF_INFER, vf.createLiteral(true));
+        final TupleQueryResult result = query.evaluate();
+        while (result.hasNext()) {
+            result.next();
+        }
+        result.close();
+
+        final QueryResultCache cache = store.getQueryResultCache();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    private Set<String> evaluate() throws Exception {
+        final Set<String> subjects = new HashSet<>();
+        final TupleQueryResult result = conn.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate();
+        while (result.hasNext()) {
+            final BindingSet bs = result.next();
+            subjects.add(bs.getValue("s").stringValue());
+        }
+        result.close();
+        return subjects;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.evaluation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.accumulo.query.AccumuloRyaQueryEngine;
+import org.apache.rya.api.domain.RangeValue;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.query.filter.StatementFilter.Condition;
+import org.apache.rya.api.query.filter.StatementFilter.Kind;
+import org.apache.rya.api.query.filter.StatementFilter.Position;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
+import org.apache.rya.rdftriplestore.utils.FilteredStatementPattern;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.XMLSchema;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.query.algebra.Compare.CompareOp;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.TupleExpr;
+import org.openrdf.query.algebra.helpers.StatementPatternCollector;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+import org.openrdf.repository.sail.SailRepository;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+
+import info.aduna.iteration.CloseableIteration;
+import info.aduna.iteration.IterationWrapper;
+
+/**
+ * Tests the methods of {@link FilterPushdownVisitor}.
+ */
+public class FilterPushdownVisitorTest {
+
+    private final ValueFactory vf = new ValueFactoryImpl();
+
+    @Test
+    public void pushesDownConditions() throws Exception {
+        final String query = "SELECT ?s ?p WHERE { ?s <urn:price> ?p . " +
+                "FILTER(?p > 100) FILTER(isLiteral(?p)) FILTER(STRSTARTS(STR(?s), \"urn:item\")) }";
+        final TupleExpr tupleExpr = new SPARQLParser().parseQuery(query, null).getTupleExpr();
+        tupleExpr.visit(new FilterPushdownVisitor(new AccumuloRdfConfiguration()));
+
+        final List<StatementPattern> patterns = StatementPatternCollector.process(tupleExpr);
+        assertEquals(1, patterns.size());
+        assertTrue(patterns.get(0) instanceof FilteredStatementPattern);
+
+        final List<Condition> conditions = ((FilteredStatementPattern) patterns.get(0)).getFilter().getConditions();
+        assertEquals(3, conditions.size());
+        assertTrue(conditions.contains(new Condition(Position.OBJECT, Kind.COMPARE, CompareOp.GT, vf.createLiteral("100", XMLSchema.INTEGER))));
+        assertTrue(conditions.contains(new Condition(Position.OBJECT, Kind.IS_LITERAL, CompareOp.EQ, vf.createLiteral(""))));
+        assertTrue(conditions.contains(new Condition(Position.SUBJECT, Kind.STR_STRSTARTS, CompareOp.EQ, vf.createLiteral("urn:item"))));
+
+        // Ranges are not pushed down unless they are enabled.
+        assertFalse(patterns.get(0).getObjectVar().hasValue());
+    }
+
+    @Test
+    public void ignoresConditionsOverManyVariables() throws Exception {
+        final String query = "SELECT ?s ?p WHERE { ?s <urn:price> ?p . ?s <urn:cost> ?c . FILTER(?p > ?c) }";
+        final TupleExpr tupleExpr = new SPARQLParser().parseQuery(query, null).getTupleExpr();
+        tupleExpr.visit(new FilterPushdownVisitor(new AccumuloRdfConfiguration()));
+
+        for (final StatementPattern pattern : StatementPatternCollector.process(tupleExpr)) {
+            assertFalse(pattern instanceof FilteredStatementPattern);
+        }
+    }
+
+    @Test
+    public void pushesDownRanges() throws Exception {
+        final AccumuloRdfConfiguration conf = new AccumuloRdfConfiguration();
+        conf.setFilterPushdownRangesEnabled(true);
+
+        final String query = "SELECT ?s ?p WHERE { ?s <urn:price> ?p . FILTER(?p >= 100) }";
+        final TupleExpr tupleExpr = new SPARQLParser().parseQuery(query, null).getTupleExpr();
+        tupleExpr.visit(new FilterPushdownVisitor(conf));
+
+        final StatementPattern pattern = StatementPatternCollector.process(tupleExpr).get(0);
+        assertTrue(pattern.getObjectVar().getValue() instanceof RangeValue);
+        assertEquals(vf.createLiteral("100", XMLSchema.INTEGER), ((RangeValue<?>) pattern.getObjectVar().getValue()).getStart());
+    }
+
+    @Test
+    public void filtersThroughSail() throws Exception {
+        final Connector connector = new MockInstance().getConnector("", new PasswordToken(""));
+        final AccumuloRdfConfiguration conf = new AccumuloRdfConfiguration();
+        final AccumuloRyaDAO dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        dao.init();
+
+        // Counts the statements the scanners return, after the pushed down filter is applied.
+        final AtomicInteger scanned = new AtomicInteger();
+        dao.setQueryEngine(new AccumuloRyaQueryEngine(connector, conf) {
+            @Override
+            public CloseableIteration<? extends Map.Entry<RyaStatement, BindingSet>, RyaDAOException> queryWithBindingSet(
+                    final Collection<Map.Entry<RyaStatement, BindingSet>> stmts, final AccumuloRdfConfiguration queryConf) throws RyaDAOException {
+                return new IterationWrapper<Map.Entry<RyaStatement, BindingSet>, RyaDAOException>(super.queryWithBindingSet(stmts, queryConf)) {
+                    @Override
+                    public Map.Entry<RyaStatement, BindingSet> next() throws RyaDAOException {
+                        scanned.incrementAndGet();
+                        return super.next();
+                    }
+                };
+            }
+        });
+
+        final RdfCloudTripleStore store = new RdfCloudTripleStore();
+        store.setConf(conf);
+        store.setRyaDAO(dao);
+        final SailRepository repository = new SailRepository(store);
+        repository.initialize();
+        final SailRepositoryConnection conn = repository.getConnection();
+        try {
+            conn.add(vf.createURI("urn:item1"), vf.createURI("urn:price"), vf.createLiteral(50));
+            conn.add(vf.createURI("urn:item2"), vf.createURI("urn:price"), vf.createLiteral(150));
+            conn.add(vf.createURI("urn:item3"), vf.createURI("urn:price"), vf.createLiteral(250));
+            conn.add(vf.createURI("urn:item4"), vf.createURI("urn:price"), vf.createLiteral("expensive"));
+
+            final String query = "SELECT ?s WHERE { ?s <urn:price> ?p . FILTER(?p > 100) }";
+            final Set<String> expected = new HashSet<>();
+            expected.add("urn:item2");
+            expected.add("urn:item3");
+            assertEquals(expected, evaluate(conn, query));
+
+            // The prices that fail the filter never leave the tablet servers.
+            assertEquals(2, scanned.get());
+        } finally {
+            conn.close();
+            repository.shutDown();
+            dao.purge(conf);
+            dao.destroy();
+        }
+    }
+
+    private static Set<String> evaluate(final SailRepositoryConnection conn, final String query) throws Exception {
+        final Set<String> subjects = new HashSet<>();
+        final TupleQueryResult result = conn.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate();
+        while (result.hasNext()) {
+            final BindingSet bs = result.next();
+            subjects.add(bs.getValue("s").stringValue());
+        }
+        result.close();
+        return subjects;
+    }
+}
@@ -40,6 +40,7 @@ import org.openrdf.model.URI;
 import org.openrdf.model.Value;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDFS;
 import org.openrdf.query.QueryLanguage;
 import org.openrdf.repository.sail.SailRepository;
 import org.openrdf.repository.sail.SailRepositoryConnection;
@@ -620,4 +621,68 @@ public class InferenceEngineTest extends TestCase {
         Assert.assertTrue(inferenceEngine.isReflexiveProperty(knows));
         Assert.assertTrue(inferenceEngine.isReflexiveProperty(sameAge));
     }
+
+    @Test
+    public void testRefreshSchemaChanges() throws Exception {
+        final URI a = vf.createURI("urn:A");
+        final URI b = vf.createURI("urn:B");
+        final URI p = vf.createURI("urn:p");
+        final URI q = vf.createURI("urn:q");
+        final String insert = "INSERT DATA { GRAPH <http://updated/test> {\n"
+                + "  <urn:A> rdfs:subClassOf <urn:B> . \n"
+                + "  <urn:p> a owl:SymmetricProperty . \n"
+                + "  <urn:p> owl:inverseOf <urn:q> . \n"
+                + "  <urn:q> rdfs:domain <urn:A> . \n"
+                + "}}";
+        conn.prepareUpdate(QueryLanguage.SPARQL, insert).execute();
+        // Nothing is visible until the recorded changes are applied.
+        Assert.assertTrue(inferenceEngine.getSuperClasses(a).isEmpty());
+        inferenceEngine.refreshSchemaChanges();
+        Assert.assertEquals(Sets.newHashSet(b), inferenceEngine.getSuperClasses(a));
+        Assert.assertTrue(inferenceEngine.isSymmetricProperty(p));
+        Assert.assertEquals(q, inferenceEngine.findInverseOf(p));
+        Assert.assertEquals(p, inferenceEngine.findInverseOf(q));
+        // Domain and range are rebuilt from the changed hierarchy and inverses.
+        Assert.assertEquals(Sets.newHashSet(q), inferenceEngine.getPropertiesWithDomain(b));
+        Assert.assertEquals(Sets.newHashSet(p), inferenceEngine.getPropertiesWithRange(b));
+
+        // Removals rebuild the parts of the schema they touch.
+        final String delete = "DELETE DATA { GRAPH <http://updated/test> {\n"
+                + "  <urn:A> rdfs:subClassOf <urn:B> . \n"
+                + "}}";
+        conn.prepareUpdate(QueryLanguage.SPARQL, delete).execute();
+        inferenceEngine.refreshSchemaChanges();
+        Assert.assertTrue(inferenceEngine.getSuperClasses(a).isEmpty());
+        Assert.assertTrue(inferenceEngine.getPropertiesWithDomain(b).isEmpty());
+        Assert.assertEquals(Sets.newHashSet(q), inferenceEngine.getPropertiesWithDomain(a));
+        Assert.assertTrue(inferenceEngine.isSymmetricProperty(p));
+    }
+
+    @Test
+    public void testBufferedSchemaChangesRecordedWhenFlushed() throws Exception {
+        final URI a = vf.createURI("urn:A");
+        final URI b = vf.createURI("urn:B");
+        conf.setWriteBufferEnabled(true);
+        final SailRepositoryConnection bufferedConn = repository.getConnection();
+        try {
+            // A rolled back statement is never recorded.
+            bufferedConn.begin();
+            bufferedConn.add(a, RDFS.SUBCLASSOF, b);
+            bufferedConn.rollback();
+            inferenceEngine.refreshSchemaChanges();
+            Assert.assertTrue(inferenceEngine.getSuperClasses(a).isEmpty());
+
+            // A buffered statement is recorded once it has been written.
+            bufferedConn.begin();
+            bufferedConn.add(a, RDFS.SUBCLASSOF, b);
+            inferenceEngine.refreshSchemaChanges();
+            Assert.assertTrue(inferenceEngine.getSuperClasses(a).isEmpty());
+            bufferedConn.commit();
+            inferenceEngine.refreshSchemaChanges();
+            Assert.assertEquals(Sets.newHashSet(b), inferenceEngine.getSuperClasses(a));
+        } finally {
+            bufferedConn.close();
+            conf.setWriteBufferEnabled(false);
+        }
+    }
 }
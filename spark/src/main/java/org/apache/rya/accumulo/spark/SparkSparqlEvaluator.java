@@ -0,0 +1,484 @@
+package org.apache.rya.accumulo.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.ClientConfiguration;
+import org.apache.accumulo.core.client.ClientConfiguration.ClientProperty;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mapreduce.InputFormatBase;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRdfConstants;
+import org.apache.rya.accumulo.mr.MRUtils;
+import org.apache.rya.accumulo.mr.RyaInputFormat;
+import org.apache.rya.accumulo.mr.RyaStatementWritable;
+import org.apache.rya.accumulo.utils.VisibilitySimplifier;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.domain.RyaURI;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.query.strategy.ByteRange;
+import org.apache.rya.api.query.strategy.TriplePatternStrategy;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.indexing.pcj.storage.accumulo.AccumuloPcjStorage;
+import org.apache.spark.SerializableWritable;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.DataFrame;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SQLContext;
+import org.apache.spark.sql.api.java.UDF2;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.openrdf.model.Resource;
+import org.openrdf.model.Statement;
+import org.openrdf.model.URI;
+import org.openrdf.model.Value;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.MalformedQueryException;
+import org.openrdf.query.algebra.Distinct;
+import org.openrdf.query.algebra.Join;
+import org.openrdf.query.algebra.Projection;
+import org.openrdf.query.algebra.ProjectionElem;
+import org.openrdf.query.algebra.QueryRoot;
+import org.openrdf.query.algebra.Reduced;
+import org.openrdf.query.algebra.StatementPattern;
+import org.openrdf.query.algebra.StatementPattern.Scope;
+import org.openrdf.query.algebra.TupleExpr;
+import org.openrdf.query.algebra.UnaryTupleOperator;
+import org.openrdf.query.algebra.Var;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.query.parser.sparql.SPARQLParser;
+import org.openrdf.rio.ntriples.NTriplesUtil;
+
+import com.google.common.base.Preconditions;
+
+import scala.collection.JavaConversions;
+
+/**
+ * Evaluates SPARQL basic graph patterns over the Rya tables with Spark SQL.
+ * <p>
+ * Each statement pattern is read through {@link RyaInputFormat} as a
+ * DataFrame. Constants in the pattern pick the SPO, PO or OSP table and are
+ * pushed down as an Accumulo range scan, the same way the Rya query engine
+ * picks a range. The patterns are then joined on their shared variables,
+ * leaving Spark to choose between broadcast hash joins and sort-merge joins.
+ * <p>
+ * The resulting DataFrame has one string column per projected variable,
+ * holding the N-Triples form of the bound value, and a
+ * {@link #VISIBILITY_COLUMN} holding the combined visibility of the statements
+ * that produced the row. Results may be exported with the DataFrame writers, or
+ * stored in a PCJ table with {@link #writeToPcj(String, String)}.
+ * <p>
+ * Only queries made of a projection (optionally distinct) over joined
+ * statement patterns in the default graph are supported.
+ */
+public class SparkSparqlEvaluator {
+    /**
+     * Name of the column that holds the visibility of each result.
+     */
+    public static final String VISIBILITY_COLUMN = "visibility";
+
+    private static final String UNION_VISIBILITY = "ryaUnionVisibility";
+    private static final String VARIABLE_PREFIX = "var_";
+    private static final int PCJ_BATCH_SIZE = 1000;
+
+    private final SQLContext sqlContext;
+    private final JavaSparkContext sc;
+    private final Configuration conf;
+
+    private String zk;
+    private String instance;
+    private String userName;
+    private String pwd;
+    private boolean mock;
+    private String tablePrefix;
+    private Authorizations authorizations;
+
+    /**
+     * Constructs an instance of {@link SparkSparqlEvaluator}.
+     *
+     * @param sqlContext - The Spark SQL context queries are run in. (not null)
+     * @param conf - Holds the Accumulo connection and Rya table prefix
+     *   properties, as used by {@link MRUtils}. (not null)
+     */
+    public SparkSparqlEvaluator(final SQLContext sqlContext, final Configuration conf) {
+        this.sqlContext = Preconditions.checkNotNull(sqlContext);
+        this.sc = JavaSparkContext.fromSparkContext(sqlContext.sparkContext());
+        this.conf = new Configuration(Preconditions.checkNotNull(conf));
+        loadConfiguration();
+        sqlContext.udf().register(UNION_VISIBILITY,
+                (UDF2<String, String, String>) VisibilitySimplifier::unionAndSimplify,
+                DataTypes.StringType);
+    }
+
+    /**
+     * Evaluates a SPARQL query.
+     *
+     * @param sparql - A query made of a basic graph pattern. (not null)
+     * @return The results of the query.
+     * @throws MalformedQueryException The query could not be parsed.
+     * @throws IllegalArgumentException The query contains something other than
+     *   a basic graph pattern.
+     * @throws IOException The Rya tables could not be read.
+     */
+    public DataFrame evaluate(final String sparql) throws MalformedQueryException, IOException {
+        Preconditions.checkNotNull(sparql);
+        TupleExpr expr = new SPARQLParser().parseQuery(sparql, null).getTupleExpr();
+        if (expr instanceof QueryRoot) {
+            expr = ((QueryRoot) expr).getArg();
+        }
+        boolean distinct = false;
+        if (expr instanceof Distinct || expr instanceof Reduced) {
+            distinct = expr instanceof Distinct;
+            expr = ((UnaryTupleOperator) expr).getArg();
+        }
+        Preconditions.checkArgument(expr instanceof Projection,
+                "Only SELECT queries over basic graph patterns are supported.");
+        final Projection projection = (Projection) expr;
+        final List<StatementPattern> patterns = new ArrayList<>();
+        collectPatterns(projection.getArg(), patterns);
+
+        // Join the patterns, starting with the most selective one and always
+        // preferring a pattern that shares a variable with the joined result.
+        final List<StatementPattern> remaining = new ArrayList<>(patterns);
+        StatementPattern next = mostSelective(remaining, Collections.<String>emptySet());
+        remaining.remove(next);
+        DataFrame result = load(next);
+        final Set<String> bound = new HashSet<>(variables(next));
+        while (!remaining.isEmpty()) {
+            next = mostSelective(remaining, bound);
+            remaining.remove(next);
+            result = join(result, load(next));
+            bound.addAll(variables(next));
+        }
+
+        final List<Column> columns = new ArrayList<>();
+        for (final ProjectionElem elem : projection.getProjectionElemList().getElements()) {
+            Preconditions.checkArgument(bound.contains(elem.getSourceName()),
+                    "Projected variable ?" + elem.getSourceName() + " does not appear in the query.");
+            columns.add(result.col(column(elem.getSourceName())).as(elem.getTargetName()));
+        }
+        columns.add(result.col(VISIBILITY_COLUMN));
+        result = result.select(columns.toArray(new Column[columns.size()]));
+        return distinct ? result.distinct() : result;
+    }
+
+    /**
+     * Converts the results of {@link #evaluate(String)} into binding sets.
+     *
+     * @param results - Query results. (not null)
+     * @return The binding sets, along with their visibilities.
+     */
+    public static JavaRDD<VisibilityBindingSet> toBindingSets(final DataFrame results) {
+        final String[] names = results.columns();
+        return results.javaRDD().map(row -> {
+            final ValueFactory vf = ValueFactoryImpl.getInstance();
+            final QueryBindingSet bindings = new QueryBindingSet();
+            String visibility = "";
+            for (int i = 0; i < names.length; i++) {
+                if (VISIBILITY_COLUMN.equals(names[i])) {
+                    visibility = row.getString(i);
+                }
+                else if (!row.isNullAt(i)) {
+                    bindings.addBinding(names[i], NTriplesUtil.parseValue(row.getString(i), vf));
+                }
+            }
+            return new VisibilityBindingSet(bindings, visibility);
+        });
+    }
+
+    /**
+     * Evaluates a query and stores its results in an existing PCJ table.
+     *
+     * @param sparql - The query. It should match the PCJ's query. (not null)
+     * @param pcjId - The ID of the PCJ to store the results in. (not null)
+     * @throws MalformedQueryException The query could not be parsed.
+     * @throws IOException The Rya tables could not be read.
+     */
+    public void writeToPcj(final String sparql, final String pcjId) throws MalformedQueryException, IOException {
+        Preconditions.checkNotNull(pcjId);
+        final SerializableWritable<Configuration> writeConf = new SerializableWritable<>(conf);
+        final String ryaInstance = tablePrefix;
+        toBindingSets(evaluate(sparql)).foreachPartition(results -> {
+            final Connector connector = ConfigUtils.getConnector(writeConf.value());
+            try (AccumuloPcjStorage pcjStorage = new AccumuloPcjStorage(connector, ryaInstance)) {
+                final List<VisibilityBindingSet> batch = new ArrayList<>(PCJ_BATCH_SIZE);
+                while (results.hasNext()) {
+                    batch.add(results.next());
+                    if (batch.size() == PCJ_BATCH_SIZE) {
+                        pcjStorage.addResults(pcjId, batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    pcjStorage.addResults(pcjId, batch);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the statements that match a single pattern.
+     */
+    private DataFrame load(final StatementPattern pattern) throws IOException {
+        final RyaURI subject = pattern.getSubjectVar().hasValue()
+                ? RdfToRyaConversions.convertResource((Resource) pattern.getSubjectVar().getValue()) : null;
+        final RyaURI predicate = pattern.getPredicateVar().hasValue()
+                ? RdfToRyaConversions.convertURI((URI) pattern.getPredicateVar().getValue()) : null;
+        final RyaType object = pattern.getObjectVar().hasValue()
+                ? RdfToRyaConversions.convertValue(pattern.getObjectVar().getValue()) : null;
+
+        // Pick the table and range the same way the Rya query engine does.
+        final AccumuloRdfConfiguration ryaConf = new AccumuloRdfConfiguration(conf);
+        final TriplePatternStrategy strategy = RyaTripleContext.getInstance(ryaConf)
+                .retrieveStrategy(subject, predicate, object, null);
+        TABLE_LAYOUT layout = TABLE_LAYOUT.SPO;
+        Range range = new Range();
+        if (strategy != null) {
+            final Map.Entry<TABLE_LAYOUT, ByteRange> entry = strategy.defineRange(subject, predicate, object, null, ryaConf);
+            layout = entry.getKey();
+            range = new Range(new Text(entry.getValue().getStart()), new Text(entry.getValue().getEnd()));
+        }
+
+        final Job job = Job.getInstance(conf, sc.appName());
+        try {
+            RyaInputFormat.setConnectorInfo(job, userName, new PasswordToken(pwd));
+        }
+        catch (final AccumuloSecurityException e) {
+            throw new IOException(e);
+        }
+        if (mock) {
+            RyaInputFormat.setMockInstance(job, instance);
+        }
+        else {
+            final ClientConfiguration clientConfig = new ClientConfiguration()
+                    .with(ClientProperty.INSTANCE_NAME, instance).with(ClientProperty.INSTANCE_ZK_HOST, zk);
+            RyaInputFormat.setZooKeeperInstance(job, clientConfig);
+        }
+        RyaInputFormat.setScanAuthorizations(job, authorizations);
+        RyaInputFormat.setTableLayout(job, layout);
+        InputFormatBase.setInputTableName(job, RdfCloudTripleStoreUtils.layoutPrefixToTable(layout, tablePrefix));
+        InputFormatBase.setRanges(job, Collections.singleton(range));
+
+        // Each distinct variable becomes a column. The range may be wider than
+        // the pattern, so every constant and repeated variable is checked again.
+        final Var[] vars = { pattern.getSubjectVar(), pattern.getPredicateVar(), pattern.getObjectVar() };
+        final Map<String, Integer> positions = new LinkedHashMap<>();
+        final Value[] constants = new Value[3];
+        final int[] sameAs = { -1, -1, -1 };
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i].hasValue()) {
+                constants[i] = vars[i].getValue();
+            }
+            else if (positions.containsKey(vars[i].getName())) {
+                sameAs[i] = positions.get(vars[i].getName());
+            }
+            else {
+                positions.put(vars[i].getName(), i);
+            }
+        }
+        final List<StructField> fields = new ArrayList<>();
+        final int[] outputPositions = new int[positions.size()];
+        int n = 0;
+        for (final Map.Entry<String, Integer> var : positions.entrySet()) {
+            fields.add(DataTypes.createStructField(column(var.getKey()), DataTypes.StringType, false));
+            outputPositions[n++] = var.getValue();
+        }
+        fields.add(DataTypes.createStructField(VISIBILITY_COLUMN, DataTypes.StringType, false));
+
+        final JavaRDD<Row> rows = sc.newAPIHadoopRDD(job.getConfiguration(), RyaInputFormat.class,
+                Text.class, RyaStatementWritable.class).values().flatMap(writable -> {
+            final RyaStatement ryaStatement = writable.getRyaStatement();
+            final Statement statement = RyaToRdfConversions.convertStatement(ryaStatement);
+            final Value[] values = { statement.getSubject(), statement.getPredicate(), statement.getObject() };
+            for (int i = 0; i < values.length; i++) {
+                if ((constants[i] != null && !constants[i].equals(values[i]))
+                        || (sameAs[i] >= 0 && !values[sameAs[i]].equals(values[i]))) {
+                    return Collections.<Row>emptyList();
+                }
+            }
+            final Object[] row = new Object[outputPositions.length + 1];
+            for (int i = 0; i < outputPositions.length; i++) {
+                row[i] = NTriplesUtil.toNTriplesString(values[outputPositions[i]]);
+            }
+            final byte[] visibility = ryaStatement.getColumnVisibility();
+            row[outputPositions.length] = visibility == null ? "" : new String(visibility, StandardCharsets.UTF_8);
+            return Collections.singletonList(RowFactory.create(row));
+        });
+        return sqlContext.createDataFrame(rows, DataTypes.createStructType(fields));
+    }
+
+    /**
+     * Joins two intermediate results on their shared variables and combines
+     * their visibilities.
+     */
+    private static DataFrame join(final DataFrame left, DataFrame right) {
+        final List<String> shared = new ArrayList<>();
+        final Set<String> leftColumns = new HashSet<>();
+        Collections.addAll(leftColumns, left.columns());
+        for (final String name : right.columns()) {
+            if (!VISIBILITY_COLUMN.equals(name) && leftColumns.contains(name)) {
+                shared.add(name);
+            }
+        }
+        final String rightVisibility = VISIBILITY_COLUMN + "_right";
+        right = right.withColumnRenamed(VISIBILITY_COLUMN, rightVisibility);
+        final DataFrame joined = shared.isEmpty()
+                ? left.join(right)
+                : left.join(right, JavaConversions.asScalaBuffer(shared).toSeq());
+
+        final List<Column> columns = new ArrayList<>();
+        for (final String name : joined.columns()) {
+            if (!VISIBILITY_COLUMN.equals(name) && !rightVisibility.equals(name)) {
+                columns.add(joined.col(name));
+            }
+        }
+        columns.add(functions.callUDF(UNION_VISIBILITY, joined.col(VISIBILITY_COLUMN), joined.col(rightVisibility))
+                .as(VISIBILITY_COLUMN));
+        return joined.select(columns.toArray(new Column[columns.size()]));
+    }
+
+    /**
+     * Collects the statement patterns of a basic graph pattern.
+     */
+    private static void collectPatterns(final TupleExpr expr, final List<StatementPattern> patterns) {
+        if (expr instanceof Join) {
+            collectPatterns(((Join) expr).getLeftArg(), patterns);
+            collectPatterns(((Join) expr).getRightArg(), patterns);
+        }
+        else if (expr instanceof StatementPattern) {
+            final StatementPattern pattern = (StatementPattern) expr;
+            Preconditions.checkArgument(pattern.getScope() == Scope.DEFAULT_CONTEXTS,
+                    "Named graph patterns are not supported.");
+            patterns.add(pattern);
+        }
+        else {
+            throw new IllegalArgumentException("Only basic graph patterns are supported, but the query contains: "
+                    + expr.getSignature());
+        }
+    }
+
+    /**
+     * Picks the pattern with the most constants, preferring patterns that
+     * share a variable with those already joined so cross products are only
+     * used when the query requires them.
+     */
+    private static StatementPattern mostSelective(final List<StatementPattern> patterns, final Set<String> bound) {
+        StatementPattern best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (final StatementPattern pattern : patterns) {
+            int score = 0;
+            for (final Var var : pattern.getVarList()) {
+                if (var.hasValue()) {
+                    score += 1;
+                }
+            }
+            if (bound.isEmpty() || !Collections.disjoint(bound, variables(pattern))) {
+                score += 10;
+            }
+            if (score > bestScore) {
+                best = pattern;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static Set<String> variables(final StatementPattern pattern) {
+        final Set<String> names = new LinkedHashSet<>();
+        for (final Var var : pattern.getVarList()) {
+            if (!var.hasValue()) {
+                names.add(var.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Maps a variable name to a column name that is safe to use with Spark SQL.
+     */
+    private static String column(final String variable) {
+        return VARIABLE_PREFIX + variable.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    /**
+     * Loads the Accumulo connection properties, as {@link GraphXGraphGenerator} does.
+     */
+    private void loadConfiguration() {
+        zk = MRUtils.getACZK(conf);
+        instance = MRUtils.getACInstance(conf);
+        userName = MRUtils.getACUserName(conf);
+        pwd = MRUtils.getACPwd(conf);
+        mock = MRUtils.getACMock(conf, false);
+        tablePrefix = MRUtils.getTablePrefix(conf);
+        final String authString = conf.get(MRUtils.AC_AUTH_PROP);
+        if (authString != null && !authString.isEmpty()) {
+            authorizations = new Authorizations(authString.split(","));
+            conf.set(ConfigUtils.CLOUDBASE_AUTHS, authString);
+        }
+        else {
+            authorizations = AccumuloRdfConstants.ALL_AUTHORIZATIONS;
+        }
+        if (tablePrefix == null) {
+            tablePrefix = RdfCloudTripleStoreConstants.TBL_PRFX_DEF;
+            MRUtils.setTablePrefix(conf, tablePrefix);
+        }
+        Preconditions.checkNotNull(instance, "Accumulo instance name [" + MRUtils.AC_INSTANCE_PROP + "] not set.");
+        Preconditions.checkNotNull(userName, "Accumulo username [" + MRUtils.AC_USERNAME_PROP + "] not set.");
+        Preconditions.checkNotNull(pwd, "Accumulo password [" + MRUtils.AC_PWD_PROP + "] not set.");
+        if (!mock) {
+            conf.set(ConfigUtils.CLOUDBASE_ZOOKEEPERS, zk);
+        }
+        conf.set(ConfigUtils.CLOUDBASE_INSTANCE, instance);
+        conf.set(ConfigUtils.CLOUDBASE_USER, userName);
+        conf.set(ConfigUtils.CLOUDBASE_PASSWORD, pwd);
+        conf.setBoolean(ConfigUtils.USE_MOCK_INSTANCE, mock);
+        conf.set(RdfCloudTripleStoreConfiguration.CONF_TBL_PREFIX, tablePrefix);
+    }
+}
@@ -0,0 +1,194 @@
+package org.apache.rya.accumulo.spark;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.accumulo.mr.MRUtils;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
+import org.apache.rya.rdftriplestore.RyaSailRepository;
+import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.SQLContext;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.query.BindingSet;
+import org.openrdf.query.QueryLanguage;
+import org.openrdf.query.TupleQueryResult;
+import org.openrdf.query.algebra.evaluation.QueryBindingSet;
+import org.openrdf.repository.sail.SailRepositoryConnection;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Tests that {@link SparkSparqlEvaluator} finds the same results as the Rya
+ * sail when it is run by a local Spark context over a mock Accumulo instance.
+ */
+public class SparkSparqlEvaluatorTest {
+    private static final String INSTANCE = SparkSparqlEvaluatorTest.class.getSimpleName() + ".myinstance";
+    private static final String USER = "root";
+    private static final String PASSWORD = "";
+    private static final String TABLE_PREFIX = "spark_";
+    private static final String NS = "urn:test#";
+
+    private static JavaSparkContext sc;
+    private static SQLContext sqlContext;
+
+    private RyaSailRepository repository;
+    private SailRepositoryConnection conn;
+    private SparkSparqlEvaluator evaluator;
+
+    @BeforeClass
+    public static void startSpark() {
+        sc = new JavaSparkContext(new SparkConf()
+                .setMaster("local[2]")
+                .setAppName(SparkSparqlEvaluatorTest.class.getSimpleName())
+                .set("spark.ui.enabled", "false"));
+        sqlContext = new SQLContext(sc);
+    }
+
+    @AfterClass
+    public static void stopSpark() {
+        if (sc != null) {
+            sc.stop();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        final Connector connector = new MockInstance(INSTANCE).getConnector(USER, new PasswordToken(PASSWORD));
+        final AccumuloRdfConfiguration conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix(TABLE_PREFIX);
+        conf.setDisplayQueryPlan(false);
+        final AccumuloRyaDAO dao = new AccumuloRyaDAO();
+        dao.setConnector(connector);
+        dao.setConf(conf);
+        final RdfCloudTripleStore store = new RdfCloudTripleStore();
+        store.setRyaDAO(dao);
+        repository = new RyaSailRepository(store);
+        repository.initialize();
+        conn = repository.getConnection();
+
+        final ValueFactory vf = ValueFactoryImpl.getInstance();
+        conn.add(vf.createURI(NS, "alice"), vf.createURI(NS, "knows"), vf.createURI(NS, "bob"));
+        conn.add(vf.createURI(NS, "charlie"), vf.createURI(NS, "knows"), vf.createURI(NS, "bob"));
+        conn.add(vf.createURI(NS, "bob"), vf.createURI(NS, "knows"), vf.createURI(NS, "alice"));
+        conn.add(vf.createURI(NS, "dave"), vf.createURI(NS, "knows"), vf.createURI(NS, "dave"));
+        conn.add(vf.createURI(NS, "alice"), vf.createURI(NS, "worksAt"), vf.createURI(NS, "acme"));
+        conn.add(vf.createURI(NS, "bob"), vf.createURI(NS, "worksAt"), vf.createURI(NS, "acme"));
+        conn.add(vf.createURI(NS, "charlie"), vf.createURI(NS, "worksAt"), vf.createURI(NS, "initech"));
+        conn.add(vf.createURI(NS, "alice"), vf.createURI(NS, "age"), vf.createLiteral(30));
+        conn.add(vf.createURI(NS, "charlie"), vf.createURI(NS, "age"), vf.createLiteral(30));
+        conn.add(vf.createURI(NS, "bob"), vf.createURI(NS, "age"), vf.createLiteral(25));
+
+        final Configuration sparkConf = new Configuration();
+        sparkConf.setBoolean(MRUtils.AC_MOCK_PROP, true);
+        sparkConf.set(MRUtils.AC_INSTANCE_PROP, INSTANCE);
+        sparkConf.set(MRUtils.AC_USERNAME_PROP, USER);
+        sparkConf.set(MRUtils.AC_PWD_PROP, PASSWORD);
+        sparkConf.set(MRUtils.TABLE_PREFIX_PROPERTY, TABLE_PREFIX);
+        evaluator = new SparkSparqlEvaluator(sqlContext, sparkConf);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        conn.clear();
+        conn.close();
+        repository.shutDown();
+    }
+
+    @Test
+    public void join() throws Exception {
+        assertSameAsSail("SELECT ?person ?company WHERE { "
+                + "?person <" + NS + "knows> ?friend . "
+                + "?friend <" + NS + "worksAt> ?company . }");
+    }
+
+    @Test
+    public void joinOnSeveralPatterns() throws Exception {
+        assertSameAsSail("SELECT ?person ?friend ?age WHERE { "
+                + "?person <" + NS + "knows> ?friend . "
+                + "?person <" + NS + "worksAt> ?company . "
+                + "?friend <" + NS + "age> ?age . }");
+    }
+
+    @Test
+    public void constantsFilterStatements() throws Exception {
+        assertSameAsSail("SELECT ?person WHERE { "
+                + "?person <" + NS + "knows> <" + NS + "bob> . "
+                + "?person <" + NS + "age> 30 . }");
+    }
+
+    @Test
+    public void repeatedVariablesFilterStatements() throws Exception {
+        assertSameAsSail("SELECT ?person WHERE { ?person <" + NS + "knows> ?person . }");
+    }
+
+    @Test
+    public void projection() throws Exception {
+        assertSameAsSail("SELECT ?company WHERE { ?person <" + NS + "worksAt> ?company . }");
+        assertSameAsSail("SELECT DISTINCT ?company WHERE { ?person <" + NS + "worksAt> ?company . }");
+    }
+
+    @Test
+    public void noResults() throws Exception {
+        assertSameAsSail("SELECT ?person WHERE { ?person <" + NS + "worksAt> <" + NS + "hooli> . }");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void filtersAreNotSupported() throws Exception {
+        evaluator.evaluate("SELECT ?person WHERE { ?person <" + NS + "age> ?age . FILTER(?age > 26) }");
+    }
+
+    /**
+     * Checks that the evaluator finds the same results as the sail, including duplicates.
+     */
+    private void assertSameAsSail(final String sparql) throws Exception {
+        final Multiset<BindingSet> expected = HashMultiset.create();
+        final TupleQueryResult results = conn.prepareTupleQuery(QueryLanguage.SPARQL, sparql).evaluate();
+        try {
+            while (results.hasNext()) {
+                expected.add(new QueryBindingSet(results.next()));
+            }
+        } finally {
+            results.close();
+        }
+
+        final Multiset<BindingSet> actual = HashMultiset.create();
+        for (final VisibilityBindingSet result : SparkSparqlEvaluator.toBindingSets(evaluator.evaluate(sparql)).collect()) {
+            assertEquals("", result.getVisibility());
+            actual.add(new QueryBindingSet(result));
+        }
+        assertEquals(expected, actual);
+    }
+}
@@ -27,8 +27,11 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -68,14 +71,22 @@ import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandler;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.RDFHandlerBase;
 import org.openrdf.rio.rdfxml.RDFXMLWriter;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Class RdfController
@@ -83,11 +94,35 @@ import org.springframework.web.bind.annotation.RequestParam;
  * Time: 11:07:19 AM
  */
 @Controller
-public class RdfController {
+public class RdfController implements DisposableBean {
     private static final Logger log = Logger.getLogger(RdfController.class);
 
     private static final int QUERY_TIME_OUT_SECONDS = 120;
 
+    private static final int DEFAULT_LOAD_BATCH_SIZE = 10000;
+
+    /**
+     * Interrupts queries that run past {@link #QUERY_TIME_OUT_SECONDS}. A single daemon thread is shared by every
+     * request instead of creating a {@link java.util.Timer} (and its thread) per query.
+     */
+    private static final ScheduledExecutorService QUERY_TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("rdf-controller-query-timeout").build());
+
+    /**
+     * Evaluates queries submitted through {@code /queryrdf/async}.
+     */
+    private final ThreadPoolTaskExecutor queryExecutor;
+
+    public RdfController() {
+        queryExecutor = new ThreadPoolTaskExecutor();
+        queryExecutor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        queryExecutor.setMaxPoolSize(Runtime.getRuntime().availableProcessors() * 4);
+        queryExecutor.setQueueCapacity(1000);
+        queryExecutor.setThreadNamePrefix("rdf-controller-query-");
+        queryExecutor.setDaemon(true);
+        queryExecutor.initialize();
+    }
+
     @Autowired
     SailRepository repository;
 
@@ -107,19 +142,49 @@ public class RdfController {
                          final HttpServletResponse response) {
         // WARNING: if you add to the above request variables,
         // Be sure to validate and encode since they come from the outside and could contain odd damaging character sequences.
-        SailRepositoryConnection conn = null;
-        final Thread queryThread = Thread.currentThread();
         auth = StringUtils.arrayToCommaDelimitedString(provider.getUserAuths(request));
-        final Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
+        executeQuery(query, auth, vis, infer, nullout, emit, callback, response);
+    }
+
+    /**
+     * Same as {@link #queryRdf}, but releases the servlet container thread while the query runs. The query is
+     * evaluated on a bounded worker pool and its results are streamed straight to the response as they are produced.
+     */
+    @RequestMapping(value = "/queryrdf/async", method = {RequestMethod.GET, RequestMethod.POST})
+    public WebAsyncTask<Void> queryRdfAsync(@RequestParam("query") final String query,
+                         @RequestParam(value = RdfCloudTripleStoreConfiguration.CONF_CV, required = false) final String vis,
+                         @RequestParam(value = RdfCloudTripleStoreConfiguration.CONF_INFER, required = false) final String infer,
+                         @RequestParam(value = "nullout", required = false) final String nullout,
+                         @RequestParam(value = RdfCloudTripleStoreConfiguration.CONF_RESULT_FORMAT, required = false) final String emit,
+                         @RequestParam(value = "callback", required = false) final String callback,
+                         final HttpServletRequest request,
+                         final HttpServletResponse response) {
+        // WARNING: if you add to the above request variables,
+        // Be sure to validate and encode since they come from the outside and could contain odd damaging character sequences.
+        final String auth = StringUtils.arrayToCommaDelimitedString(provider.getUserAuths(request));
+        final Callable<Void> task = new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                executeQuery(query, auth, vis, infer, nullout, emit, callback, response);
+                return null;
+            }
+        };
+        // The query interrupts itself after QUERY_TIME_OUT_SECONDS, give it a moment to unwind before the
+        // container gives up on the request.
+        return new WebAsyncTask<Void>((QUERY_TIME_OUT_SECONDS + 10) * 1000L, queryExecutor, task);
+    }
 
+    private void executeQuery(final String query, final String auth, final String vis, final String infer,
+            final String nullout, final String emit, final String callback, final HttpServletResponse response) {
+        SailRepositoryConnection conn = null;
+        final Thread queryThread = Thread.currentThread();
+        final ScheduledFuture<?> timeout = QUERY_TIMEOUT_SCHEDULER.schedule(new Runnable() {
             @Override
             public void run() {
                 log.debug("interrupting");
                 queryThread.interrupt();
-
             }
-        }, QUERY_TIME_OUT_SECONDS * 1000);
+        }, QUERY_TIME_OUT_SECONDS, TimeUnit.SECONDS);
 
         try {
             final ServletOutputStream os = response.getOutputStream();
@@ -165,6 +230,9 @@ public class RdfController {
             log.error("Error running query", e);
             throw new RuntimeException(e);
         } finally {
+            timeout.cancel(false);
+            // Clear an interrupt that raced with the end of the query so it does not leak into the next request.
+            Thread.interrupted();
             if (conn != null) {
                 try {
                     conn.close();
@@ -173,8 +241,6 @@ public class RdfController {
                 }
             }
         }
-
-        timer.cancel();
     }
 
     private void performQuery(final String query, final RepositoryConnection conn, final String auth, final String infer, final String nullout, final TupleQueryResultHandler handler) throws RepositoryException, MalformedQueryException, QueryEvaluationException, TupleQueryResultHandlerException {
@@ -360,4 +426,107 @@ public class RdfController {
             }
         }
     }
+
+    /**
+     * Loads RDF by parsing it directly from the request body instead of buffering the whole upload in memory first.
+     * Parsed statements are handed to the repository in batches of {@code batchsize} statements.
+     */
+    @RequestMapping(value = "/loadrdf/stream", method = RequestMethod.POST)
+    public void loadRdfStream(@RequestParam(required = false) final String format,
+            @RequestParam(value = RdfCloudTripleStoreConfiguration.CONF_CV, required = false) final String cv,
+            @RequestParam(required = false) final String graph,
+            @RequestParam(value = "batchsize", required = false) final Integer batchSize,
+                        final HttpServletRequest request,
+                        final HttpServletResponse response)
+            throws RepositoryException, IOException, RDFParseException, RDFHandlerException {
+        RDFFormat format_r = RDFFormat.RDFXML;
+        if (format != null) {
+            format_r = RDFFormat.valueOf(format);
+            if (format_r == null) {
+                throw new RuntimeException("RDFFormat[" + format + "] not found");
+            }
+        }
+
+        // add named graph as context (if specified).
+        final List<Resource> contextList = new ArrayList<Resource>();
+        if (graph != null) {
+            contextList.add(VALUE_FACTORY.createURI(graph));
+        }
+        final Resource[] contexts = contextList.toArray(new Resource[contextList.size()]);
+        final int batch = batchSize == null || batchSize <= 0 ? DEFAULT_LOAD_BATCH_SIZE : batchSize;
+
+        SailRepositoryConnection conn = null;
+        try {
+            conn = repository.getConnection();
+
+            if (conn.getSailConnection() instanceof RdfCloudTripleStoreConnection && cv != null) {
+                final RdfCloudTripleStoreConnection<?> sailConnection = (RdfCloudTripleStoreConnection<?>) conn.getSailConnection();
+                sailConnection.getConf().set(RdfCloudTripleStoreConfiguration.CONF_CV, cv);
+            }
+
+            final RDFParser parser = Rio.createParser(format_r, conn.getValueFactory());
+            final BatchingRDFInserter inserter = new BatchingRDFInserter(conn, batch, contexts);
+            parser.setRDFHandler(inserter);
+            parser.parse(request.getInputStream(), "");
+            conn.commit();
+            log.info("Loaded " + inserter.getCount() + " statements.");
+        } finally {
+            if (conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Adds parsed statements to a repository connection in fixed size batches.
+     */
+    private static final class BatchingRDFInserter extends RDFHandlerBase {
+        private final RepositoryConnection conn;
+        private final int batchSize;
+        private final Resource[] contexts;
+        private final List<Statement> batch;
+        private long count = 0;
+
+        public BatchingRDFInserter(final RepositoryConnection conn, final int batchSize, final Resource... contexts) {
+            this.conn = conn;
+            this.batchSize = batchSize;
+            this.contexts = contexts;
+            batch = new ArrayList<Statement>(batchSize);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void handleStatement(final Statement st) throws RDFHandlerException {
+            batch.add(st);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void endRDF() throws RDFHandlerException {
+            flush();
+        }
+
+        private void flush() throws RDFHandlerException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                conn.add(batch, contexts);
+            } catch (final RepositoryException e) {
+                throw new RDFHandlerException("Unable to add a batch of " + batch.size() + " statements.", e);
+            }
+            count += batch.size();
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        queryExecutor.shutdown();
+    }
 }
@@ -22,8 +22,11 @@ package org.apache.cloud.rdf.web.sail;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
@@ -45,6 +48,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.util.NestedServletException;
@@ -190,4 +194,38 @@ public class RdfControllerTest {
 
     }
 
+    @Test
+    public void asyncQuery() throws Exception {
+        final MvcResult result = this.mockMvc.perform(get("/queryrdf/async")
+                .param("query", "SELECT * WHERE { ?s ?p ?o . }")
+                .param("query.resultformat", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        result.getAsyncResult();
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void streamingLoad() throws Exception {
+        this.mockMvc.perform(post("/loadrdf/stream")
+                .content("<http://mynamespace/streamed1> <http://mynamespace#pred1> \"one\" . \n"
+                        + "<http://mynamespace/streamed2> <http://mynamespace#pred1> \"two\" . \n"
+                        + "<http://mynamespace/streamed3> <http://mynamespace#pred1> \"three\" . ")
+                .param("format", "N-Triples")
+                .param("batchsize", "2"))
+                .andExpect(status().isOk());
+
+        ValueFactory vf = repository.getValueFactory();
+        RepositoryConnection con = repository.getConnection();
+
+        URI p = vf.createURI("http://mynamespace#pred1");
+        assertTrue(con.getStatements(vf.createURI("http://mynamespace/streamed1"), p, vf.createLiteral("one"), false).hasNext());
+        assertTrue(con.getStatements(vf.createURI("http://mynamespace/streamed2"), p, vf.createLiteral("two"), false).hasNext());
+        assertTrue(con.getStatements(vf.createURI("http://mynamespace/streamed3"), p, vf.createLiteral("three"), false).hasNext());
+        con.close();
+    }
+
 }